@@ -43,6 +43,7 @@ import org.neo4j.bolt.v1.runtime.MonitoredSessions;
 import org.neo4j.bolt.v1.runtime.Sessions;
 import org.neo4j.bolt.v1.runtime.internal.EncryptionRequiredSessions;
 import org.neo4j.bolt.v1.runtime.internal.StandardSessions;
+import org.neo4j.bolt.v1.runtime.internal.concurrent.PooledSessions;
 import org.neo4j.bolt.v1.runtime.internal.concurrent.ThreadedSessions;
 import org.neo4j.bolt.v1.transport.BoltProtocolV1;
 import org.neo4j.collection.primitive.PrimitiveLongObjectMap;
@@ -100,6 +101,26 @@ public class BoltKernelExtension extends KernelExtensionFactory<BoltKernelExtens
         public static final Setting<File> tls_key_file = derivedSetting(
                 "unsupported.dbms.security.tls_key_file", certificates_directory,
                 (certificates ) -> new File( certificates, "neo4j.key" ), PATH );
+
+        @Internal
+        @Description( "Number of threads serving Bolt sessions. When set, sessions with pending requests are " +
+                      "multiplexed onto a pool of this size, and a session only keeps a thread to itself while it " +
+                      "has an open transaction. The default, 0, uses one thread per session." )
+        public static final Setting<Integer> worker_pool_size =
+                setting( "unsupported.dbms.bolt.worker_pool_size", INTEGER, "0", min( 0 ) );
+
+        @Internal
+        @Description( "Maximum time a Bolt session waits for a client that has stopped reading the results sent " +
+                      "to it. When exceeded, the connection is closed and the session fails." )
+        public static final Setting<Long> write_stall_timeout =
+                setting( "unsupported.dbms.bolt.write_stall_timeout", DURATION, "2m" );
+
+        @Internal
+        @Description( "Number of records a Bolt session produces at a time when streaming a result. Between batches " +
+                      "the session stops producing records, and gives up its thread, while the client is not " +
+                      "keeping up with reading them." )
+        public static final Setting<Integer> record_batch_size =
+                setting( "unsupported.dbms.bolt.record_batch_size", INTEGER, "100", min( 1 ) );
     }
 
     public interface Dependencies
@@ -139,12 +160,18 @@ public class BoltKernelExtension extends KernelExtensionFactory<BoltKernelExtens
 
         Netty4LogBridge.setLogProvider( logging.getInternalLogProvider() );
 
+        Sessions standardSessions = life.add( new StandardSessions( api, dependencies.usageData(), logging,
+                dependencies.txBridge() ) );
+        int workerPoolSize = config.get( Settings.worker_pool_size );
         Sessions sessions =
                 new MonitoredSessions( dependencies.monitors(),
-                        new ThreadedSessions(
-                                life.add( new StandardSessions( api, dependencies.usageData(), logging,
-                                        dependencies.txBridge() ) ),
-                                scheduler, logging ), Clock.systemUTC() );
+                        workerPoolSize > 0
+                        ? life.add( new PooledSessions( standardSessions, scheduler, logging, workerPoolSize,
+                                dependencies.monitors().newMonitor( MonitoredSessions.WorkerPoolMonitor.class ) ) )
+                        : new ThreadedSessions( standardSessions, scheduler, logging ), Clock.systemUTC() );
+
+        long writeStallTimeout = config.get( Settings.write_stall_timeout );
+        int recordBatchSize = config.get( Settings.record_batch_size );
 
         List<ProtocolInitializer> connectors = config
                 .view( enumerate( GraphDatabaseSettings.Connector.class ) )
@@ -173,7 +200,8 @@ public class BoltKernelExtension extends KernelExtensionFactory<BoltKernelExtens
 
                     return new SocketTransport( address, sslCtx, logging.getInternalLogProvider(),
                             newVersions( logging, requireEncryption ?
-                                    new EncryptionRequiredSessions( sessions ) : sessions ) );
+                                    new EncryptionRequiredSessions( sessions ) : sessions, writeStallTimeout,
+                                    recordBatchSize ) );
                 } )
                 .collect( toList() );
 
@@ -207,14 +235,15 @@ public class BoltKernelExtension extends KernelExtensionFactory<BoltKernelExtens
     }
 
     private PrimitiveLongObjectMap<BiFunction<Channel,Boolean,BoltProtocol>> newVersions( LogService logging,
-            Sessions sessions )
+            Sessions sessions, long writeStallTimeout, int recordBatchSize )
     {
         PrimitiveLongObjectMap<BiFunction<Channel,Boolean,BoltProtocol>> availableVersions = longObjectMap();
         availableVersions.put(
                 BoltProtocolV1.VERSION,
                 ( channel, isEncrypted ) -> {
                     String descriptor = format( "\tclient%s\tserver%s", channel.remoteAddress(), channel.localAddress() );
-                    return new BoltProtocolV1( logging, sessions.newSession( descriptor, isEncrypted ), channel );
+                    return new BoltProtocolV1( logging, sessions.newSession( descriptor, isEncrypted ), channel,
+                            writeStallTimeout, recordBatchSize );
                 }
         );
         return availableVersions;
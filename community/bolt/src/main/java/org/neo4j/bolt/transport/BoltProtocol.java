@@ -33,6 +33,9 @@ public interface BoltProtocol
     /** Handle an incoming message, and reply if desired via the {@code ctx} argument */
     void handle( ChannelHandlerContext ctx, ByteBuf data ) throws IOException;
 
+    /** Called when the writability of the channel changes, see {@link io.netty.channel.Channel#isWritable()} */
+    void onWritabilityChanged();
+
     /** Used for version negotiation */
     int version();
 
@@ -74,6 +74,16 @@ public class SocketTransportHandler extends ChannelInboundHandlerAdapter
         }
     }
 
+    @Override
+    public void channelWritabilityChanged( ChannelHandlerContext ctx ) throws Exception
+    {
+        if ( protocol != null )
+        {
+            protocol.onWritabilityChanged();
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
     @Override
     public void channelInactive( ChannelHandlerContext ctx ) throws Exception
     {
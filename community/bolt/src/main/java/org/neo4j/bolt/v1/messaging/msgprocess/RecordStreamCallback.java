@@ -22,37 +22,59 @@ package org.neo4j.bolt.v1.messaging.msgprocess;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.BooleanSupplier;
 
 import org.neo4j.logging.Log;
 import org.neo4j.bolt.v1.runtime.spi.Record;
 import org.neo4j.bolt.v1.runtime.spi.RecordStream;
 
+/**
+ * Streams the records of a result to the client. Records are pulled a batch at a time, and only for as long as the
+ * client keeps up with reading them. When it does not, the session suspends the pull and continues it, with this
+ * same callback, once the client has caught up.
+ */
 public class RecordStreamCallback extends MessageProcessingCallback<RecordStream>
 {
     private final Map<String,Object> successMetadata = new HashMap<>();
+    private final int batchSize;
+    private final BooleanSupplier writable;
+    private final RecordStream.Visitor visitor = new RecordStream.Visitor()
+    {
+        @Override
+        public void visit( Record record ) throws IOException
+        {
+            out.handleRecordMessage( record );
+        }
+
+        @Override
+        public void addMetadata( String key, Object value )
+        {
+            successMetadata.put( key, value );
+        }
+    };
 
     public RecordStreamCallback( Log log )
+    {
+        this( log, Integer.MAX_VALUE, () -> true );
+    }
+
+    public RecordStreamCallback( Log log, int batchSize, BooleanSupplier writable )
     {
         super( log );
+        this.batchSize = batchSize;
+        this.writable = writable;
     }
 
     @Override
     public void result( RecordStream stream, Void ignore ) throws Exception
     {
-        stream.accept( new RecordStream.Visitor()
+        while ( stream.accept( visitor, batchSize ) )
         {
-            @Override
-            public void visit( Record record ) throws IOException
-            {
-                out.handleRecordMessage( record );
-            }
-
-            @Override
-            public void addMetadata( String key, Object value )
+            if ( !writable.getAsBoolean() )
             {
-                successMetadata.put( key, value );
+                return;
             }
-        } );
+        }
     }
 
     @Override
@@ -21,6 +21,7 @@ package org.neo4j.bolt.v1.messaging.msgprocess;
 
 import java.io.IOException;
 import java.util.Map;
+import java.util.function.BooleanSupplier;
 
 import org.neo4j.bolt.v1.messaging.MessageHandler;
 import org.neo4j.bolt.v1.runtime.Session;
@@ -43,7 +44,17 @@ public class TransportBridge extends MessageHandler.Adapter<RuntimeException>
     public TransportBridge( Log log, Session session, MessageHandler<IOException> output,
             Runnable onEachCompletedRequest )
     {
-        this.resultStreamCallback = new RecordStreamCallback( log );
+        this( log, session, output, onEachCompletedRequest, Integer.MAX_VALUE, () -> true );
+    }
+
+    /**
+     * @param recordBatchSize number of records to stream to the client between checks of whether it keeps up.
+     * @param writable tells if the client is keeping up with the records streamed to it.
+     */
+    public TransportBridge( Log log, Session session, MessageHandler<IOException> output,
+            Runnable onEachCompletedRequest, int recordBatchSize, BooleanSupplier writable )
+    {
+        this.resultStreamCallback = new RecordStreamCallback( log, recordBatchSize, writable );
         this.simpleCallback = new MessageProcessingCallback<>( log );
         this.runCallback = new RunCallback( log );
         this.initCallback = new InitCallback( log );
@@ -130,6 +130,12 @@ public class MonitoredSessions implements Sessions
             delegate.interrupt();
         }
 
+        @Override
+        public void resume()
+        {
+            delegate.resume();
+        }
+
         @Override
         public void close()
         {
@@ -212,4 +218,27 @@ public class MonitoredSessions implements Sessions
          */
         void processingDone( long processingTime );
     }
+
+    /**
+     * For monitoring the pool of worker threads that Bolt sessions are multiplexed onto, when such a pool is used
+     * instead of a thread per session. Implementing and registering this monitor allows tracking how many workers
+     * are busy and how many sessions with pending requests are waiting for a worker.
+     */
+    public interface WorkerPoolMonitor
+    {
+        /**
+         * Called when a session with pending requests is queued up, waiting for a free worker.
+         */
+        void sessionQueued();
+
+        /**
+         * Called when a worker starts serving a queued session.
+         */
+        void sessionActivated();
+
+        /**
+         * Called when a worker is done serving a session, and is free to serve another one.
+         */
+        void sessionDeactivated();
+    }
 }
@@ -197,6 +197,13 @@ public interface Session extends AutoCloseable
      */
     void interrupt();
 
+    /**
+     * Like {@link #interrupt()}, this is a thread safe side-channel method. It signals that the client has caught
+     * up with the records sent to it, so that a {@link #pullAll(Object, Callback) pull} which stopped producing
+     * records while the client was not keeping up can continue.
+     */
+    void resume();
+
     @Override
     void close();
 }
@@ -68,7 +68,26 @@ public class CypherAdapterStream implements RecordStream
             visitor.visit( currentRecord.reset( row ) );
             return true;
         } );
+        addMetadata( visitor );
+    }
+
+    @Override
+    public boolean accept( Visitor visitor, int maxRecords ) throws Exception
+    {
+        for ( int i = 0; i < maxRecords; i++ )
+        {
+            if ( !delegate.hasNext() )
+            {
+                addMetadata( visitor );
+                return false;
+            }
+            visitor.visit( currentRecord.reset( delegate.next() ) );
+        }
+        return true;
+    }
 
+    private void addMetadata( Visitor visitor )
+    {
         QueryExecutionType qt = delegate.getQueryExecutionType();
         visitor.addMetadata( "type", queryTypeCode( qt.queryType() ) );
 
@@ -164,6 +183,16 @@ public class CypherAdapterStream implements RecordStream
             return this;
         }
 
+        public CypherAdapterRecord reset( Map<String,Object> cypherRecord ) throws BoltIOException
+        {
+            for ( int i = 0; i < fields.length; i++ )
+            {
+                fields[i] = cypherRecord.get( fieldNames[i] );
+                assertPackable( fields[i] );
+            }
+            return this;
+        }
+
         private void assertPackable( Object field ) throws BoltIOException
         {
             //TODO this is a temporary measure, currently the packing of points
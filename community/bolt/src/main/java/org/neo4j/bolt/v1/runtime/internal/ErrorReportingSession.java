@@ -102,6 +102,12 @@ public class ErrorReportingSession implements Session
 
     }
 
+    @Override
+    public void resume()
+    {
+
+    }
+
     @Override
     public void close()
     {
@@ -44,6 +44,13 @@ public interface SessionState
     /** Check if the session currently has an open transaction. */
     boolean hasTransaction();
 
+    /**
+     * Check if the last pull stopped before the end of the result, because the client was not keeping up with the
+     * records sent to it. Such a pull is continued by pulling again with the same callback, before anything else is
+     * done with the session.
+     */
+    boolean hasSuspendedPull();
+
     /** Commit the current explicit transaction associated with this session. */
     void commitTransaction();
 
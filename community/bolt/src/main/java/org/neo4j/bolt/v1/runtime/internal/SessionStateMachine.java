@@ -235,7 +235,14 @@ public class SessionStateMachine implements Session, SessionState
                     {
                         try
                         {
-                            ctx.result( ctx.currentResult );
+                            PulledRecordStream stream = new PulledRecordStream( ctx.currentResult );
+                            ctx.result( stream );
+                            if ( stream.stoppedEarly )
+                            {
+                                // The client is not keeping up, keep the rest of the result until it has caught up
+                                ctx.pullSuspended = true;
+                                return STREAM_OPEN;
+                            }
                             return discardAll( ctx );
                         }
                         catch ( Throwable e )
@@ -554,6 +561,9 @@ public class SessionStateMachine implements Session, SessionState
     /** The current pending result, if present */
     private RecordStream currentResult;
 
+    /** Set when a pull stopped before the end of the current result, see {@link #hasSuspendedPull()} */
+    private boolean pullSuspended;
+
     /** The current transaction, if present */
     private KernelTransaction currentTransaction;
 
@@ -670,7 +680,8 @@ public class SessionStateMachine implements Session, SessionState
     @Override
     public <A> void pullAll( A attachment, Callback<RecordStream,A> callback )
     {
-        before( attachment, callback );
+        // A suspended pull is continued with the callback it was started with, which has been started already
+        before( attachment, callback, !pullSuspended );
         try
         {
             state = state.pullAll( this );
@@ -730,6 +741,13 @@ public class SessionStateMachine implements Session, SessionState
         }
     }
 
+    @Override
+    public void resume()
+    {
+        // Suspended pulls are continued by whoever drives this state machine pulling again,
+        // see hasSuspendedPull()
+    }
+
     @Override
     public void close()
     {
@@ -773,6 +791,12 @@ public class SessionStateMachine implements Session, SessionState
         return currentTransaction != null;
     }
 
+    @Override
+    public boolean hasSuspendedPull()
+    {
+        return pullSuspended;
+    }
+
     @Override
     public QuerySession createSession( GraphDatabaseQueryService service, PropertyContainerLocker locker )
     {
@@ -800,10 +824,16 @@ public class SessionStateMachine implements Session, SessionState
      */
     private void before( Object attachment, Callback cb )
     {
-        if ( cb != null )
+        before( attachment, cb, true );
+    }
+
+    private void before( Object attachment, Callback cb, boolean starting )
+    {
+        if ( cb != null && starting )
         {
             cb.started( attachment );
         }
+        pullSuspended = false;
 
         if( interruptCounter.get() > 0 )
         {
@@ -832,7 +862,11 @@ public class SessionStateMachine implements Session, SessionState
             {
                 try
                 {
-                    currentCallback.completed( currentAttachment );
+                    // A suspended pull completes once it has been continued to the end of the result
+                    if ( !pullSuspended )
+                    {
+                        currentCallback.completed( currentAttachment );
+                    }
                 }
                 finally
                 {
@@ -901,4 +935,45 @@ public class SessionStateMachine implements Session, SessionState
             return format( "bolt-session\t%s", querySource );
         }
     }
+
+    /**
+     * The current result as handed to a pulling callback, which notices if the callback stops pulling records
+     * before the end of the result.
+     */
+    private static class PulledRecordStream implements RecordStream
+    {
+        private final RecordStream delegate;
+        private boolean stoppedEarly;
+
+        PulledRecordStream( RecordStream delegate )
+        {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String[] fieldNames()
+        {
+            return delegate.fieldNames();
+        }
+
+        @Override
+        public void accept( Visitor visitor ) throws Exception
+        {
+            stoppedEarly = false;
+            delegate.accept( visitor );
+        }
+
+        @Override
+        public boolean accept( Visitor visitor, int maxRecords ) throws Exception
+        {
+            stoppedEarly = delegate.accept( visitor, maxRecords );
+            return stoppedEarly;
+        }
+
+        @Override
+        public void close()
+        {
+            delegate.close();
+        }
+    }
 }
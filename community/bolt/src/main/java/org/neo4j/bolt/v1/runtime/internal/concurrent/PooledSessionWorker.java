@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.v1.runtime.internal.concurrent;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import org.neo4j.bolt.v1.runtime.MonitoredSessions.WorkerPoolMonitor;
+import org.neo4j.bolt.v1.runtime.Session;
+import org.neo4j.bolt.v1.runtime.internal.SessionState;
+import org.neo4j.kernel.impl.logging.LogService;
+
+/**
+ * A {@link SessionWorker} which does not own a thread. Whenever the session has pending requests it is submitted
+ * to a shared pool of threads, and the pool thread which picks it up executes requests until the queue is empty.
+ * <p>
+ * A session which holds an open transaction after the queue has been drained stays pinned to its pool thread,
+ * waiting for further requests, until the transaction is done. This keeps the work of a transaction on a single
+ * thread and means a transaction will not have to wait for a free worker in the middle of its work.
+ * <p>
+ * The exception is a session whose pull has been suspended because the client is not keeping up with reading the
+ * records sent to it. Such a session gives up its pool thread, transaction or not, and is submitted to the pool
+ * again when it is asked to {@link #resume()}.
+ */
+class PooledSessionWorker extends SessionWorker
+{
+    private final Executor pool;
+    private final WorkerPoolMonitor monitor;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    PooledSessionWorker( Session session, LogService logging, Executor pool, WorkerPoolMonitor monitor )
+    {
+        super( session, logging );
+        this.pool = pool;
+        this.monitor = monitor;
+        this.keepRunning = true;
+    }
+
+    @Override
+    public void handle( Consumer<Session> command ) throws InterruptedException
+    {
+        super.handle( command );
+        schedule();
+    }
+
+    @Override
+    public void resume()
+    {
+        resumeRequested = true;
+        if ( suspendedPull != null )
+        {
+            schedule();
+        }
+    }
+
+    @Override
+    public void run()
+    {
+        monitor.sessionActivated();
+        try
+        {
+            if ( suspendedPull != null )
+            {
+                continueSuspendedPull();
+            }
+            for ( Consumer<Session> work; keepRunning && suspendedPull == null && (work = nextWork()) != null; )
+            {
+                execute( work );
+            }
+        }
+        catch ( Throwable e )
+        {
+            crashed( e );
+        }
+        finally
+        {
+            monitor.sessionDeactivated();
+            scheduled.set( false );
+            // Requests may have been queued after we saw an empty queue, or a suspended pull asked to resume after we
+            // suspended it, but before we were unscheduled
+            if ( keepRunning && (suspendedPull == null ? !workQueue.isEmpty() : resumeRequested || shutdownRequested) )
+            {
+                schedule();
+            }
+        }
+    }
+
+    private Consumer<Session> nextWork() throws InterruptedException
+    {
+        Consumer<Session> work = workQueue.poll();
+        while ( work == null && hasOpenTransaction() )
+        {
+            work = workQueue.poll( 10, TimeUnit.SECONDS );
+        }
+        return work;
+    }
+
+    private boolean hasOpenTransaction()
+    {
+        return session instanceof SessionState && ((SessionState) session).hasTransaction();
+    }
+
+    private void schedule()
+    {
+        if ( scheduled.compareAndSet( false, true ) )
+        {
+            monitor.sessionQueued();
+            pool.execute( this );
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.v1.runtime.internal.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.bolt.v1.runtime.MonitoredSessions.WorkerPoolMonitor;
+import org.neo4j.bolt.v1.runtime.Session;
+import org.neo4j.bolt.v1.runtime.Sessions;
+import org.neo4j.kernel.impl.logging.LogService;
+import org.neo4j.kernel.impl.util.JobScheduler;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+
+import static org.neo4j.kernel.impl.util.JobScheduler.Groups.sessionWorker;
+
+/**
+ * A {@link Sessions} implementation that multiplexes sessions onto a fixed size pool of threads, as an alternative
+ * to {@link ThreadedSessions} for instances with many mostly idle connections. An idle session costs a queue rather
+ * than a parked thread. Sessions with pending requests wait for a free worker, and sessions holding an open
+ * transaction keep their worker until the transaction is done, see {@link PooledSessionWorker}.
+ * <p>
+ * Since open transactions pin workers, a pool smaller than the number of concurrently open explicit transactions
+ * will starve other sessions until some of those transactions finish.
+ */
+public class PooledSessions extends LifecycleAdapter implements Sessions
+{
+    private final Sessions delegate;
+    private final LogService logging;
+    private final WorkerPoolMonitor monitor;
+    private final ExecutorService pool;
+
+    public PooledSessions( Sessions delegate, JobScheduler scheduler, LogService logging, int poolSize,
+            WorkerPoolMonitor monitor )
+    {
+        this.delegate = delegate;
+        this.logging = logging;
+        this.monitor = monitor;
+        this.pool = Executors.newFixedThreadPool( poolSize, scheduler.threadFactory( sessionWorker ) );
+    }
+
+    @Override
+    public Session newSession( String connectionDescriptor, boolean isEncrypted )
+    {
+        Session realSession = delegate.newSession( connectionDescriptor, isEncrypted );
+        SessionWorker worker = new PooledSessionWorker( realSession, logging, pool, monitor );
+        return new SessionWorkerFacade( realSession.key(), realSession.connectionDescriptor(), worker );
+    }
+
+    @Override
+    public void shutdown() throws Throwable
+    {
+        pool.shutdownNow();
+        pool.awaitTermination( 10, TimeUnit.SECONDS );
+    }
+}
@@ -19,30 +19,41 @@
  */
 package org.neo4j.bolt.v1.runtime.internal.concurrent;
 
-import java.util.ArrayList;
+import java.util.ArrayDeque;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 import org.neo4j.bolt.v1.runtime.Session;
+import org.neo4j.bolt.v1.runtime.internal.SessionState;
 import org.neo4j.kernel.impl.logging.LogService;
 import org.neo4j.logging.Log;
 
 /**
  * Executes incoming session commands on a specified session.
+ * <p>
+ * A pull which stops before the end of its result, because the client is not keeping up with the records sent to it,
+ * is suspended, see {@link SessionState#hasSuspendedPull()}. No other commands are executed until the pull has been
+ * continued to its end, which happens when the session is asked to {@link #resume()}, or until the session is
+ * closed.
  */
 public class SessionWorker implements Runnable
 {
     /** Poison pill for closing the session and shutting down the worker */
     public static final Consumer<Session> SHUTDOWN = session1 -> {};
 
-    private static final int workQueueSize = Integer.getInteger( "org.neo4j.bolt.workQueueSize", 100 );
+    static final int workQueueSize = Integer.getInteger( "org.neo4j.bolt.workQueueSize", 100 );
 
-    private final ArrayBlockingQueue<Consumer<Session>> workQueue = new ArrayBlockingQueue<>( workQueueSize );
-    private final Session session;
+    final ArrayBlockingQueue<Consumer<Session>> workQueue = new ArrayBlockingQueue<>( workQueueSize );
+    final Session session;
     private final Log log;
     private final Log userLog;
-    private boolean keepRunning;
+    boolean keepRunning;
+
+    /** The pull to continue before anything else, if the last pull was suspended */
+    volatile Consumer<Session> suspendedPull;
+    volatile boolean resumeRequested;
+    volatile boolean shutdownRequested;
 
     public SessionWorker( Session session, LogService logging )
     {
@@ -58,6 +69,12 @@ public class SessionWorker implements Runnable
      */
     public void handle( Consumer<Session> command ) throws InterruptedException
     {
+        if ( command == SHUTDOWN )
+        {
+            // Give up a suspended pull, whose records nobody will read, so that the shutdown is not stuck behind it
+            shutdownRequested = true;
+            resume();
+        }
         workQueue.put( command );
     }
 
@@ -65,58 +82,105 @@ public class SessionWorker implements Runnable
     public void run()
     {
         keepRunning = true;
-        ArrayList<Consumer<Session>> batch = new ArrayList<>( workQueueSize );
+        ArrayDeque<Consumer<Session>> batch = new ArrayDeque<>( workQueueSize );
 
         try
         {
             while ( keepRunning )
             {
-                Consumer<Session> work = workQueue.poll( 10, TimeUnit.SECONDS );
-                if ( work != null )
+                if ( suspendedPull != null )
                 {
-                    execute( work );
-
-                    for ( int items = workQueue.drainTo( batch ); keepRunning && items > 0;
-                          items = workQueue.drainTo( batch ) )
+                    awaitResume();
+                    continueSuspendedPull();
+                }
+                else if ( !batch.isEmpty() )
+                {
+                    execute( batch.poll() );
+                }
+                else
+                {
+                    Consumer<Session> work = workQueue.poll( 10, TimeUnit.SECONDS );
+                    if ( work != null )
                     {
-                        executeBatch( batch );
+                        execute( work );
+                        workQueue.drainTo( batch );
                     }
                 }
             }
         }
         catch ( Throwable e )
         {
-            log.error( "Worker for session '" + session.key() + "' crashed: " + e.getMessage(), e );
-            userLog.error( "Fatal, worker for session '" + session.key() + "' crashed. Please" +
-                           " contact your support representative if you are unable to resolve this.", e );
+            crashed( e );
+        }
+    }
 
-            // Attempt to close the session, as an effort to release locks and other resources held by the session
-            session.close();
+    private synchronized void awaitResume() throws InterruptedException
+    {
+        if ( !resumeRequested && !shutdownRequested )
+        {
+            wait( TimeUnit.SECONDS.toMillis( 10 ) );
         }
     }
 
-    private void executeBatch( ArrayList<Consumer<Session>> batch )
+    /**
+     * Signal that a suspended pull can continue, see {@link Session#resume()}.
+     */
+    public synchronized void resume()
     {
-        for ( int i = 0; keepRunning && i < batch.size(); i++ )
+        resumeRequested = true;
+        notifyAll();
+    }
+
+    /**
+     * Continue the suspended pull if asked to, or give it up if the session is shutting down.
+     */
+    void continueSuspendedPull()
+    {
+        if ( shutdownRequested )
+        {
+            workQueue.clear();
+            execute( SHUTDOWN );
+        }
+        else if ( resumeRequested )
         {
-            execute( batch.get( i ) );
+            execute( suspendedPull );
         }
-        batch.clear();
     }
 
-    private void execute( Consumer<Session> work )
+    void crashed( Throwable e )
+    {
+        keepRunning = false;
+        log.error( "Worker for session '" + session.key() + "' crashed: " + e.getMessage(), e );
+        userLog.error( "Fatal, worker for session '" + session.key() + "' crashed. Please" +
+                       " contact your support representative if you are unable to resolve this.", e );
+
+        // Attempt to close the session, as an effort to release locks and other resources held by the session
+        suspendedPull = null;
+        session.close();
+    }
+
+    void execute( Consumer<Session> work )
     {
         if ( work == SHUTDOWN )
         {
+            suspendedPull = null;
             session.close();
             keepRunning = false;
         }
         else
         {
+            // Only a request to resume which arrives from here on concerns a pull this may suspend
+            resumeRequested = false;
             work.accept( session );
+            suspendedPull = hasSuspendedPull() ? work : null;
         }
     }
 
+    private boolean hasSuspendedPull()
+    {
+        return session instanceof SessionState && ((SessionState) session).hasSuspendedPull();
+    }
+
     /**
      * Interrupt this worker, making it cancel any currently active message
      * processing, and then ignore all inbound messages until a RESET message
@@ -125,5 +189,7 @@ public class SessionWorker implements Runnable
     public void interrupt()
     {
         session.interrupt();
+        // A suspended pull has to be continued for it to notice the interrupt
+        resume();
     }
 }
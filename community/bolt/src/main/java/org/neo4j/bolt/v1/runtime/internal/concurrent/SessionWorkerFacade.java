@@ -99,6 +99,12 @@ public class SessionWorkerFacade implements Session
         worker.interrupt();
     }
 
+    @Override
+    public void resume()
+    {
+        worker.resume();
+    }
+
     @Override
     public void close()
     {
@@ -36,8 +36,8 @@ import static org.neo4j.kernel.impl.util.JobScheduler.Groups.sessionWorker;
  * at the expense of creating, potentially, many threads. However, this approach is much less complex than using
  * a thread pool, and is the preferred approach of several highly scalable relational databases.
  *
- * If we find ourselves with tens of thousands of concurrent sessions per neo4j instance, we may want to introduce an
- * alternate strategy.
+ * For instances with tens of thousands of concurrent, mostly idle, sessions, {@link PooledSessions} multiplexes
+ * sessions onto a fixed size pool of threads instead.
  */
 public class ThreadedSessions implements Sessions
 {
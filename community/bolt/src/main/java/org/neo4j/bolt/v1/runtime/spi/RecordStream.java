@@ -32,6 +32,18 @@ public interface RecordStream extends AutoCloseable
 
     void accept( Visitor visitor ) throws Exception;
 
+    /**
+     * Visit at most {@code maxRecords} of the records not yet visited, for consumers which pull the stream a batch
+     * at a time. Metadata is added once the last record has been visited.
+     *
+     * @return {@code true} if there may be more records to visit, {@code false} if the stream has been exhausted.
+     */
+    default boolean accept( Visitor visitor, int maxRecords ) throws Exception
+    {
+        accept( visitor );
+        return false;
+    }
+
     @Override
     void close();
 
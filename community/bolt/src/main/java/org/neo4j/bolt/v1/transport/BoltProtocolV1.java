@@ -49,7 +49,9 @@ public class BoltProtocolV1 implements BoltProtocol
 {
     public static final int VERSION = 1;
     public static final int DEFAULT_BUFFER_SIZE = 8192;
+    public static final int DEFAULT_RECORD_BATCH_SIZE = 100;
 
+    private final Channel channel;
     private final ChunkedOutput output;
     private final MessageFormat.Writer packer;
     private final BoltV1Dechunker dechunker;
@@ -60,13 +62,21 @@ public class BoltProtocolV1 implements BoltProtocol
     private final AtomicInteger inFlight = new AtomicInteger( 0 );
 
     public BoltProtocolV1( final LogService logging, Session session, Channel channel)
+    {
+        this( logging, session, channel, ChunkedOutput.DEFAULT_WRITE_STALL_TIMEOUT_MILLIS,
+                DEFAULT_RECORD_BATCH_SIZE );
+    }
+
+    public BoltProtocolV1( final LogService logging, Session session, Channel channel, long writeStallTimeoutMillis,
+            int recordBatchSize )
     {
         this.log = logging.getInternalLog( getClass() );
         this.session = session;
-        this.output = new ChunkedOutput( channel, DEFAULT_BUFFER_SIZE );
+        this.channel = channel;
+        this.output = new ChunkedOutput( channel, DEFAULT_BUFFER_SIZE, writeStallTimeoutMillis );
         this.packer = new PackStreamMessageFormatV1.Writer( new Neo4jPack.Packer( output ), output );
         this.dechunker = new BoltV1Dechunker(
-            new TransportBridge( log, session, packer, this::onMessageDone) ,
+            new TransportBridge( log, session, packer, this::onMessageDone, recordBatchSize, output::isWritable ),
             this::onMessageStarted
         );
     }
@@ -94,6 +104,17 @@ public class BoltProtocolV1 implements BoltProtocol
         }
     }
 
+    @Override
+    public void onWritabilityChanged()
+    {
+        output.onWritabilityChanged();
+        if ( channel.isWritable() )
+        {
+            // The client has caught up, continue streaming any result we stopped producing records for
+            session.resume();
+        }
+    }
+
     @Override
     public int version()
     {
@@ -24,6 +24,8 @@ import io.netty.channel.Channel;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.neo4j.bolt.v1.messaging.MessageBoundaryHook;
 import org.neo4j.bolt.v1.packstream.PackOutput;
@@ -34,46 +36,88 @@ import static java.lang.Math.max;
 /**
  * A target output for {@link PackStream} which breaks the data into a continuous stream of chunks before pushing them into a netty
  * channel.
+ * <p>
+ * Data is packed straight into pooled IO buffers from the channel allocator, with chunk headers reserved in place and
+ * filled in when a chunk is closed. Buffers that fill up are written to the channel without flushing it, so that a
+ * large result goes out in few socket writes. The channel is flushed on {@link #flush()}, or once
+ * {@link #MAX_UNFLUSHED_BYTES} have been written since the last flush, to bound the memory held by pending writes.
+ * <p>
+ * Writes never block. Whoever produces large amounts of data, typically a session streaming a result, checks
+ * {@link #isWritable()} as it goes and stops producing while the client reads slower than we write, so that records
+ * do not pile up in the outbound buffer of the channel. It continues when the channel has drained, which the
+ * transport signals through {@link #onWritabilityChanged()}. A client which has not read anything for the write
+ * stall timeout while we wait for it is considered gone, and its channel is closed, which ends the session.
  */
 public class ChunkedOutput implements PackOutput, MessageBoundaryHook
 {
     public static final int CHUNK_HEADER_SIZE = 2;
     public static final int MESSAGE_BOUNDARY = 0;
+    public static final int MAX_UNFLUSHED_BYTES = 64 * 1024;
+    public static final long DEFAULT_WRITE_STALL_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis( 2 );
 
     private final int bufferSize;
     private final int maxChunkSize;
+    private final long writeStallTimeoutMillis;
 
     private ByteBuf buffer;
     private Channel channel;
     private int currentChunkHeaderOffset;
+    private int unflushedBytes;
+    private volatile int writabilityChanges;
+    private final AtomicBoolean stallCheckScheduled = new AtomicBoolean();
 
     /** Are currently in the middle of writing a chunk? */
     private boolean chunkOpen = false;
 
     public ChunkedOutput( Channel ch, int bufferSize )
+    {
+        this( ch, bufferSize, DEFAULT_WRITE_STALL_TIMEOUT_MILLIS );
+    }
+
+    public ChunkedOutput( Channel ch, int bufferSize, long writeStallTimeoutMillis )
     {
         this.channel = ch;
+        this.writeStallTimeoutMillis = writeStallTimeoutMillis;
         this.bufferSize = max( 16, bufferSize );
         this.maxChunkSize = this.bufferSize - CHUNK_HEADER_SIZE;
-        this.buffer = channel.alloc().buffer( this.bufferSize, this.bufferSize );
+        this.buffer = channel.alloc().ioBuffer( this.bufferSize, this.bufferSize );
     }
 
     @Override
     public PackOutput flush() throws IOException
+    {
+        writeBuffer( true );
+        return this;
+    }
+
+    private void writeBuffer( boolean flush ) throws IOException
     {
         if ( buffer != null && buffer.readableBytes() > 0 )
         {
             closeChunkIfOpen();
 
-            // Local copy and clear the buffer field. This ensures that the buffer is not re-released if the flush call fails
+            // Local copy and clear the buffer field. This ensures that the buffer is not re-released if the write call fails
             ByteBuf out = this.buffer;
             this.buffer = null;
 
-            channel.writeAndFlush( out, channel.voidPromise() );
+            unflushedBytes += out.readableBytes();
+            if ( flush || unflushedBytes >= MAX_UNFLUSHED_BYTES )
+            {
+                unflushedBytes = 0;
+                channel.writeAndFlush( out, channel.voidPromise() );
+            }
+            else
+            {
+                channel.write( out, channel.voidPromise() );
+            }
 
             newBuffer();
         }
-        return this;
+        else if ( flush && unflushedBytes > 0 )
+        {
+            unflushedBytes = 0;
+            channel.flush();
+        }
     }
 
     @Override
@@ -148,6 +192,53 @@ public class ChunkedOutput implements PackOutput, MessageBoundaryHook
         return writeBytes( ByteBuffer.wrap( data, offset, length ) );
     }
 
+    /**
+     * Check if the channel can take more data right now. When it cannot, the data written so far is flushed, since
+     * the channel will not drain data that has not been flushed, and the producer is expected to hold off until
+     * {@link #onWritabilityChanged() the channel becomes writable again}. If that does not happen within the write
+     * stall timeout, the channel is closed.
+     */
+    public boolean isWritable()
+    {
+        if ( channel.isWritable() )
+        {
+            return true;
+        }
+
+        if ( unflushedBytes > 0 )
+        {
+            unflushedBytes = 0;
+            channel.flush();
+        }
+        scheduleStallCheck();
+        return false;
+    }
+
+    /**
+     * Called by the transport, on the event loop of the channel, when the writability of the channel changes.
+     */
+    public void onWritabilityChanged()
+    {
+        writabilityChanges++;
+    }
+
+    private void scheduleStallCheck()
+    {
+        if ( stallCheckScheduled.compareAndSet( false, true ) )
+        {
+            int changesWhenStalled = writabilityChanges;
+            channel.eventLoop().schedule( () ->
+            {
+                stallCheckScheduled.set( false );
+                // A channel which has drained in the meantime belongs to a client that is still reading
+                if ( writabilityChanges == changesWhenStalled && !channel.isWritable() )
+                {
+                    channel.close();
+                }
+            }, writeStallTimeoutMillis, TimeUnit.MILLISECONDS );
+        }
+    }
+
     private void ensure( int size ) throws IOException
     {
         assert size <= maxChunkSize : size + " > " + maxChunkSize;
@@ -155,7 +246,7 @@ public class ChunkedOutput implements PackOutput, MessageBoundaryHook
         int toWriteSize = chunkOpen ? size : size + CHUNK_HEADER_SIZE;
         if ( buffer.writableBytes() < toWriteSize )
         {
-            flush();
+            writeBuffer( false );
         }
 
         if ( !chunkOpen )
@@ -182,7 +273,7 @@ public class ChunkedOutput implements PackOutput, MessageBoundaryHook
         // If we wanted to, we can optimize this further and restrict memory usage by using our own ByteBuf impl. Each Output instance would have, say, 3
         // buffers that it rotates. Fill one up, send it to be async flushed, fill the next one up, etc. When release is called by Netty, push buffer back
         // onto our local stack. That way there are no global data structures for managing memory, no fragmentation and a fixed amount of RAM per session used.
-        buffer = channel.alloc().buffer( bufferSize, bufferSize );
+        buffer = channel.alloc().ioBuffer( bufferSize, bufferSize );
         chunkOpen = false;
     }
 
@@ -203,7 +294,7 @@ public class ChunkedOutput implements PackOutput, MessageBoundaryHook
         // Ensure there's space to write the message boundary
         if ( buffer.writableBytes() < CHUNK_HEADER_SIZE )
         {
-            flush();
+            writeBuffer( false );
         }
 
         // Write message boundary
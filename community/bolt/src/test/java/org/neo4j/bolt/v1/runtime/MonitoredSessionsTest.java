@@ -182,6 +182,12 @@ public class MonitoredSessionsTest
 
         }
 
+        @Override
+        public void resume()
+        {
+
+        }
+
         @Override
         public void close()
         {
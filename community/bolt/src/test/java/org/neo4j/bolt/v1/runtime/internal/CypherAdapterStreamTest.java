@@ -21,6 +21,7 @@ package org.neo4j.bolt.v1.runtime.internal;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -40,6 +41,8 @@ import org.neo4j.graphdb.impl.notification.NotificationCode;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -171,6 +174,53 @@ public class CypherAdapterStreamTest
         ) );
     }
 
+    @Test
+    public void shouldVisitRecordsInBatches() throws Throwable
+    {
+        // Given
+        Result result = mock( Result.class );
+        when( result.columns() ).thenReturn( asList( "n" ) );
+        when( result.hasNext() ).thenReturn( true, true, true, false );
+        when( result.next() ).thenReturn( map( "n", 1L ), map( "n", 2L ), map( "n", 3L ) );
+        when( result.getQueryExecutionType() ).thenReturn( query( READ_ONLY ) );
+        when( result.getQueryStatistics() ).thenReturn( mock( QueryStatistics.class ) );
+        when( result.getNotifications() ).thenReturn( Collections.emptyList() );
+        CypherAdapterStream stream = new CypherAdapterStream( result );
+
+        List<Object> records = new ArrayList<>();
+        Map<String,Object> meta = new HashMap<>();
+        RecordStream.Visitor visitor = new RecordStream.Visitor()
+        {
+            @Override
+            public void visit( Record record ) throws Exception
+            {
+                records.add( record.fields()[0] );
+            }
+
+            @Override
+            public void addMetadata( String key, Object value )
+            {
+                meta.put( key, value );
+            }
+        };
+
+        // When
+        boolean hasMore = stream.accept( visitor, 2 );
+
+        // Then
+        assertTrue( hasMore );
+        assertThat( records, equalTo( asList( 1L, 2L ) ) );
+        assertThat( meta.size(), equalTo( 0 ) );
+
+        // When
+        hasMore = stream.accept( visitor, 2 );
+
+        // Then
+        assertFalse( hasMore );
+        assertThat( records, equalTo( asList( 1L, 2L, 3L ) ) );
+        assertThat( meta.get( "type" ), equalTo( "r" ) );
+    }
+
     private Map<String,Object> metadataOf( CypherAdapterStream stream ) throws Exception
     {
         final Map<String, Object> meta = new HashMap<>();
@@ -37,14 +37,17 @@ import static java.util.Collections.emptyMap;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyMap;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.neo4j.bolt.v1.runtime.Session.Callback.noOp;
 import static org.neo4j.bolt.v1.runtime.internal.SessionStateMachine.State.ERROR;
 import static org.neo4j.bolt.v1.runtime.internal.SessionStateMachine.State.IDLE;
+import static org.neo4j.bolt.v1.runtime.internal.SessionStateMachine.State.STREAM_OPEN;
 
 public class SessionStateMachineTest
 {
@@ -177,6 +180,44 @@ public class SessionStateMachineTest
         assertThat( callback.completedCount, equalTo( 1 ) );
     }
 
+    @Test
+    public void shouldSuspendAPullWhichStopsBeforeTheEndOfTheResult() throws Throwable
+    {
+        // Given a result of which the client pulls a batch at a time
+        RecordStream result = mock( RecordStream.class );
+        when( result.accept( any( RecordStream.Visitor.class ), anyInt() ) ).thenReturn( true, false );
+        when( spi.run( any( SessionStateMachine.class ), anyString(), anyMap() ) ).thenReturn( result );
+        machine.init( "FunClient/1.2",  Collections.<String, Object>emptyMap(), null, Session.Callback.NO_OP );
+        machine.run( "RETURN 1", Collections.EMPTY_MAP, null, Session.Callback.NO_OP );
+        TestCallback<RecordStream> pulling = new TestCallback<RecordStream>()
+        {
+            @Override
+            public void result( RecordStream stream, Object attachment ) throws Exception
+            {
+                stream.accept( mock( RecordStream.Visitor.class ), 10 );
+            }
+        };
+
+        // When the first batch is not the end of the result
+        machine.pullAll( null, pulling );
+
+        // Then the pull is suspended, with the rest of the result kept open
+        assertThat( machine.state(), equalTo( STREAM_OPEN ) );
+        assertThat( machine.hasSuspendedPull(), equalTo( true ) );
+        assertThat( pulling.completedCount, equalTo( 0 ) );
+        verify( result, never() ).close();
+
+        // And when the pull is continued
+        machine.pullAll( null, pulling );
+
+        // Then it completes at the end of the result
+        assertThat( machine.state(), equalTo( IDLE ) );
+        assertThat( machine.hasSuspendedPull(), equalTo( false ) );
+        assertThat( pulling.startedCount, equalTo( 1 ) );
+        assertThat( pulling.completedCount, equalTo( 1 ) );
+        verify( result ).close();
+    }
+
     @Test
     public void shouldCallStartedWhenStartingProcessing() throws Throwable
     {
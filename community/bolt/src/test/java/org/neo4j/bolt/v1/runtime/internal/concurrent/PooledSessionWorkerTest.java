@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.v1.runtime.internal.concurrent;
+
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.bolt.v1.runtime.MonitoredSessions.WorkerPoolMonitor;
+import org.neo4j.bolt.v1.runtime.Session;
+import org.neo4j.bolt.v1.runtime.internal.SessionState;
+import org.neo4j.kernel.impl.logging.NullLogService;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+public class PooledSessionWorkerTest
+{
+    private final ExecutorService pool = Executors.newSingleThreadExecutor();
+
+    @After
+    public void shutdownPool()
+    {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void shouldExecuteWorkOnThePoolAndReportActivity() throws Throwable
+    {
+        // Given
+        Session session = mock( Session.class );
+        WorkerPoolMonitor monitor = mock( WorkerPoolMonitor.class );
+        SessionWorker worker = new PooledSessionWorker( session, NullLogService.getInstance(), Runnable::run, monitor );
+
+        // When
+        worker.handle( s -> s.run( "Hello, world!", null, null, null ) );
+
+        // Then
+        verify( session ).run( "Hello, world!", null, null, null );
+        InOrder order = inOrder( monitor );
+        order.verify( monitor ).sessionQueued();
+        order.verify( monitor ).sessionActivated();
+        order.verify( monitor ).sessionDeactivated();
+    }
+
+    @Test
+    public void shouldKeepTheWorkerWhileTheSessionHasAnOpenTransaction() throws Throwable
+    {
+        // Given a pool with a single worker, and a session which opens a transaction
+        AtomicBoolean inTransaction = new AtomicBoolean();
+        Session transactional = mock( Session.class, withSettings().extraInterfaces( SessionState.class ) );
+        when( ((SessionState) transactional).hasTransaction() ).then( invocation -> inTransaction.get() );
+        WorkerPoolMonitor monitor = mock( WorkerPoolMonitor.class );
+        SessionWorker pinned = new PooledSessionWorker( transactional, NullLogService.getInstance(), pool, monitor );
+        SessionWorker other = new PooledSessionWorker( mock( Session.class ), NullLogService.getInstance(), pool,
+                monitor );
+        pinned.handle( s -> inTransaction.set( true ) );
+
+        // When another session gets work
+        CountDownLatch otherDone = new CountDownLatch( 1 );
+        other.handle( s -> otherDone.countDown() );
+
+        // Then it has to wait for the transaction to end
+        assertFalse( otherDone.await( 100, TimeUnit.MILLISECONDS ) );
+        pinned.handle( s -> inTransaction.set( false ) );
+        assertTrue( otherDone.await( 10, TimeUnit.SECONDS ) );
+    }
+
+    @Test
+    public void shouldGiveUpTheWorkerWhileAPullIsSuspended() throws Throwable
+    {
+        // Given a pool with a single worker, and a session in a transaction whose pull stops early
+        AtomicBoolean inTransaction = new AtomicBoolean();
+        AtomicBoolean pullSuspended = new AtomicBoolean( true );
+        AtomicInteger pulls = new AtomicInteger();
+        Session pulling = mock( Session.class, withSettings().extraInterfaces( SessionState.class ) );
+        when( ((SessionState) pulling).hasTransaction() ).then( invocation -> inTransaction.get() );
+        when( ((SessionState) pulling).hasSuspendedPull() ).then( invocation -> pullSuspended.get() );
+        WorkerPoolMonitor monitor = mock( WorkerPoolMonitor.class );
+        SessionWorker suspended = new PooledSessionWorker( pulling, NullLogService.getInstance(), pool, monitor );
+        SessionWorker other = new PooledSessionWorker( mock( Session.class ), NullLogService.getInstance(), pool,
+                monitor );
+        suspended.handle( s ->
+        {
+            inTransaction.set( true );
+            pulls.incrementAndGet();
+        } );
+        CountDownLatch afterPull = new CountDownLatch( 1 );
+        suspended.handle( s -> afterPull.countDown() );
+
+        // When another session gets work
+        CountDownLatch otherDone = new CountDownLatch( 1 );
+        other.handle( s -> otherDone.countDown() );
+
+        // Then it gets the worker, while the session with the suspended pull waits to be resumed
+        assertTrue( otherDone.await( 10, TimeUnit.SECONDS ) );
+        assertFalse( afterPull.await( 100, TimeUnit.MILLISECONDS ) );
+        assertEquals( 1, pulls.get() );
+
+        // And when
+        pullSuspended.set( false );
+        suspended.resume();
+
+        // Then the pull is continued before the work queued behind it
+        assertTrue( afterPull.await( 10, TimeUnit.SECONDS ) );
+        assertEquals( 2, pulls.get() );
+        suspended.handle( s -> inTransaction.set( false ) );
+    }
+
+    @Test
+    public void errorThrownDuringExecutionShouldCauseSessionClose() throws Throwable
+    {
+        // Given
+        Session session = mock( Session.class );
+        SessionWorker worker = new PooledSessionWorker( session, NullLogService.getInstance(), Runnable::run,
+                mock( WorkerPoolMonitor.class ) );
+
+        // When
+        worker.handle( s -> {
+            throw new RuntimeException( "It didn't work out." );
+        } );
+
+        // Then
+        verify( session ).close();
+    }
+}
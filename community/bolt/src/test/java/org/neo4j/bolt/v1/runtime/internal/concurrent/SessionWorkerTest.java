@@ -22,9 +22,16 @@ package org.neo4j.bolt.v1.runtime.internal.concurrent;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import org.neo4j.bolt.v1.runtime.Session;
+import org.neo4j.bolt.v1.runtime.internal.SessionState;
 import org.neo4j.kernel.impl.logging.NullLogService;
 
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
 public class SessionWorkerTest
 {
     @Test
@@ -45,6 +52,27 @@ public class SessionWorkerTest
         Mockito.verifyNoMoreInteractions( session );
     }
 
+    @Test
+    public void shouldGiveUpASuspendedPullWhenShutDown() throws Throwable
+    {
+        // Given a session whose pull stops early, because the client does not read
+        Session session = Mockito.mock( Session.class, withSettings().extraInterfaces( SessionState.class ) );
+        when( ((SessionState) session).hasSuspendedPull() ).thenReturn( true );
+        SessionWorker worker = new SessionWorker( session, NullLogService.getInstance() );
+        AtomicBoolean executedAfterPull = new AtomicBoolean();
+        worker.handle( s -> s.pullAll( null, null ) );
+        worker.handle( s -> executedAfterPull.set( true ) );
+        worker.handle( SessionWorker.SHUTDOWN );
+
+        // When
+        worker.run();
+
+        // Then
+        Mockito.verify( session ).pullAll( null, null );
+        Mockito.verify( session ).close();
+        assertFalse( executedAfterPull.get() );
+    }
+
     @Test
     public void errorThrownDuringExecutionShouldCauseSessionClose() throws Throwable
     {
@@ -23,27 +23,37 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.UnpooledByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelPromise;
+import io.netty.channel.EventLoop;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
 
 import org.neo4j.bolt.v1.transport.ChunkedOutput;
 import org.neo4j.kernel.impl.util.HexPrinter;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class ChunkedOutputTest
 {
     private final Channel ch = mock( Channel.class );
+    private final EventLoop eventLoop = mock( EventLoop.class );
     private final ByteBuffer writtenData = ByteBuffer.allocate( 1024 );
     private ChunkedOutput out ;
 
@@ -124,11 +134,108 @@ public class ChunkedOutputTest
                          "00 00 00 02 00 08 00 00    00 00 00 00 00 03 00 00" ) );
     }
 
+    @Test
+    public void shouldWriteFullBuffersWithoutFlushingTheChannelUntilFlushed() throws Throwable
+    {
+        // When filling up more than one buffer
+        out.writeLong( 1 ).writeLong( 2 ).writeLong( 3 );
+        out.onMessageComplete();
+
+        // Then full buffers are written, but not flushed
+        verify( ch, times( 2 ) ).write( any(), any( ChannelPromise.class ) );
+        verify( ch, never() ).writeAndFlush( any(), any( ChannelPromise.class ) );
+
+        // And when
+        out.flush();
+
+        // Then
+        verify( ch ).writeAndFlush( any(), any( ChannelPromise.class ) );
+        assertThat( writtenData.limit(), equalTo( 32 ) );
+    }
+
+    @Test
+    public void shouldFlushWrittenBuffersTogetherWithTheCurrentOne() throws Throwable
+    {
+        // Given a buffer which was written when it filled up
+        out.writeBytes( new byte[10], 0, 10 );
+        out.onMessageComplete();
+        out.writeShort( (short) 33 );
+        verify( ch ).write( any(), any( ChannelPromise.class ) );
+
+        // When
+        out.onMessageComplete();
+        out.flush();
+
+        // Then
+        verify( ch ).writeAndFlush( any(), any( ChannelPromise.class ) );
+        assertThat( writtenData.limit(), equalTo( 20 ) );
+    }
+
+    @Test
+    public void shouldNotBlockTheWriterWhileTheChannelIsNotWritable() throws Throwable
+    {
+        // Given
+        when( ch.isWritable() ).thenReturn( false );
+
+        // When writing more than fits in a buffer
+        out.writeLong( 1 ).writeLong( 2 ).writeLong( 3 );
+        out.onMessageComplete();
+
+        // Then the writer is told to hold off, and what it wrote is flushed for the channel to drain
+        assertFalse( out.isWritable() );
+        verify( ch ).flush();
+
+        // And when
+        out.flush();
+
+        // Then
+        assertThat( writtenData.limit(), equalTo( 32 ) );
+    }
+
+    @Test
+    public void shouldCloseTheChannelWhenTheClientStopsReading() throws Throwable
+    {
+        // Given a client that never drains the channel
+        when( ch.isWritable() ).thenReturn( false );
+        ChunkedOutput stalledOutput = new ChunkedOutput( ch, 16, 100 );
+
+        // When
+        assertFalse( stalledOutput.isWritable() );
+        assertFalse( stalledOutput.isWritable() );
+
+        // Then the connection is closed after the write stall timeout
+        ArgumentCaptor<Runnable> stallCheck = ArgumentCaptor.forClass( Runnable.class );
+        verify( eventLoop ).schedule( stallCheck.capture(), eq( 100L ), eq( TimeUnit.MILLISECONDS ) );
+        stallCheck.getValue().run();
+        verify( ch ).close();
+        stalledOutput.close();
+    }
+
+    @Test
+    public void shouldNotCloseTheChannelOfAClientThatIsReading() throws Throwable
+    {
+        // Given a client that drains the channel, but not enough to keep it writable
+        when( ch.isWritable() ).thenReturn( false );
+        assertFalse( out.isWritable() );
+        out.onWritabilityChanged();
+        out.onWritabilityChanged();
+
+        // When
+        ArgumentCaptor<Runnable> stallCheck = ArgumentCaptor.forClass( Runnable.class );
+        verify( eventLoop ).schedule( stallCheck.capture(), anyLong(), eq( TimeUnit.MILLISECONDS ) );
+        stallCheck.getValue().run();
+
+        // Then
+        verify( ch, never() ).close();
+    }
+
     @Before
     public void setup()
     {
         when( ch.alloc() ).thenReturn( UnpooledByteBufAllocator.DEFAULT );
-        when( ch.writeAndFlush( any(), any( ChannelPromise.class ) ) ).thenAnswer( new Answer<Object>()
+        when( ch.isWritable() ).thenReturn( true );
+        when( ch.eventLoop() ).thenReturn( eventLoop );
+        Answer<Object> writeData = new Answer<Object>()
         {
             @Override
             public Object answer( InvocationOnMock invocation ) throws Throwable
@@ -138,7 +245,9 @@ public class ChunkedOutputTest
                 byteBuf.readBytes( writtenData );
                 return null;
             }
-        } );
+        };
+        when( ch.write( any(), any( ChannelPromise.class ) ) ).thenAnswer( writeData );
+        when( ch.writeAndFlush( any(), any( ChannelPromise.class ) ) ).thenAnswer( writeData );
         this.out = new ChunkedOutput( ch, 16 );
     }
 
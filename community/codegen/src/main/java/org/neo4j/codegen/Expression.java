@@ -368,6 +368,18 @@ public abstract class Expression extends ExpressionTemplate
         };
     }
 
+    public static Expression popLong( Expression expression )
+    {
+        return new Expression()
+        {
+            @Override
+            public void accept( ExpressionVisitor visitor )
+            {
+                visitor.popLong( expression );
+            }
+        };
+    }
+
     @Override
     Expression materialize( CodeBlock method )
     {
@@ -300,4 +300,12 @@ class ExpressionToString implements ExpressionVisitor
         expression.accept( this );
         result.append( ")" );
     }
+
+    @Override
+    public void popLong( Expression expression )
+    {
+        result.append( "popLong(" );
+        expression.accept( this );
+        result.append( ")" );
+    }
 }
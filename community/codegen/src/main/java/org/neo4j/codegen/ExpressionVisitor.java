@@ -74,4 +74,6 @@ public interface ExpressionVisitor
     void longToDouble( Expression expression );
 
     void pop( Expression expression );
+
+    void popLong( Expression expression );
 }
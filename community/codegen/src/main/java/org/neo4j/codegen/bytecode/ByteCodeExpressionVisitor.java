@@ -83,6 +83,7 @@ import static org.objectweb.asm.Opcodes.LSUB;
 import static org.objectweb.asm.Opcodes.NEW;
 import static org.objectweb.asm.Opcodes.NEWARRAY;
 import static org.objectweb.asm.Opcodes.POP;
+import static org.objectweb.asm.Opcodes.POP2;
 import static org.objectweb.asm.Opcodes.SASTORE;
 import static org.objectweb.asm.Opcodes.SIPUSH;
 import static org.objectweb.asm.Opcodes.T_BOOLEAN;
@@ -459,6 +460,13 @@ class ByteCodeExpressionVisitor implements ExpressionVisitor
         methodVisitor.visitInsn( POP );
     }
 
+    @Override
+    public void popLong( Expression expression )
+    {
+        expression.accept( this );
+        methodVisitor.visitInsn( POP2 );
+    }
+
     private void compareIntOrReferenceType( Expression lhs, Expression rhs, int opcode )
     {
         lhs.accept( this );
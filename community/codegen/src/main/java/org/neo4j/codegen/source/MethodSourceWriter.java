@@ -475,4 +475,10 @@ class MethodSourceWriter implements MethodEmitter, ExpressionVisitor
     {
         expression.accept( this );
     }
+
+    @Override
+    public void popLong( Expression expression )
+    {
+        expression.accept( this );
+    }
 }
@@ -50,6 +50,9 @@ import org.neo4j.kernel.api.labelscan.LabelScanStore;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.configuration.Settings;
 import org.neo4j.kernel.impl.api.index.IndexStoreView;
+import org.neo4j.kernel.impl.index.labelscan.NativeLabelScanStore;
+import org.neo4j.kernel.impl.index.schema.NativeSchemaIndexProvider;
+import org.neo4j.kernel.impl.index.schema.NativeSchemaIndexProviderFactory;
 import org.neo4j.kernel.impl.locking.LockService;
 import org.neo4j.kernel.impl.pagecache.ConfiguringPageCacheFactory;
 import org.neo4j.kernel.impl.store.NeoStores;
@@ -61,6 +64,7 @@ import org.neo4j.logging.DuplicatingLog;
 import org.neo4j.logging.Log;
 import org.neo4j.logging.LogProvider;
 
+import static java.util.Collections.singletonList;
 import static org.neo4j.helpers.collection.MapUtil.stringMap;
 import static org.neo4j.io.file.Files.createOrOpenAsOuputStream;
 import static org.neo4j.kernel.impl.api.scan.LabelScanStoreProvider.fullStoreLabelUpdateStream;
@@ -145,13 +149,14 @@ public class ConsistencyCheckService
             try
             {
                 IndexStoreView indexStoreView = new NeoStoreIndexStoreView( LockService.NO_LOCK_SERVICE, neoStores );
-                labelScanStore = new LuceneLabelScanStoreBuilder(
-                        storeDir, fullStoreLabelUpdateStream( () -> indexStoreView ),
-                        fileSystem, logProvider ).build();
+                labelScanStore = labelScanStore( storeDir, tuningConfiguration, logProvider, fileSystem, pageCache,
+                        indexStoreView );
                 SchemaIndexProvider indexes = new LuceneSchemaIndexProvider(
                         fileSystem,
                         DirectoryFactory.PERSISTENT,
                         storeDir );
+                SchemaIndexProvider nativeIndexes = new NativeSchemaIndexProvider( pageCache, fileSystem, storeDir,
+                        NativeSchemaIndexProviderFactory.PRIORITY_DISABLED );
 
                 int numberOfThreads = defaultConsistencyCheckThreadsNumber();
                 Statistics statistics;
@@ -168,7 +173,8 @@ public class ConsistencyCheckService
                     storeAccess = new StoreAccess( neoStores );
                 }
                 storeAccess.initialize();
-                DirectStoreAccess stores = new DirectStoreAccess( storeAccess, labelScanStore, indexes );
+                DirectStoreAccess stores = new DirectStoreAccess( storeAccess, labelScanStore, indexes,
+                        singletonList( nativeIndexes ) );
                 FullCheck check = new FullCheck( tuningConfiguration, progressFactory, statistics, numberOfThreads );
                 summary = check.execute( stores, new DuplicatingLog( log, reportLog ) );
             }
@@ -196,6 +202,31 @@ public class ConsistencyCheckService
         return Result.SUCCESS;
     }
 
+    private LabelScanStore labelScanStore( File storeDir, Config tuningConfiguration, LogProvider logProvider,
+            FileSystemAbstraction fileSystem, PageCache pageCache, IndexStoreView indexStoreView )
+            throws ConsistencyCheckIncompleteException
+    {
+        if ( tuningConfiguration.get( GraphDatabaseSettings.native_label_scan_store_enabled ) )
+        {
+            LabelScanStore labelScanStore = new NativeLabelScanStore( pageCache, fileSystem, storeDir,
+                    fullStoreLabelUpdateStream( () -> indexStoreView ), logProvider,
+                    LabelScanStore.Monitor.EMPTY );
+            try
+            {
+                labelScanStore.init();
+                labelScanStore.start();
+            }
+            catch ( IOException e )
+            {
+                throw new ConsistencyCheckIncompleteException( e );
+            }
+            return labelScanStore;
+        }
+        return new LuceneLabelScanStoreBuilder(
+                storeDir, fullStoreLabelUpdateStream( () -> indexStoreView ),
+                fileSystem, logProvider ).build();
+    }
+
     private File chooseReportPath( Config tuningConfiguration, File storeDir )
     {
         if ( tuningConfiguration.get( GraphDatabaseSettings.neo4j_home ) == null )
@@ -153,7 +153,7 @@ public class SchemaRecordCheck implements RecordCheck<DynamicRecord, Consistency
         public void checkIndexRule( IndexRule rule, DynamicRecord record, RecordAccess records,
                 CheckerEngine<DynamicRecord,ConsistencyReport.SchemaConsistencyReport> engine )
         {
-            checkLabelAndPropertyRule( rule, rule.getPropertyKey(), record, records, engine );
+            checkLabelAndPropertyRule( rule, rule.getPropertyKeys(), record, records, engine );
 
             if ( rule.isConstraintIndex() && rule.getOwningConstraint() != null )
             {
@@ -258,9 +258,18 @@ public class SchemaRecordCheck implements RecordCheck<DynamicRecord, Consistency
 
     private void checkLabelAndPropertyRule( SchemaRule rule, int propertyKey, DynamicRecord record,
             RecordAccess records, CheckerEngine<DynamicRecord,ConsistencyReport.SchemaConsistencyReport> engine )
+    {
+        checkLabelAndPropertyRule( rule, new int[]{propertyKey}, record, records, engine );
+    }
+
+    private void checkLabelAndPropertyRule( SchemaRule rule, int[] propertyKeys, DynamicRecord record,
+            RecordAccess records, CheckerEngine<DynamicRecord,ConsistencyReport.SchemaConsistencyReport> engine )
     {
         engine.comparativeCheck( records.label( rule.getLabel() ), VALID_LABEL );
-        engine.comparativeCheck( records.propertyKey( propertyKey ), VALID_PROPERTY_KEY );
+        for ( int propertyKey : propertyKeys )
+        {
+            engine.comparativeCheck( records.propertyKey( propertyKey ), VALID_PROPERTY_KEY );
+        }
         checkForDuplicates( rule, record, engine );
     }
 
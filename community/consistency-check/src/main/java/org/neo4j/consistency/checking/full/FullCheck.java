@@ -134,7 +134,8 @@ public class FullCheck
                 "Full Consistency Check" );
         final StoreAccess nativeStores = directStoreAccess.nativeStores();
         try ( IndexAccessors indexes =
-                      new IndexAccessors( directStoreAccess.indexes(), nativeStores.getSchemaStore(), samplingConfig ) )
+                      new IndexAccessors( directStoreAccess.indexProviders(), nativeStores.getSchemaStore(),
+                              samplingConfig ) )
         {
             MultiPassStore.Factory multiPass = new MultiPassStore.Factory(
                     decorator, recordAccess, cacheAccess, report, reportMonitor );
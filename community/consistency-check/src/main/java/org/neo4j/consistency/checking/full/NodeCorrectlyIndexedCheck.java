@@ -30,6 +30,7 @@ import org.neo4j.consistency.checking.index.IndexAccessors;
 import org.neo4j.consistency.report.ConsistencyReport;
 import org.neo4j.consistency.store.RecordAccess;
 import org.neo4j.kernel.impl.api.LookupFilter;
+import org.neo4j.kernel.impl.api.index.CompositeIndexValues;
 import org.neo4j.kernel.impl.store.record.IndexRule;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
@@ -67,21 +68,20 @@ public class NodeCorrectlyIndexedCheck implements RecordCheck<NodeRecord, Consis
             }
 
             List<PropertyBlock> properties = propertyReader.propertyBlocks( record );
-            PropertyBlock property = propertyWithKey( properties, indexRule.getPropertyKey() );
+            Object propertyValue = indexedValue( indexRule, properties );
 
-            if ( property == null )
+            if ( propertyValue == null )
             {
                 continue;
             }
 
             try ( IndexReader reader = indexes.accessorFor( indexRule ).newReader() )
             {
-                Object propertyValue = propertyReader.propertyValue( property ).value();
                 long nodeId = record.getId();
 
                 if ( indexRule.isConstraintIndex() )
                 {
-                    verifyNodeCorrectlyIndexedUniquely( nodeId, property.getKeyIndexId(), propertyValue, engine,
+                    verifyNodeCorrectlyIndexedUniquely( nodeId, indexRule.getPropertyKey(), propertyValue, engine,
                             indexRule, reader );
                 }
                 else
@@ -155,6 +155,26 @@ public class NodeCorrectlyIndexedCheck implements RecordCheck<NodeRecord, Consis
         }
     }
 
+    /**
+     * @return the value the node is indexed by, which for a composite index is the values of all its properties
+     * encoded into one, or {@code null} if the node doesn't have all the properties of the index.
+     */
+    private Object indexedValue( IndexRule indexRule, List<PropertyBlock> properties )
+    {
+        int[] propertyKeys = indexRule.getPropertyKeys();
+        Object[] values = new Object[propertyKeys.length];
+        for ( int i = 0; i < propertyKeys.length; i++ )
+        {
+            PropertyBlock property = propertyWithKey( properties, propertyKeys[i] );
+            if ( property == null )
+            {
+                return null;
+            }
+            values[i] = propertyReader.propertyValue( property ).value();
+        }
+        return indexRule.isComposite() ? CompositeIndexValues.encode( values ) : values[0];
+    }
+
     private PropertyBlock propertyWithKey( List<PropertyBlock> propertyBlocks, int propertyKey )
     {
         for ( PropertyBlock propertyBlock : propertyBlocks )
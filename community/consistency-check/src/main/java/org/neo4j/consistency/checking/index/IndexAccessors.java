@@ -31,6 +31,7 @@ import org.neo4j.kernel.api.index.IndexAccessor;
 import org.neo4j.kernel.api.index.IndexConfiguration;
 import org.neo4j.kernel.api.index.InternalIndexState;
 import org.neo4j.kernel.api.index.SchemaIndexProvider;
+import org.neo4j.kernel.impl.api.index.SchemaIndexProviderMap;
 import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
 import org.neo4j.kernel.impl.store.RecordStore;
 import org.neo4j.kernel.impl.store.record.DynamicRecord;
@@ -43,7 +44,7 @@ public class IndexAccessors implements Closeable
     private final Map<Long,IndexAccessor> accessors = new HashMap<>();
     private final List<IndexRule> indexRules = new ArrayList<>();
 
-    public IndexAccessors( SchemaIndexProvider provider,
+    public IndexAccessors( SchemaIndexProviderMap providers,
                            RecordStore<DynamicRecord> schemaStore,
                            IndexSamplingConfig samplingConfig ) throws IOException
     {
@@ -58,7 +59,8 @@ public class IndexAccessors implements Closeable
                     // - populating indexes will be rebuilt on next startup
                     // - failed indexes have to be dropped by the user anyways
                     IndexRule indexRule = rules.next();
-                    if ( InternalIndexState.ONLINE == provider.getInitialState( indexRule.getId() ) )
+                    if ( InternalIndexState.ONLINE ==
+                         provider( providers, indexRule ).getInitialState( indexRule.getId() ) )
                     {
                         indexRules.add( indexRule );
                     }
@@ -78,10 +80,16 @@ public class IndexAccessors implements Closeable
         {
             long indexId = indexRule.getId();
             IndexConfiguration indexConfig = IndexConfiguration.of( indexRule );
-            accessors.put( indexId, provider.getOnlineAccessor( indexId, indexConfig, samplingConfig ) );
+            accessors.put( indexId,
+                    provider( providers, indexRule ).getOnlineAccessor( indexId, indexConfig, samplingConfig ) );
         }
     }
 
+    private static SchemaIndexProvider provider( SchemaIndexProviderMap providers, IndexRule indexRule )
+    {
+        return providers.apply( indexRule.getProviderDescriptor() );
+    }
+
     public IndexAccessor accessorFor(IndexRule indexRule)
     {
         return accessors.get( indexRule.getId() );
@@ -29,6 +29,7 @@ import java.io.IOException;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.neo4j.consistency.ConsistencyCheckService.Result;
 import org.neo4j.consistency.checking.GraphStoreFixture;
@@ -42,9 +43,21 @@ import org.neo4j.graphdb.factory.GraphDatabaseBuilder;
 import org.neo4j.graphdb.factory.GraphDatabaseFactory;
 import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 import org.neo4j.helpers.progress.ProgressMonitorFactory;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.kernel.api.exceptions.TransactionFailureException;
+import org.neo4j.kernel.api.index.IndexAccessor;
+import org.neo4j.kernel.api.index.IndexConfiguration;
+import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.api.index.NodePropertyUpdate;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.configuration.Settings;
+import org.neo4j.kernel.impl.api.index.CompositeIndexValues;
+import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
+import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.kernel.impl.index.schema.NativeSchemaIndexProvider;
+import org.neo4j.kernel.impl.index.schema.NativeSchemaIndexProviderFactory;
+import org.neo4j.kernel.impl.pagecache.StandalonePageCacheFactory;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.logging.NullLogProvider;
 import org.neo4j.test.TestGraphDatabaseFactory;
@@ -151,6 +164,107 @@ public class ConsistencyCheckServiceIntegrationTest
         assertEquals( ConsistencyCheckService.Result.SUCCESS, result );
     }
 
+    @Test
+    public void shouldCheckNativeSchemaIndexes() throws Exception
+    {
+        // given
+        File storeDir = testDirectory.graphDbDir();
+        GraphDatabaseService db = new TestGraphDatabaseFactory().newEmbeddedDatabaseBuilder( storeDir )
+                .setConfig( GraphDatabaseSettings.record_format, getRecordFormatName() )
+                .setConfig( GraphDatabaseSettings.native_schema_index_enabled, Settings.TRUE )
+                .newGraphDatabase();
+        Label label = Label.label( "Item" );
+        try ( Transaction tx = db.beginTx() )
+        {
+            db.schema().indexFor( label ).on( "itemId" ).create();
+            tx.success();
+        }
+        try ( Transaction tx = db.beginTx() )
+        {
+            db.schema().awaitIndexesOnline( 1, TimeUnit.MINUTES );
+            set( db.createNode( label ), property( "itemId", 1L ) );
+            tx.success();
+        }
+        db.shutdown();
+
+        // and an index entry of a node which doesn't exist
+        try ( PageCache pageCache = StandalonePageCacheFactory.createPageCache( new DefaultFileSystemAbstraction() ) )
+        {
+            NativeSchemaIndexProvider provider = new NativeSchemaIndexProvider( pageCache,
+                    new DefaultFileSystemAbstraction(), storeDir, NativeSchemaIndexProviderFactory.PRIORITY_ENABLED );
+            File[] indexDirectories = provider.getSchemaIndexStoreDirectory( storeDir ).listFiles();
+            assertEquals( 1, indexDirectories.length );
+            long indexId = Long.parseLong( indexDirectories[0].getName() );
+            try ( IndexAccessor accessor = provider.getOnlineAccessor( indexId, IndexConfiguration.NON_UNIQUE,
+                    new IndexSamplingConfig( Config.empty() ) );
+                  IndexUpdater updater = accessor.newUpdater( IndexUpdateMode.ONLINE ) )
+            {
+                updater.process( NodePropertyUpdate.add( 1_000, 0, 2L, new long[]{0} ) );
+            }
+        }
+
+        // when
+        Config configuration = new Config( settings(), GraphDatabaseSettings.class, ConsistencyCheckSettings.class );
+        Result result = new ConsistencyCheckService().runFullConsistencyCheck( storeDir, configuration,
+                ProgressMonitorFactory.NONE, NullLogProvider.getInstance(), false );
+
+        // then
+        assertEquals( ConsistencyCheckService.Result.FAILURE, result );
+    }
+
+    @Test
+    public void shouldCheckCompositeIndexes() throws Exception
+    {
+        // given
+        File storeDir = testDirectory.graphDbDir();
+        GraphDatabaseService db = new TestGraphDatabaseFactory().newEmbeddedDatabaseBuilder( storeDir )
+                .setConfig( GraphDatabaseSettings.record_format, getRecordFormatName() )
+                .setConfig( GraphDatabaseSettings.native_schema_index_enabled, Settings.TRUE )
+                .newGraphDatabase();
+        Label label = Label.label( "Item" );
+        try ( Transaction tx = db.beginTx() )
+        {
+            db.schema().indexFor( label ).on( "itemId" ).on( "name" ).create();
+            tx.success();
+        }
+        long nodeId;
+        try ( Transaction tx = db.beginTx() )
+        {
+            db.schema().awaitIndexesOnline( 1, TimeUnit.MINUTES );
+            nodeId = set( db.createNode( label ), property( "itemId", 1L ), property( "name", "one" ) ).getId();
+            set( db.createNode( label ), property( "itemId", 2L ) );
+            tx.success();
+        }
+        db.shutdown();
+        Config configuration = new Config( settings(), GraphDatabaseSettings.class, ConsistencyCheckSettings.class );
+        assertEquals( ConsistencyCheckService.Result.SUCCESS, new ConsistencyCheckService().runFullConsistencyCheck(
+                storeDir, configuration, ProgressMonitorFactory.NONE, NullLogProvider.getInstance(), false ) );
+
+        // and a node missing from the index
+        try ( PageCache pageCache = StandalonePageCacheFactory.createPageCache( new DefaultFileSystemAbstraction() ) )
+        {
+            NativeSchemaIndexProvider provider = new NativeSchemaIndexProvider( pageCache,
+                    new DefaultFileSystemAbstraction(), storeDir, NativeSchemaIndexProviderFactory.PRIORITY_ENABLED );
+            File[] indexDirectories = provider.getSchemaIndexStoreDirectory( storeDir ).listFiles();
+            assertEquals( 1, indexDirectories.length );
+            long indexId = Long.parseLong( indexDirectories[0].getName() );
+            try ( IndexAccessor accessor = provider.getOnlineAccessor( indexId, IndexConfiguration.NON_UNIQUE,
+                    new IndexSamplingConfig( Config.empty() ) );
+                  IndexUpdater updater = accessor.newUpdater( IndexUpdateMode.ONLINE ) )
+            {
+                updater.process( NodePropertyUpdate.remove( nodeId, new int[]{0, 1},
+                        CompositeIndexValues.encode( new Object[]{1L, "one"} ), new long[]{0} ) );
+            }
+        }
+
+        // when
+        Result result = new ConsistencyCheckService().runFullConsistencyCheck( storeDir, configuration,
+                ProgressMonitorFactory.NONE, NullLogProvider.getInstance(), false );
+
+        // then
+        assertEquals( ConsistencyCheckService.Result.FAILURE, result );
+    }
+
     @Test
     public void shouldAllowGraphCheckDisabled() throws IOException, ConsistencyCheckIncompleteException
     {
@@ -45,8 +45,10 @@ import org.neo4j.kernel.impl.store.NodeLabelsField;
 import org.neo4j.kernel.impl.store.record.IndexRule;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.storageengine.api.schema.IndexOrder;
 import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.IndexSampler;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
@@ -234,6 +236,25 @@ public class NodeCorrectlyIndexedCheckTest
                     throw new UnsupportedOperationException();
                 }
 
+                @Override
+                public boolean hasOrderedRangeSeek()
+                {
+                    return false;
+                }
+
+                @Override
+                public NodeValueIterator rangeSeekByNumberInclusive( Number lower, Number upper, IndexOrder order )
+                {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public NodeValueIterator rangeSeekByString( String lower, boolean includeLower,
+                                                            String upper, boolean includeUpper, IndexOrder order )
+                {
+                    throw new UnsupportedOperationException();
+                }
+
                 @Override
                 public PrimitiveLongIterator rangeSeekByPrefix( String prefix )
                 {
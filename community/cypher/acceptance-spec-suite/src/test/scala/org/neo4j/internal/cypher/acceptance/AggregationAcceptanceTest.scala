@@ -38,13 +38,49 @@ class AggregationAcceptanceTest extends ExecutionEngineFunSuite with NewPlannerT
     relate(a, b1, "A")
     relate(a, b2, "A")
 
-    val result = executeWithAllPlannersAndCompatibilityMode(
+    val result = executeWithAllPlannersAndRuntimesAndCompatibilityMode(
       s"match (a:Start)-[rel]->(b) return a, count(*)"
     )
 
     result.toList should equal(List(Map("a" -> a, "count(*)" -> 2)))
   }
 
+  test("should count rows below a limit") {
+    (1 to 5).foreach(_ => createNode())
+
+    val result = executeWithAllPlannersAndCompatibilityMode("match (n) with n limit 2 return count(*)")
+
+    result.toList should equal(List(Map("count(*)" -> 2)))
+  }
+
+  test("should count no rows below a limit of zero") {
+    (1 to 5).foreach(_ => createNode())
+
+    val result = executeWithAllPlannersAndCompatibilityMode("match (n) with n limit 0 return count(*)")
+
+    result.toList should equal(List(Map("count(*)" -> 0)))
+  }
+
+  test("should count grouped rows below a limit") {
+    val a = createLabeledNode("Start")
+    (1 to 5).foreach(_ => relate(a, createNode()))
+
+    val result = executeWithAllPlannersAndCompatibilityMode(
+      "match (a:Start)-->(b) with a, b limit 2 return a, count(*)")
+
+    result.toList should equal(List(Map("a" -> a, "count(*)" -> 2)))
+  }
+
+  test("should produce no groups below a limit of zero") {
+    val a = createLabeledNode("Start")
+    (1 to 5).foreach(_ => relate(a, createNode()))
+
+    val result = executeWithAllPlannersAndCompatibilityMode(
+      "match (a:Start)-->(b) with a, b limit 0 return a, count(*)")
+
+    result.toList should equal(List.empty)
+  }
+
   // TCK'd
   test("should sort on aggregated function and normal property") {
     createNode(Map("name" -> "andres", "division" -> "Sweden"))
@@ -310,7 +346,7 @@ class AggregationAcceptanceTest extends ExecutionEngineFunSuite with NewPlannerT
     val node = createNode()
     relate(node, node)
 
-    val result = executeWithAllPlanners("MATCH ()-[r]-() RETURN count(r) as c")
+    val result = executeWithAllPlannersAndRuntimesAndCompatibilityMode("MATCH ()-[r]-() RETURN count(r) as c")
 
     result.columnAs[Long]("c").next() should equal(1)
   }
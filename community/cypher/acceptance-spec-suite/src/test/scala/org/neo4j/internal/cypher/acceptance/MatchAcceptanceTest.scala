@@ -148,7 +148,7 @@ class MatchAcceptanceTest extends ExecutionEngineFunSuite with QueryStatisticsTe
     relate("A" -> "CONTAINS" -> "B")
     relate("B" -> "FRIEND" -> "C")
 
-    val result = executeWithAllPlannersAndCompatibilityMode("match (a {name:'A'})-[:CONTAINS*0..1]->(b)-[:FRIEND*0..1]->(c) return a,b,c")
+    val result = executeWithAllPlannersAndRuntimesAndCompatibilityMode("match (a {name:'A'})-[:CONTAINS*0..1]->(b)-[:FRIEND*0..1]->(c) return a,b,c")
 
     result.toSet should equal(
       Set(
@@ -165,7 +165,7 @@ class MatchAcceptanceTest extends ExecutionEngineFunSuite with QueryStatisticsTe
     relate("B" -> "CONTAINS" -> "C")
     relate("C" -> "CONTAINS" -> "D")
 
-    val result = executeWithAllPlannersAndCompatibilityMode("match (a {name:'A'})-[*]->(x) return x")
+    val result = executeWithAllPlannersAndRuntimesAndCompatibilityMode("match (a {name:'A'})-[*]->(x) return x")
 
     result.toSet should equal(
       Set(
@@ -2111,7 +2111,7 @@ return b
       """match (a)-[*0..0]->(b)
         |return a, b""".stripMargin
 
-    val result = executeWithAllPlannersAndCompatibilityMode(query).toSet
+    val result = executeWithAllPlannersAndRuntimesAndCompatibilityMode(query).toSet
 
     result should equal(Set(
       Map("a" -> a, "b" -> a),
@@ -2238,7 +2238,7 @@ return b
       case Seq(node1, node2) => relate(node1, node2, "R")
     }
 
-    val result = executeWithAllPlannersAndCompatibilityMode("MATCH (n {prop: 'start'})-[:R*]->(m {prop: 'end'}) RETURN m")
+    val result = executeWithAllPlannersAndRuntimesAndCompatibilityMode("MATCH (n {prop: 'start'})-[:R*]->(m {prop: 'end'}) RETURN m")
 
     result.toList should equal(List(Map("m" -> end)))
   }
@@ -22,6 +22,7 @@ package org.neo4j.cypher.internal.compiler.v3_1
 trait CacheAccessor[K, T] {
   def getOrElseUpdate(cache: LRUCache[K, T])(key: K, f: => T): T
   def remove(cache: LRUCache[K, T])(key: K, userKey: String)
+  def replace(cache: LRUCache[K, T])(key: K, userKey: String, value: T)
 }
 
 class QueryCache[K, T](cacheAccessor: CacheAccessor[K, T], cache: LRUCache[K, T]) {
@@ -46,6 +47,11 @@ class QueryCache[K, T](cacheAccessor: CacheAccessor[K, T], cache: LRUCache[K, T]
       }.next()
     }
   }
+
+  // Swaps in a replacement for a stale value, without a window where the key is missing from the cache
+  def replace(key: K, userKey: String, value: T): Unit = cacheAccessor.replace(cache)(key, userKey, value)
+
+  def remove(key: K, userKey: String): Unit = cacheAccessor.remove(cache)(key, userKey)
 }
 
 class MonitoringCacheAccessor[K, T](monitor: CypherCacheHitMonitor[K]) extends CacheAccessor[K, T] {
@@ -69,4 +75,9 @@ class MonitoringCacheAccessor[K, T](monitor: CypherCacheHitMonitor[K]) extends C
     cache.remove(key)
     monitor.cacheDiscard(key, userKey)
   }
+
+  def replace(cache: LRUCache[K, T])(key: K, userKey: String, value: T): Unit = {
+    cache.put(key, value)
+    monitor.cacheDiscard(key, userKey)
+  }
 }
@@ -30,7 +30,7 @@ import org.neo4j.cypher.internal.compiler.v3_1.helpers.closing
 import org.neo4j.cypher.internal.compiler.v3_1.planner._
 import org.neo4j.cypher.internal.compiler.v3_1.planner.logical.plans.rewriter.LogicalPlanRewriter
 import org.neo4j.cypher.internal.compiler.v3_1.planner.logical.{CachedMetricsFactory, DefaultQueryPlanner, SimpleMetricsFactory}
-import org.neo4j.cypher.internal.compiler.v3_1.spi.PlanContext
+import org.neo4j.cypher.internal.compiler.v3_1.spi.{MorselScanner, NoMorselScanner, PlanContext}
 import org.neo4j.cypher.internal.compiler.v3_1.tracing.rewriters.RewriterStepSequencer
 import org.neo4j.cypher.internal.frontend.v3_1.ast.Statement
 import org.neo4j.cypher.internal.frontend.v3_1.notification.InternalNotification
@@ -79,7 +79,8 @@ object CypherCompilerFactory {
                         plannerName: Option[CostBasedPlannerName],
                         runtimeName: Option[RuntimeName],
                         updateStrategy: Option[UpdateStrategy],
-                        publicTypeConverter: Any => Any): CypherCompiler = {
+                        publicTypeConverter: Any => Any,
+                        morselScanner: MorselScanner = NoMorselScanner): CypherCompiler = {
     val parser = new CypherParser
     val checker = new SemanticChecker
     val rewriter = new ASTRewriter(rewriterSequencer)
@@ -89,9 +90,11 @@ object CypherCompilerFactory {
 
     val compiledPlanBuilder = CompiledPlanBuilder(clock, structure)
     val interpretedPlanBuilder = InterpretedPlanBuilder(clock, monitors, publicTypeConverter)
+    val parallelPlanBuilder = ParallelPlanBuilder(clock, monitors, publicTypeConverter, morselScanner)
 
     // Pick runtime based on input
-    val runtimeBuilder = RuntimeBuilder.create(runtimeName, interpretedPlanBuilder, compiledPlanBuilder, config.useErrorsOverWarnings)
+    val runtimeBuilder = RuntimeBuilder.create(runtimeName, interpretedPlanBuilder, compiledPlanBuilder, parallelPlanBuilder,
+                                               config.useErrorsOverWarnings)
 
     val costPlanProducer = CostBasedPipeBuilderFactory.create(
       monitors = monitors,
@@ -25,6 +25,9 @@ import org.neo4j.cypher.internal.compiler.v3_1.tracing.rewriters.RewriterConditi
 import org.neo4j.cypher.internal.frontend.v3_1.ast.{Query, Statement}
 import org.neo4j.cypher.internal.frontend.v3_1.{InputPosition, Rewriter, Scope, SemanticTable}
 
+import scala.collection.mutable
+import scala.util.matching.Regex
+
 // A Cypher query goes through various stages of pre-processing before planning
 //
 // A prepared query captures all information that has been derived so far as part
@@ -75,11 +78,23 @@ case class PreparedQuerySyntax(statement: Statement,
   override def rewrite(rewriter: Rewriter): PreparedQuerySyntax =
     copy(statement = statement.endoRewrite(rewriter))(notificationLogger, plannerName, conditions)
 
+  // The rewritten statement, with the names generated from input positions renumbered in order of appearance.
+  // Queries that only differ in the literals extracted into parameters have the same normalized statement
+  lazy val normalizedStatement: String = {
+    val generatedNames = mutable.Map.empty[String, String]
+    PreparedQuerySyntax.generatedName.replaceAllIn(statement.toString, name => Regex.quoteReplacement(
+      generatedNames.getOrElseUpdate(name.matched, s"${name.group(1)}${generatedNames.size}")))
+  }
+
   def withSemantics(semanticTable: SemanticTable,
                     scopeTree: Scope) =
     PreparedQuerySemantics(statement, queryText, offset, extractedParams, semanticTable, scopeTree)(notificationLogger, plannerName, conditions)
 }
 
+object PreparedQuerySyntax {
+  private val generatedName = "(  UNNAMED|  FRESHID|  AGGREGATION)[0-9]+".r
+}
+
 // Result of semantic analysis of a Cypher query
 //
 // The contained statement has passed all syntactic checks as well as full type checking
@@ -31,19 +31,22 @@ import org.neo4j.cypher.internal.compiler.v3_1.executionplan._
 import org.neo4j.cypher.internal.compiler.v3_1.helpers._
 import org.neo4j.cypher.internal.compiler.v3_1.planDescription.InternalPlanDescription
 import org.neo4j.cypher.internal.compiler.v3_1.planDescription.InternalPlanDescription.Arguments
-import org.neo4j.cypher.internal.compiler.v3_1.planner.execution.{PipeExecutionBuilderContext, PipeExecutionPlanBuilder}
-import org.neo4j.cypher.internal.compiler.v3_1.planner.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.compiler.v3_1.planner.execution.{ParallelPipeBuilderFactory, PipeExecutionBuilderContext, PipeExecutionPlanBuilder, nodeMorselScan}
+import org.neo4j.cypher.internal.compiler.v3_1.planner.logical.plans.{Aggregation, LogicalPlan}
 import org.neo4j.cypher.internal.compiler.v3_1.planner.{CantCompileQueryException, PeriodicCommit}
-import org.neo4j.cypher.internal.compiler.v3_1.spi.{GraphStatistics, PlanContext, QueryContext}
+import org.neo4j.cypher.internal.compiler.v3_1.spi.{GraphStatistics, MorselScanner, PlanContext, QueryContext}
+import org.neo4j.cypher.internal.frontend.v3_1.Foldable._
 import org.neo4j.cypher.internal.frontend.v3_1.notification.{InternalNotification, RuntimeUnsupportedNotification}
 import org.neo4j.cypher.internal.frontend.v3_1.{InternalException, InvalidArgumentException, SemanticTable}
 
 object RuntimeBuilder {
   def create(runtimeName: Option[RuntimeName], interpretedProducer: InterpretedPlanBuilder,
-            compiledProducer: CompiledPlanBuilder, useErrorsOverWarnings: Boolean) = runtimeName match {
+            compiledProducer: CompiledPlanBuilder, parallelProducer: ParallelPlanBuilder,
+            useErrorsOverWarnings: Boolean) = runtimeName match {
     case None | Some(InterpretedRuntimeName) => InterpretedRuntimeBuilder(interpretedProducer)
     case Some(CompiledRuntimeName) if useErrorsOverWarnings => ErrorReportingRuntimeBuilder(compiledProducer)
     case Some(CompiledRuntimeName) => WarningFallbackRuntimeBuilder(interpretedProducer, compiledProducer)
+    case Some(ParallelRuntimeName) => ParallelRuntimeBuilder(interpretedProducer, parallelProducer, useErrorsOverWarnings)
   }
 }
 trait RuntimeBuilder {
@@ -109,6 +112,34 @@ case class ErrorReportingRuntimeBuilder(compiledProducer: CompiledPlanBuilder) e
       InvalidArgumentException("The given query is not currently supported in the selected runtime")
 }
 
+case class ParallelRuntimeBuilder(interpretedProducer: InterpretedPlanBuilder, parallelProducer: ParallelPlanBuilder,
+                                  useErrorsOverWarnings: Boolean) extends RuntimeBuilder {
+  override def apply(periodicCommit: Option[PeriodicCommit], logicalPlan: LogicalPlan, pipeBuildContext: PipeExecutionBuilderContext,
+                     planContext: PlanContext, tracer: CompilationPhaseTracer, semanticTable: SemanticTable,
+                     monitor: NewRuntimeSuccessRateMonitor, plannerName: PlannerName,
+                     preparedQuery: PreparedQuerySemantics,
+                     createFingerprintReference: Option[PlanFingerprint] => PlanFingerprintReference,
+                     config: CypherCompilerConfiguration): ExecutionPlan = {
+    monitor.newPlanSeen(logicalPlan)
+    try {
+      parallelProducer(periodicCommit, logicalPlan, pipeBuildContext, planContext, tracer, preparedQuery, createFingerprintReference, config)
+    } catch {
+      case e: CantCompileQueryException =>
+        monitor.unableToHandlePlan(logicalPlan, e)
+        fallback(preparedQuery)
+        interpretedProducer(periodicCommit, logicalPlan, pipeBuildContext, planContext, tracer, preparedQuery, createFingerprintReference, config)
+    }
+  }
+
+  override def compiledProducer = throw new InternalException("This should never be called")
+
+  override def fallback(preparedQuery: PreparedQuerySemantics) =
+    if (useErrorsOverWarnings)
+      throw new InvalidArgumentException("The given query is not currently supported in the selected runtime")
+    else
+      preparedQuery.notificationLogger.log(RuntimeUnsupportedNotification)
+}
+
 case class InterpretedPlanBuilder(clock: Clock, monitors: Monitors, publicTypeConverter: Any => Any) {
 
   def apply(periodicCommit: Option[PeriodicCommit], logicalPlan: LogicalPlan, pipeBuildContext: PipeExecutionBuilderContext,
@@ -122,6 +153,28 @@ case class InterpretedPlanBuilder(clock: Clock, monitors: Monitors, publicTypeCo
     }
 }
 
+/*
+  Builds the interpreted pipes, but executes counting aggregations over node scans in parallel, see MorselCountPipe.
+  Plans without any such aggregation are rejected so that the caller falls back to the interpreted runtime.
+ */
+case class ParallelPlanBuilder(clock: Clock, monitors: Monitors, publicTypeConverter: Any => Any, scanner: MorselScanner) {
+
+  def apply(periodicCommit: Option[PeriodicCommit], logicalPlan: LogicalPlan, pipeBuildContext: PipeExecutionBuilderContext,
+            planContext: PlanContext, tracer: CompilationPhaseTracer, preparedQuery: PreparedQuerySemantics,
+            createFingerprintReference: Option[PlanFingerprint] => PlanFingerprintReference,
+            config: CypherCompilerConfiguration) = {
+    if (periodicCommit.isDefined || !logicalPlan.findByAllClass[Aggregation].exists(nodeMorselScan.isDefinedAt))
+      throw new CantCompileQueryException("No part of the query can be executed in parallel")
+
+    closing(tracer.beginPhase(PIPE_BUILDING)) {
+      interpretedToExecutionPlan(new PipeExecutionPlanBuilder(clock, monitors, new ParallelPipeBuilderFactory(scanner))
+                                   .build(periodicCommit, logicalPlan)(pipeBuildContext, planContext),
+                                 planContext, preparedQuery, createFingerprintReference, config, publicTypeConverter,
+                                 ParallelRuntimeName)
+    }
+  }
+}
+
 case class CompiledPlanBuilder(clock: Clock, structure:CodeStructure[GeneratedQuery]) {
 
   private val codeGen = new CodeGenerator(structure, CodeGenConfiguration(mode = ByteCodeMode, clock = clock))
@@ -69,11 +69,19 @@ trait MethodStructure[E] {
   def declare(varName: String, codeGenType: CodeGenType): Unit
   def declareProperty(name: String): Unit
   def declareCounter(name: String, initialValue: E): Unit
+  def declareLongCounter(name: String): Unit
+  def incrementLongCounter(name: String): Unit
   def putField(structure: Map[String, CodeGenType], value: E, fieldType: CodeGenType, fieldName: String, localVar: String): Unit
   def updateProbeTable(structure: Map[String, CodeGenType], tableVar: String, tableType: RecordingJoinTableType, keyVars: Seq[String], element: E): Unit
   def probe(tableVar: String, tableType: JoinTableType, keyVars: Seq[String])(block: MethodStructure[E]=>Unit): Unit
   def updateProbeTableCount(tableVar: String, tableType: CountingJoinTableType, keyVar: Seq[String]): Unit
   def allocateProbeTable(tableVar: String, tableType: JoinTableType): Unit
+  def countTableForEach(tableVar: String, keyVar: String, countVar: String)(block: MethodStructure[E]=>Unit): Unit
+  def newDistinctSet(setVar: String, keyCount: Int): Unit
+  def distinctSetIfNotContains(setVar: String, keyVars: Seq[String])(block: MethodStructure[E]=>Unit): Unit
+  def newSortTable(tableVar: String, sortKeys: Seq[(Int, Boolean)], limit: Option[E]): Unit
+  def addToSortTable(tableVar: String, columnVars: Seq[String]): Unit
+  def sortTableForEach(tableVar: String, columnVars: Seq[String])(block: MethodStructure[E]=>Unit): Unit
   def invokeMethod(resultType: JoinTableType, resultVar: String, methodName: String)(block: MethodStructure[E]=>Unit): Unit
   def coerceToBoolean(propertyExpression: E): E
 
@@ -132,6 +140,8 @@ trait MethodStructure[E] {
   def lookupRelationshipTypeId(typeIdVar: String, typeName: String): Unit
   def nodeGetAllRelationships(iterVar: String, nodeVar: String, direction: SemanticDirection): Unit
   def nodeGetRelationships(iterVar: String, nodeVar: String, direction: SemanticDirection, typeVars: Seq[String]): Unit
+  def varLengthExpand(iterVar: String, nodeVar: String, direction: SemanticDirection, minLength: Int, maxLength: Int,
+                      typeVars: Seq[String]): Unit
   def connectingRelationships(iterVar: String, fromNode: String, dir: SemanticDirection, toNode:String)
   def connectingRelationships(iterVar: String, fromNode: String, dir: SemanticDirection, types: Seq[String], toNode: String)
   def nextNode(targetVar: String, iterVar: String): Unit
@@ -23,6 +23,7 @@ import org.neo4j.cypher.internal.compiler.v3_1.codegen.ir._
 import org.neo4j.cypher.internal.compiler.v3_1.codegen.ir.expressions._
 import org.neo4j.cypher.internal.compiler.v3_1.commands.{ManyQueryExpression, QueryExpression, RangeQueryExpression, SingleQueryExpression}
 import org.neo4j.cypher.internal.compiler.v3_1.planner.CantCompileQueryException
+import org.neo4j.cypher.internal.compiler.v3_1.planner.logical.{Ascending, Descending}
 import org.neo4j.cypher.internal.compiler.v3_1.planner.logical.plans
 import org.neo4j.cypher.internal.compiler.v3_1.planner.logical.plans._
 import org.neo4j.cypher.internal.frontend.v3_1.ast.Expression
@@ -39,12 +40,18 @@ object LogicalPlanConverter {
     case p: NodeUniqueIndexSeek => nodeUniqueIndexSeekAsCodeGen(p)
     case p: Expand => expandAsCodeGenPlan(p)
     case p: OptionalExpand => optExpandAsCodeGenPlan(p)
+    case p: VarExpand => varExpandAsCodeGenPlan(p)
     case p: NodeHashJoin => nodeHashJoinAsCodeGenPlan(p)
     case p: CartesianProduct => cartesianProductAsCodeGenPlan(p)
     case p: Selection => selectionAsCodeGenPlan(p)
+    case p@plans.Limit(sort: Sort, _, DoNotIncludeTies) => sortAsCodeGenPlan(sort, Some(p))
     case p: plans.Limit => limitAsCodeGenPlan(p)
+    case p: Sort => sortAsCodeGenPlan(p, None)
     case p: ProduceResult => produceResultsAsCodeGenPlan(p)
     case p: plans.Projection => projectionAsCodeGenPlan(p)
+    case p: Aggregation if p.aggregationExpression.isEmpty => distinctAsCodeGenPlan(p)
+    case p: Aggregation if p.groupingExpressions.isEmpty => countAllRowsAsCodeGenPlan(p)
+    case p: Aggregation => countAggregationAsCodeGenPlan(p)
 
     case _ =>
       throw new CantCompileQueryException(s"$logicalPlan is not yet supported")
@@ -370,6 +377,33 @@ object LogicalPlanConverter {
     }
   }
 
+  /*
+   * Only the end node of a variable length expand is produced. The list of relationships is not registered as a
+   * variable, so any use of it makes the query fall back to the interpreted runtime.
+   */
+  private def varExpandAsCodeGenPlan(varExpand: VarExpand) = new CodeGenPlan with SingleChildPlan {
+
+    override val logicalPlan: LogicalPlan = varExpand
+
+    override def consume(context: CodeGenContext, child: CodeGenPlan): (Option[JoinTableMethod], Instruction) = {
+      if (varExpand.mode != ExpandAll || varExpand.predicates.nonEmpty)
+        throw new CantCompileQueryException(s"$varExpand is not yet supported")
+
+      val toNodeVar = Variable(context.namer.newVarName(), CodeGenType.primitiveNode)
+      context.addVariable(varExpand.to.name, toNodeVar)
+
+      val (methodHandle, action) = context.popParent().consume(context, this)
+      val fromNodeVar = context.getVariable(varExpand.from.name)
+      val typeVar2TypeName = varExpand.types.map(t => context.namer.newVarName() -> t.name).toMap
+      val opName = context.registerOperator(varExpand)
+      val VarPatternLength(min, max) = varExpand.length
+      val expandGenerator = VarExpandLoopDataGenerator(opName, fromNodeVar, varExpand.dir, typeVar2TypeName, min,
+                                                       max.getOrElse(Int.MaxValue), toNodeVar)
+
+      (methodHandle, WhileLoop(toNodeVar, expandGenerator, action))
+    }
+  }
+
   private def cartesianProductAsCodeGenPlan(cartesianProduct: CartesianProduct) = new CodeGenPlan {
 
     override val logicalPlan: LogicalPlan = cartesianProduct
@@ -431,6 +465,178 @@ object LogicalPlanConverter {
     }
   }
 
+  private def distinctAsCodeGenPlan(distinct: Aggregation) = new CodeGenPlan with SingleChildPlan {
+
+    override val logicalPlan: LogicalPlan = distinct
+
+    override def consume(context: CodeGenContext, child: CodeGenPlan): (Option[JoinTableMethod], Instruction) = {
+      val opName = context.registerOperator(distinct)
+      val keys = distinct.groupingExpressions.map {
+        case (name, expression) =>
+          val key = primitiveGroupingKey(expression)(context)
+          context.addVariable(name, key)
+          key
+      }.toSeq
+      val setName = context.namer.newVarName()
+
+      val (methodHandle, action) = context.popParent().consume(context, this)
+
+      (methodHandle, DistinctInstruction(opName, setName, keys, action))
+    }
+  }
+
+  /*
+   * Counting aggregation grouped by a single node or relationship. The lhs is compiled into a separate method that
+   * fills a primitive long-to-count table, the result is produced by iterating over that table.
+   */
+  private def countAggregationAsCodeGenPlan(aggregation: Aggregation) = new CodeGenPlan {
+
+    override val logicalPlan: LogicalPlan = aggregation
+
+    override def produce(context: CodeGenContext): (Option[JoinTableMethod], Seq[Instruction]) = {
+      failOnLimitBelow(aggregation)
+      context.pushParent(this)
+      val (Some(symbol), lhsInstructions) = asCodeGenPlan(aggregation.lhs.get).produce(context)
+      val opName = context.registerOperator(aggregation)
+      val buildTable = MethodInvocation(Set(opName), symbol, context.namer.newMethodName(), lhsInstructions)
+
+      val tableData = context.getProbeTable(this)
+      val (keyName, keyData) = tableData.vars.head
+      context.addVariable(keyName, keyData.outgoing)
+      val countVar = Variable(context.namer.newVarName(), CodeGenType.primitiveInt)
+      aggregation.aggregationExpression.keys.foreach(context.addVariable(_, countVar))
+
+      val (methodHandle, action) = context.popParent().consume(context, this)
+      (methodHandle, Seq(buildTable,
+                         GetCountsFromAggregationTable(opName, tableData.tableVar, keyData.outgoing, countVar, action)))
+    }
+
+    override def consume(context: CodeGenContext, child: CodeGenPlan): (Option[JoinTableMethod], Instruction) = {
+      if (aggregation.groupingExpressions.size != 1)
+        throw new CantCompileQueryException(s"Aggregation on ${aggregation.groupingExpressions.size} keys is not yet supported")
+      val (keyName, keyExpression) = aggregation.groupingExpressions.head
+      val key = primitiveGroupingKey(keyExpression)(context)
+      aggregation.aggregationExpression.values.foreach(countsRows(_)(context))
+
+      val opName = context.registerOperator(aggregation)
+      val tableName = context.namer.newVarName()
+      val buildTable = BuildCountingProbeTable(opName, tableName, Set(key))
+      val keyData = VariableData(keyName, key, key.copy(name = context.namer.newVarName()))
+      context.addProbeTable(this, JoinData(Map(keyName -> keyData), tableName, buildTable.tableType, opName))
+
+      (Some(JoinTableMethod(tableName, buildTable.tableType)), buildTable)
+    }
+
+  }
+
+  /*
+   * Counting aggregation without grouping keys. Every incoming row increments a single long counter, and one row
+   * holding the count is produced once the lhs is exhausted, also when the lhs produced no rows at all.
+   */
+  private def countAllRowsAsCodeGenPlan(aggregation: Aggregation) = new CodeGenPlan {
+
+    override val logicalPlan: LogicalPlan = aggregation
+
+    private var counterName: String = _
+
+    override def produce(context: CodeGenContext): (Option[JoinTableMethod], Seq[Instruction]) = {
+      failOnLimitBelow(aggregation)
+      counterName = context.namer.newVarName()
+      context.pushParent(this)
+      val (_, lhsInstructions) = asCodeGenPlan(aggregation.lhs.get).produce(context)
+      val opName = context.registerOperator(aggregation)
+      val countVar = Variable(counterName, CodeGenType.primitiveInt)
+      aggregation.aggregationExpression.keys.foreach(context.addVariable(_, countVar))
+
+      val (methodHandle, action) = context.popParent().consume(context, this)
+      (methodHandle, Seq(CountAllRows(opName, counterName, lhsInstructions, action)))
+    }
+
+    override def consume(context: CodeGenContext, child: CodeGenPlan): (Option[JoinTableMethod], Instruction) = {
+      aggregation.aggregationExpression.values.foreach(countsRows(_)(context))
+      (None, IncrementRowCount(counterName))
+    }
+  }
+
+  /*
+   * Sorting on integers, e.g. counts. Every incoming row is added to a sort table as an array of longs, which limits
+   * the rows to node ids, relationship ids and integers, and the rows are produced in order once the lhs is
+   * exhausted. A limit directly on top of the sort makes it a top-N, where the table only keeps the first rows up to
+   * that limit in a heap.
+   */
+  private def sortAsCodeGenPlan(sort: Sort, limit: Option[plans.Limit]) = new CodeGenPlan {
+
+    override val logicalPlan: LogicalPlan = limit.getOrElse(sort)
+
+    private var tableName: String = _
+    private var columns: Seq[(String, Variable)] = _
+
+    override def produce(context: CodeGenContext): (Option[JoinTableMethod], Seq[Instruction]) = {
+      failOnLimitBelow(sort)
+      tableName = context.namer.newVarName()
+      context.pushParent(this)
+      val (_, lhsInstructions) = asCodeGenPlan(sort.lhs.get).produce(context)
+      val opName = context.registerOperator(logicalPlan)
+      val count = limit.map(l => ExpressionConverter.createExpression(l.count)(context))
+      val sortKeys = sort.sortItems.map {
+        case Ascending(IdName(name)) => (columns.indexWhere(_._1 == name), false)
+        case Descending(IdName(name)) => (columns.indexWhere(_._1 == name), true)
+      }
+      val columnVars = columns.map {
+        case (name, variable) =>
+          val sorted = variable.copy(name = context.namer.newVarName())
+          context.addVariable(name, sorted)
+          variable -> sorted
+      }
+
+      val (methodHandle, action) = context.popParent().consume(context, this)
+      (methodHandle, Seq(SortInstruction(opName, tableName, columnVars, sortKeys, count, lhsInstructions, action)))
+    }
+
+    override def consume(context: CodeGenContext, child: CodeGenPlan): (Option[JoinTableMethod], Instruction) = {
+      columns = sort.availableSymbols.toSeq.map(_.name).filter(context.hasVariable).map {
+        name =>
+          val variable = context.getVariable(name)
+          if (variable.codeGenType.repr != IntType)
+            throw new CantCompileQueryException(s"Sorting rows holding $name is not yet supported")
+          name -> variable
+      }
+      sort.sortItems.foreach { item =>
+        val key = columns.collectFirst { case (name, variable) if name == item.id.name => variable }
+        if (!key.exists(variable => variable.codeGenType == CodeGenType.primitiveInt && !variable.nullable))
+          throw new CantCompileQueryException(s"Sorting on ${item.id.name} is not yet supported")
+      }
+      (None, AddRowToSortTable(tableName, columns.map(_._2)))
+    }
+  }
+
+  // a compiled limit returns from the whole query once reached, so the rows of an eager plan above it would never be
+  // produced
+  private def failOnLimitBelow(plan: LogicalPlan) = {
+    import org.neo4j.cypher.internal.frontend.v3_1.Foldable._
+    if (plan.lhs.get.exists { case _: plans.Limit => true })
+      throw new CantCompileQueryException(s"${plan.getClass.getSimpleName} on top of a limit is not yet supported")
+  }
+
+  // count(*) and count(n), for a variable n that is never null, both count every incoming row
+  private def countsRows(expression: Expression)(context: CodeGenContext) = expression match {
+    case _: ast.CountStar =>
+    case f@ast.FunctionInvocation(_, false, IndexedSeq(ast.Variable(name)))
+      if f.function.contains(ast.functions.Count) && !context.getVariable(name).nullable =>
+    case other => throw new CantCompileQueryException(s"Aggregating expression $other is not yet supported")
+  }
+
+  // grouping keys are only handled when they are non-nullable node or relationship ids
+  private def primitiveGroupingKey(expression: Expression)(context: CodeGenContext): Variable = expression match {
+    case ast.Variable(name) =>
+      val variable = context.getVariable(name)
+      if (variable.nullable || (variable.codeGenType != CodeGenType.primitiveNode &&
+                                variable.codeGenType != CodeGenType.primitiveRel))
+        throw new CantCompileQueryException(s"Grouping on $name is not yet supported")
+      variable
+    case other => throw new CantCompileQueryException(s"Grouping on $other is not yet supported")
+  }
+
   trait SingleChildPlan extends CodeGenPlan {
 
     final override def produce(context: CodeGenContext): (Option[JoinTableMethod], Seq[Instruction]) = {
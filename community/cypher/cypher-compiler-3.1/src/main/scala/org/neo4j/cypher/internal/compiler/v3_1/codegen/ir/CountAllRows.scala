@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_1.codegen.ir
+
+import org.neo4j.cypher.internal.compiler.v3_1.codegen.{CodeGenContext, MethodStructure}
+
+/*
+ * Counts the rows produced by the given statements in a long counter, and runs the action once afterwards, also
+ * when no rows were produced at all.
+ */
+case class CountAllRows(opName: String, counterVar: String, statements: Seq[Instruction], action: Instruction)
+  extends Instruction {
+
+  override def body[E](generator: MethodStructure[E])(implicit context: CodeGenContext) = {
+    generator.declareLongCounter(counterVar)
+    statements.foreach(_.body(generator))
+    generator.trace(opName) { traced =>
+      traced.incrementRows()
+      action.body(traced)
+    }
+  }
+
+  override protected def children = statements :+ action
+
+  override protected def operatorId = Set(opName)
+}
+
+case class IncrementRowCount(counterVar: String) extends Instruction {
+
+  override def body[E](generator: MethodStructure[E])(implicit context: CodeGenContext) =
+    generator.incrementLongCounter(counterVar)
+
+  override protected def children = Seq.empty
+}
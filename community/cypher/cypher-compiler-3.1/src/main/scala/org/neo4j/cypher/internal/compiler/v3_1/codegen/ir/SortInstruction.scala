@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_1.codegen.ir
+
+import org.neo4j.cypher.internal.compiler.v3_1.codegen.ir.expressions.CodeGenExpression
+import org.neo4j.cypher.internal.compiler.v3_1.codegen.{CodeGenContext, MethodStructure, Variable}
+
+/*
+ * Sorts the rows produced by the given statements, and runs the action for each of them in order once all rows have
+ * been produced. The columns map the variables of the incoming rows to those holding them when read back. Given a
+ * limit, only the first rows up to that limit are kept and read back.
+ */
+case class SortInstruction(opName: String, tableVar: String, columns: Seq[(Variable, Variable)],
+                           sortKeys: Seq[(Int, Boolean)], limit: Option[CodeGenExpression],
+                           statements: Seq[Instruction], action: Instruction) extends Instruction {
+
+  override def init[E](generator: MethodStructure[E])(implicit context: CodeGenContext) = {
+    val count = limit.map { expression =>
+      expression.init(generator)
+      generator.box(expression.generateExpression(generator), expression.codeGenType)
+    }
+    generator.newSortTable(tableVar, sortKeys, count)
+    super.init(generator)
+  }
+
+  override def body[E](generator: MethodStructure[E])(implicit context: CodeGenContext) = {
+    statements.foreach(_.body(generator))
+    generator.trace(opName) { sorted =>
+      sorted.sortTableForEach(tableVar, columns.map(_._2.name)) { row =>
+        row.incrementRows()
+        action.body(row)
+      }
+    }
+  }
+
+  override protected def children = statements :+ action
+
+  override protected def operatorId = Set(opName)
+}
+
+case class AddRowToSortTable(tableVar: String, columns: Seq[Variable]) extends Instruction {
+
+  override def body[E](generator: MethodStructure[E])(implicit context: CodeGenContext) =
+    generator.addToSortTable(tableVar, columns.map(_.name))
+
+  override protected def children = Seq.empty
+}
@@ -23,7 +23,7 @@ import org.neo4j.cypher.internal.compiler.v3_1.codegen.ir.expressions
 import org.neo4j.cypher.internal.compiler.v3_1.codegen.ir.functions.functionConverter
 import org.neo4j.cypher.internal.compiler.v3_1.codegen.{CodeGenContext, MethodStructure}
 import org.neo4j.cypher.internal.compiler.v3_1.planner.CantCompileQueryException
-import org.neo4j.cypher.internal.frontend.v3_1.symbols.{CTBoolean, CTNode, CTRelationship}
+import org.neo4j.cypher.internal.frontend.v3_1.symbols.{CTBoolean, CTInteger, CTNode, CTRelationship}
 import org.neo4j.cypher.internal.frontend.v3_1.{InternalException, ast}
 
 object ExpressionConverter {
@@ -91,12 +91,17 @@ object ExpressionConverter {
   def createExpressionForVariable(variableQueryVariable: String)
                                  (implicit context: CodeGenContext): CodeGenExpression = {
 
+    // e.g. the relationships of a variable length expand, which are never materialized
+    if (!context.hasVariable(variableQueryVariable))
+      throw new CantCompileQueryException(s"Variable $variableQueryVariable is not yet supported")
+
     val variable = context.getVariable(variableQueryVariable)
 
     variable.codeGenType.ct match {
       case CTNode => NodeProjection(variable)
       case CTRelationship => RelationshipProjection(variable)
-      case _ => throw new InternalException("The compiled runtime only handles variables pointing to rels and nodes at this time")
+      case CTInteger => LoadVariable(variable)
+      case _ => throw new InternalException("The compiled runtime only handles variables pointing to rels, nodes and counts at this time")
     }
   }
 
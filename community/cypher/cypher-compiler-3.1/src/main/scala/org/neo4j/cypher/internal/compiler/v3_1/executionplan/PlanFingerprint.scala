@@ -35,7 +35,7 @@ case class PlanFingerprintReference(clock: Clock, ttl: Long, statsDivergenceThre
 
       check(f.creationTimeMillis + ttl <= currentTimeMillis, {}) &&
       check(currentTxId != f.txId, { fingerprint = Some(f.copy(creationTimeMillis = currentTimeMillis)) }) &&
-      check(f.snapshot.diverges(f.snapshot.recompute(statistics), statsDivergenceThreshold),
+      check(f.snapshot.diverges(statistics, statsDivergenceThreshold),
             { fingerprint = Some(f.copy(creationTimeMillis = currentTimeMillis, txId = currentTxId)) })
     }
   }
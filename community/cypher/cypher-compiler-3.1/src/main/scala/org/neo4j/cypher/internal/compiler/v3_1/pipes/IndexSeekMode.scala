@@ -22,9 +22,11 @@ package org.neo4j.cypher.internal.compiler.v3_1.pipes
 import org.neo4j.cypher.internal.compiler.v3_1.commands.{QueryExpression, RangeQueryExpression}
 import org.neo4j.graphdb.Node
 import org.neo4j.kernel.api.index.IndexDescriptor
+import org.neo4j.storageengine.api.schema.IndexOrder
 
 case class IndexSeekModeFactory(unique: Boolean, readOnly: Boolean) {
-  def fromQueryExpression[T](qexpr: QueryExpression[T]) = qexpr match {
+  def fromQueryExpression[T](qexpr: QueryExpression[T], order: Option[IndexOrder] = None) = qexpr match {
+    case _: RangeQueryExpression[_] if order.nonEmpty => OrderedIndexSeekByRange(order.get, unique)
     case _: RangeQueryExpression[_] if unique => UniqueIndexSeekByRange
     case _: RangeQueryExpression[_] => IndexSeekByRange
     case _ if unique && !readOnly => LockingUniqueIndexSeek
@@ -74,3 +76,10 @@ case object IndexSeekByRange extends IndexSeekMode with SeekByRange {
 case object UniqueIndexSeekByRange extends IndexSeekMode with SeekByRange {
   override def name: String = "NodeUniqueIndexSeekByRange"
 }
+
+case class OrderedIndexSeekByRange(order: IndexOrder, unique: Boolean) extends IndexSeekMode {
+  override def indexFactory(descriptor: IndexDescriptor): (QueryState) => (Any) => Iterator[Node] =
+    (state: QueryState) => (x: Any) => state.query.indexSeekByRange(descriptor, x, order)
+
+  override def name: String = if (unique) UniqueIndexSeekByRange.name else IndexSeekByRange.name
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_1.pipes
+
+import org.neo4j.cypher.internal.compiler.v3_1.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v3_1.commands.expressions.Expression
+import org.neo4j.cypher.internal.compiler.v3_1.spi._
+
+/*
+  Counts the nodes of a single node scan by handing the scan over to a MorselScanner, which splits it into morsels
+  that are processed in parallel. When the scanner cannot answer the query, e.g. because the transaction holds
+  changes of its own, the wrapped eager aggregation is executed instead.
+ */
+case class MorselCountPipe(fallback: EagerAggregationPipe, scan: NodeMorselScan, scanner: MorselScanner)
+                          (val estimatedCardinality: Option[Double] = None)
+                          (implicit pipeMonitor: PipeMonitor) extends Pipe with RonjaPipe with NoEffectsPipe {
+
+  private val source = fallback.source
+
+  protected def internalCreateResults(state: QueryState): Iterator[ExecutionContext] = parallelCounts(state) match {
+    case Some(counts) =>
+      val baseContext = state.initialContext.getOrElse(ExecutionContext.empty)
+      Iterator.single(baseContext.newWith(scan.counts.map(_._1) zip counts))
+    case None =>
+      fallback.createResults(state)
+  }
+
+  private def parallelCounts(state: QueryState): Option[Seq[Long]] = {
+    val query = state.query
+    val morselSource = scan.source match {
+      case AllNodesScanSource => Some(AllNodesMorselSource)
+      case LabelScanSource(label) => label.getOptId(query).map(id => LabelMorselSource(id.id))
+      case IndexScanSource(label, propertyKey) =>
+        for (labelId <- label.getOptId(query); propertyKeyId <- propertyKey.id(query))
+          yield IndexMorselSource(labelId.id, propertyKeyId.id)
+    }
+    val predicates = scan.predicates.map {
+      case HasLabelScanPredicate(label) =>
+        label.getOptId(query).map(id => HasLabelMorselPredicate(id.id))
+      case HasPropertyScanPredicate(propertyKey) =>
+        propertyKey.id(query).map(id => HasPropertyMorselPredicate(id.id))
+      case PropertyEqualsScanPredicate(propertyKey, expression) =>
+        Option(expression(ExecutionContext.empty)(state)).flatMap(value =>
+          propertyKey.id(query).map(id => PropertyEqualsMorselPredicate(id.id, value)))
+    }
+    val counts = scan.counts.map {
+      case (_, CountNodesScanCount) => CountNodesMorselCount
+      case (_, CountPropertyScanCount(propertyKey)) => CountPropertyMorselCount(propertyKey.id(query).map(_.id))
+    }
+
+    if (morselSource.isEmpty || predicates.exists(_.isEmpty))
+      // a token that does not exist, or a comparison with null, can not match any node
+      Some(counts.map(_ => 0L))
+    else if (predicates.flatten.forall(comparableInStore))
+      scanner.count(query, morselSource.get, predicates.flatten, counts)
+    else
+      None
+  }
+
+  private def comparableInStore(predicate: MorselPredicate) = predicate match {
+    case PropertyEqualsMorselPredicate(_, value) =>
+      value.isInstanceOf[String] || value.isInstanceOf[Number] || value.isInstanceOf[Boolean]
+    case _ => true
+  }
+
+  def symbols = fallback.symbols
+
+  def sources: Seq[Pipe] = Seq(source)
+
+  def exists(predicate: Pipe => Boolean): Boolean = predicate(this) || source.exists(predicate)
+
+  override def monitor = pipeMonitor
+
+  def planDescriptionWithoutCardinality = source.planDescription.andThen(this.id, "ParallelAggregation", variables)
+
+  def dup(sources: List[Pipe]): Pipe = copy(fallback = fallback.dup(sources).asInstanceOf[EagerAggregationPipe])(estimatedCardinality)
+
+  def withEstimatedCardinality(estimated: Double) = copy()(Some(estimated))
+}
+
+case class NodeMorselScan(source: NodeScanSource, predicates: Seq[NodeScanPredicate], counts: Seq[(String, NodeScanCount)])
+
+sealed trait NodeScanSource
+case object AllNodesScanSource extends NodeScanSource
+case class LabelScanSource(label: LazyLabel) extends NodeScanSource
+case class IndexScanSource(label: LazyLabel, propertyKey: LazyPropertyKey) extends NodeScanSource
+
+sealed trait NodeScanPredicate
+case class HasLabelScanPredicate(label: LazyLabel) extends NodeScanPredicate
+case class HasPropertyScanPredicate(propertyKey: LazyPropertyKey) extends NodeScanPredicate
+case class PropertyEqualsScanPredicate(propertyKey: LazyPropertyKey, value: Expression) extends NodeScanPredicate
+
+sealed trait NodeScanCount
+case object CountNodesScanCount extends NodeScanCount
+case class CountPropertyScanCount(propertyKey: LazyPropertyKey) extends NodeScanCount
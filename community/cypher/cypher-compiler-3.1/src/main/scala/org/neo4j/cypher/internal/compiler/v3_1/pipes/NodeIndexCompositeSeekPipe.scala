@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_1.pipes
+
+import org.neo4j.cypher.internal.compiler.v3_1._
+import org.neo4j.cypher.internal.compiler.v3_1.commands.expressions.Expression
+import org.neo4j.cypher.internal.compiler.v3_1.executionplan.{Effect, Effects, ReadsGivenNodeProperty, ReadsNodesWithLabels}
+import org.neo4j.cypher.internal.compiler.v3_1.mutation.makeValueNeoSafe
+import org.neo4j.cypher.internal.compiler.v3_1.planDescription.InternalPlanDescription.Arguments.Index
+import org.neo4j.cypher.internal.compiler.v3_1.planDescription.{NoChildren, PlanDescriptionImpl}
+import org.neo4j.cypher.internal.compiler.v3_1.symbols.SymbolTable
+import org.neo4j.cypher.internal.frontend.v3_1.ast.{LabelToken, PropertyKeyToken}
+import org.neo4j.cypher.internal.frontend.v3_1.symbols.CTNode
+import org.neo4j.kernel.api.index.IndexDescriptor
+
+case class NodeIndexCompositeSeekPipe(ident: String,
+                                      label: LabelToken,
+                                      propertyKeys: Seq[PropertyKeyToken],
+                                      valueExprs: Seq[Expression],
+                                      rangeExpr: Option[InequalitySeekRange[Expression]])
+                                     (val estimatedCardinality: Option[Double] = None)(implicit pipeMonitor: PipeMonitor)
+  extends Pipe with RonjaPipe {
+
+  private val descriptor = new IndexDescriptor(label.nameId.id, propertyKeys.map(_.nameId.id).toArray)
+
+  protected def internalCreateResults(state: QueryState): Iterator[ExecutionContext] = {
+    //register as parent so that stats are associated with this pipe
+    state.decorator.registerParentPipe(this)
+
+    val baseContext = state.initialContext.getOrElse(ExecutionContext.empty)
+    val values = valueExprs.map(expression => makeValueNeoSafe(expression(baseContext)(state)))
+    val resultNodes =
+      if (values.contains(null)) Iterator.empty
+      else rangeExpr match {
+        case Some(range) =>
+          val rangeValues = range.mapBounds(expression => makeValueNeoSafe(expression(baseContext)(state)))
+          state.query.compositeIndexSeekByRange(descriptor, values, rangeValues)
+        case None =>
+          state.query.compositeIndexSeek(descriptor, values)
+      }
+    resultNodes.map(node => baseContext.newWith1(ident, node))
+  }
+
+  def exists(predicate: Pipe => Boolean): Boolean = predicate(this)
+
+  def planDescriptionWithoutCardinality =
+    new PlanDescriptionImpl(this.id, "NodeIndexCompositeSeek", NoChildren,
+      Seq(Index(label.name, propertyKeys.map(_.name).mkString(", "))), variables)
+
+  def symbols = new SymbolTable(Map(ident -> CTNode))
+
+  override def monitor = pipeMonitor
+
+  def dup(sources: List[Pipe]): Pipe = {
+    require(sources.isEmpty)
+    this
+  }
+
+  def sources: Seq[Pipe] = Seq.empty
+
+  override def localEffects = {
+    val effects: Seq[Effect] = ReadsNodesWithLabels(label.name) +: propertyKeys.map(key => ReadsGivenNodeProperty(key.name))
+    Effects(effects: _*)
+  }
+
+  def withEstimatedCardinality(estimated: Double) = copy()(Some(estimated))
+}
@@ -23,7 +23,7 @@ import org.neo4j.cypher.internal.compiler.v3_1._
 import org.neo4j.cypher.internal.compiler.v3_1.commands.expressions.{Expression, InequalitySeekRangeExpression, PrefixSeekRangeExpression}
 import org.neo4j.cypher.internal.compiler.v3_1.commands.{QueryExpression, RangeQueryExpression, indexQuery}
 import org.neo4j.cypher.internal.compiler.v3_1.executionplan.{Effects, ReadsGivenNodeProperty, ReadsNodesWithLabels}
-import org.neo4j.cypher.internal.compiler.v3_1.planDescription.InternalPlanDescription.Arguments.{Index, InequalityIndex, PrefixIndex}
+import org.neo4j.cypher.internal.compiler.v3_1.planDescription.InternalPlanDescription.Arguments.{Index, InequalityIndex, PrefixIndex, SeekOrder}
 import org.neo4j.cypher.internal.compiler.v3_1.planDescription.{NoChildren, PlanDescriptionImpl}
 import org.neo4j.cypher.internal.compiler.v3_1.symbols.SymbolTable
 import org.neo4j.cypher.internal.frontend.v3_1.InternalException
@@ -58,7 +58,7 @@ case class NodeIndexSeekPipe(ident: String,
   def planDescriptionWithoutCardinality = {
     val name = indexMode.name
     val indexDesc = indexMode match {
-      case IndexSeekByRange | UniqueIndexSeekByRange =>
+      case IndexSeekByRange | UniqueIndexSeekByRange | _: OrderedIndexSeekByRange =>
         valueExpr match {
           case RangeQueryExpression(PrefixSeekRangeExpression(PrefixRange(prefix))) =>
             PrefixIndex(label.name, propertyKey.name, prefix)
@@ -80,7 +80,11 @@ case class NodeIndexSeekPipe(ident: String,
       case IndexSeek | LockingUniqueIndexSeek | UniqueIndexSeek => Index(label.name, propertyKey.name)
       case _ => throw new InternalException("This should never happen. Missing a case?")
     }
-    new PlanDescriptionImpl(this.id, name, NoChildren, Seq(indexDesc), variables)
+    val orderDesc = indexMode match {
+      case OrderedIndexSeekByRange(order, _) => Seq(SeekOrder(order.name.toLowerCase))
+      case _ => Seq.empty
+    }
+    new PlanDescriptionImpl(this.id, name, NoChildren, indexDesc +: orderDesc, variables)
   }
 
   def symbols = new SymbolTable(Map(ident -> CTNode))
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_1.planner.execution
+
+import org.neo4j.cypher.internal.compiler.v3_1.Monitors
+import org.neo4j.cypher.internal.compiler.v3_1.ast.convert.commands.ExpressionConverters._
+import org.neo4j.cypher.internal.compiler.v3_1.pipes._
+import org.neo4j.cypher.internal.compiler.v3_1.planner.logical.plans._
+import org.neo4j.cypher.internal.compiler.v3_1.spi.{MorselScanner, PlanContext}
+import org.neo4j.cypher.internal.frontend.v3_1.ast._
+import org.neo4j.cypher.internal.frontend.v3_1.ast.functions.{Count, Exists}
+
+/*
+  Builds the same pipes as the interpreted runtime, except that counting aggregations over a single node scan are
+  replaced with a MorselCountPipe that executes the scan in parallel.
+ */
+class ParallelPipeBuilderFactory(scanner: MorselScanner) extends PipeBuilderFactory {
+  override def apply(monitors: Monitors, recurse: LogicalPlan => Pipe, readOnly: Boolean)
+                    (implicit context: PipeExecutionBuilderContext, planContext: PlanContext): PipeBuilder =
+    new ParallelPipeBuilder(super.apply(monitors, recurse, readOnly), scanner)(monitors.newMonitor[PipeMonitor]())
+}
+
+class ParallelPipeBuilder(inner: PipeBuilder, scanner: MorselScanner)(implicit pipeMonitor: PipeMonitor) extends PipeBuilder {
+
+  def build(plan: LogicalPlan): RonjaPipe = inner.build(plan)
+
+  def build(plan: LogicalPlan, source: Pipe): RonjaPipe = (plan, inner.build(plan, source)) match {
+    case (aggregation: Aggregation, fallback: EagerAggregationPipe) =>
+      nodeMorselScan(aggregation).map(MorselCountPipe(fallback, _, scanner)()).getOrElse(fallback)
+    case (_, pipe) =>
+      pipe
+  }
+
+  def build(plan: LogicalPlan, lhs: Pipe, rhs: Pipe): RonjaPipe = inner.build(plan, lhs, rhs)
+}
+
+object nodeMorselScan {
+
+  def isDefinedAt(plan: LogicalPlan): Boolean = plan match {
+    case aggregation: Aggregation => apply(aggregation).isDefined
+    case _ => false
+  }
+
+  def apply(aggregation: Aggregation): Option[NodeMorselScan] = aggregation match {
+    case Aggregation(source, grouping, aggregations) if grouping.isEmpty && aggregations.nonEmpty =>
+      val (leaf, predicates) = source match {
+        case Selection(selectionPredicates, selectionSource) => (selectionSource, selectionPredicates)
+        case _ => (source, Seq.empty)
+      }
+      for {
+        (node, scanSource) <- nodeScan(leaf)
+        scanPredicates <- all(predicates.map(predicate(node)))
+        scanCounts <- all(aggregations.toSeq.map { case (name, expression) => count(node)(expression).map(name -> _) })
+      } yield NodeMorselScan(scanSource, scanPredicates.flatten, scanCounts)
+
+    case _ => None
+  }
+
+  private def nodeScan(plan: LogicalPlan): Option[(String, NodeScanSource)] = plan match {
+    case AllNodesScan(IdName(node), arguments) if arguments.isEmpty =>
+      Some(node -> AllNodesScanSource)
+    case NodeByLabelScan(IdName(node), label, arguments) if arguments.isEmpty =>
+      Some(node -> LabelScanSource(LazyLabel(label.name)))
+    case NodeIndexScan(IdName(node), label, propertyKey, arguments) if arguments.isEmpty =>
+      Some(node -> IndexScanSource(LazyLabel(label.name), LazyPropertyKey(propertyKey.name)))
+    case _ => None
+  }
+
+  private def predicate(node: String)(expression: Expression): Option[Seq[NodeScanPredicate]] = expression match {
+    case HasLabels(Variable(`node`), labels) =>
+      Some(labels.map(label => HasLabelScanPredicate(LazyLabel(label.name))))
+    case IsNotNull(Property(Variable(`node`), propertyKey)) =>
+      Some(Seq(HasPropertyScanPredicate(LazyPropertyKey(propertyKey.name))))
+    case f@FunctionInvocation(_, false, IndexedSeq(Property(Variable(`node`), propertyKey))) if f.function contains Exists =>
+      Some(Seq(HasPropertyScanPredicate(LazyPropertyKey(propertyKey.name))))
+    case Equals(Property(Variable(`node`), propertyKey), value) if isConstant(value) =>
+      Some(Seq(PropertyEqualsScanPredicate(LazyPropertyKey(propertyKey.name), toCommandExpression(value))))
+    case Equals(value, Property(Variable(`node`), propertyKey)) if isConstant(value) =>
+      Some(Seq(PropertyEqualsScanPredicate(LazyPropertyKey(propertyKey.name), toCommandExpression(value))))
+    case _ => None
+  }
+
+  private def count(node: String)(expression: Expression): Option[NodeScanCount] = expression match {
+    case CountStar() =>
+      Some(CountNodesScanCount)
+    case f@FunctionInvocation(_, false, IndexedSeq(Variable(`node`))) if f.function contains Count =>
+      Some(CountNodesScanCount)
+    case f@FunctionInvocation(_, false, IndexedSeq(Property(Variable(`node`), propertyKey))) if f.function contains Count =>
+      Some(CountPropertyScanCount(LazyPropertyKey(propertyKey.name)))
+    case _ => None
+  }
+
+  private def isConstant(expression: Expression) = expression match {
+    case _: Literal | _: Parameter => true
+    case _ => false
+  }
+
+  private def all[T](options: Seq[Option[T]]): Option[Seq[T]] =
+    if (options.forall(_.isDefined)) Some(options.flatten) else None
+}
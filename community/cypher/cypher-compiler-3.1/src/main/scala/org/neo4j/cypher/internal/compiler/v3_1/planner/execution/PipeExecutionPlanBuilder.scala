@@ -41,6 +41,7 @@ import org.neo4j.cypher.internal.frontend.v3_1._
 import org.neo4j.cypher.internal.frontend.v3_1.ast._
 import org.neo4j.cypher.internal.frontend.v3_1.helpers.Eagerly
 import org.neo4j.graphdb.{Node, PropertyContainer, Relationship}
+import org.neo4j.storageengine.api.schema.IndexOrder
 
 import scala.collection.mutable
 
@@ -195,14 +196,20 @@ case class ActualPipeBuilder(monitors: Monitors, recurse: LogicalPlan => Pipe, r
     case UndirectedRelationshipByIdSeek(IdName(id), relIdExpr, IdName(fromNode), IdName(toNode), _) =>
       UndirectedRelationshipByIdSeekPipe(id, relIdExpr.asCommandSeekArgs, toNode, fromNode)()
 
-    case NodeIndexSeek(IdName(id), label, propertyKey, valueExpr, _) =>
-      val indexSeekMode = IndexSeekModeFactory(unique = false, readOnly = readOnly).fromQueryExpression(valueExpr)
+    case NodeIndexSeek(IdName(id), label, propertyKey, valueExpr, _, order) =>
+      val indexSeekMode = IndexSeekModeFactory(unique = false, readOnly = readOnly)
+        .fromQueryExpression(valueExpr, indexOrder(order))
       NodeIndexSeekPipe(id, label, propertyKey, valueExpr.map(buildExpression), indexSeekMode)()
 
-    case NodeUniqueIndexSeek(IdName(id), label, propertyKey, valueExpr, _) =>
-      val indexSeekMode = IndexSeekModeFactory(unique = true, readOnly = readOnly).fromQueryExpression(valueExpr)
+    case NodeUniqueIndexSeek(IdName(id), label, propertyKey, valueExpr, _, order) =>
+      val indexSeekMode = IndexSeekModeFactory(unique = true, readOnly = readOnly)
+        .fromQueryExpression(valueExpr, indexOrder(order))
       NodeIndexSeekPipe(id, label, propertyKey, valueExpr.map(buildExpression), indexSeekMode)()
 
+    case NodeIndexCompositeSeek(IdName(id), label, propertyKeys, valueExprs, rangeExpr, _) =>
+      NodeIndexCompositeSeekPipe(id, label, propertyKeys, valueExprs.map(buildExpression),
+        rangeExpr.map(_.mapBounds(buildExpression)))()
+
     case NodeIndexScan(IdName(id), label, propertyKey, _) =>
       NodeIndexScanPipe(id, label, propertyKey)()
 
@@ -524,4 +531,10 @@ case class ActualPipeBuilder(monitors: Monitors, recurse: LogicalPlan => Pipe, r
     case logical.Ascending(IdName(name)) => pipes.Ascending(name)
     case logical.Descending(IdName(name)) => pipes.Descending(name)
   }
+
+  private def indexOrder(order: IndexSeekOrder): Option[IndexOrder] = order match {
+    case UnorderedSeek => None
+    case AscendingSeek => Some(IndexOrder.ASCENDING)
+    case DescendingSeek => Some(IndexOrder.DESCENDING)
+  }
 }
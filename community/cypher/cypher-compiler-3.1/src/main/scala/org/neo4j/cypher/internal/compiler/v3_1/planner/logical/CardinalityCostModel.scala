@@ -79,6 +79,7 @@ object CardinalityCostModel extends CostModel {
          _: NodeByIdSeek |
          _: NodeUniqueIndexSeek |
          _: NodeIndexSeek |
+         _: NodeIndexCompositeSeek |
          _: NodeIndexContainsScan |
          _: NodeIndexEndsWithScan |
          _: NodeIndexScan
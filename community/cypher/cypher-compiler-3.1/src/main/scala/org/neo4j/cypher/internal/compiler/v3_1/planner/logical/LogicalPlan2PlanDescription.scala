@@ -39,11 +39,17 @@ object LogicalPlan2PlanDescription extends ((LogicalPlan, Map[LogicalPlan, Id])
       case NodeByIdSeek(IdName(id), nodeIds, arguments) =>
         PlanDescriptionImpl(id = idMap(plan), "NodeByIdSeek", NoChildren, Seq(), symbols)
 
-      case NodeIndexSeek(IdName(id), label, propKey, value, arguments) =>
-        PlanDescriptionImpl(id = idMap(plan), "NodeIndexSeek", NoChildren, Seq(Index(label.name, propKey.name)), symbols)
+      case NodeIndexSeek(IdName(id), label, propKey, value, arguments, order) =>
+        PlanDescriptionImpl(id = idMap(plan), "NodeIndexSeek", NoChildren,
+          Index(label.name, propKey.name) +: seekOrder(order), symbols)
 
-      case NodeUniqueIndexSeek(IdName(id), label, propKey, value, arguments) =>
-        PlanDescriptionImpl(id = idMap(plan), "NodeUniqueIndexSeek", NoChildren, Seq(Index(label.name, propKey.name)), symbols)
+      case NodeUniqueIndexSeek(IdName(id), label, propKey, value, arguments, order) =>
+        PlanDescriptionImpl(id = idMap(plan), "NodeUniqueIndexSeek", NoChildren,
+          Index(label.name, propKey.name) +: seekOrder(order), symbols)
+
+      case NodeIndexCompositeSeek(IdName(id), label, propKeys, _, _, arguments) =>
+        PlanDescriptionImpl(id = idMap(plan), "NodeIndexCompositeSeek", NoChildren,
+          Seq(Index(label.name, propKeys.map(_.name).mkString(", "))), symbols)
 
       case ProduceResult(_, inner) =>
         PlanDescriptionImpl(id = idMap(plan), "ProduceResults", SingleChild(apply(inner, idMap)), Seq(), symbols)
@@ -66,6 +72,14 @@ object LogicalPlan2PlanDescription extends ((LogicalPlan, Map[LogicalPlan, Id])
         PlanDescriptionImpl(id = idMap(plan), modeText, SingleChild(apply(inner, idMap)), expressions, symbols)
 
 
+      case VarExpand(inner, IdName(fromName), _, projectedDir, typeNames, IdName(toName), IdName(relName), _, mode, _) =>
+        val expression = ExpandExpression(fromName, relName, typeNames.map(_.name), toName, projectedDir, varLength = true)
+        val modeText = mode match {
+          case ExpandAll => "VarLengthExpand(All)"
+          case ExpandInto => "VarLengthExpand(Into)"
+        }
+        PlanDescriptionImpl(id = idMap(plan), modeText, SingleChild(apply(inner, idMap)), Seq(expression), symbols)
+
       case NodeHashJoin(nodes, lhs, rhs) =>
         val children = TwoChildren(apply(lhs, idMap), apply(rhs, idMap))
         PlanDescriptionImpl(id = idMap(plan), "NodeHashJoin", children, Seq(KeyNames(nodes.toSeq.map(_.name))), symbols)
@@ -80,10 +94,26 @@ object LogicalPlan2PlanDescription extends ((LogicalPlan, Map[LogicalPlan, Id])
         val children = TwoChildren(apply(lhs, idMap), apply(rhs, idMap))
         PlanDescriptionImpl(id = idMap(plan), "CartesianProduct", children,Seq.empty, symbols)
 
+      case Limit(Sort(lhs, sortItems), count, DoNotIncludeTies) =>
+        PlanDescriptionImpl(id = idMap(plan), "Top", SingleChild(apply(lhs, idMap)),
+          Seq(Expression(count), KeyNames(sortItems.map(_.id.name))), symbols)
+
+      case Sort(lhs, sortItems) =>
+        PlanDescriptionImpl(id = idMap(plan), "Sort", SingleChild(apply(lhs, idMap)),
+          Seq(KeyNames(sortItems.map(_.id.name))), symbols)
+
       case Limit(lhs, count, DoNotIncludeTies) =>
         PlanDescriptionImpl(id = idMap(plan), name = "Limit", children = SingleChild(apply(lhs, idMap)),
           Seq(Expression(count)), symbols)
 
+      case Aggregation(lhs, groupingExpressions, aggregationExpressions) if aggregationExpressions.isEmpty =>
+        PlanDescriptionImpl(id = idMap(plan), "Distinct", SingleChild(apply(lhs, idMap)),
+          Seq(KeyNames(groupingExpressions.keys.toSeq)), symbols)
+
+      case Aggregation(lhs, groupingExpressions, _) =>
+        PlanDescriptionImpl(id = idMap(plan), "EagerAggregation", SingleChild(apply(lhs, idMap)),
+          Seq(KeyNames(groupingExpressions.keys.toSeq)), symbols)
+
       case row: SingleRow =>
         new SingleRowPlanDescription(id = idMap(plan), Seq.empty, row.argumentIds.map(_.name))
 
@@ -91,4 +121,10 @@ object LogicalPlan2PlanDescription extends ((LogicalPlan, Map[LogicalPlan, Id])
     }
     planDescription.addArgument(EstimatedRows(plan.solved.estimatedCardinality.amount))
   }
+
+  private def seekOrder(order: IndexSeekOrder): Seq[SeekOrder] = order match {
+    case UnorderedSeek => Seq.empty
+    case AscendingSeek => Seq(SeekOrder("ascending"))
+    case DescendingSeek => Seq(SeekOrder("descending"))
+  }
 }
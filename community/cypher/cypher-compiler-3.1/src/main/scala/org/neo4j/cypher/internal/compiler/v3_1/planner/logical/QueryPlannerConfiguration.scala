@@ -50,6 +50,9 @@ object QueryPlannerConfiguration {
       // MATCH (n) WHERE n.prop IN ... RETURN n
       indexSeekLeafPlanner,
 
+      // MATCH (n:Person) WHERE n.prop1 = ... AND n.prop2 = ... RETURN n
+      compositeIndexSeekLeafPlanner,
+
       // MATCH (n) WHERE has(n.prop) RETURN n
       // MATCH (n:Person) WHERE n.prop CONTAINS ...
       indexScanLeafPlanner,
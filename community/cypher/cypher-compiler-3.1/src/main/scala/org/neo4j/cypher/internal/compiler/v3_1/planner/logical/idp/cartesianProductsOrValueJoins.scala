@@ -20,7 +20,7 @@
 package org.neo4j.cypher.internal.compiler.v3_1.planner.logical.idp
 
 import org.neo4j.cypher.internal.compiler.v3_1.planner.QueryGraph
-import org.neo4j.cypher.internal.compiler.v3_1.planner.logical.plans.{LogicalPlan, IndexLeafPlan}
+import org.neo4j.cypher.internal.compiler.v3_1.planner.logical.plans.{IndexLeafPlan, LogicalPlan, NodeIndexCompositeSeek}
 import org.neo4j.cypher.internal.compiler.v3_1.planner.logical.{LogicalPlanningContext, QueryPlannerKit}
 import org.neo4j.cypher.internal.frontend.v3_1.ast.Expression
 
@@ -132,6 +132,7 @@ case object cartesianProductsOrValueJoins extends JoinDisconnectedQueryGraphComp
       // this confuses the cost model
       val lhsDependencies = result.leaves.collect {
         case x: IndexLeafPlan => x.valueExpr.expression.dependencies
+        case x: NodeIndexCompositeSeek => x.valueExprs.flatMap(_.dependencies)
       }.flatten
 
       if (lhsDependencies.nonEmpty)
@@ -23,11 +23,17 @@ import org.neo4j.cypher.internal.frontend.v3_1.ast.{PropertyKeyToken, LabelToken
 import org.neo4j.cypher.internal.compiler.v3_1.commands.QueryExpression
 import org.neo4j.cypher.internal.compiler.v3_1.planner.{CardinalityEstimation, PlannerQuery}
 
+sealed trait IndexSeekOrder
+case object UnorderedSeek extends IndexSeekOrder
+case object AscendingSeek extends IndexSeekOrder
+case object DescendingSeek extends IndexSeekOrder
+
 case class NodeIndexSeek(idName: IdName,
                          label: LabelToken,
                          propertyKey: PropertyKeyToken,
                          valueExpr: QueryExpression[Expression],
-                         argumentIds: Set[IdName])
+                         argumentIds: Set[IdName],
+                         order: IndexSeekOrder = UnorderedSeek)
                         (val solved: PlannerQuery with CardinalityEstimation) extends IndexLeafPlan {
 
   def availableSymbols = argumentIds + idName
@@ -27,7 +27,8 @@ case class NodeUniqueIndexSeek(idName: IdName,
                                label: LabelToken,
                                propertyKey: PropertyKeyToken,
                                valueExpr: QueryExpression[Expression],
-                               argumentIds: Set[IdName])
+                               argumentIds: Set[IdName],
+                               order: IndexSeekOrder = UnorderedSeek)
                               (val solved: PlannerQuery with CardinalityEstimation) extends IndexLeafPlan {
 
   def availableSymbols = argumentIds + idName
@@ -19,6 +19,7 @@
  */
 package org.neo4j.cypher.internal.compiler.v3_1.planner.logical.steps
 
+import org.neo4j.cypher.internal.compiler.v3_1.InequalitySeekRange
 import org.neo4j.cypher.internal.compiler.v3_1.ast.ResolvedCall
 import org.neo4j.cypher.internal.compiler.v3_1.commands.QueryExpression
 import org.neo4j.cypher.internal.compiler.v3_1.helpers.CollectionSupport
@@ -176,6 +177,21 @@ case class LogicalPlanProducer(cardinalityModel: CardinalityModel) extends Colle
     NodeIndexSeek(idName, label, propertyKey, valueExpr, argumentIds)(solved)
   }
 
+  def planNodeIndexCompositeSeek(idName: IdName,
+                                 label: ast.LabelToken,
+                                 propertyKeys: Seq[ast.PropertyKeyToken],
+                                 valueExprs: Seq[Expression],
+                                 rangeExpr: Option[InequalitySeekRange[Expression]],
+                                 solvedPredicates: Seq[Expression] = Seq.empty,
+                                 argumentIds: Set[IdName])(implicit context: LogicalPlanningContext) = {
+    val solved = RegularPlannerQuery(queryGraph = QueryGraph.empty
+      .addPatternNodes(idName)
+      .addPredicates(solvedPredicates: _*)
+      .addArgumentIds(argumentIds.toSeq)
+    )
+    NodeIndexCompositeSeek(idName, label, propertyKeys, valueExprs, rangeExpr, argumentIds)(solved)
+  }
+
   def planNodeIndexScan(idName: IdName,
                         label: ast.LabelToken,
                         propertyKey: ast.PropertyKeyToken,
@@ -440,6 +456,10 @@ case class LogicalPlanProducer(cardinalityModel: CardinalityModel) extends Colle
     Sort(inner, descriptions)(solved)
   }
 
+  def planSortedByIndex(inner: LogicalPlan, items: Seq[ast.SortItem])
+                       (implicit context: LogicalPlanningContext) =
+    inner.updateSolved(_.updateTailOrSelf(_.updateQueryProjection(_.updateShuffle(_.withSortItems(items)))))
+
   def planShortestPath(inner: LogicalPlan, shortestPaths: ShortestPathPattern, predicates: Seq[Expression])
                       (implicit context: LogicalPlanningContext) = {
     val solved = inner.solved.amendQueryGraph(_.addShortestPath(shortestPaths).addPredicates(predicates: _*))
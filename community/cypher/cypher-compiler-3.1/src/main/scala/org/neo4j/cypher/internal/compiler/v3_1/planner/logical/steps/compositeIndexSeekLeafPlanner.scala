@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_1.planner.logical.steps
+
+import org.neo4j.cypher.internal.compiler.v3_1.InequalitySeekRange
+import org.neo4j.cypher.internal.compiler.v3_1.commands.SingleQueryExpression
+import org.neo4j.cypher.internal.compiler.v3_1.planner.QueryGraph
+import org.neo4j.cypher.internal.compiler.v3_1.planner.logical.plans._
+import org.neo4j.cypher.internal.compiler.v3_1.planner.logical.{LeafPlanner, LogicalPlanningContext}
+import org.neo4j.cypher.internal.frontend.v3_1.ast._
+import org.neo4j.cypher.internal.frontend.v3_1.PropertyKeyId
+import org.neo4j.kernel.api.index.IndexDescriptor
+
+/*
+  Plans seeks in composite indexes, i.e. indexes on several properties of a label. A composite index can be used
+  when there are equality predicates on all of its properties, or on its first properties followed by a range
+  predicate on the next property, e.g. for an index on :Person(firstName, age):
+
+  MATCH (n:Person) WHERE n.firstName = 'Alice' AND n.age = 30 RETURN n
+  MATCH (n:Person) WHERE n.firstName = 'Alice' AND n.age > 30 RETURN n
+ */
+object compositeIndexSeekLeafPlanner extends LeafPlanner {
+
+  override def apply(qg: QueryGraph)(implicit context: LogicalPlanningContext): Seq[LogicalPlan] = {
+    val predicates: Seq[Expression] = qg.selections.flatPredicates
+    val arguments: Set[Variable] = qg.argumentIds.map(n => Variable(n.name)(null))
+
+    // (node, property) -> (predicate, value)
+    val equalities: Map[(String, String), (Expression, Expression)] = predicates.collect {
+      // n.prop = value
+      case predicate@AsPropertySeekable(seekable)
+        if seekable.args.dependencies.forall(arguments) && !arguments(seekable.ident) =>
+        seekable.args.asQueryExpression match {
+          case SingleQueryExpression(value) => Some((seekable.name, seekable.propertyKey.name) -> (predicate, value))
+          case _ => None
+        }
+
+      // value = n.prop
+      case predicate@Equals(value, Property(seekable@Variable(name), propertyKey))
+        if value.dependencies.forall(arguments) && !arguments(seekable) =>
+        Some((name, propertyKey.name) -> (predicate, value))
+    }.flatten.toMap
+
+    // (node, property) -> (predicate, range)
+    val ranges: Map[(String, String), (Expression, InequalitySeekRange[Expression])] = predicates.collect {
+      // n.prop <|<=|>|>= value
+      case predicate@AsValueRangeSeekable(seekable) =>
+        (seekable.name, seekable.propertyKeyName.name) -> (predicate, seekable.range)
+    }.toMap
+
+    if (equalities.isEmpty) {
+      Seq.empty
+    } else {
+      val plans = for ((idName, labelPredicates) <- qg.selections.labelPredicates.toSeq
+                       if equalities.keys.exists(_._1 == idName.name);
+                       labelPredicate <- labelPredicates.toSeq;
+                       labelName <- labelPredicate.labels;
+                       labelId <- labelName.id(context.semanticTable).toSeq
+                       if context.planContext.hasIndexRule(labelName.name);
+                       index <- context.planContext.getCompositeIndexRules(labelName.name))
+        yield producePlanFor(idName, LabelToken(labelName, labelId), labelPredicate, index, equalities, ranges,
+          qg.argumentIds)
+      plans.flatten
+    }
+  }
+
+  private def producePlanFor(idName: IdName, label: LabelToken, labelPredicate: HasLabels, index: IndexDescriptor,
+                             equalities: Map[(String, String), (Expression, Expression)],
+                             ranges: Map[(String, String), (Expression, InequalitySeekRange[Expression])],
+                             argumentIds: Set[IdName])
+                            (implicit context: LogicalPlanningContext): Option[LogicalPlan] = {
+    val propertyKeys = index.getPropertyKeyIds.toSeq.map { id =>
+      PropertyKeyToken(context.planContext.getPropertyKeyName(id), PropertyKeyId(id))
+    }
+    val keys = propertyKeys.map(key => (idName.name, key.name))
+    val prefix = keys.takeWhile(equalities.contains).map(equalities)
+    val range = if (prefix.nonEmpty && prefix.size < keys.size) ranges.get(keys(prefix.size)) else None
+
+    if (prefix.size == keys.size || range.isDefined) {
+      val solvedPredicates = prefix.map(_._1) ++ range.map(_._1) :+ labelPredicate
+      Some(context.logicalPlanProducer.planNodeIndexCompositeSeek(idName, label, propertyKeys, prefix.map(_._2),
+        range.map(_._2), solvedPredicates, argumentIds))
+    } else {
+      None
+    }
+  }
+}
@@ -19,6 +19,8 @@
  */
 package org.neo4j.cypher.internal.compiler.v3_1.planner.logical.steps
 
+import org.neo4j.cypher.internal.compiler.v3_1.ast.InequalitySeekRangeWrapper
+import org.neo4j.cypher.internal.compiler.v3_1.commands.RangeQueryExpression
 import org.neo4j.cypher.internal.compiler.v3_1.planner.logical._
 import org.neo4j.cypher.internal.compiler.v3_1.planner.logical.plans._
 import org.neo4j.cypher.internal.compiler.v3_1.planner.{PlannerQuery, QueryProjection}
@@ -36,8 +38,10 @@ object sortSkipAndLimit extends PlanTransformer[PlannerQuery] {
 
         case (sortItems, s, l) =>
           require(sortItems.forall(_.expression.isInstanceOf[Variable]))
-          val sortDescriptions = sortItems.map(sortDescription)
-          val sortedPlan = context.logicalPlanProducer.planSort(plan, sortDescriptions, sortItems)
+          val sortedPlan = sortedByIndex(plan, sortItems).getOrElse {
+            val sortDescriptions = sortItems.map(sortDescription)
+            context.logicalPlanProducer.planSort(plan, sortDescriptions, sortItems)
+          }
 
           addLimit(l, addSkip(s, sortedPlan))
       }
@@ -47,6 +51,91 @@ object sortSkipAndLimit extends PlanTransformer[PlannerQuery] {
     case _ => plan
   }
 
+  /*
+   * Sorting on the property of a range seek is solved by seeking the index in that order instead, which lets
+   * a following limit stop reading the index early rather than having to sort the whole range first. Only done
+   * for indexes that can seek in order by themselves, since others would have to sort the whole range anyway.
+   * Ordered seeks return numbers and strings in the same order as Sort, strings being compared as by
+   * String.compareTo, so the result does not depend on which of the two produced it.
+   */
+  private def sortedByIndex(plan: LogicalPlan, sortItems: List[ast.SortItem])
+                           (implicit context: LogicalPlanningContext): Option[LogicalPlan] = sortItems match {
+    case List(sortItem) =>
+      val order = sortItem match {
+        case _: ast.AscSortItem => AscendingSeek
+        case _: ast.DescSortItem => DescendingSeek
+      }
+      withIndexOrder(plan, sortItem.expression, order).map(context.logicalPlanProducer.planSortedByIndex(_, sortItems))
+
+    case _ => None
+  }
+
+  private def withIndexOrder(plan: LogicalPlan, sortExpression: ast.Expression, order: IndexSeekOrder)
+                            (implicit context: LogicalPlanningContext): Option[LogicalPlan] =
+    plan match {
+      case projection@Projection(source, expressions) =>
+        beforeProjection(sortExpression, expressions).flatMap(withIndexOrder(source, _, order))
+          .map(Projection(_, expressions)(projection.solved))
+
+      case selection@Selection(predicates, source) =>
+        withIndexOrder(source, sortExpression, order).map(Selection(predicates, _)(selection.solved))
+
+      case seek@NodeIndexSeek(idName, label, propertyKey, RangeQueryExpression(_: InequalitySeekRangeWrapper), _, UnorderedSeek)
+        if isProperty(sortExpression, idName, propertyKey) && hasOrderedRangeSeek(label, propertyKey) =>
+        Some(seek.copy(order = order)(seek.solved))
+
+      case seek@NodeUniqueIndexSeek(idName, label, propertyKey, RangeQueryExpression(_: InequalitySeekRangeWrapper), _, UnorderedSeek)
+        if isProperty(sortExpression, idName, propertyKey) && hasOrderedRangeSeek(label, propertyKey) =>
+        Some(seek.copy(order = order)(seek.solved))
+
+      case apply@Apply(source, inner) =>
+        beforeArgument(sortExpression, inner).flatMap(withIndexOrder(source, _, order))
+          .map(Apply(_, inner)(apply.solved))
+
+      case _ => None
+    }
+
+  /*
+   * An apply keeps the order of its left hand side as long as its right hand side produces exactly one row per
+   * argument, i.e. when it only projects over the argument. Selections may drop rows, but never reorder them.
+   */
+  private def beforeArgument(expression: ast.Expression, plan: LogicalPlan): Option[ast.Expression] = plan match {
+    case Projection(source, expressions) =>
+      beforeProjection(expression, expressions).flatMap(beforeArgument(_, source))
+
+    case Selection(_, source) =>
+      beforeArgument(expression, source)
+
+    case _: Argument | _: SingleRow =>
+      Some(expression)
+
+    case _ => None
+  }
+
+  private def beforeProjection(expression: ast.Expression, projections: Map[String, ast.Expression]): Option[ast.Expression] =
+    expression match {
+      case ast.Variable(name) =>
+        Some(projections.getOrElse(name, expression))
+
+      case property@ast.Property(ast.Variable(name), _) =>
+        projections.get(name) match {
+          case Some(variable: ast.Variable) => Some(property.copy(map = variable)(property.position))
+          case Some(_) => None
+          case None => Some(property)
+        }
+
+      case _ => None
+    }
+
+  private def isProperty(expression: ast.Expression, idName: IdName, propertyKey: ast.PropertyKeyToken) = expression match {
+    case ast.Property(ast.Variable(name), ast.PropertyKeyName(key)) => name == idName.name && key == propertyKey.name
+    case _ => false
+  }
+
+  private def hasOrderedRangeSeek(label: ast.LabelToken, propertyKey: ast.PropertyKeyToken)
+                                 (implicit context: LogicalPlanningContext) =
+    context.planContext.indexHasOrderedRangeSeek(label.name, propertyKey.name)
+
   private def sortDescription(in: ast.SortItem): SortDescription = in match {
     case ast.AscSortItem(ast.Variable(key)) => Ascending(IdName(key))
     case ast.DescSortItem(ast.Variable(key)) => Descending(IdName(key))
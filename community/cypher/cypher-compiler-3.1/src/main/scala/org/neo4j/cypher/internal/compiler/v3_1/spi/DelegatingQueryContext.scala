@@ -21,11 +21,13 @@ package org.neo4j.cypher.internal.compiler.v3_1.spi
 
 import java.net.URL
 
+import org.neo4j.cypher.internal.compiler.v3_1.InequalitySeekRange
 import org.neo4j.cypher.internal.compiler.v3_1.commands.expressions.{Expander, KernelPredicate}
 import org.neo4j.cypher.internal.compiler.v3_1.pipes.matching.PatternNode
 import org.neo4j.cypher.internal.frontend.v3_1.SemanticDirection
 import org.neo4j.graphdb.{Node, Path, PropertyContainer, Relationship}
 import org.neo4j.kernel.api.index.IndexDescriptor
+import org.neo4j.storageengine.api.schema.IndexOrder
 
 import scala.collection.Iterator
 
@@ -97,6 +99,15 @@ class DelegatingQueryContext(val inner: QueryContext) extends QueryContext {
   override def indexSeekByRange(index: IndexDescriptor, value: Any): Iterator[Node] =
     manyDbHits(inner.indexSeekByRange(index, value))
 
+  override def indexSeekByRange(index: IndexDescriptor, value: Any, order: IndexOrder): Iterator[Node] =
+    manyDbHits(inner.indexSeekByRange(index, value, order))
+
+  override def compositeIndexSeek(index: IndexDescriptor, values: Seq[Any]): Iterator[Node] =
+    manyDbHits(inner.compositeIndexSeek(index, values))
+
+  override def compositeIndexSeekByRange(index: IndexDescriptor, prefix: Seq[Any], range: InequalitySeekRange[Any]): Iterator[Node] =
+    manyDbHits(inner.compositeIndexSeekByRange(index, prefix, range))
+
   override def indexScan(index: IndexDescriptor): Iterator[Node] = manyDbHits(inner.indexScan(index))
 
   override def indexScanByContains(index: IndexDescriptor, value: String): scala.Iterator[Node] =
@@ -243,5 +254,7 @@ class DelegatingQueryTransactionalContext(val inner: QueryTransactionalContext)
 
   override def isTopLevelTx: Boolean = inner.isTopLevelTx
 
+  override def canReadFromStore: Boolean = inner.canReadFromStore
+
   override def close(success: Boolean) { inner.close(success) }
 }
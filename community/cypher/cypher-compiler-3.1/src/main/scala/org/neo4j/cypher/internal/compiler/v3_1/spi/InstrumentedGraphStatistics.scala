@@ -38,16 +38,7 @@ case class GraphStatisticsSnapshot(map: Map[StatisticsKey, Double] = Map.empty)
   def recompute(statistics: GraphStatistics): GraphStatisticsSnapshot = {
     val snapshot = MutableGraphStatisticsSnapshot()
     val instrumented = InstrumentedGraphStatistics(statistics, snapshot)
-    map.keys.foreach {
-      case NodesWithLabelCardinality(labelId) =>
-        instrumented.nodesWithLabelCardinality(labelId)
-      case CardinalityByLabelsAndRelationshipType(lhs, relType, rhs) =>
-        instrumented.cardinalityByLabelsAndRelationshipType(lhs, relType, rhs)
-      case IndexSelectivity(labelId, propertyKeyId) =>
-        instrumented.indexSelectivity(labelId, propertyKeyId)
-      case IndexPropertyExistsSelectivity(labelId, propertyKeyId) =>
-        instrumented.indexPropertyExistsSelectivity(labelId, propertyKeyId)
-    }
+    map.keys.foreach(observe(instrumented, _))
     snapshot.freeze
   }
 
@@ -55,12 +46,37 @@ case class GraphStatisticsSnapshot(map: Map[StatisticsKey, Double] = Map.empty)
   //statistics that is bigger than the threshold
   def diverges(snapshot: GraphStatisticsSnapshot, minThreshold: Double): Boolean = {
     assert(map.keySet == snapshot.map.keySet)
-    val v1 = map.values
-    val v2 = snapshot.map.values
-    //find the maximum relative difference (|e1 - e2| / max(e1, e2))
-    val relativeDiff = v1.zip(v2).map(e => Math.abs(e._1 - e._2) / Math.max(e._1, e._2)).max
-    relativeDiff > minThreshold
+    map.exists {
+      case (key, value) => diverged(value, snapshot.map(key), minThreshold)
+    }
+  }
+
+  //Checks the recorded statistics against the current ones one label, relationship type or index at a time,
+  //stopping at the first one that has diverged instead of recomputing all of them
+  def diverges(statistics: GraphStatistics, minThreshold: Double): Boolean = {
+    val current = MutableGraphStatisticsSnapshot()
+    val instrumented = InstrumentedGraphStatistics(statistics, current)
+    map.exists {
+      case (key, value) =>
+        observe(instrumented, key)
+        diverged(value, current.map(key), minThreshold)
+    }
+  }
+
+  private def observe(statistics: GraphStatistics, key: StatisticsKey): Unit = key match {
+    case NodesWithLabelCardinality(labelId) =>
+      statistics.nodesWithLabelCardinality(labelId)
+    case CardinalityByLabelsAndRelationshipType(lhs, relType, rhs) =>
+      statistics.cardinalityByLabelsAndRelationshipType(lhs, relType, rhs)
+    case IndexSelectivity(labelId, propertyKeyId) =>
+      statistics.indexSelectivity(labelId, propertyKeyId)
+    case IndexPropertyExistsSelectivity(labelId, propertyKeyId) =>
+      statistics.indexPropertyExistsSelectivity(labelId, propertyKeyId)
   }
+
+  //the relative difference |e1 - e2| / max(e1, e2), where two zeros have not diverged
+  private def diverged(e1: Double, e2: Double, minThreshold: Double) =
+    e1 != e2 && Math.abs(e1 - e2) / Math.max(e1, e2) > minThreshold
 }
 
 case class InstrumentedGraphStatistics(inner: GraphStatistics, snapshot: MutableGraphStatisticsSnapshot) extends GraphStatistics {
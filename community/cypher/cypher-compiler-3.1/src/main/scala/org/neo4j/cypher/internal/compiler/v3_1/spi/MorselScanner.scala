@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_1.spi
+
+/*
+  Counts nodes by splitting a node scan into morsels - ranges or batches of node ids - that are processed by a pool
+  of workers. Every worker reads the store on its own and keeps partial counts, which are summed once all morsels
+  have been processed.
+ */
+trait MorselScanner {
+
+  /**
+    * @return one count for each of `counts`, or None if the scan cannot be answered straight from the store, which
+    *         is the case when the transaction has changes of its own
+    */
+  def count(query: QueryContext, source: MorselSource, predicates: Seq[MorselPredicate], counts: Seq[MorselCount]): Option[Seq[Long]]
+}
+
+object NoMorselScanner extends MorselScanner {
+  override def count(query: QueryContext, source: MorselSource, predicates: Seq[MorselPredicate], counts: Seq[MorselCount]) = None
+}
+
+sealed trait MorselSource
+case object AllNodesMorselSource extends MorselSource
+case class LabelMorselSource(labelId: Int) extends MorselSource
+case class IndexMorselSource(labelId: Int, propertyKeyId: Int) extends MorselSource
+
+sealed trait MorselPredicate
+case class HasLabelMorselPredicate(labelId: Int) extends MorselPredicate
+case class HasPropertyMorselPredicate(propertyKeyId: Int) extends MorselPredicate
+case class PropertyEqualsMorselPredicate(propertyKeyId: Int, value: Any) extends MorselPredicate
+
+sealed trait MorselCount
+case object CountNodesMorselCount extends MorselCount
+// a property key that does not exist yet is passed on as None, counting nothing
+case class CountPropertyMorselCount(propertyKeyId: Option[Int]) extends MorselCount
@@ -38,8 +38,19 @@ trait PlanContext extends TokenContext with ProcedureSignatureResolver {
 
   def hasIndexRule(labelName: String): Boolean
 
+  /**
+   * Online indexes on more than one property of the given label
+   */
+  def getCompositeIndexRules(labelName: String): Seq[IndexDescriptor]
+
   def getUniqueIndexRule(labelName: String, propertyKey: String): Option[IndexDescriptor]
 
+  /**
+   * Whether the index on the given label and property can seek ranges in the order of their values by itself,
+   * rather than having to sort the whole range before returning any of it
+   */
+  def indexHasOrderedRangeSeek(labelName: String, propertyKey: String): Boolean
+
   def getUniquenessConstraint(labelName: String, propertyKey: String): Option[UniquenessConstraint]
 
   def hasPropertyExistenceConstraint(labelName: String, propertyKey: String): Boolean
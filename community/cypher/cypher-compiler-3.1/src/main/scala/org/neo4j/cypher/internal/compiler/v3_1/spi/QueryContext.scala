@@ -21,13 +21,14 @@ package org.neo4j.cypher.internal.compiler.v3_1.spi
 
 import java.net.URL
 
-import org.neo4j.cypher.internal.compiler.v3_1.InternalQueryStatistics
+import org.neo4j.cypher.internal.compiler.v3_1.{InequalitySeekRange, InternalQueryStatistics}
 import org.neo4j.cypher.internal.compiler.v3_1.commands.expressions.{Expander, KernelPredicate}
 import org.neo4j.cypher.internal.compiler.v3_1.pipes.matching.PatternNode
 import org.neo4j.cypher.internal.frontend.v3_1.SemanticDirection
 import org.neo4j.graphdb.{Node, Path, PropertyContainer, Relationship}
 import org.neo4j.kernel.api.constraints.{NodePropertyExistenceConstraint, RelationshipPropertyExistenceConstraint, UniquenessConstraint}
 import org.neo4j.kernel.api.index.IndexDescriptor
+import org.neo4j.storageengine.api.schema.IndexOrder
 
 import scala.collection.Iterator
 
@@ -91,6 +92,12 @@ trait QueryContext extends TokenContext {
 
   def indexSeekByRange(index: IndexDescriptor, value: Any): Iterator[Node]
 
+  def indexSeekByRange(index: IndexDescriptor, value: Any, order: IndexOrder): Iterator[Node]
+
+  def compositeIndexSeek(index: IndexDescriptor, values: Seq[Any]): Iterator[Node]
+
+  def compositeIndexSeekByRange(index: IndexDescriptor, prefix: Seq[Any], range: InequalitySeekRange[Any]): Iterator[Node]
+
   def indexScanByContains(index: IndexDescriptor, value: String): Iterator[Node]
 
   def indexScanByEndsWith(index: IndexDescriptor, value: String): Iterator[Node]
@@ -208,6 +215,9 @@ trait QueryTransactionalContext {
 
   def isTopLevelTx: Boolean
 
+  // true if reads can be served straight from the store, i.e. the transaction has no changes of its own
+  def canReadFromStore: Boolean
+
   def close(success: Boolean)
 
   def commitAndRestartTx()
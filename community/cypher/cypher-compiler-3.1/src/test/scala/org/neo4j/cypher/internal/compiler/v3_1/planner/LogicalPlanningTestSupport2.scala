@@ -116,8 +116,21 @@ trait LogicalPlanningTestSupport2 extends CypherTestSupport with AstConstruction
         else
           None
 
+      def indexHasOrderedRangeSeek(labelName: String, propertyKey: String): Boolean =
+        config.orderedIndexes((labelName, propertyKey))
+
       def hasIndexRule(labelName: String): Boolean =
-        config.indexes.exists(_._1 == labelName) || config.uniqueIndexes.exists(_._1 == labelName)
+        config.indexes.exists(_._1 == labelName) || config.uniqueIndexes.exists(_._1 == labelName) ||
+          config.compositeIndexes.exists(_._1 == labelName)
+
+      def getCompositeIndexRules(labelName: String): Seq[IndexDescriptor] =
+        config.compositeIndexes.toSeq.collect {
+          case (`labelName`, properties) =>
+            new IndexDescriptor(
+              semanticTable.resolvedLabelIds(labelName).id,
+              properties.map(semanticTable.resolvedPropertyKeyNames(_).id).toArray
+            )
+        }
 
       def getOptPropertyKeyId(propertyKeyName: String) =
         semanticTable.resolvedPropertyKeyNames.get(propertyKeyName).map(_.id)
@@ -142,7 +155,8 @@ trait LogicalPlanningTestSupport2 extends CypherTestSupport with AstConstruction
 
       def getPropertyKeyId(propertyKeyName: String): Int = ???
 
-      def getPropertyKeyName(id: Int): String = ???
+      def getPropertyKeyName(id: Int): String =
+        semanticTable.resolvedPropertyKeyNames.collectFirst { case (name, PropertyKeyId(`id`)) => name }.get
 
       def getLabelId(labelName: String): Int = ???
 
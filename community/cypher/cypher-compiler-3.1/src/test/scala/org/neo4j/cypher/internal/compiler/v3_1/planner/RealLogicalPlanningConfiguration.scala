@@ -46,6 +46,8 @@ case class RealLogicalPlanningConfiguration()
   override def graphStatistics: GraphStatistics = HardcodedGraphStatistics
   override def indexes = Set.empty
   override def uniqueIndexes = Set.empty
+  override def compositeIndexes = Set.empty
+  override def orderedIndexes = Set.empty
   override def labelCardinality = Map.empty
   override def knownLabels = Set.empty
 
@@ -41,15 +41,26 @@ class StubbedLogicalPlanningConfiguration(parent: LogicalPlanningConfiguration)
 
   var indexes: Set[(String, String)] = Set.empty
   var uniqueIndexes: Set[(String, String)] = Set.empty
+  var compositeIndexes: Set[(String, Seq[String])] = Set.empty
+  var orderedIndexes: Set[(String, String)] = Set.empty
 
   def indexOn(label: String, property: String) {
     indexes = indexes + (label -> property)
   }
 
+  def orderedIndexOn(label: String, property: String) {
+    indexOn(label, property)
+    orderedIndexes = orderedIndexes + (label -> property)
+  }
+
   def uniqueIndexOn(label: String, property: String) {
     uniqueIndexes = uniqueIndexes + (label -> property)
   }
 
+  def compositeIndexOn(label: String, properties: String*) {
+    compositeIndexes = compositeIndexes + (label -> properties)
+  }
+
   def costModel() = cost.orElse(parent.costModel())
 
   def cardinalityModel(queryGraphCardinalityModel: QueryGraphCardinalityModel): CardinalityModel = {
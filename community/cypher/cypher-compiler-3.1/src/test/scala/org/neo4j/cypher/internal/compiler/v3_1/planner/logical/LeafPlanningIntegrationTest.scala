@@ -26,6 +26,7 @@ import org.neo4j.cypher.internal.compiler.v3_1.planner.BeLikeMatcher._
 import org.neo4j.cypher.internal.compiler.v3_1.planner.LogicalPlanningTestSupport2
 import org.neo4j.cypher.internal.compiler.v3_1.planner.logical.Metrics.QueryGraphSolverInput
 import org.neo4j.cypher.internal.compiler.v3_1.planner.logical.plans._
+import org.neo4j.cypher.internal.frontend.v3_1.Foldable._
 import org.neo4j.cypher.internal.frontend.v3_1.ast._
 import org.neo4j.cypher.internal.frontend.v3_1.helpers.NonEmptyList
 import org.neo4j.cypher.internal.frontend.v3_1.symbols._
@@ -335,6 +336,42 @@ class LeafPlanningIntegrationTest extends CypherFunSuite with LogicalPlanningTes
     )
   }
 
+  test("should plan composite index seek when there are equality predicates on all properties of a composite index") {
+    (new given {
+      compositeIndexOn("Awesome", "prop", "other")
+    } planFor "MATCH (n:Awesome) WHERE n.prop = 42 AND n.other = 'foo' RETURN n").plan should beLike {
+      case NodeIndexCompositeSeek(
+              IdName("n"),
+              LabelToken("Awesome", _),
+              Seq(PropertyKeyToken("prop", _), PropertyKeyToken("other", _)),
+              Seq(SignedDecimalIntegerLiteral("42"), StringLiteral("foo")),
+              None,
+              _) => ()
+    }
+  }
+
+  test("should plan composite index seek when there is an equality predicate on the first property and a range on the second") {
+    (new given {
+      compositeIndexOn("Awesome", "prop", "other")
+    } planFor "MATCH (n:Awesome) WHERE n.prop = 42 AND n.other > 'foo' RETURN n").plan should beLike {
+      case NodeIndexCompositeSeek(
+              IdName("n"),
+              LabelToken("Awesome", _),
+              Seq(PropertyKeyToken("prop", _), PropertyKeyToken("other", _)),
+              Seq(SignedDecimalIntegerLiteral("42")),
+              Some(RangeGreaterThan(bounds)),
+              _) if bounds == NonEmptyList(ExclusiveBound(StringLiteral("foo")(pos))) => ()
+    }
+  }
+
+  test("should not plan composite index seek when there is no predicate on the first property of a composite index") {
+    (new given {
+      compositeIndexOn("Awesome", "prop", "other")
+    } planFor "MATCH (n:Awesome) WHERE n.other = 'foo' RETURN n").plan should beLike {
+      case Selection(_, NodeByLabelScan(IdName("n"), _, _)) => ()
+    }
+  }
+
   test("should plan node by ID lookup instead of label scan when the node by ID lookup is cheaper") {
     (new given {
       knownLabels = Set("Awesome")
@@ -390,7 +427,7 @@ class LeafPlanningIntegrationTest extends CypherFunSuite with LogicalPlanningTes
               IdName("n"),
               LabelToken("Awesome", _),
               PropertyKeyToken("prop", _),
-              SingleQueryExpression(SignedDecimalIntegerLiteral("42")), _) => ()
+              SingleQueryExpression(SignedDecimalIntegerLiteral("42")), _, _) => ()
     }
   }
 
@@ -553,4 +590,49 @@ class LeafPlanningIntegrationTest extends CypherFunSuite with LogicalPlanningTes
 
     plan shouldBe using[NodeIndexSeek]
   }
+
+  test("should seek the index in order instead of sorting on the property of a range seek") {
+    val plan = (new given {
+      orderedIndexOn("Event", "at")
+    } planFor "MATCH (e:Event) WHERE e.at > 1000 RETURN e ORDER BY e.at DESC LIMIT 10").plan
+
+    plan should not be using[Sort]
+    plan.findByClass[NodeIndexSeek].order should equal(DescendingSeek)
+  }
+
+  test("should seek the index in order through a filter on another property") {
+    val plan = (new given {
+      orderedIndexOn("Event", "at")
+    } planFor "MATCH (e:Event) WHERE e.at >= 'a' AND e.kind = 'login' RETURN e.at AS at ORDER BY at").plan
+
+    plan should not be using[Sort]
+    plan.findByClass[NodeIndexSeek].order should equal(AscendingSeek)
+  }
+
+  test("should sort when sorting on another property than the one seeked on") {
+    val plan = (new given {
+      orderedIndexOn("Event", "at")
+    } planFor "MATCH (e:Event) WHERE e.at > 1000 RETURN e ORDER BY e.kind LIMIT 10").plan
+
+    plan shouldBe using[Sort]
+    plan.findByClass[NodeIndexSeek].order should equal(UnorderedSeek)
+  }
+
+  test("should sort when the index can not seek in order by itself") {
+    val plan = (new given {
+      indexOn("Event", "at")
+    } planFor "MATCH (e:Event) WHERE e.at > 1000 RETURN e ORDER BY e.at DESC LIMIT 10").plan
+
+    plan shouldBe using[Sort]
+    plan.findByClass[NodeIndexSeek].order should equal(UnorderedSeek)
+  }
+
+  test("should sort when the unique index can not seek in order by itself") {
+    val plan = (new given {
+      uniqueIndexOn("Event", "at")
+    } planFor "MATCH (e:Event) WHERE e.at > 1000 RETURN e ORDER BY e.at LIMIT 10").plan
+
+    plan shouldBe using[Sort]
+    plan.findByClass[NodeUniqueIndexSeek].order should equal(UnorderedSeek)
+  }
 }
@@ -125,4 +125,39 @@ class GraphStatisticsSnapshotTest extends CypherFunSuite {
 
     frozen1.diverges(frozen2, 1.0) should equal(false)
   }
+
+  test("compares each statistic with the one it was recorded for") {
+    val snapshot1 = MutableGraphStatisticsSnapshot()
+    val statistics = graphStatistics()
+    val instrumentedStatistics1 = InstrumentedGraphStatistics(statistics, snapshot1)
+    instrumentedStatistics1.nodesWithLabelCardinality(Some(LabelId(1)))
+    instrumentedStatistics1.nodesWithLabelCardinality(Some(LabelId(4)))
+
+    val snapshot2 = MutableGraphStatisticsSnapshot()
+    val instrumentedStatistics2 = InstrumentedGraphStatistics(statistics, snapshot2)
+    instrumentedStatistics2.nodesWithLabelCardinality(Some(LabelId(4)))
+    instrumentedStatistics2.nodesWithLabelCardinality(Some(LabelId(1)))
+
+    snapshot1.freeze.diverges(snapshot2.freeze, 0.1) should equal(false)
+  }
+
+  test("diverges from the current statistics when any recorded statistic has changed") {
+    val snapshot = MutableGraphStatisticsSnapshot()
+    val statistics = graphStatistics()
+    val instrumentedStatistics = InstrumentedGraphStatistics(statistics, snapshot)
+    instrumentedStatistics.nodesWithLabelCardinality(None)
+    instrumentedStatistics.indexSelectivity(LabelId(0), PropertyKeyId(3))
+    val frozen = snapshot.freeze
+
+    frozen.diverges(statistics, 0.1) should equal(false)
+
+    statistics.factor(2)
+
+    frozen.diverges(statistics, 0.1) should equal(true)
+    frozen.diverges(statistics, 0.6) should equal(false)
+  }
+
+  test("an empty snapshot never diverges") {
+    GraphStatisticsSnapshot().diverges(graphStatistics(), 0.0) should equal(false)
+  }
 }
@@ -21,12 +21,14 @@ package org.neo4j.cypher.internal.compiler.v3_1.spi
 
 import java.net.URL
 
+import org.neo4j.cypher.internal.compiler.v3_1.InequalitySeekRange
 import org.neo4j.cypher.internal.compiler.v3_1.commands.expressions.{Expander, KernelPredicate}
 import org.neo4j.cypher.internal.compiler.v3_1.pipes.matching.PatternNode
 import org.neo4j.cypher.internal.frontend.v3_1.SemanticDirection
 import org.neo4j.graphdb.{Node, Path, PropertyContainer, Relationship}
 import org.neo4j.kernel.api.constraints.{NodePropertyExistenceConstraint, RelationshipPropertyExistenceConstraint, UniquenessConstraint}
 import org.neo4j.kernel.api.index.IndexDescriptor
+import org.neo4j.storageengine.api.schema.IndexOrder
 
 trait QueryContextAdaptation {
   self: QueryContext =>
@@ -108,6 +110,12 @@ trait QueryContextAdaptation {
 
   override def indexSeekByRange(index: IndexDescriptor, value: Any): scala.Iterator[Node] = ???
 
+  override def indexSeekByRange(index: IndexDescriptor, value: Any, order: IndexOrder): scala.Iterator[Node] = ???
+
+  override def compositeIndexSeek(index: IndexDescriptor, values: Seq[Any]): scala.Iterator[Node] = ???
+
+  override def compositeIndexSeekByRange(index: IndexDescriptor, prefix: Seq[Any], range: InequalitySeekRange[Any]): scala.Iterator[Node] = ???
+
   override def setLabelsOnNode(node: Long, labelIds: scala.Iterator[Int]): Int = ???
 
   override def createRelationshipPropertyExistenceConstraint(relTypeId: Int, propertyKeyId: Int): IdempotentResult[RelationshipPropertyExistenceConstraint] = ???
@@ -19,8 +19,16 @@
  */
 package org.neo4j.cypher.internal.codegen;
 
+import java.util.Arrays;
+
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongCollections.PrimitiveLongBaseIterator;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.collection.primitive.PrimitiveLongSet;
+import org.neo4j.cypher.internal.frontend.v3_1.CypherExecutionException;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.kernel.api.ReadOperations;
+import org.neo4j.kernel.api.StatementTokenNameLookup;
 import org.neo4j.kernel.api.exceptions.EntityNotFoundException;
 import org.neo4j.kernel.impl.api.RelationshipDataExtractor;
 import org.neo4j.kernel.impl.api.RelationshipVisitor;
@@ -100,6 +108,18 @@ public abstract class CompiledExpandUtils
         return connectingRelationshipsIterator( allRelationships, startNode, endNode );
     }
 
+    /**
+     * Returns the end node of every path of {@code minLength} to {@code maxLength} relationships starting at
+     * {@code fromNode}, once per path. Relationships are unique within each path. The expansion is a depth first
+     * walk that keeps one relationship iterator per depth and the relationships of the current path in a primitive
+     * set, so nothing is allocated per path.
+     */
+    public static PrimitiveLongIterator varLengthExpand( ReadOperations readOperations, long fromNode,
+            Direction direction, int minLength, int maxLength, int... relTypes ) throws EntityNotFoundException
+    {
+        return new VarLengthExpandIterator( readOperations, fromNode, direction, minLength, maxLength, relTypes );
+    }
+
     private static int calculateTotalDegree( ReadOperations readOperations, long fromNode, Direction direction,
             int[] relTypes ) throws EntityNotFoundException
     {
@@ -145,4 +165,117 @@ public abstract class CompiledExpandUtils
         };
     }
 
+    private static class VarLengthExpandIterator extends PrimitiveLongBaseIterator
+    {
+        private final ReadOperations readOperations;
+        private final Direction direction;
+        private final int minLength;
+        private final int maxLength;
+        private final int[] relTypes;
+        private final RelationshipDataExtractor extractor = new RelationshipDataExtractor();
+        private final PrimitiveLongSet relationshipsInPath = Primitive.longSet();
+
+        // nodes[i] is the node at depth i, reached through relationships[i - 1] and expanded by iterators[i]
+        private long[] nodes;
+        private long[] relationships;
+        private RelationshipIterator[] iterators;
+        private int depth;
+        private boolean initialized;
+
+        VarLengthExpandIterator( ReadOperations readOperations, long fromNode, Direction direction, int minLength,
+                int maxLength, int[] relTypes ) throws EntityNotFoundException
+        {
+            this.readOperations = readOperations;
+            this.direction = direction;
+            this.minLength = minLength;
+            this.maxLength = maxLength;
+            this.relTypes = relTypes;
+            int capacity = Math.min( maxLength, 8 ) + 1;
+            this.nodes = new long[capacity];
+            this.relationships = new long[capacity];
+            this.iterators = new RelationshipIterator[capacity];
+            this.nodes[0] = fromNode;
+            this.iterators[0] = maxLength > 0 ? relationships( fromNode ) : null;
+        }
+
+        @Override
+        protected boolean fetchNext()
+        {
+            if ( !initialized )
+            {
+                initialized = true;
+                if ( minLength == 0 )
+                {
+                    return next( nodes[0] );
+                }
+            }
+
+            while ( depth >= 0 )
+            {
+                RelationshipIterator iterator = iterators[depth];
+                if ( iterator == null || !iterator.hasNext() )
+                {
+                    iterators[depth] = null;
+                    depth--;
+                    if ( depth >= 0 )
+                    {
+                        relationshipsInPath.remove( relationships[depth] );
+                    }
+                    continue;
+                }
+
+                long relationship = iterator.next();
+                if ( relationshipsInPath.contains( relationship ) )
+                {
+                    continue;
+                }
+                iterator.relationshipVisit( relationship, extractor );
+                long otherNode = extractor.otherNode( nodes[depth] );
+
+                relationshipsInPath.add( relationship );
+                relationships[depth] = relationship;
+                depth++;
+                ensureCapacity( depth );
+                nodes[depth] = otherNode;
+                iterators[depth] = depth < maxLength ? relationshipsOf( otherNode ) : null;
+
+                if ( depth >= minLength )
+                {
+                    return next( otherNode );
+                }
+            }
+            return false;
+        }
+
+        private RelationshipIterator relationships( long node ) throws EntityNotFoundException
+        {
+            return relTypes.length == 0
+                   ? readOperations.nodeGetRelationships( node, direction )
+                   : readOperations.nodeGetRelationships( node, direction, relTypes );
+        }
+
+        private RelationshipIterator relationshipsOf( long node )
+        {
+            try
+            {
+                return relationships( node );
+            }
+            catch ( EntityNotFoundException e )
+            {
+                throw new CypherExecutionException(
+                        e.getUserMessage( new StatementTokenNameLookup( readOperations ) ), e );
+            }
+        }
+
+        private void ensureCapacity( int depth )
+        {
+            if ( depth == nodes.length )
+            {
+                int capacity = nodes.length * 2;
+                nodes = Arrays.copyOf( nodes, capacity );
+                relationships = Arrays.copyOf( relationships, capacity );
+                iterators = Arrays.copyOf( iterators, capacity );
+            }
+        }
+    }
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.codegen;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Rows of longs, i.e. node ids, relationship ids and integers, that compiled queries sort on some of their columns.
+ * Rows are added one by one, then {@link #sort() sorted} once and read back in order using {@link #next()} and
+ * {@link #get(int)}.
+ * <p>
+ * Given a limit, only the first rows up to that limit are kept, in a heap whose head is the last of them, so that
+ * a top-N never holds more than N rows at a time.
+ */
+public class LongRowSortTable implements Comparator<long[]>
+{
+    private int[] sortColumns = new int[0];
+    private boolean[] descending = new boolean[0];
+    private final int limit;
+    private final List<long[]> rows;
+    private final PriorityQueue<long[]> top;
+
+    private long[][] sorted;
+    private int position = -1;
+    private long[] current;
+
+    public LongRowSortTable()
+    {
+        this.limit = -1;
+        this.rows = new ArrayList<>();
+        this.top = null;
+    }
+
+    public LongRowSortTable( int limit )
+    {
+        this.limit = Math.max( limit, 0 );
+        this.rows = null;
+        this.top = new PriorityQueue<>( Math.max( this.limit, 1 ), Collections.reverseOrder( this ) );
+    }
+
+    /**
+     * Adds a column to sort on, after the ones already added.
+     */
+    public void sortOn( int column, boolean descendingOrder )
+    {
+        sortColumns = Arrays.copyOf( sortColumns, sortColumns.length + 1 );
+        descending = Arrays.copyOf( descending, descending.length + 1 );
+        sortColumns[sortColumns.length - 1] = column;
+        descending[descending.length - 1] = descendingOrder;
+    }
+
+    public void add( long[] row )
+    {
+        if ( top == null )
+        {
+            rows.add( row );
+        }
+        else if ( top.size() < limit )
+        {
+            top.offer( row );
+        }
+        else if ( limit > 0 && compare( row, top.peek() ) < 0 )
+        {
+            top.poll();
+            top.offer( row );
+        }
+    }
+
+    public void sort()
+    {
+        sorted = top == null ? rows.toArray( new long[rows.size()][] ) : top.toArray( new long[top.size()][] );
+        Arrays.sort( sorted, this );
+        position = -1;
+        current = null;
+    }
+
+    public boolean next()
+    {
+        if ( position + 1 < sorted.length )
+        {
+            current = sorted[++position];
+            return true;
+        }
+        current = null;
+        return false;
+    }
+
+    public long get( int column )
+    {
+        return current[column];
+    }
+
+    @Override
+    public int compare( long[] left, long[] right )
+    {
+        for ( int i = 0; i < sortColumns.length; i++ )
+        {
+            int column = sortColumns[i];
+            int compared = Long.compare( left[column], right[column] );
+            if ( compared != 0 )
+            {
+                return descending[i] ? -compared : compared;
+            }
+        }
+        return 0;
+    }
+}
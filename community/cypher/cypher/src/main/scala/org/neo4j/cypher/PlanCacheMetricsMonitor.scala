@@ -25,9 +25,16 @@ import org.neo4j.cypher.internal.StringCacheMonitor
 
 class PlanCacheMetricsMonitor extends StringCacheMonitor {
   private val counter = new AtomicLong()
+  private val replanTime = new AtomicLong()
   override def cacheDiscard(ignored1: String, ignored2: String): Unit = {
     counter.incrementAndGet()
   }
 
+  override def cacheReplanned(ignored: String, durationMillis: Long): Unit = {
+    replanTime.addAndGet(durationMillis)
+  }
+
   def numberOfReplans: Long = counter.get()
+
+  def replanTimeMillis: Long = replanTime.get()
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal
+
+import java.util.concurrent.{ConcurrentHashMap, RejectedExecutionException, Semaphore}
+
+import org.neo4j.cypher.internal.compiler.v3_1.{CompilationPhaseTracer, QueryCache}
+import org.neo4j.cypher.internal.spi.TransactionalContextWrapperv3_1
+import org.neo4j.kernel.GraphDatabaseQueryService
+import org.neo4j.kernel.api.KernelTransaction
+import org.neo4j.kernel.api.security.AccessMode
+import org.neo4j.kernel.impl.core.ThreadToStatementContextBridge
+import org.neo4j.kernel.impl.coreapi.PropertyContainerLocker
+import org.neo4j.kernel.impl.query.Neo4jTransactionalContext
+import org.neo4j.kernel.impl.util.JobScheduler
+import org.neo4j.logging.Log
+
+/**
+  * Replans stale query plans in the background, so that queries can keep using the stale plan until its replacement
+  * has been swapped into the plan cache. Replans run on the pooled threads of the job scheduler, at most
+  * maxConcurrentReplans at a time. Without room for another one, replanning is left to the query that finds a plan
+  * stale. The pooled threads stop with the database, after which stale plans are no longer replanned.
+  */
+class BackgroundReplanner(queryService: GraphDatabaseQueryService, maxConcurrentReplans: Int,
+                          monitor: StringCacheMonitor, log: Log) {
+
+  private val replanning = ConcurrentHashMap.newKeySet[String]()
+  private val replanSlots = new Semaphore(maxConcurrentReplans)
+
+  private lazy val scheduler = queryService.getDependencyResolver.resolveDependency(classOf[JobScheduler])
+
+  private lazy val txBridge = queryService.getDependencyResolver.resolveDependency(classOf[ThreadToStatementContextBridge])
+  private val locker = new PropertyContainerLocker
+
+  /**
+    * Schedules replanning of a stale plan, unless it is already being replanned. Returns false when replanning
+    * happens in the foreground, in which case the caller should replan.
+    */
+  def replanInBackground(cache: QueryCache[String, (ExecutionPlan, Map[String, Any])], key: String,
+                         queryText: String, parsedQuery: ParsedQuery): Boolean =
+    if (replanning.contains(key)) true
+    else if (!replanSlots.tryAcquire()) false
+    else {
+      if (!replanning.add(key)) replanSlots.release()
+      else try {
+        scheduler.schedule(JobScheduler.Groups.cypherReplanning, new Runnable {
+          override def run(): Unit = try {
+            cache.replace(key, queryText, timed(key)(plan(parsedQuery)))
+          } catch {
+            case t: Throwable =>
+              log.warn(s"Failed to replan query in the background, it will be replanned by the next query: $queryText", t)
+              cache.remove(key, queryText)
+          } finally {
+            replanning.remove(key)
+            replanSlots.release()
+          }
+        })
+      } catch {
+        // the scheduler has stopped along with the database, so the stale plan is left as it is
+        case _: RejectedExecutionException =>
+          replanning.remove(key)
+          replanSlots.release()
+      }
+      true
+    }
+
+  def timed[T](key: String)(replan: => T): T = {
+    val start = System.currentTimeMillis()
+    val result = replan
+    monitor.cacheReplanned(key, System.currentTimeMillis() - start)
+    result
+  }
+
+  private def plan(parsedQuery: ParsedQuery): (ExecutionPlan, Map[String, Any]) = {
+    val transaction = queryService.beginTransaction(KernelTransaction.Type.`implicit`, AccessMode.Static.READ)
+    val tc = TransactionalContextWrapperv3_1(new Neo4jTransactionalContext(queryService, transaction, txBridge.get(), locker))
+    var success = false
+    try {
+      val planned = parsedQuery.plan(tc, CompilationPhaseTracer.NO_TRACING)
+      success = true
+      planned
+    } finally {
+      tc.close(success)
+    }
+  }
+}
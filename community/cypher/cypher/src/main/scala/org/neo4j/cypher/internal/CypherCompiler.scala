@@ -24,6 +24,7 @@ import java.time.Clock
 import org.neo4j.cypher.internal.compatibility.exceptionHandlerFor3_1
 import org.neo4j.cypher.internal.compiler.v3_1._
 import org.neo4j.cypher.internal.frontend.v3_1.InputPosition
+import org.neo4j.cypher.internal.spi.v3_1.StoreMorselScanner
 import org.neo4j.cypher.{InvalidArgumentException, SyntaxException, _}
 import org.neo4j.graphdb.factory.GraphDatabaseSettings
 import org.neo4j.kernel.GraphDatabaseQueryService
@@ -38,13 +39,16 @@ object CypherCompiler {
   val CLOCK = Clock.systemUTC()
   val DEFAULT_STATISTICS_DIVERGENCE_THRESHOLD = 0.5
   val DEFAULT_NON_INDEXED_LABEL_WARNING_THRESHOLD = 10000
+  val DEFAULT_PARALLEL_RUNTIME_WORKERS = 0
 }
 
 case class PreParsedQuery(statement: String, rawStatement: String, version: CypherVersion,
                           executionMode: CypherExecutionMode, planner: CypherPlanner, runtime: CypherRuntime,
                           updateStrategy: CypherUpdateStrategy)
                          (val offset: InputPosition) {
-  val statementWithVersionAndPlanner = {
+  val statementWithVersionAndPlanner = withVersionAndPlanner(statement)
+
+  def withVersionAndPlanner(statement: String) = {
     val plannerInfo = planner match {
       case CypherPlanner.default => ""
       case _ => s"planner=${planner.name}"
@@ -88,11 +92,13 @@ class CypherCompiler(graph: GraphDatabaseQueryService,
     nonIndexedLabelWarningThreshold = getNonIndexedLabelWarningThreshold
   )
 
-  private val factory = new PlannerFactory(graph, kernelAPI, kernelMonitors, log, config)
+  private val morselScanner = new StoreMorselScanner(graph, getParallelRuntimeWorkers)
+  private val factory = new PlannerFactory(graph, kernelAPI, kernelMonitors, log, config, morselScanner)
   private val planners: PlannerCache = new PlannerCache(factory)
 
 
-  private final val ILLEGAL_PLANNER_RUNTIME_COMBINATIONS: Set[(CypherPlanner, CypherRuntime)] = Set((CypherPlanner.rule, CypherRuntime.compiled))
+  private final val ILLEGAL_PLANNER_RUNTIME_COMBINATIONS: Set[(CypherPlanner, CypherRuntime)] = Set(
+    (CypherPlanner.rule, CypherRuntime.compiled), (CypherPlanner.rule, CypherRuntime.parallel))
 
   @throws(classOf[SyntaxException])
   def preParseQuery(queryText: String): PreParsedQuery = exceptionHandlerFor3_1.runSafely{
@@ -161,6 +167,11 @@ class CypherCompiler(graph: GraphDatabaseQueryService,
     getSetting(graph, setting, DEFAULT_QUERY_PLAN_TTL)
   }
 
+  private def getParallelRuntimeWorkers: Int = {
+    val setting: (Config) => Int = config => config.get(GraphDatabaseSettings.cypher_parallel_runtime_workers).intValue()
+    getSetting(graph, setting, DEFAULT_PARALLEL_RUNTIME_WORKERS)
+  }
+
   private def getSetting[A](gds: GraphDatabaseQueryService, configLookup: Config => A, default: A): A = gds match {
     // TODO: Cypher should not be pulling out components from casted interfaces, it should ask for Config as a dep
     case (gdbApi:GraphDatabaseQueryService) => configLookup(gdbApi.getDependencyResolver.resolveDependency(classOf[Config]))
@@ -37,7 +37,9 @@ import org.neo4j.kernel.impl.query.{QueryExecutionMonitor, QuerySession, Transac
 import org.neo4j.kernel.{GraphDatabaseQueryService, api, monitoring}
 import org.neo4j.logging.{LogProvider, NullLogProvider}
 
-trait StringCacheMonitor extends CypherCacheMonitor[String, api.Statement]
+trait StringCacheMonitor extends CypherCacheMonitor[String, api.Statement] {
+  def cacheReplanned(key: String, durationMillis: Long) {}
+}
 
 /**
   * This class construct and initialize both the cypher compiler and the cypher runtime, which is a very expensive
@@ -74,6 +76,11 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService, logProvider:
 
   private val preParsedQueries = new LRUCachev3_1[String, PreParsedQuery](getPlanCacheSize)
   private val parsedQueries = new LRUCachev3_1[String, ParsedQuery](getPlanCacheSize)
+  // statement => (plan cache key, parameters extracted from its literals, if any), so that a statement seen
+  // before finds its cached plan without being parsed again
+  private val planCacheKeys = new LRUCachev3_1[String, (String, Option[Map[String, Any]])](getPlanCacheSize)
+
+  private val replanner = new BackgroundReplanner(queryService, getMaxConcurrentReplans, cacheMonitor, log)
 
   private val javaValues = new RuntimeJavaValueConverter(isGraphKernelResultValue, identity)
   private val scalaValues = new RuntimeScalaValueConverter(isGraphKernelResultValue)
@@ -135,7 +142,9 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService, logProvider:
 
       val preParsedQuery = preParseQuery(queryText)
       val executionMode = preParsedQuery.executionMode
-      val cacheKey = preParsedQuery.statementWithVersionAndPlanner
+      // only parsed when there is no cached plan to use
+      lazy val parsedQuery = parsePreParsedQuery(preParsedQuery, phaseTracer)
+      val (cacheKey, extractedParameters) = planCacheKey(preParsedQuery, parsedQuery)
       val externalTransactionalContext = new TransactionalContextWrapperv3_1(session.get(TransactionalContext.METADATA_KEY))
 
       var n = 0
@@ -146,7 +155,7 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService, logProvider:
         // Temporarily change access mode during query planning
         val revertable = tc.restrictCurrentTransaction(AccessMode.Static.READ)
 
-        val ((plan: ExecutionPlan, extractedParameters), touched) = try {
+        val ((plan: ExecutionPlan, cachedParameters), touched) = try {
           // fetch plan cache
           val cache = getOrCreateFromSchemaState(tc.readOperations, {
             cacheMonitor.cacheFlushDetected(tc.statement)
@@ -154,11 +163,16 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService, logProvider:
             new QueryCache(cacheAccessor, lruCache)
           })
 
-          def isStale(plan: ExecutionPlan, ignored: Map[String, Any]) = plan.isStale(lastCommittedTxId, tc)
-          def producePlan() = {
-            val parsedQuery = parsePreParsedQuery(preParsedQuery, phaseTracer)
-            parsedQuery.plan(tc, phaseTracer)
+          // a stale plan keeps being used while it is replanned in the background, if there is room for that
+          var replanning = false
+          def isStale(plan: ExecutionPlan, ignored: Map[String, Any]) = {
+            replanning = plan.isStale(lastCommittedTxId, tc) &&
+              !replanner.replanInBackground(cache, cacheKey, queryText, parsedQuery)
+            replanning
           }
+          def producePlan() =
+            if (replanning) replanner.timed(cacheKey)(parsedQuery.plan(tc, phaseTracer))
+            else parsedQuery.plan(tc, phaseTracer)
 
           cache.getOrElseUpdate(cacheKey, queryText, (isStale _).tupled, producePlan())
         }
@@ -174,7 +188,7 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService, logProvider:
           tc.close(success = true)
         } else {
           tc.cleanForReuse()
-          return (PreparedPlanExecution(plan, executionMode, extractedParameters), tc)
+          return (PreparedPlanExecution(plan, executionMode, extractedParameters.getOrElse(cachedParameters)), tc)
         }
 
         n += 1
@@ -184,6 +198,23 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService, logProvider:
     throw new IllegalStateException("Could not execute query due to insanely frequent schema changes")
   }
 
+  /*
+   * Queries that only differ in their literals share one plan, keyed on their normalized statement, and are
+   * executed with the parameters extracted from their own literals. Other queries are keyed on their statement.
+   */
+  private def planCacheKey(preParsedQuery: PreParsedQuery, parsedQuery: => ParsedQuery): (String, Option[Map[String, Any]]) = {
+    val statement = preParsedQuery.statementWithVersionAndPlanner
+    planCacheKeys.get(statement).getOrElse {
+      val key = parsedQuery.normalizedStatement match {
+        case Some(normalized) => (preParsedQuery.withVersionAndPlanner(normalized), Some(parsedQuery.extractedParams))
+        case None => (statement, None)
+      }
+      //don't cache failed queries
+      if (!parsedQuery.hasErrors) planCacheKeys.put(statement, key)
+      key
+    }
+  }
+
   private val txBridge = queryService.getDependencyResolver.resolveDependency(classOf[ThreadToStatementContextBridge])
 
   private def getOrCreateFromSchemaState[V](operations: ReadOperations, creator: => V) = {
@@ -234,6 +265,12 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService, logProvider:
       GraphDatabaseSettings.query_cache_size.getDefaultValue.toInt
     )
 
+  private def getMaxConcurrentReplans: Int =
+    optGraphSetting[java.lang.Integer](
+      queryService, GraphDatabaseSettings.cypher_max_concurrent_replans,
+      GraphDatabaseSettings.cypher_max_concurrent_replans.getDefaultValue.toInt
+    )
+
   private def optGraphSetting[V](graph: GraphDatabaseQueryService, setting: Setting[V], defaultValue: V): V = {
     val config = graph.getDependencyResolver.resolveDependency(classOf[Config])
     Option(config.get(setting)).getOrElse(defaultValue)
@@ -27,4 +27,9 @@ trait ParsedQuery {
   def isPeriodicCommit: Boolean
   def plan(transactionContext: TransactionalContextWrapperv3_1, tracer: CompilationPhaseTracer): (ExecutionPlan, Map[String, Any])
   def hasErrors: Boolean
+
+  // Queries with the same normalized statement only differ in literals and can share a cached plan,
+  // when executed with their own extracted parameters
+  def normalizedStatement: Option[String]
+  def extractedParams: Map[String, Any]
 }
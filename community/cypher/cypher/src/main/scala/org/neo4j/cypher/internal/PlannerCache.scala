@@ -21,6 +21,7 @@ package org.neo4j.cypher.internal
 
 import org.neo4j.cypher.internal.compatibility._
 import org.neo4j.cypher.internal.compiler.v3_1.CypherCompilerConfiguration
+import org.neo4j.cypher.internal.compiler.v3_1.spi.MorselScanner
 import org.neo4j.cypher.{CypherPlanner, CypherRuntime, CypherUpdateStrategy}
 import org.neo4j.helpers.Clock
 import org.neo4j.kernel.GraphDatabaseQueryService
@@ -36,7 +37,7 @@ final case class PlannerSpec_v3_0(planner: CypherPlanner, runtime: CypherRuntime
 final case class PlannerSpec_v3_1(planner: CypherPlanner, runtime: CypherRuntime, updateStrategy: CypherUpdateStrategy) extends PlannerSpec
 
 class PlannerFactory(graph: GraphDatabaseQueryService, kernelAPI: KernelAPI, kernelMonitors: KernelMonitors, log: Log,
-                     config: CypherCompilerConfiguration) {
+                     config: CypherCompilerConfiguration, morselScanner: MorselScanner) {
 
   import helpers.wrappersFor2_3._
   import helpers.wrappersFor3_0._
@@ -57,7 +58,7 @@ class PlannerFactory(graph: GraphDatabaseQueryService, kernelAPI: KernelAPI, ker
     case CypherPlanner.rule => CompatibilityFor3_1Rule(graph, config, CypherCompiler.CLOCK, kernelMonitors, kernelAPI)
     case _ => CompatibilityFor3_1Cost(graph, config,
                                       CypherCompiler.CLOCK, kernelMonitors, kernelAPI, log, spec.planner, spec.runtime,
-                                      spec.updateStrategy)
+                                      spec.updateStrategy, morselScanner)
   }
 }
 
@@ -35,6 +35,7 @@ case object IDPPlannerOption extends PlannerPreParserOption("idp")
 case object DPPlannerOption extends PlannerPreParserOption("dp")
 case object InterpretedRuntimeOption extends RuntimePreParserOption("interpreted")
 case object CompiledRuntimeOption extends RuntimePreParserOption("compiled")
+case object ParallelRuntimeOption extends RuntimePreParserOption("parallel")
 case object EagerOption extends UpdateStrategyOption("eager")
 
 case class ConfigurationOptions(version: Option[VersionOption], options: Seq[PreParserOption]) extends PreParserOption
@@ -181,6 +181,10 @@ trait CompatibilityFor2_3 {
       }
 
       override def hasErrors = preparedQueryForV_2_3.isFailure
+
+      override def normalizedStatement = None
+
+      override def extractedParams = Map.empty
     }
   }
 
@@ -443,6 +447,7 @@ case class CompatibilityFor2_3Cost(graph: GraphDatabaseQueryService,
       case CypherRuntime.default => None
       case CypherRuntime.interpreted => Some(InterpretedRuntimeName)
       case CypherRuntime.compiled => throw new IllegalArgumentException("Compiled runtime is not supported in Cypher 2.3")
+      case CypherRuntime.parallel => throw new IllegalArgumentException("Parallel runtime is not supported in Cypher 2.3")
     }
 
     val nodeManager = graph.getDependencyResolver.resolveDependency(classOf[NodeManager])
@@ -203,6 +203,10 @@ trait CompatibilityFor3_0 {
       }
 
       override def hasErrors = preparedSyntacticQueryForV_3_0.isFailure
+
+      override def normalizedStatement = None
+
+      override def extractedParams = Map.empty
     }
   }
 
@@ -527,6 +531,7 @@ case class CompatibilityFor3_0Cost(graph: GraphDatabaseQueryService,
       case CypherRuntime.default => None
       case CypherRuntime.interpreted => Some(InterpretedRuntimeName)
       case CypherRuntime.compiled => throw new IllegalArgumentException("Compiled runtime is not supported in 3.0")
+      case CypherRuntime.parallel => throw new IllegalArgumentException("Parallel runtime is not supported in 3.0")
     }
     val updateStrategy = strategy match {
       case CypherUpdateStrategy.eager => Some(eagerUpdateStrategy)
@@ -29,7 +29,7 @@ import org.neo4j.cypher.internal.compiler.v3_1
 import org.neo4j.cypher.internal.compiler.v3_1.executionplan.{ExecutionPlan => ExecutionPlan_v3_1, _}
 import org.neo4j.cypher.internal.compiler.v3_1.planDescription.InternalPlanDescription.Arguments._
 import org.neo4j.cypher.internal.compiler.v3_1.planDescription.{Argument, InternalPlanDescription, PlanDescriptionArgumentSerializer}
-import org.neo4j.cypher.internal.compiler.v3_1.spi.{InternalResultRow, InternalResultVisitor}
+import org.neo4j.cypher.internal.compiler.v3_1.spi.{InternalResultRow, InternalResultVisitor, MorselScanner}
 import org.neo4j.cypher.internal.compiler.v3_1.tracing.rewriters.RewriterStepSequencer
 import org.neo4j.cypher.internal.compiler.v3_1.{CypherCompilerFactory, DPPlannerName, ExplainMode => ExplainModev3_1, IDPPlannerName, InfoLogger, Monitors, NormalMode => NormalModev3_1, PlannerName, ProfileMode => ProfileModev3_1, _}
 import org.neo4j.cypher.internal.frontend.v3_1.notification.{InternalNotification, PlannerUnsupportedNotification, RuntimeUnsupportedNotification, _}
@@ -202,6 +202,11 @@ trait CompatibilityFor3_1 {
       }
 
       override def hasErrors = preparedSyntacticQueryForV_3_1.isFailure
+
+      override def normalizedStatement =
+        preparedSyntacticQueryForV_3_1.toOption.filter(_.extractedParams.nonEmpty).map(_.normalizedStatement)
+
+      override def extractedParams = preparedSyntacticQueryForV_3_1.map(_.extractedParams).getOrElse(Map.empty)
     }
   }
 
@@ -513,7 +518,8 @@ case class CompatibilityFor3_1Cost(graph: GraphDatabaseQueryService,
                                    log: Log,
                                    planner: CypherPlanner,
                                    runtime: CypherRuntime,
-                                   strategy: CypherUpdateStrategy) extends CompatibilityFor3_1 {
+                                   strategy: CypherUpdateStrategy,
+                                   morselScanner: MorselScanner) extends CompatibilityFor3_1 {
 
   protected val compiler = {
     val plannerName = planner match {
@@ -527,6 +533,7 @@ case class CompatibilityFor3_1Cost(graph: GraphDatabaseQueryService,
       case CypherRuntime.default => None
       case CypherRuntime.interpreted => Some(InterpretedRuntimeName)
       case CypherRuntime.compiled => Some(CompiledRuntimeName)
+      case CypherRuntime.parallel => Some(ParallelRuntimeName)
     }
     val updateStrategy = strategy match {
       case CypherUpdateStrategy.eager => Some(eagerUpdateStrategy)
@@ -536,7 +543,7 @@ case class CompatibilityFor3_1Cost(graph: GraphDatabaseQueryService,
     val logger = new StringInfoLogger3_1(log)
     val monitors = new WrappedMonitors3_1(kernelMonitors)
     CypherCompilerFactory.costBasedCompiler(graph, config, clock, GeneratedQueryStructure, monitors, logger,
-      rewriterSequencer, plannerName, runtimeName, updateStrategy, helpersv3_1.asPublicType)
+      rewriterSequencer, plannerName, runtimeName, updateStrategy, helpersv3_1.asPublicType, morselScanner)
   }
 
   override val queryCacheSize: Int = config.queryCacheSize
@@ -21,6 +21,7 @@ package org.neo4j.cypher.internal.compatibility
 
 import java.net.URL
 
+import org.neo4j.cypher.internal.compiler.v3_1.InequalitySeekRange
 import org.neo4j.cypher.internal.compiler.v3_1.commands.expressions.{Expander, KernelPredicate}
 import org.neo4j.cypher.internal.compiler.v3_1.pipes.matching.PatternNode
 import org.neo4j.cypher.internal.compiler.v3_1.spi._
@@ -28,6 +29,7 @@ import org.neo4j.cypher.internal.frontend.v3_1.SemanticDirection
 import org.neo4j.cypher.internal.spi.v3_1.ExceptionTranslationSupport
 import org.neo4j.graphdb.{Node, Path, PropertyContainer, Relationship}
 import org.neo4j.kernel.api.index.IndexDescriptor
+import org.neo4j.storageengine.api.schema.IndexOrder
 
 import scala.collection.Iterator
 
@@ -180,6 +182,15 @@ class ExceptionTranslatingQueryContextFor3_1(val inner: QueryContext) extends Qu
   override def indexSeekByRange(index: IndexDescriptor, value: Any) =
     translateException(inner.indexSeekByRange(index, value))
 
+  override def indexSeekByRange(index: IndexDescriptor, value: Any, order: IndexOrder) =
+    translateException(inner.indexSeekByRange(index, value, order))
+
+  override def compositeIndexSeek(index: IndexDescriptor, values: Seq[Any]) =
+    translateException(inner.compositeIndexSeek(index, values))
+
+  override def compositeIndexSeekByRange(index: IndexDescriptor, prefix: Seq[Any], range: InequalitySeekRange[Any]) =
+    translateException(inner.compositeIndexSeekByRange(index, prefix, range))
+
   override def indexScanByContains(index: IndexDescriptor, value: String) =
     translateException(inner.indexScanByContains(index, value))
 
@@ -58,6 +58,8 @@ case class TransactionalContextWrapperv3_1(tc: TransactionalContext) extends Que
 
   override def isTopLevelTx: Boolean = tc.isTopLevelTx
 
+  override def canReadFromStore: Boolean = !tc.stateView.hasTxStateWithChanges && tc.accessMode.allowsReads
+
   override def close(success: Boolean) { tc.close(success) }
 
   def restrictCurrentTransaction(accessMode: AccessMode): Revertable = tc.restrictCurrentTransaction(accessMode)
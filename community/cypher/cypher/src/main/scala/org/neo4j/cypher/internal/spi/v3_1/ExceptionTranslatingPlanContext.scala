@@ -34,6 +34,9 @@ class ExceptionTranslatingPlanContext(inner: PlanContext) extends PlanContext wi
   override def getUniqueIndexRule(labelName: String, propertyKey: String): Option[IndexDescriptor] =
     translateException(inner.getUniqueIndexRule(labelName, propertyKey))
 
+  override def indexHasOrderedRangeSeek(labelName: String, propertyKey: String): Boolean =
+    translateException(inner.indexHasOrderedRangeSeek(labelName, propertyKey))
+
   override def statistics: GraphStatistics =
     translateException(inner.statistics)
 
@@ -54,6 +57,9 @@ class ExceptionTranslatingPlanContext(inner: PlanContext) extends PlanContext wi
   override def hasIndexRule(labelName: String): Boolean =
     translateException(inner.hasIndexRule(labelName))
 
+  override def getCompositeIndexRules(labelName: String): Seq[IndexDescriptor] =
+    translateException(inner.getCompositeIndexRules(labelName))
+
   // Legacy traversal matchers (pre-Ronja) (These were moved out to remove the dependency on the kernel)
   override def monoDirectionalTraversalMatcher(steps: ExpanderStep, start: EntityProducer[Node]): TraversalMatcher =
     translateException(inner.monoDirectionalTraversalMatcher(steps, start))
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.spi.v3_1
+
+/**
+ * Property values which index seeks found their nodes by, so that reading the seeked property of a node found
+ * that way doesn't have to go to the property store again. Values are kept in a fixed number of slots picked
+ * by node id, so a value may be replaced by that of another node at any time, after which its property
+ * is simply read as usual.
+ */
+final class IndexedValueCache(size: Int = 1024) {
+  require(Integer.bitCount(size) == 1, s"Size must be a power of two, but was $size")
+
+  private val mask = size - 1
+  private val nodeIds = Array.fill(size)(-1L)
+  private val propertyKeyIds = new Array[Int](size)
+  private val values = new Array[AnyRef](size)
+  private val generations = new Array[Int](size)
+  private var generation = 1
+
+  def put(nodeId: Long, propertyKeyId: Int, value: AnyRef): Unit = {
+    val slot = slotOf(nodeId)
+    nodeIds(slot) = nodeId
+    propertyKeyIds(slot) = propertyKeyId
+    values(slot) = value
+    generations(slot) = generation
+  }
+
+  /**
+   * @return the cached value, or null if there is none.
+   */
+  def get(nodeId: Long, propertyKeyId: Int): AnyRef = {
+    val slot = slotOf(nodeId)
+    if (generations(slot) == generation && nodeIds(slot) == nodeId && propertyKeyIds(slot) == propertyKeyId)
+      values(slot)
+    else
+      null
+  }
+
+  def clear(): Unit = generation += 1
+
+  private def slotOf(nodeId: Long) = (nodeId ^ (nodeId >>> 32)).toInt & mask
+}
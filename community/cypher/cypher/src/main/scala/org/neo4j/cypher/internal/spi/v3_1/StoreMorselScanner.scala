@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.spi.v3_1
+
+import java.util.concurrent._
+import java.util.concurrent.atomic.AtomicLong
+
+import org.neo4j.collection.primitive.{PrimitiveLongCollections, PrimitiveLongIterator}
+import org.neo4j.cypher.internal.compiler.v3_1.spi._
+import org.neo4j.kernel.GraphDatabaseQueryService
+import org.neo4j.kernel.api.index.InternalIndexState
+import org.neo4j.kernel.api.properties.Property
+import org.neo4j.kernel.impl.util.JobScheduler
+import org.neo4j.storageengine.api.{NodeItem, StorageStatement, StoreReadLayer}
+
+/*
+  Scans nodes straight from the store on a pool of worker threads. Node id ranges are handed out lock free, while
+  label and index scans are drained into batches of ids under a lock, since their readers are not thread safe.
+  Each worker reads through a storage statement of its own and only the partial counts cross threads. Workers run on
+  the pooled threads of the job scheduler, which are shut down together with the database.
+ */
+class StoreMorselScanner(graph: GraphDatabaseQueryService, configuredWorkers: Int,
+                         morselSize: Int = StoreMorselScanner.DEFAULT_MORSEL_SIZE) extends MorselScanner {
+
+  private val workers = if (configuredWorkers > 0) configuredWorkers else Runtime.getRuntime.availableProcessors()
+
+  private lazy val scheduler = graph.getDependencyResolver.resolveDependency(classOf[JobScheduler])
+
+  override def count(query: QueryContext, source: MorselSource, predicates: Seq[MorselPredicate],
+                     counts: Seq[MorselCount]): Option[Seq[Long]] =
+    if (!query.transactionalContext.canReadFromStore) None
+    else {
+      val storeReadLayer = graph.getDependencyResolver.resolveDependency(classOf[StoreReadLayer])
+      val statement = storeReadLayer.newStatement()
+      statement.acquire()
+      try {
+        morsels(storeReadLayer, statement, source).map { case (morsels, parallelism) =>
+          val tasks = Seq.fill(parallelism) {
+            new FutureTask(new MorselWorker(storeReadLayer, morsels, predicates, counts))
+          }
+          tasks.foreach(scheduler.schedule(JobScheduler.Groups.cypherWorker, _))
+          val partialCounts = tasks.map { future =>
+            try future.get() catch {
+              case e: ExecutionException => throw e.getCause
+            }
+          }
+          partialCounts.reduce((a, b) => a.zip(b).map { case (x, y) => x + y }).toSeq
+        }
+      } finally {
+        statement.close()
+      }
+    }
+
+  private def morsels(storeReadLayer: StoreReadLayer, statement: StorageStatement,
+                      source: MorselSource): Option[(Morsels, Int)] = source match {
+    case AllNodesMorselSource =>
+      val highestNodeId = storeReadLayer.highestNodeIdInUse()
+      val ranges = highestNodeId / morselSize + 1
+      Some(new NodeIdRanges(highestNodeId, morselSize) -> Math.min(workers, ranges).toInt)
+
+    case LabelMorselSource(labelId) =>
+      Some(new NodeIdBatches(statement.getLabelScanReader.nodesWithLabel(labelId), morselSize) -> workers)
+
+    case IndexMorselSource(labelId, propertyKeyId) =>
+      Option(storeReadLayer.indexGetForLabelAndPropertyKey(labelId, propertyKeyId))
+        .filter(index => storeReadLayer.indexGetState(index) == InternalIndexState.ONLINE)
+        .map(index => new NodeIdBatches(statement.getIndexReader(index).scan(), morselSize) -> workers)
+  }
+}
+
+object StoreMorselScanner {
+  val DEFAULT_MORSEL_SIZE = 10000
+}
+
+private trait Morsels {
+  // the ids of the next morsel, or null once all morsels have been handed out
+  def next(): PrimitiveLongIterator
+}
+
+private class NodeIdRanges(highestNodeId: Long, size: Int) extends Morsels {
+  private val nextStart = new AtomicLong()
+
+  override def next(): PrimitiveLongIterator = {
+    val start = nextStart.getAndAdd(size)
+    if (start > highestNodeId) null
+    else PrimitiveLongCollections.range(start, Math.min(start + size - 1, highestNodeId))
+  }
+}
+
+private class NodeIdBatches(ids: PrimitiveLongIterator, size: Int) extends Morsels {
+  override def next(): PrimitiveLongIterator = synchronized {
+    val batch = new Array[Long](size)
+    var length = 0
+    while (length < size && ids.hasNext) {
+      batch(length) = ids.next()
+      length += 1
+    }
+    if (length == 0) null
+    else PrimitiveLongCollections.iterator(java.util.Arrays.copyOf(batch, length): _*)
+  }
+}
+
+private class MorselWorker(storeReadLayer: StoreReadLayer, morsels: Morsels, predicates: Seq[MorselPredicate],
+                           counts: Seq[MorselCount]) extends Callable[Array[Long]] {
+
+  override def call(): Array[Long] = {
+    val partialCounts = new Array[Long](counts.size)
+    val statement = storeReadLayer.newStatement()
+    statement.acquire()
+    try {
+      var morsel = morsels.next()
+      while (morsel != null) {
+        val cursor = statement.acquireIteratorNodeCursor(morsel)
+        try {
+          while (cursor.next()) {
+            val node = cursor.get()
+            if (predicates.forall(matches(node, _))) {
+              var i = 0
+              while (i < partialCounts.length) {
+                if (counted(node, counts(i))) partialCounts(i) += 1
+                i += 1
+              }
+            }
+          }
+        } finally {
+          cursor.close()
+        }
+        morsel = morsels.next()
+      }
+      partialCounts
+    } finally {
+      statement.close()
+    }
+  }
+
+  private def matches(node: NodeItem, predicate: MorselPredicate) = predicate match {
+    case HasLabelMorselPredicate(labelId) => node.hasLabel(labelId)
+    case HasPropertyMorselPredicate(propertyKeyId) => node.hasProperty(propertyKeyId)
+    case PropertyEqualsMorselPredicate(propertyKeyId, value) =>
+      val stored = node.getProperty(propertyKeyId)
+      stored != null && Property.property(propertyKeyId, stored).valueEquals(value)
+  }
+
+  private def counted(node: NodeItem, count: MorselCount) = count match {
+    case CountNodesMorselCount => true
+    case CountPropertyMorselCount(Some(propertyKeyId)) => node.hasProperty(propertyKeyId)
+    case CountPropertyMorselCount(None) => false
+  }
+}
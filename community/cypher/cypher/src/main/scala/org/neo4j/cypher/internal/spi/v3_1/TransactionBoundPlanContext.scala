@@ -57,6 +57,13 @@ class TransactionBoundPlanContext(tc: TransactionalContextWrapperv3_1)
     onlineIndexDescriptors.nonEmpty
   }
 
+  def getCompositeIndexRules(labelName: String): Seq[IndexDescriptor] = {
+    val labelId = tc.statement.readOperations().labelGetForName(labelName)
+
+    val indexDescriptors = tc.statement.readOperations().indexesGetForLabel(labelId).asScala
+    indexDescriptors.filter(_.isComposite).flatMap(getOnlineIndex).toIndexedSeq
+  }
+
   def getUniqueIndexRule(labelName: String, propertyKey: String): Option[IndexDescriptor] = evalOrNone {
     val labelId = tc.statement.readOperations().labelGetForName(labelName)
     val propertyKeyId = tc.statement.readOperations().propertyKeyGetForName(propertyKey)
@@ -65,6 +72,15 @@ class TransactionBoundPlanContext(tc: TransactionalContextWrapperv3_1)
     Some(tc.statement.readOperations().uniqueIndexGetForLabelAndPropertyKey(labelId, propertyKeyId))
   }
 
+  def indexHasOrderedRangeSeek(labelName: String, propertyKey: String): Boolean = try {
+    val labelId = tc.statement.readOperations().labelGetForName(labelName)
+    val propertyKeyId = tc.statement.readOperations().propertyKeyGetForName(propertyKey)
+
+    tc.statement.readOperations().indexHasOrderedRangeSeek(new IndexDescriptor(labelId, propertyKeyId))
+  } catch {
+    case _: KernelException => false
+  }
+
   private def evalOrNone[T](f: => Option[T]): Option[T] =
     try { f } catch { case _: SchemaKernelException => None }
 
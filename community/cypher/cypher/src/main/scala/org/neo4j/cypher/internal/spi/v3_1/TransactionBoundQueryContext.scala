@@ -53,6 +53,8 @@ import org.neo4j.kernel.api.exceptions.schema.{AlreadyConstrainedException, Alre
 import org.neo4j.kernel.api.index.{IndexDescriptor, InternalIndexState}
 import org.neo4j.kernel.impl.core.NodeManager
 import org.neo4j.kernel.impl.locking.ResourceTypes
+import org.neo4j.storageengine.api.schema.{IndexOrder, NodeValueIterator}
+import org.neo4j.storageengine.api.txstate.ReadableTransactionState
 
 import scala.collection.Iterator
 import scala.collection.JavaConverters._
@@ -65,6 +67,10 @@ final class TransactionBoundQueryContext(val transactionalContext: Transactional
   val nodeOps = new NodeOperations
   val relationshipOps = new RelationshipOperations
 
+  private val indexedValueCache = new IndexedValueCache
+  private var indexedValuesTxState: ReadableTransactionState = null
+  private var indexedValuesDataVersion = 0L
+
   override lazy val entityAccessor = transactionalContext.graph.getDependencyResolver.resolveDependency(classOf[NodeManager])
 
   override def setLabelsOnNode(node: Long, labelIds: Iterator[Int]): Int = labelIds.foldLeft(0) {
@@ -143,13 +149,23 @@ final class TransactionBoundQueryContext(val transactionalContext: Transactional
     case PrefixRange(prefix: String) =>
       indexSeekByPrefixRange(index, prefix)
     case range: InequalitySeekRange[Any] =>
-      indexSeekByPrefixRange(index, range)
+      indexSeekByPrefixRange(index, range, None)
 
     case range =>
       throw new InternalException(s"Unsupported index seek by range: $range")
   }
 
-  private def indexSeekByPrefixRange(index: IndexDescriptor, range: InequalitySeekRange[Any]): scala.Iterator[Node] = {
+  override def indexSeekByRange(index: IndexDescriptor, value: Any, order: IndexOrder) = value match {
+
+    case range: InequalitySeekRange[Any] =>
+      indexSeekByPrefixRange(index, range, Some(order))
+
+    case range =>
+      throw new InternalException(s"Unsupported ordered index seek by range: $range")
+  }
+
+  private def indexSeekByPrefixRange(index: IndexDescriptor, range: InequalitySeekRange[Any],
+                                     order: Option[IndexOrder]): scala.Iterator[Node] = {
     val groupedRanges = range.groupBy { (bound: Bound[Any]) =>
       bound.endPoint match {
         case n: Number => classOf[Number]
@@ -170,8 +186,8 @@ final class TransactionBoundQueryContext(val transactionalContext: Transactional
         }.getOrElse(Iterator.empty)
       } else {
         (optNumericRange, optStringRange) match {
-          case (Some(numericRange), None) => indexSeekByNumericalRange(index, numericRange)
-          case (None, Some(stringRange)) => indexSeekByStringRange(index, stringRange)
+          case (Some(numericRange), None) => indexSeekByNumericalRange(index, numericRange, order)
+          case (None, Some(stringRange)) => indexSeekByStringRange(index, stringRange, order)
 
           case (Some(numericRange), Some(stringRange)) =>
             // Consider MATCH (n:Person) WHERE n.prop < 1 AND n.prop > "London":
@@ -183,8 +199,8 @@ final class TransactionBoundQueryContext(val transactionalContext: Transactional
             //
             // Below we simulate this behaviour:
             //
-            if (indexSeekByNumericalRange( index, numericRange ).isEmpty
-                || indexSeekByStringRange(index, stringRange).isEmpty) {
+            if (indexSeekByNumericalRange( index, numericRange, None ).isEmpty
+                || indexSeekByStringRange(index, stringRange, None).isEmpty) {
               Iterator.empty
             } else {
               throw new IllegalArgumentException(s"Cannot compare a property against both numbers and strings. They are incomparable.")
@@ -202,59 +218,161 @@ final class TransactionBoundQueryContext(val transactionalContext: Transactional
     JavaConversionSupport.mapToScalaENFXSafe(indexedNodes)(nodeOps.getById)
   }
 
-  private def indexSeekByNumericalRange(index: IndexDescriptor, range: InequalitySeekRange[Number]): scala.Iterator[Node] = {
+  private def indexSeekByNumericalRange(index: IndexDescriptor, range: InequalitySeekRange[Number],
+                                        order: Option[IndexOrder]): scala.Iterator[Node] = {
     val readOps = transactionalContext.statement.readOperations()
-    val matchingNodes: PrimitiveLongIterator = (range match {
+    def seek(lower: Number, includeLower: Boolean, upper: Number, includeUpper: Boolean): NodeValueIterator =
+      readOps.nodesGetFromIndexRangeSeekByNumber(index, lower, includeLower, upper, includeUpper,
+        order.getOrElse(IndexOrder.NONE))
+    val matchingNodes: NodeValueIterator = (range match {
 
       case rangeLessThan: RangeLessThan[Number] =>
         rangeLessThan.limit(BY_NUMBER).map { limit =>
-          readOps.nodesGetFromIndexRangeSeekByNumber( index, null, false, limit.endPoint, limit.isInclusive )
+          seek( null, false, limit.endPoint, limit.isInclusive )
         }
 
       case rangeGreaterThan: RangeGreaterThan[Number] =>
         rangeGreaterThan.limit(BY_NUMBER).map { limit =>
-          readOps.nodesGetFromIndexRangeSeekByNumber( index, limit.endPoint, limit.isInclusive, null, false )
+          seek( limit.endPoint, limit.isInclusive, null, false )
         }
 
       case RangeBetween(rangeGreaterThan, rangeLessThan) =>
         rangeGreaterThan.limit(BY_NUMBER).flatMap { greaterThanLimit =>
           rangeLessThan.limit(BY_NUMBER).map { lessThanLimit =>
-            readOps.nodesGetFromIndexRangeSeekByNumber(
-              index,
+            seek(
               greaterThanLimit.endPoint, greaterThanLimit.isInclusive,
               lessThanLimit.endPoint, lessThanLimit.isInclusive )
           }
         }
-    }).getOrElse(EMPTY_PRIMITIVE_LONG_COLLECTION.iterator)
-    JavaConversionSupport.mapToScalaENFXSafe(matchingNodes)(nodeOps.getById)
+    }).getOrElse(NodeValueIterator.EMPTY)
+    nodesWithIndexedValues(index, matchingNodes)
   }
 
-  private def indexSeekByStringRange(index: IndexDescriptor, range: InequalitySeekRange[String]): scala.Iterator[Node] = {
+  private def indexSeekByStringRange(index: IndexDescriptor, range: InequalitySeekRange[String],
+                                     order: Option[IndexOrder]): scala.Iterator[Node] = {
     val readOps = transactionalContext.statement.readOperations()
-    val propertyKeyId = index.getPropertyKeyId
-    val matchingNodes: PrimitiveLongIterator = range match {
+    def seek(lower: String, includeLower: Boolean, upper: String, includeUpper: Boolean): NodeValueIterator =
+      readOps.nodesGetFromIndexRangeSeekByString(index, lower, includeLower, upper, includeUpper,
+        order.getOrElse(IndexOrder.NONE))
+    val matchingNodes: NodeValueIterator = range match {
 
       case rangeLessThan: RangeLessThan[String] =>
         rangeLessThan.limit(BY_STRING).map { limit =>
-          readOps.nodesGetFromIndexRangeSeekByString( index, null, false, limit.endPoint.asInstanceOf[String], limit.isInclusive )
-        }.getOrElse(EMPTY_PRIMITIVE_LONG_COLLECTION.iterator)
+          seek( null, false, limit.endPoint.asInstanceOf[String], limit.isInclusive )
+        }.getOrElse(NodeValueIterator.EMPTY)
 
       case rangeGreaterThan: RangeGreaterThan[String] =>
         rangeGreaterThan.limit(BY_STRING).map { limit =>
-          readOps.nodesGetFromIndexRangeSeekByString( index, limit.endPoint.asInstanceOf[String], limit.isInclusive, null, false )
-        }.getOrElse(EMPTY_PRIMITIVE_LONG_COLLECTION.iterator)
+          seek( limit.endPoint.asInstanceOf[String], limit.isInclusive, null, false )
+        }.getOrElse(NodeValueIterator.EMPTY)
 
       case RangeBetween(rangeGreaterThan, rangeLessThan) =>
         rangeGreaterThan.limit(BY_STRING).flatMap { greaterThanLimit =>
           rangeLessThan.limit(BY_STRING).map { lessThanLimit =>
-            readOps.nodesGetFromIndexRangeSeekByString(
-              index,
+            seek(
               greaterThanLimit.endPoint.asInstanceOf[String], greaterThanLimit.isInclusive,
               lessThanLimit.endPoint.asInstanceOf[String], lessThanLimit.isInclusive )
           }
-        }.getOrElse(EMPTY_PRIMITIVE_LONG_COLLECTION.iterator)
+        }.getOrElse(NodeValueIterator.EMPTY)
+    }
+
+    nodesWithIndexedValues(index, matchingNodes)
+  }
+
+  /*
+   * The remembered index values, which are forgotten as soon as any data changes in the transaction, whether by
+   * this query or by anyone else using the transaction, e.g. through the Core API while iterating over the result.
+   */
+  private def indexedValues: IndexedValueCache = {
+    val stateView = transactionalContext.stateView
+    val txState = if (stateView.hasTxStateWithChanges) stateView.txState() else null
+    val dataVersion = if (txState != null) txState.dataVersion() else 0L
+    if ((txState ne indexedValuesTxState) || dataVersion != indexedValuesDataVersion) {
+      indexedValueCache.clear()
+      indexedValuesTxState = txState
+      indexedValuesDataVersion = dataVersion
+    }
+    indexedValueCache
+  }
+
+  /*
+   * Remembers the values the index handed back, which saves reading them again when the query goes on to
+   * project or filter on the property it seeked by.
+   */
+  private def nodesWithIndexedValues(index: IndexDescriptor, matchingNodes: NodeValueIterator): scala.Iterator[Node] = {
+    val propertyKeyId = index.getPropertyKeyId
+    JavaConversionSupport.mapToScalaENFXSafe(matchingNodes) { nodeId =>
+      val value = matchingNodes.value()
+      if (value != null)
+        indexedValues.put(nodeId, propertyKeyId, value)
+      nodeOps.getById(nodeId)
     }
+  }
 
+  override def compositeIndexSeek(index: IndexDescriptor, values: Seq[Any]) = {
+    val readOps = transactionalContext.statement.readOperations()
+    val matchingNodes = readOps.nodesGetFromCompositeIndexSeek(index, values.map(_.asInstanceOf[AnyRef]).toArray)
+    JavaConversionSupport.mapToScalaENFXSafe(matchingNodes)(nodeOps.getById)
+  }
+
+  override def compositeIndexSeekByRange(index: IndexDescriptor, prefix: Seq[Any], range: InequalitySeekRange[Any]) = {
+    val groupedRanges = range.groupBy { (bound: Bound[Any]) =>
+      bound.endPoint match {
+        case n: Number => classOf[Number]
+        case s: String => classOf[String]
+        case c: Character => classOf[String]
+        case _ => classOf[Any]
+      }
+    }
+    val values = prefix.map(_.asInstanceOf[AnyRef]).toArray
+
+    val optNumericRange = groupedRanges.get(classOf[Number]).map(_.asInstanceOf[InequalitySeekRange[Number]])
+    val optStringRange = groupedRanges.get(classOf[String]).map(_.mapBounds(_.toString))
+    val anyRange = groupedRanges.get(classOf[Any])
+
+    if (anyRange.nonEmpty) {
+      anyRange.get.inclusionTest[Any](BY_VALUE).map { test =>
+        throw new IllegalArgumentException("Cannot compare a property against values that are neither strings nor numbers.")
+      }.getOrElse(Iterator.empty)
+    } else {
+      (optNumericRange, optStringRange) match {
+        case (Some(numericRange), None) => compositeIndexSeekByLimits(index, values, numericRange)(BY_NUMBER)
+        case (None, Some(stringRange)) => compositeIndexSeekByLimits[String, AnyRef](index, values, stringRange)(BY_STRING)
+
+        case (Some(numericRange), Some(stringRange)) =>
+          // Same as for single property range seeks, see indexSeekByPrefixRange
+          if (compositeIndexSeekByLimits(index, values, numericRange)(BY_NUMBER).isEmpty
+            || compositeIndexSeekByLimits[String, AnyRef](index, values, stringRange)(BY_STRING).isEmpty) {
+            Iterator.empty
+          } else {
+            throw new IllegalArgumentException(s"Cannot compare a property against both numbers and strings. They are incomparable.")
+          }
+
+        case (None, None) =>
+          throw new IllegalStateException("Failed to partition range bounds")
+      }
+    }
+  }
+
+  private def compositeIndexSeekByLimits[T, X >: T](index: IndexDescriptor, prefix: Array[AnyRef], range: InequalitySeekRange[T])
+                                                  (implicit ordering: MinMaxOrdering[X]): scala.Iterator[Node] = {
+    val readOps = transactionalContext.statement.readOperations()
+    def endPoint(limit: Option[Bound[X]]) = limit.map(_.endPoint.asInstanceOf[AnyRef]).orNull
+    def isInclusive(limit: Option[Bound[X]]) = limit.exists(_.isInclusive)
+
+    val limits: Option[(Option[Bound[X]], Option[Bound[X]])] = range match {
+      case rangeLessThan: RangeLessThan[T] =>
+        rangeLessThan.limit[X].map(upper => (None, Some(upper)))
+      case rangeGreaterThan: RangeGreaterThan[T] =>
+        rangeGreaterThan.limit[X].map(lower => (Some(lower), None))
+      case RangeBetween(rangeGreaterThan, rangeLessThan) =>
+        rangeGreaterThan.limit[X].flatMap(lower => rangeLessThan.limit[X].map(upper => (Some(lower), Some(upper))))
+    }
+
+    val matchingNodes: PrimitiveLongIterator = limits.map { case (lower, upper) =>
+      readOps.nodesGetFromCompositeIndexRangeSeek(index, prefix,
+        endPoint(lower), isInclusive(lower), endPoint(upper), isInclusive(upper))
+    }.getOrElse(EMPTY_PRIMITIVE_LONG_COLLECTION.iterator)
     JavaConversionSupport.mapToScalaENFXSafe(matchingNodes)(nodeOps.getById)
   }
 
@@ -304,21 +422,25 @@ final class TransactionBoundQueryContext(val transactionalContext: Transactional
       case _: exceptions.EntityNotFoundException => Iterator.empty
     }
 
-    override def getProperty(id: Long, propertyKeyId: Int): Any = try {
-      transactionalContext.statement.readOperations().nodeGetProperty(id, propertyKeyId)
-    } catch {
-      case e: org.neo4j.kernel.api.exceptions.EntityNotFoundException =>
-        if (isDeletedInThisTx(id))
-          throw new EntityNotFoundException(s"Node with id $id has been deleted in this transaction", e)
-        else
-          null
+    override def getProperty(id: Long, propertyKeyId: Int): Any = {
+      val indexedValue = indexedValues.get(id, propertyKeyId)
+      if (indexedValue != null) indexedValue
+      else try {
+        transactionalContext.statement.readOperations().nodeGetProperty(id, propertyKeyId)
+      } catch {
+        case e: org.neo4j.kernel.api.exceptions.EntityNotFoundException =>
+          if (isDeletedInThisTx(id))
+            throw new EntityNotFoundException(s"Node with id $id has been deleted in this transaction", e)
+          else
+            null
+      }
     }
 
-    override def hasProperty(id: Long, propertyKey: Int) = try {
+    override def hasProperty(id: Long, propertyKey: Int) = indexedValues.get(id, propertyKey) != null || (try {
       transactionalContext.statement.readOperations().nodeHasProperty(id, propertyKey)
     } catch {
       case _: exceptions.EntityNotFoundException => false
-    }
+    })
 
     override def removeProperty(id: Long, propertyKeyId: Int) {
       try {
@@ -586,11 +708,13 @@ final class TransactionBoundQueryContext(val transactionalContext: Transactional
   override def callReadOnlyProcedure(name: QualifiedProcedureName, args: Seq[Any]) =
     callProcedure(name, args, transactionalContext.statement.readOperations().procedureCallRead)
 
-  override def callReadWriteProcedure(name: QualifiedProcedureName, args: Seq[Any]) =
+  override def callReadWriteProcedure(name: QualifiedProcedureName, args: Seq[Any]) = {
     callProcedure(name, args, transactionalContext.statement.dataWriteOperations().procedureCallWrite)
+  }
 
-  override def callDbmsProcedure(name: QualifiedProcedureName, args: Seq[Any]) =
+  override def callDbmsProcedure(name: QualifiedProcedureName, args: Seq[Any]) = {
     callProcedure(name, args, transactionalContext.dbmsOperations.procedureCallDbms(_, _, transactionalContext.accessMode))
+  }
 
   private def callProcedure(name: QualifiedProcedureName, args: Seq[Any],
                             call: (proc.ProcedureSignature.ProcedureName, Array[AnyRef]) => RawIterator[Array[AnyRef], ProcedureException]) = {
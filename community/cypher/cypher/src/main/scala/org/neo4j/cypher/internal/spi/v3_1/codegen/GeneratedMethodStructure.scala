@@ -24,8 +24,8 @@ import java.util
 import org.neo4j.codegen.Expression.{not, or, _}
 import org.neo4j.codegen.MethodReference.methodReference
 import org.neo4j.codegen._
-import org.neo4j.collection.primitive.hopscotch.LongKeyIntValueTable
-import org.neo4j.collection.primitive.{PrimitiveLongIntMap, PrimitiveLongIterator, PrimitiveLongObjectMap}
+import org.neo4j.collection.primitive.hopscotch.LongKeyLongValueTable
+import org.neo4j.collection.primitive.{PrimitiveLongIterator, PrimitiveLongLongMap, PrimitiveLongObjectMap, PrimitiveLongSet}
 import org.neo4j.cypher.internal.codegen.CompiledConversionUtils.CompositeKey
 import org.neo4j.cypher.internal.codegen._
 import org.neo4j.cypher.internal.compiler.v3_1.ast.convert.commands.DirectionConverter.toGraphDb
@@ -187,6 +187,17 @@ case class GeneratedMethodStructure(fields: Fields, generator: CodeBlock, aux: A
     generator.assign(variable, invoke(mathCastToInt, initialValue))
   }
 
+  override def declareLongCounter(name: String): Unit = {
+    val variable = generator.declare(typeRef[Long], name)
+    locals += (name -> variable)
+    generator.assign(variable, constant(0L))
+  }
+
+  override def incrementLongCounter(name: String): Unit = {
+    val local = locals(name)
+    generator.assign(local, addLongs(local, constant(1L)))
+  }
+
   override def decreaseCounterAndCheckForZero(name: String): Expression = {
     val local = locals(name)
     generator.assign(local, subtractInts(local, constant(1)))
@@ -348,6 +359,16 @@ case class GeneratedMethodStructure(fields: Fields, generator: CodeBlock, aux: A
     }
   }
 
+  override def varLengthExpand(iterVar: String, nodeVar: String, direction: SemanticDirection, minLength: Int,
+                               maxLength: Int, typeVars: Seq[String]) = {
+    val local = generator.declare(typeRef[PrimitiveLongIterator], iterVar)
+    handleKernelExceptions(generator, fields.ro, fields.close) { body =>
+      body.assign(local, invoke(Methods.varLengthExpand, readOperations, body.load(nodeVar), dir(direction),
+                                constant(minLength), constant(maxLength),
+                                newArray(typeRef[Int], typeVars.map(body.load): _*)))
+    }
+  }
+
   override def connectingRelationships(iterVar: String, fromNode: String, direction: SemanticDirection,
                                        toNode: String) = {
     val local = generator.declare(typeRef[RelationshipIterator], iterVar)
@@ -434,9 +455,9 @@ case class GeneratedMethodStructure(fields: Fields, generator: CodeBlock, aux: A
 
   private def joinTableType(resultType: JoinTableType): TypeReference = {
     val returnType = resultType match {
-      case LongToCountTable => typeRef[PrimitiveLongIntMap]
+      case LongToCountTable => typeRef[PrimitiveLongLongMap]
       case LongsToCountTable => TypeReference
-        .parameterizedType(classOf[util.HashMap[_, _]], classOf[CompositeKey], classOf[java.lang.Integer])
+        .parameterizedType(classOf[util.HashMap[_, _]], classOf[CompositeKey], classOf[java.lang.Long])
       case LongToListTable(structure, _) => parameterizedType(classOf[PrimitiveLongObjectMap[_]],
                                                               parameterizedType(
                                                                 classOf[util.ArrayList[_]],
@@ -455,21 +476,76 @@ case class GeneratedMethodStructure(fields: Fields, generator: CodeBlock, aux: A
     case typ: LongsToListTable => createNewInstance(joinTableType(typ))
   }
 
+  override def countTableForEach(tableVar: String, keyVar: String, countVar: String)
+                                (block: MethodStructure[Expression] => Unit) = {
+    val iterator = generator.declare(typeRef[PrimitiveLongIterator], context.namer.newVarName())
+    generator.assign(iterator, invoke(generator.load(tableVar), countingTableIterator))
+    using(generator.whileLoop(invoke(iterator, hasNextLong))) { body =>
+      body.assign(typeRef[Long], keyVar, invoke(iterator, nextLong))
+      body.assign(typeRef[Long], countVar, invoke(body.load(tableVar), countingTableGet, body.load(keyVar)))
+      block(copy(generator = body))
+    }
+  }
+
+  override def newDistinctSet(setVar: String, keyCount: Int) =
+    if (keyCount == 1) generator.assign(typeRef[PrimitiveLongSet], setVar, Templates.newLongSet)
+    else generator.assign(typeRef[util.HashSet[CompositeKey]], setVar,
+                          createNewInstance(typeRef[util.HashSet[CompositeKey]]))
+
+  override def distinctSetIfNotContains(setVar: String, keyVars: Seq[String])
+                                       (block: MethodStructure[Expression] => Unit) = {
+    val added =
+      if (keyVars.size == 1) invoke(generator.load(setVar), distinctSetAdd, generator.load(keyVars.head))
+      else invoke(generator.load(setVar), distinctSetCompositeKeyAdd,
+                  invoke(compositeKey, newArray(typeRef[Long], keyVars.map(generator.load): _*)))
+    using(generator.ifStatement(added)) { body =>
+      block(copy(generator = body))
+    }
+  }
+
+  override def newSortTable(tableVar: String, sortKeys: Seq[(Int, Boolean)], limit: Option[Expression]) = {
+    generator.assign(typeRef[LongRowSortTable], tableVar, limit match {
+      case Some(count) => createNewInstance(typeRef[LongRowSortTable], (typeRef[Int], invoke(mathCastToInt, count)))
+      case None => createNewInstance(typeRef[LongRowSortTable])
+    })
+    sortKeys.foreach {
+      case (column, descending) =>
+        generator.expression(invoke(generator.load(tableVar), sortTableSortOn, constant(column), constant(descending)))
+    }
+  }
+
+  override def addToSortTable(tableVar: String, columnVars: Seq[String]) =
+    generator.expression(invoke(generator.load(tableVar), sortTableAdd,
+                                newArray(typeRef[Long], columnVars.map(generator.load): _*)))
+
+  override def sortTableForEach(tableVar: String, columnVars: Seq[String])
+                               (block: MethodStructure[Expression] => Unit) = {
+    generator.expression(invoke(generator.load(tableVar), sortTableSort))
+    using(generator.whileLoop(invoke(generator.load(tableVar), sortTableNext))) { body =>
+      columnVars.zipWithIndex.foreach {
+        case (columnVar, column) =>
+          body.assign(typeRef[Long], columnVar, invoke(body.load(tableVar), sortTableGet, constant(column)))
+      }
+      block(copy(generator = body))
+    }
+  }
+
   override def updateProbeTableCount(tableVar: String, tableType: CountingJoinTableType,
                                      keyVars: Seq[String]) = tableType match {
     case LongToCountTable =>
       assert(keyVars.size == 1)
       val keyVar = keyVars.head
       val countName = context.namer.newVarName()
-      generator.assign(typeRef[Int], countName,
+      generator.assign(typeRef[Long], countName,
                        invoke(generator.load(tableVar), countingTableGet, generator.load(keyVar)))
       generator.expression(
-        pop(
+        popLong(
           invoke(generator.load(tableVar), countingTablePut, generator.load(keyVar),
                  ternary(
-                   equal(generator.load(countName), get(staticField[LongKeyIntValueTable, Int]("NULL")), typeRef[Int]),
-                   constant(1),
-                   addInts(generator.load(countName), constant(1))))))
+                   equal(generator.load(countName), get(staticField[LongKeyLongValueTable, Long]("NULL")),
+                         typeRef[Long]),
+                   constant(1L),
+                   addLongs(generator.load(countName), constant(1L))))))
 
     case LongsToCountTable =>
       val countName = context.namer.newVarName()
@@ -477,8 +553,8 @@ case class GeneratedMethodStructure(fields: Fields, generator: CodeBlock, aux: A
       generator.assign(typeRef[CompositeKey], keyName,
                        invoke(compositeKey,
                               newArray(typeRef[Long], keyVars.map(generator.load): _*)))
-      generator.assign(typeRef[java.lang.Integer], countName,
-                       cast(typeRef[java.lang.Integer],
+      generator.assign(typeRef[java.lang.Long], countName,
+                       cast(typeRef[java.lang.Long],
                             invoke(generator.load(tableVar), countingTableCompositeKeyGet,
                                    generator.load(keyName))
                        ))
@@ -487,12 +563,12 @@ case class GeneratedMethodStructure(fields: Fields, generator: CodeBlock, aux: A
           invoke(generator.load(tableVar), countingTableCompositeKeyPut,
                  generator.load(keyName),
                  ternaryOnNull(generator.load(countName),
-                               invoke(boxInteger,
-                                      constant(1)), invoke(boxInteger,
-                                                           addInts(
-                                                             invoke(generator.load(countName),
-                                                                    unboxInteger),
-                                                             constant(1)))))))
+                               invoke(boxLong,
+                                      constant(1L)), invoke(boxLong,
+                                                            addLongs(
+                                                              invoke(generator.load(countName),
+                                                                     unboxLong),
+                                                              constant(1L)))))))
   }
 
   override def probe(tableVar: String, tableType: JoinTableType, keyVars: Seq[String])
@@ -500,17 +576,17 @@ case class GeneratedMethodStructure(fields: Fields, generator: CodeBlock, aux: A
     case LongToCountTable =>
       assert(keyVars.size == 1)
       val keyVar = keyVars.head
-      val times = generator.declare(typeRef[Int], context.namer.newVarName())
+      val times = generator.declare(typeRef[Long], context.namer.newVarName())
       generator.assign(times, invoke(generator.load(tableVar), countingTableGet, generator.load(keyVar)))
-      using(generator.whileLoop(gt(times, constant(0), typeRef[Int]))) { body =>
+      using(generator.whileLoop(gt(times, constant(0L), typeRef[Long]))) { body =>
         block(copy(generator = body))
-        body.assign(times, subtractInts(times, constant(1)))
+        body.assign(times, subtractLongs(times, constant(1L)))
       }
     case LongsToCountTable =>
-      val times = generator.declare(typeRef[Int], context.namer.newVarName())
-      val intermediate = generator.declare(typeRef[java.lang.Integer], context.namer.newVarName())
+      val times = generator.declare(typeRef[Long], context.namer.newVarName())
+      val intermediate = generator.declare(typeRef[java.lang.Long], context.namer.newVarName())
       generator.assign(intermediate,
-                       cast(typeRef[Integer],
+                       cast(typeRef[java.lang.Long],
                             invoke(generator.load(tableVar),
                                    countingTableCompositeKeyGet,
                                    invoke(compositeKey,
@@ -519,12 +595,12 @@ case class GeneratedMethodStructure(fields: Fields, generator: CodeBlock, aux: A
       generator.assign(times,
                        ternaryOnNull(
                          intermediate,
-                         constant(-1),
-                         invoke(intermediate, unboxInteger)))
+                         constant(-1L),
+                         invoke(intermediate, unboxLong)))
 
-      using(generator.whileLoop(gt(times, constant(0), typeRef[Int]))) { body =>
+      using(generator.whileLoop(gt(times, constant(0L), typeRef[Long]))) { body =>
         block(copy(generator = body))
-        body.assign(times, subtractInts(times, constant(1)))
+        body.assign(times, subtractLongs(times, constant(1L)))
       }
 
     case tableType@LongToListTable(structure, localVars) =>
@@ -21,7 +21,7 @@ package org.neo4j.cypher.internal.spi.v3_1.codegen
 
 import java.util
 
-import org.neo4j.collection.primitive.{PrimitiveLongIntMap, PrimitiveLongIterator}
+import org.neo4j.collection.primitive.{PrimitiveLongIterator, PrimitiveLongLongMap, PrimitiveLongSet}
 import org.neo4j.cypher.internal.codegen.CompiledConversionUtils.CompositeKey
 import org.neo4j.cypher.internal.codegen._
 import org.neo4j.cypher.internal.compiler.v3_1.codegen.{QueryExecutionEvent, QueryExecutionTracer, ResultRowImpl}
@@ -39,10 +39,18 @@ object Methods {
 
   import GeneratedQueryStructure.{method, typeRef}
 
-  val countingTablePut = method[PrimitiveLongIntMap, Int]("put", typeRef[Long], typeRef[Int])
-  val countingTableCompositeKeyPut = method[util.HashMap[CompositeKey, Integer], Object]("put", typeRef[Object], typeRef[Object])
-  val countingTableGet = method[PrimitiveLongIntMap, Int]("get", typeRef[Long])
-  val countingTableCompositeKeyGet = method[util.HashMap[CompositeKey, Integer], Object]("get", typeRef[Object])
+  val countingTablePut = method[PrimitiveLongLongMap, Long]("put", typeRef[Long], typeRef[Long])
+  val countingTableCompositeKeyPut = method[util.HashMap[CompositeKey, java.lang.Long], Object]("put", typeRef[Object], typeRef[Object])
+  val countingTableGet = method[PrimitiveLongLongMap, Long]("get", typeRef[Long])
+  val countingTableCompositeKeyGet = method[util.HashMap[CompositeKey, java.lang.Long], Object]("get", typeRef[Object])
+  val countingTableIterator = method[PrimitiveLongLongMap, PrimitiveLongIterator]("iterator")
+  val distinctSetAdd = method[PrimitiveLongSet, Boolean]("add", typeRef[Long])
+  val distinctSetCompositeKeyAdd = method[util.HashSet[CompositeKey], Boolean]("add", typeRef[Object])
+  val sortTableSortOn = method[LongRowSortTable, Unit]("sortOn", typeRef[Int], typeRef[Boolean])
+  val sortTableAdd = method[LongRowSortTable, Unit]("add", typeRef[Array[Long]])
+  val sortTableSort = method[LongRowSortTable, Unit]("sort")
+  val sortTableNext = method[LongRowSortTable, Boolean]("next")
+  val sortTableGet = method[LongRowSortTable, Long]("get", typeRef[Int])
   val compositeKey = method[CompiledConversionUtils, CompositeKey]("compositeKey", typeRef[Array[Long]])
   val hasNextLong = method[PrimitiveLongIterator, Boolean]("hasNext")
   val hasMoreRelationship = method[RelationshipIterator, Boolean]("hasNext")
@@ -56,6 +64,7 @@ object Methods {
   val nodeGetRelationships = method[ReadOperations, RelationshipIterator]("nodeGetRelationships", typeRef[Long], typeRef[Direction], typeRef[Array[Int]])
   val allConnectingRelationships = method[CompiledExpandUtils, RelationshipIterator]("connectingRelationships", typeRef[ReadOperations], typeRef[Long], typeRef[Direction], typeRef[Long])
   val connectingRelationships = method[CompiledExpandUtils, RelationshipIterator]("connectingRelationships", typeRef[ReadOperations], typeRef[Long], typeRef[Direction], typeRef[Long], typeRef[Array[Int]])
+  val varLengthExpand = method[CompiledExpandUtils, PrimitiveLongIterator]("varLengthExpand", typeRef[ReadOperations], typeRef[Long], typeRef[Direction], typeRef[Int], typeRef[Int], typeRef[Array[Int]])
   val mathAdd = method[CompiledMathHelper, Object]("add", typeRef[Object], typeRef[Object])
   val mathSub = method[CompiledMathHelper, Object]("subtract", typeRef[Object], typeRef[Object])
   val mathMul = method[CompiledMathHelper, Object]("multiply", typeRef[Object], typeRef[Object])
@@ -24,7 +24,7 @@ import java.util.function.Consumer
 import org.neo4j.codegen.ExpressionTemplate._
 import org.neo4j.codegen.MethodReference._
 import org.neo4j.codegen._
-import org.neo4j.collection.primitive.{Primitive, PrimitiveLongIntMap, PrimitiveLongObjectMap}
+import org.neo4j.collection.primitive.{Primitive, PrimitiveLongLongMap, PrimitiveLongObjectMap, PrimitiveLongSet}
 import org.neo4j.cypher.internal.compiler.v3_1.codegen._
 import org.neo4j.cypher.internal.compiler.v3_1.executionplan._
 import org.neo4j.cypher.internal.compiler.v3_1.planDescription.InternalPlanDescription
@@ -52,7 +52,8 @@ object Templates {
   }
 
   val newLongObjectMap = Expression.invoke(method[Primitive, PrimitiveLongObjectMap[_]]("longObjectMap"))
-  val newCountingMap = Expression.invoke(method[Primitive, PrimitiveLongIntMap]("longIntMap"))
+  val newCountingMap = Expression.invoke(method[Primitive, PrimitiveLongLongMap]("longLongMap"))
+  val newLongSet = Expression.invoke(method[Primitive, PrimitiveLongSet]("longSet"))
 
   def asList[T](values: Seq[Expression])(implicit manifest: Manifest[T]): Expression = Expression.invoke(
     methodReference(typeRef[util.Arrays], typeRef[util.List[T]], "asList", typeRef[Array[Object]]),
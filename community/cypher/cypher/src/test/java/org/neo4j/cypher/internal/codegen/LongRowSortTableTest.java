@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.codegen;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+public class LongRowSortTableTest
+{
+    @Test
+    public void shouldSortOnColumnsInGivenOrder()
+    {
+        // GIVEN
+        LongRowSortTable table = new LongRowSortTable();
+        table.sortOn( 1, false );
+        table.sortOn( 0, true );
+
+        // WHEN
+        table.add( new long[]{1, 20} );
+        table.add( new long[]{2, 10} );
+        table.add( new long[]{3, 20} );
+        table.add( new long[]{4, 10} );
+
+        // THEN
+        assertEquals( asList( 4L, 2L, 3L, 1L ), firstColumn( table ) );
+    }
+
+    @Test
+    public void shouldKeepOnlyFirstRowsUpToLimit()
+    {
+        // GIVEN
+        LongRowSortTable table = new LongRowSortTable( 3 );
+        table.sortOn( 0, true );
+
+        // WHEN
+        for ( long value : new long[]{5, 1, 9, 7, 3, 8, 2} )
+        {
+            table.add( new long[]{value} );
+        }
+
+        // THEN
+        assertEquals( asList( 9L, 8L, 7L ), firstColumn( table ) );
+    }
+
+    @Test
+    public void shouldKeepNoRowsGivenLimitOfZero()
+    {
+        // GIVEN
+        LongRowSortTable table = new LongRowSortTable( 0 );
+        table.sortOn( 0, false );
+
+        // WHEN
+        table.add( new long[]{1} );
+        table.add( new long[]{2} );
+
+        // THEN
+        assertEquals( asList(), firstColumn( table ) );
+    }
+
+    @Test
+    public void shouldKeepAllRowsWhenFewerThanLimit()
+    {
+        // GIVEN
+        LongRowSortTable table = new LongRowSortTable( 10 );
+        table.sortOn( 0, false );
+
+        // WHEN
+        table.add( new long[]{2} );
+        table.add( new long[]{1} );
+
+        // THEN
+        assertEquals( asList( 1L, 2L ), firstColumn( table ) );
+    }
+
+    private List<Long> firstColumn( LongRowSortTable table )
+    {
+        table.sort();
+        List<Long> values = new ArrayList<>();
+        while ( table.next() )
+        {
+            values.add( table.get( 0 ) );
+        }
+        return values;
+    }
+}
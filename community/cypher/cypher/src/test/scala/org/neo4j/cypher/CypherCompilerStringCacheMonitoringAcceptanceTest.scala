@@ -19,6 +19,8 @@
  */
 package org.neo4j.cypher
 
+import java.util.concurrent.{CountDownLatch, TimeUnit}
+
 import org.neo4j.cypher.internal.{StringCacheMonitor, ExecutionEngine}
 import org.neo4j.graphdb.Result
 import org.neo4j.graphdb.config.Setting
@@ -26,12 +28,13 @@ import org.neo4j.graphdb.factory.GraphDatabaseSettings
 import org.neo4j.kernel.api
 import org.neo4j.kernel.impl.core.ThreadToStatementContextBridge
 import org.neo4j.kernel.internal.GraphDatabaseAPI
+import org.neo4j.kernel.monitoring.Monitors
 import org.neo4j.logging.AssertableLogProvider
 import org.neo4j.test.TestGraphDatabaseFactory
 
 import scala.collection.Map
 
-class CypherCompilerStringCacheMonitoringAcceptanceTest extends ExecutionEngineFunSuite {
+class CypherCompilerStringCacheMonitoringAcceptanceTest extends ExecutionEngineFunSuite with RunWithConfigTestSupport {
 
   case class CacheCounts(hits: Int = 0, misses: Int = 0, flushes: Int = 0, evicted: Int = 0) {
     override def toString = s"hits = $hits, misses = $misses, flushes = $flushes, evicted = $evicted"
@@ -135,5 +138,31 @@ class CypherCompilerStringCacheMonitoringAcceptanceTest extends ExecutionEngineF
       AssertableLogProvider.inLog( classOf[ExecutionEngine] ).info( s"Discarded stale query from the query cache: $query" )
     )
   }
-}
 
+  test("should keep using a stale plan while it is replanned in the background") {
+    runWithConfig(GraphDatabaseSettings.cypher_min_replan_interval -> "0",
+                  GraphDatabaseSettings.cypher_max_concurrent_replans -> "1") { db =>
+      // given
+      val query = "match (n:Person:Dog) return n"
+      val key = s"CYPHER 3.1 $query"
+      val replanned = new CountDownLatch(1)
+      val counter = new CacheCounter() {
+        override def cacheMiss(missed: String) = if (missed == key) super.cacheMiss(missed)
+        override def cacheReplanned(replannedKey: String, durationMillis: Long) = if (replannedKey == key) replanned.countDown()
+      }
+      db.asInstanceOf[GraphDatabaseAPI].getDependencyResolver.resolveDependency(classOf[Monitors]).addMonitorListener(counter)
+
+      db.execute("create (:Dog)").close()
+      db.execute("unwind range(1, 50) as i create (:Person)").close()
+      db.execute(query).resultAsString()
+
+      // when
+      db.execute("unwind range(1, 1000) as i create (:Dog)").close()
+      db.execute(query).resultAsString()
+
+      // then
+      replanned.await(10, TimeUnit.SECONDS) should equal(true)
+      counter.counts.misses should equal(1)
+    }
+  }
+}
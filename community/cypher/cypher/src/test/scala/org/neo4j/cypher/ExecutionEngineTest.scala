@@ -115,6 +115,72 @@ with QueryStatisticsTestSupport with CreateTempFileTestSupport with NewPlannerTe
     result.toList should equal(List(Map("n1" -> n1, "n2" -> n2)))
   }
 
+  test("should group and count on nodes") {
+    val n1: Node = createNode()
+    val n2: Node = createNode()
+    val n3: Node = createNode()
+    relate(n1, n3, "KNOWS")
+    relate(n2, n3, "KNOWS")
+    relate(n3, n1, "KNOWS")
+
+    val counts = executeWithAllPlannersAndRuntimesAndCompatibilityMode("match (a)-[:KNOWS]->(b) return b, count(*)")
+    val distinct = executeWithAllPlannersAndRuntimesAndCompatibilityMode("match (a)-[:KNOWS]->(b) return distinct b")
+
+    counts.toSet should equal(Set(Map("b" -> n3, "count(*)" -> 2L), Map("b" -> n1, "count(*)" -> 1L)))
+    distinct.toSet should equal(Set(Map("b" -> n3), Map("b" -> n1)))
+  }
+
+  test("should count without grouping, also when nothing matches") {
+    val n1: Node = createNode()
+    val n2: Node = createNode()
+    val n3: Node = createNode()
+    relate(n1, n3, "KNOWS")
+    relate(n2, n3, "KNOWS")
+    relate(n3, n1, "KNOWS")
+
+    val counts = executeWithAllPlannersAndRuntimesAndCompatibilityMode(
+      "match (a)-[:KNOWS]->(b)-[:KNOWS]->(c) return count(*)")
+    val none = executeWithAllPlannersAndRuntimesAndCompatibilityMode(
+      "match (a:Missing)-[:KNOWS]->(b)-[:KNOWS]->(c) return count(*)")
+
+    counts.toList should equal(List(Map("count(*)" -> 3L)))
+    none.toList should equal(List(Map("count(*)" -> 0L)))
+  }
+
+  test("should sort and limit on counts") {
+    val n1: Node = createNode()
+    val n2: Node = createNode()
+    val n3: Node = createNode()
+    val n4: Node = createNode()
+    relate(n1, n4, "KNOWS")
+    relate(n2, n4, "KNOWS")
+    relate(n3, n4, "KNOWS")
+    relate(n1, n3, "KNOWS")
+    relate(n2, n3, "KNOWS")
+    relate(n1, n2, "KNOWS")
+
+    val sorted = executeWithAllPlannersAndRuntimesAndCompatibilityMode(
+      "match (a)-[:KNOWS]->(b) with b, count(*) as c order by c return b, c")
+    val top = executeWithAllPlannersAndRuntimesAndCompatibilityMode(
+      "match (a)-[:KNOWS]->(b) with b, count(*) as c order by c desc limit 2 return b, c")
+
+    sorted.toList should equal(List(Map("b" -> n2, "c" -> 1L), Map("b" -> n3, "c" -> 2L), Map("b" -> n4, "c" -> 3L)))
+    top.toList should equal(List(Map("b" -> n4, "c" -> 3L), Map("b" -> n3, "c" -> 2L)))
+  }
+
+  test("should expand variable length paths with unique relationships") {
+    val n1: Node = createLabeledNode("Start")
+    val n2: Node = createNode()
+    val n3: Node = createNode()
+    relate(n1, n2, "KNOWS")
+    relate(n2, n3, "KNOWS")
+    relate(n3, n1, "KNOWS")
+
+    val result = executeWithAllPlannersAndRuntimesAndCompatibilityMode("match (a:Start)-[:KNOWS*1..5]->(b) return b")
+
+    result.toList should contain theSameElementsAs List(Map("b" -> n2), Map("b" -> n3), Map("b" -> n1))
+  }
+
   test("executionResultTextualOutput") {
     val n1: Node = createNode()
     val n2: Node = createNode()
@@ -253,7 +319,7 @@ with QueryStatisticsTestSupport with CreateTempFileTestSupport with NewPlannerTe
     relate("B" -> "FRIEND" -> "C")
 
 
-    val result = executeWithAllPlannersAndCompatibilityMode("match (a)-[:CONTAINS*0..1]->(b)-[:FRIEND*0..1]->(c) where id(a) = 0 return a,b,c")
+    val result = executeWithAllPlannersAndRuntimesAndCompatibilityMode("match (a)-[:CONTAINS*0..1]->(b)-[:FRIEND*0..1]->(c) where id(a) = 0 return a,b,c")
 
     result.toSet should equal(
       Set(
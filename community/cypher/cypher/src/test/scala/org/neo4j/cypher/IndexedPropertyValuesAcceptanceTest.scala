@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher
+
+import org.neo4j.graphdb.config.Setting
+import org.neo4j.graphdb.factory.GraphDatabaseSettings
+
+/**
+ * Range seeks on indexes which keep their values hand those values to the query, which then reads them instead of
+ * going to the property store. These tests check that what is read that way is what the store would have said.
+ */
+class IndexedPropertyValuesAcceptanceTest extends ExecutionEngineFunSuite with NewPlannerTestSupport {
+
+  override def databaseConfig(): Map[Setting[_], String] =
+    super.databaseConfig() + (GraphDatabaseSettings.native_schema_index_enabled -> "true")
+
+  test("should return property values found by a range seek as they were stored") {
+    // Given
+    graph.createIndex("Event", "at")
+    createLabeledNode(Map("at" -> 10), "Event")
+    createLabeledNode(Map("at" -> 20L), "Event")
+    createLabeledNode(Map("at" -> 30.0), "Event")
+    createLabeledNode(Map("at" -> "forty"), "Event")
+    for (i <- 1 to 30) createLabeledNode(Map("at" -> -i), "Event")
+
+    // When
+    val result = executeWithCostPlannerOnly("MATCH (e:Event) WHERE e.at > 5 AND e.at <> 20 RETURN e.at AS at ORDER BY at")
+
+    // Then
+    result should use("NodeIndexSeekByRange")
+    result.toList should equal(List(Map("at" -> 10), Map("at" -> 30.0)))
+  }
+
+  test("should see properties written after a range seek found them") {
+    // Given
+    graph.createIndex("Event", "at")
+    createLabeledNode(Map("at" -> "a"), "Event")
+    createLabeledNode(Map("at" -> "b"), "Event")
+    for (i <- 1 to 30) createLabeledNode(Map("at" -> i), "Event")
+
+    // When
+    val result = updateWithBothPlannersAndCompatibilityMode(
+      "MATCH (e:Event) WHERE e.at >= 'a' SET e.at = e.at + '!' RETURN e.at AS at ORDER BY at")
+
+    // Then
+    result.toList should equal(List(Map("at" -> "a!"), Map("at" -> "b!")))
+  }
+}
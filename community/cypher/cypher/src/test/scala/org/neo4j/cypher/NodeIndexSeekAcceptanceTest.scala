@@ -152,6 +152,53 @@ class NodeIndexSeekAcceptanceTest extends ExecutionEngineFunSuite with NewPlanne
     result.executionPlanDescription().toString shouldNot include("Index")
   }
 
+  test("should use composite index for equality on all properties") {
+    // Given
+    graph.createIndex("User", "firstname", "lastname")
+    val n1 = createLabeledNode(Map("firstname" -> "Joe", "lastname" -> "Soap"), "User")
+    createLabeledNode(Map("firstname" -> "Joe", "lastname" -> "Smoke"), "User")
+    createLabeledNode(Map("firstname" -> "Jake", "lastname" -> "Soap"), "User")
+    for (i <- 1 to 30) createLabeledNode(Map("firstname" -> ("Joe" + i), "lastname" -> "Soap"), "User")
+
+    // When
+    val result = executeWithCostPlannerOnly("MATCH (n:User) WHERE n.firstname = 'Joe' AND n.lastname = 'Soap' RETURN n")
+
+    // Then
+    result should (use("NodeIndexCompositeSeek") and evaluateTo(List(Map("n" -> n1))))
+  }
+
+  test("should use composite index for equality on the first property and a range on the second") {
+    // Given
+    graph.createIndex("User", "name", "age")
+    val n1 = createLabeledNode(Map("name" -> "Joe", "age" -> 40), "User")
+    val n2 = createLabeledNode(Map("name" -> "Joe", "age" -> 50), "User")
+    createLabeledNode(Map("name" -> "Joe", "age" -> 20), "User")
+    createLabeledNode(Map("name" -> "Jake", "age" -> 40), "User")
+    for (i <- 1 to 30) createLabeledNode(Map("name" -> ("Joe" + i), "age" -> 40), "User")
+
+    // When
+    val result = executeWithCostPlannerOnly("MATCH (n:User) WHERE n.name = 'Joe' AND n.age >= 40 RETURN n")
+
+    // Then
+    result should (use("NodeIndexCompositeSeek") and evaluateTo(List(Map("n" -> n1), Map("n" -> n2))))
+  }
+
+  test("should return range seek results in index order without sorting") {
+    // Given
+    graph.createIndex("Event", "at")
+    for (i <- 1 to 100) createLabeledNode(Map("at" -> (i * 37 % 101)), "Event")
+
+    // When
+    val ascending = executeWithCostPlannerOnly("MATCH (e:Event) WHERE e.at > 10 RETURN e.at AS at ORDER BY at LIMIT 5")
+    val descending = executeWithCostPlannerOnly("MATCH (e:Event) WHERE e.at > 10 RETURN e.at AS at ORDER BY at DESC LIMIT 5")
+
+    // Then
+    ascending should (use("NodeIndexSeekByRange") and not(use("Top")))
+    ascending.toList should equal((11 to 15).map(i => Map("at" -> i)).toList)
+    descending should (use("NodeIndexSeekByRange") and not(use("Top")))
+    descending.toList should equal((100 to 96 by -1).map(i => Map("at" -> i)).toList)
+  }
+
   private def setUpDatabaseForTests() {
     updateWithBothPlannersAndCompatibilityMode(
       """CREATE (architect:Matrix { name:'The Architect' }),
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher
+
+import org.neo4j.cypher.internal.frontend.v3_1.notification.RuntimeUnsupportedNotification
+
+class ParallelRuntimeAcceptanceTest extends ExecutionEngineFunSuite with NewPlannerTestSupport {
+
+  test("should count nodes with label in parallel") {
+    (1 to 50).foreach(i => createLabeledNode(Map("prop" -> i), "A"))
+    (1 to 20).foreach(i => createLabeledNode("A"))
+    (1 to 20).foreach(i => createLabeledNode(Map("prop" -> i), "B"))
+
+    val result = innerExecute("CYPHER runtime=parallel MATCH (n:A) WHERE exists(n.prop) RETURN count(*)")
+
+    result should use("ParallelAggregation")
+    result.toList should equal(List(Map("count(*)" -> 50)))
+  }
+
+  test("should count nodes matching predicates over all nodes in parallel") {
+    (1 to 30).foreach(i => createLabeledNode(Map("prop" -> (i % 3)), "A", "B"))
+    (1 to 30).foreach(i => createLabeledNode(Map("prop" -> (i % 3)), "A"))
+    (1 to 10).foreach(i => createNode())
+
+    val result = innerExecute("CYPHER runtime=parallel MATCH (n:A:B) WHERE n.prop = {value} RETURN count(n), count(n.prop)",
+                              "value" -> 1)
+
+    result should use("ParallelAggregation")
+    result.toList should equal(List(Map("count(n)" -> 10, "count(n.prop)" -> 10)))
+  }
+
+  test("should count property values in parallel") {
+    (1 to 40).foreach(i => createNode(Map("prop" -> i)))
+    (1 to 15).foreach(i => createNode())
+
+    val result = innerExecute("CYPHER runtime=parallel MATCH (n) RETURN count(*), count(n.prop)")
+
+    result should use("ParallelAggregation")
+    result.toList should equal(List(Map("count(*)" -> 55, "count(n.prop)" -> 40)))
+  }
+
+  test("should count nodes found by an index scan in parallel") {
+    (1 to 100).foreach(i => createLabeledNode(Map("prop" -> i), "A"))
+    (1 to 100).foreach(i => createLabeledNode("A"))
+    graph.createIndex("A", "prop")
+
+    val result = innerExecute("CYPHER runtime=parallel MATCH (n:A) WHERE exists(n.prop) RETURN count(*)")
+
+    result should use("ParallelAggregation")
+    result.toList should equal(List(Map("count(*)" -> 100)))
+  }
+
+  test("should see changes made in the current transaction") {
+    (1 to 10).foreach(i => createLabeledNode(Map("prop" -> i), "A"))
+
+    val count = graph.inTx {
+      createLabeledNode(Map("prop" -> 11), "A")
+      innerExecute("CYPHER runtime=parallel MATCH (n:A) WHERE exists(n.prop) RETURN count(*)").columnAs[Long]("count(*)").next()
+    }
+
+    count should equal(11)
+  }
+
+  test("should fall back to the interpreted runtime for queries it cannot run in parallel") {
+    val result = innerExecute("EXPLAIN CYPHER runtime=parallel MATCH (n:A) RETURN n.prop, count(*)")
+
+    result.notifications should contain(RuntimeUnsupportedNotification)
+    result should not(use("ParallelAggregation"))
+  }
+}
@@ -20,11 +20,14 @@
 package org.neo4j.cypher
 
 import org.neo4j.cypher.internal.StringCacheMonitor
+import org.neo4j.cypher.internal.compiler.v3_1.CompilationPhaseTracer.CompilationPhase
 import org.neo4j.cypher.internal.frontend.v3_1.test_helpers.CypherFunSuite
+import org.neo4j.cypher.internal.tracing.TimingCompilationTracer
 import org.neo4j.graphdb.Label
 import org.neo4j.kernel.api.Statement
 import org.scalatest.prop.TableDrivenPropertyChecks
 
+import scala.collection.JavaConverters._
 import scala.collection.mutable
 
 class QueryCachingTest extends CypherFunSuite with GraphDatabaseTestSupport with TableDrivenPropertyChecks {
@@ -75,6 +78,63 @@ class QueryCachingTest extends CypherFunSuite with GraphDatabaseTestSupport with
     }
   }
 
+  test("re-uses cached plan for queries that only differ in literals") {
+    graph.inTx {
+      graph.createNode(Label.label("Person")).setProperty("name", "Alice")
+      graph.createNode(Label.label("Person")).setProperty("name", "Bob")
+    }
+
+    val cacheListener = new LoggingStringCacheListener
+    kernelMonitors.addMonitorListener(cacheListener)
+    graph.inTx { statement.readOperations().schemaStateFlush() }
+    cacheListener.clear()
+
+    val alice = graph.execute("MATCH (n:Person) WHERE n.name = 'Alice' RETURN n.name AS name, 1 AS x").resultAsString()
+    val bob = graph.execute("MATCH (n:Person) WHERE n.name = 'Bob' RETURN n.name AS name, 42 AS x").resultAsString()
+
+    alice should (include("Alice") and not include "Bob")
+    bob should (include("Bob") and include("42") and not include "Alice")
+
+    val actual = cacheListener.trace.map(_.takeWhile(_ != ':'))
+    actual should equal(List("cacheFlushDetected", "cacheMiss", "cacheHit", "cacheHit"))
+  }
+
+  test("does not share cached plans between queries that differ in more than literals") {
+    graph.inTx { graph.createNode(Label.label("Person")).setProperty("name", "Alice") }
+
+    val cacheListener = new LoggingStringCacheListener
+    kernelMonitors.addMonitorListener(cacheListener)
+    graph.inTx { statement.readOperations().schemaStateFlush() }
+    cacheListener.clear()
+
+    graph.execute("MATCH (n:Person) WHERE n.name = 'Alice' RETURN n").resultAsString()
+    graph.execute("MATCH (n:Person) WHERE n.title = 'Alice' RETURN n").resultAsString()
+    graph.execute("MATCH (n:Person) WHERE n.name = 42 RETURN n").resultAsString()
+
+    val actual = cacheListener.trace.map(_.takeWhile(_ != ':'))
+    actual should equal(List("cacheFlushDetected", "cacheMiss", "cacheHit", "cacheMiss", "cacheHit", "cacheMiss", "cacheHit"))
+  }
+
+  test("does not parse a query again when its cached plan can be used") {
+    graph.inTx { graph.createNode(Label.label("Person")).setProperty("name", "Alice") }
+
+    val compiled = mutable.ListBuffer[TimingCompilationTracer.QueryEvent]()
+    kernelMonitors.addMonitorListener(new TimingCompilationTracer.EventListener {
+      override def queryCompiled(event: TimingCompilationTracer.QueryEvent) = compiled += event
+    })
+    val query = "MATCH (n:Person) WHERE n.name = 'Alice' RETURN n"
+
+    graph.execute(query).resultAsString()
+    graph.execute(query).resultAsString()
+    graph.execute("MATCH (n:Person) WHERE n.name = 'Bob' RETURN n").resultAsString()
+
+    val phases = compiled.map(_.phases().asScala.map(_.phase()))
+    phases.head should contain(CompilationPhase.PARSING)
+    phases(1) shouldBe empty
+    phases(2) should contain(CompilationPhase.PARSING)
+    phases(2) should not contain CompilationPhase.LOGICAL_PLANNING
+  }
+
   private class LoggingStringCacheListener extends StringCacheMonitor {
     private var log: mutable.Builder[String, List[String]] = List.newBuilder
 
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal
+
+import java.util.concurrent.RejectedExecutionException
+
+import org.mockito.Matchers._
+import org.mockito.Mockito._
+import org.neo4j.cypher.internal.compiler.v3_1.QueryCache
+import org.neo4j.cypher.internal.frontend.v3_1.test_helpers.CypherFunSuite
+import org.neo4j.graphdb.DependencyResolver
+import org.neo4j.kernel.GraphDatabaseQueryService
+import org.neo4j.kernel.impl.util.JobScheduler
+import org.neo4j.logging.NullLog
+
+class BackgroundReplannerTest extends CypherFunSuite {
+
+  private val cache = mock[QueryCache[String, (ExecutionPlan, Map[String, Any])]]
+
+  private def replannerOn(scheduler: JobScheduler) = {
+    val resolver = mock[DependencyResolver]
+    when(resolver.resolveDependency(classOf[JobScheduler])).thenReturn(scheduler)
+    val queryService = mock[GraphDatabaseQueryService]
+    when(queryService.getDependencyResolver).thenReturn(resolver)
+    new BackgroundReplanner(queryService, 1, mock[StringCacheMonitor], NullLog.getInstance())
+  }
+
+  test("should replan in the foreground when all replans are taken") {
+    val scheduler = mock[JobScheduler]
+    val replanner = replannerOn(scheduler)
+
+    replanner.replanInBackground(cache, "first", "first", mock[ParsedQuery]) should equal(true)
+    replanner.replanInBackground(cache, "first", "first", mock[ParsedQuery]) should equal(true)
+    replanner.replanInBackground(cache, "second", "second", mock[ParsedQuery]) should equal(false)
+
+    verify(scheduler, times(1)).schedule(any(classOf[JobScheduler.Group]), any(classOf[Runnable]))
+  }
+
+  test("should leave stale plans as they are once the scheduler has stopped") {
+    val scheduler = mock[JobScheduler]
+    val replanner = replannerOn(scheduler)
+    when(scheduler.schedule(any(classOf[JobScheduler.Group]), any(classOf[Runnable])))
+      .thenThrow(new RejectedExecutionException("Scheduler is not started"))
+
+    replanner.replanInBackground(cache, "first", "first", mock[ParsedQuery]) should equal(true)
+    replanner.replanInBackground(cache, "second", "second", mock[ParsedQuery]) should equal(true)
+
+    verify(scheduler, times(2)).schedule(any(classOf[JobScheduler.Group]), any(classOf[Runnable]))
+    verifyZeroInteractions(cache)
+  }
+}
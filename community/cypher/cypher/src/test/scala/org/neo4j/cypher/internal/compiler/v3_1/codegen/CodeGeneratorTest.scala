@@ -26,8 +26,10 @@ import org.mockito.stubbing.Answer
 import org.neo4j.collection.primitive.PrimitiveLongIterator
 import org.neo4j.cypher.internal.compiler.v3_1.executionplan.ExecutionPlanBuilder.tracer
 import org.neo4j.cypher.internal.compiler.v3_1.executionplan.InternalExecutionResult
-import org.neo4j.cypher.internal.compiler.v3_1.planner.LogicalPlanningTestSupport
+import org.neo4j.cypher.internal.compiler.v3_1.planner.{CantCompileQueryException, LogicalPlanningTestSupport}
+import org.neo4j.cypher.internal.compiler.v3_1.planner.logical.plans
 import org.neo4j.cypher.internal.compiler.v3_1.planner.logical.plans._
+import org.neo4j.cypher.internal.compiler.v3_1.planner.logical.{Ascending, Descending}
 import org.neo4j.cypher.internal.compiler.v3_1.spi.{InternalResultRow, InternalResultVisitor, QueryContext}
 import org.neo4j.cypher.internal.compiler.v3_1.{CostBasedPlannerName, NormalMode, TaskCloser}
 import org.neo4j.cypher.internal.frontend.v3_1.ast._
@@ -563,6 +565,242 @@ class CodeGeneratorTest extends CypherFunSuite with LogicalPlanningTestSupport {
     ))
   }
 
+  test("label scan + var length expand outgoing") { // MATCH (a:T3)-[r*1..3]->(b) RETURN a, b
+    //given
+    val plan = ProduceResult(List("a", "b"),
+        VarExpand(
+          NodeByLabelScan(IdName("a"), lblName("T3"), Set.empty)(solved), IdName("a"), SemanticDirection.OUTGOING,
+          SemanticDirection.OUTGOING, Seq.empty, IdName("b"), IdName("r"), VarPatternLength(1, Some(3)))(solved))
+
+    //when
+    val compiled = compileAndExecute(plan)
+
+    //then relationships are never traversed twice in the same path
+    val result = getNodesFromResult(compiled, "a", "b")
+    result.toSet should equal(Set(
+      Map("a" -> hNode, "b" -> iNode),
+      Map("a" -> hNode, "b" -> hNode),
+      Map("a" -> iNode, "b" -> hNode),
+      Map("a" -> iNode, "b" -> iNode)
+    ))
+    result should have size 4
+  }
+
+  test("label scan + var length expand both directions with type and fixed length") { // MATCH (a:T1)-[r:R1*2]-(b) RETURN a, b
+    //given
+    val plan = ProduceResult(List("a", "b"),
+        VarExpand(
+          NodeByLabelScan(IdName("a"), lblName("T1"), Set.empty)(solved), IdName("a"), SemanticDirection.BOTH,
+          SemanticDirection.BOTH, Seq(RelTypeName("R1")(null)), IdName("b"), IdName("r"), VarPatternLength(2, Some(2)))(solved))
+
+    //when
+    val compiled = compileAndExecute(plan)
+
+    //then
+    val result = getNodesFromResult(compiled, "a", "b")
+    result.toSet should equal(Set(
+      Map("a" -> aNode, "b" -> bNode),
+      Map("a" -> bNode, "b" -> aNode)
+    ))
+    result should have size 2
+  }
+
+  test("var length expand returning the relationships is not compiled") { // MATCH (a:T3)-[r*]->(b) RETURN a, r
+    //given
+    val plan = ProduceResult(List("a", "r"),
+        VarExpand(
+          NodeByLabelScan(IdName("a"), lblName("T3"), Set.empty)(solved), IdName("a"), SemanticDirection.OUTGOING,
+          SemanticDirection.OUTGOING, Seq.empty, IdName("b"), IdName("r"), VarPatternLength(1, None))(solved))
+
+    //then
+    a [CantCompileQueryException] should be thrownBy compile(plan)
+  }
+
+  test("distinct on expand target") { // MATCH (a)-[r]->(b) RETURN DISTINCT b
+    //given
+    val expand = Expand(AllNodesScan(IdName("a"), Set.empty)(solved), IdName("a"),
+                        SemanticDirection.OUTGOING, Seq.empty, IdName("b"), IdName("r"), ExpandAll)(solved)
+    val plan = ProduceResult(List("b"), Aggregation(expand, Map("b" -> varFor("b")), Map.empty)(solved))
+
+    //when
+    val compiled = compileAndExecute(plan)
+
+    //then
+    val result = getNodesFromResult(compiled, "b")
+    result should equal(List(
+      Map("b" -> dNode),
+      Map("b" -> eNode),
+      Map("b" -> iNode),
+      Map("b" -> hNode)
+    ))
+  }
+
+  test("distinct on multiple nodes") { // MATCH (a)-[r]-(b) RETURN DISTINCT a, b, h and i are connected twice
+    //given
+    val expand = Expand(AllNodesScan(IdName("a"), Set.empty)(solved), IdName("a"),
+                        SemanticDirection.BOTH, Seq.empty, IdName("b"), IdName("r"), ExpandAll)(solved)
+    val plan = ProduceResult(List("a", "b"),
+                             Aggregation(expand, Map("a" -> varFor("a"), "b" -> varFor("b")), Map.empty)(solved))
+
+    //when
+    val compiled = compileAndExecute(plan)
+
+    //then
+    val result = getNodesFromResult(compiled, "a", "b")
+    result.size should equal(result.toSet.size)
+    result.toSet should equal(Set(
+      Map("a" -> aNode, "b" -> dNode), Map("a" -> dNode, "b" -> aNode),
+      Map("a" -> bNode, "b" -> dNode), Map("a" -> dNode, "b" -> bNode),
+      Map("a" -> cNode, "b" -> eNode), Map("a" -> eNode, "b" -> cNode),
+      Map("a" -> fNode, "b" -> dNode), Map("a" -> dNode, "b" -> fNode),
+      Map("a" -> gNode, "b" -> eNode), Map("a" -> eNode, "b" -> gNode),
+      Map("a" -> hNode, "b" -> iNode), Map("a" -> iNode, "b" -> hNode)
+    ))
+  }
+
+  test("count grouped by expand target") { // MATCH (a)-[r]->(b) RETURN b, count(*)
+    //given
+    val expand = Expand(AllNodesScan(IdName("a"), Set.empty)(solved), IdName("a"),
+                        SemanticDirection.OUTGOING, Seq.empty, IdName("b"), IdName("r"), ExpandAll)(solved)
+    val aggregation = Aggregation(expand, Map("b" -> varFor("b")),
+                                  Map("count(*)" -> CountStar()(pos), "count(a)" -> countFor(varFor("a"))))(solved)
+    val plan = ProduceResult(List("b", "count(*)", "count(a)"), aggregation)
+
+    //when
+    val compiled = compileAndExecute(plan)
+
+    //then
+    val result = getResult(compiled, "b", "count(*)", "count(a)")
+    result.toSet should equal(Set(
+      Map("b" -> dNode, "count(*)" -> 3L, "count(a)" -> 3L),
+      Map("b" -> eNode, "count(*)" -> 2L, "count(a)" -> 2L),
+      Map("b" -> hNode, "count(*)" -> 1L, "count(a)" -> 1L),
+      Map("b" -> iNode, "count(*)" -> 1L, "count(a)" -> 1L)
+    ))
+  }
+
+  test("count grouped by nullable node is not compiled") { // MATCH (a:T1) OPTIONAL MATCH (a)<-[r]-(b) RETURN b, count(*)
+    //given
+    val optionalExpand = OptionalExpand(NodeByLabelScan(IdName("a"), lblName("T1"), Set.empty)(solved), IdName("a"),
+                                        SemanticDirection.INCOMING, Seq.empty, IdName("b"), IdName("r"), ExpandAll)(solved)
+    val aggregation = Aggregation(optionalExpand, Map("b" -> varFor("b")), Map("count(*)" -> CountStar()(pos)))(solved)
+    val plan = ProduceResult(List("b", "count(*)"), aggregation)
+
+    //then
+    a [CantCompileQueryException] should be thrownBy compile(plan)
+  }
+
+  test("count without grouping") { // MATCH (a)-[r]->(b) RETURN count(*), count(a)
+    //given
+    val expand = Expand(AllNodesScan(IdName("a"), Set.empty)(solved), IdName("a"),
+                        SemanticDirection.OUTGOING, Seq.empty, IdName("b"), IdName("r"), ExpandAll)(solved)
+    val aggregation = Aggregation(expand, Map.empty,
+                                  Map("count(*)" -> CountStar()(pos), "count(a)" -> countFor(varFor("a"))))(solved)
+    val plan = ProduceResult(List("count(*)", "count(a)"), aggregation)
+
+    //when
+    val compiled = compileAndExecute(plan)
+
+    //then
+    getResult(compiled, "count(*)", "count(a)") should equal(List(Map("count(*)" -> 7L, "count(a)" -> 7L)))
+  }
+
+  test("count without grouping over no rows") { // MATCH (a:T1) WHERE a:T2 RETURN count(*)
+    //given
+    val selection = Selection(Seq(HasLabels(varFor("a"), Seq(LabelName("T2")(pos)))(pos)),
+                              NodeByLabelScan(IdName("a"), lblName("T1"), Set.empty)(solved))(solved)
+    val aggregation = Aggregation(selection, Map.empty, Map("count(*)" -> CountStar()(pos)))(solved)
+    val plan = ProduceResult(List("count(*)"), aggregation)
+
+    //when
+    val compiled = compileAndExecute(plan)
+
+    //then
+    getResult(compiled, "count(*)") should equal(List(Map("count(*)" -> 0L)))
+  }
+
+  test("count without grouping over a limit is not compiled") { // MATCH (a) WITH a LIMIT 2 RETURN count(*)
+    //given
+    val limit = plans.Limit(AllNodesScan(IdName("a"), Set.empty)(solved), SignedDecimalIntegerLiteral("2")(pos),
+                      DoNotIncludeTies)(solved)
+    val aggregation = Aggregation(limit, Map.empty, Map("count(*)" -> CountStar()(pos)))(solved)
+    val plan = ProduceResult(List("count(*)"), aggregation)
+
+    //then
+    a [CantCompileQueryException] should be thrownBy compile(plan)
+  }
+
+  test("count grouped over a limit is not compiled") { // MATCH (a)-[r]->(b) WITH a, b LIMIT 2 RETURN b, count(*)
+    //given
+    val expand = Expand(AllNodesScan(IdName("a"), Set.empty)(solved), IdName("a"),
+                        SemanticDirection.OUTGOING, Seq.empty, IdName("b"), IdName("r"), ExpandAll)(solved)
+    val limit = plans.Limit(expand, SignedDecimalIntegerLiteral("2")(pos), DoNotIncludeTies)(solved)
+    val aggregation = Aggregation(limit, Map("b" -> varFor("b")), Map("count(*)" -> CountStar()(pos)))(solved)
+    val plan = ProduceResult(List("b", "count(*)"), aggregation)
+
+    //then
+    a [CantCompileQueryException] should be thrownBy compile(plan)
+  }
+
+  test("sort on counts") { // MATCH (a)-[r]->(b) RETURN b, count(*) ORDER BY count(*) DESC
+    //given
+    val expand = Expand(AllNodesScan(IdName("a"), Set.empty)(solved), IdName("a"),
+                        SemanticDirection.OUTGOING, Seq.empty, IdName("b"), IdName("r"), ExpandAll)(solved)
+    val aggregation = Aggregation(expand, Map("b" -> varFor("b")), Map("count(*)" -> CountStar()(pos)))(solved)
+    val sort = Sort(aggregation, Seq(Descending(IdName("count(*)"))))(solved)
+    val plan = ProduceResult(List("b", "count(*)"), sort)
+
+    //when
+    val compiled = compileAndExecute(plan)
+
+    //then
+    getResult(compiled, "b", "count(*)").map(_("count(*)")) should equal(List(3L, 2L, 1L, 1L))
+  }
+
+  test("top on counts") { // MATCH (a)-[r]->(b) RETURN b, count(*) ORDER BY count(*) DESC LIMIT 2
+    //given
+    val expand = Expand(AllNodesScan(IdName("a"), Set.empty)(solved), IdName("a"),
+                        SemanticDirection.OUTGOING, Seq.empty, IdName("b"), IdName("r"), ExpandAll)(solved)
+    val aggregation = Aggregation(expand, Map("b" -> varFor("b")), Map("count(*)" -> CountStar()(pos)))(solved)
+    val sort = Sort(aggregation, Seq(Descending(IdName("count(*)"))))(solved)
+    val top = plans.Limit(sort, SignedDecimalIntegerLiteral("2")(pos), DoNotIncludeTies)(solved)
+    val plan = ProduceResult(List("b", "count(*)"), top)
+
+    //when
+    val compiled = compileAndExecute(plan)
+
+    //then
+    getResult(compiled, "b", "count(*)") should equal(List(
+      Map("b" -> dNode, "count(*)" -> 3L),
+      Map("b" -> eNode, "count(*)" -> 2L)
+    ))
+  }
+
+  test("top with limit zero") { // MATCH (a)-[r]->(b) RETURN b, count(*) ORDER BY count(*) LIMIT 0
+    //given
+    val expand = Expand(AllNodesScan(IdName("a"), Set.empty)(solved), IdName("a"),
+                        SemanticDirection.OUTGOING, Seq.empty, IdName("b"), IdName("r"), ExpandAll)(solved)
+    val aggregation = Aggregation(expand, Map("b" -> varFor("b")), Map("count(*)" -> CountStar()(pos)))(solved)
+    val sort = Sort(aggregation, Seq(Ascending(IdName("count(*)"))))(solved)
+    val top = plans.Limit(sort, SignedDecimalIntegerLiteral("0")(pos), DoNotIncludeTies)(solved)
+    val plan = ProduceResult(List("b", "count(*)"), top)
+
+    //when
+    val compiled = compileAndExecute(plan)
+
+    //then
+    getResult(compiled, "b", "count(*)") shouldBe empty
+  }
+
+  test("sort on nodes is not compiled") { // MATCH (a) RETURN a ORDER BY a
+    //given
+    val sort = Sort(AllNodesScan(IdName("a"), Set.empty)(solved), Seq(Ascending(IdName("a"))))(solved)
+    val plan = ProduceResult(List("a"), sort)
+
+    //then
+    a [CantCompileQueryException] should be thrownBy compile(plan)
+  }
+
   test("project literal") {
     val plan = ProduceResult(List("a"), Projection(SingleRow()(solved), Map("a" -> SignedDecimalIntegerLiteral("1")(pos)))(solved))
     val compiled = compileAndExecute(plan)
@@ -888,6 +1126,9 @@ class CodeGeneratorTest extends CypherFunSuite with LogicalPlanningTestSupport {
     result.toSet should equal(Set(Map(name -> 1)))
   }
 
+  private def countFor(expression: Expression) =
+    FunctionInvocation(FunctionName("count")(pos), distinct = false, IndexedSeq(expression))(pos)
+
   private def compile(plan: LogicalPlan) = {
     generator.generate(plan, newMockedPlanContext, semanticTable, CostBasedPlannerName.default)
   }
@@ -79,9 +79,9 @@ trait GraphIcing {
       }
     }
 
-    def createIndex(label: String, property: String) = {
+    def createIndex(label: String, properties: String*) = {
       val indexDef = inTx {
-        graph.schema().indexFor(Label.label(label)).on(property).create()
+        properties.foldLeft(graph.schema().indexFor(Label.label(label)))(_ on _).create()
       }
 
       inTx {
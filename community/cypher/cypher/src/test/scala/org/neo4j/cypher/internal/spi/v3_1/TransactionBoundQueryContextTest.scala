@@ -20,10 +20,13 @@
 package org.neo4j.cypher.internal.spi.v3_1
 
 import java.net.URL
+import java.util.concurrent.TimeUnit
 
 import org.mockito.Mockito._
 import org.neo4j.cypher.internal.compiler.v3_1.helpers.DynamicIterable
-import org.neo4j.cypher.internal.frontend.v3_1.SemanticDirection
+import org.neo4j.cypher.internal.compiler.v3_1.RangeGreaterThan
+import org.neo4j.cypher.internal.frontend.v3_1.helpers.NonEmptyList
+import org.neo4j.cypher.internal.frontend.v3_1.{InclusiveBound, SemanticDirection}
 import org.neo4j.cypher.internal.frontend.v3_1.test_helpers.CypherFunSuite
 import org.neo4j.cypher.internal.spi.TransactionalContextWrapperv3_1
 import org.neo4j.cypher.internal.spi.v3_1.TransactionBoundQueryContext.IndexSearchMonitor
@@ -32,6 +35,7 @@ import org.neo4j.graphdb._
 import org.neo4j.graphdb.config.Setting
 import org.neo4j.graphdb.factory.GraphDatabaseSettings
 import org.neo4j.kernel.api._
+import org.neo4j.kernel.api.index.IndexDescriptor
 import org.neo4j.kernel.api.security.AccessMode
 import org.neo4j.kernel.impl.api.{KernelStatement, KernelTransactionImplementation}
 import org.neo4j.kernel.impl.core.ThreadToStatementContextBridge
@@ -154,6 +158,96 @@ class TransactionBoundQueryContextTest extends CypherFunSuite {
     tx.close()
   }
 
+  test("should read properties found by index seeks from the index until they are written") {
+    // GIVEN
+    graph.getGraphDatabaseService.shutdown()
+    val config = Map[Setting[_], String](GraphDatabaseSettings.native_schema_index_enabled -> "true")
+    graph = new GraphDatabaseCypherService(new TestGraphDatabaseFactory().newImpermanentDatabase(config.asJava))
+    val node = createIndexedNodes("Event", "at", 42, 7).head
+    val tx = graph.beginTransaction(KernelTransaction.Type.explicit, AccessMode.Static.WRITE)
+    val stmt = graph.getDependencyResolver.resolveDependency(classOf[ThreadToStatementContextBridge]).get()
+    val transactionalContext = new TransactionalContextWrapperv3_1(new Neo4jTransactionalContext(graph, outerTx, stmt, locker))
+    val context = new TransactionBoundQueryContext(transactionalContext)(indexSearchMonitor)
+    val propertyKeyId = context.getPropertyKeyId("at")
+    val index = new IndexDescriptor(context.getLabelId("Event"), propertyKeyId)
+
+    // WHEN
+    val found = context.indexSeekByRange(index, RangeGreaterThan(NonEmptyList(InclusiveBound(10)))).toList
+
+    // THEN
+    found should equal(List(node))
+    context.nodeOps.getProperty(node.getId, propertyKeyId) should equal(42)
+    context.nodeOps.hasProperty(node.getId, propertyKeyId) should equal(true)
+
+    // WHEN
+    context.nodeOps.setProperty(node.getId, propertyKeyId, 43L)
+
+    // THEN
+    context.nodeOps.getProperty(node.getId, propertyKeyId) should equal(43L)
+
+    // WHEN
+    context.nodeOps.removeProperty(node.getId, propertyKeyId)
+
+    // THEN
+    context.nodeOps.hasProperty(node.getId, propertyKeyId) should equal(false)
+
+    tx.failure()
+    tx.close()
+  }
+
+  test("should not read properties found by index seeks from the index after data is changed through the Core API") {
+    // GIVEN
+    graph.getGraphDatabaseService.shutdown()
+    val config = Map[Setting[_], String](GraphDatabaseSettings.native_schema_index_enabled -> "true")
+    graph = new GraphDatabaseCypherService(new TestGraphDatabaseFactory().newImpermanentDatabase(config.asJava))
+    val nodes = createIndexedNodes("Event", "at", 42, 43)
+    val tx = graph.beginTransaction(KernelTransaction.Type.explicit, AccessMode.Static.WRITE)
+    val stmt = graph.getDependencyResolver.resolveDependency(classOf[ThreadToStatementContextBridge]).get()
+    val transactionalContext = new TransactionalContextWrapperv3_1(new Neo4jTransactionalContext(graph, outerTx, stmt, locker))
+    val context = new TransactionBoundQueryContext(transactionalContext)(indexSearchMonitor)
+    val propertyKeyId = context.getPropertyKeyId("at")
+    val index = new IndexDescriptor(context.getLabelId("Event"), propertyKeyId)
+    val found = context.indexSeekByRange(index, RangeGreaterThan(NonEmptyList(InclusiveBound(10)))).toList
+    found.toSet should equal(nodes.toSet)
+
+    // WHEN
+    nodes.head.setProperty("at", 44L)
+    nodes(1).removeProperty("at")
+
+    // THEN
+    context.nodeOps.getProperty(nodes.head.getId, propertyKeyId) should equal(44L)
+    context.nodeOps.hasProperty(nodes(1).getId, propertyKeyId) should equal(false)
+
+    tx.failure()
+    tx.close()
+  }
+
+  private def createIndexedNodes(label: String, property: String, values: Any*): Seq[Node] = {
+    val db = graph.getGraphDatabaseService
+    val schemaTx = db.beginTx()
+    try {
+      db.schema().indexFor(Label.label(label)).on(property).create()
+      schemaTx.success()
+    }
+    finally {
+      schemaTx.close()
+    }
+    val tx = db.beginTx()
+    try {
+      val nodes = values.map { value =>
+        val node = db.createNode(Label.label(label))
+        node.setProperty(property, value)
+        node
+      }
+      db.schema().awaitIndexesOnline(1, TimeUnit.MINUTES)
+      tx.success()
+      nodes
+    }
+    finally {
+      tx.close()
+    }
+  }
+
   private def createMiniGraph(relTypeName: String): Node = {
     val relType = RelationshipType.withName(relTypeName)
     val tx = graph.beginTransaction(KernelTransaction.Type.explicit, AccessMode.Static.WRITE)
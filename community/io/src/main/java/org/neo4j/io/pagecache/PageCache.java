@@ -23,6 +23,7 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.OpenOption;
 import java.nio.file.StandardOpenOption;
+import java.util.List;
 
 /**
  * A page caching mechanism that allows caching multiple files and accessing their data
@@ -61,6 +62,18 @@ public interface PageCache extends AutoCloseable
      */
     PagedFile map( File file, int pageSize, OpenOption... openOptions ) throws IOException;
 
+    /**
+     * List a snapshot of the current file mappings.
+     * <p>
+     * The mappings can change as soon as this method returns. However, the returned {@link PagedFile} instances will
+     * remain valid, since they each hold their own reference to their mapping, just like with {@link #map}. It is
+     * therefore important that the caller {@link PagedFile#close() closes} all of the returned paged files.
+     *
+     * @return A list of {@link PagedFile} instances, one for each file currently mapped by this page cache.
+     * @throws IOException if the mappings could not be listed.
+     */
+    List<PagedFile> listExistingMappings() throws IOException;
+
     /** Flush all dirty pages */
     void flushAndForce() throws IOException;
 
@@ -20,6 +20,7 @@
 package org.neo4j.io.pagecache;
 
 import java.io.File;
+import java.io.Flushable;
 import java.io.IOException;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
@@ -58,17 +59,33 @@ public interface PagedFile extends AutoCloseable
     int PF_NO_GROW = 1 << 2;
     /**
      * Read-ahead hint for sequential forward scanning.
+     * <p>
+     * Read cursors opened with this flag will asynchronously fault in the pages ahead of them, using vectored reads,
+     * so that a forward scan does not have to wait for the page faults one page at a time. The flag is ignored by
+     * write cursors.
      */
-    int PF_READ_AHEAD = 1 << 3; // TBD
+    int PF_READ_AHEAD = 1 << 3;
     /**
-     * Do not load in the page if it is not loaded already. Only useful with
-     * exclusive locking when you want to overwrite the whole page anyway.
+     * Do not load in the page if it is not loaded already.
+     * <p>
+     * The {@link PageCursor#next()} and {@link PageCursor#next(long)} methods will still return {@code true} for pages
+     * that are within the range of the file, but if the page is not in memory, then the cursor will not be bound to
+     * it, and {@link PageCursor#getCurrentPageId()} will instead return {@link PageCursor#UNBOUND_PAGE_ID} to report
+     * the miss. Any access to the contents of a cursor that missed will raise the out-of-bounds flag, just like for
+     * any other unbound cursor. This way, speculative look-ups can avoid polluting the cache with pages that will not
+     * be used again.
+     * <p>
+     * This can only be combined with {@link #PF_SHARED_READ_LOCK}.
      */
-    int PF_NO_FAULT = 1 << 4; // TBD
+    int PF_NO_FAULT = 1 << 4;
     /**
      * Do not update page access statistics.
+     * <p>
+     * Pages pinned with this flag are not made any less likely to be evicted than they already were, and pages that
+     * are faulted in with this flag will be the first candidates for eviction. This is useful for large scans that
+     * would otherwise push the frequently used pages out of the cache.
      */
-    int PF_TRANSIENT = 1 << 5; // TBD
+    int PF_TRANSIENT = 1 << 5;
 
     /**
      * Initiate an IO interaction with the contents of the paged file.
@@ -144,6 +161,17 @@ public interface PagedFile extends AutoCloseable
      */
     void flushAndForce( IOLimiter limiter ) throws IOException;
 
+    /**
+     * Set a barrier that is flushed before any dirty page of this file is written to the file channel, whether the
+     * page is evicted or flushed. This lets a log be made durable ahead of the changes it covers, such as a log of
+     * the before-images of pages which must be forced before those pages are overwritten.
+     * <p>
+     * The barrier is flushed while the pages about to be written are locked, so it must not access this file.
+     *
+     * @param barrier The barrier to flush, or {@code null} to remove it.
+     */
+    void setFlushBarrier( Flushable barrier );
+
     /**
      * Get the file-page-id of the last page in the file.
      * <p>
@@ -153,6 +181,11 @@ public interface PagedFile extends AutoCloseable
      */
     long getLastPageId() throws IOException;
 
+    /**
+     * Get the file that this paged file is a mapping of.
+     */
+    File file();
+
     /**
      * Release a handle to a paged file.
      * <p>
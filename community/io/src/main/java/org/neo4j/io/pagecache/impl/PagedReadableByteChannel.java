@@ -40,7 +40,7 @@ public final class PagedReadableByteChannel implements ReadableByteChannel
 
     public PagedReadableByteChannel( PagedFile pagedFile ) throws IOException
     {
-        cursor = pagedFile.io( 0, PagedFile.PF_SHARED_READ_LOCK | PagedFile.PF_READ_AHEAD );
+        cursor = pagedFile.io( 0, PagedFile.PF_SHARED_READ_LOCK | PagedFile.PF_READ_AHEAD | PagedFile.PF_TRANSIENT );
     }
 
     @Override
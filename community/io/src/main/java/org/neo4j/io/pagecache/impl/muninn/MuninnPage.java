@@ -58,6 +58,8 @@ final class MuninnPage extends SequenceLock implements Page
     public Object nextFree;
 
     private PageSwapper swapper;
+    // The file the page is bound to, along with its swapper, for flushing its barrier before the page is written
+    private MuninnPagedFile pagedFile;
     private long filePageId = PageCursor.UNBOUND_PAGE_ID;
 
     public MuninnPage( int cachePageSize, MemoryManager memoryManager )
@@ -126,7 +128,7 @@ final class MuninnPage extends SequenceLock implements Page
         return usage == 0;
     }
 
-    private byte getUsageCounter()
+    byte getUsageCounter()
     {
         return UnsafeUtil.getByteVolatile( this, usageStampOffset );
     }
@@ -148,6 +150,7 @@ final class MuninnPage extends SequenceLock implements Page
             long filePageId,
             FlushEventOpportunity flushOpportunity ) throws IOException
     {
+        pagedFile.flushBarrier();
         FlushEvent event = flushOpportunity.beginFlush( filePageId, getCachePageId(), swapper );
         try
         {
@@ -167,19 +170,12 @@ final class MuninnPage extends SequenceLock implements Page
      * NOTE: This method MUST be called while holding the exclusive page lock.
      */
     public void fault(
-            PageSwapper swapper,
+            MuninnPagedFile pagedFile,
             long filePageId,
             PageFaultEvent faultEvent ) throws IOException
     {
-        if ( this.swapper != null || this.filePageId != PageCursor.UNBOUND_PAGE_ID )
-        {
-            String msg = format(
-                    "Cannot fault page {filePageId = %s, swapper = %s} into " +
-                    "cache page %s. Already bound to {filePageId = " +
-                    "%s, swapper = %s}.",
-                    filePageId, swapper, getCachePageId(), this.filePageId, this.swapper );
-            throw new IllegalStateException( msg );
-        }
+        PageSwapper swapper = pagedFile.swapper;
+        assertNotBound( swapper, filePageId );
 
         // Note: It is important that we assign the filePageId before we swap
         // the page in. If the swapping fails, the page will be considered
@@ -192,9 +188,49 @@ final class MuninnPage extends SequenceLock implements Page
         long bytesRead = swapper.read( filePageId, this );
         faultEvent.addBytesRead( bytesRead );
         faultEvent.setCachePageId( getCachePageId() );
+        this.pagedFile = pagedFile;
         this.swapper = swapper; // Page now considered isBoundTo( swapper, filePageId )
     }
 
+    /**
+     * Fault in a contiguous range of file pages with a single vectored read, starting at the given file page id.
+     * The number of bytes read is returned, and the caller is responsible for reporting it to a fault event.
+     * <p>
+     * NOTE: This method MUST be called while holding the exclusive page lock on all of the given pages.
+     */
+    static long fault( MuninnPagedFile pagedFile, long startFilePageId, MuninnPage[] pages ) throws IOException
+    {
+        PageSwapper swapper = pagedFile.swapper;
+        // Like in the single page fault, we assign the file page ids before we swap the pages in, and the swapper
+        // only after we are done, so a failed read leaves the pages loaded but unbound.
+        for ( int i = 0; i < pages.length; i++ )
+        {
+            MuninnPage page = pages[i];
+            page.assertNotBound( swapper, startFilePageId + i );
+            page.filePageId = startFilePageId + i;
+        }
+        long bytesRead = swapper.read( startFilePageId, pages, 0, pages.length );
+        for ( MuninnPage page : pages )
+        {
+            page.pagedFile = pagedFile;
+            page.swapper = swapper;
+        }
+        return bytesRead;
+    }
+
+    private void assertNotBound( PageSwapper swapper, long filePageId )
+    {
+        if ( this.swapper != null || this.filePageId != PageCursor.UNBOUND_PAGE_ID )
+        {
+            String msg = format(
+                    "Cannot fault page {filePageId = %s, swapper = %s} into " +
+                    "cache page %s. Already bound to {filePageId = " +
+                    "%s, swapper = %s}.",
+                    filePageId, swapper, getCachePageId(), this.filePageId, this.swapper );
+            throw new IllegalStateException( msg );
+        }
+    }
+
     /**
      * NOTE: This method MUST be called while holding the page write lock.
      */
@@ -210,6 +246,7 @@ final class MuninnPage extends SequenceLock implements Page
         this.filePageId = PageCursor.UNBOUND_PAGE_ID;
 
         this.swapper = null;
+        this.pagedFile = null;
         if ( swapper != null )
         {
             // The swapper can be null if the last page fault
@@ -23,10 +23,13 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.OpenOption;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.LockSupport;
@@ -113,6 +116,10 @@ public class MuninnPageCache implements PageCache
     private static final int cooperativeEvictionLiveLockThreshold = getInteger(
             MuninnPageCache.class, "cooperativeEvictionLiveLockThreshold", 100 );
 
+    // The number of threads each page cache has for reading ahead of PF_READ_AHEAD cursors. Read-aheads that are
+    // scheduled while all of these threads are busy are dropped, and the cursors fault those pages in themselves.
+    static final int readAheadThreads = getInteger( MuninnPageCache.class, "readAheadThreads", 2 );
+
     // This is a pre-allocated constant, so we can throw it without allocating any objects:
     @SuppressWarnings( "ThrowableInstanceNeverThrown" )
     private static final IOException oomException = new IOException(
@@ -148,6 +155,9 @@ public class MuninnPageCache implements PageCache
     private final int keepFree;
     private final PageCacheTracer tracer;
     private final MuninnPage[] pages;
+    // Read-ahead tasks are not run by the shared backgroundThreadExecutor, since it has no bound on its thread count.
+    // This executor has no queue, and rejects tasks when all of its threads are busy, which drops the read-ahead.
+    private final ThreadPoolExecutor readAheadExecutor;
     // All PageCursors are initialised with their pointers pointing to the victim page. This way, we can do branch-free
     // bounds checking of page accesses without fear of segfaulting newly allocated cursors.
     final long victimPage;
@@ -207,6 +217,8 @@ public class MuninnPageCache implements PageCache
         this.tracer = tracer;
         this.pages = new MuninnPage[maxPages];
         this.printExceptionsOnClose = true;
+        this.readAheadExecutor = new ThreadPoolExecutor( 0, readAheadThreads, 10, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), new DaemonThreadFactory() );
 
         long alignment = swapperFactory.getRequiredBufferAlignment();
         long expectedMaxMemory = ((long) maxPages) * cachePageSize; // cast to long prevents overflow
@@ -381,6 +393,23 @@ public class MuninnPageCache implements PageCache
         return pagedFile;
     }
 
+    @Override
+    public synchronized List<PagedFile> listExistingMappings() throws IOException
+    {
+        assertNotClosed();
+        List<PagedFile> list = new ArrayList<>();
+        FileMapping current = mappedFiles;
+        while ( current != null )
+        {
+            // Note that we are synchronised on this so the mapping cannot be removed while we take our reference
+            MuninnPagedFile pagedFile = current.pagedFile;
+            pagedFile.incrementRefCount();
+            list.add( pagedFile );
+            current = current.next;
+        }
+        return list;
+    }
+
     /**
      * Note: Must be called while synchronizing on the MuninnPageCache instance.
      */
@@ -411,6 +440,16 @@ public class MuninnPageCache implements PageCache
         }
     }
 
+    /**
+     * @throws java.util.concurrent.RejectedExecutionException if all read-ahead threads are busy, or if this page
+     * cache has been closed.
+     */
+    void scheduleReadAhead( MuninnPagedFile pagedFile, long startFilePageId, int pageCount, boolean transientScan )
+    {
+        readAheadExecutor.execute(
+                new ReadAheadTask( this, pagedFile, startFilePageId, pageCount, transientScan ) );
+    }
+
     synchronized void unmap( MuninnPagedFile file )
     {
         if ( file.decrementRefCount() )
@@ -433,6 +472,7 @@ public class MuninnPageCache implements PageCache
                         prev.next = current.next;
                     }
                     tracer.unmappedFile( current.file );
+                    file.awaitReadAheadCompletion();
                     flushAndCloseWithoutFail( file );
                     break;
                 }
@@ -549,6 +589,7 @@ public class MuninnPageCache implements PageCache
 
         interrupt( evictionThread );
         evictionThread = null;
+        readAheadExecutor.shutdown();
     }
 
     private void interrupt( Thread thread )
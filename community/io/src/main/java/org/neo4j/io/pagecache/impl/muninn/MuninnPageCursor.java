@@ -32,6 +32,8 @@ import org.neo4j.io.pagecache.tracing.PageFaultEvent;
 import org.neo4j.io.pagecache.tracing.PinEvent;
 import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
 
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
 import static org.neo4j.unsafe.impl.internal.dragons.FeatureToggles.flag;
 
 abstract class MuninnPageCursor extends PageCursor
@@ -61,6 +63,8 @@ abstract class MuninnPageCursor extends PageCursor
     protected long currentPageId;
     protected long nextPageId;
     protected MuninnPageCursor linkedCursor;
+    // The file page id just past the last page that this cursor has asked to have read ahead.
+    private long readAheadFrontier;
     private long pointer;
     private int pageSize;
     private int filePageSize;
@@ -96,6 +100,7 @@ abstract class MuninnPageCursor extends PageCursor
     {
         nextPageId = pageId;
         currentPageId = UNBOUND_PAGE_ID;
+        readAheadFrontier = 0;
     }
 
     public final void reset( MuninnPage page )
@@ -199,11 +204,15 @@ abstract class MuninnPageCursor extends PageCursor
 
     /**
      * Pin the desired file page to this cursor, page faulting it into memory if it isn't there already.
+     * <p>
+     * If the cursor was opened with {@link org.neo4j.io.pagecache.PagedFile#PF_NO_FAULT}, and the page is not already
+     * in memory, then the cursor is left unbound, and this method returns {@code false}.
      * @param filePageId The file page id we want to pin this cursor to.
      * @param writeLock 'true' if we will be taking a write lock on the page as part of the pin.
+     * @return 'true' if the cursor got pinned to the file page, or 'false' if it was a no-fault miss.
      * @throws IOException if anything goes wrong with the pin, most likely during a page fault.
      */
-    protected void pin( long filePageId, boolean writeLock ) throws IOException
+    protected boolean pin( long filePageId, boolean writeLock ) throws IOException
     {
         pinEvent = tracer.beginPin( writeLock, filePageId, swapper );
         int chunkId = MuninnPagedFile.computeChunkId( filePageId );
@@ -238,7 +247,7 @@ abstract class MuninnPageCursor extends PageCursor
                 if ( locked & page.isBoundTo( swapper, filePageId ) )
                 {
                     pinCursorToPage( page, filePageId, swapper );
-                    return;
+                    return true;
                 }
                 if ( locked )
                 {
@@ -246,6 +255,14 @@ abstract class MuninnPageCursor extends PageCursor
                 }
                 item = null;
             }
+            else if ( (pf_flags & PF_NO_FAULT) != 0 )
+            {
+                // The page is either not in memory, or someone else is faulting it in. Either way, we have been
+                // told not to fault or wait, so we report this as a miss.
+                pinEvent.done();
+                clearPageState();
+                return false;
+            }
             else
             {
                 item = uncommonPin( item, filePageId, chunkOffset, chunk );
@@ -253,6 +270,36 @@ abstract class MuninnPageCursor extends PageCursor
         }
         while ( item == null );
         pinCursorToPage( (MuninnPage) item, filePageId, swapper );
+        return true;
+    }
+
+    /**
+     * Called by cursors opened with {@link org.neo4j.io.pagecache.PagedFile#PF_READ_AHEAD} before they pin the given
+     * file page. When the cursor gets within half a read-ahead window of the pages it has already asked to have read
+     * ahead, then the next window of pages is scheduled to be faulted in asynchronously. A cursor that jumps outside
+     * the window is considered to have started a new sequential scan.
+     */
+    protected final void readAheadOf( long filePageId, long lastPageId )
+    {
+        int window = pagedFile.readAheadWindow;
+        if ( window < 2 )
+        {
+            return;
+        }
+        if ( filePageId >= readAheadFrontier || filePageId < readAheadFrontier - window - 1 )
+        {
+            readAheadFrontier = filePageId + 1;
+        }
+        if ( filePageId + window / 2 >= readAheadFrontier )
+        {
+            long end = Math.min( filePageId + 1 + window, lastPageId + 1 );
+            if ( readAheadFrontier < end )
+            {
+                pagedFile.readAheadAsync( readAheadFrontier, (int) (end - readAheadFrontier),
+                        (pf_flags & PF_TRANSIENT) != 0 );
+                readAheadFrontier = end;
+            }
+        }
     }
 
     private Object[][] expandTranslationTableCapacity( int chunkId )
@@ -333,7 +380,7 @@ abstract class MuninnPageCursor extends PageCursor
             // the file channel.
             assertPagedFileStillMappedAndGetIdOfLastPage();
             page.initBuffer();
-            page.fault( swapper, filePageId, faultEvent );
+            page.fault( pagedFile, filePageId, faultEvent );
         }
         catch ( Throwable throwable )
         {
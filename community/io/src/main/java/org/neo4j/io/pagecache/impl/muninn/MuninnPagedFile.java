@@ -24,6 +24,13 @@ import java.io.Flushable;
 import java.io.IOException;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.neo4j.concurrent.BinaryLatch;
 
 import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCursor;
@@ -38,8 +45,11 @@ import org.neo4j.io.pagecache.tracing.FlushEventOpportunity;
 import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.PageFaultEvent;
+import org.neo4j.io.pagecache.tracing.PinEvent;
 import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
 
+import static org.neo4j.unsafe.impl.internal.dragons.FeatureToggles.getInteger;
+
 final class MuninnPagedFile implements PagedFile
 {
     private static final int translationTableChunkSizePower = Integer.getInteger(
@@ -49,6 +59,10 @@ final class MuninnPagedFile implements PagedFile
     private static final int translationTableChunkArrayBase = UnsafeUtil.arrayBaseOffset( MuninnPage[].class );
     private static final int translationTableChunkArrayScale = UnsafeUtil.arrayIndexScale( MuninnPage[].class );
 
+    // The maximum number of pages that a PF_READ_AHEAD cursor will have faulted in ahead of itself. The actual
+    // read-ahead window is further limited to a quarter of the cache, so a scan cannot evict its own read-ahead.
+    private static final int readAheadPages = getInteger( MuninnPagedFile.class, "readAheadPages", 32 );
+
     private static final long headerStateOffset =
             UnsafeUtil.getFieldOffset( MuninnPagedFile.class, "headerState" );
     private static final int headerStateRefCountShift = 48;
@@ -65,12 +79,17 @@ final class MuninnPagedFile implements PagedFile
     volatile Object[][] translationTable;
 
     final PageSwapper swapper;
+    final int readAheadWindow;
     private final CursorPool cursorPool;
     private final boolean exclusiveMapping;
+    private final AtomicInteger readAheadsInFlight = new AtomicInteger();
 
     // Guarded by the monitor lock on MuninnPageCache (map and unmap)
     private boolean deleteOnClose;
 
+    // Flushed before any page of this file is written, see setFlushBarrier
+    private volatile Flushable flushBarrier;
+
     /**
      * The header state includes both the reference count of the PagedFile – 15 bits – and the ID of the last page in
      * the file – 48 bits, plus an empty file marker bit. Because our pages are usually 2^13 bytes, this means that we
@@ -103,6 +122,7 @@ final class MuninnPagedFile implements PagedFile
         this.cursorPool = new CursorPool( this );
         this.tracer = tracer;
         this.exclusiveMapping = exclusiveMapping;
+        this.readAheadWindow = Math.min( readAheadPages, pageCache.maxCachedPages() / 4 );
 
         // The translation table is an array of arrays of references to either null, MuninnPage objects, or Latch
         // objects. The table only grows the outer array, and all the inner "chunks" all stay the same size. This
@@ -155,6 +175,11 @@ final class MuninnPagedFile implements PagedFile
             throw new IllegalArgumentException(
                     "Cannot specify both PF_SHARED_WRITE_LOCK and PF_SHARED_READ_LOCK" );
         }
+        if ( (pf_flags & (PF_SHARED_WRITE_LOCK | PF_NO_FAULT)) == (PF_SHARED_WRITE_LOCK | PF_NO_FAULT) )
+        {
+            throw new IllegalArgumentException(
+                    "Cannot combine PF_NO_FAULT with PF_SHARED_WRITE_LOCK" );
+        }
         MuninnPageCursor cursor;
         if ( (pf_flags & PF_SHARED_READ_LOCK) == 0 )
         {
@@ -175,7 +200,8 @@ final class MuninnPagedFile implements PagedFile
         return filePageSize;
     }
 
-    File file()
+    @Override
+    public File file()
     {
         return swapper.file();
     }
@@ -209,6 +235,25 @@ final class MuninnPagedFile implements PagedFile
         }
     }
 
+    @Override
+    public void setFlushBarrier( Flushable barrier )
+    {
+        flushBarrier = barrier;
+    }
+
+    /**
+     * NOTE: This method must be called while holding a lock on the pages about to be written, so that the barrier
+     * covers all changes made to them.
+     */
+    void flushBarrier() throws IOException
+    {
+        Flushable barrier = flushBarrier;
+        if ( barrier != null )
+        {
+            barrier.flush();
+        }
+    }
+
     @Override
     public void flushAndForce() throws IOException
     {
@@ -326,6 +371,7 @@ final class MuninnPagedFile implements PagedFile
                 pages[j].markAsClean();
             }
 
+            flushBarrier();
             flush = flushOpportunity.beginFlush( startFilePageId, firstPage.getCachePageId(), swapper );
             long bytesWritten = swapper.write( startFilePageId, pages, 0, pagesGrabbed );
 
@@ -493,6 +539,169 @@ final class MuninnPagedFile implements PagedFile
         return pageCache.grabFreeAndExclusivelyLockedPage( faultEvent );
     }
 
+    /**
+     * Asynchronously fault in the given range of file pages, if they are not already in memory. This is only a hint,
+     * and pages that cannot be faulted in, for whatever reason, are simply skipped. Pages read ahead of a
+     * {@link org.neo4j.io.pagecache.PagedFile#PF_TRANSIENT transient} scan get no usage tick, just like the pages
+     * the scan pins itself, so they remain the first candidates for eviction.
+     */
+    void readAheadAsync( long startFilePageId, int pageCount, boolean transientScan )
+    {
+        readAheadsInFlight.incrementAndGet();
+        try
+        {
+            pageCache.scheduleReadAhead( this, startFilePageId, pageCount, transientScan );
+        }
+        catch ( RejectedExecutionException ignore )
+        {
+            // All read-ahead threads are busy, so drop this read-ahead rather than let it queue up behind them
+            readAheadCompleted();
+        }
+    }
+
+    void readAheadCompleted()
+    {
+        readAheadsInFlight.decrementAndGet();
+    }
+
+    /**
+     * Wait for all in-flight read-ahead tasks to finish. This is called when the last reference to this file has been
+     * released, before the file is flushed and its swapper closed, so that we don't race with the read-ahead IO.
+     */
+    void awaitReadAheadCompletion()
+    {
+        while ( readAheadsInFlight.get() > 0 )
+        {
+            LockSupport.parkNanos( TimeUnit.MICROSECONDS.toNanos( 100 ) );
+        }
+    }
+
+    /**
+     * Fault in the given range of file pages, that are not already in memory, using as few vectored reads as
+     * possible. Pages that are already bound, or are being faulted in by someone else, are skipped.
+     * <p>
+     * This must only be called from a read-ahead task, that has been accounted for in {@link #readAheadAsync}.
+     */
+    void readAhead( long startFilePageId, int pageCount, boolean transientScan )
+    {
+        if ( getRefCount() == 0 )
+        {
+            // The file was unmapped before we got around to reading ahead.
+            return;
+        }
+        long endFilePageId = Math.min( startFilePageId + pageCount, getLastPageId() + 1 );
+        MuninnPage[] pages = new MuninnPage[pageCount];
+        BinaryLatch[] latches = new BinaryLatch[pageCount];
+        PinEvent[] pinEvents = new PinEvent[pageCount];
+        PageFaultEvent[] faultEvents = new PageFaultEvent[pageCount];
+        long runStart = startFilePageId;
+        int runLength = 0;
+        for ( long filePageId = startFilePageId; filePageId < endFilePageId; filePageId++ )
+        {
+            Object[] chunk = chunkForReadAhead( filePageId );
+            long chunkOffset = computeChunkOffset( filePageId );
+            BinaryLatch latch = new BinaryLatch();
+            if ( !UnsafeUtil.compareAndSwapObject( chunk, chunkOffset, null, latch ) )
+            {
+                // The page is already in memory, or someone else is faulting it in, so this ends the current run.
+                readAheadRun( runStart, runLength, transientScan, pages, latches, pinEvents, faultEvents );
+                runStart = filePageId + 1;
+                runLength = 0;
+                continue;
+            }
+            PinEvent pinEvent = tracer.beginPin( false, filePageId, swapper );
+            PageFaultEvent faultEvent = pinEvent.beginPageFault();
+            try
+            {
+                pages[runLength] = grabFreeAndExclusivelyLockedPage( faultEvent );
+            }
+            catch ( IOException | RuntimeException e )
+            {
+                // We could not get a free page, so we give up on the rest of the read-ahead, but we still fault in
+                // the pages we've already grabbed, since those are not on the freelist anymore.
+                UnsafeUtil.putObjectVolatile( chunk, chunkOffset, null );
+                latch.release();
+                faultEvent.done( e );
+                pinEvent.done();
+                break;
+            }
+            latches[runLength] = latch;
+            pinEvents[runLength] = pinEvent;
+            faultEvents[runLength] = faultEvent;
+            runLength++;
+        }
+        readAheadRun( runStart, runLength, transientScan, pages, latches, pinEvents, faultEvents );
+    }
+
+    private Object[] chunkForReadAhead( long filePageId )
+    {
+        int chunkId = computeChunkId( filePageId );
+        Object[][] tt = translationTable;
+        if ( tt.length <= chunkId )
+        {
+            tt = expandCapacity( chunkId );
+        }
+        return tt[chunkId];
+    }
+
+    private void readAheadRun( long runStart, int runLength, boolean transientScan, MuninnPage[] pages,
+            BinaryLatch[] latches, PinEvent[] pinEvents, PageFaultEvent[] faultEvents )
+    {
+        if ( runLength == 0 )
+        {
+            return;
+        }
+        MuninnPage[] run = Arrays.copyOf( pages, runLength );
+        Throwable failure = null;
+        long bytesRemaining = 0;
+        try
+        {
+            for ( MuninnPage page : run )
+            {
+                page.initBuffer();
+            }
+            bytesRemaining = MuninnPage.fault( this, runStart, run );
+        }
+        catch ( Throwable throwable )
+        {
+            failure = throwable;
+        }
+
+        for ( int i = 0; i < runLength; i++ )
+        {
+            long filePageId = runStart + i;
+            Object[] chunk = translationTable[computeChunkId( filePageId )];
+            long chunkOffset = computeChunkOffset( filePageId );
+            MuninnPage page = run[i];
+            PageFaultEvent faultEvent = faultEvents[i];
+            if ( failure == null )
+            {
+                if ( !transientScan )
+                {
+                    // Give the page a single usage tick, so it is not immediately evicted before the scan gets to it.
+                    page.incrementUsage();
+                }
+                UnsafeUtil.putObjectVolatile( chunk, chunkOffset, page );
+                page.unlockExclusive();
+                long bytesRead = Math.min( bytesRemaining, filePageSize );
+                bytesRemaining -= bytesRead;
+                faultEvent.addBytesRead( bytesRead );
+                faultEvent.setCachePageId( page.getCachePageId() );
+                faultEvent.done();
+            }
+            else
+            {
+                // Make sure to unlock the page, so the eviction thread can pick up our trash.
+                page.unlockExclusive();
+                UnsafeUtil.putObjectVolatile( chunk, chunkOffset, null );
+                faultEvent.done( failure );
+            }
+            latches[i].release();
+            pinEvents[i].done();
+            pages[i] = null;
+        }
+    }
+
     /**
      * Remove the mapping of the given filePageId from the translation table, and return the evicted page object.
      * @param filePageId The id of the file page to evict.
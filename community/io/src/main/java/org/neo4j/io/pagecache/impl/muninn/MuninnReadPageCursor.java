@@ -23,6 +23,10 @@ import java.io.IOException;
 
 import org.neo4j.io.pagecache.PageSwapper;
 
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
+
 final class MuninnReadPageCursor extends MuninnPageCursor
 {
     private final CursorPool.CursorSets cursorSets;
@@ -57,8 +61,11 @@ final class MuninnReadPageCursor extends MuninnPageCursor
         {
             return false;
         }
-        pin( nextPageId, false );
-        currentPageId = nextPageId;
+        if ( (pf_flags & (PF_READ_AHEAD | PF_NO_FAULT)) == PF_READ_AHEAD )
+        {
+            readAheadOf( nextPageId, lastPageId );
+        }
+        currentPageId = pin( nextPageId, false ) ? nextPageId : UNBOUND_PAGE_ID;
         nextPageId++;
         return true;
     }
@@ -79,7 +86,10 @@ final class MuninnReadPageCursor extends MuninnPageCursor
     protected void pinCursorToPage( MuninnPage page, long filePageId, PageSwapper swapper )
     {
         reset( page );
-        page.incrementUsage();
+        if ( (pf_flags & PF_TRANSIENT) == 0 )
+        {
+            page.incrementUsage();
+        }
     }
 
     @Override
@@ -130,8 +140,11 @@ final class MuninnReadPageCursor extends MuninnPageCursor
             // is closed; we don't want unpinCurrentPage() to try unlocking
             // this page.
             page = null;
-            // Then try pin again.
-            pin( currentPageId, false );
+            // Then try pin again. A no-fault cursor might now find that the page is no longer in memory.
+            if ( !pin( currentPageId, false ) )
+            {
+                currentPageId = UNBOUND_PAGE_ID;
+            }
         }
     }
 
@@ -74,4 +74,9 @@ public interface PageCacheCounters
      * @return The number of page evictions that have thrown exceptions thus far.
      */
     long evictionExceptions();
+
+    /**
+     * @return The number of pages that have been loaded by page cache warm-up thus far.
+     */
+    long pagesWarmedUp();
 }
@@ -92,6 +92,7 @@ public class DefaultPageCacheTracer implements PageCacheTracer
     protected final AtomicLong filesMapped = new AtomicLong();
     protected final AtomicLong filesUnmapped = new AtomicLong();
     protected final AtomicLong evictionExceptions = new AtomicLong();
+    protected final AtomicLong pagesWarmedUp = new AtomicLong();
 
     private final FlushEvent flushEvent = new FlushEvent()
     {
@@ -325,6 +326,12 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         return majorFlushEvent;
     }
 
+    @Override
+    public void warmedUp( File file, long pagesLoaded )
+    {
+        pagesWarmedUp.getAndAdd( pagesLoaded );
+    }
+
     @Override
     public long faults()
     {
@@ -384,4 +391,10 @@ public class DefaultPageCacheTracer implements PageCacheTracer
     {
         return evictionExceptions.get();
     }
+
+    @Override
+    public long pagesWarmedUp()
+    {
+        return pagesWarmedUp.get();
+    }
 }
@@ -130,6 +130,17 @@ public interface PageCacheTracer extends PageCacheCounters
             return 0;
         }
 
+        @Override
+        public long pagesWarmedUp()
+        {
+            return 0;
+        }
+
+        @Override
+        public void warmedUp( File file, long pagesLoaded )
+        {
+        }
+
         @Override
         public String toString()
         {
@@ -170,4 +181,9 @@ public interface PageCacheTracer extends PageCacheCounters
      * The PageCache wants to flush all its bound pages.
      */
     MajorFlushEvent beginCacheFlush();
+
+    /**
+     * The page cache warm-up has loaded the given number of pages of the given file back into memory.
+     */
+    void warmedUp( File file, long pagesLoaded );
 }
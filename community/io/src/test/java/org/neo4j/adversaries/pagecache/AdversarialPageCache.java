@@ -26,6 +26,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.file.OpenOption;
 import java.nio.file.StandardOpenOption;
+import java.util.List;
 import java.util.Objects;
 
 import org.neo4j.adversaries.Adversary;
@@ -67,6 +68,18 @@ public class AdversarialPageCache implements PageCache
         return new AdversarialPagedFile( pagedFile, adversary );
     }
 
+    @Override
+    public List<PagedFile> listExistingMappings() throws IOException
+    {
+        adversary.injectFailure( IOException.class, SecurityException.class );
+        List<PagedFile> list = delegate.listExistingMappings();
+        for ( int i = 0; i < list.size(); i++ )
+        {
+            list.set( i, new AdversarialPagedFile( list.get( i ), adversary ) );
+        }
+        return list;
+    }
+
     @Override
     public void flushAndForce() throws IOException
     {
@@ -19,7 +19,9 @@
  */
 package org.neo4j.adversaries.pagecache;
 
+import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.Flushable;
 import java.io.IOException;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
@@ -83,6 +85,12 @@ public class AdversarialPagedFile implements PagedFile
         delegate.flushAndForce( limiter );
     }
 
+    @Override
+    public void setFlushBarrier( Flushable barrier )
+    {
+        delegate.setFlushBarrier( barrier );
+    }
+
     @Override
     public long getLastPageId() throws IOException
     {
@@ -90,6 +98,12 @@ public class AdversarialPagedFile implements PagedFile
         return delegate.getLastPageId();
     }
 
+    @Override
+    public File file()
+    {
+        return delegate.file();
+    }
+
     @Override
     public void close() throws IOException
     {
@@ -19,6 +19,8 @@
  */
 package org.neo4j.io.pagecache;
 
+import java.io.File;
+import java.io.Flushable;
 import java.io.IOException;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
@@ -42,11 +44,22 @@ public class DelegatingPagedFile implements PagedFile
         delegate.flushAndForce();
     }
 
+    @Override
+    public void setFlushBarrier( Flushable barrier )
+    {
+        delegate.setFlushBarrier( barrier );
+    }
+
     public long getLastPageId() throws IOException
     {
         return delegate.getLastPageId();
     }
 
+    public File file()
+    {
+        return delegate.file();
+    }
+
     public int pageSize()
     {
         return delegate.pageSize();
@@ -82,6 +82,7 @@ import static org.junit.Assert.fail;
 import static org.junit.Assume.assumeTrue;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_GROW;
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
 import static org.neo4j.test.ByteArrayMatcher.byteArray;
@@ -152,6 +153,84 @@ public abstract class PageCacheTest<T extends PageCache> extends PageCacheTestSu
         assertThat( recordId, is( recordCount ) );
     }
 
+    @Test( timeout = SHORT_TIMEOUT_MILLIS )
+    public void mustReadExistingDataWithReadAhead() throws IOException
+    {
+        generateFileWithRecords( file( "a" ), recordCount, recordSize );
+
+        PageCache cache = getPageCache( fs, maxPages, pageCachePageSize, PageCacheTracer.NULL );
+
+        int recordId = 0;
+        try ( PagedFile pagedFile = cache.map( file( "a" ), filePageSize );
+              PageCursor cursor = pagedFile.io( 0L, PF_SHARED_READ_LOCK | PF_READ_AHEAD ) )
+        {
+            while ( cursor.next() )
+            {
+                verifyRecordsMatchExpected( cursor );
+                recordId += recordsPerFilePage;
+            }
+        }
+
+        assertThat( recordId, is( recordCount ) );
+    }
+
+    @Test( timeout = SHORT_TIMEOUT_MILLIS )
+    public void noFaultReadCursorMustReportMissForPagesNotInMemory() throws IOException
+    {
+        generateFileWithRecords( file( "a" ), recordCount, recordSize );
+
+        PageCache cache = getPageCache( fs, maxPages, pageCachePageSize, PageCacheTracer.NULL );
+
+        try ( PagedFile pagedFile = cache.map( file( "a" ), filePageSize ) )
+        {
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT ) )
+            {
+                assertTrue( cursor.next() );
+                assertThat( cursor.getCurrentPageId(), is( PageCursor.UNBOUND_PAGE_ID ) );
+                cursor.getLong();
+                assertTrue( cursor.checkAndClearBoundsFlag() );
+            }
+
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK ) )
+            {
+                assertTrue( cursor.next() );
+            }
+
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT ) )
+            {
+                assertTrue( cursor.next() );
+                assertThat( cursor.getCurrentPageId(), is( 0L ) );
+                verifyRecordsMatchExpected( cursor );
+            }
+        }
+    }
+
+    @Test( timeout = SHORT_TIMEOUT_MILLIS )
+    public void noFaultReadCursorMustNotGoBeyondTheEndOfTheFile() throws IOException
+    {
+        generateFileWithRecords( file( "a" ), recordsPerFilePage * 2, recordSize );
+
+        PageCache cache = getPageCache( fs, maxPages, pageCachePageSize, PageCacheTracer.NULL );
+
+        try ( PagedFile pagedFile = cache.map( file( "a" ), filePageSize );
+              PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT ) )
+        {
+            assertTrue( cursor.next() );
+            assertTrue( cursor.next() );
+            assertFalse( cursor.next() );
+        }
+    }
+
+    @Test( timeout = SHORT_TIMEOUT_MILLIS, expected = IllegalArgumentException.class )
+    public void noFaultMustNotBeCombinedWithWriteLock() throws IOException
+    {
+        PageCache cache = getPageCache( fs, maxPages, pageCachePageSize, PageCacheTracer.NULL );
+        try ( PagedFile pagedFile = cache.map( file( "a" ), filePageSize ) )
+        {
+            pagedFile.io( 0, PF_SHARED_WRITE_LOCK | PF_NO_FAULT ); // this must throw
+        }
+    }
+
     @Test( timeout = SHORT_TIMEOUT_MILLIS )
     public void mustScanInTheMiddleOfTheFile() throws IOException
     {
@@ -771,6 +850,47 @@ public abstract class PageCacheTest<T extends PageCache> extends PageCacheTestSu
         pagedFile.close();
     }
 
+    @Test( timeout = SHORT_TIMEOUT_MILLIS )
+    public void listExistingMappingsMustReturnReferencesToTheMappedFiles() throws IOException
+    {
+        PageCache cache = getPageCache( fs, maxPages, pageCachePageSize, PageCacheTracer.NULL );
+        File a = file( "a" );
+        File b = file( "b" );
+        try ( PagedFile pfA = cache.map( a, filePageSize );
+              PagedFile pfB = cache.map( b, filePageSize, StandardOpenOption.CREATE ) )
+        {
+            List<PagedFile> mappings = cache.listExistingMappings();
+            assertThat( mappings.size(), is( 2 ) );
+            for ( PagedFile mapping : mappings )
+            {
+                File mappedFile = mapping.file();
+                assertTrue( mappedFile.equals( a ) || mappedFile.equals( b ) );
+                mapping.close();
+            }
+        }
+        assertTrue( cache.listExistingMappings().isEmpty() );
+    }
+
+    @Test( timeout = SHORT_TIMEOUT_MILLIS )
+    public void listedMappingsMustKeepTheFileMappedUntilTheyAreClosed() throws IOException
+    {
+        generateFileWithRecords( file( "a" ), recordCount, recordSize );
+        PageCache cache = getPageCache( fs, maxPages, pageCachePageSize, PageCacheTracer.NULL );
+        PagedFile listed;
+        try ( PagedFile pagedFile = cache.map( file( "a" ), filePageSize ) )
+        {
+            listed = cache.listExistingMappings().get( 0 );
+        }
+
+        try ( PageCursor cursor = listed.io( 0, PF_SHARED_READ_LOCK ) )
+        {
+            assertTrue( cursor.next() );
+            verifyRecordsMatchExpected( cursor );
+        }
+        listed.close();
+        assertTrue( cache.listExistingMappings().isEmpty() );
+    }
+
     @Test( timeout = SHORT_TIMEOUT_MILLIS, expected = IllegalArgumentException.class )
     public void notSpecifyingAnyPfFlagsMustThrow() throws IOException
     {
@@ -234,6 +234,18 @@ public class RecordingPageCacheTracer implements PageCacheTracer
         return 0;
     }
 
+    @Override
+    public long pagesWarmedUp()
+    {
+        return 0;
+    }
+
+    @Override
+    public void warmedUp( File file, long pagesLoaded )
+    {
+        // we currently do not record these
+    }
+
     public <T extends Event> T observe( Class<T> type ) throws InterruptedException
     {
         return type.cast( record.take() );
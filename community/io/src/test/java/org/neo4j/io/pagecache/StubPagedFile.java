@@ -19,6 +19,8 @@
  */
 package org.neo4j.io.pagecache;
 
+import java.io.File;
+import java.io.Flushable;
 import java.io.IOException;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
@@ -63,12 +65,23 @@ public class StubPagedFile implements PagedFile
     {
     }
 
+    @Override
+    public void setFlushBarrier( Flushable barrier )
+    {
+    }
+
     @Override
     public long getLastPageId() throws IOException
     {
         return lastPageId;
     }
 
+    @Override
+    public File file()
+    {
+        return new File( "stub" );
+    }
+
     @Override
     public void close() throws IOException
     {
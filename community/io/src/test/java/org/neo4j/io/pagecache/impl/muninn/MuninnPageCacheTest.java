@@ -24,17 +24,27 @@ import org.junit.Test;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.neo4j.graphdb.mockfs.DelegatingFileSystemAbstraction;
 import org.neo4j.graphdb.mockfs.DelegatingStoreChannel;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.pagecache.DelegatingPageSwapper;
+import org.neo4j.io.pagecache.Page;
 import org.neo4j.io.pagecache.PageCacheTest;
 import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PageEvictionCallback;
+import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.RecordingPageCacheTracer;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.DelegatingPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
 import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
@@ -48,7 +58,9 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_GROW;
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
 import static org.neo4j.io.pagecache.RecordingPageCacheTracer.Evict;
 import static org.neo4j.io.pagecache.RecordingPageCacheTracer.Fault;
 
@@ -204,6 +216,66 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
         assertThat( buf.getLong(), is( 0L ) );
     }
 
+    @Test
+    public void mustFlushBarrierBeforeEvictingDirtyPage() throws Exception
+    {
+        writeInitialDataTo( file( "a" ) );
+        RecordingPageCacheTracer tracer = new RecordingPageCacheTracer();
+
+        MuninnPageCache pageCache = createPageCache( fs, 2, 8, blockCacheFlush( tracer ) );
+        PagedFile pagedFile = pageCache.map( file( "a" ), 8 );
+        List<Long> firstLongsSeenByBarrier = new ArrayList<>();
+        pagedFile.setFlushBarrier( () -> firstLongsSeenByBarrier.add( readFirstLong( file( "a" ) ) ) );
+
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+        {
+            assertTrue( cursor.next() );
+            cursor.putLong( 0L );
+        }
+        assertNotNull( tracer.observe( Fault.class ) );
+
+        pageCache.evictPages( 1, 0, tracer.beginPageEvictions( 1 ) );
+        assertNotNull( tracer.observe( Evict.class ) );
+        assertThat( firstLongsSeenByBarrier, is( Collections.singletonList( x ) ) );
+        assertThat( readFirstLong( file( "a" ) ), is( 0L ) );
+    }
+
+    @Test
+    public void mustFlushBarrierBeforeFlushingDirtyPages() throws Exception
+    {
+        writeInitialDataTo( file( "a" ) );
+
+        MuninnPageCache pageCache = createPageCache( fs, 4, 8, PageCacheTracer.NULL );
+        PagedFile pagedFile = pageCache.map( file( "a" ), 8 );
+        List<Long> firstLongsSeenByBarrier = new ArrayList<>();
+        pagedFile.setFlushBarrier( () -> firstLongsSeenByBarrier.add( readFirstLong( file( "a" ) ) ) );
+
+        pagedFile.flushAndForce();
+        assertThat( firstLongsSeenByBarrier.size(), is( 0 ) );
+
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+        {
+            assertTrue( cursor.next() );
+            cursor.putLong( 0L );
+        }
+
+        pagedFile.flushAndForce();
+        assertThat( firstLongsSeenByBarrier, is( Collections.singletonList( x ) ) );
+        assertThat( readFirstLong( file( "a" ) ), is( 0L ) );
+        pagedFile.close();
+    }
+
+    private long readFirstLong( File file ) throws IOException
+    {
+        ByteBuffer buf = ByteBuffer.allocate( 8 );
+        try ( StoreChannel channel = fs.open( file, "r" ) )
+        {
+            channel.read( buf );
+        }
+        buf.flip();
+        return buf.getLong();
+    }
+
     @Test
     public void closingTheCursorMustUnlockModifiedPage() throws Exception
     {
@@ -285,6 +357,174 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
         }
     }
 
+    @Test( timeout = SEMI_LONG_TIMEOUT_MILLIS )
+    public void readAheadCursorMustFaultInThePagesAheadOfItself() throws Exception
+    {
+        generateFileWithRecords( file( "a" ), recordCount, recordSize );
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        MuninnPageCache pageCache = getPageCache( fs, maxPages, pageCachePageSize, tracer );
+        int readAheadWindow = maxPages / 4;
+
+        try ( PagedFile pagedFile = pageCache.map( file( "a" ), filePageSize ) )
+        {
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_READ_AHEAD ) )
+            {
+                assertTrue( cursor.next() );
+            }
+            while ( tracer.faults() < 1 + readAheadWindow )
+            {
+                Thread.sleep( 1 );
+            }
+
+            // The pages that were read ahead must now be in memory, so reading them must not cause any page faults
+            try ( PageCursor cursor = pagedFile.io( 1, PF_SHARED_READ_LOCK ) )
+            {
+                for ( int i = 0; i < readAheadWindow; i++ )
+                {
+                    assertTrue( cursor.next() );
+                    verifyRecordsMatchExpected( cursor );
+                }
+            }
+            assertThat( tracer.faults(), is( 1L + readAheadWindow ) );
+        }
+    }
+
+    @Test( timeout = SEMI_LONG_TIMEOUT_MILLIS )
+    public void transientReadAheadCursorMustNotIncrementUsageOfPagesReadAhead() throws Exception
+    {
+        generateFileWithRecords( file( "a" ), recordCount, recordSize );
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        MuninnPageCache pageCache = getPageCache( fs, maxPages, pageCachePageSize, tracer );
+        int readAheadWindow = maxPages / 4;
+
+        try ( PagedFile pagedFile = pageCache.map( file( "a" ), filePageSize ) )
+        {
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_READ_AHEAD | PF_TRANSIENT ) )
+            {
+                assertTrue( cursor.next() );
+            }
+            while ( tracer.faults() < 1 + readAheadWindow )
+            {
+                Thread.sleep( 1 );
+            }
+
+            // Pinning the pages transiently neither faults them in again, nor touches their usage
+            try ( PageCursor cursor = pagedFile.io( 1, PF_SHARED_READ_LOCK | PF_TRANSIENT ) )
+            {
+                for ( int i = 0; i < readAheadWindow; i++ )
+                {
+                    assertTrue( cursor.next() );
+                    assertThat( ((MuninnPageCursor) cursor).page.getUsageCounter(), is( (byte) 0 ) );
+                }
+            }
+            assertThat( tracer.faults(), is( 1L + readAheadWindow ) );
+        }
+    }
+
+    @Test( timeout = SEMI_LONG_TIMEOUT_MILLIS )
+    public void readAheadMustBeDroppedWhenAllReadAheadThreadsAreBusy() throws Exception
+    {
+        AtomicInteger readAheadReads = new AtomicInteger();
+        CountDownLatch releaseReadAheads = new CountDownLatch( 1 );
+        SingleFilePageSwapperFactory swapperFactory = new SingleFilePageSwapperFactory()
+        {
+            @Override
+            public PageSwapper createPageSwapper(
+                    File file, int filePageSize, PageEvictionCallback onEviction, boolean createIfNotExist )
+                    throws IOException
+            {
+                PageSwapper delegate = super.createPageSwapper( file, filePageSize, onEviction, createIfNotExist );
+                return new DelegatingPageSwapper( delegate )
+                {
+                    @Override
+                    public long read( long startFilePageId, Page[] pages, int arrayOffset, int length )
+                            throws IOException
+                    {
+                        // Only read-ahead uses vectored reads
+                        readAheadReads.incrementAndGet();
+                        try
+                        {
+                            releaseReadAheads.await();
+                        }
+                        catch ( InterruptedException e )
+                        {
+                            throw new IOException( e );
+                        }
+                        return super.read( startFilePageId, pages, arrayOffset, length );
+                    }
+                };
+            }
+        };
+        swapperFactory.setFileSystemAbstraction( fs );
+        MuninnPageCache pageCache = createPageCache( swapperFactory, 100, pageCachePageSize, PageCacheTracer.NULL );
+        int files = MuninnPageCache.readAheadThreads + 2;
+        List<PagedFile> pagedFiles = new ArrayList<>();
+        try
+        {
+            for ( int i = 0; i < files; i++ )
+            {
+                File file = file( "file" + i );
+                generateFileWithRecords( file, recordCount, recordSize );
+                pagedFiles.add( pageCache.map( file, filePageSize ) );
+            }
+
+            // WHEN every file gets a read-ahead, while the read-ahead threads are blocked
+            for ( PagedFile pagedFile : pagedFiles )
+            {
+                try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_READ_AHEAD ) )
+                {
+                    assertTrue( cursor.next() );
+                }
+            }
+            while ( readAheadReads.get() < MuninnPageCache.readAheadThreads )
+            {
+                Thread.sleep( 1 );
+            }
+        }
+        finally
+        {
+            releaseReadAheads.countDown();
+            for ( PagedFile pagedFile : pagedFiles )
+            {
+                pagedFile.close();
+            }
+        }
+
+        // THEN the read-aheads that found no free thread were dropped, rather than queued up to run later
+        assertThat( readAheadReads.get(), is( MuninnPageCache.readAheadThreads ) );
+        pageCache.close();
+    }
+
+    @Test
+    public void transientCursorMustNotIncrementPageUsage() throws Exception
+    {
+        writeInitialDataTo( file( "a" ) );
+        RecordingPageCacheTracer tracer = new RecordingPageCacheTracer();
+
+        MuninnPageCache pageCache = createPageCache( fs, 2, 8, blockCacheFlush( tracer ) );
+        PagedFile pagedFile = pageCache.map( file( "a" ), 8 );
+
+        for ( int i = 0; i < 2; i++ )
+        {
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK ) )
+            {
+                assertTrue( cursor.next() );
+            }
+        }
+        assertThat( tracer.observe( Fault.class ).pageId, is( 0L ) );
+        try ( PageCursor cursor = pagedFile.io( 1, PF_SHARED_READ_LOCK | PF_TRANSIENT ) )
+        {
+            assertTrue( cursor.next() );
+        }
+        assertThat( tracer.observe( Fault.class ).pageId, is( 1L ) );
+
+        // The frequently used page survives the first sweep of the clock, while the transiently used page does not
+        int clockArm = pageCache.evictPages( 1, 0, tracer.beginPageEvictions( 1 ) );
+        assertThat( clockArm, is( 2 ) );
+        assertThat( tracer.observe( Evict.class ).pageId, is( 1L ) );
+        pagedFile.close();
+    }
+
     @Test( expected = IllegalStateException.class, timeout = SEMI_LONG_TIMEOUT_MILLIS )
     public void mustThrowIfMappingFileWouldOverflowReferenceCount() throws Exception
     {
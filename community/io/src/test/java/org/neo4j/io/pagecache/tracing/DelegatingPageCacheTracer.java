@@ -97,6 +97,16 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         return delegate.evictionExceptions();
     }
 
+    public long pagesWarmedUp()
+    {
+        return delegate.pagesWarmedUp();
+    }
+
+    public void warmedUp( File file, long pagesLoaded )
+    {
+        delegate.warmedUp( file, pagesLoaded );
+    }
+
     public long filesMapped()
     {
         return delegate.filesMapped();
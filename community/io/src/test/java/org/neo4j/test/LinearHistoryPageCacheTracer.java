@@ -624,6 +624,18 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
         return 0;
     }
 
+    @Override
+    public long pagesWarmedUp()
+    {
+        return 0;
+    }
+
+    @Override
+    public void warmedUp( File file, long pagesLoaded )
+    {
+        // we currently do not record these
+    }
+
     private class HistoryPrinter implements Consumer<HEvent>
     {
         private final List<HEvent> concurrentIntervals;
@@ -149,7 +149,13 @@ public abstract class GraphDatabaseSettings
     @Internal
     public static final Setting<String> cypher_runtime = setting(
             "unsupported.cypher.runtime",
-            options( "INTERPRETED", "COMPILED", DEFAULT ), DEFAULT );
+            options( "INTERPRETED", "COMPILED", "PARALLEL", DEFAULT ), DEFAULT );
+
+    @Description( "Number of worker threads the parallel runtime uses for each scan of the graph. " +
+                  "Zero means one worker per available processor." )
+    @Internal
+    public static final Setting<Integer> cypher_parallel_runtime_workers = setting(
+            "unsupported.cypher.parallel_runtime_workers", INTEGER, "0", min( 0 ) );
 
     @Description( "Enable tracing of compilation in cypher." )
     @Internal
@@ -189,6 +195,13 @@ public abstract class GraphDatabaseSettings
     @Description("The minimum lifetime of a query plan before a query is considered for replanning")
     public static Setting<Long> cypher_min_replan_interval = setting( "cypher.min_replan_interval", DURATION, "1s" );
 
+    @Description( "The maximum number of stale query plans that are replanned in the background at the same time. " +
+                  "Queries keep using a stale plan until its replacement is ready. Zero means that stale plans are " +
+                  "replanned by the query that finds them stale, as they also are when this many plans are already " +
+                  "being replanned." )
+    public static Setting<Integer> cypher_max_concurrent_replans = setting( "cypher.max_concurrent_replans", INTEGER,
+            "0", min( 0 ) );
+
     @Description( "Determines if Cypher will allow using file URLs when loading data using `LOAD CSV`. Setting this "
                   + "value to `false` will cause Neo4j to fail `LOAD CSV` clauses that load data from the file system." )
     public static Setting<Boolean> allow_file_urls = setting( "dbms.security.allow_csv_import_from_file_urls", BOOLEAN, TRUE );
@@ -319,6 +332,24 @@ public abstract class GraphDatabaseSettings
     public static final Setting<Integer> index_sampling_update_percentage =
             setting("dbms.index_sampling.update_percentage", INTEGER, "5", min( 0 ) );
 
+    // Native schema indexes
+    @Description( "Create new schema indexes, including those backing uniqueness constraints, as native B+tree " +
+                  "indexes stored in the page cache instead of as Lucene indexes. Existing indexes keep using the " +
+                  "index provider they were created with. Native indexes can't hold property values larger than " +
+                  "roughly a quarter of a page. Native indexes are not recovered from the transaction log; any " +
+                  "native index that wasn't cleanly checkpointed, e.g. after a crash, is rebuilt from the store " +
+                  "on startup, which takes time proportional to the number of indexed nodes." )
+    public static final Setting<Boolean> native_schema_index_enabled =
+            setting( "dbms.index.native_schema_index.enable", BOOLEAN, FALSE );
+
+    @Description( "Keep the label scan store, which maps labels to nodes, as bitmaps in a native B+tree stored in " +
+                  "the page cache instead of in Lucene. Switching between the two rebuilds the label scan store " +
+                  "from the node store on the next startup. If the native label scan store wasn't cleanly " +
+                  "checkpointed, e.g. after a crash, it is restored to its last checkpoint and then brought up to " +
+                  "date by recovery from the transaction log." )
+    public static final Setting<Boolean> native_label_scan_store_enabled =
+            setting( "dbms.index.native_label_scan_store.enable", BOOLEAN, FALSE );
+
     // Lucene settings
     @Description( "The maximum number of open Lucene index searchers." )
     public static Setting<Integer> lucene_searcher_cache_size = setting("dbms.index_searcher_cache_size",INTEGER, Integer.toString( Integer.MAX_VALUE ), min( 1 ));
@@ -341,6 +372,11 @@ public abstract class GraphDatabaseSettings
                   "`0` means that no rotation will automatically occur based on file size. " )
     public static final Setting<Long> logical_log_rotation_threshold = setting( "dbms.tx_log.rotation.size", BYTES, "250M", min( 1024*1024L /*1Mb*/ ) );
 
+    @Description( "Preallocate the next transaction log file in the background, by filling it with zeros up to the " +
+                  "rotation size. This makes log rotation cheaper, and commits avoid the file system overhead of " +
+                  "growing the log file, at the cost of the disk space and background IO for the next log file." )
+    public static final Setting<Boolean> logical_log_preallocation = setting( "dbms.tx_log.preallocate", BOOLEAN, FALSE );
+
     @Description("Use a quick approach for rebuilding the ID generators. This give quicker recovery time, " +
             "but will limit the ability to reuse the space of deleted entities.")
     @Internal
@@ -410,6 +446,17 @@ public abstract class GraphDatabaseSettings
     public static final Setting<String> pagecache_swapper =
             setting( "dbms.memory.pagecache.swapper", STRING, (String) null );
 
+    @Description( "Page cache warmup records which pages are in memory at regular intervals, and loads those same " +
+                  "pages back into memory in the background when the database starts up. This shortens the time it " +
+                  "takes for a restarted database to get back to its steady-state performance. The profiles are " +
+                  "written next to the store files, with a '.cacheprof' suffix." )
+    public static final Setting<Boolean> pagecache_warmup_enabled =
+            setting( "dbms.memory.pagecache.warmup.enable", BOOLEAN, FALSE );
+
+    @Description( "The interval at which the page cache warmup records which pages are in memory." )
+    public static final Setting<Long> pagecache_warmup_profiling_interval =
+            setting( "dbms.memory.pagecache.warmup.profile.interval", DURATION, "1m" );
+
     /**
      * Block size properties values depends from selected record format.
      * We can't figured out record format until it will be selected by corresponding edition.
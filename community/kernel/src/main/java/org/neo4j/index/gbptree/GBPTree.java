@@ -0,0 +1,1019 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.gbptree;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+
+import static java.lang.Math.max;
+import static org.neo4j.index.gbptree.TreeNode.CHILD_SIZE;
+import static org.neo4j.index.gbptree.TreeNode.HEADER_SIZE;
+import static org.neo4j.index.gbptree.TreeNode.INTERNAL;
+import static org.neo4j.index.gbptree.TreeNode.KEY_SIZE_SIZE;
+import static org.neo4j.index.gbptree.TreeNode.LEAF;
+import static org.neo4j.index.gbptree.TreeNode.NO_NODE;
+import static org.neo4j.index.gbptree.TreeNode.SLOT_SIZE;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+
+/**
+ * A B+tree living in a single file, with all its nodes accessed through the {@link PageCache}, so that its
+ * memory usage is governed by the page cache like any other store. Keys and values are described by a
+ * {@link Layout}; keys are unique and kept in order, which makes the tree suitable for point lookups as
+ * well as range scans.
+ * <p>
+ * Concurrency: there can be one {@link #writer() writer} at any given time, concurrently with any number of
+ * {@link #seek(Object, Object) seekers}. Seekers never block; they read every node optimistically and retry
+ * when the page cache reports that the node was changed while being read. A node split first writes the new
+ * right sibling and then the shrunk left node pointing to it, and because nodes are never merged, entries only
+ * ever move rightwards. A seeker which reaches a leaf through a stale parent therefore finds the entries it's
+ * looking for by following right sibling pointers.
+ * <p>
+ * Crash safety: the first change after a {@link #checkpoint() checkpoint} durably marks the tree as dirty in
+ * its meta page, before any changed node can be flushed. A checkpoint flushes all changes and then marks the
+ * tree as clean again. The contents a node had at the last checkpoint are kept in an {@link UndoLog} before
+ * the node is changed for the first time after it, so a tree opened while marked as dirty, see
+ * {@link #wasCleanOnOpen()}, is restored to the state it had at its last checkpoint. Its owner is then
+ * responsible for reapplying the changes made after that checkpoint, e.g. from a transaction log, which means
+ * changes should be idempotent. Only if the undo log is missing, e.g. because the tree file was copied
+ * without it, does the tree need to be recreated; it can't be written to.
+ *
+ * @param <KEY> type of key
+ * @param <VALUE> type of value
+ */
+public class GBPTree<KEY,VALUE> implements Closeable
+{
+    private static final long MAGIC = 0x4742_5054_7265_6531L; // "GBPTree1"
+    private static final int FORMAT_VERSION = 2;
+    private static final long META_PAGE_ID = 0;
+    private static final long FIRST_ROOT_ID = 1;
+    private static final int MAX_DEPTH = 64;
+
+    private static final int META_OFFSET_MAGIC = 0;
+    private static final int META_OFFSET_FORMAT_VERSION = META_OFFSET_MAGIC + Long.BYTES;
+    private static final int META_OFFSET_PAGE_SIZE = META_OFFSET_FORMAT_VERSION + Integer.BYTES;
+    private static final int META_OFFSET_LAYOUT_IDENTIFIER = META_OFFSET_PAGE_SIZE + Integer.BYTES;
+    private static final int META_OFFSET_LAYOUT_MAJOR_VERSION = META_OFFSET_LAYOUT_IDENTIFIER + Long.BYTES;
+    private static final int META_OFFSET_LAYOUT_MINOR_VERSION = META_OFFSET_LAYOUT_MAJOR_VERSION + Integer.BYTES;
+    private static final int META_OFFSET_ROOT = META_OFFSET_LAYOUT_MINOR_VERSION + Integer.BYTES;
+    private static final int META_OFFSET_LAST_ID = META_OFFSET_ROOT + Long.BYTES;
+    private static final int META_OFFSET_CLEAN = META_OFFSET_LAST_ID + Long.BYTES;
+    private static final int META_OFFSET_GENERATION = META_OFFSET_CLEAN + Byte.BYTES;
+    private static final int META_OFFSET_USER_HEADER_LENGTH = META_OFFSET_GENERATION + Long.BYTES;
+    private static final int META_OFFSET_USER_HEADER = META_OFFSET_USER_HEADER_LENGTH + Integer.BYTES;
+
+    private final PagedFile pagedFile;
+    private final Layout<KEY,VALUE> layout;
+    private final int pageSize;
+    private final int keySizeLimit;
+    private final UndoLog undoLog;
+    private final boolean cleanOnOpen;
+    private final boolean restoredOnOpen;
+    private final ReentrantLock writerLock = new ReentrantLock();
+    private final ReentrantLock checkpointLock = new ReentrantLock();
+    private final TreeWriter writer;
+    private volatile long root;
+    private volatile boolean closed;
+
+    // Guarded by writerLock
+    private long lastId;
+    private boolean dirty;
+    private long modifications;
+    private byte[] userHeader;
+    private boolean checkpointFailed;
+
+    // State of the last checkpoint, as stored in the meta page. Guarded by writerLock
+    private long generation;
+    private long stableRoot;
+    private long stableLastId;
+
+    /**
+     * Opens the tree in {@code file}, creating it if it doesn't exist.
+     *
+     * @param pageCache {@link PageCache} to map the tree file in. Its page size is used as node size.
+     * @param file file containing the tree.
+     * @param layout {@link Layout} of the keys and values in the tree.
+     * @throws IOException on page cache error, or if the file contains a tree of a different format or layout.
+     */
+    public GBPTree( PageCache pageCache, File file, Layout<KEY,VALUE> layout ) throws IOException
+    {
+        this.layout = layout;
+        this.pageSize = pageCache.pageSize();
+        if ( pageSize > 0x10000 )
+        {
+            throw new IllegalArgumentException( "Page size " + pageSize + " is too large for tree nodes" );
+        }
+        this.keySizeLimit = keySizeLimit( pageSize, layout );
+        this.pagedFile = pageCache.map( file, pageSize, StandardOpenOption.CREATE );
+        UndoLog undoLog = null;
+        try
+        {
+            undoLog = new UndoLog( pageCache, file, pagedFile );
+            if ( pagedFile.getLastPageId() < META_PAGE_ID )
+            {
+                create();
+            }
+            else
+            {
+                readMeta( file );
+            }
+            this.cleanOnOpen = !dirty;
+            this.restoredOnOpen = dirty && undoLog.restore( generation );
+            if ( restoredOnOpen )
+            {
+                pagedFile.flushAndForce();
+            }
+            if ( cleanOnOpen || restoredOnOpen )
+            {
+                // The tree is now in the state of its last checkpoint, so treat this as a new checkpoint
+                generation++;
+                undoLog.begin( generation, lastId );
+                writeMeta( true );
+                pagedFile.flushAndForce();
+                dirty = false;
+            }
+        }
+        catch ( Throwable e )
+        {
+            // The tree is closed first, since flushing it forces the log
+            try
+            {
+                pagedFile.close();
+            }
+            finally
+            {
+                if ( undoLog != null )
+                {
+                    undoLog.close();
+                }
+            }
+            throw e;
+        }
+        this.undoLog = undoLog;
+        this.writer = new TreeWriter();
+    }
+
+    /**
+     * @return the maximum size of a key in this tree, in bytes as given by {@link Layout#keySize(Object)}.
+     */
+    public int keySizeLimit()
+    {
+        return keySizeLimit;
+    }
+
+    /**
+     * @param pageSize page size of the {@link PageCache} a tree is mapped in.
+     * @param layout {@link Layout} of the keys and values in a tree.
+     * @return the maximum size of a key in a tree with the given page size and layout, see {@link #keySizeLimit()}.
+     */
+    public static int keySizeLimit( int pageSize, Layout<?,?> layout )
+    {
+        return (pageSize - HEADER_SIZE) / 4 - SLOT_SIZE - KEY_SIZE_SIZE - max( layout.valueSize(), CHILD_SIZE );
+    }
+
+    /**
+     * @return whether or not this tree was cleanly {@link #checkpoint() checkpointed} before it was opened.
+     * If it wasn't, see {@link #wasRestoredOnOpen()}.
+     */
+    public boolean wasCleanOnOpen()
+    {
+        return cleanOnOpen;
+    }
+
+    /**
+     * @return whether or not this tree, which wasn't {@link #wasCleanOnOpen() cleanly checkpointed}, was restored
+     * to the state it had at its last checkpoint when it was opened. Changes made after that checkpoint are lost
+     * and must be reapplied. If it wasn't restored, its contents can't be trusted and it can't be written to.
+     */
+    public boolean wasRestoredOnOpen()
+    {
+        return restoredOnOpen;
+    }
+
+    /**
+     * @return a copy of the user data stored in the meta page of this tree, or an empty array if none.
+     */
+    public byte[] userHeader()
+    {
+        writerLock.lock();
+        try
+        {
+            return userHeader.clone();
+        }
+        finally
+        {
+            writerLock.unlock();
+        }
+    }
+
+    /**
+     * Durably stores user data in the meta page of this tree, e.g. the state of the structure the tree backs.
+     *
+     * @param header user data, at most the page size minus a few dozen bytes.
+     * @throws IOException on page cache error.
+     */
+    public void setUserHeader( byte[] header ) throws IOException
+    {
+        if ( header.length > pageSize - META_OFFSET_USER_HEADER )
+        {
+            throw new IllegalArgumentException( "User header of " + header.length + " bytes doesn't fit in the " +
+                    "meta page" );
+        }
+        writerLock.lock();
+        try
+        {
+            assertOpen();
+            userHeader = header.clone();
+            writeMeta( !dirty );
+            pagedFile.flushAndForce();
+        }
+        finally
+        {
+            writerLock.unlock();
+        }
+    }
+
+    /**
+     * Acquires the single writer of this tree, blocking until it's available.
+     *
+     * @return the {@link Writer}, which must be {@link Writer#close() closed} to release it.
+     */
+    public Writer<KEY,VALUE> writer()
+    {
+        writerLock.lock();
+        try
+        {
+            assertOpen();
+            if ( !cleanOnOpen && !restoredOnOpen )
+            {
+                throw new IllegalStateException( "Tree " + pagedFile.file() + " wasn't cleanly shut down and " +
+                        "needs to be recreated before it can be written to" );
+            }
+            if ( checkpointFailed )
+            {
+                throw new IllegalStateException( "Tree " + pagedFile.file() + " failed to checkpoint and needs " +
+                        "to be reopened before it can be written to" );
+            }
+        }
+        catch ( RuntimeException e )
+        {
+            writerLock.unlock();
+            throw e;
+        }
+        return writer;
+    }
+
+    /**
+     * Seeks the entries with keys in the range from {@code fromInclusive} to {@code toExclusive}, in key order.
+     * If {@code fromInclusive} is greater than {@code toExclusive} the seek goes backwards, in reverse key order.
+     * The returned {@link Seeker} will see all entries which were in the range when this method was called and
+     * weren't removed before it got to them.
+     *
+     * @param fromInclusive bound of the range where the seek starts, inclusive.
+     * @param toExclusive bound of the range where the seek ends, exclusive.
+     * @return {@link Seeker} over the entries in the range.
+     */
+    public Seeker<KEY,VALUE> seek( KEY fromInclusive, KEY toExclusive )
+    {
+        assertOpen();
+        return layout.compare( fromInclusive, toExclusive ) > 0
+               ? new BackwardSeekCursor( fromInclusive, toExclusive )
+               : new SeekCursor( fromInclusive, toExclusive );
+    }
+
+    /**
+     * Flushes all changes made so far, making the current state of the tree the one it's restored to if it isn't
+     * cleanly shut down, and, unless there were concurrent changes, marks the tree as clean.
+     * Writes can continue while the changes are flushed, they're logged as changes after this checkpoint.
+     *
+     * @throws IOException on page cache error.
+     */
+    public void checkpoint() throws IOException
+    {
+        if ( !cleanOnOpen && !restoredOnOpen )
+        {
+            return;
+        }
+        checkpointLock.lock();
+        try
+        {
+            long flushedModifications;
+            long checkpointRoot;
+            long checkpointLastId;
+            writerLock.lock();
+            try
+            {
+                assertOpen();
+                if ( !dirty || checkpointFailed )
+                {
+                    return;
+                }
+                flushedModifications = modifications;
+                checkpointRoot = root;
+                checkpointLastId = lastId;
+                undoLog.begin( generation + 1, lastId );
+            }
+            finally
+            {
+                writerLock.unlock();
+            }
+
+            try
+            {
+                pagedFile.flushAndForce();
+            }
+            catch ( IOException | RuntimeException e )
+            {
+                // Restoring to the last checkpoint now relies on the log of the generation just begun, which would
+                // be overwritten by the next attempt, so no more changes can be made
+                writerLock.lock();
+                try
+                {
+                    checkpointFailed = true;
+                }
+                finally
+                {
+                    writerLock.unlock();
+                }
+                throw e;
+            }
+
+            writerLock.lock();
+            try
+            {
+                generation++;
+                stableRoot = checkpointRoot;
+                stableLastId = checkpointLastId;
+                dirty = modifications != flushedModifications;
+                writeMeta( !dirty );
+                pagedFile.flushAndForce();
+            }
+            finally
+            {
+                writerLock.unlock();
+            }
+        }
+        finally
+        {
+            checkpointLock.unlock();
+        }
+    }
+
+    /**
+     * {@link #checkpoint() Checkpoints} and closes this tree.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if ( closed )
+        {
+            return;
+        }
+        try
+        {
+            checkpoint();
+        }
+        finally
+        {
+            closed = true;
+            // The tree is closed first, since flushing it forces the log
+            try
+            {
+                pagedFile.close();
+            }
+            finally
+            {
+                undoLog.close();
+            }
+        }
+    }
+
+    private void create() throws IOException
+    {
+        byte[] page = new byte[pageSize];
+        TreeNode.initialize( ByteBuffer.wrap( page ), LEAF );
+        writePage( FIRST_ROOT_ID, page );
+        root = stableRoot = FIRST_ROOT_ID;
+        lastId = stableLastId = FIRST_ROOT_ID;
+        userHeader = new byte[0];
+        writeMeta( true );
+        pagedFile.flushAndForce();
+    }
+
+    private void readMeta( File file ) throws IOException
+    {
+        byte[] page = new byte[pageSize];
+        readPage( META_PAGE_ID, page );
+        ByteBuffer meta = ByteBuffer.wrap( page );
+        if ( meta.getLong( META_OFFSET_MAGIC ) != MAGIC )
+        {
+            throw new IOException( file + " doesn't contain a tree" );
+        }
+        int formatVersion = meta.getInt( META_OFFSET_FORMAT_VERSION );
+        if ( formatVersion != FORMAT_VERSION )
+        {
+            throw new IOException( "Tree " + file + " has unsupported format version " + formatVersion +
+                    ", expected " + FORMAT_VERSION );
+        }
+        int storedPageSize = meta.getInt( META_OFFSET_PAGE_SIZE );
+        if ( storedPageSize != pageSize )
+        {
+            throw new IOException( "Tree " + file + " was created with page size " + storedPageSize +
+                    ", but the page cache has page size " + pageSize );
+        }
+        long layoutIdentifier = meta.getLong( META_OFFSET_LAYOUT_IDENTIFIER );
+        int layoutMajorVersion = meta.getInt( META_OFFSET_LAYOUT_MAJOR_VERSION );
+        if ( layoutIdentifier != layout.identifier() || layoutMajorVersion != layout.majorVersion() )
+        {
+            throw new IOException( "Tree " + file + " has layout " + layoutIdentifier + " version " +
+                    layoutMajorVersion + ", which doesn't match " + layout.identifier() + " version " +
+                    layout.majorVersion() );
+        }
+        root = stableRoot = meta.getLong( META_OFFSET_ROOT );
+        lastId = stableLastId = meta.getLong( META_OFFSET_LAST_ID );
+        dirty = meta.get( META_OFFSET_CLEAN ) == 0;
+        generation = meta.getLong( META_OFFSET_GENERATION );
+        int userHeaderLength = meta.getInt( META_OFFSET_USER_HEADER_LENGTH );
+        userHeader = Arrays.copyOfRange( page, META_OFFSET_USER_HEADER, META_OFFSET_USER_HEADER + userHeaderLength );
+    }
+
+    private void writeMeta( boolean clean ) throws IOException
+    {
+        byte[] page = new byte[pageSize];
+        ByteBuffer meta = ByteBuffer.wrap( page );
+        meta.putLong( META_OFFSET_MAGIC, MAGIC );
+        meta.putInt( META_OFFSET_FORMAT_VERSION, FORMAT_VERSION );
+        meta.putInt( META_OFFSET_PAGE_SIZE, pageSize );
+        meta.putLong( META_OFFSET_LAYOUT_IDENTIFIER, layout.identifier() );
+        meta.putInt( META_OFFSET_LAYOUT_MAJOR_VERSION, layout.majorVersion() );
+        meta.putInt( META_OFFSET_LAYOUT_MINOR_VERSION, layout.minorVersion() );
+        meta.putLong( META_OFFSET_ROOT, stableRoot );
+        meta.putLong( META_OFFSET_LAST_ID, stableLastId );
+        meta.put( META_OFFSET_CLEAN, (byte) (clean ? 1 : 0) );
+        meta.putLong( META_OFFSET_GENERATION, generation );
+        meta.putInt( META_OFFSET_USER_HEADER_LENGTH, userHeader.length );
+        System.arraycopy( userHeader, 0, page, META_OFFSET_USER_HEADER, userHeader.length );
+        writePage( META_PAGE_ID, page );
+    }
+
+    private void readPage( long pageId, byte[] into ) throws IOException
+    {
+        readPage( pagedFile, pageId, into );
+    }
+
+    private void writePage( long pageId, byte[] page ) throws IOException
+    {
+        writePage( pagedFile, pageId, page );
+    }
+
+    static void readPage( PagedFile pagedFile, long pageId, byte[] into ) throws IOException
+    {
+        try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_READ_LOCK ) )
+        {
+            if ( !cursor.next() )
+            {
+                throw new IllegalStateException( "Page " + pageId + " is outside of tree " + pagedFile.file() );
+            }
+            do
+            {
+                cursor.setOffset( 0 );
+                cursor.getBytes( into );
+            }
+            while ( cursor.shouldRetry() );
+        }
+    }
+
+    static void writePage( PagedFile pagedFile, long pageId, byte[] page ) throws IOException
+    {
+        try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_WRITE_LOCK ) )
+        {
+            if ( !cursor.next() )
+            {
+                throw new IllegalStateException( "Unable to write page " + pageId + " of tree " + pagedFile.file() );
+            }
+            cursor.putBytes( page );
+        }
+    }
+
+    private void readNode( long nodeId, byte[] into ) throws IOException
+    {
+        readPage( nodeId, into );
+        byte type = into[0];
+        if ( type != LEAF && type != INTERNAL )
+        {
+            throw new IllegalStateException( "Page " + nodeId + " of tree " + pagedFile.file() +
+                    " isn't a tree node, type " + type );
+        }
+    }
+
+    private void assertOpen()
+    {
+        if ( closed )
+        {
+            throw new IllegalStateException( "Tree " + pagedFile.file() + " has been closed" );
+        }
+    }
+
+    private class SeekCursor implements Seeker<KEY,VALUE>
+    {
+        private final KEY from;
+        private final KEY to;
+        private final byte[] page = new byte[pageSize];
+        private final ByteBuffer node = ByteBuffer.wrap( page );
+        private final VALUE value = layout.newValue();
+        private KEY key = layout.newKey();
+        private KEY scratch = layout.newKey();
+        private int pos;
+        private int keyCount;
+        private boolean started;
+        private boolean found;
+        private boolean done;
+
+        SeekCursor( KEY from, KEY to )
+        {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean next() throws IOException
+        {
+            if ( done )
+            {
+                return false;
+            }
+            if ( !started )
+            {
+                descend();
+                started = true;
+            }
+            while ( true )
+            {
+                if ( pos < keyCount )
+                {
+                    TreeNode.readKey( node, pos, layout, scratch );
+                    if ( layout.compare( scratch, to ) >= 0 )
+                    {
+                        done = true;
+                        return false;
+                    }
+                    KEY next = scratch;
+                    scratch = key;
+                    key = next;
+                    TreeNode.readValue( node, pos, layout, value );
+                    pos++;
+                    found = true;
+                    return true;
+                }
+
+                long rightSibling = TreeNode.rightSibling( node );
+                if ( rightSibling == NO_NODE )
+                {
+                    done = true;
+                    return false;
+                }
+                readNode( rightSibling, page );
+                positionInLeaf();
+            }
+        }
+
+        @Override
+        public KEY key()
+        {
+            return key;
+        }
+
+        @Override
+        public VALUE value()
+        {
+            return value;
+        }
+
+        private void descend() throws IOException
+        {
+            long nodeId = root;
+            readNode( nodeId, page );
+            while ( !TreeNode.isLeaf( node ) )
+            {
+                nodeId = TreeNode.child( node, TreeNode.positionAfter( node, from, layout, scratch ) );
+                readNode( nodeId, page );
+            }
+            positionInLeaf();
+        }
+
+        private void positionInLeaf()
+        {
+            // Entries may have moved right since the previous leaf was read, so continue after the last
+            // returned key rather than at the start of the next leaf
+            keyCount = TreeNode.keyCount( node );
+            pos = found
+                  ? TreeNode.positionAfter( node, key, layout, scratch )
+                  : TreeNode.positionOf( node, from, layout, scratch );
+        }
+    }
+
+    /**
+     * Seeks backwards. Leaves only know their right sibling, so the leaf before the current one is found by
+     * descending from the root again, looking for the keys before the lowest key which the current leaf can hold,
+     * as given by the separator key it was reached through.
+     */
+    private class BackwardSeekCursor implements Seeker<KEY,VALUE>
+    {
+        private final KEY from;
+        private final KEY to;
+        private final byte[] page = new byte[pageSize];
+        private final ByteBuffer node = ByteBuffer.wrap( page );
+        private final byte[] siblingPage = new byte[pageSize];
+        private final ByteBuffer sibling = ByteBuffer.wrap( siblingPage );
+        private final VALUE value = layout.newValue();
+        private final KEY target = layout.newKey();
+        private final KEY leftBound = layout.newKey();
+        private KEY key = layout.newKey();
+        private KEY scratch = layout.newKey();
+        private boolean hasLeftBound;
+        private int pos;
+        private boolean started;
+        private boolean done;
+
+        BackwardSeekCursor( KEY from, KEY to )
+        {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean next() throws IOException
+        {
+            if ( done )
+            {
+                return false;
+            }
+            if ( !started )
+            {
+                descend( from, true );
+                started = true;
+            }
+            while ( true )
+            {
+                if ( pos >= 0 )
+                {
+                    TreeNode.readKey( node, pos, layout, scratch );
+                    if ( layout.compare( scratch, to ) <= 0 )
+                    {
+                        done = true;
+                        return false;
+                    }
+                    KEY next = scratch;
+                    scratch = key;
+                    key = next;
+                    TreeNode.readValue( node, pos, layout, value );
+                    pos--;
+                    return true;
+                }
+
+                if ( !hasLeftBound )
+                {
+                    done = true;
+                    return false;
+                }
+                descend( leftBound, false );
+            }
+        }
+
+        @Override
+        public KEY key()
+        {
+            return key;
+        }
+
+        @Override
+        public VALUE value()
+        {
+            return value;
+        }
+
+        /**
+         * Positions this cursor at the last key in the tree which is before, or if {@code inclusive} also equal to,
+         * {@code bound}, remembering the lowest key the leaf it ends up in can hold.
+         */
+        private void descend( KEY bound, boolean inclusive ) throws IOException
+        {
+            layout.copyKey( bound, target );
+            hasLeftBound = false;
+            readNode( root, page );
+            while ( !TreeNode.isLeaf( node ) )
+            {
+                int childPos = inclusive
+                               ? TreeNode.positionAfter( node, target, layout, scratch )
+                               : TreeNode.positionOf( node, target, layout, scratch );
+                if ( childPos > 0 )
+                {
+                    TreeNode.readKey( node, childPos - 1, layout, leftBound );
+                    hasLeftBound = true;
+                }
+                readNode( TreeNode.child( node, childPos ), page );
+            }
+
+            // The leaf may have been split after its parent was read, moving the keys we're looking for to
+            // its right siblings
+            long rightSibling = TreeNode.rightSibling( node );
+            while ( rightSibling != NO_NODE )
+            {
+                readNode( rightSibling, siblingPage );
+                if ( TreeNode.keyCount( sibling ) > 0 )
+                {
+                    int comparison = layout.compare( TreeNode.readKey( sibling, 0, layout, scratch ), target );
+                    if ( comparison > 0 || (comparison == 0 && !inclusive) )
+                    {
+                        break;
+                    }
+                    System.arraycopy( siblingPage, 0, page, 0, pageSize );
+                    layout.copyKey( scratch, leftBound );
+                    hasLeftBound = true;
+                }
+                rightSibling = TreeNode.rightSibling( sibling );
+            }
+
+            pos = (inclusive
+                   ? TreeNode.positionAfter( node, target, layout, scratch )
+                   : TreeNode.positionOf( node, target, layout, scratch )) - 1;
+        }
+    }
+
+    private class TreeWriter implements Writer<KEY,VALUE>
+    {
+        private final byte[] nodePage = new byte[pageSize];
+        private final ByteBuffer node = ByteBuffer.wrap( nodePage );
+        private final byte[] rightPage = new byte[pageSize];
+        private final ByteBuffer right = ByteBuffer.wrap( rightPage );
+        private final byte[] scratchPage = new byte[pageSize];
+        private final byte[] entry = new byte[pageSize];
+        private final ByteBuffer entryBuffer = ByteBuffer.wrap( entry );
+        private final long[] pathIds = new long[MAX_DEPTH];
+        private final int[] pathPositions = new int[MAX_DEPTH];
+        private final KEY scratchKey = layout.newKey();
+        private final VALUE scratchValue = layout.newValue();
+        private int entryLength;
+
+        @Override
+        public void put( KEY key, VALUE value ) throws IOException
+        {
+            int keySize = checkKeySize( key );
+            beginModification();
+            int depth = descendToLeaf( key );
+            int pos = TreeNode.search( node, key, layout, scratchKey );
+            if ( pos >= 0 )
+            {
+                TreeNode.overwriteValue( node, pos, layout, value );
+                writeNode( pathIds[depth], nodePage );
+                return;
+            }
+            insertNew( depth, -pos - 1, key, keySize, value );
+        }
+
+        @Override
+        public void merge( KEY key, VALUE value, ValueMerger<VALUE> merger ) throws IOException
+        {
+            int keySize = checkKeySize( key );
+            int depth = descendToLeaf( key );
+            int pos = TreeNode.search( node, key, layout, scratchKey );
+            if ( pos < 0 )
+            {
+                if ( value != null )
+                {
+                    beginModification();
+                    insertNew( depth, -pos - 1, key, keySize, value );
+                }
+                return;
+            }
+
+            beginModification();
+            TreeNode.readValue( node, pos, layout, scratchValue );
+            VALUE mergedValue = merger.merge( scratchValue, value );
+            if ( mergedValue == null )
+            {
+                TreeNode.removeEntry( node, pos, layout.valueSize() );
+            }
+            else
+            {
+                TreeNode.overwriteValue( node, pos, layout, mergedValue );
+            }
+            writeNode( pathIds[depth], nodePage );
+        }
+
+        @Override
+        public boolean remove( KEY key, VALUE removedValue ) throws IOException
+        {
+            int depth = descendToLeaf( key );
+            int pos = TreeNode.search( node, key, layout, scratchKey );
+            if ( pos < 0 )
+            {
+                return false;
+            }
+
+            beginModification();
+            if ( removedValue != null )
+            {
+                TreeNode.readValue( node, pos, layout, removedValue );
+            }
+            TreeNode.removeEntry( node, pos, layout.valueSize() );
+            writeNode( pathIds[depth], nodePage );
+            return true;
+        }
+
+        @Override
+        public void close()
+        {
+            writerLock.unlock();
+        }
+
+        private int checkKeySize( KEY key )
+        {
+            int keySize = layout.keySize( key );
+            if ( keySize > keySizeLimit )
+            {
+                throw new IllegalArgumentException( "Key of " + keySize + " bytes exceeds the limit of " +
+                        keySizeLimit + " bytes for tree " + pagedFile.file() );
+            }
+            return keySize;
+        }
+
+        private void insertNew( int depth, int pos, KEY key, int keySize, VALUE value ) throws IOException
+        {
+            entryBuffer.clear();
+            entryBuffer.putShort( (short) keySize );
+            layout.writeKey( entryBuffer, key );
+            layout.writeValue( entryBuffer, value );
+            entryLength = entryBuffer.position();
+            insert( depth, pos, layout.valueSize() );
+        }
+
+        private void beginModification() throws IOException
+        {
+            if ( !dirty )
+            {
+                writeMeta( false );
+                pagedFile.flushAndForce();
+                dirty = true;
+            }
+            modifications++;
+        }
+
+        /**
+         * Writes a node, first logging its contents at the last checkpoint if it existed then.
+         */
+        private void writeNode( long nodeId, byte[] page ) throws IOException
+        {
+            undoLog.beforeWrite( nodeId );
+            writePage( nodeId, page );
+        }
+
+        private int descendToLeaf( KEY key ) throws IOException
+        {
+            int depth = 0;
+            long nodeId = root;
+            readNode( nodeId, nodePage );
+            while ( !TreeNode.isLeaf( node ) )
+            {
+                int pos = TreeNode.positionAfter( node, key, layout, scratchKey );
+                pathIds[depth] = nodeId;
+                pathPositions[depth] = pos;
+                depth++;
+                nodeId = TreeNode.child( node, pos );
+                readNode( nodeId, nodePage );
+            }
+            pathIds[depth] = nodeId;
+            return depth;
+        }
+
+        /**
+         * Inserts the raw entry in {@link #entry} at {@code pos} in the node at {@code depth}, currently in
+         * {@link #node}, splitting nodes upwards as needed.
+         */
+        private void insert( int depth, int pos, int tailSize ) throws IOException
+        {
+            while ( true )
+            {
+                int required = entryLength + SLOT_SIZE;
+                if ( TreeNode.freeSpace( node ) < required &&
+                     TreeNode.freeSpace( node ) + TreeNode.deadSpace( node ) >= required )
+                {
+                    TreeNode.compact( node, tailSize, scratchPage );
+                }
+                if ( TreeNode.freeSpace( node ) >= required )
+                {
+                    TreeNode.insertEntry( node, pos, entry, entryLength );
+                    writeNode( pathIds[depth], nodePage );
+                    return;
+                }
+
+                split( pathIds[depth], pos, tailSize );
+                if ( depth == 0 )
+                {
+                    newRoot( pathIds[depth] );
+                    return;
+                }
+                depth--;
+                readNode( pathIds[depth], nodePage );
+                pos = pathPositions[depth];
+                tailSize = CHILD_SIZE;
+            }
+        }
+
+        /**
+         * Splits the node in {@link #node}, including the new entry in {@link #entry}, into itself and a new
+         * right sibling. Leaves {@link #entry} containing the separator key and the id of the new node, to be
+         * inserted into the parent.
+         */
+        private void split( long nodeId, int pos, int tailSize ) throws IOException
+        {
+            boolean leaf = TreeNode.isLeaf( node );
+            int keyCount = TreeNode.keyCount( node );
+            byte[][] entries = new byte[keyCount + 1][];
+            int totalSize = 0;
+            for ( int i = 0, source = 0; i < entries.length; i++ )
+            {
+                entries[i] = i == pos
+                             ? Arrays.copyOf( entry, entryLength )
+                             : TreeNode.copyEntry( node, source++, tailSize );
+                totalSize += entries[i].length + SLOT_SIZE;
+            }
+
+            int splitPos = 0;
+            int leftSize = 0;
+            while ( splitPos < entries.length - 1 &&
+                    (splitPos == 0 || leftSize + entries[splitPos].length + SLOT_SIZE <= totalSize / 2) )
+            {
+                leftSize += entries[splitPos].length + SLOT_SIZE;
+                splitPos++;
+            }
+
+            long rightId = ++lastId;
+            byte[] separator = entries[splitPos];
+            TreeNode.initialize( right, leaf ? LEAF : INTERNAL );
+            TreeNode.setRightSibling( right, TreeNode.rightSibling( node ) );
+            int rightStart = splitPos;
+            if ( !leaf )
+            {
+                TreeNode.setLeftmostChild( right, TreeNode.entryChild( separator ) );
+                rightStart++;
+            }
+            for ( int i = rightStart; i < entries.length; i++ )
+            {
+                TreeNode.insertEntry( right, i - rightStart, entries[i], entries[i].length );
+            }
+            writeNode( rightId, rightPage );
+
+            long leftmostChild = TreeNode.leftmostChild( node );
+            TreeNode.initialize( node, leaf ? LEAF : INTERNAL );
+            TreeNode.setLeftmostChild( node, leftmostChild );
+            TreeNode.setRightSibling( node, rightId );
+            for ( int i = 0; i < splitPos; i++ )
+            {
+                TreeNode.insertEntry( node, i, entries[i], entries[i].length );
+            }
+            writeNode( nodeId, nodePage );
+
+            int separatorKeyLength = KEY_SIZE_SIZE + TreeNode.entryKeySize( separator );
+            System.arraycopy( separator, 0, entry, 0, separatorKeyLength );
+            entryBuffer.putLong( separatorKeyLength, rightId );
+            entryLength = separatorKeyLength + CHILD_SIZE;
+        }
+
+        private void newRoot( long leftId ) throws IOException
+        {
+            long rootId = ++lastId;
+            TreeNode.initialize( node, INTERNAL );
+            TreeNode.setLeftmostChild( node, leftId );
+            TreeNode.insertEntry( node, 0, entry, entryLength );
+            writeNode( rootId, nodePage );
+            root = rootId;
+        }
+    }
+}
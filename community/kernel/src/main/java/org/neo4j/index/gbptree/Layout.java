@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.gbptree;
+
+import java.nio.ByteBuffer;
+import java.util.Comparator;
+
+/**
+ * Describes the keys and values stored in a {@link GBPTree}, i.e. how they are compared, created and
+ * serialized to and from the tree nodes. Keys may vary in size, up to {@link GBPTree#keySizeLimit()} bytes,
+ * whereas all values have the same {@link #valueSize() size}.
+ * <p>
+ * Keys and values are mutable instances which the tree reads into, which means that a single instance
+ * can be reused for a whole seek.
+ *
+ * @param <KEY> type of key
+ * @param <VALUE> type of value
+ */
+public interface Layout<KEY,VALUE> extends Comparator<KEY>
+{
+    /**
+     * @return a new key instance, to be read into or initialized by the user.
+     */
+    KEY newKey();
+
+    /**
+     * Copies the contents of {@code key} into {@code into}.
+     *
+     * @param key key to copy.
+     * @param into key instance to copy into.
+     * @return the {@code into} instance, for convenience.
+     */
+    KEY copyKey( KEY key, KEY into );
+
+    /**
+     * @return a new value instance, to be read into or initialized by the user.
+     */
+    VALUE newValue();
+
+    /**
+     * @param key key to get the serialized size of.
+     * @return number of bytes {@code key} occupies when written by {@link #writeKey(ByteBuffer, Object)}.
+     */
+    int keySize( KEY key );
+
+    /**
+     * @return number of bytes every value occupies when written by {@link #writeValue(ByteBuffer, Object)}.
+     */
+    int valueSize();
+
+    void writeKey( ByteBuffer buffer, KEY key );
+
+    void writeValue( ByteBuffer buffer, VALUE value );
+
+    /**
+     * Reads a key previously written by {@link #writeKey(ByteBuffer, Object)} into {@code into}.
+     *
+     * @param buffer buffer positioned at the start of the key.
+     * @param into key instance to read into.
+     * @param keySize number of bytes the key occupies, as given by {@link #keySize(Object)} when it was written.
+     */
+    void readKey( ByteBuffer buffer, KEY into, int keySize );
+
+    void readValue( ByteBuffer buffer, VALUE into );
+
+    /**
+     * @return an identifier of this layout, stored in the tree file and verified when opening it.
+     */
+    long identifier();
+
+    /**
+     * @return major version of this layout. A tree can only be opened by a layout with the same major version.
+     */
+    int majorVersion();
+
+    /**
+     * @return minor version of this layout, stored in the tree file for information.
+     */
+    int minorVersion();
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.gbptree;
+
+import java.io.IOException;
+
+/**
+ * Result of {@link GBPTree#seek(Object, Object)}, moving through the entries in key order, or in reverse key order
+ * for a backward seek.
+ * The {@link #key()} and {@link #value()} instances are reused between calls to {@link #next()}.
+ * <p>
+ * Entries are read one tree node at a time, each node being read atomically. A seek never holds on to
+ * any page cache resources between calls and so doesn't need to be closed.
+ *
+ * @param <KEY> type of key
+ * @param <VALUE> type of value
+ */
+public interface Seeker<KEY,VALUE>
+{
+    /**
+     * Moves to the next entry in the seek range.
+     *
+     * @return {@code true} if there was a next entry, which is then available in {@link #key()} and
+     * {@link #value()}, otherwise {@code false}.
+     * @throws IOException on page cache error.
+     */
+    boolean next() throws IOException;
+
+    KEY key();
+
+    VALUE value();
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.gbptree;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Methods for reading and manipulating a single tree node, given as a heap {@link ByteBuffer} wrapping
+ * a copy of its page. A node looks like this:
+ * <pre>
+ * [type|keyCount|allocOffset|deadSpace|rightSibling|leftmostChild|slot0|slot1|... free ...|entries]
+ * </pre>
+ * Slots are 2-byte offsets to the entries, kept in key order. Entries are allocated from the end of
+ * the page towards the slots and consist of the key size, the key and then either the value, in leaves,
+ * or the id of the child to the right of the key, in internal nodes. Removing an entry only removes its
+ * slot; the space the entry occupied is reclaimed by {@link #compact(ByteBuffer, int, byte[]) compacting}
+ * the node when that space is needed.
+ */
+final class TreeNode
+{
+    static final byte LEAF = 1;
+    static final byte INTERNAL = 2;
+    static final long NO_NODE = -1;
+
+    private static final int OFFSET_TYPE = 0;
+    private static final int OFFSET_KEY_COUNT = OFFSET_TYPE + Byte.BYTES;
+    private static final int OFFSET_ALLOC = OFFSET_KEY_COUNT + Integer.BYTES;
+    private static final int OFFSET_DEAD_SPACE = OFFSET_ALLOC + Integer.BYTES;
+    private static final int OFFSET_RIGHT_SIBLING = OFFSET_DEAD_SPACE + Integer.BYTES;
+    private static final int OFFSET_LEFTMOST_CHILD = OFFSET_RIGHT_SIBLING + Long.BYTES;
+    static final int HEADER_SIZE = OFFSET_LEFTMOST_CHILD + Long.BYTES;
+    static final int SLOT_SIZE = Short.BYTES;
+    static final int KEY_SIZE_SIZE = Short.BYTES;
+    static final int CHILD_SIZE = Long.BYTES;
+
+    private TreeNode()
+    {
+    }
+
+    static void initialize( ByteBuffer node, byte type )
+    {
+        node.put( OFFSET_TYPE, type );
+        node.putInt( OFFSET_KEY_COUNT, 0 );
+        node.putInt( OFFSET_ALLOC, node.capacity() );
+        node.putInt( OFFSET_DEAD_SPACE, 0 );
+        node.putLong( OFFSET_RIGHT_SIBLING, NO_NODE );
+        node.putLong( OFFSET_LEFTMOST_CHILD, NO_NODE );
+    }
+
+    static byte type( ByteBuffer node )
+    {
+        return node.get( OFFSET_TYPE );
+    }
+
+    static boolean isLeaf( ByteBuffer node )
+    {
+        return type( node ) == LEAF;
+    }
+
+    static int keyCount( ByteBuffer node )
+    {
+        return node.getInt( OFFSET_KEY_COUNT );
+    }
+
+    static long rightSibling( ByteBuffer node )
+    {
+        return node.getLong( OFFSET_RIGHT_SIBLING );
+    }
+
+    static void setRightSibling( ByteBuffer node, long rightSibling )
+    {
+        node.putLong( OFFSET_RIGHT_SIBLING, rightSibling );
+    }
+
+    static long leftmostChild( ByteBuffer node )
+    {
+        return node.getLong( OFFSET_LEFTMOST_CHILD );
+    }
+
+    static void setLeftmostChild( ByteBuffer node, long child )
+    {
+        node.putLong( OFFSET_LEFTMOST_CHILD, child );
+    }
+
+    static int freeSpace( ByteBuffer node )
+    {
+        return node.getInt( OFFSET_ALLOC ) - HEADER_SIZE - keyCount( node ) * SLOT_SIZE;
+    }
+
+    static int deadSpace( ByteBuffer node )
+    {
+        return node.getInt( OFFSET_DEAD_SPACE );
+    }
+
+    static <KEY> KEY readKey( ByteBuffer node, int pos, Layout<KEY,?> layout, KEY into )
+    {
+        int offset = entryOffset( node, pos );
+        node.position( offset + KEY_SIZE_SIZE );
+        layout.readKey( node, into, keySizeAt( node, offset ) );
+        return into;
+    }
+
+    static <VALUE> VALUE readValue( ByteBuffer node, int pos, Layout<?,VALUE> layout, VALUE into )
+    {
+        int offset = entryOffset( node, pos );
+        node.position( offset + KEY_SIZE_SIZE + keySizeAt( node, offset ) );
+        layout.readValue( node, into );
+        return into;
+    }
+
+    static <VALUE> void overwriteValue( ByteBuffer node, int pos, Layout<?,VALUE> layout, VALUE value )
+    {
+        int offset = entryOffset( node, pos );
+        node.position( offset + KEY_SIZE_SIZE + keySizeAt( node, offset ) );
+        layout.writeValue( node, value );
+    }
+
+    /**
+     * @param node internal node.
+     * @param pos child position, where {@code 0} is the leftmost child and {@code n} the child to the
+     * right of key {@code n - 1}.
+     * @return id of the child at the given position.
+     */
+    static long child( ByteBuffer node, int pos )
+    {
+        if ( pos == 0 )
+        {
+            return leftmostChild( node );
+        }
+        int offset = entryOffset( node, pos - 1 );
+        return node.getLong( offset + KEY_SIZE_SIZE + keySizeAt( node, offset ) );
+    }
+
+    /**
+     * Binary search for {@code key} among the keys in {@code node}.
+     *
+     * @return position of the key if found, otherwise {@code -(insertionPoint) - 1}.
+     */
+    static <KEY> int search( ByteBuffer node, KEY key, Layout<KEY,?> layout, KEY scratch )
+    {
+        int low = 0;
+        int high = keyCount( node ) - 1;
+        while ( low <= high )
+        {
+            int mid = (low + high) >>> 1;
+            int comparison = layout.compare( readKey( node, mid, layout, scratch ), key );
+            if ( comparison < 0 )
+            {
+                low = mid + 1;
+            }
+            else if ( comparison > 0 )
+            {
+                high = mid - 1;
+            }
+            else
+            {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * @return position of the first key in {@code node} which is greater than or equal to {@code key}.
+     */
+    static <KEY> int positionOf( ByteBuffer node, KEY key, Layout<KEY,?> layout, KEY scratch )
+    {
+        int pos = search( node, key, layout, scratch );
+        return pos >= 0 ? pos : -pos - 1;
+    }
+
+    /**
+     * @return position of the first key in {@code node} which is greater than {@code key}. For internal nodes
+     * this is also the position of the child which covers {@code key}.
+     */
+    static <KEY> int positionAfter( ByteBuffer node, KEY key, Layout<KEY,?> layout, KEY scratch )
+    {
+        int pos = search( node, key, layout, scratch );
+        return pos >= 0 ? pos + 1 : -pos - 1;
+    }
+
+    /**
+     * Inserts a raw entry, i.e. key size, key and value or child, at {@code pos}. The caller must make sure
+     * there's {@link #freeSpace(ByteBuffer) room} for the entry and its slot.
+     */
+    static void insertEntry( ByteBuffer node, int pos, byte[] entry, int entryLength )
+    {
+        byte[] array = node.array();
+        int keyCount = keyCount( node );
+        int alloc = node.getInt( OFFSET_ALLOC ) - entryLength;
+        System.arraycopy( entry, 0, array, alloc, entryLength );
+        node.putInt( OFFSET_ALLOC, alloc );
+        int slot = slotOffset( pos );
+        System.arraycopy( array, slot, array, slot + SLOT_SIZE, (keyCount - pos) * SLOT_SIZE );
+        node.putShort( slot, (short) alloc );
+        node.putInt( OFFSET_KEY_COUNT, keyCount + 1 );
+    }
+
+    static void removeEntry( ByteBuffer node, int pos, int tailSize )
+    {
+        byte[] array = node.array();
+        int keyCount = keyCount( node );
+        node.putInt( OFFSET_DEAD_SPACE, deadSpace( node ) + entrySize( node, pos, tailSize ) );
+        int slot = slotOffset( pos );
+        System.arraycopy( array, slot + SLOT_SIZE, array, slot, (keyCount - pos - 1) * SLOT_SIZE );
+        node.putInt( OFFSET_KEY_COUNT, keyCount - 1 );
+    }
+
+    /**
+     * @return a copy of the raw entry at {@code pos}, as accepted by {@link #insertEntry(ByteBuffer, int, byte[], int)}.
+     */
+    static byte[] copyEntry( ByteBuffer node, int pos, int tailSize )
+    {
+        int offset = entryOffset( node, pos );
+        byte[] entry = new byte[KEY_SIZE_SIZE + keySizeAt( node, offset ) + tailSize];
+        System.arraycopy( node.array(), offset, entry, 0, entry.length );
+        return entry;
+    }
+
+    /**
+     * Moves all live entries to the end of the page, making the space of removed entries available again.
+     *
+     * @param scratch array of at least the node size, used for the duration of this call.
+     */
+    static void compact( ByteBuffer node, int tailSize, byte[] scratch )
+    {
+        byte[] array = node.array();
+        System.arraycopy( array, 0, scratch, 0, array.length );
+        ByteBuffer source = ByteBuffer.wrap( scratch );
+        int keyCount = keyCount( node );
+        int alloc = array.length;
+        for ( int pos = 0; pos < keyCount; pos++ )
+        {
+            int offset = entryOffset( source, pos );
+            int size = KEY_SIZE_SIZE + keySizeAt( source, offset ) + tailSize;
+            alloc -= size;
+            System.arraycopy( scratch, offset, array, alloc, size );
+            node.putShort( slotOffset( pos ), (short) alloc );
+        }
+        node.putInt( OFFSET_ALLOC, alloc );
+        node.putInt( OFFSET_DEAD_SPACE, 0 );
+    }
+
+    static int entryKeySize( byte[] entry )
+    {
+        return ((entry[0] & 0xFF) << 8) | (entry[1] & 0xFF);
+    }
+
+    static long entryChild( byte[] entry )
+    {
+        return ByteBuffer.wrap( entry ).getLong( KEY_SIZE_SIZE + entryKeySize( entry ) );
+    }
+
+    private static int entrySize( ByteBuffer node, int pos, int tailSize )
+    {
+        return KEY_SIZE_SIZE + keySizeAt( node, entryOffset( node, pos ) ) + tailSize;
+    }
+
+    private static int entryOffset( ByteBuffer node, int pos )
+    {
+        return node.getShort( slotOffset( pos ) ) & 0xFFFF;
+    }
+
+    private static int keySizeAt( ByteBuffer node, int entryOffset )
+    {
+        return node.getShort( entryOffset ) & 0xFFFF;
+    }
+
+    private static int slotOffset( int pos )
+    {
+        return HEADER_SIZE + pos * SLOT_SIZE;
+    }
+}
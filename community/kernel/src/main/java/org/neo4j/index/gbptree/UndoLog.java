@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.gbptree;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.CRC32;
+
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongSet;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PagedFile;
+
+import static org.neo4j.index.gbptree.GBPTree.readPage;
+import static org.neo4j.index.gbptree.GBPTree.writePage;
+
+/**
+ * Keeps the contents which the pages of a {@link GBPTree} had at the start of a generation, i.e. at a
+ * {@link GBPTree#checkpoint() checkpoint}, so that a tree which wasn't cleanly shut down can be restored to
+ * the state it had then. Before a page which existed at the start of the current generation is changed for
+ * the first time, its contents are written to the log. The log is the {@link PagedFile#setFlushBarrier(Flushable)
+ * flush barrier} of the tree, so records are forced together, once before any page of the tree is written to
+ * its file, and the page cache can never flush a change whose before-image may be lost.
+ * <p>
+ * A generation is logged in one of two files, depending on its parity, since the previous generation must be
+ * kept until a checkpoint has flushed all the changes made during it. Each file starts with a page holding the
+ * generation and a random identifier, followed by pairs of pages: a record header with the identifier,
+ * sequence number, page id and checksum of the before-image, and the before-image itself. The identifier and
+ * checksum tell valid records apart from what earlier generations, or trees in the same file, left behind.
+ */
+class UndoLog implements Closeable
+{
+    private static final long MAGIC = 0x4742_5055_6e64_6f31L; // "GBPUndo1"
+
+    private static final int START_OFFSET_MAGIC = 0;
+    private static final int START_OFFSET_GENERATION = START_OFFSET_MAGIC + Long.BYTES;
+    private static final int START_OFFSET_IDENTIFIER = START_OFFSET_GENERATION + Long.BYTES;
+
+    private static final int RECORD_OFFSET_IDENTIFIER = 0;
+    private static final int RECORD_OFFSET_SEQUENCE = RECORD_OFFSET_IDENTIFIER + Long.BYTES;
+    private static final int RECORD_OFFSET_PAGE_ID = RECORD_OFFSET_SEQUENCE + Integer.BYTES;
+    private static final int RECORD_OFFSET_CHECKSUM = RECORD_OFFSET_PAGE_ID + Long.BYTES;
+
+    private final PagedFile tree;
+    private final PagedFile[] files = new PagedFile[2];
+    private final byte[] headerPage;
+    private final ByteBuffer header;
+    private final byte[] imagePage;
+    private final CRC32 checksum = new CRC32();
+    private final PrimitiveLongSet loggedPageIds = Primitive.longSet();
+
+    // The generation currently being logged
+    private PagedFile file;
+    private long identifier;
+    private int records;
+    private int forcedRecords;
+    private long lastLoggedPageId = -1;
+
+    /**
+     * @param pageCache {@link PageCache} to map the log files in.
+     * @param treeFile file of the tree, next to which the log files are kept.
+     * @param tree the tree file mapped in {@code pageCache}.
+     * @throws IOException on page cache error.
+     */
+    UndoLog( PageCache pageCache, File treeFile, PagedFile tree ) throws IOException
+    {
+        this.tree = tree;
+        int pageSize = tree.pageSize();
+        this.headerPage = new byte[pageSize];
+        this.header = ByteBuffer.wrap( headerPage );
+        this.imagePage = new byte[pageSize];
+        try
+        {
+            for ( int i = 0; i < files.length; i++ )
+            {
+                files[i] = pageCache.map( new File( treeFile.getPath() + ".undo" + i ), pageSize,
+                        StandardOpenOption.CREATE );
+            }
+            tree.setFlushBarrier( this::force );
+        }
+        catch ( Throwable e )
+        {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Restores the pages of the tree to the contents they had at the start of {@code generation}, which is
+     * the generation of the last checkpoint. Changes of the next generation may also have been flushed, if the
+     * tree was changed while it was being checkpointed, so those are undone first.
+     *
+     * @param generation generation to restore the tree to.
+     * @return {@code false} if the log of {@code generation} is missing and the tree can't be restored,
+     * otherwise {@code true}.
+     * @throws IOException on page cache error.
+     */
+    boolean restore( long generation ) throws IOException
+    {
+        if ( !isStartOf( fileOf( generation ), generation ) )
+        {
+            return false;
+        }
+        PagedFile next = fileOf( generation + 1 );
+        if ( isStartOf( next, generation + 1 ) )
+        {
+            restoreFrom( next );
+        }
+        restoreFrom( fileOf( generation ) );
+        return true;
+    }
+
+    /**
+     * Starts logging a new generation, from now on logging the before-image of any page up to
+     * {@code lastPageId} the first time it's {@link #beforeWrite(long) written}. The start of the new generation
+     * is forced before this method returns, which means that the log of the generation before the previous one
+     * is overwritten and that the tree must not be restored to it from now on.
+     *
+     * @param generation the new generation.
+     * @param lastPageId highest id of the pages in the tree at the start of the new generation.
+     * @throws IOException on page cache error.
+     */
+    synchronized void begin( long generation, long lastPageId ) throws IOException
+    {
+        // Changes of the ending generation are yet to be flushed, by the checkpoint beginning this generation
+        force();
+        file = fileOf( generation );
+        identifier = ThreadLocalRandom.current().nextLong();
+        records = 0;
+        forcedRecords = 0;
+        lastLoggedPageId = lastPageId;
+        loggedPageIds.clear();
+
+        Arrays.fill( headerPage, (byte) 0 );
+        header.putLong( START_OFFSET_MAGIC, MAGIC );
+        header.putLong( START_OFFSET_GENERATION, generation );
+        header.putLong( START_OFFSET_IDENTIFIER, identifier );
+        writePage( file, 0, headerPage );
+        file.flushAndForce();
+    }
+
+    /**
+     * Called before the page with {@code pageId} of the tree is written, to log its current contents if it hasn't
+     * been written to since the start of the current generation. The record is forced before the page is flushed.
+     *
+     * @param pageId id of the page about to be written.
+     * @throws IOException on page cache error.
+     */
+    void beforeWrite( long pageId ) throws IOException
+    {
+        if ( pageId > lastLoggedPageId || !loggedPageIds.add( pageId ) )
+        {
+            return;
+        }
+
+        // Read without holding the monitor, since a thread evicting the page holds it locked while forcing the log
+        readPage( tree, pageId, imagePage );
+        synchronized ( this )
+        {
+            Arrays.fill( headerPage, (byte) 0 );
+            header.putLong( RECORD_OFFSET_IDENTIFIER, identifier );
+            header.putInt( RECORD_OFFSET_SEQUENCE, records );
+            header.putLong( RECORD_OFFSET_PAGE_ID, pageId );
+            header.putLong( RECORD_OFFSET_CHECKSUM, checksum( pageId, imagePage ) );
+            writePage( file, 1 + 2L * records, headerPage );
+            writePage( file, 2 + 2L * records, imagePage );
+            records++;
+        }
+    }
+
+    /**
+     * Forces the records logged since the last force. This is the flush barrier of the tree, flushed by the page
+     * cache before it writes any page of the tree, be it by a checkpoint or by eviction. A crash may lose or tear
+     * records which weren't forced, but none of the changes following them were written then, so a restore can
+     * stop at the first of them.
+     *
+     * @throws IOException on page cache error.
+     */
+    synchronized void force() throws IOException
+    {
+        if ( forcedRecords != records )
+        {
+            file.flushAndForce();
+            forcedRecords = records;
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        tree.setFlushBarrier( null );
+        IOException error = null;
+        for ( PagedFile pagedFile : files )
+        {
+            try
+            {
+                if ( pagedFile != null )
+                {
+                    pagedFile.close();
+                }
+            }
+            catch ( IOException e )
+            {
+                error = error == null ? e : error;
+            }
+        }
+        if ( error != null )
+        {
+            throw error;
+        }
+    }
+
+    private PagedFile fileOf( long generation )
+    {
+        return files[(int) (generation & 1)];
+    }
+
+    private boolean isStartOf( PagedFile log, long generation ) throws IOException
+    {
+        if ( log.getLastPageId() < 0 )
+        {
+            return false;
+        }
+        readPage( log, 0, headerPage );
+        return header.getLong( START_OFFSET_MAGIC ) == MAGIC &&
+               header.getLong( START_OFFSET_GENERATION ) == generation;
+    }
+
+    /**
+     * Writes back the before-images in {@code log}, in sequence until the first record which doesn't belong to
+     * its generation. Such a record, e.g. one torn by a crash, was never followed by a change to its page.
+     */
+    private void restoreFrom( PagedFile log ) throws IOException
+    {
+        readPage( log, 0, headerPage );
+        long logIdentifier = header.getLong( START_OFFSET_IDENTIFIER );
+        long lastPageId = log.getLastPageId();
+        for ( int sequence = 0; 2 + 2L * sequence <= lastPageId; sequence++ )
+        {
+            readPage( log, 1 + 2L * sequence, headerPage );
+            readPage( log, 2 + 2L * sequence, imagePage );
+            long pageId = header.getLong( RECORD_OFFSET_PAGE_ID );
+            if ( header.getLong( RECORD_OFFSET_IDENTIFIER ) != logIdentifier ||
+                 header.getInt( RECORD_OFFSET_SEQUENCE ) != sequence ||
+                 header.getLong( RECORD_OFFSET_CHECKSUM ) != checksum( pageId, imagePage ) )
+            {
+                return;
+            }
+            writePage( tree, pageId, imagePage );
+        }
+    }
+
+    private long checksum( long pageId, byte[] image )
+    {
+        checksum.reset();
+        checksum.update( image );
+        return checksum.getValue() ^ (pageId << 32);
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.gbptree;
+
+/**
+ * Decides the outcome of {@link Writer#merge(Object, Object, ValueMerger) merging} a value into an existing entry.
+ *
+ * @param <VALUE> type of value
+ */
+public interface ValueMerger<VALUE>
+{
+    /**
+     * @param existingValue value currently associated with the key.
+     * @param newValue value given to {@link Writer#merge(Object, Object, ValueMerger)}, may be {@code null}.
+     * @return the value to associate with the key from now on, which may be {@code existingValue} modified in place,
+     * or {@code null} if the entry should be removed.
+     */
+    VALUE merge( VALUE existingValue, VALUE newValue );
+}
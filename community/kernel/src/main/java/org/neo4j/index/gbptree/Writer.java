@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.gbptree;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Able to insert and remove entries in a {@link GBPTree}. There can be only one writer at any given time,
+ * acquired using {@link GBPTree#writer()} and released by {@link #close() closing} it.
+ *
+ * @param <KEY> type of key
+ * @param <VALUE> type of value
+ */
+public interface Writer<KEY,VALUE> extends Closeable
+{
+    /**
+     * Associates {@code value} with {@code key}, overwriting any value already associated with it.
+     *
+     * @param key key to associate with value.
+     * @param value value to associate with key.
+     * @throws IOException on page cache error.
+     * @throws IllegalArgumentException if the key is larger than {@link GBPTree#keySizeLimit()}.
+     */
+    void put( KEY key, VALUE value ) throws IOException;
+
+    /**
+     * Associates {@code value} with {@code key} if there's no entry for it, otherwise lets {@code merger} decide
+     * the new value of the existing entry, or whether to remove it. The entry is updated in place in its leaf.
+     * A {@code null} value only updates an existing entry and never inserts one.
+     *
+     * @param key key to merge value for.
+     * @param value value to associate with key, or to merge with an existing value. May be {@code null}.
+     * @param merger decides the new value of an existing entry.
+     * @throws IOException on page cache error.
+     * @throws IllegalArgumentException if the key is larger than {@link GBPTree#keySizeLimit()}.
+     */
+    void merge( KEY key, VALUE value, ValueMerger<VALUE> merger ) throws IOException;
+
+    /**
+     * Removes the entry for {@code key}, if it exists.
+     *
+     * @param key key of the entry to remove.
+     * @param removedValue value instance to read the removed value into, may be {@code null}.
+     * @return {@code true} if an entry was removed, otherwise {@code false}.
+     * @throws IOException on page cache error.
+     */
+    boolean remove( KEY key, VALUE removedValue ) throws IOException;
+
+    /**
+     * Releases this writer so that another one can be acquired.
+     */
+    @Override
+    void close();
+}
@@ -25,6 +25,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.LockSupport;
@@ -47,6 +48,7 @@ import org.neo4j.kernel.api.index.SchemaIndexProvider;
 import org.neo4j.kernel.api.labelscan.LabelScanStore;
 import org.neo4j.kernel.api.legacyindex.AutoIndexing;
 import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.extension.dependency.AllByPrioritySelectionStrategy;
 import org.neo4j.kernel.extension.dependency.HighestSelectionStrategy;
 import org.neo4j.kernel.guard.Guard;
 import org.neo4j.kernel.impl.api.CommitProcessFactory;
@@ -81,6 +83,7 @@ import org.neo4j.kernel.impl.locking.LockService;
 import org.neo4j.kernel.impl.locking.Locks;
 import org.neo4j.kernel.impl.locking.ReentrantLockService;
 import org.neo4j.kernel.impl.logging.LogService;
+import org.neo4j.kernel.impl.pagecache.PageCacheWarmer;
 import org.neo4j.kernel.impl.proc.Procedures;
 import org.neo4j.kernel.impl.storageengine.impl.recordstorage.RecordStorageEngine;
 import org.neo4j.kernel.impl.store.MetaDataStore;
@@ -132,6 +135,7 @@ import org.neo4j.kernel.impl.transaction.log.pruning.LogPruning;
 import org.neo4j.kernel.impl.transaction.log.pruning.LogPruningImpl;
 import org.neo4j.kernel.impl.transaction.log.rotation.LogRotation;
 import org.neo4j.kernel.impl.transaction.log.rotation.LogRotationImpl;
+import org.neo4j.kernel.impl.transaction.state.DefaultSchemaIndexProviderMap;
 import org.neo4j.kernel.impl.transaction.state.NeoStoreFileListing;
 import org.neo4j.kernel.impl.transaction.state.RecoveryVisitor;
 import org.neo4j.kernel.impl.util.Dependencies;
@@ -292,6 +296,7 @@ public class NeoStoreDataSource implements Lifecycle, IndexProviders
     private Dependencies dependencies;
     private LifeSupport life;
     private SchemaIndexProvider schemaIndexProvider;
+    private Iterable<SchemaIndexProvider> schemaIndexProviders;
     private File storeDir;
     private boolean readOnly;
 
@@ -409,8 +414,12 @@ public class NeoStoreDataSource implements Lifecycle, IndexProviders
         dependencies = new Dependencies();
         life = new LifeSupport();
 
+        // The highest prioritized provider creates new indexes, but all of them serve the indexes they created
+        AllByPrioritySelectionStrategy<SchemaIndexProvider> indexProviderSelection =
+                new AllByPrioritySelectionStrategy<>();
         schemaIndexProvider = dependencyResolver.resolveDependency( SchemaIndexProvider.class,
-                HighestSelectionStrategy.getInstance() );
+                indexProviderSelection );
+        schemaIndexProviders = indexProviderSelection.lowerPrioritizedCandidates();
 
         IndexConfigStore indexConfigStore = new IndexConfigStore( storeDir, fs );
         dependencies.satisfyDependency( lockService );
@@ -466,6 +475,13 @@ public class NeoStoreDataSource implements Lifecycle, IndexProviders
                     updateableSchemaState, dependencies.resolveDependency( LabelScanStore.class ),
                     storageEngine, indexConfigStore, transactionIdStore );
 
+            if ( config.get( GraphDatabaseSettings.pagecache_warmup_enabled ) )
+            {
+                life.add( new PageCacheWarmer( fs, pageCache, tracers.pageCacheTracer, scheduler, storeDir,
+                        config.get( GraphDatabaseSettings.pagecache_warmup_profiling_interval ),
+                        logProvider.getLog( PageCacheWarmer.class ) ) );
+            }
+
             // Do these assignments last so that we can ensure no cyclical dependencies exist
             this.storageEngine = storageEngine;
             this.transactionLogModule = transactionLogModule;
@@ -571,7 +587,8 @@ public class NeoStoreDataSource implements Lifecycle, IndexProviders
                 () -> kernelModule.kernelTransactions().get();
         RecordStorageEngine storageEngine = new RecordStorageEngine( storeDir, config, idGeneratorFactory, pageCache,
                 fs, logProvider, propertyKeyTokenHolder, labelTokens, relationshipTypeTokens, schemaStateChangeCallback,
-                constraintSemantics, scheduler, tokenNameLookup, lockService, schemaIndexProvider,
+                constraintSemantics, scheduler, tokenNameLookup, lockService,
+                new DefaultSchemaIndexProviderMap( schemaIndexProvider, schemaIndexProviders ),
                 indexingServiceMonitor, databaseHealth, labelScanStore, legacyIndexProviderLookup, indexConfigStore,
                 legacyIndexTransactionOrdering, transactionSnapshotSupplier );
 
@@ -598,10 +615,13 @@ public class NeoStoreDataSource implements Lifecycle, IndexProviders
         final PhysicalLogFiles logFiles = new PhysicalLogFiles( storeDir, PhysicalLogFile.DEFAULT_NAME,
                 fileSystemAbstraction );
 
+        Executor logPreallocationExecutor = config.get( GraphDatabaseSettings.logical_log_preallocation )
+                                            ? scheduler.executor( JobScheduler.Groups.transactionLogPreallocation )
+                                            : null;
         final PhysicalLogFile logFile = life.add( new PhysicalLogFile( fileSystemAbstraction, logFiles,
                 config.get( GraphDatabaseSettings.logical_log_rotation_threshold ),
                 transactionIdStore::getLastCommittedTransactionId, logVersionRepository, physicalLogMonitor,
-                logHeaderCache ) );
+                logHeaderCache, logEntryReader, logPreallocationExecutor ) );
 
         final PhysicalLogFileInformation.LogVersionToTimestamp
                 logInformation = new PhysicalLogFileInformation.LogVersionToTimestamp()
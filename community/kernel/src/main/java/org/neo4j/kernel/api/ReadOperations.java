@@ -52,6 +52,8 @@ import org.neo4j.storageengine.api.NodeItem;
 import org.neo4j.storageengine.api.RelationshipItem;
 import org.neo4j.storageengine.api.Token;
 import org.neo4j.storageengine.api.lock.ResourceType;
+import org.neo4j.storageengine.api.schema.IndexOrder;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
 import org.neo4j.storageengine.api.schema.PopulationProgress;
 
 /**
@@ -144,6 +146,33 @@ public interface ReadOperations
     PrimitiveLongIterator nodesGetFromIndexRangeSeekByString( IndexDescriptor index, String lower, boolean includeLower, String upper, boolean includeUpper )
             throws IndexNotFoundKernelException;
 
+    /**
+     * Returns an iterator with the matched nodes, along with their values, in the given order of their values.
+     * For {@link IndexOrder#NONE} the values are only included if the index has them at hand, which saves
+     * reading them from the store.
+     *
+     * @throws org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException if no such index found.
+     */
+    NodeValueIterator nodesGetFromIndexRangeSeekByNumber( IndexDescriptor index, Number lower, boolean includeLower,
+            Number upper, boolean includeUpper, IndexOrder order ) throws IndexNotFoundKernelException;
+
+    /**
+     * Returns an iterator with the matched nodes, along with their values, in the given order of their values.
+     * Strings are ordered like {@link String#compareTo(String)}.
+     *
+     * @throws org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException if no such index found.
+     */
+    NodeValueIterator nodesGetFromIndexRangeSeekByString( IndexDescriptor index, String lower, boolean includeLower,
+            String upper, boolean includeUpper, IndexOrder order ) throws IndexNotFoundKernelException;
+
+    /**
+     * Returns whether or not the given index can return the results of range seeks in the order of their values
+     * by itself. If it can't, ordered range seeks have to read and sort all matching nodes up front.
+     *
+     * @throws org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException if no such index found.
+     */
+    boolean indexHasOrderedRangeSeek( IndexDescriptor index ) throws IndexNotFoundKernelException;
+
     /**
      * Returns an iterator with the matched nodes.
      *
@@ -152,6 +181,27 @@ public interface ReadOperations
     PrimitiveLongIterator nodesGetFromIndexScan( IndexDescriptor index )
             throws IndexNotFoundKernelException;
 
+    /**
+     * Returns an iterator with the nodes matching the given values, one for each property of the given
+     * {@link IndexDescriptor#isComposite() composite} index, in index order.
+     *
+     * @throws org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException if no such index found.
+     */
+    PrimitiveLongIterator nodesGetFromCompositeIndexSeek( IndexDescriptor index, Object[] values )
+            throws IndexNotFoundKernelException;
+
+    /**
+     * Returns an iterator with the nodes matching the given {@code prefix} values for the first properties of the
+     * given {@link IndexDescriptor#isComposite() composite} index, and having a value in the given range for
+     * the property following those. Either bound, but not both, may be {@code null}, and both bounds
+     * must be numbers or both strings.
+     *
+     * @throws org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException if no such index found.
+     */
+    PrimitiveLongIterator nodesGetFromCompositeIndexRangeSeek( IndexDescriptor index, Object[] prefix,
+            Object lower, boolean includeLower, Object upper, boolean includeUpper )
+            throws IndexNotFoundKernelException;
+
     /**
      * Returns an iterator with the matched nodes.
      *
@@ -291,6 +341,10 @@ public interface ReadOperations
     IndexDescriptor indexGetForLabelAndPropertyKey( int labelId, int propertyKey )
             throws SchemaRuleNotFoundException;
 
+    /** Returns the index rule for the given labelId and propertyKeys, a composite index for more than one key. */
+    IndexDescriptor indexGetForLabelAndPropertyKeys( int labelId, int[] propertyKeys )
+            throws SchemaRuleNotFoundException;
+
     /** Get all indexes for a label. */
     Iterator<IndexDescriptor> indexesGetForLabel( int labelId );
 
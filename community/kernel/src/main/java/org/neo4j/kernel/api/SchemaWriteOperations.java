@@ -40,6 +40,14 @@ public interface SchemaWriteOperations extends TokenWriteOperations
     IndexDescriptor indexCreate( int labelId, int propertyKeyId )
             throws AlreadyIndexedException, AlreadyConstrainedException;
 
+    /**
+     * Creates a composite index, indexing the combination of the properties with the given {@code propertyKeyIds},
+     * in that order, for nodes with the given {@code labelId}. Nodes are only indexed if they have all
+     * of the properties.
+     */
+    IndexDescriptor compositeIndexCreate( int labelId, int[] propertyKeyIds )
+            throws AlreadyIndexedException, AlreadyConstrainedException;
+
     /** Drops a {@link IndexDescriptor} from the database */
     void indexDrop( IndexDescriptor descriptor ) throws DropIndexFailureException;
 
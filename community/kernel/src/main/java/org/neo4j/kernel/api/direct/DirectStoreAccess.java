@@ -24,22 +24,40 @@ import java.io.IOException;
 
 import org.neo4j.kernel.api.index.SchemaIndexProvider;
 import org.neo4j.kernel.api.labelscan.LabelScanStore;
+import org.neo4j.kernel.impl.api.index.SchemaIndexProviderMap;
 import org.neo4j.kernel.impl.store.StoreAccess;
+import org.neo4j.kernel.impl.transaction.state.DefaultSchemaIndexProviderMap;
 import org.neo4j.kernel.lifecycle.LifeSupport;
 
+import static java.util.Collections.emptyList;
+
 public class DirectStoreAccess implements Closeable
 {
     private final LifeSupport life = new LifeSupport();
     private final StoreAccess nativeStores;
     private final LabelScanStore labelScanStore;
-    private final SchemaIndexProvider indexes;
+    private final SchemaIndexProviderMap indexes;
 
     public DirectStoreAccess(
             StoreAccess nativeStores, LabelScanStore labelScanStore, SchemaIndexProvider indexes )
+    {
+        this( nativeStores, labelScanStore, indexes, emptyList() );
+    }
+
+    /**
+     * @param indexes provider of any new indexes.
+     * @param additionalIndexes other providers, serving the existing indexes created by them.
+     */
+    public DirectStoreAccess( StoreAccess nativeStores, LabelScanStore labelScanStore, SchemaIndexProvider indexes,
+            Iterable<SchemaIndexProvider> additionalIndexes )
     {
         this.nativeStores = nativeStores;
         this.labelScanStore = labelScanStore;
-        this.indexes = life.add( indexes );
+        this.indexes = new DefaultSchemaIndexProviderMap( life.add( indexes ), additionalIndexes );
+        for ( SchemaIndexProvider additionalIndex : additionalIndexes )
+        {
+            life.add( additionalIndex );
+        }
     }
 
     public StoreAccess nativeStores()
@@ -53,6 +71,14 @@ public class DirectStoreAccess implements Closeable
     }
 
     public SchemaIndexProvider indexes()
+    {
+        return indexes.getDefaultProvider();
+    }
+
+    /**
+     * @return all index providers, for looking up the provider of an existing index by its descriptor.
+     */
+    public SchemaIndexProviderMap indexProviders()
     {
         return indexes;
     }
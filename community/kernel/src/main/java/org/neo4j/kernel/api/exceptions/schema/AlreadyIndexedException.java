@@ -28,6 +28,7 @@ public class AlreadyIndexedException extends SchemaKernelException
     private static final String NO_CONTEXT_FORMAT = "Already indexed %s.";
 
     private static final String INDEX_CONTEXT_FORMAT = "There already exists an index for label '%s' on property '%s'.";
+    private static final String COMPOSITE_INDEX_CONTEXT_FORMAT = "There already exists an index %s.";
     private static final String CONSTRAINT_CONTEXT_FORMAT = "There already exists an index for label '%s' on property '%s'. " +
                                                             "A constraint cannot be created until the index has been dropped.";
 
@@ -47,6 +48,11 @@ public class AlreadyIndexedException extends SchemaKernelException
         switch ( context )
         {
             case INDEX_CREATION:
+                if ( descriptor.isComposite() )
+                {
+                    return String.format( COMPOSITE_INDEX_CONTEXT_FORMAT, tokenNameLookup == null
+                            ? descriptor.toString() : descriptor.userDescription( tokenNameLookup ) );
+                }
                 return messageWithLabelAndPropertyName( tokenNameLookup, INDEX_CONTEXT_FORMAT,
                         descriptor.getLabelId(), descriptor.getPropertyKeyId() );
             case CONSTRAINT_CREATION:
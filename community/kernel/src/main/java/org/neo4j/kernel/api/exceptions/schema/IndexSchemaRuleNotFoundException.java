@@ -27,6 +27,10 @@ public class IndexSchemaRuleNotFoundException extends SchemaRuleNotFoundExceptio
     private static final String INDEX_PREFIX = "Index";
     private static final String INDEX_RULE_NOT_FOUND_MESSAGE_TEMPLATE =
             "%s for label '%s' and property '%s' not found.";
+    private static final String COMPOSITE_INDEX_RULE_NOT_FOUND_MESSAGE_TEMPLATE =
+            "%s for label '%s' and properties '%s' not found.";
+
+    private final int[] propertyKeyIds;
 
     public IndexSchemaRuleNotFoundException( int labelId, int propertyKeyId )
     {
@@ -37,13 +41,24 @@ public class IndexSchemaRuleNotFoundException extends SchemaRuleNotFoundExceptio
     {
         super( INDEX_RULE_NOT_FOUND_MESSAGE_TEMPLATE, labelId, propertyKeyId,
                 unique ? UNIQUE_INDEX_PREFIX : INDEX_PREFIX );
+        this.propertyKeyIds = new int[]{propertyKeyId};
+    }
+
+    public IndexSchemaRuleNotFoundException( int labelId, int[] propertyKeyIds )
+    {
+        super( COMPOSITE_INDEX_RULE_NOT_FOUND_MESSAGE_TEMPLATE, labelId, propertyKeyIds[0], INDEX_PREFIX );
+        this.propertyKeyIds = propertyKeyIds.clone();
     }
 
     @Override
     public String getUserMessage( TokenNameLookup tokenNameLookup )
     {
+        StringBuilder properties = new StringBuilder();
+        for ( int i = 0; i < propertyKeyIds.length; i++ )
+        {
+            properties.append( i == 0 ? "" : ", " ).append( tokenNameLookup.propertyKeyGetName( propertyKeyIds[i] ) );
+        }
         return String.format( messageTemplate, messagePrefix,
-                tokenNameLookup.labelGetName( ruleEntityId ),
-                tokenNameLookup.propertyKeyGetName( propertyKeyId ) );
+                tokenNameLookup.labelGetName( ruleEntityId ), properties );
     }
 }
@@ -20,8 +20,10 @@
 package org.neo4j.kernel.api.index;
 
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.storageengine.api.schema.IndexOrder;
 import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.IndexSampler;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
 
 public class DelegatingIndexReader implements IndexReader
 {
@@ -51,6 +53,25 @@ public class DelegatingIndexReader implements IndexReader
         return delegate.rangeSeekByString( lower, includeLower, upper, includeUpper );
     }
 
+    @Override
+    public boolean hasOrderedRangeSeek()
+    {
+        return delegate.hasOrderedRangeSeek();
+    }
+
+    @Override
+    public NodeValueIterator rangeSeekByNumberInclusive( Number lower, Number upper, IndexOrder order )
+    {
+        return delegate.rangeSeekByNumberInclusive( lower, upper, order );
+    }
+
+    @Override
+    public NodeValueIterator rangeSeekByString( String lower, boolean includeLower,
+                                               String upper, boolean includeUpper, IndexOrder order )
+    {
+        return delegate.rangeSeekByString( lower, includeLower, upper, includeUpper, order );
+    }
+
     @Override
     public PrimitiveLongIterator rangeSeekByPrefix( String prefix )
     {
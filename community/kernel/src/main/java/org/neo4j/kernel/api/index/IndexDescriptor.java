@@ -19,25 +19,38 @@
  */
 package org.neo4j.kernel.api.index;
 
+import java.util.Arrays;
+
 import org.neo4j.kernel.api.TokenNameLookup;
 import org.neo4j.storageengine.api.schema.SchemaRule;
 
 import static java.lang.String.format;
 
 /**
- * Description of a single index.
+ * Description of a single index, on one or more properties of nodes with a label. An index on more than one
+ * property is a {@link #isComposite() composite} index, which indexes the combination of all of its property values
+ * for nodes having all of its properties.
  *
  * @see SchemaRule
  */
 public class IndexDescriptor
 {
     private final int labelId;
-    private final int propertyKeyId;
+    private final int[] propertyKeyIds;
 
     public IndexDescriptor( int labelId, int propertyKeyId )
     {
+        this( labelId, new int[]{propertyKeyId} );
+    }
+
+    public IndexDescriptor( int labelId, int[] propertyKeyIds )
+    {
+        if ( propertyKeyIds.length == 0 )
+        {
+            throw new IllegalArgumentException( "An index must be on at least one property" );
+        }
         this.labelId = labelId;
-        this.propertyKeyId = propertyKeyId;
+        this.propertyKeyIds = propertyKeyIds.clone();
     }
 
     @Override
@@ -51,7 +64,7 @@ public class IndexDescriptor
         {
             IndexDescriptor that = (IndexDescriptor) obj;
             return this.labelId == that.labelId &&
-                    this.propertyKeyId == that.propertyKeyId;
+                    Arrays.equals( this.propertyKeyIds, that.propertyKeyIds );
         }
         return false;
     }
@@ -60,7 +73,7 @@ public class IndexDescriptor
     public int hashCode()
     {
         int result = labelId;
-        result = 31 * result + propertyKeyId;
+        result = 31 * result + (isComposite() ? Arrays.hashCode( propertyKeyIds ) : propertyKeyIds[0]);
         return result;
     }
 
@@ -73,17 +86,54 @@ public class IndexDescriptor
     }
 
     /**
-     * @return property key token id this index is for.
+     * @return property key token id this index is for. For a {@link #isComposite() composite} index this is
+     * the first of its property keys.
      */
     public int getPropertyKeyId()
     {
-        return propertyKeyId;
+        return propertyKeyIds[0];
+    }
+
+    /**
+     * @return property key token ids this index is for, in index order.
+     */
+    public int[] getPropertyKeyIds()
+    {
+        return propertyKeyIds.clone();
+    }
+
+    /**
+     * @return whether or not this index is on exactly the given property keys, in that order.
+     */
+    public boolean hasPropertyKeyIds( int[] propertyKeyIds )
+    {
+        return Arrays.equals( this.propertyKeyIds, propertyKeyIds );
+    }
+
+    /**
+     * @return whether or not this index is on more than one property.
+     */
+    public boolean isComposite()
+    {
+        return propertyKeyIds.length > 1;
+    }
+
+    /**
+     * @return whether or not this is an index on exactly the single property {@code propertyKeyId}.
+     */
+    public boolean isSingle( int propertyKeyId )
+    {
+        return propertyKeyIds.length == 1 && propertyKeyIds[0] == propertyKeyId;
     }
 
     @Override
     public String toString()
     {
-        return format( ":label[%d](property[%d])", labelId, propertyKeyId );
+        if ( isComposite() )
+        {
+            return format( ":label[%d](properties%s)", labelId, Arrays.toString( propertyKeyIds ) );
+        }
+        return format( ":label[%d](property[%d])", labelId, propertyKeyIds[0] );
     }
 
     /**
@@ -92,7 +142,11 @@ public class IndexDescriptor
      */
     public String userDescription( TokenNameLookup tokenNameLookup )
     {
-        return format( ":%s(%s)",
-                tokenNameLookup.labelGetName( labelId ), tokenNameLookup.propertyKeyGetName( propertyKeyId ) );
+        StringBuilder properties = new StringBuilder();
+        for ( int i = 0; i < propertyKeyIds.length; i++ )
+        {
+            properties.append( i == 0 ? "" : ", " ).append( tokenNameLookup.propertyKeyGetName( propertyKeyIds[i] ) );
+        }
+        return format( ":%s(%s)", tokenNameLookup.labelGetName( labelId ), properties );
     }
 }
@@ -33,6 +33,7 @@ public class NodePropertyUpdate
 {
     private final long nodeId;
     private final int propertyKeyId;
+    private final int[] propertyKeyIds;
     private final Object valueBefore;
     private final Object valueAfter;
     private final UpdateMode updateMode;
@@ -41,9 +42,23 @@ public class NodePropertyUpdate
 
     private NodePropertyUpdate( long nodeId, int propertyKeyId, Object valueBefore, long[] labelsBefore,
                                Object valueAfter, long[] labelsAfter, UpdateMode updateMode )
+    {
+        this( nodeId, propertyKeyId, null, valueBefore, labelsBefore, valueAfter, labelsAfter, updateMode );
+    }
+
+    private NodePropertyUpdate( long nodeId, int[] propertyKeyIds, Object valueBefore, long[] labelsBefore,
+            Object valueAfter, long[] labelsAfter, UpdateMode updateMode )
+    {
+        this( nodeId, propertyKeyIds[0], propertyKeyIds.clone(), valueBefore, labelsBefore, valueAfter, labelsAfter,
+                updateMode );
+    }
+
+    private NodePropertyUpdate( long nodeId, int propertyKeyId, int[] propertyKeyIds, Object valueBefore,
+            long[] labelsBefore, Object valueAfter, long[] labelsAfter, UpdateMode updateMode )
     {
         this.nodeId = nodeId;
         this.propertyKeyId = propertyKeyId;
+        this.propertyKeyIds = propertyKeyIds;
         this.valueBefore = valueBefore;
         this.labelsBefore = labelsBefore;
         this.valueAfter = valueAfter;
@@ -56,11 +71,43 @@ public class NodePropertyUpdate
         return nodeId;
     }
 
+    /**
+     * @return the property key of this update, or the first property key if this is an update
+     * to a {@link #isComposite() composite} index.
+     */
     public int getPropertyKeyId()
     {
         return propertyKeyId;
     }
 
+    /**
+     * @return the property keys of the composite index this update is for, or {@code null} if this
+     * is an update of a single property.
+     */
+    public int[] getPropertyKeyIds()
+    {
+        return propertyKeyIds == null ? null : propertyKeyIds.clone();
+    }
+
+    /**
+     * Whether or not this is an update to a composite index, where the values are
+     * {@link org.neo4j.kernel.impl.api.index.CompositeIndexValues encoded} values of multiple properties.
+     */
+    public boolean isComposite()
+    {
+        return propertyKeyIds != null;
+    }
+
+    /**
+     * Whether or not this update is for the property or properties of the given index,
+     * disregarding labels, see {@link #forLabel(long)}.
+     */
+    public boolean forPropertyKeys( IndexDescriptor descriptor )
+    {
+        return propertyKeyIds == null ? descriptor.isSingle( propertyKeyId )
+                                      : descriptor.isComposite() && descriptor.hasPropertyKeyIds( propertyKeyIds );
+    }
+
     public Object getValueBefore()
     {
         return valueBefore;
@@ -116,7 +163,9 @@ public class NodePropertyUpdate
     public String toString()
     {
         StringBuilder result = new StringBuilder( getClass().getSimpleName() )
-                .append( "[" ).append( nodeId ).append( ", prop:" ).append( propertyKeyId ).append( " " );
+                .append( "[" ).append( nodeId ).append( ", prop:" )
+                .append( propertyKeyIds == null ? String.valueOf( propertyKeyId ) : Arrays.toString( propertyKeyIds ) )
+                .append( " " );
         switch ( updateMode )
         {
         case ADDED: result.append( "add:" ).append( valueAfter ); break;
@@ -138,6 +187,7 @@ public class NodePropertyUpdate
         result = prime * result + Arrays.hashCode( labelsAfter );
         result = prime * result + (int) (nodeId ^ (nodeId >>> 32));
         result = prime * result + propertyKeyId;
+        result = prime * result + Arrays.hashCode( propertyKeyIds );
         result = prime * result + updateMode.hashCode();
         return result;
     }
@@ -162,6 +212,7 @@ public class NodePropertyUpdate
                 Arrays.equals( labelsAfter, other.labelsAfter ) &&
                 nodeId == other.nodeId &&
                 propertyKeyId == other.propertyKeyId &&
+                Arrays.equals( propertyKeyIds, other.propertyKeyIds ) &&
                 updateMode == other.updateMode &&
                 propertyValuesEqual( valueBefore, other.valueBefore ) &&
                 propertyValuesEqual( valueAfter, other.valueAfter );
@@ -233,4 +284,21 @@ public class NodePropertyUpdate
     {
         return new NodePropertyUpdate( nodeId, propertyKeyId, value, labels, null, EMPTY_LONG_ARRAY, REMOVED );
     }
+
+    public static NodePropertyUpdate add( long nodeId, int[] propertyKeyIds, Object value, long[] labels )
+    {
+        return new NodePropertyUpdate( nodeId, propertyKeyIds, null, EMPTY_LONG_ARRAY, value, labels, ADDED );
+    }
+
+    public static NodePropertyUpdate change( long nodeId, int[] propertyKeyIds, Object valueBefore,
+            long[] labelsBefore, Object valueAfter, long[] labelsAfter )
+    {
+        return new NodePropertyUpdate( nodeId, propertyKeyIds, valueBefore, labelsBefore, valueAfter, labelsAfter,
+                CHANGED );
+    }
+
+    public static NodePropertyUpdate remove( long nodeId, int[] propertyKeyIds, Object value, long[] labels )
+    {
+        return new NodePropertyUpdate( nodeId, propertyKeyIds, value, labels, null, EMPTY_LONG_ARRAY, REMOVED );
+    }
 }
@@ -169,6 +169,17 @@ public abstract class SchemaIndexProvider extends LifecycleAdapter implements Co
      */
     public abstract InternalIndexState getInitialState( long indexId );
 
+    /**
+     * Called before commit for each value which a transaction is about to add to an index of this provider, so
+     * that values which this provider can't index fail the transaction instead of failing when applied.
+     *
+     * @param value the property value to be indexed.
+     * @throws IllegalArgumentException if the value can't be indexed by this provider.
+     */
+    public void validateBeforeCommit( Object value )
+    {
+    }
+
     /**
      * @return a description of this index provider
      */
@@ -33,6 +33,51 @@ import org.neo4j.storageengine.api.schema.LabelScanReader;
  */
 public interface LabelScanStore extends Lifecycle
 {
+    /**
+     * Gets notified about the store being missing or corrupted on {@link #init()} and about it being rebuilt
+     * from the node store on {@link #start()}.
+     */
+    interface Monitor
+    {
+        Monitor EMPTY = new Monitor()
+        {
+            @Override
+            public void init()
+            {
+            }
+
+            @Override
+            public void noIndex()
+            {
+            }
+
+            @Override
+            public void corruptedIndex()
+            {
+            }
+
+            @Override
+            public void rebuilding()
+            {
+            }
+
+            @Override
+            public void rebuilt( long roughNodeCount )
+            {
+            }
+        };
+
+        void init();
+
+        void noIndex();
+
+        void corruptedIndex();
+
+        void rebuilding();
+
+        void rebuilt( long roughNodeCount );
+    }
+
     /**
      * From the point a {@link LabelScanReader} is created till it's {@link LabelScanReader#close() closed} the
      * contents it returns cannot change, i.e. it honors repeatable reads.
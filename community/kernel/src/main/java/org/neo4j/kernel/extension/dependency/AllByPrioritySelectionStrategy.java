@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.extension.dependency;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.neo4j.graphdb.DependencyResolver;
+import org.neo4j.kernel.extension.KernelExtensions;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * SelectionStrategy for {@link KernelExtensions kernel extensions loading} where, like with
+ * {@link HighestSelectionStrategy}, the one with highest natural order will be selected. The other candidates
+ * are kept as well, available from {@link #lowerPrioritizedCandidates()} after the selection, for dependencies
+ * where the selected one is only the preferred one of several that are in use.
+ *
+ * @param <T> type of candidates.
+ * @see Comparable
+ */
+public class AllByPrioritySelectionStrategy<T extends Comparable<T>> implements DependencyResolver.SelectionStrategy
+{
+    private List<T> lowerPrioritizedCandidates = emptyList();
+
+    @Override
+    public <R> R select( Class<R> type, Iterable<R> candidates ) throws IllegalArgumentException
+    {
+        R highest = HighestSelectionStrategy.getInstance().select( type, candidates );
+        List<T> others = new ArrayList<>();
+        for ( R candidate : candidates )
+        {
+            if ( candidate != highest )
+            {
+                others.add( (T) candidate );
+            }
+        }
+        Collections.sort( others );
+        lowerPrioritizedCandidates = Collections.unmodifiableList( others );
+        return highest;
+    }
+
+    /**
+     * @return the candidates which weren't selected, in order of increasing priority.
+     */
+    public Iterable<T> lowerPrioritizedCandidates()
+    {
+        return lowerPrioritizedCandidates;
+    }
+}
@@ -61,6 +61,8 @@ import org.neo4j.kernel.impl.locking.Locks;
 import org.neo4j.storageengine.api.LabelItem;
 import org.neo4j.storageengine.api.NodeItem;
 import org.neo4j.storageengine.api.RelationshipItem;
+import org.neo4j.storageengine.api.schema.IndexOrder;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
 
 import static org.neo4j.kernel.api.StatementConstants.NO_SUCH_NODE;
 import static org.neo4j.kernel.impl.locking.ResourceTypes.INDEX_ENTRY;
@@ -295,6 +297,37 @@ public class ConstraintEnforcingEntityOperations implements EntityOperations, Sc
                 includeUpper );
     }
 
+    @Override
+    public NodeValueIterator nodesGetFromIndexRangeSeekByNumber( KernelStatement statement,
+            IndexDescriptor index,
+            Number lower, boolean includeLower,
+            Number upper, boolean includeUpper,
+            IndexOrder order )
+            throws IndexNotFoundKernelException
+    {
+        return entityReadOperations.nodesGetFromIndexRangeSeekByNumber( statement, index, lower, includeLower, upper,
+                includeUpper, order );
+    }
+
+    @Override
+    public NodeValueIterator nodesGetFromIndexRangeSeekByString( KernelStatement statement,
+            IndexDescriptor index,
+            String lower, boolean includeLower,
+            String upper, boolean includeUpper,
+            IndexOrder order )
+            throws IndexNotFoundKernelException
+    {
+        return entityReadOperations.nodesGetFromIndexRangeSeekByString( statement, index, lower, includeLower, upper,
+                includeUpper, order );
+    }
+
+    @Override
+    public boolean indexHasOrderedRangeSeek( KernelStatement statement, IndexDescriptor index )
+            throws IndexNotFoundKernelException
+    {
+        return entityReadOperations.indexHasOrderedRangeSeek( statement, index );
+    }
+
     @Override
     public PrimitiveLongIterator nodesGetFromIndexRangeSeekByPrefix( KernelStatement state,
             IndexDescriptor index, String prefix )
@@ -310,6 +343,22 @@ public class ConstraintEnforcingEntityOperations implements EntityOperations, Sc
         return entityReadOperations.nodesGetFromIndexScan( state, index );
     }
 
+    @Override
+    public PrimitiveLongIterator nodesGetFromCompositeIndexSeek( KernelStatement state, IndexDescriptor index,
+            Object[] values ) throws IndexNotFoundKernelException
+    {
+        return entityReadOperations.nodesGetFromCompositeIndexSeek( state, index, values );
+    }
+
+    @Override
+    public PrimitiveLongIterator nodesGetFromCompositeIndexRangeSeek( KernelStatement state, IndexDescriptor index,
+            Object[] prefix, Object lower, boolean includeLower, Object upper, boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        return entityReadOperations.nodesGetFromCompositeIndexRangeSeek( state, index, prefix, lower, includeLower,
+                upper, includeUpper );
+    }
+
     @Override
     public long nodeGetFromUniqueIndexSeek(
             KernelStatement state,
@@ -528,6 +577,13 @@ public class ConstraintEnforcingEntityOperations implements EntityOperations, Sc
         return schemaWriteOperations.indexCreate( state, labelId, propertyKeyId );
     }
 
+    @Override
+    public IndexDescriptor compositeIndexCreate( KernelStatement state, int labelId, int[] propertyKeyIds )
+            throws AlreadyIndexedException
+    {
+        return schemaWriteOperations.compositeIndexCreate( state, labelId, propertyKeyIds );
+    }
+
     @Override
     public void indexDrop( KernelStatement state, IndexDescriptor descriptor ) throws DropIndexFailureException
     {
@@ -19,6 +19,7 @@
  */
 package org.neo4j.kernel.impl.api;
 
+import java.util.Arrays;
 import java.util.Iterator;
 
 import org.neo4j.kernel.api.Statement;
@@ -114,6 +115,32 @@ public class DataIntegrityValidatingStatementOperations implements
         return schemaWriteDelegate.indexCreate( state, labelId, propertyKey );
     }
 
+    @Override
+    public IndexDescriptor compositeIndexCreate( KernelStatement state, int labelId, int[] propertyKeyIds )
+            throws AlreadyIndexedException
+    {
+        for ( int i = 0; i < propertyKeyIds.length; i++ )
+        {
+            for ( int j = i + 1; j < propertyKeyIds.length; j++ )
+            {
+                if ( propertyKeyIds[i] == propertyKeyIds[j] )
+                {
+                    throw new IllegalArgumentException( "A composite index cannot be on the same property twice, " +
+                                                        "but got property key ids " + Arrays.toString( propertyKeyIds ) );
+                }
+            }
+        }
+        IndexDescriptor index = new IndexDescriptor( labelId, propertyKeyIds );
+        for ( IndexDescriptor descriptor : loop( schemaReadDelegate.indexesGetForLabel( state, labelId ) ) )
+        {
+            if ( descriptor.equals( index ) )
+            {
+                throw new AlreadyIndexedException( descriptor, OperationContext.INDEX_CREATION );
+            }
+        }
+        return schemaWriteDelegate.compositeIndexCreate( state, labelId, propertyKeyIds );
+    }
+
     @Override
     public void indexDrop( KernelStatement state, IndexDescriptor descriptor ) throws DropIndexFailureException
     {
@@ -232,14 +259,14 @@ public class DataIntegrityValidatingStatementOperations implements
     {
         for ( IndexDescriptor descriptor : loop( schemaReadDelegate.indexesGetForLabel( state, labelId ) ) )
         {
-            if ( descriptor.getPropertyKeyId() == propertyKey )
+            if ( descriptor.isSingle( propertyKey ) )
             {
                 throw new AlreadyIndexedException( descriptor, context );
             }
         }
         for ( IndexDescriptor descriptor : loop( schemaReadDelegate.uniqueIndexesGetForLabel( state, labelId ) ) )
         {
-            if ( descriptor.getPropertyKeyId() == propertyKey )
+            if ( descriptor.isSingle( propertyKey ) )
             {
                 throw new AlreadyConstrainedException(
                         new UniquenessConstraint( descriptor.getLabelId(), descriptor.getPropertyKeyId() ), context,
@@ -264,7 +291,7 @@ public class DataIntegrityValidatingStatementOperations implements
         while ( uniqueIndexes.hasNext() )
         {
             IndexDescriptor uniqueIndex = uniqueIndexes.next();
-            if ( uniqueIndex.getPropertyKeyId() == descriptor.getPropertyKeyId() )
+            if ( uniqueIndex.equals( descriptor ) )
             {
                 throw new IndexBelongsToConstraintException( descriptor );
             }
@@ -276,7 +303,7 @@ public class DataIntegrityValidatingStatementOperations implements
     {
         for ( IndexDescriptor existing : loop( indexes ) )
         {
-            if ( existing.getPropertyKeyId() == descriptor.getPropertyKeyId() )
+            if ( existing.equals( descriptor ) )
             {
                 return;
             }
@@ -37,6 +37,8 @@ import org.neo4j.kernel.impl.api.operations.EntityReadOperations;
 import org.neo4j.kernel.impl.api.operations.EntityWriteOperations;
 import org.neo4j.storageengine.api.NodeItem;
 import org.neo4j.storageengine.api.RelationshipItem;
+import org.neo4j.storageengine.api.schema.IndexOrder;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
 
 public class GuardingStatementOperations implements
         EntityWriteOperations,
@@ -203,6 +205,40 @@ public class GuardingStatementOperations implements
                 includeUpper );
     }
 
+    @Override
+    public NodeValueIterator nodesGetFromIndexRangeSeekByNumber( KernelStatement state,
+            IndexDescriptor index,
+            Number lower, boolean includeLower,
+            Number upper, boolean includeUpper,
+            IndexOrder order )
+            throws IndexNotFoundKernelException
+    {
+        guard.check();
+        return entityReadDelegate.nodesGetFromIndexRangeSeekByNumber( state, index, lower, includeLower, upper,
+                includeUpper, order );
+    }
+
+    @Override
+    public NodeValueIterator nodesGetFromIndexRangeSeekByString( KernelStatement state,
+            IndexDescriptor index,
+            String lower, boolean includeLower,
+            String upper, boolean includeUpper,
+            IndexOrder order )
+            throws IndexNotFoundKernelException
+    {
+        guard.check();
+        return entityReadDelegate.nodesGetFromIndexRangeSeekByString( state, index, lower, includeLower, upper,
+                includeUpper, order );
+    }
+
+    @Override
+    public boolean indexHasOrderedRangeSeek( KernelStatement state, IndexDescriptor index )
+            throws IndexNotFoundKernelException
+    {
+        guard.check();
+        return entityReadDelegate.indexHasOrderedRangeSeek( state, index );
+    }
+
     @Override
     public PrimitiveLongIterator nodesGetFromIndexRangeSeekByPrefix( KernelStatement state, IndexDescriptor index,
             String prefix ) throws IndexNotFoundKernelException
@@ -219,6 +255,24 @@ public class GuardingStatementOperations implements
         return entityReadDelegate.nodesGetFromIndexScan( state, index );
     }
 
+    @Override
+    public PrimitiveLongIterator nodesGetFromCompositeIndexSeek( KernelStatement state, IndexDescriptor index,
+            Object[] values ) throws IndexNotFoundKernelException
+    {
+        guard.check();
+        return entityReadDelegate.nodesGetFromCompositeIndexSeek( state, index, values );
+    }
+
+    @Override
+    public PrimitiveLongIterator nodesGetFromCompositeIndexRangeSeek( KernelStatement state, IndexDescriptor index,
+            Object[] prefix, Object lower, boolean includeLower, Object upper, boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        guard.check();
+        return entityReadDelegate.nodesGetFromCompositeIndexRangeSeek( state, index, prefix, lower, includeLower,
+                upper, includeUpper );
+    }
+
     @Override
     public PrimitiveLongIterator nodesGetFromIndexContainsScan( KernelStatement state, IndexDescriptor index,
             String term ) throws IndexNotFoundKernelException
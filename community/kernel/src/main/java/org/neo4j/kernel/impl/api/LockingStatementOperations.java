@@ -131,6 +131,15 @@ public class LockingStatementOperations implements
         return schemaWriteDelegate.indexCreate( state, labelId, propertyKey );
     }
 
+    @Override
+    public IndexDescriptor compositeIndexCreate( KernelStatement state, int labelId, int[] propertyKeyIds )
+            throws AlreadyIndexedException
+    {
+        state.locks().acquireExclusive( ResourceTypes.SCHEMA, schemaResource() );
+        state.assertOpen();
+        return schemaWriteDelegate.compositeIndexCreate( state, labelId, propertyKeyIds );
+    }
+
     @Override
     public void indexDrop( KernelStatement state, IndexDescriptor descriptor ) throws DropIndexFailureException
     {
@@ -187,6 +196,14 @@ public class LockingStatementOperations implements
         return schemaReadDelegate.indexGetForLabelAndPropertyKey( state, labelId, propertyKey );
     }
 
+    @Override
+    public IndexDescriptor indexGetForLabelAndPropertyKeys( KernelStatement state, int labelId, int[] propertyKeys )
+    {
+        state.locks().acquireShared( ResourceTypes.SCHEMA, schemaResource() );
+        state.assertOpen();
+        return schemaReadDelegate.indexGetForLabelAndPropertyKeys( state, labelId, propertyKeys );
+    }
+
     @Override
     public Iterator<IndexDescriptor> indexesGetAll( KernelStatement state )
     {
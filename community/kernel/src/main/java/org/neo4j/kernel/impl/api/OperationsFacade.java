@@ -89,6 +89,8 @@ import org.neo4j.storageengine.api.NodeItem;
 import org.neo4j.storageengine.api.RelationshipItem;
 import org.neo4j.storageengine.api.Token;
 import org.neo4j.storageengine.api.lock.ResourceType;
+import org.neo4j.storageengine.api.schema.IndexOrder;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
 import org.neo4j.storageengine.api.schema.PopulationProgress;
 
 public class OperationsFacade implements ReadOperations, DataWriteOperations, SchemaWriteOperations
@@ -223,6 +225,41 @@ public class OperationsFacade implements ReadOperations, DataWriteOperations, Sc
                 includeUpper );
     }
 
+    @Override
+    public NodeValueIterator nodesGetFromIndexRangeSeekByNumber( IndexDescriptor index,
+            Number lower,
+            boolean includeLower,
+            Number upper,
+            boolean includeUpper,
+            IndexOrder order )
+            throws IndexNotFoundKernelException
+    {
+        statement.assertOpen();
+        return dataRead().nodesGetFromIndexRangeSeekByNumber( statement, index, lower, includeLower, upper,
+                includeUpper, order );
+    }
+
+    @Override
+    public NodeValueIterator nodesGetFromIndexRangeSeekByString( IndexDescriptor index,
+            String lower,
+            boolean includeLower,
+            String upper,
+            boolean includeUpper,
+            IndexOrder order )
+            throws IndexNotFoundKernelException
+    {
+        statement.assertOpen();
+        return dataRead().nodesGetFromIndexRangeSeekByString( statement, index, lower, includeLower, upper,
+                includeUpper, order );
+    }
+
+    @Override
+    public boolean indexHasOrderedRangeSeek( IndexDescriptor index ) throws IndexNotFoundKernelException
+    {
+        statement.assertOpen();
+        return dataRead().indexHasOrderedRangeSeek( statement, index );
+    }
+
     @Override
     public PrimitiveLongIterator nodesGetFromIndexRangeSeekByPrefix( IndexDescriptor index, String prefix )
             throws IndexNotFoundKernelException
@@ -239,6 +276,24 @@ public class OperationsFacade implements ReadOperations, DataWriteOperations, Sc
         return dataRead().nodesGetFromIndexScan( statement, index );
     }
 
+    @Override
+    public PrimitiveLongIterator nodesGetFromCompositeIndexSeek( IndexDescriptor index, Object[] values )
+            throws IndexNotFoundKernelException
+    {
+        statement.assertOpen();
+        return dataRead().nodesGetFromCompositeIndexSeek( statement, index, values );
+    }
+
+    @Override
+    public PrimitiveLongIterator nodesGetFromCompositeIndexRangeSeek( IndexDescriptor index, Object[] prefix,
+            Object lower, boolean includeLower, Object upper, boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        statement.assertOpen();
+        return dataRead().nodesGetFromCompositeIndexRangeSeek( statement, index, prefix, lower, includeLower, upper,
+                includeUpper );
+    }
+
     @Override
     public PrimitiveLongIterator nodesGetFromIndexContainsScan( IndexDescriptor index, String term )
             throws IndexNotFoundKernelException
@@ -641,6 +696,19 @@ public class OperationsFacade implements ReadOperations, DataWriteOperations, Sc
         return descriptor;
     }
 
+    @Override
+    public IndexDescriptor indexGetForLabelAndPropertyKeys( int labelId, int[] propertyKeyIds )
+            throws SchemaRuleNotFoundException
+    {
+        statement.assertOpen();
+        IndexDescriptor descriptor = schemaRead().indexGetForLabelAndPropertyKeys( statement, labelId, propertyKeyIds );
+        if ( descriptor == null )
+        {
+            throw new IndexSchemaRuleNotFoundException( labelId, propertyKeyIds );
+        }
+        return descriptor;
+    }
+
     @Override
     public Iterator<IndexDescriptor> indexesGetForLabel( int labelId )
     {
@@ -665,7 +733,7 @@ public class OperationsFacade implements ReadOperations, DataWriteOperations, Sc
         while ( indexes.hasNext() )
         {
             IndexDescriptor index = indexes.next();
-            if ( index.getPropertyKeyId() == propertyKeyId )
+            if ( index.isSingle( propertyKeyId ) )
             {
                 if ( null == result )
                 {
@@ -1050,6 +1118,18 @@ public class OperationsFacade implements ReadOperations, DataWriteOperations, Sc
         return schemaWrite().indexCreate( statement, labelId, propertyKeyId );
     }
 
+    @Override
+    public IndexDescriptor compositeIndexCreate( int labelId, int[] propertyKeyIds )
+            throws AlreadyIndexedException, AlreadyConstrainedException
+    {
+        if ( propertyKeyIds.length == 1 )
+        {
+            return indexCreate( labelId, propertyKeyIds[0] );
+        }
+        statement.assertOpen();
+        return schemaWrite().compositeIndexCreate( statement, labelId, propertyKeyIds );
+    }
+
     @Override
     public void indexDrop( IndexDescriptor descriptor ) throws DropIndexFailureException
     {
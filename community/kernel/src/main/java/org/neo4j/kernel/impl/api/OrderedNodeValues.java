@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+
+import org.neo4j.collection.primitive.PrimitiveLongCollections.PrimitiveLongBaseIterator;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.collection.primitive.PrimitiveLongObjectMap;
+import org.neo4j.storageengine.api.schema.IndexOrder;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
+
+import static org.neo4j.kernel.impl.api.PropertyValueComparison.COMPARE_NUMBERS;
+import static org.neo4j.kernel.impl.api.PropertyValueComparison.COMPARE_STRINGS;
+
+/**
+ * Building blocks for index seeks which return nodes in the order of their indexed values,
+ * either straight from an index which keeps its values in order, or by sorting when it doesn't.
+ */
+final class OrderedNodeValues
+{
+    static final Comparator<Object> NUMBER_ORDER = ( left, right ) -> COMPARE_NUMBERS.compare( (Number) left,
+            (Number) right );
+
+    /**
+     * Strings are ordered like {@link String#compareTo(String)}, i.e. by their UTF-16 chars, which is how Cypher
+     * sorts them too.
+     */
+    static final Comparator<Object> STRING_ORDER = COMPARE_STRINGS::compare;
+
+    private OrderedNodeValues()
+    {
+    }
+
+    static Comparator<Object> inOrder( Comparator<Object> ascending, IndexOrder order )
+    {
+        return order == IndexOrder.DESCENDING ? ascending.reversed() : ascending;
+    }
+
+    /**
+     * @return the nodes in {@code values}, sorted by their value in the given order.
+     */
+    static NodeValueIterator sorted( PrimitiveLongObjectMap<Object> values, Comparator<Object> ascending,
+            IndexOrder order )
+    {
+        long[] nodeIds = new long[values.size()];
+        Object[] nodeValues = new Object[values.size()];
+        Integer[] positions = new Integer[values.size()];
+        int[] size = new int[1];
+        values.visitEntries( ( nodeId, value ) ->
+        {
+            int position = size[0]++;
+            positions[position] = position;
+            nodeIds[position] = nodeId;
+            nodeValues[position] = value;
+            return false;
+        } );
+        Comparator<Object> comparator = inOrder( ascending, order );
+        Arrays.sort( positions, ( left, right ) -> comparator.compare( nodeValues[left], nodeValues[right] ) );
+        return new NodeValueIteratorBase()
+        {
+            private int index;
+
+            @Override
+            protected boolean fetchNext()
+            {
+                if ( index < positions.length )
+                {
+                    int position = positions[index++];
+                    return next( nodeIds[position], nodeValues[position] );
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @return the nodes of {@code source}, without any values.
+     */
+    static NodeValueIterator withoutValues( PrimitiveLongIterator source )
+    {
+        return new NodeValueIteratorBase()
+        {
+            @Override
+            protected boolean fetchNext()
+            {
+                return source.hasNext() && next( source.next(), null );
+            }
+        };
+    }
+
+    /**
+     * @return the nodes of {@code source} which pass both predicates, keeping their order.
+     */
+    static NodeValueIterator filter( NodeValueIterator source, LongPredicate nodes, Predicate<Object> values )
+    {
+        return new NodeValueIteratorBase()
+        {
+            @Override
+            protected boolean fetchNext()
+            {
+                while ( source.hasNext() )
+                {
+                    long nodeId = source.next();
+                    if ( nodes.test( nodeId ) && values.test( source.value() ) )
+                    {
+                        return next( nodeId, source.value() );
+                    }
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @return the nodes of two iterators which are both in the given order, merged in that order.
+     */
+    static NodeValueIterator merge( NodeValueIterator first, NodeValueIterator second, Comparator<Object> ascending,
+            IndexOrder order )
+    {
+        Comparator<Object> comparator = inOrder( ascending, order );
+        return new NodeValueIteratorBase()
+        {
+            private boolean firstPending;
+            private boolean secondPending;
+            private long firstNode;
+            private long secondNode;
+
+            @Override
+            protected boolean fetchNext()
+            {
+                if ( !firstPending && first.hasNext() )
+                {
+                    firstNode = first.next();
+                    firstPending = true;
+                }
+                if ( !secondPending && second.hasNext() )
+                {
+                    secondNode = second.next();
+                    secondPending = true;
+                }
+                if ( firstPending && (!secondPending || comparator.compare( first.value(), second.value() ) <= 0) )
+                {
+                    firstPending = false;
+                    return next( firstNode, first.value() );
+                }
+                if ( secondPending )
+                {
+                    secondPending = false;
+                    return next( secondNode, second.value() );
+                }
+                return false;
+            }
+        };
+    }
+
+    private abstract static class NodeValueIteratorBase extends PrimitiveLongBaseIterator implements NodeValueIterator
+    {
+        private Object nextValue;
+        private Object value;
+
+        protected boolean next( long nodeId, Object value )
+        {
+            nextValue = value;
+            return next( nodeId );
+        }
+
+        @Override
+        public long next()
+        {
+            long nodeId = super.next();
+            value = nextValue;
+            return nodeId;
+        }
+
+        @Override
+        public Object value()
+        {
+            return value;
+        }
+    }
+}
@@ -19,14 +19,18 @@
  */
 package org.neo4j.kernel.impl.api;
 
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.function.Predicate;
 
+import org.neo4j.collection.primitive.Primitive;
 import org.neo4j.collection.primitive.PrimitiveIntIterator;
 import org.neo4j.collection.primitive.PrimitiveLongCollections;
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.collection.primitive.PrimitiveLongObjectMap;
 import org.neo4j.collection.primitive.PrimitiveLongResourceIterator;
+import org.neo4j.collection.primitive.PrimitiveLongSet;
 import org.neo4j.cursor.Cursor;
 import org.neo4j.helpers.collection.Iterators;
 import org.neo4j.kernel.api.DataWriteOperations;
@@ -66,6 +70,7 @@ import org.neo4j.kernel.api.properties.Property;
 import org.neo4j.kernel.api.properties.PropertyKeyIdIterator;
 import org.neo4j.kernel.api.txstate.TransactionCountingStateVisitor;
 import org.neo4j.kernel.api.txstate.TransactionState;
+import org.neo4j.kernel.impl.api.index.CompositeIndexValues;
 import org.neo4j.kernel.impl.api.operations.CountsOperations;
 import org.neo4j.kernel.impl.api.operations.EntityOperations;
 import org.neo4j.kernel.impl.api.operations.KeyReadOperations;
@@ -89,11 +94,15 @@ import org.neo4j.storageengine.api.StorageProperty;
 import org.neo4j.storageengine.api.StorageStatement;
 import org.neo4j.storageengine.api.StoreReadLayer;
 import org.neo4j.storageengine.api.Token;
+import org.neo4j.storageengine.api.schema.IndexOrder;
 import org.neo4j.storageengine.api.schema.IndexReader;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
 import org.neo4j.storageengine.api.schema.PopulationProgress;
 import org.neo4j.storageengine.api.schema.SchemaRule;
+import org.neo4j.storageengine.api.txstate.NodeState;
 import org.neo4j.storageengine.api.txstate.ReadableDiffSets;
 
+import static org.neo4j.collection.primitive.PrimitiveIntCollections.contains;
 import static org.neo4j.collection.primitive.PrimitiveLongCollections.single;
 import static org.neo4j.helpers.collection.Iterators.iterator;
 import static org.neo4j.helpers.collection.Iterators.singleOrNull;
@@ -409,9 +418,11 @@ public class StateHandlingStatementOperations implements
                         DefinedProperty after = Property.property( propertyItem.propertyKeyId(),
                                 propertyItem.value() );
 
+                        storeLayer.indexValidateBeforeCommit( descriptor, after.value() );
                         state.txState().indexDoUpdateProperty( descriptor, node.id(), null, after );
                     }
                 }
+                validateCompositeIndexValues( state, node.id(), labelId, index -> true );
 
                 return true;
             }
@@ -485,6 +496,14 @@ public class StateHandlingStatementOperations implements
         return rule;
     }
 
+    @Override
+    public IndexDescriptor compositeIndexCreate( KernelStatement state, int labelId, int[] propertyKeyIds )
+    {
+        IndexDescriptor rule = new IndexDescriptor( labelId, propertyKeyIds );
+        state.txState().indexRuleDoAdd( rule );
+        return rule;
+    }
+
     @Override
     public void indexDrop( KernelStatement state, IndexDescriptor descriptor ) throws DropIndexFailureException
     {
@@ -646,11 +665,25 @@ public class StateHandlingStatementOperations implements
         return singleOrNull( rules );
     }
 
+    @Override
+    public IndexDescriptor indexGetForLabelAndPropertyKeys( KernelStatement state, int labelId, int[] propertyKeys )
+    {
+        IndexDescriptor indexDescriptor = storeLayer.indexGetForLabelAndPropertyKeys( labelId, propertyKeys );
+
+        Iterator<IndexDescriptor> rules = iterator( indexDescriptor );
+        if ( state.hasTxStateWithChanges() )
+        {
+            rules = Iterators.filter( item -> item.hasPropertyKeyIds( propertyKeys ),
+                    state.txState().indexDiffSetsByLabel( labelId ).apply( rules ) );
+        }
+        return singleOrNull( rules );
+    }
+
     private Iterator<IndexDescriptor> filterByPropertyKeyId(
             Iterator<IndexDescriptor> descriptorIterator,
             final int propertyKey )
     {
-        Predicate<IndexDescriptor> predicate = item -> item.getPropertyKeyId() == propertyKey;
+        Predicate<IndexDescriptor> predicate = item -> item.isSingle( propertyKey );
         return Iterators.filter( predicate, descriptorIterator );
     }
 
@@ -821,6 +854,137 @@ public class StateHandlingStatementOperations implements
                 committed );
     }
 
+    @Override
+    public NodeValueIterator nodesGetFromIndexRangeSeekByNumber( KernelStatement state, IndexDescriptor index,
+            Number lower, boolean includeLower, Number upper, boolean includeUpper, IndexOrder order )
+            throws IndexNotFoundKernelException
+    {
+        if ( COMPARE_NUMBERS.isEmptyRange( lower, includeLower, upper, includeUpper ) )
+        {
+            return NodeValueIterator.EMPTY;
+        }
+        IndexReader reader = state.getStoreStatement().getIndexReader( index );
+        if ( !reader.hasOrderedRangeSeek() )
+        {
+            PrimitiveLongIterator nodeIds =
+                    nodesGetFromIndexRangeSeekByNumber( state, index, lower, includeLower, upper, includeUpper );
+            return order == IndexOrder.NONE ? OrderedNodeValues.withoutValues( nodeIds )
+                                            : sortedByIndexedValue( state, index, OrderedNodeValues.NUMBER_ORDER,
+                                                    order, nodeIds );
+        }
+        LookupFilter.NumericRangeMatchPredicate range = new LookupFilter.NumericRangeMatchPredicate( this, state,
+                index.getPropertyKeyId(), lower, includeLower, upper, includeUpper );
+        NodeValueIterator committed = reader.rangeSeekByNumberInclusive( lower, upper, order );
+        return mergeIndexStateChangesInOrder( state, index, value -> value instanceof Number && range.inRange( value ),
+                OrderedNodeValues.NUMBER_ORDER, order, committed );
+    }
+
+    @Override
+    public NodeValueIterator nodesGetFromIndexRangeSeekByString( KernelStatement state, IndexDescriptor index,
+            String lower, boolean includeLower, String upper, boolean includeUpper, IndexOrder order )
+            throws IndexNotFoundKernelException
+    {
+        IndexReader reader = state.getStoreStatement().getIndexReader( index );
+        if ( !reader.hasOrderedRangeSeek() )
+        {
+            PrimitiveLongIterator nodeIds =
+                    nodesGetFromIndexRangeSeekByString( state, index, lower, includeLower, upper, includeUpper );
+            return order == IndexOrder.NONE ? OrderedNodeValues.withoutValues( nodeIds )
+                                            : sortedByIndexedValue( state, index, OrderedNodeValues.STRING_ORDER,
+                                                    order, nodeIds );
+        }
+        NodeValueIterator committed = reader.rangeSeekByString( lower, includeLower, upper, includeUpper, order );
+        return mergeIndexStateChangesInOrder( state, index, value ->
+        {
+            if ( !(value instanceof String || value instanceof Character) )
+            {
+                return false;
+            }
+            String string = value.toString();
+            int compareLower = lower == null ? 1 : string.compareTo( lower );
+            int compareUpper = upper == null ? -1 : string.compareTo( upper );
+            return (compareLower > 0 || includeLower && compareLower == 0) &&
+                   (compareUpper < 0 || includeUpper && compareUpper == 0);
+        }, OrderedNodeValues.STRING_ORDER, order, committed );
+    }
+
+    @Override
+    public boolean indexHasOrderedRangeSeek( KernelStatement state, IndexDescriptor index )
+            throws IndexNotFoundKernelException
+    {
+        return state.getStoreStatement().getIndexReader( index ).hasOrderedRangeSeek();
+    }
+
+    /**
+     * For indexes which can't return nodes in the order of their values, the values are looked up
+     * and sorted here. {@code nodeIds} already have the transaction state applied. Seeks in no particular
+     * order don't need the values, so they are simply left out then.
+     */
+    private NodeValueIterator sortedByIndexedValue( KernelStatement state, IndexDescriptor index,
+            Comparator<Object> ascending, IndexOrder order, PrimitiveLongIterator nodeIds )
+    {
+        PrimitiveLongObjectMap<Object> values = Primitive.longObjectMap();
+        while ( nodeIds.hasNext() )
+        {
+            long nodeId = nodeIds.next();
+            Object value = indexedValue( state, index, nodeId );
+            if ( value != null )
+            {
+                values.put( nodeId, value );
+            }
+        }
+        return OrderedNodeValues.sorted( values, ascending, order );
+    }
+
+    /**
+     * Like {@link #filterIndexStateChangesForCompositeSeek(KernelStatement, IndexDescriptor, Predicate,
+     * PrimitiveLongIterator) composite seeks}, nodes changed in this transaction are taken out of the
+     * committed result. Those that match given their current value are merged back in, in order.
+     */
+    private NodeValueIterator mergeIndexStateChangesInOrder( KernelStatement state, IndexDescriptor index,
+            Predicate<Object> matches, Comparator<Object> ascending, IndexOrder order, NodeValueIterator committed )
+    {
+        NodeValueIterator exactMatches = OrderedNodeValues.filter( committed, nodeId -> true, matches );
+        if ( !state.hasTxStateWithChanges() )
+        {
+            return exactMatches;
+        }
+
+        PrimitiveLongSet changed = Primitive.longSet();
+        PrimitiveLongObjectMap<Object> matching = Primitive.longObjectMap();
+        for ( NodeState nodeState : state.txState().modifiedNodes() )
+        {
+            long nodeId = nodeState.getId();
+            changed.add( nodeId );
+            if ( !state.txState().nodeIsDeletedInThisTx( nodeId ) )
+            {
+                Object value = indexedValue( state, index, nodeId );
+                if ( value != null && matches.test( value ) )
+                {
+                    matching.put( nodeId, value );
+                }
+            }
+        }
+
+        NodeValueIterator unchanged = OrderedNodeValues.filter( exactMatches,
+                nodeId -> !changed.contains( nodeId ) && !state.txState().nodeIsDeletedInThisTx( nodeId ),
+                value -> true );
+        return OrderedNodeValues.merge( unchanged, OrderedNodeValues.sorted( matching, ascending, order ),
+                ascending, order );
+    }
+
+    private Object indexedValue( KernelStatement state, IndexDescriptor index, long nodeId )
+    {
+        try ( Cursor<NodeItem> cursor = nodeCursor( state, nodeId ) )
+        {
+            if ( !cursor.next() || !cursor.get().hasLabel( index.getLabelId() ) )
+            {
+                return null;
+            }
+            return cursor.get().getProperty( index.getPropertyKeyId() );
+        }
+    }
+
     @Override
     public PrimitiveLongIterator nodesGetFromIndexRangeSeekByPrefix( KernelStatement state, IndexDescriptor index,
             String prefix ) throws IndexNotFoundKernelException
@@ -870,6 +1034,84 @@ public class StateHandlingStatementOperations implements
         return filterIndexStateChangesForScanOrSeek( state, index, null, committed );
     }
 
+    @Override
+    public PrimitiveLongIterator nodesGetFromCompositeIndexSeek( KernelStatement state, IndexDescriptor index,
+            Object[] values ) throws IndexNotFoundKernelException
+    {
+        IndexReader reader = state.getStoreStatement().getIndexReader( index );
+        String value = CompositeIndexValues.encode( values );
+        PrimitiveLongIterator committed = reader.seek( value );
+        return filterIndexStateChangesForCompositeSeek( state, index, value::equals, committed );
+    }
+
+    @Override
+    public PrimitiveLongIterator nodesGetFromCompositeIndexRangeSeek( KernelStatement state, IndexDescriptor index,
+            Object[] prefix, Object lower, boolean includeLower, Object upper, boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        IndexReader reader = state.getStoreStatement().getIndexReader( index );
+        String[] bounds = CompositeIndexValues.rangeBounds( prefix, lower, includeLower, upper, includeUpper );
+        PrimitiveLongIterator committed = reader.rangeSeekByString( bounds[0], true, bounds[1], false );
+        return filterIndexStateChangesForCompositeSeek( state, index,
+                value -> value.compareTo( bounds[0] ) >= 0 && value.compareTo( bounds[1] ) < 0, committed );
+    }
+
+    /**
+     * Composite indexes have no updates of their own in transaction state, so instead nodes changed in this
+     * transaction are taken out of the committed result, and put back if they match given their current state.
+     */
+    private PrimitiveLongIterator filterIndexStateChangesForCompositeSeek( KernelStatement state,
+            IndexDescriptor index, Predicate<String> matches, PrimitiveLongIterator nodeIds )
+    {
+        if ( !state.hasTxStateWithChanges() )
+        {
+            return nodeIds;
+        }
+
+        PrimitiveLongSet changed = Primitive.longSet();
+        PrimitiveLongSet matching = Primitive.longSet();
+        for ( NodeState nodeState : state.txState().modifiedNodes() )
+        {
+            long nodeId = nodeState.getId();
+            changed.add( nodeId );
+            if ( !state.txState().nodeIsDeletedInThisTx( nodeId ) )
+            {
+                Object[] values = compositeIndexValues( state, index, nodeId );
+                if ( values != null && matches.test( CompositeIndexValues.encode( values ) ) )
+                {
+                    matching.add( nodeId );
+                }
+            }
+        }
+
+        PrimitiveLongIterator unchanged = PrimitiveLongCollections.filter( nodeIds,
+                nodeId -> !changed.contains( nodeId ) );
+        return state.txState().addedAndRemovedNodes().augmentWithRemovals(
+                PrimitiveLongCollections.concat( Iterators.iterator( unchanged, matching.iterator() ) ) );
+    }
+
+    private Object[] compositeIndexValues( KernelStatement state, IndexDescriptor index, long nodeId )
+    {
+        try ( Cursor<NodeItem> cursor = nodeCursor( state, nodeId ) )
+        {
+            if ( !cursor.next() || !cursor.get().hasLabel( index.getLabelId() ) )
+            {
+                return null;
+            }
+            int[] propertyKeyIds = index.getPropertyKeyIds();
+            Object[] values = new Object[propertyKeyIds.length];
+            for ( int i = 0; i < propertyKeyIds.length; i++ )
+            {
+                values[i] = cursor.get().getProperty( propertyKeyIds[i] );
+                if ( values[i] == null )
+                {
+                    return null;
+                }
+            }
+            return values;
+        }
+    }
+
     private PrimitiveLongIterator filterExactIndexMatches( final KernelStatement state, IndexDescriptor index,
             Object value, PrimitiveLongIterator committed )
     {
@@ -1117,8 +1359,41 @@ public class StateHandlingStatementOperations implements
         IndexDescriptor descriptor = indexGetForLabelAndPropertyKey( state, labelId, propertyKey );
         if ( descriptor != null )
         {
+            if ( after != null )
+            {
+                storeLayer.indexValidateBeforeCommit( descriptor, after.value() );
+            }
             state.txState().indexDoUpdateProperty( descriptor, nodeId, before, after );
         }
+        if ( after != null )
+        {
+            validateCompositeIndexValues( state, nodeId, labelId,
+                    index -> contains( index.getPropertyKeyIds(), propertyKey ) );
+        }
+    }
+
+    /**
+     * Composite indexes have no updates of their own in transaction state, so their values are validated from
+     * the changed node instead, so that a value which can't be indexed fails this transaction rather than
+     * failing when the transaction is applied. Indexes created in this transaction are populated from the store
+     * after commit, where such a value fails the population instead.
+     */
+    private void validateCompositeIndexValues( KernelStatement state, long nodeId, int labelId,
+            Predicate<IndexDescriptor> affected )
+    {
+        Iterator<IndexDescriptor> indexes = storeLayer.indexesGetForLabel( labelId );
+        while ( indexes.hasNext() )
+        {
+            IndexDescriptor index = indexes.next();
+            if ( index.isComposite() && affected.test( index ) )
+            {
+                Object[] values = compositeIndexValues( state, index, nodeId );
+                if ( values != null )
+                {
+                    storeLayer.indexValidateBeforeCommit( index, CompositeIndexValues.encode( values ) );
+                }
+            }
+        }
     }
 
     @Override
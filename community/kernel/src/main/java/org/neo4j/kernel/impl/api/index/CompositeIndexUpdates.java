@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index;
+
+import java.util.Collection;
+
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveIntObjectMap;
+import org.neo4j.kernel.api.index.IndexDescriptor;
+import org.neo4j.kernel.api.index.NodePropertyUpdate;
+
+import static org.neo4j.kernel.api.index.NodePropertyUpdate.propertyValuesEqual;
+
+/**
+ * Derives updates to {@link IndexDescriptor#isComposite() composite indexes} from the state of a node before
+ * and after a change. Updates to ordinary indexes can be derived from the changed properties alone, but a node
+ * belongs in a composite index only if it has all of its properties, so deriving updates to composite indexes
+ * needs the full set of properties of each changed node.
+ *
+ * Derived updates are for exactly one label each, the label of the composite index, and carry the property
+ * values {@link CompositeIndexValues#encode(Object[]) encoded} into a single value.
+ */
+public final class CompositeIndexUpdates
+{
+    private CompositeIndexUpdates()
+    {
+        throw new AssertionError( "Not for instantiation!" );
+    }
+
+    /**
+     * Derives updates for a node which was added to indexes, given as the {@link UpdateMode#ADDED added}
+     * property updates of a single node, all carrying the labels of that node, like those produced when
+     * populating indexes or when reindexing nodes after recovery.
+     */
+    public static void deriveAdds( long nodeId, Collection<NodePropertyUpdate> propertyAdds,
+            Iterable<IndexDescriptor> compositeIndexes, Collection<NodePropertyUpdate> target )
+    {
+        if ( propertyAdds.isEmpty() )
+        {
+            return;
+        }
+        PrimitiveIntObjectMap<Object> properties = Primitive.intObjectMap( propertyAdds.size() );
+        long[] labels = null;
+        for ( NodePropertyUpdate update : propertyAdds )
+        {
+            if ( update.getUpdateMode() == UpdateMode.ADDED && !update.isComposite() )
+            {
+                properties.put( update.getPropertyKeyId(), update.getValueAfter() );
+                labels = labels == null ? labelsAfter( update ) : labels;
+            }
+        }
+        if ( labels != null )
+        {
+            deriveUpdates( nodeId, new long[0], Primitive.intObjectMap(), labels, properties, compositeIndexes,
+                    target );
+        }
+    }
+
+    /**
+     * Derives updates for a node which had the labels and properties {@code labelsBefore} and
+     * {@code propertiesBefore} and now has {@code labelsAfter} and {@code propertiesAfter}.
+     */
+    public static void deriveUpdates( long nodeId,
+            long[] labelsBefore, PrimitiveIntObjectMap<Object> propertiesBefore,
+            long[] labelsAfter, PrimitiveIntObjectMap<Object> propertiesAfter,
+            Iterable<IndexDescriptor> compositeIndexes, Collection<NodePropertyUpdate> target )
+    {
+        for ( IndexDescriptor index : compositeIndexes )
+        {
+            int[] propertyKeyIds = index.getPropertyKeyIds();
+            long[] label = new long[]{index.getLabelId()};
+            Object[] before = indexedValues( index.getLabelId(), propertyKeyIds, labelsBefore, propertiesBefore );
+            Object[] after = indexedValues( index.getLabelId(), propertyKeyIds, labelsAfter, propertiesAfter );
+            if ( before == null && after != null )
+            {
+                target.add( NodePropertyUpdate.add( nodeId, propertyKeyIds, CompositeIndexValues.encode( after ),
+                        label ) );
+            }
+            else if ( before != null && after == null )
+            {
+                target.add( NodePropertyUpdate.remove( nodeId, propertyKeyIds, CompositeIndexValues.encode( before ),
+                        label ) );
+            }
+            else if ( before != null && !valuesEqual( before, after ) )
+            {
+                target.add( NodePropertyUpdate.change( nodeId, propertyKeyIds, CompositeIndexValues.encode( before ),
+                        label, CompositeIndexValues.encode( after ), label ) );
+            }
+        }
+    }
+
+    private static Object[] indexedValues( int labelId, int[] propertyKeyIds, long[] labels,
+            PrimitiveIntObjectMap<Object> properties )
+    {
+        if ( !contains( labels, labelId ) )
+        {
+            return null;
+        }
+        Object[] values = new Object[propertyKeyIds.length];
+        for ( int i = 0; i < propertyKeyIds.length; i++ )
+        {
+            values[i] = properties.get( propertyKeyIds[i] );
+            if ( values[i] == null )
+            {
+                return null;
+            }
+        }
+        return values;
+    }
+
+    private static boolean valuesEqual( Object[] before, Object[] after )
+    {
+        for ( int i = 0; i < before.length; i++ )
+        {
+            if ( !propertyValuesEqual( before[i], after[i] ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long[] labelsAfter( NodePropertyUpdate update )
+    {
+        long[] labels = new long[update.getNumberOfLabelsAfter()];
+        for ( int i = 0; i < labels.length; i++ )
+        {
+            labels[i] = update.getLabelAfter( i );
+        }
+        return labels;
+    }
+
+    private static boolean contains( long[] labels, int labelId )
+    {
+        for ( long label : labels )
+        {
+            if ( label == labelId )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+}
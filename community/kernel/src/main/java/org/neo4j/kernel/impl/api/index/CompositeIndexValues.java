@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.neo4j.kernel.api.index.ArrayEncoder;
+
+/**
+ * Encodes the property values of a composite index entry into a single string value, which is what
+ * gets handed to the {@link org.neo4j.kernel.api.index.SchemaIndexProvider schema index providers}. This way
+ * any provider can index composite entries as ordinary string values.
+ *
+ * The encoding is a hex string of a byte sequence, where each property value is encoded as a type byte followed
+ * by a value encoding which sorts the same way as the values themselves. Comparing two encoded entries as strings
+ * therefore compares their values in index order, property by property, which makes it possible to seek
+ * for an equality prefix followed by a range on the next property as a
+ * {@link org.neo4j.storageengine.api.schema.IndexReader#rangeSeekByString(String, boolean, String, boolean) string
+ * range seek}, see {@link #rangeBounds(Object[], Object, boolean, Object, boolean)}.
+ */
+public final class CompositeIndexValues
+{
+    private static final byte TYPE_NUMBER = 1;
+    private static final byte TYPE_BOOLEAN = 2;
+    private static final byte TYPE_STRING = 3;
+    private static final byte TYPE_ARRAY = 4;
+    private static final byte ESCAPE = 0;
+    private static final byte ESCAPED = (byte) 0xFF;
+    private static final byte AFTER = (byte) 0xFF;
+    private static final double TWO_TO_THE_POWER_OF_63 = 0x1p63;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private CompositeIndexValues()
+    {
+        throw new AssertionError( "Not for instantiation!" );
+    }
+
+    /**
+     * @param values property values, in index order.
+     * @return the encoded index value of an entry with the given property values.
+     */
+    public static String encode( Object[] values )
+    {
+        Bytes bytes = new Bytes();
+        for ( Object value : values )
+        {
+            bytes.value( value );
+        }
+        return bytes.toString();
+    }
+
+    /**
+     * Computes the bounds of the range of encoded values which have the given equality prefix, followed
+     * by a value in the given range. Either of {@code lower} and {@code upper}, but not both, may be {@code null}
+     * for an open range, and both must be of the same kind, i.e. both numbers or both strings.
+     *
+     * @return a lower bound, which is inclusive, and an upper bound, which is exclusive, in that order.
+     */
+    public static String[] rangeBounds( Object[] prefix, Object lower, boolean includeLower,
+            Object upper, boolean includeUpper )
+    {
+        if ( lower == null && upper == null )
+        {
+            throw new IllegalArgumentException( "A range must have at least one bound" );
+        }
+        byte type = typeOf( lower != null ? lower : upper );
+
+        Bytes from = new Bytes();
+        Bytes to = new Bytes();
+        for ( Object value : prefix )
+        {
+            from.value( value );
+            to.value( value );
+        }
+
+        if ( lower == null )
+        {
+            from.put( type );
+        }
+        else
+        {
+            from.value( lower );
+            if ( !includeLower )
+            {
+                from.put( AFTER );
+            }
+        }
+
+        if ( upper == null )
+        {
+            to.put( (byte) (type + 1) );
+        }
+        else
+        {
+            to.value( upper );
+            if ( includeUpper )
+            {
+                to.put( AFTER );
+            }
+        }
+        return new String[]{from.toString(), to.toString()};
+    }
+
+    private static byte typeOf( Object value )
+    {
+        if ( value instanceof Number )
+        {
+            return TYPE_NUMBER;
+        }
+        if ( value instanceof Boolean )
+        {
+            return TYPE_BOOLEAN;
+        }
+        if ( value.getClass().isArray() )
+        {
+            return TYPE_ARRAY;
+        }
+        return TYPE_STRING;
+    }
+
+    private static long sortableDouble( double value )
+    {
+        // Equal, so both zeros should be encoded the same way
+        long bits = Double.doubleToLongBits( value == 0d ? 0d : value );
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    private static long integralPart( Number number, double doubleValue )
+    {
+        if ( number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte )
+        {
+            return number.longValue();
+        }
+        if ( doubleValue >= TWO_TO_THE_POWER_OF_63 )
+        {
+            return Long.MAX_VALUE;
+        }
+        if ( doubleValue < -TWO_TO_THE_POWER_OF_63 )
+        {
+            return Long.MIN_VALUE;
+        }
+        // Non-integral doubles are the only numbers with their double value, so any value will do
+        return doubleValue == Math.rint( doubleValue ) ? (long) doubleValue : 0;
+    }
+
+    private static class Bytes
+    {
+        private byte[] bytes = new byte[32];
+        private int length;
+
+        void value( Object value )
+        {
+            byte type = typeOf( value );
+            put( type );
+            switch ( type )
+            {
+            case TYPE_NUMBER:
+                Number number = (Number) value;
+                double doubleValue = number.doubleValue();
+                putLong( sortableDouble( doubleValue ) );
+                putLong( integralPart( number, doubleValue ) );
+                break;
+            case TYPE_BOOLEAN:
+                put( (byte) ((Boolean) value ? 1 : 0) );
+                break;
+            case TYPE_ARRAY:
+                putTerminated( ArrayEncoder.encode( value ) );
+                break;
+            default:
+                putTerminated( value.toString() );
+                break;
+            }
+        }
+
+        void putLong( long value )
+        {
+            // Flipping the sign bit makes the unsigned byte order the same as the signed order
+            long sortable = value ^ Long.MIN_VALUE;
+            for ( int shift = 56; shift >= 0; shift -= 8 )
+            {
+                put( (byte) (sortable >>> shift) );
+            }
+        }
+
+        void putTerminated( String value )
+        {
+            // Escaping the terminator bytes keeps the order of a string and any string it is a prefix of
+            for ( byte b : value.getBytes( StandardCharsets.UTF_8 ) )
+            {
+                put( b );
+                if ( b == ESCAPE )
+                {
+                    put( ESCAPED );
+                }
+            }
+            put( ESCAPE );
+            put( ESCAPE );
+        }
+
+        void put( byte b )
+        {
+            if ( length == bytes.length )
+            {
+                bytes = Arrays.copyOf( bytes, length * 2 );
+            }
+            bytes[length++] = b;
+        }
+
+        @Override
+        public String toString()
+        {
+            char[] chars = new char[length * 2];
+            for ( int i = 0; i < length; i++ )
+            {
+                chars[i * 2] = HEX[(bytes[i] >>> 4) & 0xF];
+                chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+            }
+            return new String( chars );
+        }
+    }
+}
@@ -19,8 +19,10 @@
  */
 package org.neo4j.kernel.impl.api.index;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.function.BiConsumer;
 
@@ -105,6 +107,22 @@ public final class IndexMap implements Cloneable
         return indexesByDescriptor.keySet().iterator();
     }
 
+    /**
+     * @return descriptors of all {@link IndexDescriptor#isComposite() composite} indexes in this map.
+     */
+    public List<IndexDescriptor> compositeDescriptors()
+    {
+        List<IndexDescriptor> composites = new ArrayList<>();
+        for ( IndexDescriptor descriptor : indexesByDescriptor.keySet() )
+        {
+            if ( descriptor.isComposite() )
+            {
+                composites.add( descriptor );
+            }
+        }
+        return composites;
+    }
+
     public int size()
     {
         return indexesById.size();
@@ -19,6 +19,8 @@
  */
 package org.neo4j.kernel.impl.api.index;
 
+import java.util.List;
+
 import org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException;
 import org.neo4j.kernel.api.index.IndexDescriptor;
 
@@ -70,6 +72,11 @@ public class IndexMapReference implements IndexMapSnapshotProvider
         return indexMap.getAllIndexProxies();
     }
 
+    public List<IndexDescriptor> compositeDescriptors()
+    {
+        return indexMap.compositeDescriptors();
+    }
+
     public void setIndexMap( IndexMap newIndexMap )
     {
         // ASSUMPTION: Only called at shutdown or during commit (single-threaded in each case)
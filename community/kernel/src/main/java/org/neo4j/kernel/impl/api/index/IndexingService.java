@@ -25,12 +25,15 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.Future;
 
 import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongCollections;
 import org.neo4j.collection.primitive.PrimitiveLongSet;
 import org.neo4j.collection.primitive.PrimitiveLongVisitor;
 import org.neo4j.graphdb.ResourceIterator;
@@ -97,6 +100,8 @@ public class IndexingService extends LifecycleAdapter
     private final LogProvider logProvider;
     private final Monitor monitor;
     private final PrimitiveLongSet recoveredNodeIds = Primitive.longSet( 20 );
+    private final List<NodePropertyUpdate> recoveredRemovedValues = new ArrayList<>();
+    private final PrimitiveLongSet recoveredNodeIdsWithUnknownValues = Primitive.longSet( 20 );
     private final JobScheduler scheduler;
     private final Runnable schemaStateChangeCallback;
 
@@ -194,7 +199,7 @@ public class IndexingService extends LifecycleAdapter
             IndexProxy indexProxy;
 
             long indexId = indexRule.getId();
-            IndexDescriptor descriptor = new IndexDescriptor( indexRule.getLabel(), indexRule.getPropertyKey() );
+            IndexDescriptor descriptor = indexRule.toIndexDescriptor();
             SchemaIndexProvider.Descriptor providerDescriptor = indexRule.getProviderDescriptor();
             SchemaIndexProvider provider = providerMap.apply( providerDescriptor );
             InternalIndexState initialState = provider.getInitialState( indexId );
@@ -401,6 +406,7 @@ public class IndexingService extends LifecycleAdapter
             // We're in recovery, which means we'll merely be noting which entity ids are to be refreshed
             // and we'll refresh them completely after recovery completes.
             updates.collectUpdatedNodeIds( recoveredNodeIds );
+            updates.collectRemovedValues( recoveredRemovedValues, recoveredNodeIdsWithUnknownValues );
         }
         else if ( state == State.RUNNING || state == State.STARTING )
         {
@@ -474,7 +480,9 @@ public class IndexingService extends LifecycleAdapter
     private void processUpdate( NodePropertyUpdate update, IndexUpdaterMap updaterMap, int labelId,
             int propertyKeyId ) throws IOException, IndexEntryConflictException
     {
-        IndexDescriptor descriptor = new IndexDescriptor( labelId, propertyKeyId );
+        IndexDescriptor descriptor = update.isComposite()
+                                     ? new IndexDescriptor( labelId, update.getPropertyKeyIds() )
+                                     : new IndexDescriptor( labelId, propertyKeyId );
         IndexUpdater updater = updaterMap.getUpdater( descriptor );
         if ( updater != null )
         {
@@ -517,7 +525,7 @@ public class IndexingService extends LifecycleAdapter
                 indexMapRef.setIndexMap( indexMap );
                 continue;
             }
-            final IndexDescriptor descriptor = new IndexDescriptor( rule.getLabel(), rule.getPropertyKey() );
+            final IndexDescriptor descriptor = rule.toIndexDescriptor();
             SchemaIndexProvider.Descriptor providerDescriptor = rule.getProviderDescriptor();
             boolean constraint = rule.isConstraintIndex();
             if ( state == State.RUNNING )
@@ -551,30 +559,92 @@ public class IndexingService extends LifecycleAdapter
         monitor.applyingRecoveredData( recoveredNodeIds );
         if ( !recoveredNodeIds.isEmpty() )
         {
-            try ( IndexUpdaterMap updaterMap = indexMapRef.createIndexUpdaterMap( IndexUpdateMode.RECOVERY ) )
+            // Values replaced during recovery are removed by value, only nodes with unknown replaced values
+            // need all their entries found and removed
+            IndexUpdates removals = removalsOfRecoveredValues();
+            if ( !recoveredNodeIdsWithUnknownValues.isEmpty() )
             {
-                for ( IndexUpdater updater : updaterMap )
+                try ( IndexUpdaterMap updaterMap = indexMapRef.createIndexUpdaterMap( IndexUpdateMode.RECOVERY ) )
                 {
-                    updater.remove( recoveredNodeIds );
+                    for ( IndexUpdater updater : updaterMap )
+                    {
+                        updater.remove( recoveredNodeIdsWithUnknownValues );
+                    }
                 }
-
-                IndexUpdates updates = readRecoveredUpdatesFromStore();
-                apply( updates, IndexUpdateMode.RECOVERY );
-                monitor.appliedRecoveredData( updates );
             }
+            apply( removals, IndexUpdateMode.RECOVERY );
+
+            IndexUpdates updates = readRecoveredUpdatesFromStore();
+            apply( updates, IndexUpdateMode.RECOVERY );
+            monitor.appliedRecoveredData( updates );
         }
         recoveredNodeIds.clear();
+        recoveredRemovedValues.clear();
+        recoveredNodeIdsWithUnknownValues.clear();
+    }
+
+    /**
+     * Recovered removals have no labels, since the labels may not have been readable during recovery. Removing
+     * an entry which isn't there is a no-op, so each removal is given the labels of all indexes on its property.
+     * Values of properties in composite indexes are unknown since composite values are derived from the other
+     * properties of the node.
+     */
+    private IndexUpdates removalsOfRecoveredValues()
+    {
+        Map<Integer,Set<Long>> labelsByPropertyKey = new HashMap<>();
+        Set<Integer> compositePropertyKeys = new HashSet<>();
+        Iterator<IndexDescriptor> descriptors = indexMapRef.indexMapSnapshot().descriptors();
+        while ( descriptors.hasNext() )
+        {
+            IndexDescriptor descriptor = descriptors.next();
+            if ( descriptor.isComposite() )
+            {
+                for ( int propertyKeyId : descriptor.getPropertyKeyIds() )
+                {
+                    compositePropertyKeys.add( propertyKeyId );
+                }
+            }
+            else
+            {
+                labelsByPropertyKey.computeIfAbsent( descriptor.getPropertyKeyId(), key -> new TreeSet<>() )
+                        .add( (long) descriptor.getLabelId() );
+            }
+        }
+
+        List<NodePropertyUpdate> removals = new ArrayList<>();
+        for ( NodePropertyUpdate removal : recoveredRemovedValues )
+        {
+            if ( compositePropertyKeys.contains( removal.getPropertyKeyId() ) )
+            {
+                recoveredNodeIdsWithUnknownValues.add( removal.getNodeId() );
+            }
+        }
+        for ( NodePropertyUpdate removal : recoveredRemovedValues )
+        {
+            Set<Long> labels = labelsByPropertyKey.get( removal.getPropertyKeyId() );
+            if ( labels != null && !recoveredNodeIdsWithUnknownValues.contains( removal.getNodeId() ) )
+            {
+                removals.add( NodePropertyUpdate.remove( removal.getNodeId(), removal.getPropertyKeyId(),
+                        removal.getValueBefore(), PrimitiveLongCollections.asArray( labels.iterator() ) ) );
+            }
+        }
+        return new DirectIndexUpdates( removals );
     }
 
     private IndexUpdates readRecoveredUpdatesFromStore()
     {
         final List<NodePropertyUpdate> recoveredUpdates = new ArrayList<>();
+        final List<IndexDescriptor> compositeIndexes = compositeIndexes();
+        final List<NodePropertyUpdate> nodeUpdates = new ArrayList<>();
         recoveredNodeIds.visitKeys( new PrimitiveLongVisitor<RuntimeException>()
         {
             @Override
             public boolean visited( long nodeId )
             {
-                storeView.nodeAsUpdates( nodeId, recoveredUpdates );
+                storeView.nodeAsUpdates( nodeId, nodeUpdates );
+                CompositeIndexUpdates.deriveAdds( nodeId, nodeUpdates, compositeIndexes, recoveredUpdates );
+                recoveredUpdates.addAll( nodeUpdates );
+                nodeUpdates.clear();
                 return false;
             }
         } );
@@ -656,6 +726,15 @@ public class IndexingService extends LifecycleAdapter
         }
     }
 
+    /**
+     * @return descriptors of all {@link IndexDescriptor#isComposite() composite} indexes, populating or online,
+     * which need to be kept up to date with changes to nodes.
+     */
+    public List<IndexDescriptor> compositeIndexes()
+    {
+        return indexMapRef.compositeDescriptors();
+    }
+
     public IndexProxy getIndexProxy( long indexId ) throws IndexNotFoundKernelException
     {
         return indexMapRef.getIndexProxy( indexId );
@@ -666,6 +745,26 @@ public class IndexingService extends LifecycleAdapter
         return indexMapRef.getIndexProxy( descriptor );
     }
 
+    /**
+     * Verifies that the provider of the given index, or the default provider for an index which doesn't exist yet,
+     * can index the given value.
+     *
+     * @throws IllegalArgumentException if the value can't be indexed.
+     */
+    public void validateBeforeCommit( IndexDescriptor descriptor, Object value )
+    {
+        SchemaIndexProvider provider;
+        try
+        {
+            provider = providerMap.apply( getIndexProxy( descriptor ).getProviderDescriptor() );
+        }
+        catch ( IndexNotFoundKernelException e )
+        {
+            provider = providerMap.getDefaultProvider();
+        }
+        provider.validateBeforeCommit( value );
+    }
+
     public void validateIndex( long indexId ) throws IndexNotFoundKernelException, ConstraintVerificationFailedKernelException, IndexPopulationFailedKernelException
     {
         getIndexProxy( indexId ).validate();
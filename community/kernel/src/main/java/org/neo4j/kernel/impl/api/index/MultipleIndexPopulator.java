@@ -30,6 +30,8 @@ import java.util.Queue;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.neo4j.collection.primitive.PrimitiveLongSet;
 import org.neo4j.function.ThrowingConsumer;
@@ -297,7 +299,17 @@ public class MultipleIndexPopulator implements IndexPopulator
 
     private int[] propertyKeyIds()
     {
-        return populations.stream().mapToInt( population -> population.descriptor.getPropertyKeyId() ).toArray();
+        return populations.stream()
+                .flatMapToInt( population -> IntStream.of( population.descriptor.getPropertyKeyIds() ) )
+                .toArray();
+    }
+
+    private List<IndexDescriptor> compositeDescriptors()
+    {
+        return populations.stream()
+                .map( population -> population.descriptor )
+                .filter( IndexDescriptor::isComposite )
+                .collect( Collectors.toList() );
     }
 
     private int[] labelIds()
@@ -491,8 +503,7 @@ public class MultipleIndexPopulator implements IndexPopulator
 
         private boolean isApplicable( NodePropertyUpdate update )
         {
-            return update.forLabel( descriptor.getLabelId() ) &&
-                   update.getPropertyKeyId() == descriptor.getPropertyKeyId();
+            return update.forLabel( descriptor.getLabelId() ) && update.forPropertyKeys( descriptor );
         }
 
         private void flip() throws FlipFailedKernelException
@@ -513,6 +524,9 @@ public class MultipleIndexPopulator implements IndexPopulator
     private class NodePopulationVisitor implements Visitor<NodePropertyUpdates,
             IndexPopulationFailedKernelException>
     {
+        private final List<IndexDescriptor> compositeDescriptors = compositeDescriptors();
+        private final List<NodePropertyUpdate> compositeUpdates = new ArrayList<>();
+
         @Override
         public boolean visit( NodePropertyUpdates updates ) throws IndexPopulationFailedKernelException
         {
@@ -523,6 +537,13 @@ public class MultipleIndexPopulator implements IndexPopulator
 
         private void add( NodePropertyUpdates updates )
         {
+            if ( !compositeDescriptors.isEmpty() )
+            {
+                CompositeIndexUpdates.deriveAdds( updates.getNodeId(), updates.getPropertyUpdates(),
+                        compositeDescriptors, compositeUpdates );
+                updates.addAll( compositeUpdates );
+                compositeUpdates.clear();
+            }
             forEachPopulation( population -> population.addAll( updates.getPropertyUpdates() ) );
         }
     }
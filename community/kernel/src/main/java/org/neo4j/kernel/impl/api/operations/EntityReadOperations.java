@@ -30,6 +30,8 @@ import org.neo4j.kernel.impl.api.KernelStatement;
 import org.neo4j.kernel.impl.api.RelationshipVisitor;
 import org.neo4j.storageengine.api.NodeItem;
 import org.neo4j.storageengine.api.RelationshipItem;
+import org.neo4j.storageengine.api.schema.IndexOrder;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
 
 public interface EntityReadOperations
 {
@@ -73,6 +75,42 @@ public interface EntityReadOperations
             boolean includeUpper )
             throws IndexNotFoundKernelException;
 
+    /**
+     * Returns an iterator with the matched nodes, along with their values, in the given order of their values.
+     *
+     * @throws IndexNotFoundKernelException if no such index found.
+     */
+    NodeValueIterator nodesGetFromIndexRangeSeekByNumber( KernelStatement state,
+            IndexDescriptor index,
+            Number lower,
+            boolean includeLower,
+            Number upper,
+            boolean includeUpper,
+            IndexOrder order )
+            throws IndexNotFoundKernelException;
+
+    /**
+     * Returns an iterator with the matched nodes, along with their values, in the given order of their values.
+     *
+     * @throws IndexNotFoundKernelException if no such index found.
+     */
+    NodeValueIterator nodesGetFromIndexRangeSeekByString( KernelStatement state,
+            IndexDescriptor index,
+            String lower,
+            boolean includeLower,
+            String upper,
+            boolean includeUpper,
+            IndexOrder order )
+            throws IndexNotFoundKernelException;
+
+    /**
+     * Returns whether or not the given index can return the results of range seeks ordered by value by itself.
+     *
+     * @throws IndexNotFoundKernelException if no such index found.
+     */
+    boolean indexHasOrderedRangeSeek( KernelStatement state, IndexDescriptor index )
+            throws IndexNotFoundKernelException;
+
     /**
      * Returns an iterable with the matched nodes.
      *
@@ -91,6 +129,25 @@ public interface EntityReadOperations
     PrimitiveLongIterator nodesGetFromIndexScan( KernelStatement state, IndexDescriptor index )
             throws IndexNotFoundKernelException;
 
+    /**
+     * Returns an iterable with the nodes matching all the given values of a composite index.
+     *
+     * @throws IndexNotFoundKernelException if no such index found.
+     */
+    PrimitiveLongIterator nodesGetFromCompositeIndexSeek( KernelStatement state, IndexDescriptor index,
+            Object[] values )
+            throws IndexNotFoundKernelException;
+
+    /**
+     * Returns an iterable with the nodes matching the given prefix values of a composite index,
+     * followed by a value in the given range.
+     *
+     * @throws IndexNotFoundKernelException if no such index found.
+     */
+    PrimitiveLongIterator nodesGetFromCompositeIndexRangeSeek( KernelStatement state, IndexDescriptor index,
+            Object[] prefix, Object lower, boolean includeLower, Object upper, boolean includeUpper )
+            throws IndexNotFoundKernelException;
+
     /**
      * Returns an iterable with the matched nodes.
      *
@@ -41,6 +41,11 @@ public interface SchemaReadOperations
      */
     IndexDescriptor indexGetForLabelAndPropertyKey( KernelStatement state, int labelId, int propertyKey );
 
+    /**
+     * Returns the descriptor for the given labelId and propertyKeys, a composite index for more than one key.
+     */
+    IndexDescriptor indexGetForLabelAndPropertyKeys( KernelStatement state, int labelId, int[] propertyKeys );
+
     /**
      * Get all indexes for a label.
      */
@@ -41,6 +41,13 @@ public interface SchemaWriteOperations
     IndexDescriptor indexCreate( KernelStatement state, int labelId, int propertyKeyId )
             throws AlreadyIndexedException, AlreadyConstrainedException;
 
+    /**
+     * Creates a composite index, indexing the combination of the properties with the given {@code propertyKeyIds}
+     * for nodes with the given {@code labelId}.
+     */
+    IndexDescriptor compositeIndexCreate( KernelStatement state, int labelId, int[] propertyKeyIds )
+            throws AlreadyIndexedException;
+
     /** Drops a {@link IndexDescriptor} from the database */
     void indexDrop( KernelStatement state, IndexDescriptor descriptor ) throws DropIndexFailureException;
 
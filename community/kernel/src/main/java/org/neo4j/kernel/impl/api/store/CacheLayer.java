@@ -60,11 +60,7 @@ import org.neo4j.storageengine.api.schema.SchemaRule;
 public class CacheLayer implements StoreReadLayer
 {
     private static final Function<? super SchemaRule, IndexDescriptor> TO_INDEX_RULE =
-            from -> {
-                IndexRule rule = (IndexRule) from;
-                // We know that we only have int range of property key ids.
-                return new IndexDescriptor( rule.getLabel(), rule.getPropertyKey() );
-            };
+            from -> ((IndexRule) from).toIndexDescriptor();
 
     private final SchemaCache schemaCache;
     private final DiskLayer diskLayer;
@@ -145,7 +141,7 @@ public class CacheLayer implements StoreReadLayer
             if ( rule instanceof IndexSchemaRule )
             {
                 IndexSchemaRule indexRule = (IndexSchemaRule) rule;
-                if ( filter.test( indexRule.getKind() ) && indexRule.getPropertyKey() == index.getPropertyKeyId() )
+                if ( filter.test( indexRule.getKind() ) && index.hasPropertyKeyIds( indexRule.getPropertyKeys() ) )
                 {
                     return indexRule;
                 }
@@ -215,6 +211,12 @@ public class CacheLayer implements StoreReadLayer
         return schemaCache.indexDescriptor( labelId, propertyKey );
     }
 
+    @Override
+    public IndexDescriptor indexGetForLabelAndPropertyKeys( int labelId, int[] propertyKeys )
+    {
+        return schemaCache.indexDescriptor( labelId, propertyKeys );
+    }
+
     @Override
     public InternalIndexState indexGetState( IndexDescriptor descriptor )
             throws IndexNotFoundKernelException
@@ -222,6 +224,12 @@ public class CacheLayer implements StoreReadLayer
         return diskLayer.indexGetState( descriptor );
     }
 
+    @Override
+    public void indexValidateBeforeCommit( IndexDescriptor descriptor, Object value )
+    {
+        diskLayer.indexValidateBeforeCommit( descriptor, value );
+    }
+
     @Override
     public PopulationProgress indexGetPopulationProgress( IndexDescriptor descriptor )
             throws IndexNotFoundKernelException
@@ -344,6 +352,12 @@ public class CacheLayer implements StoreReadLayer
         return diskLayer.nodesGetAll();
     }
 
+    @Override
+    public long highestNodeIdInUse()
+    {
+        return diskLayer.highestNodeIdInUse();
+    }
+
     @Override
     public RelationshipIterator relationshipsGetAll()
     {
@@ -186,9 +186,16 @@ public class DiskLayer implements StoreReadLayer
         return descriptor( schemaStorage.indexRule( labelId, propertyKey ) );
     }
 
+    @Override
+    public IndexDescriptor indexGetForLabelAndPropertyKeys( int labelId, int[] propertyKeys )
+    {
+        IndexRule rule = schemaStorage.indexRule( new IndexDescriptor( labelId, propertyKeys ) );
+        return rule == null ? null : descriptor( rule );
+    }
+
     private static IndexDescriptor descriptor( IndexRule ruleRecord )
     {
-        return new IndexDescriptor( ruleRecord.getLabel(), ruleRecord.getPropertyKey() );
+        return ruleRecord.toIndexDescriptor();
     }
 
     @Override
@@ -248,20 +255,20 @@ public class DiskLayer implements StoreReadLayer
     public Long indexGetOwningUniquenessConstraintId( IndexDescriptor index )
             throws SchemaRuleNotFoundException
     {
-        return schemaStorage.indexRule( index.getLabelId(), index.getPropertyKeyId() ).getOwningConstraint();
+        return schemaStorage.indexRule( index ).getOwningConstraint();
     }
 
     @Override
     public IndexSchemaRule indexRule( IndexDescriptor index, Predicate<SchemaRule.Kind> filter )
     {
-        return schemaStorage.indexRule( index.getLabelId(), index.getPropertyKeyId() );
+        return schemaStorage.indexRule( index );
     }
 
     @Override
     public long indexGetCommittedId( IndexDescriptor index, Predicate<SchemaRule.Kind> filter )
             throws SchemaRuleNotFoundException
     {
-        return schemaStorage.indexRule( index.getLabelId(), index.getPropertyKeyId() ).getId();
+        return schemaStorage.indexRule( index ).getId();
     }
 
     @Override
@@ -271,6 +278,12 @@ public class DiskLayer implements StoreReadLayer
         return indexService.getIndexProxy( descriptor ).getState();
     }
 
+    @Override
+    public void indexValidateBeforeCommit( IndexDescriptor descriptor, Object value )
+    {
+        indexService.validateBeforeCommit( descriptor, value );
+    }
+
     @Override
     public PopulationProgress indexGetPopulationProgress( IndexDescriptor descriptor )
             throws IndexNotFoundKernelException
@@ -479,6 +492,12 @@ public class DiskLayer implements StoreReadLayer
         };
     }
 
+    @Override
+    public long highestNodeIdInUse()
+    {
+        return nodeStore.getHighestPossibleIdInUse();
+    }
+
     @Override
     public RelationshipIterator relationshipsGetAll()
     {
@@ -605,12 +624,32 @@ public class DiskLayer implements StoreReadLayer
     @Override
     public DoubleLongRegister indexUpdatesAndSize( IndexDescriptor index, DoubleLongRegister target )
     {
+        if ( index.isComposite() )
+        {
+            IndexRule rule = schemaStorage.indexRule( index );
+            if ( rule == null )
+            {
+                target.write( 0, 0 );
+                return target;
+            }
+            return counts.indexUpdatesAndSize( index.getLabelId(), rule.getStatisticsPropertyKeyId(), target );
+        }
         return counts.indexUpdatesAndSize( index.getLabelId(), index.getPropertyKeyId(), target );
     }
 
     @Override
     public DoubleLongRegister indexSample( IndexDescriptor index, DoubleLongRegister target )
     {
+        if ( index.isComposite() )
+        {
+            IndexRule rule = schemaStorage.indexRule( index );
+            if ( rule == null )
+            {
+                target.write( 0, 0 );
+                return target;
+            }
+            return counts.indexSample( index.getLabelId(), rule.getStatisticsPropertyKeyId(), target );
+        }
         return counts.indexSample( index.getLabelId(), index.getPropertyKeyId(), target );
     }
 
@@ -56,6 +56,7 @@ public class SchemaCache
     private final Collection<NodePropertyConstraint> nodeConstraints = new HashSet<>();
     private final Collection<RelationshipPropertyConstraint> relationshipConstraints = new HashSet<>();
     private final Map<Integer, Map<Integer, CommittedIndexDescriptor>> indexDescriptors = new HashMap<>();
+    private final Collection<IndexDescriptor> compositeIndexDescriptors = new HashSet<>();
     private final ConstraintSemantics constraintSemantics;
 
     public SchemaCache( ConstraintSemantics constraintSemantics, Iterable<SchemaRule> initialRules )
@@ -136,6 +137,10 @@ public class SchemaCache
                 relationshipConstraints.add( (RelationshipPropertyConstraint) constraint );
             }
         }
+        else if ( rule instanceof IndexRule && ((IndexRule) rule).isComposite() )
+        {
+            compositeIndexDescriptors.add( ((IndexRule) rule).toIndexDescriptor() );
+        }
         else if ( rule instanceof IndexRule )
         {
             IndexRule indexRule = (IndexRule) rule;
@@ -155,6 +160,7 @@ public class SchemaCache
         nodeConstraints.clear();
         relationshipConstraints.clear();
         indexDescriptors.clear();
+        compositeIndexDescriptors.clear();
     }
 
     public void load( List<SchemaRule> schemaRuleIterator )
@@ -209,6 +215,10 @@ public class SchemaCache
         {
             relationshipConstraints.remove( ((RelationshipPropertyConstraintRule) rule).toConstraint() );
         }
+        else if ( rule instanceof IndexRule && ((IndexRule) rule).isComposite() )
+        {
+            compositeIndexDescriptors.remove( ((IndexRule) rule).toIndexDescriptor() );
+        }
         else if ( rule instanceof IndexRule )
         {
             IndexRule indexRule = (IndexRule) rule;
@@ -234,4 +244,14 @@ public class SchemaCache
         }
         return null;
     }
+
+    public IndexDescriptor indexDescriptor( int labelId, int[] propertyKeys )
+    {
+        if ( propertyKeys.length == 1 )
+        {
+            return indexDescriptor( labelId, propertyKeys[0] );
+        }
+        IndexDescriptor descriptor = new IndexDescriptor( labelId, propertyKeys );
+        return compositeIndexDescriptors.contains( descriptor ) ? descriptor : null;
+    }
 }
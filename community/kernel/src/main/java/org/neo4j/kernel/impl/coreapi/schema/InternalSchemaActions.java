@@ -36,9 +36,9 @@ import org.neo4j.kernel.api.exceptions.schema.TooManyLabelsException;
  */
 public interface InternalSchemaActions
 {
-    IndexDefinition createIndexDefinition( Label label, String propertyKey );
+    IndexDefinition createIndexDefinition( Label label, String... propertyKeys );
 
-    void dropIndexDefinitions( Label label, String propertyKey );
+    void dropIndexDefinitions( Label label, String... propertyKeys );
 
     ConstraintDefinition createPropertyUniquenessConstraint( Label label, String propertyKey )
             throws IllegalTokenNameException, TooManyLabelsException, CreateConstraintFailureException,
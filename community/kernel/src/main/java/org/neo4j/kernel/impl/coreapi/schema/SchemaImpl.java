@@ -20,6 +20,7 @@
 package org.neo4j.kernel.impl.coreapi.schema;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -129,8 +130,13 @@ public class SchemaImpl implements Schema
             try
             {
                 Label label = label( statement.labelGetName( rule.getLabelId() ) );
-                String propertyKey = statement.propertyKeyGetName( rule.getPropertyKeyId() );
-                return new IndexDefinitionImpl( actions, label, propertyKey, constraintIndex );
+                int[] propertyKeyIds = rule.getPropertyKeyIds();
+                String[] propertyKeys = new String[propertyKeyIds.length];
+                for ( int i = 0; i < propertyKeyIds.length; i++ )
+                {
+                    propertyKeys[i] = statement.propertyKeyGetName( propertyKeyIds[i] );
+                }
+                return new IndexDefinitionImpl( actions, label, propertyKeys, constraintIndex );
             }
             catch ( LabelNotFoundKernelException | PropertyKeyIdNotFoundKernelException e )
             {
@@ -196,23 +202,9 @@ public class SchemaImpl implements Schema
     public IndexState getIndexState( final IndexDefinition index )
     {
         actions.assertInOpenTransaction();
-        String propertyKey = Iterables.single( index.getPropertyKeys() );
         try ( Statement statement = statementContextSupplier.get() )
         {
-            int labelId = statement.readOperations().labelGetForName( index.getLabel().name() );
-            int propertyKeyId = statement.readOperations().propertyKeyGetForName( propertyKey );
-
-            if ( labelId == KeyReadOperations.NO_SUCH_LABEL )
-            {
-                throw new NotFoundException( format( "Label %s not found", index.getLabel().name() ) );
-            }
-
-            if ( propertyKeyId == KeyReadOperations.NO_SUCH_PROPERTY_KEY )
-            {
-                throw new NotFoundException( format( "Property key %s not found", propertyKey ) );
-            }
-
-            IndexDescriptor descriptor = statement.readOperations().indexGetForLabelAndPropertyKey( labelId, propertyKeyId );
+            IndexDescriptor descriptor = getIndexDescriptor( statement.readOperations(), index );
             InternalIndexState indexState = statement.readOperations().indexGetState( descriptor );
             switch ( indexState )
             {
@@ -229,7 +221,7 @@ public class SchemaImpl implements Schema
         catch ( SchemaRuleNotFoundException | IndexNotFoundKernelException e )
         {
             throw new NotFoundException( format( "No index for label %s on property %s",
-                    index.getLabel().name(), propertyKey ) );
+                    index.getLabel().name(), propertyKeysOf( index ) ) );
         }
     }
 
@@ -237,31 +229,16 @@ public class SchemaImpl implements Schema
     public IndexPopulationProgress getIndexPopulationProgress( IndexDefinition index )
     {
         actions.assertInOpenTransaction();
-        String propertyKey = Iterables.single( index.getPropertyKeys() );
         try ( Statement statement = statementContextSupplier.get() )
         {
-            int labelId = statement.readOperations().labelGetForName( index.getLabel().name() );
-            int propertyKeyId = statement.readOperations().propertyKeyGetForName( propertyKey );
-
-            if ( labelId == KeyReadOperations.NO_SUCH_LABEL )
-            {
-                throw new NotFoundException( format( "Label %s not found", index.getLabel().name() ) );
-            }
-
-            if ( propertyKeyId == KeyReadOperations.NO_SUCH_PROPERTY_KEY )
-            {
-                throw new NotFoundException( format( "Property key %s not found", propertyKey ) );
-            }
-
-            IndexDescriptor descriptor = statement.readOperations().indexGetForLabelAndPropertyKey( labelId,
-                    propertyKeyId );
+            IndexDescriptor descriptor = getIndexDescriptor( statement.readOperations(), index );
             PopulationProgress progress = statement.readOperations().indexGetPopulationProgress( descriptor );
             return new IndexPopulationProgress( progress.getCompleted(), progress.getTotal() );
         }
         catch ( SchemaRuleNotFoundException | IndexNotFoundKernelException e )
         {
             throw new NotFoundException( format( "No index for label %s on property %s", index.getLabel().name(),
-                    propertyKey ) );
+                    propertyKeysOf( index ) ) );
         }
     }
 
@@ -269,32 +246,53 @@ public class SchemaImpl implements Schema
     public String getIndexFailure( IndexDefinition index )
     {
         actions.assertInOpenTransaction();
-        String propertyKey = Iterables.single( index.getPropertyKeys() );
         try ( Statement statement = statementContextSupplier.get() )
         {
-            int labelId = statement.readOperations().labelGetForName( index.getLabel().name() );
-            int propertyKeyId = statement.readOperations().propertyKeyGetForName( propertyKey );
-
-            if ( labelId == KeyReadOperations.NO_SUCH_LABEL )
-            {
-                throw new NotFoundException( format( "Label %s not found", index.getLabel().name() ) );
-            }
-
-            if ( propertyKeyId == KeyReadOperations.NO_SUCH_PROPERTY_KEY )
-            {
-                throw new NotFoundException( format( "Property key %s not found", propertyKey ) );
-            }
-
-            IndexDescriptor indexId = statement.readOperations().indexGetForLabelAndPropertyKey( labelId, propertyKeyId );
+            IndexDescriptor indexId = getIndexDescriptor( statement.readOperations(), index );
             return statement.readOperations().indexGetFailure( indexId );
         }
         catch ( SchemaRuleNotFoundException | IndexNotFoundKernelException e )
         {
             throw new NotFoundException( format( "No index for label %s on property %s",
-                    index.getLabel().name(), propertyKey ) );
+                    index.getLabel().name(), propertyKeysOf( index ) ) );
         }
     }
 
+    private static IndexDescriptor getIndexDescriptor( ReadOperations readOperations, IndexDefinition index )
+            throws SchemaRuleNotFoundException
+    {
+        return getIndexDescriptor( readOperations, index.getLabel(), Iterables.asList( index.getPropertyKeys() ) );
+    }
+
+    private static IndexDescriptor getIndexDescriptor( ReadOperations readOperations, Label label,
+            List<String> propertyKeys ) throws SchemaRuleNotFoundException
+    {
+        int labelId = readOperations.labelGetForName( label.name() );
+        if ( labelId == KeyReadOperations.NO_SUCH_LABEL )
+        {
+            throw new NotFoundException( format( "Label %s not found", label.name() ) );
+        }
+
+        int[] propertyKeyIds = new int[propertyKeys.size()];
+        for ( int i = 0; i < propertyKeyIds.length; i++ )
+        {
+            propertyKeyIds[i] = readOperations.propertyKeyGetForName( propertyKeys.get( i ) );
+            if ( propertyKeyIds[i] == KeyReadOperations.NO_SUCH_PROPERTY_KEY )
+            {
+                throw new NotFoundException( format( "Property key %s not found", propertyKeys.get( i ) ) );
+            }
+        }
+
+        return propertyKeyIds.length == 1
+               ? readOperations.indexGetForLabelAndPropertyKey( labelId, propertyKeyIds[0] )
+               : readOperations.indexGetForLabelAndPropertyKeys( labelId, propertyKeyIds );
+    }
+
+    private static String propertyKeysOf( IndexDefinition index )
+    {
+        return String.join( ",", index.getPropertyKeys() );
+    }
+
     @Override
     public ConstraintCreator constraintFor( Label label )
     {
@@ -403,16 +401,21 @@ public class SchemaImpl implements Schema
         }
 
         @Override
-        public IndexDefinition createIndexDefinition( Label label, String propertyKey )
+        public IndexDefinition createIndexDefinition( Label label, String... propertyKeys )
         {
             try ( Statement statement = ctxSupplier.get() )
             {
                 try
                 {
                     int labelId = statement.schemaWriteOperations().labelGetOrCreateForName( label.name() );
-                    int propertyKeyId = statement.schemaWriteOperations().propertyKeyGetOrCreateForName( propertyKey );
-                    statement.schemaWriteOperations().indexCreate( labelId, propertyKeyId );
-                    return new IndexDefinitionImpl( this, label, propertyKey, false );
+                    int[] propertyKeyIds = new int[propertyKeys.length];
+                    for ( int i = 0; i < propertyKeys.length; i++ )
+                    {
+                        propertyKeyIds[i] =
+                                statement.schemaWriteOperations().propertyKeyGetOrCreateForName( propertyKeys[i] );
+                    }
+                    statement.schemaWriteOperations().compositeIndexCreate( labelId, propertyKeyIds );
+                    return new IndexDefinitionImpl( this, label, propertyKeys, false );
                 }
                 catch ( AlreadyIndexedException | AlreadyConstrainedException e )
                 {
@@ -435,21 +438,17 @@ public class SchemaImpl implements Schema
         }
 
         @Override
-        public void dropIndexDefinitions( Label label, String propertyKey )
+        public void dropIndexDefinitions( Label label, String... propertyKeys )
         {
             try ( Statement statement = ctxSupplier.get() )
             {
                 try
                 {
-                    int labelId = statement.readOperations().labelGetForName( label.name() );
-                    int propertyKeyId = statement.readOperations().propertyKeyGetForName( propertyKey );
-
-                    if ( labelId != KeyReadOperations.NO_SUCH_LABEL && propertyKeyId != KeyReadOperations
-                            .NO_SUCH_PROPERTY_KEY )
-                    {
-                        statement.schemaWriteOperations().indexDrop(
-                                statement.readOperations().indexGetForLabelAndPropertyKey( labelId, propertyKeyId ) );
-                    }
+                    statement.schemaWriteOperations().indexDrop( getIndexDescriptor( statement.readOperations(), label,
+                            Arrays.asList( propertyKeys ) ) );
+                }
+                catch ( NotFoundException e )
+                {   // Nothing to drop if the label or any of the property keys don't exist
                 }
                 catch ( SchemaRuleNotFoundException | DropIndexFailureException e )
                 {
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.labelscan;
+
+/**
+ * Key in a {@link NativeLabelScanStore}, i.e. a label id and a range of {@link LabelScanValue#RANGE_SIZE} node ids.
+ * Keys are ordered by label id first and node id range second, so that all ranges of a label are adjacent.
+ */
+class LabelScanKey
+{
+    int labelId = -1;
+    long idRange = -1;
+
+    LabelScanKey set( int labelId, long idRange )
+    {
+        this.labelId = labelId;
+        this.idRange = idRange;
+        return this;
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+        LabelScanKey that = (LabelScanKey) o;
+        return labelId == that.labelId && idRange == that.idRange;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * labelId + (int) (idRange ^ (idRange >>> 32));
+    }
+
+    @Override
+    public String toString()
+    {
+        return "[label:" + labelId + ",range:" + idRange + "]";
+    }
+}
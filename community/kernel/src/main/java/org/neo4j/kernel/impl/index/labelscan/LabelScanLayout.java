@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.labelscan;
+
+import java.nio.ByteBuffer;
+
+import org.neo4j.index.gbptree.Layout;
+
+/**
+ * {@link Layout} of a {@link NativeLabelScanStore}, with fixed size keys of label id and node id range
+ * and fixed size bitmap values.
+ */
+class LabelScanLayout implements Layout<LabelScanKey,LabelScanValue>
+{
+    static final long IDENTIFIER = 0x4C53_5354_0000_0001L;
+    static final int MAJOR_VERSION = 1;
+    static final int MINOR_VERSION = 0;
+
+    @Override
+    public int compare( LabelScanKey o1, LabelScanKey o2 )
+    {
+        int labelComparison = Integer.compare( o1.labelId, o2.labelId );
+        return labelComparison != 0 ? labelComparison : Long.compare( o1.idRange, o2.idRange );
+    }
+
+    @Override
+    public LabelScanKey newKey()
+    {
+        return new LabelScanKey();
+    }
+
+    @Override
+    public LabelScanKey copyKey( LabelScanKey key, LabelScanKey into )
+    {
+        return into.set( key.labelId, key.idRange );
+    }
+
+    @Override
+    public LabelScanValue newValue()
+    {
+        return new LabelScanValue();
+    }
+
+    @Override
+    public int keySize( LabelScanKey key )
+    {
+        return Integer.BYTES + Long.BYTES;
+    }
+
+    @Override
+    public int valueSize()
+    {
+        return Long.BYTES;
+    }
+
+    @Override
+    public void writeKey( ByteBuffer buffer, LabelScanKey key )
+    {
+        buffer.putInt( key.labelId );
+        buffer.putLong( key.idRange );
+    }
+
+    @Override
+    public void writeValue( ByteBuffer buffer, LabelScanValue value )
+    {
+        buffer.putLong( value.bits );
+    }
+
+    @Override
+    public void readKey( ByteBuffer buffer, LabelScanKey into, int keySize )
+    {
+        into.labelId = buffer.getInt();
+        into.idRange = buffer.getLong();
+    }
+
+    @Override
+    public void readValue( ByteBuffer buffer, LabelScanValue into )
+    {
+        into.bits = buffer.getLong();
+    }
+
+    @Override
+    public long identifier()
+    {
+        return IDENTIFIER;
+    }
+
+    @Override
+    public int majorVersion()
+    {
+        return MAJOR_VERSION;
+    }
+
+    @Override
+    public int minorVersion()
+    {
+        return MINOR_VERSION;
+    }
+}
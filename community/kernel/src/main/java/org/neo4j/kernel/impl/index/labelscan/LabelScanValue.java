@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.labelscan;
+
+/**
+ * Value in a {@link NativeLabelScanStore}, a bitmap of which nodes in a {@link LabelScanKey#idRange range}
+ * have the {@link LabelScanKey#labelId label}. Bit {@code n} represents node {@code idRange * RANGE_SIZE + n}.
+ */
+class LabelScanValue
+{
+    static final int RANGE_SIZE = Long.SIZE;
+
+    long bits;
+
+    LabelScanValue set( int bit )
+    {
+        bits |= 1L << bit;
+        return this;
+    }
+
+    LabelScanValue clear()
+    {
+        bits = 0;
+        return this;
+    }
+
+    static long rangeOf( long nodeId )
+    {
+        return nodeId / RANGE_SIZE;
+    }
+
+    static int bitOf( long nodeId )
+    {
+        return (int) (nodeId % RANGE_SIZE);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "[bits:" + Long.toBinaryString( bits ) + "]";
+    }
+}
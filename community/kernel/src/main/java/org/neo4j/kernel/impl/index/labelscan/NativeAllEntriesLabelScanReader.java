@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.labelscan;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.neo4j.collection.primitive.PrimitiveLongCollections;
+import org.neo4j.helpers.collection.PrefetchingIterator;
+import org.neo4j.index.gbptree.GBPTree;
+import org.neo4j.index.gbptree.Seeker;
+import org.neo4j.kernel.api.labelscan.AllEntriesLabelScanReader;
+import org.neo4j.kernel.api.labelscan.NodeLabelRange;
+
+import static org.neo4j.kernel.impl.index.labelscan.LabelScanValue.RANGE_SIZE;
+
+/**
+ * {@link AllEntriesLabelScanReader} of a {@link NativeLabelScanStore}. The tree is ordered by label first,
+ * so one seeker per label is kept and their ranges are merged into {@link NodeLabelRange node label ranges}
+ * in ascending range order.
+ */
+class NativeAllEntriesLabelScanReader implements AllEntriesLabelScanReader
+{
+    private static final long NO_RANGE = -1;
+
+    private final GBPTree<LabelScanKey,LabelScanValue> tree;
+    private long maxCount = -1;
+
+    NativeAllEntriesLabelScanReader( GBPTree<LabelScanKey,LabelScanValue> tree )
+    {
+        this.tree = tree;
+    }
+
+    @Override
+    public long maxCount()
+    {
+        if ( maxCount == -1 )
+        {
+            try
+            {
+                long highestRange = NO_RANGE;
+                Seeker<LabelScanKey,LabelScanValue> seeker = tree.seek( new LabelScanKey().set( 0, 0 ),
+                        new LabelScanKey().set( Integer.MAX_VALUE, Long.MAX_VALUE ) );
+                while ( seeker.next() )
+                {
+                    highestRange = Math.max( highestRange, seeker.key().idRange );
+                }
+                maxCount = highestRange + 1;
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+        }
+        return maxCount;
+    }
+
+    @Override
+    public Iterator<NodeLabelRange> iterator()
+    {
+        try
+        {
+            return new RangeIterator( tree, labelIds() );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    @Override
+    public void close()
+    {   // Nothing to close
+    }
+
+    private long[] labelIds() throws IOException
+    {
+        long[] labelIds = new long[8];
+        int count = 0;
+        LabelScanKey from = new LabelScanKey().set( 0, 0 );
+        LabelScanKey to = new LabelScanKey().set( Integer.MAX_VALUE, Long.MAX_VALUE );
+        while ( true )
+        {
+            Seeker<LabelScanKey,LabelScanValue> seeker = tree.seek( from, to );
+            if ( !seeker.next() )
+            {
+                break;
+            }
+            int labelId = seeker.key().labelId;
+            if ( count == labelIds.length )
+            {
+                labelIds = Arrays.copyOf( labelIds, count * 2 );
+            }
+            labelIds[count++] = labelId;
+            if ( labelId == Integer.MAX_VALUE )
+            {
+                break;
+            }
+            from.set( labelId + 1, 0 );
+        }
+        return Arrays.copyOf( labelIds, count );
+    }
+
+    private static class RangeIterator extends PrefetchingIterator<NodeLabelRange>
+    {
+        private final long[] labelIds;
+        private final Seeker<LabelScanKey,LabelScanValue>[] seekers;
+        private final long[] ranges;
+        private final long[] bits;
+
+        @SuppressWarnings( "unchecked" )
+        RangeIterator( GBPTree<LabelScanKey,LabelScanValue> tree, long[] labelIds )
+        {
+            this.labelIds = labelIds;
+            this.seekers = new Seeker[labelIds.length];
+            this.ranges = new long[labelIds.length];
+            this.bits = new long[labelIds.length];
+            for ( int i = 0; i < labelIds.length; i++ )
+            {
+                int labelId = (int) labelIds[i];
+                seekers[i] = tree.seek( new LabelScanKey().set( labelId, 0 ),
+                        new LabelScanKey().set( labelId, Long.MAX_VALUE ) );
+                advance( i );
+            }
+        }
+
+        @Override
+        protected NodeLabelRange fetchNextOrNull()
+        {
+            long range = NO_RANGE;
+            for ( long candidate : ranges )
+            {
+                if ( candidate != NO_RANGE && (range == NO_RANGE || candidate < range) )
+                {
+                    range = candidate;
+                }
+            }
+            if ( range == NO_RANGE )
+            {
+                return null;
+            }
+
+            long[][] labelsPerNode = new long[RANGE_SIZE][];
+            int nodeCount = 0;
+            for ( int i = 0; i < ranges.length; i++ )
+            {
+                if ( ranges[i] == range )
+                {
+                    for ( long remaining = bits[i]; remaining != 0; remaining &= remaining - 1 )
+                    {
+                        int bit = Long.numberOfTrailingZeros( remaining );
+                        if ( labelsPerNode[bit] == null )
+                        {
+                            labelsPerNode[bit] = PrimitiveLongCollections.EMPTY_LONG_ARRAY;
+                            nodeCount++;
+                        }
+                        labelsPerNode[bit] = append( labelsPerNode[bit], labelIds[i] );
+                    }
+                    advance( i );
+                }
+            }
+
+            long[] nodeIds = new long[nodeCount];
+            long[][] labelIdsPerNode = new long[nodeCount][];
+            for ( int bit = 0, node = 0; bit < RANGE_SIZE; bit++ )
+            {
+                if ( labelsPerNode[bit] != null )
+                {
+                    nodeIds[node] = range * RANGE_SIZE + bit;
+                    labelIdsPerNode[node++] = labelsPerNode[bit];
+                }
+            }
+            return new NativeNodeLabelRange( Math.toIntExact( range ), nodeIds, labelIdsPerNode );
+        }
+
+        private void advance( int i )
+        {
+            try
+            {
+                do
+                {
+                    if ( !seekers[i].next() )
+                    {
+                        ranges[i] = NO_RANGE;
+                        return;
+                    }
+                }
+                while ( seekers[i].value().bits == 0 );
+                ranges[i] = seekers[i].key().idRange;
+                bits[i] = seekers[i].value().bits;
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+        }
+
+        private static long[] append( long[] array, long value )
+        {
+            long[] result = Arrays.copyOf( array, array.length + 1 );
+            result[array.length] = value;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.labelscan;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+import org.neo4j.collection.primitive.PrimitiveLongCollections;
+import org.neo4j.collection.primitive.PrimitiveLongCollections.PrimitiveLongBaseIterator;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.index.gbptree.GBPTree;
+import org.neo4j.index.gbptree.Seeker;
+import org.neo4j.storageengine.api.schema.LabelScanReader;
+
+import static org.neo4j.kernel.impl.index.labelscan.LabelScanValue.RANGE_SIZE;
+import static org.neo4j.kernel.impl.index.labelscan.LabelScanValue.bitOf;
+import static org.neo4j.kernel.impl.index.labelscan.LabelScanValue.rangeOf;
+
+/**
+ * {@link LabelScanReader} of a {@link NativeLabelScanStore}. Nodes with a label are read by walking the
+ * adjacent ranges of that label in the tree. Readers don't block writers, so changes to the store made
+ * while iterating may or may not be visible.
+ */
+class NativeLabelScanReader implements LabelScanReader
+{
+    private final GBPTree<LabelScanKey,LabelScanValue> tree;
+
+    NativeLabelScanReader( GBPTree<LabelScanKey,LabelScanValue> tree )
+    {
+        this.tree = tree;
+    }
+
+    @Override
+    public PrimitiveLongIterator nodesWithLabel( int labelId )
+    {
+        return new LabelNodesIterator( tree.seek( new LabelScanKey().set( labelId, 0 ),
+                new LabelScanKey().set( labelId, Long.MAX_VALUE ) ) );
+    }
+
+    @Override
+    public PrimitiveLongIterator labelsForNode( long nodeId )
+    {
+        try
+        {
+            return PrimitiveLongCollections.iterator( labelsForNode( tree, nodeId ) );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    @Override
+    public void close()
+    {   // Nothing to close
+    }
+
+    /**
+     * Finds the labels of a node by skipping from label to label, seeking the node's range in each of them.
+     */
+    static long[] labelsForNode( GBPTree<LabelScanKey,LabelScanValue> tree, long nodeId ) throws IOException
+    {
+        long range = rangeOf( nodeId );
+        long bit = 1L << bitOf( nodeId );
+        long[] labels = new long[4];
+        int count = 0;
+        LabelScanKey from = new LabelScanKey().set( 0, range );
+        LabelScanKey to = new LabelScanKey().set( Integer.MAX_VALUE, Long.MAX_VALUE );
+        while ( true )
+        {
+            Seeker<LabelScanKey,LabelScanValue> seeker = tree.seek( from, to );
+            if ( !seeker.next() )
+            {
+                break;
+            }
+
+            LabelScanKey key = seeker.key();
+            if ( key.idRange == range )
+            {
+                if ( (seeker.value().bits & bit) != 0 )
+                {
+                    if ( count == labels.length )
+                    {
+                        labels = Arrays.copyOf( labels, count * 2 );
+                    }
+                    labels[count++] = key.labelId;
+                }
+                if ( key.labelId == Integer.MAX_VALUE )
+                {
+                    break;
+                }
+                from.set( key.labelId + 1, range );
+            }
+            else if ( key.idRange < range )
+            {
+                from.set( key.labelId, range );
+            }
+            else if ( key.labelId == Integer.MAX_VALUE )
+            {
+                break;
+            }
+            else
+            {
+                from.set( key.labelId + 1, range );
+            }
+        }
+        return Arrays.copyOf( labels, count );
+    }
+
+    private static class LabelNodesIterator extends PrimitiveLongBaseIterator
+    {
+        private final Seeker<LabelScanKey,LabelScanValue> seeker;
+        private long baseNodeId;
+        private long bits;
+
+        LabelNodesIterator( Seeker<LabelScanKey,LabelScanValue> seeker )
+        {
+            this.seeker = seeker;
+        }
+
+        @Override
+        protected boolean fetchNext()
+        {
+            try
+            {
+                while ( bits == 0 )
+                {
+                    if ( !seeker.next() )
+                    {
+                        return false;
+                    }
+                    baseNodeId = seeker.key().idRange * RANGE_SIZE;
+                    bits = seeker.value().bits;
+                }
+                int bit = Long.numberOfTrailingZeros( bits );
+                bits &= bits - 1;
+                return next( baseNodeId + bit );
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.labelscan;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.helpers.collection.Iterators;
+import org.neo4j.index.gbptree.GBPTree;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.labelscan.AllEntriesLabelScanReader;
+import org.neo4j.kernel.api.labelscan.LabelScanStore;
+import org.neo4j.kernel.api.labelscan.LabelScanWriter;
+import org.neo4j.kernel.impl.api.scan.LabelScanStoreProvider.FullStoreChangeStream;
+import org.neo4j.kernel.impl.store.UnderlyingStorageException;
+import org.neo4j.logging.Log;
+import org.neo4j.logging.LogProvider;
+import org.neo4j.storageengine.api.schema.LabelScanReader;
+
+/**
+ * {@link LabelScanStore} keeping one bitmap of {@link LabelScanValue#RANGE_SIZE} nodes per label and node id range
+ * in a {@link GBPTree} in the page cache. Updates are merged in place into the bitmap pages and scanning a label
+ * walks its ranges sequentially.
+ * <p>
+ * The store is checkpointed when {@link #force() forced}. If it wasn't cleanly checkpointed before a crash, the
+ * tree is restored to its last checkpoint when {@link #init() initialized} and recovery of the transaction log
+ * then reapplies the label updates made after it, which is fine since applying a label update is idempotent.
+ * If the store is missing, or can't be read or restored, it's rebuilt from the node store when
+ * {@link #start() started}.
+ */
+public class NativeLabelScanStore implements LabelScanStore
+{
+    static final String FILE_NAME = "labelscanstore.db";
+
+    private final PageCache pageCache;
+    private final FileSystemAbstraction fs;
+    private final File storeFile;
+    // We get in a full store stream here in case we need to fully rebuild the store if it's missing or corrupted.
+    private final FullStoreChangeStream fullStoreStream;
+    private final Log log;
+    private final Monitor monitor;
+    private final LabelScanLayout layout = new LabelScanLayout();
+    private GBPTree<LabelScanKey,LabelScanValue> tree;
+    private boolean needsRebuild;
+
+    public NativeLabelScanStore( PageCache pageCache, FileSystemAbstraction fs, File storeDir,
+            FullStoreChangeStream fullStoreStream, LogProvider logProvider, Monitor monitor )
+    {
+        this.pageCache = pageCache;
+        this.fs = fs;
+        this.storeFile = getLabelScanStoreFile( storeDir );
+        this.fullStoreStream = fullStoreStream;
+        this.log = logProvider.getLog( getClass() );
+        this.monitor = monitor;
+    }
+
+    public static File getLabelScanStoreFile( File storeDir )
+    {
+        return new File( new File( new File( new File( storeDir, "schema" ), "label" ), "native" ), FILE_NAME );
+    }
+
+    @Override
+    public LabelScanReader newReader()
+    {
+        return new NativeLabelScanReader( tree );
+    }
+
+    @Override
+    public LabelScanWriter newWriter()
+    {
+        return new NativeLabelScanWriter( tree, layout );
+    }
+
+    @Override
+    public void force()
+    {
+        try
+        {
+            if ( tree != null )
+            {
+                tree.checkpoint();
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( e );
+        }
+    }
+
+    @Override
+    public AllEntriesLabelScanReader allNodeLabelRanges()
+    {
+        return new NativeAllEntriesLabelScanReader( tree );
+    }
+
+    @Override
+    public ResourceIterator<File> snapshotStoreFiles() throws IOException
+    {
+        force();
+        return Iterators.asResourceIterator( Iterators.iterator( storeFile ) );
+    }
+
+    @Override
+    public void init() throws IOException
+    {
+        monitor.init();
+        fs.mkdirs( storeFile.getParentFile() );
+        boolean existed = fs.fileExists( storeFile );
+        try
+        {
+            tree = new GBPTree<>( pageCache, storeFile, layout );
+        }
+        catch ( IOException | UncheckedIOException e )
+        {
+            monitor.corruptedIndex();
+            log.warn( "Native label scan store could not be read. Preparing to rebuild.", e );
+            recreate();
+            return;
+        }
+
+        if ( !existed )
+        {
+            monitor.noIndex();
+            log.info( "No native label scan store found, this might just be first use. Preparing to rebuild." );
+            needsRebuild = true;
+        }
+        else if ( tree.wasRestoredOnOpen() )
+        {
+            log.info( "Native label scan store was not shut down cleanly and has been restored to its last " +
+                      "checkpoint. Later changes will be recovered from the transaction log." );
+        }
+        else if ( !tree.wasCleanOnOpen() )
+        {
+            monitor.corruptedIndex();
+            log.warn( "Native label scan store was not shut down cleanly and could not be restored to its last " +
+                      "checkpoint. Preparing to rebuild." );
+            tree.close();
+            recreate();
+        }
+    }
+
+    private void recreate() throws IOException
+    {
+        fs.deleteFile( storeFile );
+        tree = new GBPTree<>( pageCache, storeFile, layout );
+        needsRebuild = true;
+    }
+
+    @Override
+    public void start() throws IOException
+    {
+        if ( needsRebuild )
+        {   // we saw in init() that we need to rebuild the store, so do it here after the
+            // neostore has been properly started.
+            monitor.rebuilding();
+            log.info( "Rebuilding native label scan store, this may take a while" );
+            long numberOfNodes;
+            try ( LabelScanWriter writer = newWriter() )
+            {
+                numberOfNodes = fullStoreStream.applyTo( writer );
+            }
+            tree.checkpoint();
+            monitor.rebuilt( numberOfNodes );
+            log.info( "Native label scan store rebuilt (roughly " + numberOfNodes + " nodes)" );
+            needsRebuild = false;
+        }
+    }
+
+    @Override
+    public void stop()
+    {   // Not needed
+    }
+
+    @Override
+    public void shutdown() throws IOException
+    {
+        if ( tree != null )
+        {
+            tree.close();
+            tree = null;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.labelscan;
+
+import java.util.function.Supplier;
+
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.helpers.Service;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.labelscan.LabelScanStore;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.extension.KernelExtensionFactory;
+import org.neo4j.kernel.impl.api.index.IndexStoreView;
+import org.neo4j.kernel.impl.api.scan.LabelScanStoreProvider;
+import org.neo4j.kernel.impl.logging.LogService;
+import org.neo4j.kernel.impl.spi.KernelContext;
+import org.neo4j.kernel.monitoring.Monitors;
+
+import static org.neo4j.kernel.impl.api.scan.LabelScanStoreProvider.fullStoreLabelUpdateStream;
+
+@Service.Implementation(KernelExtensionFactory.class)
+public class NativeLabelScanStoreExtension extends KernelExtensionFactory<NativeLabelScanStoreExtension.Dependencies>
+{
+    public static final String KEY = "native-label-scan-store";
+
+    /**
+     * Priority when enabled, above that of the Lucene label scan store.
+     */
+    static final int PRIORITY_ENABLED = 50;
+
+    /**
+     * Priority when disabled, below that of any other label scan store.
+     */
+    static final int PRIORITY_DISABLED = 0;
+
+    public interface Dependencies
+    {
+        Config getConfig();
+
+        PageCache pageCache();
+
+        /**
+         * @return a {@link Supplier} of {@link IndexStoreView}, since it's only available once the data source
+         * has been started, which is when the store may need to be rebuilt.
+         */
+        Supplier<IndexStoreView> indexStoreView();
+
+        LogService getLogService();
+
+        Monitors monitors();
+    }
+
+    public NativeLabelScanStoreExtension()
+    {
+        super( KEY );
+    }
+
+    @Override
+    public LabelScanStoreProvider newInstance( KernelContext context, Dependencies dependencies ) throws Throwable
+    {
+        boolean enabled = dependencies.getConfig().get( GraphDatabaseSettings.native_label_scan_store_enabled );
+        NativeLabelScanStore scanStore = new NativeLabelScanStore( dependencies.pageCache(), context.fileSystem(),
+                context.storeDir(), fullStoreLabelUpdateStream( dependencies.indexStoreView() ),
+                dependencies.getLogService().getInternalLogProvider(),
+                dependencies.monitors().newMonitor( LabelScanStore.Monitor.class ) );
+        return new LabelScanStoreProvider( scanStore, enabled ? PRIORITY_ENABLED : PRIORITY_DISABLED );
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.labelscan;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.index.gbptree.GBPTree;
+import org.neo4j.index.gbptree.ValueMerger;
+import org.neo4j.index.gbptree.Writer;
+import org.neo4j.kernel.api.labelscan.LabelScanWriter;
+import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
+
+import static org.neo4j.kernel.impl.index.labelscan.LabelScanValue.bitOf;
+import static org.neo4j.kernel.impl.index.labelscan.LabelScanValue.rangeOf;
+
+/**
+ * {@link LabelScanWriter} of a {@link NativeLabelScanStore}. Updates are condensed into added and removed bits
+ * per label and node id range and then merged, in key order, into the bitmaps in the tree. Bitmaps are never
+ * inserted empty and are removed when they become empty. The tree writer is only held while merging a batch, so
+ * that the store stays readable while updates are being condensed.
+ */
+class NativeLabelScanWriter implements LabelScanWriter
+{
+    /**
+     * Number of distinct label and range combinations to condense before merging them into the tree.
+     */
+    static final int BATCH_SIZE = 10_000;
+
+    private static final int ADDED = 0;
+    private static final int REMOVED = 1;
+
+    private final GBPTree<LabelScanKey,LabelScanValue> tree;
+    private final LabelScanLayout layout;
+    private final Map<LabelScanKey,long[]> pending = new HashMap<>();
+    private final LabelScanValue value = new LabelScanValue();
+    private final BitsMerger merger = new BitsMerger();
+
+    NativeLabelScanWriter( GBPTree<LabelScanKey,LabelScanValue> tree, LabelScanLayout layout )
+    {
+        this.tree = tree;
+        this.layout = layout;
+    }
+
+    @Override
+    public void write( NodeLabelUpdate update ) throws IOException
+    {
+        long nodeId = update.getNodeId();
+        long bit = 1L << bitOf( nodeId );
+        long range = rangeOf( nodeId );
+        long[] before = update.getLabelsBefore();
+        long[] after = update.getLabelsAfter();
+        for ( long labelId : before )
+        {
+            if ( !contains( after, labelId ) )
+            {
+                long[] bits = pendingBits( labelId, range );
+                bits[REMOVED] |= bit;
+                bits[ADDED] &= ~bit;
+            }
+        }
+        for ( long labelId : after )
+        {
+            if ( !contains( before, labelId ) )
+            {
+                long[] bits = pendingBits( labelId, range );
+                bits[ADDED] |= bit;
+                bits[REMOVED] &= ~bit;
+            }
+        }
+
+        if ( pending.size() >= BATCH_SIZE )
+        {
+            flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        flush();
+    }
+
+    private long[] pendingBits( long labelId, long range )
+    {
+        LabelScanKey key = new LabelScanKey().set( Math.toIntExact( labelId ), range );
+        return pending.computeIfAbsent( key, k -> new long[2] );
+    }
+
+    private void flush() throws IOException
+    {
+        if ( pending.isEmpty() )
+        {
+            return;
+        }
+
+        List<LabelScanKey> keys = new ArrayList<>( pending.keySet() );
+        keys.sort( layout );
+        try ( Writer<LabelScanKey,LabelScanValue> writer = tree.writer() )
+        {
+            for ( LabelScanKey key : keys )
+            {
+                long[] bits = pending.get( key );
+                if ( bits[ADDED] == 0 && bits[REMOVED] == 0 )
+                {   // the updates in this batch cancelled each other out
+                    continue;
+                }
+                value.bits = bits[ADDED];
+                merger.removed = bits[REMOVED];
+                // With nothing added there's no bitmap to insert if the range doesn't have one already
+                writer.merge( key, bits[ADDED] == 0 ? null : value, merger );
+            }
+        }
+        pending.clear();
+    }
+
+    private static boolean contains( long[] labels, long labelId )
+    {
+        for ( long label : labels )
+        {
+            if ( label == labelId )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class BitsMerger implements ValueMerger<LabelScanValue>
+    {
+        private long removed;
+
+        @Override
+        public LabelScanValue merge( LabelScanValue existingValue, LabelScanValue newValue )
+        {
+            long added = newValue == null ? 0 : newValue.bits;
+            existingValue.bits = (existingValue.bits | added) & ~removed;
+            return existingValue.bits == 0 ? null : existingValue;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.labelscan;
+
+import java.util.Arrays;
+
+import org.neo4j.kernel.api.labelscan.NodeLabelRange;
+
+/**
+ * {@link NodeLabelRange} read from a {@link NativeLabelScanStore}, with node ids in ascending order.
+ */
+class NativeNodeLabelRange implements NodeLabelRange
+{
+    private final int id;
+    private final long[] nodeIds;
+    private final long[][] labelIds;
+
+    NativeNodeLabelRange( int id, long[] nodeIds, long[][] labelIds )
+    {
+        this.id = id;
+        this.nodeIds = nodeIds;
+        this.labelIds = labelIds;
+    }
+
+    @Override
+    public int id()
+    {
+        return id;
+    }
+
+    @Override
+    public long[] nodes()
+    {
+        return nodeIds;
+    }
+
+    @Override
+    public long[] labels( long nodeId )
+    {
+        int index = Arrays.binarySearch( nodeIds, nodeId );
+        if ( index < 0 )
+        {
+            throw new IllegalArgumentException( "Unknown nodeId: " + nodeId );
+        }
+        return labelIds[index];
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder result = new StringBuilder( "NodeLabelRange[idRange=" ).append( id ).append( "; {" );
+        for ( int i = 0; i < nodeIds.length; i++ )
+        {
+            if ( i != 0 )
+            {
+                result.append( ", " );
+            }
+            result.append( "Node[" ).append( nodeIds[i] ).append( "]: Labels" )
+                    .append( Arrays.toString( labelIds[i] ) );
+        }
+        return result.append( "}]" ).toString();
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.neo4j.index.gbptree.GBPTree;
+import org.neo4j.index.gbptree.Seeker;
+import org.neo4j.index.gbptree.Writer;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.exceptions.KernelException;
+import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
+import org.neo4j.kernel.api.index.IndexConfiguration;
+import org.neo4j.kernel.api.index.InternalIndexState;
+import org.neo4j.kernel.api.index.PreexistingIndexEntryConflictException;
+import org.neo4j.kernel.api.index.PropertyAccessor;
+import org.neo4j.storageengine.api.schema.IndexSample;
+
+import static org.neo4j.kernel.impl.index.schema.NativeSchemaKey.TYPE_NUMBER;
+import static org.neo4j.kernel.impl.index.schema.NativeSchemaKey.TYPE_STRING;
+
+/**
+ * A single native schema index, i.e. a {@link GBPTree} of {@link NativeSchemaKey} in its own file. The state
+ * of the index, and the failure if population failed, is kept in the user header of the tree.
+ */
+class NativeSchemaIndex
+{
+    static final NativeSchemaLayout LAYOUT = new NativeSchemaLayout();
+
+    private static final byte STATE_POPULATING = 0;
+    private static final byte STATE_ONLINE = 1;
+    private static final byte STATE_FAILED = 2;
+
+    private final PageCache pageCache;
+    private final FileSystemAbstraction fs;
+    private final File file;
+    private final IndexConfiguration config;
+    private GBPTree<NativeSchemaKey,NativeSchemaValue> tree;
+
+    NativeSchemaIndex( PageCache pageCache, FileSystemAbstraction fs, File file, IndexConfiguration config )
+    {
+        this.pageCache = pageCache;
+        this.fs = fs;
+        this.file = file;
+        this.config = config;
+    }
+
+    /**
+     * Creates a new, empty, index, replacing any existing one.
+     */
+    void create() throws IOException
+    {
+        if ( fs.fileExists( file ) )
+        {
+            fs.deleteFile( file );
+        }
+        fs.mkdirs( file.getParentFile() );
+        open();
+    }
+
+    void open() throws IOException
+    {
+        tree = new GBPTree<>( pageCache, file, LAYOUT );
+    }
+
+    GBPTree<NativeSchemaKey,NativeSchemaValue> tree()
+    {
+        return tree;
+    }
+
+    boolean isUnique()
+    {
+        return config.isUnique();
+    }
+
+    void markAsOnline() throws IOException
+    {
+        tree.setUserHeader( new byte[]{STATE_ONLINE} );
+    }
+
+    void markAsFailed( String failure ) throws IOException
+    {
+        byte[] failureBytes = failure.getBytes( StandardCharsets.UTF_8 );
+        byte[] header = new byte[1 + Math.min( failureBytes.length, pageCache.pageSize() / 2 )];
+        header[0] = STATE_FAILED;
+        System.arraycopy( failureBytes, 0, header, 1, header.length - 1 );
+        tree.setUserHeader( header );
+    }
+
+    void close() throws IOException
+    {
+        if ( tree != null )
+        {
+            tree.close();
+            tree = null;
+        }
+    }
+
+    void drop() throws IOException
+    {
+        close();
+        fs.deleteRecursively( file.getParentFile() );
+    }
+
+    /**
+     * @return the state of the index in {@code file}. An online index which wasn't cleanly shut down is still
+     * {@link InternalIndexState#ONLINE} if its tree was {@link GBPTree#wasRestoredOnOpen() restored} to its last
+     * checkpoint, since recovery reapplies the updates made after it. If it couldn't be restored it's
+     * {@link InternalIndexState#POPULATING}, and rebuilt.
+     */
+    static InternalIndexState readState( PageCache pageCache, File file ) throws IOException
+    {
+        try ( GBPTree<NativeSchemaKey,NativeSchemaValue> tree = new GBPTree<>( pageCache, file, LAYOUT ) )
+        {
+            byte[] header = tree.userHeader();
+            if ( header.length > 0 && header[0] == STATE_FAILED )
+            {
+                return InternalIndexState.FAILED;
+            }
+            if ( header.length > 0 && header[0] == STATE_ONLINE &&
+                 (tree.wasCleanOnOpen() || tree.wasRestoredOnOpen()) )
+            {
+                return InternalIndexState.ONLINE;
+            }
+            return InternalIndexState.POPULATING;
+        }
+    }
+
+    static String readFailure( PageCache pageCache, File file ) throws IOException
+    {
+        try ( GBPTree<NativeSchemaKey,NativeSchemaValue> tree = new GBPTree<>( pageCache, file, LAYOUT ) )
+        {
+            byte[] header = tree.userHeader();
+            if ( header.length > 0 && header[0] == STATE_FAILED )
+            {
+                return new String( header, 1, header.length - 1, StandardCharsets.UTF_8 );
+            }
+            return null;
+        }
+    }
+
+    void add( Writer<NativeSchemaKey,NativeSchemaValue> writer, NativeSchemaKey key, long nodeId, Object value )
+            throws IOException
+    {
+        validateKeySize( key.from( value, nodeId ), tree.keySizeLimit() );
+        writer.put( key, NativeSchemaValue.INSTANCE );
+    }
+
+    /**
+     * Transactions validate their values before commit, see {@link NativeSchemaIndexProvider#validateBeforeCommit},
+     * so this only fails for values which were added in other ways, e.g. values populated from the store.
+     */
+    static void validateKeySize( NativeSchemaKey key, int keySizeLimit )
+    {
+        int keySize = LAYOUT.keySize( key );
+        if ( keySize > keySizeLimit )
+        {
+            throw new IllegalArgumentException( "Property value is too large to index, its index key would be " +
+                    keySize + " bytes but the limit is " + keySizeLimit );
+        }
+    }
+
+    void remove( Writer<NativeSchemaKey,NativeSchemaValue> writer, NativeSchemaKey key, long nodeId, Object value )
+            throws IOException
+    {
+        writer.remove( key.from( value, nodeId ), null );
+    }
+
+    /**
+     * Verifies that no two nodes in this index have the same value.
+     */
+    void verifyUniqueness( PropertyAccessor accessor, int propertyKeyId )
+            throws IndexEntryConflictException, IOException
+    {
+        NativeSchemaKey from = new NativeSchemaKey().lowest( TYPE_NUMBER );
+        NativeSchemaKey to = new NativeSchemaKey().highest( TYPE_STRING );
+        verifyUniqueness( accessor, propertyKeyId, tree.seek( from, to ) );
+    }
+
+    /**
+     * Verifies that no two nodes in this index have any of the given values.
+     */
+    void verifyUniqueness( PropertyAccessor accessor, int propertyKeyId, Iterable<Object> values )
+            throws IndexEntryConflictException, IOException
+    {
+        for ( Object value : values )
+        {
+            NativeSchemaKey from = new NativeSchemaKey().from( value, Long.MIN_VALUE );
+            NativeSchemaKey to = new NativeSchemaKey().from( value, Long.MAX_VALUE );
+            verifyUniqueness( accessor, propertyKeyId, tree.seek( from, to ) );
+        }
+    }
+
+    IndexSample sample() throws IOException
+    {
+        Seeker<NativeSchemaKey,NativeSchemaValue> seeker = tree.seek(
+                new NativeSchemaKey().lowest( TYPE_NUMBER ), new NativeSchemaKey().highest( TYPE_STRING ) );
+        NativeSchemaKey previous = new NativeSchemaKey();
+        long indexSize = 0;
+        long uniqueValues = 0;
+        while ( seeker.next() )
+        {
+            if ( indexSize == 0 || seeker.key().compareValueTo( previous ) != 0 )
+            {
+                uniqueValues++;
+                previous.copyFrom( seeker.key() );
+            }
+            indexSize++;
+        }
+        return new IndexSample( indexSize, uniqueValues, indexSize );
+    }
+
+    @Override
+    public String toString()
+    {
+        return getClass().getSimpleName() + "[" + file + "]";
+    }
+
+    private void verifyUniqueness( PropertyAccessor accessor, int propertyKeyId,
+            Seeker<NativeSchemaKey,NativeSchemaValue> seeker )
+            throws IndexEntryConflictException, IOException
+    {
+        NativeSchemaKey previous = new NativeSchemaKey();
+        boolean first = true;
+        while ( seeker.next() )
+        {
+            NativeSchemaKey key = seeker.key();
+            if ( !first && key.compareValueTo( previous ) == 0 )
+            {
+                Object value = propertyValue( accessor, propertyKeyId, key.nodeId );
+                throw new PreexistingIndexEntryConflictException( value, previous.nodeId, key.nodeId );
+            }
+            previous.copyFrom( key );
+            first = false;
+        }
+    }
+
+    private static Object propertyValue( PropertyAccessor accessor, int propertyKeyId, long nodeId )
+    {
+        try
+        {
+            return accessor.getProperty( nodeId, propertyKeyId ).value();
+        }
+        catch ( KernelException e )
+        {
+            throw new IllegalStateException( "Indexed node should exist and have the indexed property.", e );
+        }
+    }
+}
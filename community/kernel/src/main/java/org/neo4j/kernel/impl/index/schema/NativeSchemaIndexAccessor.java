@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.helpers.collection.BoundedIterable;
+import org.neo4j.helpers.collection.Iterators;
+import org.neo4j.helpers.collection.PrefetchingIterator;
+import org.neo4j.index.gbptree.Seeker;
+import org.neo4j.kernel.api.index.IndexAccessor;
+import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
+import org.neo4j.storageengine.api.schema.IndexReader;
+
+import static org.neo4j.kernel.impl.index.schema.NativeSchemaKey.TYPE_NUMBER;
+import static org.neo4j.kernel.impl.index.schema.NativeSchemaKey.TYPE_STRING;
+
+/**
+ * {@link IndexAccessor} of an online native schema index. Its tree is {@link #force() checkpointed} together
+ * with the stores and readers never block writers, so a single tree instance serves all readers and updaters.
+ */
+class NativeSchemaIndexAccessor implements IndexAccessor
+{
+    private final NativeSchemaIndex index;
+    private final File file;
+
+    NativeSchemaIndexAccessor( NativeSchemaIndex index, File file ) throws IOException
+    {
+        this.index = index;
+        this.file = file;
+        index.open();
+    }
+
+    @Override
+    public void drop() throws IOException
+    {
+        index.drop();
+    }
+
+    @Override
+    public IndexUpdater newUpdater( IndexUpdateMode mode )
+    {
+        return new NativeSchemaIndexUpdater( index );
+    }
+
+    @Override
+    public void flush() throws IOException
+    {   // Changes are in the page cache, which is flushed by force()
+    }
+
+    @Override
+    public void force() throws IOException
+    {
+        index.tree().checkpoint();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        index.close();
+    }
+
+    @Override
+    public IndexReader newReader()
+    {
+        return new NativeSchemaIndexReader( index );
+    }
+
+    @Override
+    public BoundedIterable<Long> newAllEntriesReader()
+    {
+        return new BoundedIterable<Long>()
+        {
+            @Override
+            public long maxCount()
+            {
+                try
+                {
+                    return index.sample().indexSize();
+                }
+                catch ( IOException e )
+                {
+                    throw new UncheckedIOException( e );
+                }
+            }
+
+            @Override
+            public void close()
+            {
+            }
+
+            @Override
+            public Iterator<Long> iterator()
+            {
+                Seeker<NativeSchemaKey,NativeSchemaValue> seeker = index.tree().seek(
+                        new NativeSchemaKey().lowest( TYPE_NUMBER ), new NativeSchemaKey().highest( TYPE_STRING ) );
+                return new PrefetchingIterator<Long>()
+                {
+                    @Override
+                    protected Long fetchNextOrNull()
+                    {
+                        try
+                        {
+                            return seeker.next() ? seeker.key().nodeId : null;
+                        }
+                        catch ( IOException e )
+                        {
+                            throw new UncheckedIOException( e );
+                        }
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public ResourceIterator<File> snapshotFiles() throws IOException
+    {
+        force();
+        return Iterators.asResourceIterator( Iterators.iterator( file ) );
+    }
+
+    @Override
+    public String toString()
+    {
+        return getClass().getSimpleName() + "[" + index + "]";
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.neo4j.index.gbptree.Writer;
+import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
+import org.neo4j.kernel.api.index.IndexDescriptor;
+import org.neo4j.kernel.api.index.IndexPopulator;
+import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.api.index.NodePropertyUpdate;
+import org.neo4j.kernel.api.index.PropertyAccessor;
+import org.neo4j.storageengine.api.schema.IndexSample;
+
+/**
+ * {@link IndexPopulator} of a native schema index. The sample is taken from the populated tree itself,
+ * which is cheap since entries with equal values are adjacent.
+ */
+class NativeSchemaIndexPopulator implements IndexPopulator
+{
+    private final NativeSchemaIndex index;
+    private final int propertyKeyId;
+    private final NativeSchemaKey key = new NativeSchemaKey();
+
+    NativeSchemaIndexPopulator( NativeSchemaIndex index, IndexDescriptor descriptor )
+    {
+        this.index = index;
+        this.propertyKeyId = descriptor.getPropertyKeyId();
+    }
+
+    @Override
+    public void create() throws IOException
+    {
+        index.create();
+    }
+
+    @Override
+    public void drop() throws IOException
+    {
+        index.drop();
+    }
+
+    @Override
+    public void add( Collection<NodePropertyUpdate> updates ) throws IndexEntryConflictException, IOException
+    {
+        try ( Writer<NativeSchemaKey,NativeSchemaValue> writer = index.tree().writer() )
+        {
+            for ( NodePropertyUpdate update : updates )
+            {
+                index.add( writer, key, update.getNodeId(), update.getValueAfter() );
+            }
+        }
+    }
+
+    @Override
+    public void verifyDeferredConstraints( PropertyAccessor accessor ) throws IndexEntryConflictException, IOException
+    {
+        if ( index.isUnique() )
+        {
+            index.verifyUniqueness( accessor, propertyKeyId );
+        }
+    }
+
+    @Override
+    public IndexUpdater newPopulatingUpdater( PropertyAccessor accessor ) throws IOException
+    {
+        if ( !index.isUnique() )
+        {
+            return new NativeSchemaIndexUpdater( index );
+        }
+        return new NativeSchemaIndexUpdater( index )
+        {
+            private final List<Object> updatedValues = new ArrayList<>();
+
+            @Override
+            public void process( NodePropertyUpdate update ) throws IOException, IndexEntryConflictException
+            {
+                super.process( update );
+                switch ( update.getUpdateMode() )
+                {
+                case ADDED:
+                case CHANGED:
+                    updatedValues.add( update.getValueAfter() );
+                    break;
+                default:
+                    break;
+                }
+            }
+
+            @Override
+            public void close() throws IOException, IndexEntryConflictException
+            {
+                index.verifyUniqueness( accessor, propertyKeyId, updatedValues );
+            }
+        };
+    }
+
+    @Override
+    public void close( boolean populationCompletedSuccessfully ) throws IOException
+    {
+        try
+        {
+            if ( populationCompletedSuccessfully )
+            {
+                index.markAsOnline();
+            }
+        }
+        finally
+        {
+            index.close();
+        }
+    }
+
+    @Override
+    public void markAsFailed( String failure ) throws IOException
+    {
+        if ( index.tree() == null )
+        {
+            index.create();
+        }
+        index.markAsFailed( failure );
+    }
+
+    @Override
+    public void includeSample( NodePropertyUpdate update )
+    {   // The sample is taken from the tree when population is done
+    }
+
+    @Override
+    public IndexSample sampleResult()
+    {
+        try
+        {
+            return index.sample();
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.neo4j.index.gbptree.GBPTree;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.index.IndexAccessor;
+import org.neo4j.kernel.api.index.IndexConfiguration;
+import org.neo4j.kernel.api.index.IndexDescriptor;
+import org.neo4j.kernel.api.index.IndexPopulator;
+import org.neo4j.kernel.api.index.InternalIndexState;
+import org.neo4j.kernel.api.index.SchemaIndexProvider;
+import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.kernel.impl.api.scan.LabelScanStoreProvider;
+import org.neo4j.kernel.impl.storemigration.StoreMigrationParticipant;
+
+/**
+ * {@link SchemaIndexProvider} keeping each schema index in a {@link GBPTree B+tree}
+ * of its own, accessed through the {@link PageCache}. Point lookups and range seeks go straight to the tree
+ * and index memory is governed by the page cache size, just like the stores.
+ * <p>
+ * An index which wasn't cleanly shut down is restored to the state it had when it was last
+ * {@link IndexAccessor#force() forced}, i.e. at the last checkpoint, and reported as online. Recovery then reapplies
+ * the updates made after that checkpoint, some of which the index may already contain, which is fine since applying
+ * updates is idempotent. Only an index which can't be restored is reported as
+ * {@link InternalIndexState#POPULATING} and so rebuilt from the store.
+ */
+public class NativeSchemaIndexProvider extends SchemaIndexProvider
+{
+    private final PageCache pageCache;
+    private final FileSystemAbstraction fs;
+    private final File rootDirectory;
+    private final Map<Long,String> failures = new ConcurrentHashMap<>();
+    private final int keySizeLimit;
+
+    public NativeSchemaIndexProvider( PageCache pageCache, FileSystemAbstraction fs, File storeDir, int priority )
+    {
+        super( NativeSchemaIndexProviderFactory.PROVIDER_DESCRIPTOR, priority );
+        this.pageCache = pageCache;
+        this.fs = fs;
+        this.rootDirectory = getSchemaIndexStoreDirectory( storeDir );
+        this.keySizeLimit = GBPTree.keySizeLimit( pageCache.pageSize(), NativeSchemaIndex.LAYOUT );
+    }
+
+    @Override
+    public IndexPopulator getPopulator( long indexId, IndexDescriptor descriptor, IndexConfiguration config,
+            IndexSamplingConfig samplingConfig )
+    {
+        return new NativeSchemaIndexPopulator( newIndex( indexId, config ), descriptor );
+    }
+
+    @Override
+    public IndexAccessor getOnlineAccessor( long indexId, IndexConfiguration config,
+            IndexSamplingConfig samplingConfig ) throws IOException
+    {
+        return new NativeSchemaIndexAccessor( newIndex( indexId, config ), indexFile( indexId ) );
+    }
+
+    @Override
+    public String getPopulationFailure( long indexId ) throws IllegalStateException
+    {
+        String failure = failures.get( indexId );
+        if ( failure == null && fs.fileExists( indexFile( indexId ) ) )
+        {
+            try
+            {
+                failure = NativeSchemaIndex.readFailure( pageCache, indexFile( indexId ) );
+            }
+            catch ( IOException e )
+            {
+                failure = e.getMessage();
+            }
+        }
+        if ( failure == null )
+        {
+            throw new IllegalStateException( "Index " + indexId + " isn't failed" );
+        }
+        return failure;
+    }
+
+    @Override
+    public InternalIndexState getInitialState( long indexId )
+    {
+        File file = indexFile( indexId );
+        if ( !fs.fileExists( file ) )
+        {
+            return InternalIndexState.POPULATING;
+        }
+        try
+        {
+            return NativeSchemaIndex.readState( pageCache, file );
+        }
+        catch ( IOException e )
+        {
+            failures.put( indexId, "Unable to open index: " + e.getMessage() );
+            return InternalIndexState.FAILED;
+        }
+    }
+
+    @Override
+    public void validateBeforeCommit( Object value )
+    {
+        NativeSchemaIndex.validateKeySize( new NativeSchemaKey().from( value, 0 ), keySizeLimit );
+    }
+
+    @Override
+    public StoreMigrationParticipant storeMigrationParticipant( FileSystemAbstraction fs, PageCache pageCache,
+            LabelScanStoreProvider labelScanStoreProvider )
+    {
+        return StoreMigrationParticipant.NOT_PARTICIPATING;
+    }
+
+    private NativeSchemaIndex newIndex( long indexId, IndexConfiguration config )
+    {
+        return new NativeSchemaIndex( pageCache, fs, indexFile( indexId ), config );
+    }
+
+    private File indexFile( long indexId )
+    {
+        return new File( new File( rootDirectory, String.valueOf( indexId ) ), "index" );
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.helpers.Service;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.index.SchemaIndexProvider;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.extension.KernelExtensionFactory;
+import org.neo4j.kernel.impl.spi.KernelContext;
+
+@Service.Implementation(KernelExtensionFactory.class)
+public class NativeSchemaIndexProviderFactory extends
+        KernelExtensionFactory<NativeSchemaIndexProviderFactory.Dependencies>
+{
+    public static final String KEY = "native-btree";
+
+    public static final SchemaIndexProvider.Descriptor PROVIDER_DESCRIPTOR =
+            new SchemaIndexProvider.Descriptor( KEY, "1.0" );
+
+    /**
+     * Priority when enabled, above that of the Lucene provider, so that new indexes are created by this provider.
+     */
+    public static final int PRIORITY_ENABLED = 2;
+
+    /**
+     * Priority when disabled, below that of any other provider. The provider is still loaded so that
+     * indexes created while it was enabled keep working.
+     */
+    public static final int PRIORITY_DISABLED = -1;
+
+    public interface Dependencies
+    {
+        PageCache pageCache();
+
+        Config getConfig();
+    }
+
+    public NativeSchemaIndexProviderFactory()
+    {
+        super( KEY );
+    }
+
+    @Override
+    public NativeSchemaIndexProvider newInstance( KernelContext context, Dependencies dependencies ) throws Throwable
+    {
+        boolean enabled = dependencies.getConfig().get( GraphDatabaseSettings.native_schema_index_enabled );
+        return new NativeSchemaIndexProvider( dependencies.pageCache(), context.fileSystem(), context.storeDir(),
+                enabled ? PRIORITY_ENABLED : PRIORITY_DISABLED );
+    }
+}
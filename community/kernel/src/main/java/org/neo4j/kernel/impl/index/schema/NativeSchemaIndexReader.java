@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.neo4j.collection.primitive.PrimitiveLongCollections;
+import org.neo4j.collection.primitive.PrimitiveLongCollections.PrimitiveLongBaseIterator;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.index.gbptree.GBPTree;
+import org.neo4j.index.gbptree.Seeker;
+import org.neo4j.storageengine.api.schema.IndexOrder;
+import org.neo4j.storageengine.api.schema.IndexReader;
+import org.neo4j.storageengine.api.schema.IndexSampler;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
+
+import static org.neo4j.kernel.impl.index.schema.NativeSchemaKey.TYPE_NUMBER;
+import static org.neo4j.kernel.impl.index.schema.NativeSchemaKey.TYPE_STRING;
+
+/**
+ * {@link IndexReader} of a native schema index. Seeks and range seeks are served directly from the tree,
+ * whereas {@link #containsString(String)} and {@link #endsWith(String)} scan all strings in the index.
+ * Since entries are kept ordered by value, range seeks can also return their results in value order,
+ * by seeking forwards or backwards.
+ */
+class NativeSchemaIndexReader implements IndexReader
+{
+    private final NativeSchemaIndex index;
+    private final GBPTree<NativeSchemaKey,NativeSchemaValue> tree;
+
+    NativeSchemaIndexReader( NativeSchemaIndex index )
+    {
+        this.index = index;
+        this.tree = index.tree();
+    }
+
+    @Override
+    public PrimitiveLongIterator seek( Object value )
+    {
+        return query( new NativeSchemaKey().from( value, Long.MIN_VALUE ),
+                new NativeSchemaKey().from( value, Long.MAX_VALUE ), null );
+    }
+
+    @Override
+    public PrimitiveLongIterator rangeSeekByNumberInclusive( Number lower, Number upper )
+    {
+        return query( numberRangeStart( lower ), numberRangeEnd( upper ), null );
+    }
+
+    @Override
+    public PrimitiveLongIterator rangeSeekByString( String lower, boolean includeLower,
+            String upper, boolean includeUpper )
+    {
+        return query( stringRangeStart( lower, includeLower ), stringRangeEnd( upper, includeUpper ), null );
+    }
+
+    @Override
+    public boolean hasOrderedRangeSeek()
+    {
+        return true;
+    }
+
+    @Override
+    public NodeValueIterator rangeSeekByNumberInclusive( Number lower, Number upper, IndexOrder order )
+    {
+        return orderedQuery( numberRangeStart( lower ), numberRangeEnd( upper ), order, NativeSchemaKey::numberValue );
+    }
+
+    @Override
+    public NodeValueIterator rangeSeekByString( String lower, boolean includeLower,
+            String upper, boolean includeUpper, IndexOrder order )
+    {
+        return orderedQuery( stringRangeStart( lower, includeLower ), stringRangeEnd( upper, includeUpper ), order,
+                NativeSchemaKey::stringOrCharValue );
+    }
+
+    @Override
+    public PrimitiveLongIterator rangeSeekByPrefix( String prefix )
+    {
+        return query( new NativeSchemaKey().from( prefix, Long.MIN_VALUE ),
+                new NativeSchemaKey().afterPrefix( prefix ), null );
+    }
+
+    @Override
+    public PrimitiveLongIterator scan()
+    {
+        return query( new NativeSchemaKey().lowest( TYPE_NUMBER ), new NativeSchemaKey().highest( TYPE_STRING ),
+                null );
+    }
+
+    @Override
+    public PrimitiveLongIterator containsString( String exactTerm )
+    {
+        return query( new NativeSchemaKey().lowest( TYPE_STRING ), new NativeSchemaKey().highest( TYPE_STRING ),
+                key -> key.stringValue().contains( exactTerm ) );
+    }
+
+    @Override
+    public PrimitiveLongIterator endsWith( String suffix )
+    {
+        return query( new NativeSchemaKey().lowest( TYPE_STRING ), new NativeSchemaKey().highest( TYPE_STRING ),
+                key -> key.stringValue().endsWith( suffix ) );
+    }
+
+    @Override
+    public long countIndexedNodes( long nodeId, Object propertyValue )
+    {
+        NativeSchemaKey from = new NativeSchemaKey().from( propertyValue, nodeId );
+        NativeSchemaKey to = new NativeSchemaKey().from( propertyValue, nodeId + 1 );
+        return PrimitiveLongCollections.count( query( from, to, null ) );
+    }
+
+    @Override
+    public IndexSampler createSampler()
+    {
+        return () ->
+        {
+            try
+            {
+                return index.sample();
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+        };
+    }
+
+    @Override
+    public void close()
+    {   // Seeks don't hold on to any resources
+    }
+
+    private PrimitiveLongIterator query( NativeSchemaKey from, NativeSchemaKey to, Predicate<NativeSchemaKey> filter )
+    {
+        if ( from.compareTo( to ) >= 0 )
+        {
+            return PrimitiveLongCollections.emptyIterator();
+        }
+        return new NodeIdIterator( tree.seek( from, to ), filter );
+    }
+
+    private NodeValueIterator orderedQuery( NativeSchemaKey from, NativeSchemaKey to, IndexOrder order,
+            Function<NativeSchemaKey,Object> value )
+    {
+        if ( from.compareTo( to ) >= 0 )
+        {
+            return NodeValueIterator.EMPTY;
+        }
+        // All keys passed in here are either bounds which no entry has, since no node has a min or max id,
+        // or the lowest and highest keys of a type, so the bounds can be swapped to seek backwards
+        Seeker<NativeSchemaKey,NativeSchemaValue> seeker =
+                order != IndexOrder.DESCENDING ? tree.seek( from, to ) : tree.seek( to, from );
+        return new OrderedNodeValueIterator( seeker, value );
+    }
+
+    private static NativeSchemaKey numberRangeStart( Number lower )
+    {
+        return lower != null
+               ? new NativeSchemaKey().from( lower, Long.MIN_VALUE )
+               : new NativeSchemaKey().lowest( TYPE_NUMBER );
+    }
+
+    private static NativeSchemaKey numberRangeEnd( Number upper )
+    {
+        return upper != null
+               ? new NativeSchemaKey().from( upper, Long.MAX_VALUE )
+               : new NativeSchemaKey().highest( TYPE_NUMBER );
+    }
+
+    private static NativeSchemaKey stringRangeStart( String lower, boolean includeLower )
+    {
+        return lower != null
+               ? new NativeSchemaKey().from( lower, includeLower ? Long.MIN_VALUE : Long.MAX_VALUE )
+               : new NativeSchemaKey().lowest( TYPE_STRING );
+    }
+
+    private static NativeSchemaKey stringRangeEnd( String upper, boolean includeUpper )
+    {
+        return upper != null
+               ? new NativeSchemaKey().from( upper, includeUpper ? Long.MAX_VALUE : Long.MIN_VALUE )
+               : new NativeSchemaKey().highest( TYPE_STRING );
+    }
+
+    private static class NodeIdIterator extends PrimitiveLongBaseIterator
+    {
+        final Seeker<NativeSchemaKey,NativeSchemaValue> seeker;
+        private final Predicate<NativeSchemaKey> filter;
+
+        NodeIdIterator( Seeker<NativeSchemaKey,NativeSchemaValue> seeker, Predicate<NativeSchemaKey> filter )
+        {
+            this.seeker = seeker;
+            this.filter = filter;
+        }
+
+        @Override
+        protected boolean fetchNext()
+        {
+            try
+            {
+                while ( seeker.next() )
+                {
+                    if ( filter == null || filter.test( seeker.key() ) )
+                    {
+                        return next( seeker.key().nodeId );
+                    }
+                }
+                return false;
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+        }
+    }
+
+    private static class OrderedNodeValueIterator extends NodeIdIterator implements NodeValueIterator
+    {
+        private final Function<NativeSchemaKey,Object> valueOf;
+        private Object nextValue;
+        private Object value;
+
+        OrderedNodeValueIterator( Seeker<NativeSchemaKey,NativeSchemaValue> seeker,
+                Function<NativeSchemaKey,Object> valueOf )
+        {
+            super( seeker, null );
+            this.valueOf = valueOf;
+        }
+
+        @Override
+        protected boolean fetchNext()
+        {
+            if ( super.fetchNext() )
+            {
+                nextValue = valueOf.apply( seeker.key() );
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public long next()
+        {
+            long nodeId = super.next();
+            value = nextValue;
+            return nodeId;
+        }
+
+        @Override
+        public Object value()
+        {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.collection.primitive.PrimitiveLongSet;
+import org.neo4j.index.gbptree.Seeker;
+import org.neo4j.index.gbptree.Writer;
+import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
+import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.api.index.NodePropertyUpdate;
+
+import static org.neo4j.kernel.impl.index.schema.NativeSchemaKey.TYPE_NUMBER;
+import static org.neo4j.kernel.impl.index.schema.NativeSchemaKey.TYPE_STRING;
+
+/**
+ * Applies updates to a native schema index, each update under its own acquisition of the tree writer.
+ * Inserting an existing entry and removing a missing one are both no-ops, so updates can be applied
+ * idempotently, as required during recovery.
+ */
+class NativeSchemaIndexUpdater implements IndexUpdater
+{
+    private final NativeSchemaIndex index;
+    private final NativeSchemaKey key = new NativeSchemaKey();
+
+    NativeSchemaIndexUpdater( NativeSchemaIndex index )
+    {
+        this.index = index;
+    }
+
+    @Override
+    public void process( NodePropertyUpdate update ) throws IOException, IndexEntryConflictException
+    {
+        long nodeId = update.getNodeId();
+        try ( Writer<NativeSchemaKey,NativeSchemaValue> writer = index.tree().writer() )
+        {
+            switch ( update.getUpdateMode() )
+            {
+            case ADDED:
+                index.add( writer, key, nodeId, update.getValueAfter() );
+                break;
+            case CHANGED:
+                index.remove( writer, key, nodeId, update.getValueBefore() );
+                index.add( writer, key, nodeId, update.getValueAfter() );
+                break;
+            case REMOVED:
+                index.remove( writer, key, nodeId, update.getValueBefore() );
+                break;
+            default:
+                throw new UnsupportedOperationException();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException, IndexEntryConflictException
+    {
+    }
+
+    @Override
+    public void remove( PrimitiveLongSet nodeIds ) throws IOException
+    {
+        // Entries are ordered by value, so finding all entries of specific nodes requires a full scan. Recovery
+        // removes the values it knows of by value, so this is only called for nodes with unknown values.
+        if ( nodeIds.isEmpty() )
+        {
+            return;
+        }
+        List<NativeSchemaKey> toRemove = new ArrayList<>();
+        Seeker<NativeSchemaKey,NativeSchemaValue> seeker = index.tree().seek(
+                new NativeSchemaKey().lowest( TYPE_NUMBER ), new NativeSchemaKey().highest( TYPE_STRING ) );
+        while ( seeker.next() )
+        {
+            if ( nodeIds.contains( seeker.key().nodeId ) )
+            {
+                NativeSchemaKey copy = new NativeSchemaKey();
+                copy.copyFrom( seeker.key() );
+                toRemove.add( copy );
+            }
+        }
+        try ( Writer<NativeSchemaKey,NativeSchemaValue> writer = index.tree().writer() )
+        {
+            for ( NativeSchemaKey entry : toRemove )
+            {
+                writer.remove( entry, null );
+            }
+        }
+    }
+}
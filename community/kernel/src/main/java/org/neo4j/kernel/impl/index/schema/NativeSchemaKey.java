@@ -0,0 +1,337 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.neo4j.kernel.api.index.ArrayEncoder;
+
+/**
+ * Key in a native schema index, i.e. a property value and the id of the node having it. Keys sort first
+ * by {@link #type} and then by value within each type, with ties broken by node id:
+ * <ul>
+ * <li>Numbers sort by value. They are stored as their double value, in a form where its bits sort the
+ * same way as the double itself, followed by their exact integral value, so that large integral numbers
+ * which are equal as doubles are still kept apart. Integers and doubles with the same value are equal.
+ * The {@link #numberType type} of a number is kept alongside it, but takes no part in ordering.</li>
+ * <li>Strings, and values which aren't numbers, booleans or arrays, are stored as UTF-8 bytes, but sort like
+ * {@link String#compareTo(String)} does, see {@link #compareBytes(byte[], int, byte[], int)}. Chars are strings
+ * too, but the {@link #stringType type} of a string is kept alongside it, taking no part in ordering, so that chars
+ * can be handed back as chars.</li>
+ * <li>Arrays sort by the UTF-8 bytes of their {@link ArrayEncoder encoded} form in the same way, which is only
+ * useful for equality.</li>
+ * <li>Booleans sort {@code false} before {@code true}.</li>
+ * </ul>
+ */
+class NativeSchemaKey
+{
+    static final byte TYPE_NUMBER = 1;
+    static final byte TYPE_ARRAY = 2;
+    static final byte TYPE_BOOLEAN = 3;
+    static final byte TYPE_STRING = 4;
+
+    static final byte NUMBER_LONG = 0;
+    static final byte NUMBER_INT = 1;
+    static final byte NUMBER_SHORT = 2;
+    static final byte NUMBER_BYTE = 3;
+    static final byte NUMBER_DOUBLE = 4;
+    static final byte NUMBER_FLOAT = 5;
+
+    static final byte STRING_STRING = 0;
+    static final byte STRING_CHAR = 1;
+
+    private static final double TWO_TO_THE_POWER_OF_63 = 0x1p63;
+    private static final byte[] NO_BYTES = new byte[0];
+
+    byte type;
+    long primary;
+    long secondary;
+    byte numberType;
+    byte stringType;
+    byte[] bytes = NO_BYTES;
+    int bytesLength;
+    long nodeId;
+
+    /**
+     * Initializes this key from a property value and a node id.
+     *
+     * @return this key, for convenience.
+     */
+    NativeSchemaKey from( Object value, long nodeId )
+    {
+        this.nodeId = nodeId;
+        primary = 0;
+        secondary = 0;
+        bytesLength = 0;
+        stringType = STRING_STRING;
+        if ( value instanceof Number )
+        {
+            type = TYPE_NUMBER;
+            Number number = (Number) value;
+            double doubleValue = number.doubleValue();
+            primary = sortableDouble( doubleValue );
+            secondary = integralPart( number, doubleValue );
+            numberType = numberType( number );
+        }
+        else if ( value instanceof Boolean )
+        {
+            type = TYPE_BOOLEAN;
+            primary = (Boolean) value ? 1 : 0;
+        }
+        else if ( value.getClass().isArray() )
+        {
+            type = TYPE_ARRAY;
+            setBytes( ArrayEncoder.encode( value ).getBytes( StandardCharsets.UTF_8 ) );
+        }
+        else
+        {
+            type = TYPE_STRING;
+            stringType = value instanceof Character ? STRING_CHAR : STRING_STRING;
+            setBytes( value.toString().getBytes( StandardCharsets.UTF_8 ) );
+        }
+        return this;
+    }
+
+    /**
+     * Initializes this key to sort before all keys of the given type.
+     *
+     * @return this key, for convenience.
+     */
+    NativeSchemaKey lowest( byte type )
+    {
+        this.type = type;
+        primary = Long.MIN_VALUE;
+        secondary = Long.MIN_VALUE;
+        bytesLength = 0;
+        stringType = STRING_STRING;
+        nodeId = Long.MIN_VALUE;
+        return this;
+    }
+
+    /**
+     * Initializes this key to sort after all keys of the given type.
+     *
+     * @return this key, for convenience.
+     */
+    NativeSchemaKey highest( byte type )
+    {
+        return lowest( (byte) (type + 1) );
+    }
+
+    /**
+     * Initializes this key to the smallest string key which comes after all strings starting with
+     * {@code prefix}, or after all strings if there is no such key.
+     *
+     * @return this key, for convenience.
+     */
+    NativeSchemaKey afterPrefix( String prefix )
+    {
+        byte[] prefixBytes = prefix.getBytes( StandardCharsets.UTF_8 );
+        for ( int i = prefixBytes.length - 1; i >= 0; i-- )
+        {
+            if ( prefixBytes[i] != (byte) 0xFF )
+            {
+                lowest( TYPE_STRING );
+                primary = 0;
+                secondary = 0;
+                setBytes( Arrays.copyOf( prefixBytes, i + 1 ) );
+                bytes[i]++;
+                return this;
+            }
+        }
+        return highest( TYPE_STRING );
+    }
+
+    String stringValue()
+    {
+        return new String( bytes, 0, bytesLength, StandardCharsets.UTF_8 );
+    }
+
+    /**
+     * @return the value of a string key, which is a {@link Character} if the key was created from one.
+     */
+    Object stringOrCharValue()
+    {
+        String value = stringValue();
+        return stringType == STRING_CHAR ? (Object) value.charAt( 0 ) : value;
+    }
+
+    /**
+     * @return the value of a number key, of the same type and value as the number the key was created from.
+     */
+    Number numberValue()
+    {
+        switch ( numberType )
+        {
+        case NUMBER_LONG:
+            return secondary;
+        case NUMBER_INT:
+            return (int) secondary;
+        case NUMBER_SHORT:
+            return (short) secondary;
+        case NUMBER_BYTE:
+            return (byte) secondary;
+        case NUMBER_FLOAT:
+            return (float) doubleValue();
+        default:
+            return doubleValue();
+        }
+    }
+
+    private double doubleValue()
+    {
+        return Double.longBitsToDouble( primary ^ ((primary >> 63) & Long.MAX_VALUE) );
+    }
+
+    int compareValueTo( NativeSchemaKey other )
+    {
+        int comparison = Byte.compare( type, other.type );
+        if ( comparison == 0 )
+        {
+            comparison = Long.compare( primary, other.primary );
+        }
+        if ( comparison == 0 )
+        {
+            comparison = Long.compare( secondary, other.secondary );
+        }
+        if ( comparison == 0 )
+        {
+            comparison = compareBytes( bytes, bytesLength, other.bytes, other.bytesLength );
+        }
+        return comparison;
+    }
+
+    int compareTo( NativeSchemaKey other )
+    {
+        int comparison = compareValueTo( other );
+        return comparison != 0 ? comparison : Long.compare( nodeId, other.nodeId );
+    }
+
+    void copyFrom( NativeSchemaKey other )
+    {
+        type = other.type;
+        primary = other.primary;
+        secondary = other.secondary;
+        numberType = other.numberType;
+        stringType = other.stringType;
+        setBytes( other.bytes, other.bytesLength );
+        nodeId = other.nodeId;
+    }
+
+    void setBytes( byte[] source )
+    {
+        setBytes( source, source.length );
+    }
+
+    void setBytes( byte[] source, int length )
+    {
+        ensureBytesCapacity( length );
+        System.arraycopy( source, 0, bytes, 0, length );
+        bytesLength = length;
+    }
+
+    void ensureBytesCapacity( int length )
+    {
+        if ( bytes.length < length )
+        {
+            bytes = new byte[Math.max( length, bytes.length * 2 )];
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "[type:" + type + ",value:" + (bytesLength > 0 ? stringValue() : primary + "/" + secondary) +
+               ",nodeId:" + nodeId + "]";
+    }
+
+    private static long sortableDouble( double value )
+    {
+        // Equal, so both zeros should be stored the same way
+        long bits = Double.doubleToLongBits( value == 0d ? 0d : value );
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    private static byte numberType( Number number )
+    {
+        if ( number instanceof Long )
+        {
+            return NUMBER_LONG;
+        }
+        if ( number instanceof Integer )
+        {
+            return NUMBER_INT;
+        }
+        if ( number instanceof Short )
+        {
+            return NUMBER_SHORT;
+        }
+        if ( number instanceof Byte )
+        {
+            return NUMBER_BYTE;
+        }
+        return number instanceof Float ? NUMBER_FLOAT : NUMBER_DOUBLE;
+    }
+
+    private static long integralPart( Number number, double doubleValue )
+    {
+        if ( number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte )
+        {
+            return number.longValue();
+        }
+        if ( doubleValue >= TWO_TO_THE_POWER_OF_63 )
+        {
+            return Long.MAX_VALUE;
+        }
+        if ( doubleValue < -TWO_TO_THE_POWER_OF_63 )
+        {
+            return Long.MIN_VALUE;
+        }
+        // Non-integral doubles are the only numbers with their double value, so any value will do
+        return doubleValue == Math.rint( doubleValue ) ? (long) doubleValue : 0;
+    }
+
+    /**
+     * Compares UTF-8 bytes in the order of the UTF-16 chars they encode, i.e. like {@link String#compareTo(String)}.
+     * Plain UTF-8 bytes sort by code point, which differs from UTF-16 only in that chars U+E000 to U+FFFF sort after
+     * the surrogate pairs making up code points above U+FFFF. Their UTF-8 sequences start with bytes 0xEE and 0xEF,
+     * while code points above U+FFFF start with 0xF0 to 0xF4, so those two lead bytes are moved above the others.
+     */
+    private static int compareBytes( byte[] left, int leftLength, byte[] right, int rightLength )
+    {
+        int length = Math.min( leftLength, rightLength );
+        for ( int i = 0; i < length; i++ )
+        {
+            int leftByte = left[i] & 0xFF;
+            int rightByte = right[i] & 0xFF;
+            if ( leftByte != rightByte )
+            {
+                return Integer.compare( utf16Order( leftByte ), utf16Order( rightByte ) );
+            }
+        }
+        return Integer.compare( leftLength, rightLength );
+    }
+
+    private static int utf16Order( int utf8Byte )
+    {
+        return utf8Byte == 0xEE || utf8Byte == 0xEF ? utf8Byte + 0x0E : utf8Byte;
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.nio.ByteBuffer;
+
+import org.neo4j.index.gbptree.Layout;
+
+import static org.neo4j.kernel.impl.index.schema.NativeSchemaKey.STRING_STRING;
+import static org.neo4j.kernel.impl.index.schema.NativeSchemaKey.TYPE_BOOLEAN;
+import static org.neo4j.kernel.impl.index.schema.NativeSchemaKey.TYPE_NUMBER;
+import static org.neo4j.kernel.impl.index.schema.NativeSchemaKey.TYPE_STRING;
+
+/**
+ * {@link Layout} of {@link NativeSchemaKey} and {@link NativeSchemaValue} in a native schema index:
+ * <pre>
+ * [type|nodeId|payload]
+ * </pre>
+ * where the payload is the sortable double, the integral value and the number type for numbers, a single byte
+ * for booleans, the string type and the UTF-8 bytes of the value for strings and the UTF-8 bytes of the encoded
+ * value for arrays.
+ */
+class NativeSchemaLayout implements Layout<NativeSchemaKey,NativeSchemaValue>
+{
+    private static final long IDENTIFIER = 0x4E53_4958_0000_0001L; // "NSIX"
+    private static final int MAJOR_VERSION = 4;
+    private static final int MINOR_VERSION = 0;
+    private static final int HEADER_SIZE = Byte.BYTES + Long.BYTES;
+
+    @Override
+    public NativeSchemaKey newKey()
+    {
+        return new NativeSchemaKey();
+    }
+
+    @Override
+    public NativeSchemaKey copyKey( NativeSchemaKey key, NativeSchemaKey into )
+    {
+        into.copyFrom( key );
+        return into;
+    }
+
+    @Override
+    public NativeSchemaValue newValue()
+    {
+        return NativeSchemaValue.INSTANCE;
+    }
+
+    @Override
+    public int keySize( NativeSchemaKey key )
+    {
+        switch ( key.type )
+        {
+        case TYPE_NUMBER:
+            return HEADER_SIZE + Long.BYTES + Long.BYTES + Byte.BYTES;
+        case TYPE_BOOLEAN:
+            return HEADER_SIZE + Byte.BYTES;
+        case TYPE_STRING:
+            return HEADER_SIZE + Byte.BYTES + key.bytesLength;
+        default:
+            return HEADER_SIZE + key.bytesLength;
+        }
+    }
+
+    @Override
+    public int valueSize()
+    {
+        return 0;
+    }
+
+    @Override
+    public void writeKey( ByteBuffer buffer, NativeSchemaKey key )
+    {
+        buffer.put( key.type );
+        buffer.putLong( key.nodeId );
+        switch ( key.type )
+        {
+        case TYPE_NUMBER:
+            buffer.putLong( key.primary );
+            buffer.putLong( key.secondary );
+            buffer.put( key.numberType );
+            break;
+        case TYPE_BOOLEAN:
+            buffer.put( (byte) key.primary );
+            break;
+        case TYPE_STRING:
+            buffer.put( key.stringType );
+            buffer.put( key.bytes, 0, key.bytesLength );
+            break;
+        default:
+            buffer.put( key.bytes, 0, key.bytesLength );
+            break;
+        }
+    }
+
+    @Override
+    public void writeValue( ByteBuffer buffer, NativeSchemaValue value )
+    {
+    }
+
+    @Override
+    public void readKey( ByteBuffer buffer, NativeSchemaKey into, int keySize )
+    {
+        into.type = buffer.get();
+        into.nodeId = buffer.getLong();
+        into.primary = 0;
+        into.secondary = 0;
+        into.bytesLength = 0;
+        into.stringType = STRING_STRING;
+        switch ( into.type )
+        {
+        case TYPE_NUMBER:
+            into.primary = buffer.getLong();
+            into.secondary = buffer.getLong();
+            into.numberType = buffer.get();
+            break;
+        case TYPE_BOOLEAN:
+            into.primary = buffer.get();
+            break;
+        case TYPE_STRING:
+            into.stringType = buffer.get();
+            readBytes( buffer, into, keySize - HEADER_SIZE - Byte.BYTES );
+            break;
+        default:
+            readBytes( buffer, into, keySize - HEADER_SIZE );
+            break;
+        }
+    }
+
+    @Override
+    public void readValue( ByteBuffer buffer, NativeSchemaValue into )
+    {
+    }
+
+    @Override
+    public long identifier()
+    {
+        return IDENTIFIER;
+    }
+
+    @Override
+    public int majorVersion()
+    {
+        return MAJOR_VERSION;
+    }
+
+    @Override
+    public int minorVersion()
+    {
+        return MINOR_VERSION;
+    }
+
+    @Override
+    public int compare( NativeSchemaKey o1, NativeSchemaKey o2 )
+    {
+        return o1.compareTo( o2 );
+    }
+
+    private static void readBytes( ByteBuffer buffer, NativeSchemaKey into, int length )
+    {
+        into.ensureBytesCapacity( length );
+        buffer.get( into.bytes, 0, length );
+        into.bytesLength = length;
+    }
+}
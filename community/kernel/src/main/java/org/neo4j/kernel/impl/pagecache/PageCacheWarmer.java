@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.util.JobScheduler;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
+import static org.neo4j.kernel.impl.util.JobScheduler.Groups.pageCacheWarmup;
+
+/**
+ * The page cache warmer keeps a profile of which pages are in memory, for every file mapped in the store directory,
+ * and uses these profiles to load the same pages back into memory when the database is started again.
+ * <p>
+ * The profiles are bitmaps with one bit per file page, and they are written, gzip compressed, next to the file they
+ * describe, with a {@value #SUFFIX_CACHEPROF} suffix. The profiles are taken periodically, and once more when the
+ * warmer is stopped. Since the page cache lifecycle starts before any store files are mapped, the warmer must be
+ * started after the stores have been opened, and stopped before they are closed.
+ * <p>
+ * Reheating happens in the background, in file order, so the database is able to accept queries while the pages
+ * are being loaded. The progress is reported to the {@link PageCacheTracer#warmedUp(File, long) page cache tracer}.
+ */
+public class PageCacheWarmer extends LifecycleAdapter
+{
+    public static final String SUFFIX_CACHEPROF = ".cacheprof";
+
+    private final FileSystemAbstraction fs;
+    private final PageCache pageCache;
+    private final PageCacheTracer tracer;
+    private final JobScheduler scheduler;
+    private final Path storeDir;
+    private final long profileIntervalMillis;
+    private final Log log;
+
+    private volatile boolean stopped;
+    private volatile JobScheduler.JobHandle reheatHandle;
+    private volatile JobScheduler.JobHandle profileHandle;
+    private boolean reheated;
+
+    public PageCacheWarmer( FileSystemAbstraction fs, PageCache pageCache, PageCacheTracer tracer,
+            JobScheduler scheduler, File storeDir, long profileIntervalMillis, Log log )
+    {
+        this.fs = fs;
+        this.pageCache = pageCache;
+        this.tracer = tracer;
+        this.scheduler = scheduler;
+        this.storeDir = storeDir.getAbsoluteFile().toPath();
+        this.profileIntervalMillis = profileIntervalMillis;
+        this.log = log;
+    }
+
+    @Override
+    public void start() throws Throwable
+    {
+        stopped = false;
+        reheatHandle = scheduler.schedule( pageCacheWarmup, () ->
+        {
+            try
+            {
+                reheat();
+            }
+            catch ( IOException e )
+            {
+                log.warn( "Page cache warmup failed to load the profiled pages.", e );
+            }
+            scheduleProfiling();
+        } );
+    }
+
+    private synchronized void scheduleProfiling()
+    {
+        if ( !stopped )
+        {
+            reheated = true;
+            profileHandle = scheduler.scheduleRecurring( pageCacheWarmup, () ->
+            {
+                try
+                {
+                    profile();
+                }
+                catch ( IOException e )
+                {
+                    log.warn( "Page cache warmup failed to profile the pages in memory.", e );
+                }
+            }, profileIntervalMillis, profileIntervalMillis, MILLISECONDS );
+        }
+    }
+
+    @Override
+    public void stop() throws Throwable
+    {
+        stopped = true;
+        cancel( reheatHandle );
+        cancel( profileHandle );
+
+        // Synchronising makes us wait for any on-going reheat or profile job. We only take a final profile if the
+        // reheating completed, since otherwise we would overwrite the existing profiles with a partial picture.
+        synchronized ( this )
+        {
+            if ( reheated )
+            {
+                reheated = false;
+                profile();
+            }
+        }
+    }
+
+    private void cancel( JobScheduler.JobHandle handle )
+    {
+        if ( handle != null )
+        {
+            handle.cancel( false );
+        }
+    }
+
+    /**
+     * Load the pages recorded in the profiles back into memory, but no more pages than the page cache can hold.
+     *
+     * @return the total number of pages loaded.
+     */
+    public synchronized long reheat() throws IOException
+    {
+        long pagesLoaded = 0;
+        long budget = pageCache.maxCachedPages();
+        List<PagedFile> files = pageCache.listExistingMappings();
+        try
+        {
+            for ( PagedFile file : files )
+            {
+                if ( stopped || pagesLoaded >= budget )
+                {
+                    break;
+                }
+                if ( isInStoreDir( file ) )
+                {
+                    pagesLoaded += reheat( file, budget - pagesLoaded );
+                }
+            }
+        }
+        finally
+        {
+            closeAll( files );
+        }
+        return pagesLoaded;
+    }
+
+    private long reheat( PagedFile file, long budget ) throws IOException
+    {
+        File profileFile = profileOf( file.file() );
+        if ( !fs.fileExists( profileFile ) )
+        {
+            return 0;
+        }
+
+        // The read-ahead makes the cursor load dense runs of profiled pages with large vectored reads.
+        long pagesLoaded = 0;
+        try ( InputStream in = new GZIPInputStream( fs.openAsInputStream( profileFile ) );
+              PageCursor cursor = file.io( 0, PF_SHARED_READ_LOCK | PF_READ_AHEAD ) )
+        {
+            long pageId = 0;
+            int b;
+            while ( (b = in.read()) != -1 )
+            {
+                for ( int i = 0; i < 8; i++, pageId++ )
+                {
+                    if ( (b & (1 << i)) == 0 )
+                    {
+                        continue;
+                    }
+                    if ( stopped || pagesLoaded >= budget || !cursor.next( pageId ) )
+                    {
+                        // Either we are out of time or memory, or the file has shrunk since it was profiled.
+                        return pagesLoaded;
+                    }
+                    pagesLoaded++;
+                }
+            }
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Page cache warmup could not use the profile " + profileFile + ".", e );
+        }
+        finally
+        {
+            tracer.warmedUp( file.file(), pagesLoaded );
+        }
+        return pagesLoaded;
+    }
+
+    /**
+     * Record which pages are currently in memory, for every file that is mapped in the store directory.
+     *
+     * @return the total number of pages found in memory.
+     */
+    public synchronized long profile() throws IOException
+    {
+        long pagesInMemory = 0;
+        List<PagedFile> files = pageCache.listExistingMappings();
+        try
+        {
+            for ( PagedFile file : files )
+            {
+                if ( isInStoreDir( file ) )
+                {
+                    pagesInMemory += profile( file );
+                }
+            }
+        }
+        finally
+        {
+            closeAll( files );
+        }
+        return pagesInMemory;
+    }
+
+    private long profile( PagedFile file ) throws IOException
+    {
+        File profileFile = profileOf( file.file() );
+        File tmpFile = new File( profileFile.getParentFile(), profileFile.getName() + ".tmp" );
+        long pagesInMemory = 0;
+
+        // A no-fault cursor only looks at the translation table, and leaves pages that are not in memory unbound.
+        try ( OutputStream out = new GZIPOutputStream( fs.openAsOutputStream( tmpFile, false ) );
+              PageCursor cursor = file.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT | PF_TRANSIENT ) )
+        {
+            int b = 0;
+            int i = 0;
+            while ( cursor.next() )
+            {
+                if ( cursor.getCurrentPageId() != PageCursor.UNBOUND_PAGE_ID )
+                {
+                    b |= 1 << i;
+                    pagesInMemory++;
+                }
+                if ( ++i == 8 )
+                {
+                    out.write( b );
+                    b = 0;
+                    i = 0;
+                }
+            }
+            if ( i > 0 )
+            {
+                out.write( b );
+            }
+        }
+        fs.deleteFile( profileFile );
+        fs.renameFile( tmpFile, profileFile );
+        return pagesInMemory;
+    }
+
+    private boolean isInStoreDir( PagedFile file )
+    {
+        return file.file().getAbsoluteFile().toPath().startsWith( storeDir );
+    }
+
+    private static File profileOf( File file )
+    {
+        return new File( file.getParentFile(), file.getName() + SUFFIX_CACHEPROF );
+    }
+
+    private static void closeAll( List<PagedFile> files ) throws IOException
+    {
+        IOException exception = null;
+        for ( PagedFile file : files )
+        {
+            try
+            {
+                file.close();
+            }
+            catch ( IOException e )
+            {
+                if ( exception == null )
+                {
+                    exception = e;
+                }
+                else
+                {
+                    exception.addSuppressed( e );
+                }
+            }
+        }
+        if ( exception != null )
+        {
+            throw exception;
+        }
+    }
+}
@@ -192,7 +192,7 @@ public class TransactionToRecordStateVisitor extends TxStateVisitor.Adapter
         else
         {
             rule = IndexRule.indexRule( schemaStorage.newRuleId(), element.getLabelId(),
-                    element.getPropertyKeyId(), providerDescriptor );
+                    element.getPropertyKeyIds(), providerDescriptor );
         }
         recordState.createSchemaRule( rule );
     }
@@ -203,7 +203,7 @@ public class TransactionToRecordStateVisitor extends TxStateVisitor.Adapter
         SchemaStorage.IndexRuleKind kind = isConstraintIndex ?
                 SchemaStorage.IndexRuleKind.CONSTRAINT
                 : SchemaStorage.IndexRuleKind.INDEX;
-        IndexRule rule = schemaStorage.indexRule( element.getLabelId(), element.getPropertyKeyId(), kind );
+        IndexRule rule = schemaStorage.indexRule( element, kind );
         recordState.dropSchemaRule( rule );
     }
 
@@ -50,6 +50,7 @@ import static org.neo4j.io.pagecache.PageCacheOpenOptions.ANY_PAGE_SIZE;
 import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
 import static org.neo4j.kernel.impl.store.record.Record.NULL_REFERENCE;
 import static org.neo4j.kernel.impl.store.record.RecordLoad.CHECK;
 import static org.neo4j.kernel.impl.store.record.RecordLoad.NORMAL;
@@ -1101,7 +1102,8 @@ public abstract class CommonAbstractStore<RECORD extends AbstractBaseRecord,HEAD
     @Override
     public <EXCEPTION extends Exception> void scanAllRecords( Visitor<RECORD,EXCEPTION> visitor ) throws EXCEPTION
     {
-        try ( RecordCursor<RECORD> cursor = newRecordCursor( newRecord() ) )
+        int pf_flags = PF_SHARED_READ_LOCK | PF_READ_AHEAD | PF_TRANSIENT;
+        try ( RecordCursor<RECORD> cursor = newRecordCursor( newRecord(), pf_flags ) )
         {
             long highId = getHighId();
             cursor.acquire( getNumberOfReservedLowIds(), CHECK );
@@ -1127,6 +1129,11 @@ public abstract class CommonAbstractStore<RECORD extends AbstractBaseRecord,HEAD
 
     @Override
     public RecordCursor<RECORD> newRecordCursor( final RECORD record )
+    {
+        return newRecordCursor( record, PF_SHARED_READ_LOCK );
+    }
+
+    private RecordCursor<RECORD> newRecordCursor( final RECORD record, final int pf_flags )
     {
         return new RecordCursor<RECORD>()
         {
@@ -1212,7 +1219,7 @@ public abstract class CommonAbstractStore<RECORD extends AbstractBaseRecord,HEAD
                 this.mode = mode;
                 try
                 {
-                    this.pageCursor = storeFile.io( pageIdForRecord( id ), PF_SHARED_READ_LOCK );
+                    this.pageCursor = storeFile.io( pageIdForRecord( id ), pf_flags );
                 }
                 catch ( IOException e )
                 {
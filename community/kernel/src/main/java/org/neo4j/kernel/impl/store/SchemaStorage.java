@@ -32,6 +32,7 @@ import org.neo4j.kernel.api.exceptions.schema.DuplicateSchemaRuleException;
 import org.neo4j.kernel.api.exceptions.schema.EntitySchemaRuleNotFoundException;
 import org.neo4j.kernel.api.exceptions.schema.MalformedSchemaRuleException;
 import org.neo4j.kernel.api.exceptions.schema.SchemaRuleNotFoundException;
+import org.neo4j.kernel.api.index.IndexDescriptor;
 import org.neo4j.kernel.impl.store.record.AbstractSchemaRule;
 import org.neo4j.kernel.impl.store.record.DynamicRecord;
 import org.neo4j.kernel.impl.store.record.IndexRule;
@@ -118,9 +119,29 @@ public class SchemaStorage implements SchemaRuleAccess
      * Otherwise throw if there are not exactly one matching candidate rule.
      */
     public IndexRule indexRule( final int labelId, final int propertyKeyId, IndexRuleKind kind )
+    {
+        return indexRule( new IndexDescriptor( labelId, propertyKeyId ), kind );
+    }
+
+    /**
+     * Find the IndexRule, of any kind, for the given index, which may be a composite index.
+     *
+     * Otherwise throw if there are not exactly one matching candidate rule.
+     */
+    public IndexRule indexRule( IndexDescriptor index )
+    {
+        return indexRule( index, IndexRuleKind.ALL );
+    }
+
+    /**
+     * Find an IndexRule of the given kind, for the given index, which may be a composite index.
+     *
+     * Otherwise throw if there are not exactly one matching candidate rule.
+     */
+    public IndexRule indexRule( IndexDescriptor index, IndexRuleKind kind )
     {
         Iterator<IndexRule> rules = schemaRules( cast( IndexRule.class ), IndexRule.class,
-                rule -> rule.getLabel() == labelId && rule.getPropertyKey() == propertyKeyId );
+                rule -> rule.getLabel() == index.getLabelId() && rule.toIndexDescriptor().equals( index ) );
 
         IndexRule foundRule = null;
 
@@ -22,6 +22,8 @@ package org.neo4j.kernel.impl.store.id;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.neo4j.io.fs.FileSystemAbstraction;
@@ -60,6 +62,11 @@ import static java.lang.Math.max;
  * "sticky" and unusable next time you try to initialize a generator using the
  * same file. There can only be one id generator instance per id generator file.
  * <p>
+ * Handing out ids doesn't take the monitor of this generator: new high ids are claimed by compare-and-set on
+ * the high id and defragged ids are prefetched from the {@link FreeIdKeeper}, in batches of <CODE>grabSize</CODE>,
+ * into a lock-free queue that allocating threads poll from. Only refilling that queue, freeing ids and closing
+ * the generator synchronize, since those are the operations touching the keeper and its file.
+ * <p>
  * In case of disk/file I/O failure an <CODE>IOException</CODE> is thrown.
  */
 public class IdGeneratorImpl implements IdGenerator
@@ -84,12 +91,17 @@ public class IdGeneratorImpl implements IdGenerator
 
     private final File file;
     private final FileSystemAbstraction fs;
-    private StoreChannel fileChannel = null;
+    private volatile StoreChannel fileChannel = null;
 
     private final long max;
     private final boolean aggressiveReuse;
     private FreeIdKeeper keeper;
 
+    // defragged ids taken out of the keeper, ready to be handed out without synchronization
+    private final Queue<Long> reusableIds = new ConcurrentLinkedQueue<>();
+    // whether or not the keeper may have more ids to give out, only changed while synchronized
+    private volatile boolean keeperMayHaveIds = true;
+
     /**
      * Opens the id generator represented by <CODE>fileName</CODE>. The
      * <CODE>grabSize</CODE> means how many defragged ids we should keep in
@@ -144,23 +156,57 @@ public class IdGeneratorImpl implements IdGenerator
      * @throws IllegalStateException if this id generator has been closed
      */
     @Override
-    public synchronized long nextId()
+    public long nextId()
     {
         assertStillOpen();
-        long nextDefragId = keeper.getId();
-        if ( nextDefragId != -1 )
+        long nextDefragId = nextReusableId();
+        if ( nextDefragId != FreeIdKeeper.NO_RESULT )
         {
             return nextDefragId;
         }
 
-        long id = highId.get();
-        if ( IdValidator.isReservedId( id ) )
+        while ( true )
         {
-            id = highId.incrementAndGet();
+            long id = highId.get();
+            assertNotClosed( id );
+            long nextId = IdValidator.isReservedId( id ) ? id + 1 : id;
+            IdValidator.assertValidId( nextId, max );
+            if ( highId.compareAndSet( id, nextId + 1 ) )
+            {
+                return nextId;
+            }
+        }
+    }
+
+    private long nextReusableId()
+    {
+        Long id = reusableIds.poll();
+        if ( id == null && keeperMayHaveIds )
+        {
+            refillReusableIds();
+            id = reusableIds.poll();
+        }
+        return id == null ? FreeIdKeeper.NO_RESULT : id;
+    }
+
+    private synchronized void refillReusableIds()
+    {
+        if ( !keeperMayHaveIds || !reusableIds.isEmpty() || isClosed() )
+        {
+            // another thread got here first
+            return;
+        }
+
+        for ( int i = 0; i < grabSize; i++ )
+        {
+            long id = keeper.getId();
+            if ( id == FreeIdKeeper.NO_RESULT )
+            {
+                keeperMayHaveIds = false;
+                break;
+            }
+            reusableIds.offer( id );
         }
-        IdValidator.assertValidId( id, max );
-        highId.incrementAndGet();
-        return id;
     }
 
     private void assertStillOpen()
@@ -171,8 +217,16 @@ public class IdGeneratorImpl implements IdGenerator
         }
     }
 
+    private void assertNotClosed( long highId )
+    {
+        if ( highId == -1 )
+        {
+            throw new IllegalStateException( "Closed id generator " + file );
+        }
+    }
+
     @Override
-    public synchronized IdRange nextIdBatch( int size )
+    public IdRange nextIdBatch( int size )
     {
         assertStillOpen();
 
@@ -181,8 +235,8 @@ public class IdGeneratorImpl implements IdGenerator
         long[] defragIds = new long[size];
         while ( count < size )
         {
-            long id = keeper.getId();
-            if ( id == -1 )
+            long id = nextReusableId();
+            if ( id == FreeIdKeeper.NO_RESULT )
             {
                 break;
             }
@@ -195,9 +249,22 @@ public class IdGeneratorImpl implements IdGenerator
         System.arraycopy( tmpArray, 0, defragIds, 0, count );
 
         int sizeLeftForRange = size - count;
-        long start = highId.get();
-        setHighId( start + sizeLeftForRange );
-        return new IdRange( defragIds, start, sizeLeftForRange );
+        return new IdRange( defragIds, reserveHighIds( sizeLeftForRange ), sizeLeftForRange );
+    }
+
+    private long reserveHighIds( int count )
+    {
+        while ( true )
+        {
+            long start = highId.get();
+            assertNotClosed( start );
+            long end = start + count;
+            IdValidator.assertIdWithinCapacity( end, max );
+            if ( highId.compareAndSet( start, end ) )
+            {
+                return start;
+            }
+        }
     }
 
     /**
@@ -261,6 +328,10 @@ public class IdGeneratorImpl implements IdGenerator
             throw new IllegalArgumentException( "Illegal id[" + id + "], highId is " + highId.get() );
         }
         keeper.freeId( id );
+        if ( aggressiveReuse )
+        {
+            keeperMayHaveIds = true;
+        }
     }
 
     /**
@@ -271,6 +342,9 @@ public class IdGeneratorImpl implements IdGenerator
      * An invoke to the <CODE>nextId</CODE> or <CODE>freeId</CODE> after
      * this method has been invoked will result in an <CODE>IOException</CODE>
      * since the highest returned id has been set to a negative value.
+     * <p>
+     * The high id is set to that negative value before it is written, so concurrent calls to
+     * {@link #nextId()} and {@link #nextIdBatch(int)} either get ids below the written high id or fail.
      */
     @Override
     public synchronized void close()
@@ -280,11 +354,19 @@ public class IdGeneratorImpl implements IdGenerator
             return;
         }
 
+        // fence out nextId and nextIdBatch before reading the high id to write: they only move the high id with a
+        // compare-and-set from a value that is not -1, so once it is -1 none of them can hand out a higher id
+        long closedHighId = highId.getAndSet( -1 );
         try
         {
+            // hand back prefetched ids that no one got to use, so that they are written out with the rest
+            for ( Long id; (id = reusableIds.poll()) != null; )
+            {
+                keeper.freeId( id );
+            }
             keeper.close(); // first write out free ids, then mark as clean
             ByteBuffer buffer = ByteBuffer.allocate( HEADER_SIZE );
-            writeHeader( buffer );
+            writeHeader( buffer, closedHighId );
             fileChannel.force( false );
 
             markAsCleanlyClosed( buffer );
@@ -293,6 +375,7 @@ public class IdGeneratorImpl implements IdGenerator
         }
         catch ( IOException e )
         {
+            highId.set( closedHighId );
             throw new UnderlyingStorageException(
                     "Unable to close id generator " + file, e );
         }
@@ -324,10 +407,10 @@ public class IdGeneratorImpl implements IdGenerator
         fileChannel.write( buffer );
     }
 
-    private void writeHeader( ByteBuffer buffer ) throws IOException
+    private void writeHeader( ByteBuffer buffer, long highId ) throws IOException
     {
         fileChannel.position( 0 );
-        buffer.put( STICKY_GENERATOR ).putLong( highId.get() );
+        buffer.put( STICKY_GENERATOR ).putLong( highId );
         buffer.flip();
         fileChannel.write( buffer );
     }
@@ -456,13 +539,13 @@ public class IdGeneratorImpl implements IdGenerator
     @Override
     public synchronized long getNumberOfIdsInUse()
     {
-        return highId.get() - keeper.getCount();
+        return highId.get() - getDefragCount();
     }
 
     @Override
     public long getDefragCount()
     {
-        return keeper.getCount();
+        return keeper.getCount() + reusableIds.size();
     }
 
     @Override
@@ -489,7 +572,7 @@ public class IdGeneratorImpl implements IdGenerator
     @Override
     public String toString()
     {
-        return "IdGeneratorImpl " + hashCode() + " [highId=" + highId + ", defragged=" + keeper.getCount() + ", fileName="
+        return "IdGeneratorImpl " + hashCode() + " [highId=" + highId + ", defragged=" + getDefragCount() + ", fileName="
                + file + ", max=" + max + ", aggressive=" + aggressiveReuse + "]";
     }
 }
@@ -20,8 +20,10 @@
 package org.neo4j.kernel.impl.store.record;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import org.neo4j.graphdb.Label;
+import org.neo4j.kernel.api.index.IndexDescriptor;
 import org.neo4j.kernel.api.index.SchemaIndexProvider;
 import org.neo4j.storageengine.api.schema.IndexSchemaRule;
 import org.neo4j.string.UTF8;
@@ -37,7 +39,7 @@ public class IndexRule extends AbstractSchemaRule implements IndexSchemaRule
     private static final long NO_OWNING_CONSTRAINT = -1;
     private final SchemaIndexProvider.Descriptor providerDescriptor;
     private final int label;
-    private final int propertyKey;
+    private final int[] propertyKeys;
     /**
      * Non-null for constraint indexes, equal to {@link #NO_OWNING_CONSTRAINT} for
      * constraint indexes with no owning constraint record.
@@ -47,15 +49,15 @@ public class IndexRule extends AbstractSchemaRule implements IndexSchemaRule
     static IndexRule readIndexRule( long id, boolean constraintIndex, int label, ByteBuffer serialized )
     {
         SchemaIndexProvider.Descriptor providerDescriptor = readProviderDescriptor( serialized );
-        int propertyKeyId = readPropertyKey( serialized );
+        int[] propertyKeyIds = readPropertyKeys( serialized );
         if ( constraintIndex )
         {
             long owningConstraint = readOwningConstraint( serialized );
-            return constraintIndexRule( id, label, propertyKeyId, providerDescriptor, owningConstraint );
+            return new IndexRule( id, label, propertyKeyIds, providerDescriptor, owningConstraint );
         }
         else
         {
-            return indexRule( id, label, propertyKeyId, providerDescriptor );
+            return new IndexRule( id, label, propertyKeyIds, providerDescriptor, null );
         }
     }
 
@@ -65,6 +67,12 @@ public class IndexRule extends AbstractSchemaRule implements IndexSchemaRule
         return new IndexRule( id, label, propertyKeyId, providerDescriptor, null );
     }
 
+    public static IndexRule indexRule( long id, int label, int[] propertyKeyIds,
+                                       SchemaIndexProvider.Descriptor providerDescriptor )
+    {
+        return new IndexRule( id, label, propertyKeyIds, providerDescriptor, null );
+    }
+
     public static IndexRule constraintIndexRule( long id, int label, int propertyKeyId,
                                                  SchemaIndexProvider.Descriptor providerDescriptor,
                                                  Long owningConstraint )
@@ -75,6 +83,12 @@ public class IndexRule extends AbstractSchemaRule implements IndexSchemaRule
 
     public IndexRule( long id, int label, int propertyKey, SchemaIndexProvider.Descriptor providerDescriptor,
                        Long owningConstraint )
+    {
+        this( id, label, new int[]{propertyKey}, providerDescriptor, owningConstraint );
+    }
+
+    public IndexRule( long id, int label, int[] propertyKeys, SchemaIndexProvider.Descriptor providerDescriptor,
+                       Long owningConstraint )
     {
         super( id, indexKind( owningConstraint ) );
         this.owningConstraint = owningConstraint;
@@ -86,7 +100,7 @@ public class IndexRule extends AbstractSchemaRule implements IndexSchemaRule
 
         this.providerDescriptor = providerDescriptor;
         this.label = label;
-        this.propertyKey = propertyKey;
+        this.propertyKeys = propertyKeys.clone();
     }
 
     private static Kind indexKind( Long owningConstraint )
@@ -101,14 +115,17 @@ public class IndexRule extends AbstractSchemaRule implements IndexSchemaRule
         return new SchemaIndexProvider.Descriptor( providerKey, providerVersion );
     }
 
-    private static int readPropertyKey( ByteBuffer serialized )
+    private static int[] readPropertyKeys( ByteBuffer serialized )
     {
-        // Currently only one key is supported although the data format supports multiple
+        // One key for ordinary indexes, more than one for composite indexes
         int count = serialized.getShort();
-        assert count == 1;
-
-        // Changed from being a long to an int 2013-09-10, but keeps reading a long to not change the store format.
-        return safeCastLongToInt( serialized.getLong() );
+        int[] propertyKeys = new int[count];
+        for ( int i = 0; i < count; i++ )
+        {
+            // Changed from being a long to an int 2013-09-10, but keeps reading a long to not change the store format.
+            propertyKeys[i] = safeCastLongToInt( serialized.getLong() );
+        }
+        return propertyKeys;
     }
 
     private static long readOwningConstraint( ByteBuffer serialized )
@@ -121,10 +138,45 @@ public class IndexRule extends AbstractSchemaRule implements IndexSchemaRule
         return providerDescriptor;
     }
 
+    /**
+     * @return the property key of this index, or the first property key of a composite index.
+     */
     @Override
     public int getPropertyKey()
     {
-        return propertyKey;
+        return propertyKeys[0];
+    }
+
+    /**
+     * @return all property keys of this index, in index order.
+     */
+    @Override
+    public int[] getPropertyKeys()
+    {
+        return propertyKeys.clone();
+    }
+
+    public boolean isComposite()
+    {
+        return propertyKeys.length > 1;
+    }
+
+    /**
+     * @return the property key token id which statistics about this index are kept under in the counts store.
+     * That is the property key of a single property index, and {@code -1 - id} for a composite index, which is
+     * unique among index rules and can not be mistaken for the property key of an index on its first property.
+     */
+    public int getStatisticsPropertyKeyId()
+    {
+        return isComposite() ? -1 - Math.toIntExact( getId() ) : getPropertyKey();
+    }
+
+    /**
+     * @return an {@link IndexDescriptor} describing what this rule indexes.
+     */
+    public IndexDescriptor toIndexDescriptor()
+    {
+        return new IndexDescriptor( label, propertyKeys );
     }
 
     @Override
@@ -166,8 +218,8 @@ public class IndexRule extends AbstractSchemaRule implements IndexSchemaRule
                + 1 /* kind id */
                + UTF8.computeRequiredByteBufferSize( providerDescriptor.getKey() )
                + UTF8.computeRequiredByteBufferSize( providerDescriptor.getVersion() )
-               + 2 * 1                              /* number of property keys, for now always 1 */
-               + 8                                  /* the property keys */
+               + 2                                  /* number of property keys */
+               + 8 * propertyKeys.length            /* the property keys */
                + (isConstraintIndex() ? 8 : 0)      /* constraint indexes have an owner field */;
     }
 
@@ -179,8 +231,11 @@ public class IndexRule extends AbstractSchemaRule implements IndexSchemaRule
         target.put( (byte) (kind.ordinal()+1) );
         UTF8.putEncodedStringInto( providerDescriptor.getKey(), target );
         UTF8.putEncodedStringInto( providerDescriptor.getVersion(), target );
-        target.putShort( (short) 1 /*propertyKeys.length*/ );
-        target.putLong( propertyKey );
+        target.putShort( (short) propertyKeys.length );
+        for ( int propertyKey : propertyKeys )
+        {
+            target.putLong( propertyKey );
+        }
         if ( isConstraintIndex() )
         {
             target.putLong( owningConstraint );
@@ -191,7 +246,8 @@ public class IndexRule extends AbstractSchemaRule implements IndexSchemaRule
     public int hashCode()
     {
         // TODO: Think if this needs to be extended with providerDescriptor
-        return 31 * (31 * super.hashCode() + label) + propertyKey;
+        return 31 * (31 * super.hashCode() + label) +
+               (propertyKeys.length == 1 ? propertyKeys[0] : Arrays.hashCode( propertyKeys ));
     }
 
     @Override
@@ -210,7 +266,7 @@ public class IndexRule extends AbstractSchemaRule implements IndexSchemaRule
             return false;
         }
         IndexRule indexRule = (IndexRule) o;
-        return label == indexRule.label && propertyKey == indexRule.propertyKey;
+        return label == indexRule.label && Arrays.equals( propertyKeys, indexRule.propertyKeys );
     }
 
     @Override
@@ -223,7 +279,9 @@ public class IndexRule extends AbstractSchemaRule implements IndexSchemaRule
         }
 
         return "IndexRule[id=" + id + ", label=" + label + ", kind=" + kind +
-               ", provider=" + providerDescriptor + ", properties=" + propertyKey + ownerString + "]";
+               ", provider=" + providerDescriptor + ", properties=" +
+               (propertyKeys.length == 1 ? String.valueOf( propertyKeys[0] ) : Arrays.toString( propertyKeys )) +
+               ownerString + "]";
     }
 
     public IndexRule withOwningConstraint( long constraintId )
@@ -232,6 +290,6 @@ public class IndexRule extends AbstractSchemaRule implements IndexSchemaRule
         {
             throw new IllegalStateException( this + " is not a constraint index" );
         }
-        return constraintIndexRule( getId(), getLabel(), getPropertyKey(), getProviderDescriptor(), constraintId );
+        return new IndexRule( getId(), getLabel(), propertyKeys, getProviderDescriptor(), constraintId );
     }
 }
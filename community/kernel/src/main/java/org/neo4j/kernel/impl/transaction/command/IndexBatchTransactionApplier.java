@@ -162,7 +162,8 @@ public class IndexBatchTransactionApplier extends BatchTransactionApplier.Adapte
         private IndexUpdates createIndexUpdates()
         {
             return mode == TransactionApplicationMode.RECOVERY ? new RecoveryIndexUpdates() :
-                new OnlineIndexUpdates( nodeStore, propertyLoader, indexUpdateConverter );
+                new OnlineIndexUpdates( nodeStore, propertyLoader, indexUpdateConverter,
+                        indexingService::compositeIndexes );
         }
 
         @Override
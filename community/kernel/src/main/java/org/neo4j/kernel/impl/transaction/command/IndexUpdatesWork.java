@@ -21,6 +21,7 @@ package org.neo4j.kernel.impl.transaction.command;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 
@@ -94,6 +95,15 @@ public class IndexUpdatesWork implements Work<IndexingService,IndexUpdatesWork>
                 }
             }
 
+            @Override
+            public void collectRemovedValues( Collection<NodePropertyUpdate> target, PrimitiveLongSet unknown )
+            {
+                for ( IndexUpdates indexUpdates : updates )
+                {
+                    indexUpdates.collectRemovedValues( target, unknown );
+                }
+            }
+
             @Override
             public void feed( PrimitiveLongObjectMap<List<PropertyCommand>> propCommands,
                     PrimitiveLongObjectMap<NodeCommand> nodeCommands )
@@ -66,14 +66,26 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
     private final DatabaseHealth databaseHealth;
     private final Lock forceLock = new ReentrantLock();
 
+    private final ThreadLocal<SerializedTransactionBatch> serializedBatches;
+
     private FlushablePositionAwareChannel writer;
     private TransactionLogWriter transactionLogWriter;
-    private IndexCommandDetector indexCommandDetector;
 
     public BatchingTransactionAppender( LogFile logFile, LogRotation logRotation,
             TransactionMetadataCache transactionMetadataCache, TransactionIdStore transactionIdStore,
             IdOrderingQueue legacyIndexTransactionOrdering, DatabaseHealth databaseHealth )
     {
+        this( logFile, logRotation, transactionMetadataCache, transactionIdStore, legacyIndexTransactionOrdering,
+                databaseHealth, SerializedTransactionBatch.MAX_BUFFER_SIZE );
+    }
+
+    BatchingTransactionAppender( LogFile logFile, LogRotation logRotation,
+            TransactionMetadataCache transactionMetadataCache, TransactionIdStore transactionIdStore,
+            IdOrderingQueue legacyIndexTransactionOrdering, DatabaseHealth databaseHealth,
+            int maxSerializedBatchSize )
+    {
+        this.serializedBatches =
+                ThreadLocal.withInitial( () -> new SerializedTransactionBatch( maxSerializedBatchSize ) );
         this.logFile = logFile;
         this.logRotation = logRotation;
         this.transactionIdStore = transactionIdStore;
@@ -86,7 +98,6 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
     public void start() throws Throwable
     {
         this.writer = logFile.getWriter();
-        this.indexCommandDetector = new IndexCommandDetector();
         this.transactionLogWriter = new TransactionLogWriter( new LogEntryWriter( writer ) );
     }
 
@@ -98,34 +109,30 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         boolean logRotated = logRotation.rotateLogIfNeeded( logAppendEvent );
         logAppendEvent.setLogRotated( logRotated );
 
-        // Assigned base tx id just to make compiler happy
-        long lastTransactionId = TransactionIdStore.BASE_TX_ID;
-        // Synchronized with logFile to get absolute control over concurrent rotations happening
-        synchronized ( logFile )
+        // Serialize the transactions up front, outside of the logFile monitor, so that committing threads can do
+        // the bulk of the work concurrently. Under the monitor we then only assign transaction ids and copy bytes.
+        SerializedTransactionBatch serializedBatch = serializedBatches.get();
+        long lastTransactionId;
+        try
         {
-            // Assert that kernel is healthy before making any changes
-            databaseHealth.assertHealthy( IOException.class );
+            boolean serialized;
             try ( SerializeTransactionEvent serialiseEvent = logAppendEvent.beginSerializeTransaction() )
             {
-                // Append all transactions in this batch to the log under the same logFile monitor
-                TransactionToApply tx = batch;
-                while ( tx != null )
-                {
-                    long transactionId = transactionIdStore.nextCommittingTransactionId();
-
-                    // If we're in a scenario where we're merely replicating transactions, i.e. transaction
-                    // id have already been generated by another entity we simply check that our id
-                    // that we generated match that id. If it doesn't we've run into a problem we can't ´
-                    // really recover from and would point to a bug somewhere.
-                    matchAgainstExpectedTransactionIdIfAny( transactionId, tx );
-
-                    TransactionCommitment commitment = appendToLog( tx.transactionRepresentation(), transactionId );
-                    tx.commitment( commitment, transactionId );
-                    tx = tx.next();
-                    lastTransactionId = transactionId;
-                }
+                serialized = serializedBatch.serialize( batch );
+            }
+
+            // Synchronized with logFile to get absolute control over concurrent rotations happening
+            synchronized ( logFile )
+            {
+                // Assert that kernel is healthy before making any changes
+                databaseHealth.assertHealthy( IOException.class );
+                lastTransactionId = serialized ? appendToLog( batch, serializedBatch ) : appendToLog( batch );
             }
         }
+        finally
+        {
+            serializedBatch.release();
+        }
 
         // At this point we've appended all transactions in this batch, but we can't mark any of them
         // as committed since they haven't been forced to disk yet. So here we force, or potentially
@@ -183,44 +190,56 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
     }
 
     /**
-     * @return A TransactionCommitment instance with metadata about the committed transaction, such as whether or not
-     * this transaction contains any legacy index changes.
+     * Assigns transaction ids to the transactions in the batch, and appends their serialized form to the log. Each
+     * transaction in the batch is given a TransactionCommitment with metadata about the committed transaction, such
+     * as whether or not it contains any legacy index changes.
+     *
+     * @return the id of the last transaction in the batch.
      */
-    private TransactionCommitment appendToLog( TransactionRepresentation transaction, long transactionId )
+    private long appendToLog( TransactionToApply batch, SerializedTransactionBatch serializedBatch )
             throws IOException
     {
-        // Reset command writer so that we, after we've written the transaction, can ask it whether or
-        // not any legacy index command was written. If so then there's additional ordering to care about below.
-        indexCommandDetector.reset();
+        // Assigned base tx id just to make compiler happy
+        long lastTransactionId = TransactionIdStore.BASE_TX_ID;
+        int index = 0;
+        for ( TransactionToApply tx = batch; tx != null; tx = tx.next(), index++ )
+        {
+            long transactionId = transactionIdStore.nextCommittingTransactionId();
+
+            // If we're in a scenario where we're merely replicating transactions, i.e. transaction
+            // id have already been generated by another entity we simply check that our id
+            // that we generated match that id. If it doesn't we've run into a problem we can't ´
+            // really recover from and would point to a bug somewhere.
+            matchAgainstExpectedTransactionIdIfAny( transactionId, tx );
+
+            serializedBatch.setTransactionId( index, transactionId );
+            lastTransactionId = transactionId;
+        }
 
         // The outcome of this try block is either of:
-        // a) transaction successfully appended, at which point we return a Commitment to be used after force
-        // b) transaction failed to be appended, at which point a kernel panic is issued
+        // a) transactions successfully appended, at which point each gets a Commitment to be used after force
+        // b) transactions failed to be appended, at which point a kernel panic is issued
         // The reason that we issue a kernel panic on failure in here is that at this point we're still
         // holding the logFile monitor, and a failure to append needs to be communicated with potential
         // log rotation, which will wait for all transactions closed or fail on kernel panic.
         try
         {
-            LogPosition logPositionBeforeCommit = writer.getCurrentPosition( positionMarker ).newPosition();
-            transactionLogWriter.append( transaction, transactionId );
-            LogPosition logPositionAfterCommit = writer.getCurrentPosition( positionMarker ).newPosition();
-
-            long transactionChecksum = checksum(
-                    transaction.additionalHeader(), transaction.getMasterId(), transaction.getAuthorId() );
-            transactionMetadataCache.cacheTransactionMetadata(
-                    transactionId, logPositionBeforeCommit, transaction.getMasterId(), transaction.getAuthorId(),
-                    transactionChecksum );
-
-            transaction.accept( indexCommandDetector );
-            boolean hasLegacyIndexChanges = indexCommandDetector.hasWrittenAnyLegacyIndexCommand();
-            if ( hasLegacyIndexChanges )
+            writer.getCurrentPosition( positionMarker );
+            long logVersion = positionMarker.getLogVersion();
+            long batchOffset = positionMarker.getByteOffset();
+            serializedBatch.writeTo( writer );
+
+            index = 0;
+            for ( TransactionToApply tx = batch; tx != null; tx = tx.next(), index++ )
             {
-                // Offer this transaction id to the queue so that the legacy index applier can take part in the ordering
-                legacyIndexTransactionOrdering.offer( transactionId );
+                LogPosition logPositionBeforeCommit =
+                        new LogPosition( logVersion, batchOffset + serializedBatch.startOffset( index ) );
+                LogPosition logPositionAfterCommit =
+                        new LogPosition( logVersion, batchOffset + serializedBatch.endOffset( index ) );
+                commit( tx, serializedBatch.transactionId( index ), logPositionBeforeCommit, logPositionAfterCommit,
+                        serializedBatch.hasLegacyIndexChanges( index ) );
             }
-            return new TransactionCommitment(
-                    hasLegacyIndexChanges, transactionId, transactionChecksum, logPositionAfterCommit,
-                    transactionIdStore );
+            return lastTransactionId;
         }
         catch ( final Throwable panic )
         {
@@ -229,6 +248,69 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         }
     }
 
+    /**
+     * Assigns transaction ids to, and appends, the transactions in a batch which was too large to be serialized up
+     * front, by serializing them straight into the log one by one.
+     *
+     * @return the id of the last transaction in the batch.
+     */
+    private long appendToLog( TransactionToApply batch ) throws IOException
+    {
+        // Assigned base tx id just to make compiler happy
+        long lastTransactionId = TransactionIdStore.BASE_TX_ID;
+        IndexCommandDetector indexCommandDetector = new IndexCommandDetector();
+        for ( TransactionToApply tx = batch; tx != null; tx = tx.next() )
+        {
+            long transactionId = transactionIdStore.nextCommittingTransactionId();
+            matchAgainstExpectedTransactionIdIfAny( transactionId, tx );
+
+            // Same as above; a failure to append while holding the logFile monitor is a kernel panic
+            try
+            {
+                TransactionRepresentation transaction = tx.transactionRepresentation();
+                LogPosition logPositionBeforeCommit = writer.getCurrentPosition( positionMarker ).newPosition();
+                transactionLogWriter.append( transaction, transactionId );
+                LogPosition logPositionAfterCommit = writer.getCurrentPosition( positionMarker ).newPosition();
+
+                indexCommandDetector.reset();
+                transaction.accept( indexCommandDetector );
+                commit( tx, transactionId, logPositionBeforeCommit, logPositionAfterCommit,
+                        indexCommandDetector.hasWrittenAnyLegacyIndexCommand() );
+            }
+            catch ( final Throwable panic )
+            {
+                databaseHealth.panic( panic );
+                throw panic;
+            }
+            lastTransactionId = transactionId;
+        }
+        return lastTransactionId;
+    }
+
+    /**
+     * Gives an appended transaction a TransactionCommitment with metadata about it, such as whether or not it
+     * contains any legacy index changes.
+     */
+    private void commit( TransactionToApply tx, long transactionId, LogPosition logPositionBeforeCommit,
+            LogPosition logPositionAfterCommit, boolean hasLegacyIndexChanges )
+    {
+        TransactionRepresentation transaction = tx.transactionRepresentation();
+        long transactionChecksum = checksum(
+                transaction.additionalHeader(), transaction.getMasterId(), transaction.getAuthorId() );
+        transactionMetadataCache.cacheTransactionMetadata(
+                transactionId, logPositionBeforeCommit, transaction.getMasterId(), transaction.getAuthorId(),
+                transactionChecksum );
+
+        if ( hasLegacyIndexChanges )
+        {
+            // Offer this transaction id to the queue so that the legacy index applier can take part in the ordering
+            legacyIndexTransactionOrdering.offer( transactionId );
+        }
+        tx.commitment( new TransactionCommitment(
+                hasLegacyIndexChanges, transactionId, transactionChecksum, logPositionAfterCommit,
+                transactionIdStore ), transactionId );
+    }
+
     /**
      * Called by the appender that just appended a transaction to the log.
      *
@@ -23,14 +23,22 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 import java.util.function.Supplier;
 
 import org.neo4j.helpers.Exceptions;
+import org.neo4j.io.ByteUnit;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
 import org.neo4j.kernel.impl.transaction.log.entry.LogHeader;
+import org.neo4j.kernel.impl.transaction.log.entry.VersionAwareLogEntryReader;
 import org.neo4j.kernel.lifecycle.Lifecycle;
 
+import static java.lang.Math.min;
+import static org.neo4j.kernel.impl.transaction.log.LogVersionBridge.NO_MORE_CHANNELS;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeader.LOG_HEADER_SIZE;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderReader.readLogHeader;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderWriter.writeLogHeader;
@@ -38,6 +46,12 @@ import static org.neo4j.kernel.impl.transaction.log.entry.LogVersions.CURRENT_LO
 
 /**
  * {@link LogFile} backed by one or more files in a {@link FileSystemAbstraction}.
+ * <p>
+ * If given an {@link Executor} for preallocation, the file for the next log version is prepared in the background,
+ * by zero-filling a spare file up to the rotation threshold. On rotation the spare file is then renamed into place,
+ * which means that rotation does not need to create and grow a new file in the commit path, and that forcing the log
+ * does not need to journal any file size changes. A zero-filled tail reads as the end of the log, and it is
+ * truncated away when the log file is rotated or shut down.
  */
 public class PhysicalLogFile implements LogFile, Lifecycle
 {
@@ -68,13 +82,33 @@ public class PhysicalLogFile implements LogFile, Lifecycle
     private PositionAwarePhysicalFlushableChannel writer;
     private final LogVersionRepository logVersionRepository;
     private final LogVersionBridge readerLogVersionBridge;
+    private final LogEntryReader<ReadableClosablePositionAwareChannel> logEntryReader;
+    private final Executor preallocationExecutor;
 
     private volatile PhysicalLogVersionedStoreChannel channel;
+    private volatile boolean preallocatedFileReady;
+    private volatile boolean shutdown;
+    private FutureTask<Void> preallocation;
 
     public PhysicalLogFile( FileSystemAbstraction fileSystem, PhysicalLogFiles logFiles, long rotateAtSize,
                             Supplier<Long> lastCommittedId, LogVersionRepository logVersionRepository,
                             Monitor monitor, LogHeaderCache logHeaderCache
     )
+    {
+        this( fileSystem, logFiles, rotateAtSize, lastCommittedId, logVersionRepository, monitor, logHeaderCache,
+                new VersionAwareLogEntryReader<>(), null );
+    }
+
+    /**
+     * @param logEntryReader used for finding the end of the log data, if the current log file has been preallocated.
+     * @param preallocationExecutor the executor that preallocates the next log file in the background, or
+     * {@code null} if log files should not be preallocated.
+     */
+    public PhysicalLogFile( FileSystemAbstraction fileSystem, PhysicalLogFiles logFiles, long rotateAtSize,
+                            Supplier<Long> lastCommittedId, LogVersionRepository logVersionRepository,
+                            Monitor monitor, LogHeaderCache logHeaderCache,
+                            LogEntryReader<ReadableClosablePositionAwareChannel> logEntryReader,
+                            Executor preallocationExecutor )
     {
         this.fileSystem = fileSystem;
         this.rotateAtSize = rotateAtSize;
@@ -84,6 +118,8 @@ public class PhysicalLogFile implements LogFile, Lifecycle
         this.logHeaderCache = logHeaderCache;
         this.logFiles = logFiles;
         this.readerLogVersionBridge = new ReaderLogVersionBridge( fileSystem, logFiles );
+        this.logEntryReader = logEntryReader;
+        this.preallocationExecutor = preallocationExecutor;
     }
 
     @Override
@@ -104,9 +140,61 @@ public class PhysicalLogFile implements LogFile, Lifecycle
         long lastLogVersionUsed = logVersionRepository.getCurrentLogVersion();
         channel = openLogChannelForVersion( lastLogVersionUsed );
         // Move to the end
-        channel.position( channel.size() );
+        channel.position( endOfLogData( channel ) );
 
         writer = new PositionAwarePhysicalFlushableChannel( channel );
+
+        shutdown = false;
+        File preallocatedFile = logFiles.getPreallocatedLogFile();
+        if ( preallocationExecutor == null )
+        {
+            fileSystem.deleteFile( preallocatedFile );
+        }
+        else if ( fileSystem.fileExists( preallocatedFile ) &&
+                  fileSystem.getFileSize( preallocatedFile ) == preallocatedFileSize() )
+        {
+            preallocatedFileReady = true;
+        }
+        else
+        {
+            preallocateNextLogFile();
+        }
+    }
+
+    /**
+     * A log file that has been preallocated, and not cleanly shut down, will have a zero-filled tail, which we must
+     * not append after. The last 16 bytes of real log data are never all zeros, since every log file ends with
+     * either the header, or the transaction id and time of a commit entry, or the byte offset of a check point.
+     */
+    private long endOfLogData( PhysicalLogVersionedStoreChannel channel ) throws IOException
+    {
+        long size = channel.size();
+        long tailSize = 16;
+        if ( size < LOG_HEADER_SIZE + tailSize )
+        {
+            return size;
+        }
+        ByteBuffer tail = ByteBuffer.allocate( (int) tailSize );
+        while ( tail.hasRemaining() && channel.read( tail, size - tailSize + tail.position() ) != -1 )
+        {
+            // keep reading
+        }
+        tail.flip();
+        if ( tail.getLong() != 0 || tail.getLong() != 0 )
+        {
+            return size;
+        }
+
+        // Note that we don't close the reader, since that would close the channel
+        channel.position( LOG_HEADER_SIZE );
+        ReadAheadLogChannel reader = new ReadAheadLogChannel( channel, NO_MORE_CHANNELS );
+        LogPositionMarker marker = new LogPositionMarker();
+        reader.getCurrentPosition( marker );
+        while ( logEntryReader.readLogEntry( reader ) != null )
+        {
+            reader.getCurrentPosition( marker );
+        }
+        return marker.getByteOffset();
     }
 
     @Override
@@ -121,8 +209,13 @@ public class PhysicalLogFile implements LogFile, Lifecycle
     @Override
     public void shutdown() throws IOException
     {
+        shutdown = true;
+        awaitPreallocation();
         if ( writer != null )
         {
+            // Cut off any preallocated tail, so that the log file only contains actual log data
+            writer.prepareForFlush();
+            truncateTail( channel );
             writer.close();
         }
         if ( channel != null )
@@ -144,12 +237,20 @@ public class PhysicalLogFile implements LogFile, Lifecycle
     @Override
     public synchronized void rotate() throws IOException
     {
+        // Everything written so far must be in the channel, for its position to be where the log data ends
+        writer.prepareForFlush();
         channel = rotate( channel );
         writer.setChannel( channel );
     }
 
     private PhysicalLogVersionedStoreChannel rotate( LogVersionedStoreChannel currentLog ) throws IOException
     {
+        /*
+         * A preallocated log file has a zero-filled tail after the log data, which reads as the end of the log.
+         * Readers of the log would stop there and never move on to later log versions, so it is cut off, and
+         * the new file size forced, before there can be any later log version.
+         */
+        truncateTail( currentLog );
         /*
          * The store is now flushed. If we fail now the recovery code will open the
          * current log file and replay everything. That's unnecessary but totally ok.
@@ -164,11 +265,119 @@ public class PhysicalLogFile implements LogFile, Lifecycle
          * Note that by this point, rotation is done. The next few lines are
          * "simply overhead" for continuing to work with the new file.
          */
-        PhysicalLogVersionedStoreChannel newLog = openLogChannelForVersion( newLogVersion );
+        PhysicalLogVersionedStoreChannel newLog;
+        if ( preallocatedFileReady && !logFiles.versionExists( newLogVersion ) )
+        {
+            preallocatedFileReady = false;
+            newLog = openPreallocatedLogChannelForVersion( newLogVersion );
+            preallocateNextLogFile();
+        }
+        else
+        {
+            newLog = openLogChannelForVersion( newLogVersion );
+        }
         currentLog.close();
         return newLog;
     }
 
+    private static void truncateTail( StoreChannel log ) throws IOException
+    {
+        long position = log.position();
+        if ( log.size() > position )
+        {
+            log.truncate( position );
+            log.force( true );
+        }
+    }
+
+    /**
+     * Write the header into the preallocated file, and then rename it to be the log file for the given version.
+     * The header is written first, so that a crash can never leave a log file without a header behind.
+     */
+    private PhysicalLogVersionedStoreChannel openPreallocatedLogChannelForVersion( long forVersion ) throws IOException
+    {
+        File preallocatedFile = logFiles.getPreallocatedLogFile();
+        long lastTxId = lastCommittedId.get();
+        try ( StoreChannel storeChannel = fileSystem.open( preallocatedFile, "rw" ) )
+        {
+            writeLogHeader( headerBuffer, forVersion, lastTxId );
+            storeChannel.writeAll( headerBuffer, 0 );
+            storeChannel.force( false );
+        }
+        File toOpen = logFiles.getLogFileForVersion( forVersion );
+        fileSystem.renameFile( preallocatedFile, toOpen );
+        logHeaderCache.putHeader( forVersion, lastTxId );
+
+        StoreChannel storeChannel = fileSystem.open( toOpen, "rw" );
+        storeChannel.position( LOG_HEADER_SIZE );
+        monitor.opened( toOpen, forVersion, lastTxId, true );
+        return new PhysicalLogVersionedStoreChannel( storeChannel, forVersion, CURRENT_LOG_VERSION );
+    }
+
+    private long preallocatedFileSize()
+    {
+        return rotateAtSize + LOG_HEADER_SIZE;
+    }
+
+    private synchronized void preallocateNextLogFile()
+    {
+        if ( preallocationExecutor == null || rotateAtSize <= 0 || shutdown )
+        {
+            return;
+        }
+        preallocation = new FutureTask<>( () ->
+        {
+            File preallocatedFile = logFiles.getPreallocatedLogFile();
+            fileSystem.deleteFile( preallocatedFile );
+            try ( StoreChannel storeChannel = fileSystem.open( preallocatedFile, "rw" ) )
+            {
+                ByteBuffer zeros = ByteBuffer.allocate( (int) ByteUnit.mebiBytes( 1 ) );
+                long remaining = preallocatedFileSize();
+                while ( remaining > 0 )
+                {
+                    if ( shutdown )
+                    {
+                        return null;
+                    }
+                    zeros.clear();
+                    zeros.limit( (int) min( zeros.capacity(), remaining ) );
+                    storeChannel.writeAll( zeros );
+                    remaining -= zeros.limit();
+                }
+                storeChannel.force( true );
+            }
+            preallocatedFileReady = true;
+            return null;
+        } );
+        preallocationExecutor.execute( preallocation );
+    }
+
+    private void awaitPreallocation() throws IOException
+    {
+        FutureTask<Void> task;
+        synchronized ( this )
+        {
+            task = preallocation;
+        }
+        if ( task == null )
+        {
+            return;
+        }
+        try
+        {
+            task.get();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch ( ExecutionException e )
+        {
+            // The preallocated file is only an optimisation, so failing to create it is not a problem in itself
+            fileSystem.deleteFile( logFiles.getPreallocatedLogFile() );
+        }
+    }
+
     private PhysicalLogVersionedStoreChannel openLogChannelForVersion( long forVersion ) throws IOException
     {
         File toOpen = logFiles.getLogFileForVersion( forVersion );
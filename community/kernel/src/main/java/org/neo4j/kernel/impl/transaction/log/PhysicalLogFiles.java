@@ -21,9 +21,11 @@ package org.neo4j.kernel.impl.transaction.log;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.regex.Pattern;
 
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.kernel.impl.transaction.log.entry.LogHeader;
 
 import static java.lang.Math.max;
@@ -31,6 +33,7 @@ import static java.lang.Math.min;
 
 import static org.neo4j.kernel.impl.transaction.log.PhysicalLogFile.DEFAULT_VERSION_SUFFIX;
 import static org.neo4j.kernel.impl.transaction.log.PhysicalLogFile.REGEX_DEFAULT_VERSION_SUFFIX;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryByteCodes.EMPTY;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeader.LOG_HEADER_SIZE;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderReader.readLogHeader;
 
@@ -58,6 +61,8 @@ public class PhysicalLogFiles
         }
     }
 
+    private static final String PREALLOCATED_SUFFIX = ".prealloc";
+
     private final File logBaseName;
     private final Pattern logFilePattern;
     private final FileSystemAbstraction fileSystem;
@@ -79,6 +84,14 @@ public class PhysicalLogFiles
         return new File( logBaseName.getPath() + DEFAULT_VERSION_SUFFIX + version );
     }
 
+    /**
+     * @return the spare file that is preallocated in the background, and becomes the next log file on rotation.
+     */
+    public File getPreallocatedLogFile()
+    {
+        return new File( logBaseName.getPath() + PREALLOCATED_SUFFIX );
+    }
+
     public boolean versionExists( long version )
     {
         return fileSystem.fileExists( getLogFileForVersion( version ) );
@@ -91,7 +104,21 @@ public class PhysicalLogFiles
 
     public boolean hasAnyEntries( long version )
     {
-        return fileSystem.getFileSize( getLogFileForVersion( version ) ) > LOG_HEADER_SIZE;
+        File logFile = getLogFileForVersion( version );
+        if ( fileSystem.getFileSize( logFile ) <= LOG_HEADER_SIZE )
+        {
+            return false;
+        }
+        // A preallocated log file can be larger than its header, without having any entries
+        try ( StoreChannel channel = fileSystem.open( logFile, "r" ) )
+        {
+            ByteBuffer firstEntryByte = ByteBuffer.allocate( 1 );
+            return channel.read( firstEntryByte, LOG_HEADER_SIZE ) == 1 && firstEntryByte.get( 0 ) != EMPTY;
+        }
+        catch ( IOException e )
+        {
+            return true;
+        }
     }
 
     public long getHighestLogVersion()
@@ -69,7 +69,7 @@ public class PhysicalLogVersionedStoreChannel implements LogVersionedStoreChanne
     @Override
     public int read( ByteBuffer dst, long position ) throws IOException
     {
-        throw new UnsupportedOperationException( "Not needed" );
+        return delegateChannel.read( dst, position );
     }
 
     @Override
@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.neo4j.io.ByteUnit;
+import org.neo4j.kernel.impl.api.TransactionToApply;
+import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryWriter;
+
+/**
+ * An in-memory {@link FlushableChannel} that a committing thread serializes its batch of transactions into, before
+ * appending it to the transaction log. This moves the expensive serialization of commands out of the log file
+ * monitor, so that it can happen concurrently in all committing threads.
+ * <p>
+ * The transaction ids are not known until the batch is appended, so the commit entries are written with a
+ * placeholder id, whose position is remembered so it can be {@link #setTransactionId(int, long) patched} later.
+ * <p>
+ * A batch is only serialized up to a {@link #MAX_BUFFER_SIZE maximum size}. Larger batches are instead written
+ * straight to the log, like they were before serialization was moved out of the monitor, since holding the whole
+ * of a very large batch on the heap, let alone growing an array past 2 GiB, isn't an option.
+ * <p>
+ * Instances are meant to be reused by the same thread, and are not thread-safe.
+ */
+final class SerializedTransactionBatch implements FlushableChannel
+{
+    private static final int INITIAL_BUFFER_SIZE = (int) ByteUnit.kibiBytes( 8 );
+    private static final int MAX_RETAINED_BUFFER_SIZE = (int) ByteUnit.mebiBytes( 1 );
+    static final int MAX_BUFFER_SIZE = (int) ByteUnit.mebiBytes( 64 );
+    // The commit entry starts with the log entry version and type bytes, followed by the transaction id
+    private static final int COMMIT_ENTRY_TRANSACTION_ID_OFFSET = 2;
+
+    private final LogEntryWriter logEntryWriter = new LogEntryWriter( this );
+    private final IndexCommandDetector indexCommandDetector = new IndexCommandDetector();
+    private final int maxBufferSize;
+    private ByteBuffer buffer;
+    private int count;
+    private int[] startOffsets = new int[4];
+    private int[] transactionIdOffsets = new int[4];
+    private boolean[] hasLegacyIndexChanges = new boolean[4];
+
+    SerializedTransactionBatch()
+    {
+        this( MAX_BUFFER_SIZE );
+    }
+
+    SerializedTransactionBatch( int maxBufferSize )
+    {
+        this.maxBufferSize = maxBufferSize;
+        this.buffer = newInitialBuffer();
+    }
+
+    /**
+     * Serialize all the transactions in the given batch, replacing anything that was previously serialized.
+     *
+     * @return {@code true} if the batch was serialized, or {@code false} if it's too large to be serialized in
+     * memory, in which case nothing is left serialized and the transactions have to be written to the log directly.
+     */
+    boolean serialize( TransactionToApply batch ) throws IOException
+    {
+        buffer.clear();
+        count = 0;
+        try
+        {
+            for ( TransactionToApply tx = batch; tx != null; tx = tx.next() )
+            {
+                serialize( tx.transactionRepresentation() );
+            }
+            return true;
+        }
+        catch ( BatchTooLargeException e )
+        {
+            release();
+            buffer.clear();
+            return false;
+        }
+    }
+
+    private void serialize( TransactionRepresentation transaction ) throws IOException
+    {
+        if ( count == startOffsets.length )
+        {
+            int newLength = count * 2;
+            startOffsets = Arrays.copyOf( startOffsets, newLength );
+            transactionIdOffsets = Arrays.copyOf( transactionIdOffsets, newLength );
+            hasLegacyIndexChanges = Arrays.copyOf( hasLegacyIndexChanges, newLength );
+        }
+
+        startOffsets[count] = buffer.position();
+        logEntryWriter.writeStartEntry( transaction.getMasterId(), transaction.getAuthorId(),
+                transaction.getTimeStarted(), transaction.getLatestCommittedTxWhenStarted(),
+                transaction.additionalHeader() );
+        logEntryWriter.serialize( transaction );
+        transactionIdOffsets[count] = buffer.position() + COMMIT_ENTRY_TRANSACTION_ID_OFFSET;
+        logEntryWriter.writeCommitEntry( TransactionIdStore.BASE_TX_ID, transaction.getTimeCommitted() );
+
+        indexCommandDetector.reset();
+        transaction.accept( indexCommandDetector );
+        hasLegacyIndexChanges[count] = indexCommandDetector.hasWrittenAnyLegacyIndexCommand();
+        count++;
+    }
+
+    void setTransactionId( int index, long transactionId )
+    {
+        buffer.putLong( transactionIdOffsets[index], transactionId );
+    }
+
+    long transactionId( int index )
+    {
+        return buffer.getLong( transactionIdOffsets[index] );
+    }
+
+    /**
+     * @return the offset, relative to the start of the batch, where the given transaction begins.
+     */
+    int startOffset( int index )
+    {
+        return startOffsets[index];
+    }
+
+    /**
+     * @return the offset, relative to the start of the batch, just after the end of the given transaction.
+     */
+    int endOffset( int index )
+    {
+        return index + 1 == count ? buffer.position() : startOffsets[index + 1];
+    }
+
+    boolean hasLegacyIndexChanges( int index )
+    {
+        return hasLegacyIndexChanges[index];
+    }
+
+    /**
+     * Copy all the serialized transactions in one go to the given channel.
+     */
+    void writeTo( FlushableChannel channel ) throws IOException
+    {
+        channel.put( buffer.array(), buffer.position() );
+    }
+
+    /**
+     * Let go of the buffer if a particularly large batch made it grow, so that we don't hold on to lots of memory
+     * in every thread that has ever committed a large transaction.
+     */
+    void release()
+    {
+        if ( buffer.capacity() > MAX_RETAINED_BUFFER_SIZE )
+        {
+            buffer = newInitialBuffer();
+        }
+        count = 0;
+    }
+
+    private ByteBuffer newInitialBuffer()
+    {
+        return ByteBuffer.allocate( Math.min( INITIAL_BUFFER_SIZE, maxBufferSize ) );
+    }
+
+    private ByteBuffer bufferWithGuaranteedSpace( int spaceInBytes ) throws BatchTooLargeException
+    {
+        if ( buffer.remaining() < spaceInBytes )
+        {
+            long requiredCapacity = (long) buffer.position() + spaceInBytes;
+            if ( requiredCapacity > maxBufferSize )
+            {
+                throw BatchTooLargeException.INSTANCE;
+            }
+            long newCapacity = Math.min( Math.max( buffer.capacity() * 2L, requiredCapacity ), maxBufferSize );
+            ByteBuffer newBuffer = ByteBuffer.allocate( (int) newCapacity );
+            buffer.flip();
+            newBuffer.put( buffer );
+            buffer = newBuffer;
+        }
+        return buffer;
+    }
+
+    @Override
+    public Flushable prepareForFlush() throws IOException
+    {
+        // Nothing to flush, everything stays in memory until it is written to the log
+        return () -> {};
+    }
+
+    @Override
+    public FlushableChannel put( byte value ) throws IOException
+    {
+        bufferWithGuaranteedSpace( 1 ).put( value );
+        return this;
+    }
+
+    @Override
+    public FlushableChannel putShort( short value ) throws IOException
+    {
+        bufferWithGuaranteedSpace( 2 ).putShort( value );
+        return this;
+    }
+
+    @Override
+    public FlushableChannel putInt( int value ) throws IOException
+    {
+        bufferWithGuaranteedSpace( 4 ).putInt( value );
+        return this;
+    }
+
+    @Override
+    public FlushableChannel putLong( long value ) throws IOException
+    {
+        bufferWithGuaranteedSpace( 8 ).putLong( value );
+        return this;
+    }
+
+    @Override
+    public FlushableChannel putFloat( float value ) throws IOException
+    {
+        bufferWithGuaranteedSpace( 4 ).putFloat( value );
+        return this;
+    }
+
+    @Override
+    public FlushableChannel putDouble( double value ) throws IOException
+    {
+        bufferWithGuaranteedSpace( 8 ).putDouble( value );
+        return this;
+    }
+
+    @Override
+    public FlushableChannel put( byte[] value, int length ) throws IOException
+    {
+        bufferWithGuaranteedSpace( length ).put( value, 0, length );
+        return this;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        release();
+    }
+
+    /**
+     * Thrown from the channel methods, through the {@link LogEntryWriter}, to abandon the serialization of a batch
+     * which has grown too large. Shared and without stack trace, since it's just a signal.
+     */
+    private static final class BatchTooLargeException extends IOException
+    {
+        static final BatchTooLargeException INSTANCE = new BatchTooLargeException();
+
+        private BatchTooLargeException()
+        {
+            super( "Transaction batch too large to serialize in memory", null );
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace()
+        {
+            return this;
+        }
+    }
+}
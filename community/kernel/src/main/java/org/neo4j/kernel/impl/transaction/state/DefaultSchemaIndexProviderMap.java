@@ -19,16 +19,36 @@
  */
 package org.neo4j.kernel.impl.transaction.state;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.neo4j.kernel.api.index.SchemaIndexProvider;
 import org.neo4j.kernel.impl.api.index.SchemaIndexProviderMap;
 
+import static java.util.Collections.emptyList;
+
 public class DefaultSchemaIndexProviderMap implements SchemaIndexProviderMap
 {
     private final SchemaIndexProvider indexProvider;
+    private final Map<String,SchemaIndexProvider> additionalProviders = new HashMap<>();
 
     public DefaultSchemaIndexProviderMap( SchemaIndexProvider indexProvider )
+    {
+        this( indexProvider, emptyList() );
+    }
+
+    /**
+     * @param indexProvider provider of new indexes.
+     * @param additionalProviders other providers, only serving existing indexes created by them.
+     */
+    public DefaultSchemaIndexProviderMap( SchemaIndexProvider indexProvider,
+            Iterable<SchemaIndexProvider> additionalProviders )
     {
         this.indexProvider = indexProvider;
+        for ( SchemaIndexProvider provider : additionalProviders )
+        {
+            this.additionalProviders.putIfAbsent( provider.getProviderDescriptor().getKey(), provider );
+        }
     }
 
     @Override
@@ -43,8 +63,15 @@ public class DefaultSchemaIndexProviderMap implements SchemaIndexProviderMap
         if ( indexProvider.getProviderDescriptor().getKey().equals( descriptor.getKey() ) )
             return indexProvider;
 
+        SchemaIndexProvider provider = additionalProviders.get( descriptor.getKey() );
+        if ( provider != null )
+        {
+            return provider;
+        }
+
         throw new IllegalArgumentException( "Tried to get index provider for an existing index with provider " +
-                descriptor + " whereas the default and only supported provider in this session is " +
-                indexProvider.getProviderDescriptor() );
+                descriptor + " whereas the default provider in this session is " +
+                indexProvider.getProviderDescriptor() + " and the other available providers are " +
+                additionalProviders.keySet() );
     }
 }
@@ -19,6 +19,7 @@
  */
 package org.neo4j.kernel.impl.transaction.state;
 
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 
@@ -52,6 +53,12 @@ public class DirectIndexUpdates implements IndexUpdates
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public void collectRemovedValues( Collection<NodePropertyUpdate> target, PrimitiveLongSet unknown )
+    {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public void feed( PrimitiveLongObjectMap<List<PropertyCommand>> propCommands,
             PrimitiveLongObjectMap<NodeCommand> nodeCommands )
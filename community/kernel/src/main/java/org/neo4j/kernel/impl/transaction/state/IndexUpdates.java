@@ -19,6 +19,7 @@
  */
 package org.neo4j.kernel.impl.transaction.state;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.neo4j.collection.primitive.PrimitiveLongObjectMap;
@@ -50,5 +51,17 @@ public interface IndexUpdates extends Iterable<NodePropertyUpdate>
      */
     void collectUpdatedNodeIds( PrimitiveLongSet target );
 
+    /**
+     * Exposed for the same reason as {@link #collectUpdatedNodeIds(PrimitiveLongSet)}. Collects removals of the
+     * property values which the commands replaced or removed, i.e. values which indexes may still have for
+     * the updated nodes, so that they can be removed by value after recovery. The removals have no labels.
+     * Nodes for which not all such values can be read without the store, e.g. since a value is kept in dynamic
+     * records or since the labels of the node changed, are collected into {@code unknown} instead.
+     *
+     * @param target to receive removals of replaced values.
+     * @param unknown to receive ids of nodes whose replaced values aren't all known.
+     */
+    void collectRemovedValues( Collection<NodePropertyUpdate> target, PrimitiveLongSet unknown );
+
     boolean hasUpdates();
 }
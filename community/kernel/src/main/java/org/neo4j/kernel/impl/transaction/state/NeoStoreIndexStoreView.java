@@ -21,6 +21,8 @@ package org.neo4j.kernel.impl.transaction.state;
 
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.IntPredicate;
 
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
@@ -41,8 +43,10 @@ import org.neo4j.kernel.impl.locking.LockService;
 import org.neo4j.kernel.impl.store.NeoStores;
 import org.neo4j.kernel.impl.store.NodeStore;
 import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.SchemaStorage;
 import org.neo4j.kernel.impl.store.StoreIdIterator;
 import org.neo4j.kernel.impl.store.counts.CountsTracker;
+import org.neo4j.kernel.impl.store.record.IndexRule;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.kernel.impl.store.record.PropertyRecord;
@@ -63,6 +67,8 @@ public class NeoStoreIndexStoreView implements IndexStoreView
     private final NodeStore nodeStore;
     private final LockService locks;
     private final CountsTracker counts;
+    private final SchemaStorage schemaStorage;
+    private final Map<IndexDescriptor,Integer> compositeStatisticsKeys = new ConcurrentHashMap<>();
 
     public NeoStoreIndexStoreView( LockService locks, NeoStores neoStores )
     {
@@ -70,12 +76,19 @@ public class NeoStoreIndexStoreView implements IndexStoreView
         this.propertyStore = neoStores.getPropertyStore();
         this.nodeStore = neoStores.getNodeStore();
         this.counts = neoStores.getCounts();
+        this.schemaStorage = new SchemaStorage( neoStores.getSchemaStore() );
     }
 
     @Override
     public DoubleLongRegister indexUpdatesAndSize( IndexDescriptor descriptor, DoubleLongRegister output )
     {
-        return counts.indexUpdatesAndSize( descriptor.getLabelId(), descriptor.getPropertyKeyId(), output );
+        Integer propertyKeyId = statisticsPropertyKeyId( descriptor );
+        if ( propertyKeyId == null )
+        {
+            output.write( 0, 0 );
+            return output;
+        }
+        return counts.indexUpdatesAndSize( descriptor.getLabelId(), propertyKeyId, output );
     }
 
     @Override
@@ -83,7 +96,11 @@ public class NeoStoreIndexStoreView implements IndexStoreView
                                     long uniqueElements, long maxUniqueElements, long indexSize )
     {
         int labelId = descriptor.getLabelId();
-        int propertyKeyId = descriptor.getPropertyKeyId();
+        Integer propertyKeyId = statisticsPropertyKeyId( descriptor );
+        if ( propertyKeyId == null )
+        {
+            return;
+        }
         try ( CountsAccessor.IndexStatsUpdater updater = counts.updateIndexCounts() )
         {
             updater.replaceIndexSample( labelId, propertyKeyId, uniqueElements, maxUniqueElements );
@@ -94,16 +111,50 @@ public class NeoStoreIndexStoreView implements IndexStoreView
     @Override
     public void incrementIndexUpdates( IndexDescriptor descriptor, long updatesDelta )
     {
+        Integer propertyKeyId = statisticsPropertyKeyId( descriptor );
+        if ( propertyKeyId == null )
+        {
+            return;
+        }
         try ( CountsAccessor.IndexStatsUpdater updater = counts.updateIndexCounts() )
         {
-            updater.incrementIndexUpdates( descriptor.getLabelId(), descriptor.getPropertyKeyId(), updatesDelta );
+            updater.incrementIndexUpdates( descriptor.getLabelId(), propertyKeyId, updatesDelta );
         }
     }
 
     @Override
     public DoubleLongRegister indexSample( IndexDescriptor descriptor, DoubleLongRegister output )
     {
-        return counts.indexSample( descriptor.getLabelId(), descriptor.getPropertyKeyId(), output );
+        Integer propertyKeyId = statisticsPropertyKeyId( descriptor );
+        if ( propertyKeyId == null )
+        {
+            output.write( 0, 0 );
+            return output;
+        }
+        return counts.indexSample( descriptor.getLabelId(), propertyKeyId, output );
+    }
+
+    /**
+     * Statistics of a composite index are kept under a key derived from the id of its rule, see
+     * {@link IndexRule#getStatisticsPropertyKeyId()}. The rule of a dropped index is already gone from the schema
+     * store when its counts are removed, so the last key found for each composite index is remembered.
+     *
+     * @return the statistics key of the index, or {@code null} if there is no rule for it.
+     */
+    private Integer statisticsPropertyKeyId( IndexDescriptor descriptor )
+    {
+        if ( !descriptor.isComposite() )
+        {
+            return descriptor.getPropertyKeyId();
+        }
+        IndexRule rule = schemaStorage.indexRule( descriptor );
+        if ( rule == null )
+        {
+            return compositeStatisticsKeys.get( descriptor );
+        }
+        int propertyKeyId = rule.getStatisticsPropertyKeyId();
+        compositeStatisticsKeys.put( descriptor, propertyKeyId );
+        return propertyKeyId;
     }
 
     @Override
@@ -21,20 +21,25 @@ package org.neo4j.kernel.impl.transaction.state;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveIntObjectMap;
 import org.neo4j.collection.primitive.PrimitiveLongCollections;
 import org.neo4j.collection.primitive.PrimitiveLongObjectMap;
 import org.neo4j.collection.primitive.PrimitiveLongObjectVisitor;
 import org.neo4j.collection.primitive.PrimitiveLongSet;
 import org.neo4j.helpers.collection.Iterables;
 import org.neo4j.helpers.collection.Pair;
+import org.neo4j.kernel.api.index.IndexDescriptor;
 import org.neo4j.kernel.api.index.NodePropertyUpdate;
 import org.neo4j.kernel.api.properties.DefinedProperty;
+import org.neo4j.kernel.impl.api.index.CompositeIndexUpdates;
 import org.neo4j.kernel.impl.api.index.PropertyPhysicalToLogicalConverter;
 import org.neo4j.kernel.impl.api.index.UpdateMode;
 import org.neo4j.kernel.impl.core.IteratingPropertyReceiver;
@@ -47,6 +52,7 @@ import org.neo4j.kernel.impl.transaction.command.Command.Mode;
 import org.neo4j.kernel.impl.transaction.command.Command.NodeCommand;
 import org.neo4j.kernel.impl.transaction.command.Command.PropertyCommand;
 
+import static org.neo4j.collection.primitive.PrimitiveIntCollections.contains;
 import static org.neo4j.kernel.api.index.NodePropertyUpdate.add;
 import static org.neo4j.kernel.api.index.NodePropertyUpdate.remove;
 import static org.neo4j.kernel.impl.store.NodeLabelsField.parseLabelsField;
@@ -58,6 +64,9 @@ import static org.neo4j.kernel.impl.store.NodeLabelsField.parseLabelsField;
  * in that case the properties for that node needs to be read from store since the commands in that transaction
  * cannot itself provide enough information.
  *
+ * Updates to {@link IndexDescriptor#isComposite() composite indexes} are derived from the full set of properties
+ * of each changed node having the label of such an index, also read from store and the commands.
+ *
  * One instance can be {@link #feed(PrimitiveLongObjectMap, PrimitiveLongObjectMap) fed} data about
  * multiple transactions, to be {@link #iterator() accessed} later.
  */
@@ -66,16 +75,26 @@ public class OnlineIndexUpdates implements IndexUpdates
     private final NodeStore nodeStore;
     private final PropertyLoader propertyLoader;
     private final PropertyPhysicalToLogicalConverter converter;
-    private final Collection<NodePropertyUpdate> updates = new ArrayList<>();
+    private final Supplier<List<IndexDescriptor>> compositeIndexes;
+    private final List<NodePropertyUpdate> updates = new ArrayList<>();
     private NodeRecord nodeRecord;
 
     public OnlineIndexUpdates( NodeStore nodeStore,
                              PropertyLoader propertyLoader,
                              PropertyPhysicalToLogicalConverter converter )
+    {
+        this( nodeStore, propertyLoader, converter, Collections::emptyList );
+    }
+
+    public OnlineIndexUpdates( NodeStore nodeStore,
+                             PropertyLoader propertyLoader,
+                             PropertyPhysicalToLogicalConverter converter,
+                             Supplier<List<IndexDescriptor>> compositeIndexes )
     {
         this.nodeStore = nodeStore;
         this.propertyLoader = propertyLoader;
         this.converter = converter;
+        this.compositeIndexes = compositeIndexes;
     }
 
     @Override
@@ -90,13 +109,28 @@ public class OnlineIndexUpdates implements IndexUpdates
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public void collectRemovedValues( Collection<NodePropertyUpdate> target, PrimitiveLongSet unknown )
+    {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public void feed( PrimitiveLongObjectMap<List<PropertyCommand>> propertyCommands,
             PrimitiveLongObjectMap<NodeCommand> nodeCommands )
     {
         Map<Pair<Long,Integer>,NodePropertyUpdate> propertyChanges = new HashMap<>();
+        int propertyUpdatesStart = updates.size();
         gatherUpdatesFromPropertyCommands( nodeCommands, propertyCommands, propertyChanges );
+        List<NodePropertyUpdate> propertyUpdates = new ArrayList<>( updates.subList( propertyUpdatesStart,
+                updates.size() ) );
         gatherUpdatesFromNodeCommands( nodeCommands, propertyCommands, propertyChanges );
+
+        List<IndexDescriptor> composites = compositeIndexes.get();
+        if ( !composites.isEmpty() )
+        {
+            gatherCompositeUpdates( nodeCommands, propertyCommands, propertyUpdates, composites );
+        }
     }
 
     @Override
@@ -233,6 +267,138 @@ public class OnlineIndexUpdates implements IndexUpdates
         }
     }
 
+    private void gatherCompositeUpdates( PrimitiveLongObjectMap<NodeCommand> nodeCommands,
+            PrimitiveLongObjectMap<List<PropertyCommand>> propertyCommands,
+            List<NodePropertyUpdate> propertyUpdates, List<IndexDescriptor> composites )
+    {
+        PrimitiveLongObjectMap<List<NodePropertyUpdate>> propertyUpdatesByNode = Primitive.longObjectMap();
+        for ( NodePropertyUpdate update : propertyUpdates )
+        {
+            List<NodePropertyUpdate> nodeUpdates = propertyUpdatesByNode.get( update.getNodeId() );
+            if ( nodeUpdates == null )
+            {
+                nodeUpdates = new ArrayList<>();
+                propertyUpdatesByNode.put( update.getNodeId(), nodeUpdates );
+            }
+            nodeUpdates.add( update );
+        }
+
+        PrimitiveLongSet nodeIds = Primitive.longSet( nodeCommands.size() + propertyCommands.size() );
+        nodeCommands.visitKeys( nodeId ->
+        {
+            nodeIds.add( nodeId );
+            return false;
+        } );
+        propertyCommands.visitKeys( nodeId ->
+        {
+            nodeIds.add( nodeId );
+            return false;
+        } );
+        nodeIds.visitKeys( nodeId ->
+        {
+            List<NodePropertyUpdate> nodeUpdates = propertyUpdatesByNode.get( nodeId );
+            gatherCompositeUpdatesForNode( nodeId, nodeCommands, propertyCommands,
+                    nodeUpdates == null ? Collections.emptyList() : nodeUpdates, composites );
+            return false;
+        } );
+    }
+
+    private void gatherCompositeUpdatesForNode( long nodeId, PrimitiveLongObjectMap<NodeCommand> nodeCommands,
+            PrimitiveLongObjectMap<List<PropertyCommand>> propertyCommands,
+            List<NodePropertyUpdate> propertyUpdates, List<IndexDescriptor> composites )
+    {
+        long[] labelsBefore, labelsAfter;
+        NodeCommand nodeCommand = nodeCommands.get( nodeId );
+        if ( nodeCommand != null )
+        {
+            labelsBefore = nodeCommand.getBefore().inUse()
+                           ? parseLabelsField( nodeCommand.getBefore() ).get( nodeStore )
+                           : PrimitiveLongCollections.EMPTY_LONG_ARRAY;
+            labelsAfter = nodeCommand.getAfter().inUse()
+                          ? parseLabelsField( nodeCommand.getAfter() ).get( nodeStore )
+                          : PrimitiveLongCollections.EMPTY_LONG_ARRAY;
+        }
+        else
+        {
+            labelsBefore = labelsAfter = parseLabelsField( loadNode( nodeId ) ).get( nodeStore );
+        }
+        if ( !affectsAnyComposite( labelsBefore, labelsAfter, propertyUpdates, composites ) )
+        {
+            return;
+        }
+
+        PrimitiveIntObjectMap<Object> propertiesAfter = Primitive.intObjectMap();
+        if ( labelsAfter.length > 0 )
+        {
+            Iterator<DefinedProperty> properties = nodeFullyLoadProperties( nodeId, nodeCommands, propertyCommands );
+            while ( properties.hasNext() )
+            {
+                DefinedProperty property = properties.next();
+                propertiesAfter.put( property.propertyKeyId(), property.value() );
+            }
+        }
+
+        // The properties before are the ones after, with the changes from the property commands undone
+        PrimitiveIntObjectMap<Object> propertiesBefore = Primitive.intObjectMap();
+        propertiesAfter.visitEntries( ( key, value ) ->
+        {
+            propertiesBefore.put( key, value );
+            return false;
+        } );
+        for ( NodePropertyUpdate update : propertyUpdates )
+        {
+            if ( update.getUpdateMode() == UpdateMode.ADDED )
+            {
+                propertiesBefore.remove( update.getPropertyKeyId() );
+            }
+            else
+            {
+                propertiesBefore.put( update.getPropertyKeyId(), update.getValueBefore() );
+            }
+        }
+
+        CompositeIndexUpdates.deriveUpdates( nodeId, labelsBefore, propertiesBefore, labelsAfter, propertiesAfter,
+                composites, updates );
+    }
+
+    private static boolean affectsAnyComposite( long[] labelsBefore, long[] labelsAfter,
+            List<NodePropertyUpdate> propertyUpdates, List<IndexDescriptor> composites )
+    {
+        for ( IndexDescriptor composite : composites )
+        {
+            boolean before = hasLabel( labelsBefore, composite.getLabelId() );
+            boolean after = hasLabel( labelsAfter, composite.getLabelId() );
+            if ( before != after )
+            {
+                return true;
+            }
+            if ( before )
+            {
+                int[] propertyKeyIds = composite.getPropertyKeyIds();
+                for ( NodePropertyUpdate update : propertyUpdates )
+                {
+                    if ( contains( propertyKeyIds, update.getPropertyKeyId() ) )
+                    {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasLabel( long[] labels, int labelId )
+    {
+        for ( long label : labels )
+        {
+            if ( label == labelId )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private Iterator<DefinedProperty> nodeFullyLoadProperties( long nodeId,
             PrimitiveLongObjectMap<NodeCommand> nodeCommands,
             PrimitiveLongObjectMap<List<PropertyCommand>> propertyCommands )
@@ -39,6 +39,9 @@ import org.neo4j.kernel.impl.util.statistics.LocalIntCounter;
  */
 public class RecordChanges<KEY,RECORD,ADDITIONAL> implements RecordAccess<KEY,RECORD,ADDITIONAL>
 {
+    // Not a primitive map, as TxState maps are: keys are both Long record ids and Integer token ids, and every
+    // RecordProxy keeps and exposes its boxed key anyway, so only the map entry itself could be saved. These maps
+    // also only live while a transaction is turned into commands, and are cleared in close() between transactions.
     private Map<KEY, RecordProxy<KEY,RECORD,ADDITIONAL>> recordChanges = new HashMap<>();
     private final Loader<KEY,RECORD,ADDITIONAL> loader;
     private final IntCounter changeCounter;
@@ -19,24 +19,44 @@
  */
 package org.neo4j.kernel.impl.transaction.state;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import org.neo4j.collection.primitive.Primitive;
 import org.neo4j.collection.primitive.PrimitiveLongObjectMap;
+import org.neo4j.collection.primitive.PrimitiveLongObjectVisitor;
 import org.neo4j.collection.primitive.PrimitiveLongSet;
 import org.neo4j.kernel.api.index.NodePropertyUpdate;
+import org.neo4j.kernel.impl.store.NodeLabels;
+import org.neo4j.kernel.impl.store.PropertyType;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.transaction.command.Command.Mode;
 import org.neo4j.kernel.impl.transaction.command.Command.NodeCommand;
 import org.neo4j.kernel.impl.transaction.command.Command.PropertyCommand;
 
+import static org.neo4j.collection.primitive.PrimitiveLongCollections.EMPTY_LONG_ARRAY;
+import static org.neo4j.kernel.impl.store.NodeLabelsField.parseLabelsField;
+
 /**
  * Used during recovery to collect node ids to refresh from scratch after recovery is completed.
  * The reason for this is that index updates from transaction commands may need to read from store
  * and the store needs to be in a recovered state before reading from it.
+ * <p>
+ * Property values which the commands replaced or removed are also collected, as far as they can be read from
+ * the commands alone, so that indexes can remove them by value instead of having to find all entries
+ * of the refreshed nodes.
  */
 public class RecoveryIndexUpdates implements IndexUpdates
 {
     private final PrimitiveLongSet ids = Primitive.longSet();
+    private final List<NodePropertyUpdate> removedValues = new ArrayList<>();
+    private final PrimitiveLongSet unknownValues = Primitive.longSet();
 
     @Override
     public Iterator<NodePropertyUpdate> iterator()
@@ -50,12 +70,41 @@ public class RecoveryIndexUpdates implements IndexUpdates
         target.addAll( ids.iterator() );
     }
 
+    @Override
+    public void collectRemovedValues( Collection<NodePropertyUpdate> target, PrimitiveLongSet unknown )
+    {
+        target.addAll( removedValues );
+        unknown.addAll( unknownValues.iterator() );
+    }
+
     @Override
     public void feed( PrimitiveLongObjectMap<List<PropertyCommand>> propCommands,
             PrimitiveLongObjectMap<NodeCommand> nodeCommands )
     {
         ids.addAll( propCommands.iterator() );
         ids.addAll( nodeCommands.iterator() );
+
+        nodeCommands.visitEntries( new PrimitiveLongObjectVisitor<NodeCommand,RuntimeException>()
+        {
+            @Override
+            public boolean visited( long nodeId, NodeCommand command )
+            {
+                if ( command.getMode() != Mode.CREATE && !hasSameLabels( command.getBefore(), command.getAfter() ) )
+                {
+                    unknownValues.add( nodeId );
+                }
+                return false;
+            }
+        } );
+        propCommands.visitEntries( new PrimitiveLongObjectVisitor<List<PropertyCommand>,RuntimeException>()
+        {
+            @Override
+            public boolean visited( long nodeId, List<PropertyCommand> commands )
+            {
+                gatherRemovedValues( nodeId, commands );
+                return false;
+            }
+        } );
     }
 
     @Override
@@ -63,4 +112,49 @@ public class RecoveryIndexUpdates implements IndexUpdates
     {
         return !ids.isEmpty();
     }
+
+    private void gatherRemovedValues( long nodeId, List<PropertyCommand> commands )
+    {
+        Map<Integer,PropertyBlock> before = new HashMap<>();
+        Map<Integer,PropertyBlock> after = new HashMap<>();
+        for ( PropertyCommand command : commands )
+        {
+            mapBlocks( command.getBefore(), before );
+            mapBlocks( command.getAfter(), after );
+        }
+
+        for ( PropertyBlock block : before.values() )
+        {
+            PropertyBlock afterBlock = after.get( block.getKeyIndexId() );
+            if ( afterBlock != null && block.hasSameContentsAs( afterBlock ) )
+            {
+                continue;
+            }
+            PropertyType type = block.getType();
+            if ( type == PropertyType.STRING || type == PropertyType.ARRAY )
+            {
+                // Value is in dynamic records, which may not be in the command
+                unknownValues.add( nodeId );
+                return;
+            }
+            removedValues.add( NodePropertyUpdate.remove( nodeId, block.getKeyIndexId(),
+                    type.getValue( block, null ), EMPTY_LONG_ARRAY ) );
+        }
+    }
+
+    private static void mapBlocks( PropertyRecord record, Map<Integer,PropertyBlock> blocks )
+    {
+        for ( PropertyBlock block : record )
+        {
+            blocks.put( block.getKeyIndexId(), block );
+        }
+    }
+
+    private static boolean hasSameLabels( NodeRecord before, NodeRecord after )
+    {
+        NodeLabels labelsBefore = parseLabelsField( before );
+        NodeLabels labelsAfter = parseLabelsField( after );
+        return labelsBefore.isInlined() && labelsAfter.isInlined() &&
+                before.getLabelField() == after.getLabelField();
+    }
 }
@@ -100,6 +100,12 @@ public interface JobScheduler extends Lifecycle
         /** Session workers, these perform the work of actually executing client queries.  */
         public static final Group sessionWorker = new Group( "Session", NEW_THREAD );
 
+        /** Workers of the parallel Cypher runtime, each scanning morsels of the graph for a single query. */
+        public static final Group cypherWorker = new Group( "CypherWorker", POOLED );
+
+        /** Replanning of stale Cypher query plans, while queries keep using the stale plans. */
+        public static final Group cypherReplanning = new Group( "CypherReplanning", POOLED );
+
         /** Background index population */
         public static final Group indexPopulation = new Group( "IndexPopulation", POOLED );
 
@@ -142,6 +148,16 @@ public interface JobScheduler extends Lifecycle
          */
         public static final Group checkPoint = new Group( "CheckPoint", POOLED );
 
+        /**
+         * Preallocation of the next transaction log file
+         */
+        public static final Group transactionLogPreallocation = new Group( "TransactionLogPreallocation", POOLED );
+
+        /**
+         * Page cache warmup profiling and reheating
+         */
+        public static final Group pageCacheWarmup = new Group( "PageCacheWarmup", POOLED );
+
         /**
          * Raft Log pruning
          */
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.util.diffsets;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.collection.primitive.PrimitiveLongSet;
+
+/**
+ * {@link DiffSets} of {@code long} ids, where the added and removed elements are kept in primitive long sets
+ * instead of sets of boxed {@link Long}. Meant for sets that can grow with the size of a transaction, like the
+ * nodes added in it, where a boxed set costs a {@link Long} plus a hash map entry per element. The {@code long}
+ * overloads of add, remove, isAdded and isRemoved do not box the element at all.
+ * <p>
+ * Iterators see much the same view of the elements as those of the
+ * {@link org.neo4j.kernel.impl.util.VersionedHashMap} backed sets of {@link DiffSets}: elements added after an
+ * iterator was created are not returned by it, while elements removed after it was created are no longer returned,
+ * unless they have been added back by the time the iterator gets to them.
+ */
+public class PrimitiveLongDiffSets extends DiffSets<Long>
+{
+    public boolean add( long element )
+    {
+        boolean wasRemoved = remove( removed( false ), element );
+        // Add to the addedElements only if it was not removed from the removedElements
+        return wasRemoved || ((PrimitiveLongSetView) added( true )).add( element );
+    }
+
+    public boolean remove( long element )
+    {
+        boolean removedFromAddedElements = remove( added( false ), element );
+        // Add to the removedElements only if it was not removed from the addedElements.
+        return removedFromAddedElements || ((PrimitiveLongSetView) removed( true )).add( element );
+    }
+
+    public boolean isAdded( long element )
+    {
+        return contains( added( false ), element );
+    }
+
+    public boolean isRemoved( long element )
+    {
+        return contains( removed( false ), element );
+    }
+
+    @Override
+    protected Set<Long> newSet()
+    {
+        return new PrimitiveLongSetView();
+    }
+
+    private static boolean contains( Set<Long> set, long element )
+    {
+        // Sets that have not been created yet are empty java.util sets
+        return set instanceof PrimitiveLongSetView && ((PrimitiveLongSetView) set).contains( element );
+    }
+
+    private static boolean remove( Set<Long> set, long element )
+    {
+        // Sets that have not been created yet are empty java.util sets
+        return set instanceof PrimitiveLongSetView && ((PrimitiveLongSetView) set).remove( element );
+    }
+
+    /**
+     * {@link Set} view of a {@link PrimitiveLongSet}, boxing only the elements passing through it.
+     * <p>
+     * Iterators go over the primitive set itself. The hop-scotch set moves elements around when it changes,
+     * so changing it while iterators may still be going over it first copies the set, leaving the old one to
+     * those iterators. They skip elements that have been removed from the set since, and never see those added.
+     */
+    private static class PrimitiveLongSetView extends AbstractSet<Long>
+    {
+        private PrimitiveLongSet set = Primitive.longSet();
+        // Number of iterators of the current set that may not have reached its end yet
+        private int openIterators;
+
+        boolean contains( long element )
+        {
+            return set.contains( element );
+        }
+
+        boolean add( long element )
+        {
+            return !set.contains( element ) && writableSet().add( element );
+        }
+
+        boolean remove( long element )
+        {
+            return set.contains( element ) && writableSet().remove( element );
+        }
+
+        private PrimitiveLongSet writableSet()
+        {
+            if ( openIterators > 0 )
+            {
+                PrimitiveLongSet copy = Primitive.longSet( set.size() );
+                set.visitKeys( element ->
+                {
+                    copy.add( element );
+                    return false;
+                } );
+                set = copy;
+                openIterators = 0;
+            }
+            return set;
+        }
+
+        @Override
+        public int size()
+        {
+            return set.size();
+        }
+
+        @Override
+        public boolean isEmpty()
+        {
+            return set.isEmpty();
+        }
+
+        @Override
+        public boolean contains( Object o )
+        {
+            return o instanceof Long && contains( ((Long) o).longValue() );
+        }
+
+        @Override
+        public boolean add( Long element )
+        {
+            return add( element.longValue() );
+        }
+
+        @Override
+        public boolean remove( Object o )
+        {
+            return o instanceof Long && remove( ((Long) o).longValue() );
+        }
+
+        @Override
+        public void clear()
+        {
+            if ( openIterators > 0 )
+            {
+                set = Primitive.longSet();
+                openIterators = 0;
+            }
+            else
+            {
+                set.clear();
+            }
+        }
+
+        @Override
+        public Iterator<Long> iterator()
+        {
+            PrimitiveLongSet iterated = set;
+            PrimitiveLongIterator elements = iterated.iterator();
+            openIterators++;
+            return new Iterator<Long>()
+            {
+                private boolean hasCurrent;
+                private boolean ended;
+                private long current;
+                private long lastReturned;
+
+                @Override
+                public boolean hasNext()
+                {
+                    while ( !hasCurrent && !ended )
+                    {
+                        if ( !elements.hasNext() )
+                        {
+                            ended = true;
+                            if ( iterated == set )
+                            {
+                                openIterators--;
+                            }
+                        }
+                        else
+                        {
+                            long candidate = elements.next();
+                            if ( iterated == set || set.contains( candidate ) )
+                            {
+                                current = candidate;
+                                hasCurrent = true;
+                            }
+                        }
+                    }
+                    return hasCurrent;
+                }
+
+                @Override
+                public Long next()
+                {
+                    if ( !hasNext() )
+                    {
+                        throw new NoSuchElementException();
+                    }
+                    hasCurrent = false;
+                    lastReturned = current;
+                    return lastReturned;
+                }
+
+                @Override
+                public void remove()
+                {
+                    PrimitiveLongSetView.this.remove( lastReturned );
+                }
+            };
+        }
+    }
+}
@@ -201,7 +201,7 @@ abstract class SuperDiffSets<T,LONGITERATOR extends PrimitiveLongIterator>
         return added( false ).size() - removed( false ).size();
     }
 
-    private Set<T> newSet()
+    protected Set<T> newSet()
     {
         return newSetFromMap( new VersionedHashMap<>() );
     }
@@ -161,6 +161,16 @@ public interface StoreReadLayer
      */
     IndexDescriptor indexGetForLabelAndPropertyKey( int labelId, int propertyKeyId );
 
+    /**
+     * Looks for a stored index by given {@code labelId} and {@code propertyKeyIds}, which is
+     * a composite index if there are more than one property key.
+     *
+     * @param labelId label id.
+     * @param propertyKeyIds property key ids, in index order.
+     * @return {@link IndexDescriptor} for matching index, or {@code null} if not found.
+     */
+    IndexDescriptor indexGetForLabelAndPropertyKeys( int labelId, int[] propertyKeyIds );
+
     /**
      * Returns state of a stored index.
      *
@@ -170,6 +180,15 @@ public interface StoreReadLayer
      */
     InternalIndexState indexGetState( IndexDescriptor index ) throws IndexNotFoundKernelException;
 
+    /**
+     * Verifies, before commit, that the given value can be added to the given index.
+     *
+     * @param index {@link IndexDescriptor} of the index the value is about to be added to.
+     * @param value the property value to add.
+     * @throws IllegalArgumentException if the value can't be indexed.
+     */
+    void indexValidateBeforeCommit( IndexDescriptor index, Object value );
+
     /**
      * @param index {@link IndexDescriptor} to get population progress for.
      * @return progress of index population, which is the initial state of an index when it's created.
@@ -285,6 +304,12 @@ public interface StoreReadLayer
      */
     PrimitiveLongIterator nodesGetAll();
 
+    /**
+     * @return the highest node id that may be in use, so that ids up to and including it can be scanned
+     * in independent ranges.
+     */
+    long highestNodeIdInUse();
+
     /**
      * @return ids of all stored relationships. The returned iterator can optionally visit data about
      * each relationship returned.
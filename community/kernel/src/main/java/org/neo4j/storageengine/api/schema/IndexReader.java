@@ -59,6 +59,41 @@ public interface IndexReader extends Resource
      */
     PrimitiveLongIterator rangeSeekByString( String lower, boolean includeLower, String upper, boolean includeUpper );
 
+    /**
+     * @return whether or not this index can return the results of range seeks ordered by property value, i.e.
+     * whether or not it supports {@link #rangeSeekByNumberInclusive(Number, Number, IndexOrder)} and
+     * {@link #rangeSeekByString(String, boolean, String, boolean, IndexOrder)}.
+     */
+    boolean hasOrderedRangeSeek();
+
+    /**
+     * Searches this index for numeric values between {@code lower} and {@code upper}, like
+     * {@link #rangeSeekByNumberInclusive(Number, Number)}, returning the matching nodes ordered by value.
+     *
+     * @param lower lower numeric bound of search (inclusive), or {@code null} for no lower bound.
+     * @param upper upper numeric bound of search (inclusive), or {@code null} for no upper bound.
+     * @param order order to return nodes in.
+     * @return ids and values of matching nodes.
+     * @throws UnsupportedOperationException if this index doesn't {@link #hasOrderedRangeSeek() support} it.
+     */
+    NodeValueIterator rangeSeekByNumberInclusive( Number lower, Number upper, IndexOrder order );
+
+    /**
+     * Searches this index for string values between {@code lower} and {@code upper}, like
+     * {@link #rangeSeekByString(String, boolean, String, boolean)}, returning the matching nodes ordered by value.
+     * Strings are ordered like {@link String#compareTo(String)}.
+     *
+     * @param lower lower string bound of search, or {@code null} for no lower bound.
+     * @param includeLower whether or not lower bound is inclusive.
+     * @param upper upper string bound of search, or {@code null} for no upper bound.
+     * @param includeUpper whether or not upper bound is inclusive.
+     * @param order order to return nodes in.
+     * @return ids and values of matching nodes.
+     * @throws UnsupportedOperationException if this index doesn't {@link #hasOrderedRangeSeek() support} it.
+     */
+    NodeValueIterator rangeSeekByString( String lower, boolean includeLower, String upper, boolean includeUpper,
+            IndexOrder order );
+
     /**
      * Searches this index for string values starting with {@code prefix}.
      *
@@ -120,6 +155,25 @@ public interface IndexReader extends Resource
             return PrimitiveLongCollections.emptyIterator();
         }
 
+        @Override
+        public boolean hasOrderedRangeSeek()
+        {
+            return true;
+        }
+
+        @Override
+        public NodeValueIterator rangeSeekByNumberInclusive( Number lower, Number upper, IndexOrder order )
+        {
+            return NodeValueIterator.EMPTY;
+        }
+
+        @Override
+        public NodeValueIterator rangeSeekByString( String lower, boolean includeLower,
+                                                    String upper, boolean includeUpper, IndexOrder order )
+        {
+            return NodeValueIterator.EMPTY;
+        }
+
         @Override
         public PrimitiveLongIterator rangeSeekByPrefix( String prefix )
         {
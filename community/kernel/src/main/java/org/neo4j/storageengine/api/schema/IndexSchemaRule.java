@@ -31,6 +31,11 @@ public interface IndexSchemaRule extends SchemaRule
      */
     int getPropertyKey();
 
+    /**
+     * @return property key token ids this index is associated to, more than one for a composite index.
+     */
+    int[] getPropertyKeys();
+
     /**
      * @return whether or not this index is related to a uniqueness constraint.
      */
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.storageengine.api.schema;
+
+import java.util.NoSuchElementException;
+
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+
+/**
+ * Iterator over nodes found in an index, which also makes the indexed property value of each node available.
+ */
+public interface NodeValueIterator extends PrimitiveLongIterator
+{
+    /**
+     * @return property value of the node most recently returned by {@link #next()}, exactly as it was indexed.
+     * For seeks in {@link IndexOrder#NONE no particular order} this is {@code null} if the index doesn't keep
+     * the values it indexes.
+     */
+    Object value();
+
+    NodeValueIterator EMPTY = new NodeValueIterator()
+    {
+        @Override
+        public Object value()
+        {
+            throw new IllegalStateException( "No value, since there are no nodes" );
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return false;
+        }
+
+        @Override
+        public long next()
+        {
+            throw new NoSuchElementException();
+        }
+    };
+}
@@ -186,4 +186,11 @@ public interface ReadableTransactionState
      * The same applies to schema changes, such as creating and dropping indexes and constraints.
      */
     boolean hasDataChanges();
+
+    /**
+     * @return a number which is incremented by every data change made in this transaction state, so that
+     * anything remembered about the data of this transaction can be known to still hold as long as this
+     * number stays the same.
+     */
+    long dataVersion();
 }
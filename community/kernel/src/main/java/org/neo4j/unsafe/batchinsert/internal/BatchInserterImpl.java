@@ -74,6 +74,7 @@ import org.neo4j.kernel.extension.KernelExtensionFactory;
 import org.neo4j.kernel.extension.KernelExtensions;
 import org.neo4j.kernel.extension.UnsatisfiedDependencyStrategies;
 import org.neo4j.kernel.extension.dependency.HighestSelectionStrategy;
+import org.neo4j.kernel.impl.api.index.CompositeIndexUpdates;
 import org.neo4j.kernel.impl.api.index.NodePropertyUpdates;
 import org.neo4j.kernel.impl.api.index.SchemaIndexProviderMap;
 import org.neo4j.kernel.impl.api.index.StoreScan;
@@ -413,6 +414,10 @@ public class BatchInserterImpl implements BatchInserter
             {
             case INDEX_RULE:
             case CONSTRAINT_INDEX_RULE:
+                if ( ((IndexRule) rule).isComposite() )
+                {
+                    continue;
+                }
                 otherPropertyKeyId = ((IndexRule) rule).getPropertyKey();
                 break;
             case UNIQUENESS_CONSTRAINT:
@@ -483,17 +488,20 @@ public class BatchInserterImpl implements BatchInserter
         // the store is uncontended at this point, so creating a local LockService is safe.
 
         final int[] labelIds = new int[rules.length];
-        final int[] propertyKeyIds = new int[rules.length];
+        final IndexDescriptor[] descriptors = new IndexDescriptor[rules.length];
+        final List<IndexDescriptor> compositeDescriptors = new ArrayList<>();
 
         for ( int i = 0; i < labelIds.length; i++ )
         {
             IndexRule rule = rules[i];
-            int labelId = rule.getLabel();
-            int propertyKeyId = rule.getPropertyKey();
-            labelIds[i] = labelId;
-            propertyKeyIds[i] = propertyKeyId;
+            IndexDescriptor descriptor = rule.toIndexDescriptor();
+            labelIds[i] = rule.getLabel();
+            descriptors[i] = descriptor;
+            if ( descriptor.isComposite() )
+            {
+                compositeDescriptors.add( descriptor );
+            }
 
-            IndexDescriptor descriptor = new IndexDescriptor( labelId, propertyKeyId );
             populators[i] = schemaIndexProviders.apply( rule.getProviderDescriptor() )
                                                 .getPopulator( rule.getId(),
                                                         descriptor,
@@ -501,15 +509,24 @@ public class BatchInserterImpl implements BatchInserter
                                                         new IndexSamplingConfig( config ) );
             populators[i].create();
         }
+        final int[] propertyKeyIds = Arrays.stream( descriptors )
+                .flatMapToInt( descriptor -> Arrays.stream( descriptor.getPropertyKeyIds() ) )
+                .toArray();
 
         Visitor<NodePropertyUpdates, IOException> propertyUpdateVisitor = updates -> {
+            Collection<NodePropertyUpdate> propertyUpdates = updates.getPropertyUpdates();
+            if ( !compositeDescriptors.isEmpty() )
+            {
+                propertyUpdates = new ArrayList<>( propertyUpdates );
+                CompositeIndexUpdates.deriveAdds( updates.getNodeId(), updates.getPropertyUpdates(),
+                        compositeDescriptors, propertyUpdates );
+            }
             // Do a lookup from which property has changed to a list of indexes worried about that property.
-            for ( NodePropertyUpdate update : updates.getPropertyUpdates() )
+            for ( NodePropertyUpdate update : propertyUpdates )
             {
-                int propertyKeyInQuestion = update.getPropertyKeyId();
-                for ( int i = 0; i < propertyKeyIds.length; i++ )
+                for ( int i = 0; i < descriptors.length; i++ )
                 {
-                    if ( propertyKeyIds[i] == propertyKeyInQuestion )
+                    if ( update.forPropertyKeys( descriptors[i] ) )
                     {
                         if ( update.forLabel( labelIds[i] ) )
                         {
@@ -1116,8 +1133,14 @@ public class BatchInserterImpl implements BatchInserter
     private class BatchSchemaActions implements InternalSchemaActions
     {
         @Override
-        public IndexDefinition createIndexDefinition( Label label, String propertyKey )
+        public IndexDefinition createIndexDefinition( Label label, String... propertyKeys )
         {
+            if ( propertyKeys.length != 1 )
+            {
+                throw new UnsupportedOperationException(
+                        "Composite indexes can not be created in batch insertion mode." );
+            }
+            String propertyKey = propertyKeys[0];
             int labelId = getOrCreateLabelId( label.name() );
             int propertyKeyId = getOrCreatePropertyKeyId( propertyKey );
 
@@ -1128,7 +1151,7 @@ public class BatchInserterImpl implements BatchInserter
         }
 
         @Override
-        public void dropIndexDefinitions( Label label, String propertyKey )
+        public void dropIndexDefinitions( Label label, String... propertyKeys )
         {
             throw unsupportedException();
         }
@@ -33,6 +33,7 @@ import org.neo4j.helpers.collection.Iterables;
 import org.neo4j.test.rule.ImpermanentDatabaseRule;
 
 import static java.lang.String.format;
+import static java.util.Arrays.asList;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
@@ -59,6 +60,7 @@ public class SchemaAcceptanceTest
     private GraphDatabaseService db;
     private Label label = Labels.MY_LABEL;
     private String propertyKey = "my_property_key";
+    private String secondPropertyKey = "my_second_property_key";
 
     private enum Labels implements Label
     {
@@ -163,21 +165,56 @@ public class SchemaAcceptanceTest
     }
 
     @Test
-    public void shouldThrowConstraintViolationIfAskedToCreateCompoundIndex() throws Exception
+    public void addingACompositeIndexingRuleShouldSucceed() throws Exception
     {
         // WHEN
+        IndexDefinition index;
         try ( Transaction tx = db.beginTx() )
         {
-            Schema schema = db.schema();
-            schema.indexFor( label )
-                    .on( "my_property_key" )
-                    .on( "other_property" ).create();
+            index = db.schema().indexFor( label ).on( propertyKey ).on( secondPropertyKey ).create();
             tx.success();
-            fail( "Should not be able to create index on multiple propertyKey keys" );
         }
-        catch ( UnsupportedOperationException e )
+        waitForIndex( db, index );
+
+        // THEN
+        assertThat( getIndexes( db, label ), containsOnly( index ) );
+        try ( Transaction tx = db.beginTx() )
+        {
+            assertEquals( asList( propertyKey, secondPropertyKey ), Iterables.asList( index.getPropertyKeys() ) );
+            assertEquals( Schema.IndexState.ONLINE, db.schema().getIndexState( index ) );
+            tx.success();
+        }
+    }
+
+    @Test
+    public void shouldDropCompositeIndex() throws Exception
+    {
+        // GIVEN
+        IndexDefinition index;
+        try ( Transaction tx = db.beginTx() )
+        {
+            index = db.schema().indexFor( label ).on( propertyKey ).on( secondPropertyKey ).create();
+            tx.success();
+        }
+
+        // WHEN
+        dropIndex( index );
+
+        // THEN
+        assertThat( getIndexes( db, label ), isEmpty() );
+    }
+
+    @Test
+    public void shouldNotBeAbleToCreateCompositeIndexOnTheSamePropertyTwice() throws Exception
+    {
+        try ( Transaction tx = db.beginTx() )
+        {
+            db.schema().indexFor( label ).on( propertyKey ).on( propertyKey );
+            fail( "Should not be able to create index on the same property key twice" );
+        }
+        catch ( IllegalArgumentException e )
         {
-            assertThat( e.getMessage(), containsString( "Compound indexes" ) );
+            assertThat( e.getMessage(), containsString( propertyKey ) );
         }
     }
 
@@ -0,0 +1,824 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.gbptree;
+
+import org.apache.commons.lang3.mutable.MutableLong;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.OpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.graphdb.mockfs.EphemeralFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.DelegatingPageCache;
+import org.neo4j.io.pagecache.DelegatingPagedFile;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.test.rule.PageCacheRule;
+import org.neo4j.test.rule.fs.EphemeralFileSystemRule;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class GBPTreeTest
+{
+    private final EphemeralFileSystemRule fs = new EphemeralFileSystemRule();
+    private final PageCacheRule pageCacheRule = new PageCacheRule();
+    @Rule
+    public final RuleChain rules = RuleChain.outerRule( fs ).around( pageCacheRule );
+
+    private final File file = new File( "tree" );
+    private final Layout<MutableLong,MutableLong> layout = new SimpleLongLayout();
+
+    @Test
+    public void shouldSeekInsertedKeysInOrderAcrossSplits() throws Exception
+    {
+        // GIVEN
+        TreeMap<Long,Long> expected = new TreeMap<>();
+        Random random = new Random( 1234 );
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTree<>( pageCache(), file, layout ) )
+        {
+            // WHEN
+            try ( Writer<MutableLong,MutableLong> writer = tree.writer() )
+            {
+                for ( int i = 0; i < 10_000; i++ )
+                {
+                    long key = random.nextInt( 1_000_000 );
+                    writer.put( new MutableLong( key ), new MutableLong( key * 3 ) );
+                    expected.put( key, key * 3 );
+                }
+            }
+
+            // THEN
+            assertContents( tree, expected, Long.MIN_VALUE, Long.MAX_VALUE );
+            assertContents( tree, expected, 1_000, 200_000 );
+        }
+    }
+
+    @Test
+    public void shouldSeekBackwardsInReverseOrderAcrossSplitsAndEmptiedLeaves() throws Exception
+    {
+        // GIVEN
+        TreeMap<Long,Long> expected = new TreeMap<>();
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTree<>( pageCache(), file, layout ) )
+        {
+            try ( Writer<MutableLong,MutableLong> writer = tree.writer() )
+            {
+                for ( long key = 0; key < 10_000; key++ )
+                {
+                    writer.put( new MutableLong( key ), new MutableLong( key * 3 ) );
+                    expected.put( key, key * 3 );
+                }
+            }
+
+            // WHEN removing a large chunk of keys, so that some leaves become empty
+            MutableLong removedValue = new MutableLong();
+            try ( Writer<MutableLong,MutableLong> writer = tree.writer() )
+            {
+                for ( long key = 3_000; key < 6_000; key++ )
+                {
+                    assertTrue( writer.remove( new MutableLong( key ), removedValue ) );
+                    expected.remove( key );
+                }
+            }
+
+            // THEN
+            assertContentsBackwards( tree, expected, Long.MAX_VALUE, Long.MIN_VALUE );
+            assertContentsBackwards( tree, expected, 7_000, 1_000 );
+            assertContentsBackwards( tree, expected, 5_000, 4_000 );
+        }
+    }
+
+    @Test
+    public void shouldOverwriteValueOfExistingKey() throws Exception
+    {
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTree<>( pageCache(), file, layout ) )
+        {
+            try ( Writer<MutableLong,MutableLong> writer = tree.writer() )
+            {
+                writer.put( new MutableLong( 5 ), new MutableLong( 1 ) );
+                writer.put( new MutableLong( 5 ), new MutableLong( 2 ) );
+            }
+
+            assertContents( tree, Collections.singletonMap( 5L, 2L ), Long.MIN_VALUE, Long.MAX_VALUE );
+        }
+    }
+
+    @Test
+    public void shouldMergeValuesInPlaceAndRemoveWhenMergerSaysSo() throws Exception
+    {
+        // GIVEN
+        ValueMerger<MutableLong> adder = ( existing, value ) ->
+        {
+            existing.add( value.longValue() );
+            return existing.longValue() == 0 ? null : existing;
+        };
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTree<>( pageCache(), file, layout ) )
+        {
+            // WHEN
+            try ( Writer<MutableLong,MutableLong> writer = tree.writer() )
+            {
+                for ( long key = 0; key < 1_000; key++ )
+                {
+                    writer.merge( new MutableLong( key ), new MutableLong( key ), adder );
+                    writer.merge( new MutableLong( key ), new MutableLong( 1 ), adder );
+                }
+                writer.merge( new MutableLong( 10 ), new MutableLong( -11 ), adder );
+            }
+
+            // THEN
+            TreeMap<Long,Long> expected = new TreeMap<>();
+            for ( long key = 0; key < 1_000; key++ )
+            {
+                if ( key != 10 )
+                {
+                    expected.put( key, key + 1 );
+                }
+            }
+            assertContents( tree, expected, Long.MIN_VALUE, Long.MAX_VALUE );
+        }
+    }
+
+    @Test
+    public void shouldOnlyUpdateExistingEntriesWhenMergingNullValue() throws Exception
+    {
+        // GIVEN
+        ValueMerger<MutableLong> decrementer = ( existing, value ) ->
+        {
+            existing.decrement();
+            return existing.longValue() == 0 ? null : existing;
+        };
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTree<>( pageCache(), file, layout ) )
+        {
+            try ( Writer<MutableLong,MutableLong> writer = tree.writer() )
+            {
+                writer.put( new MutableLong( 1 ), new MutableLong( 1 ) );
+                writer.put( new MutableLong( 2 ), new MutableLong( 5 ) );
+            }
+
+            // WHEN
+            try ( Writer<MutableLong,MutableLong> writer = tree.writer() )
+            {
+                writer.merge( new MutableLong( 1 ), null, decrementer );
+                writer.merge( new MutableLong( 2 ), null, decrementer );
+                writer.merge( new MutableLong( 3 ), null, decrementer );
+            }
+
+            // THEN
+            assertContents( tree, Collections.singletonMap( 2L, 4L ), Long.MIN_VALUE, Long.MAX_VALUE );
+        }
+    }
+
+    @Test
+    public void shouldRemoveKeys() throws Exception
+    {
+        // GIVEN
+        TreeMap<Long,Long> expected = new TreeMap<>();
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTree<>( pageCache(), file, layout ) )
+        {
+            try ( Writer<MutableLong,MutableLong> writer = tree.writer() )
+            {
+                for ( long key = 0; key < 5_000; key++ )
+                {
+                    writer.put( new MutableLong( key ), new MutableLong( key ) );
+                    expected.put( key, key );
+                }
+            }
+
+            // WHEN
+            MutableLong removedValue = new MutableLong();
+            try ( Writer<MutableLong,MutableLong> writer = tree.writer() )
+            {
+                for ( long key = 0; key < 5_000; key += 3 )
+                {
+                    assertTrue( writer.remove( new MutableLong( key ), removedValue ) );
+                    assertEquals( key, removedValue.longValue() );
+                    expected.remove( key );
+                }
+                assertFalse( writer.remove( new MutableLong( 3 ), removedValue ) );
+            }
+
+            // THEN
+            assertContents( tree, expected, Long.MIN_VALUE, Long.MAX_VALUE );
+        }
+    }
+
+    @Test
+    public void shouldKeepContentsAndUserHeaderAfterCleanReopen() throws Exception
+    {
+        // GIVEN
+        Map<Long,Long> expected = new HashMap<>();
+        byte[] header = "header".getBytes( StandardCharsets.UTF_8 );
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTree<>( pageCache(), file, layout ) )
+        {
+            tree.setUserHeader( header );
+            try ( Writer<MutableLong,MutableLong> writer = tree.writer() )
+            {
+                for ( long key = 0; key < 1_000; key++ )
+                {
+                    writer.put( new MutableLong( key ), new MutableLong( -key ) );
+                    expected.put( key, -key );
+                }
+            }
+        }
+
+        // WHEN
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTree<>( pageCache(), file, layout ) )
+        {
+            // THEN
+            assertTrue( tree.wasCleanOnOpen() );
+            assertArrayEquals( header, tree.userHeader() );
+            assertContents( tree, new TreeMap<>( expected ), Long.MIN_VALUE, Long.MAX_VALUE );
+        }
+    }
+
+    @Test
+    public void shouldRestoreToLastCheckpointIfChangedWithoutCheckpoint() throws Exception
+    {
+        // GIVEN a checkpointed tree larger than the page cache, which is then changed without being checkpointed
+        // before a crash, so that some of the changes have been flushed
+        TreeMap<Long,Long> checkpointed = new TreeMap<>();
+        GBPTree<MutableLong,MutableLong> crashed = new GBPTree<>( smallPageCache(), file, layout );
+        try ( Writer<MutableLong,MutableLong> writer = crashed.writer() )
+        {
+            for ( long key = 0; key < 20_000; key++ )
+            {
+                writer.put( new MutableLong( key ), new MutableLong( key ) );
+                checkpointed.put( key, key );
+            }
+        }
+        crashed.checkpoint();
+        randomChanges( crashed, 1234, new HashMap<>() );
+        crash( crashed );
+
+        // WHEN
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTree<>( smallPageCache(), file, layout ) )
+        {
+            // THEN
+            assertFalse( tree.wasCleanOnOpen() );
+            assertTrue( tree.wasRestoredOnOpen() );
+            assertContents( tree, checkpointed, Long.MIN_VALUE, Long.MAX_VALUE );
+
+            // WHEN the changes after the checkpoint are applied again
+            Map<Long,Long> expected = new HashMap<>( checkpointed );
+            randomChanges( tree, 1234, expected );
+
+            // THEN
+            assertContents( tree, expected, Long.MIN_VALUE, Long.MAX_VALUE );
+        }
+    }
+
+    @Test
+    public void shouldRestoreToCheckpointTakenWhileBeingChanged() throws Exception
+    {
+        // GIVEN a tree which gets keys inserted in increasing order, also while being checkpointed
+        GBPTree<MutableLong,MutableLong> crashed = new GBPTree<>( smallPageCache(), file, layout );
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        AtomicLong nextKey = new AtomicLong();
+        AtomicBoolean stop = new AtomicBoolean();
+        long insertedBeforeCheckpoint;
+        try
+        {
+            Future<?> inserts = executor.submit( () ->
+            {
+                while ( !stop.get() )
+                {
+                    try ( Writer<MutableLong,MutableLong> writer = crashed.writer() )
+                    {
+                        for ( int i = 0; i < 100; i++ )
+                        {
+                            long key = nextKey.get();
+                            writer.put( new MutableLong( key ), new MutableLong( key ) );
+                            nextKey.incrementAndGet();
+                        }
+                    }
+                }
+                return null;
+            } );
+            awaitKeys( nextKey, 20_000 );
+            insertedBeforeCheckpoint = nextKey.get();
+            crashed.checkpoint();
+            awaitKeys( nextKey, insertedBeforeCheckpoint + 20_000 );
+            stop.set( true );
+            inserts.get();
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+        crash( crashed );
+
+        // WHEN
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTree<>( smallPageCache(), file, layout ) )
+        {
+            // THEN the tree contains what it had at some point while it was being checkpointed
+            assertTrue( tree.wasRestoredOnOpen() );
+            Seeker<MutableLong,MutableLong> seeker =
+                    tree.seek( new MutableLong( Long.MIN_VALUE ), new MutableLong( Long.MAX_VALUE ) );
+            long expected = 0;
+            while ( seeker.next() )
+            {
+                assertEquals( expected, seeker.key().longValue() );
+                assertEquals( expected, seeker.value().longValue() );
+                expected++;
+            }
+            assertTrue( "Only " + expected + " keys after checkpoint of " + insertedBeforeCheckpoint + " keys",
+                    expected >= insertedBeforeCheckpoint );
+        }
+    }
+
+    @Test
+    public void shouldRestoreToPreviousCheckpointIfCrashingWhileCheckpointing() throws Exception
+    {
+        // GIVEN a checkpointed tree, which gets changed while being checkpointed again, and crashes after the
+        // second checkpoint has flushed those changes, but before it has completed
+        TreeMap<Long,Long> checkpointed = new TreeMap<>();
+        AtomicReference<GBPTree<MutableLong,MutableLong>> crashed = new AtomicReference<>();
+        AtomicReference<EphemeralFileSystemAbstraction> crashedFs = new AtomicReference<>();
+        AtomicBoolean crashOnFlush = new AtomicBoolean();
+        PageCache pageCache = new DelegatingPageCache( smallPageCache() )
+        {
+            @Override
+            public PagedFile map( File mappedFile, int pageSize, OpenOption... openOptions ) throws IOException
+            {
+                PagedFile pagedFile = super.map( mappedFile, pageSize, openOptions );
+                return !mappedFile.equals( file ) ? pagedFile : new DelegatingPagedFile( pagedFile )
+                {
+                    @Override
+                    public void flushAndForce() throws IOException
+                    {
+                        boolean crash = crashOnFlush.getAndSet( false );
+                        if ( crash )
+                        {
+                            randomChanges( crashed.get(), 1234, new HashMap<>() );
+                        }
+                        super.flushAndForce();
+                        if ( crash )
+                        {
+                            crashedFs.set( fs.get().snapshot() );
+                        }
+                    }
+                };
+            }
+        };
+        crashed.set( new GBPTree<>( pageCache, file, layout ) );
+        try ( Writer<MutableLong,MutableLong> writer = crashed.get().writer() )
+        {
+            for ( long key = 0; key < 20_000; key++ )
+            {
+                writer.put( new MutableLong( key ), new MutableLong( key ) );
+                checkpointed.put( key, key );
+            }
+        }
+        crashed.get().checkpoint();
+        try ( Writer<MutableLong,MutableLong> writer = crashed.get().writer() )
+        {
+            writer.put( new MutableLong( 0 ), new MutableLong( -1 ) );
+        }
+        crashOnFlush.set( true );
+        crashed.get().checkpoint();
+        crashed.get().close();
+
+        // WHEN
+        try ( GBPTree<MutableLong,MutableLong> tree =
+                      new GBPTree<>( pageCache( crashedFs.get(), "240k" ), file, layout ) )
+        {
+            // THEN
+            assertTrue( tree.wasRestoredOnOpen() );
+            assertContents( tree, checkpointed, Long.MIN_VALUE, Long.MAX_VALUE );
+        }
+        finally
+        {
+            crashedFs.get().shutdown();
+        }
+    }
+
+    @Test
+    public void shouldForceUndoLogOnlyBeforeTreeIsFlushed() throws Exception
+    {
+        // GIVEN a checkpointed tree which fits in the page cache
+        AtomicInteger undoLogForces = new AtomicInteger();
+        PageCache pageCache = new DelegatingPageCache( pageCache() )
+        {
+            @Override
+            public PagedFile map( File mappedFile, int pageSize, OpenOption... openOptions ) throws IOException
+            {
+                PagedFile pagedFile = super.map( mappedFile, pageSize, openOptions );
+                return mappedFile.equals( file ) ? pagedFile : new DelegatingPagedFile( pagedFile )
+                {
+                    @Override
+                    public void flushAndForce() throws IOException
+                    {
+                        undoLogForces.incrementAndGet();
+                        super.flushAndForce();
+                    }
+                };
+            }
+        };
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTree<>( pageCache, file, layout ) )
+        {
+            try ( Writer<MutableLong,MutableLong> writer = tree.writer() )
+            {
+                for ( long key = 0; key < 20_000; key++ )
+                {
+                    writer.put( new MutableLong( key ), new MutableLong( key ) );
+                }
+            }
+            tree.checkpoint();
+
+            // WHEN all of its pages are changed
+            undoLogForces.set( 0 );
+            try ( Writer<MutableLong,MutableLong> writer = tree.writer() )
+            {
+                for ( long key = 0; key < 20_000; key++ )
+                {
+                    writer.put( new MutableLong( key ), new MutableLong( -key ) );
+                }
+            }
+
+            // THEN their before-images are logged, but not forced until the tree is flushed
+            assertEquals( 0, undoLogForces.get() );
+            tree.checkpoint();
+            // once for the logged before-images and once for the start of the next generation
+            assertEquals( 2, undoLogForces.get() );
+        }
+    }
+
+    @Test
+    public void shouldNotAllowWritesIfChangedWithoutCheckpointAndUndoLogIsMissing() throws Exception
+    {
+        // GIVEN a tree which gets modified, but never checkpointed or closed, and then copied without its undo log
+        GBPTree<MutableLong,MutableLong> crashed = new GBPTree<>( pageCache(), file, layout );
+        try ( Writer<MutableLong,MutableLong> writer = crashed.writer() )
+        {
+            writer.put( new MutableLong( 1 ), new MutableLong( 1 ) );
+        }
+        crash( crashed );
+        for ( File undoFile : fs.get().listFiles( file.getAbsoluteFile().getParentFile(),
+                ( dir, name ) -> name.startsWith( file.getName() + "." ) ) )
+        {
+            fs.get().deleteFile( undoFile );
+        }
+
+        // WHEN
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTree<>( pageCache(), file, layout ) )
+        {
+            // THEN
+            assertFalse( tree.wasCleanOnOpen() );
+            assertFalse( tree.wasRestoredOnOpen() );
+            try
+            {
+                tree.writer();
+                fail( "Should not allow writes to a tree that wasn't cleanly shut down" );
+            }
+            catch ( IllegalStateException e )
+            {
+                // good
+            }
+        }
+    }
+
+    @Test
+    public void shouldBeCleanAfterCheckpoint() throws Exception
+    {
+        // GIVEN
+        GBPTree<MutableLong,MutableLong> crashed = new GBPTree<>( pageCache(), file, layout );
+        try ( Writer<MutableLong,MutableLong> writer = crashed.writer() )
+        {
+            writer.put( new MutableLong( 1 ), new MutableLong( 1 ) );
+        }
+
+        // WHEN
+        crashed.checkpoint();
+        crash( crashed );
+
+        // THEN
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTree<>( pageCache(), file, layout ) )
+        {
+            assertTrue( tree.wasCleanOnOpen() );
+            assertContents( tree, Collections.singletonMap( 1L, 1L ), Long.MIN_VALUE, Long.MAX_VALUE );
+        }
+    }
+
+    @Test
+    public void shouldFailToOpenWithDifferentLayout() throws Exception
+    {
+        // GIVEN
+        new GBPTree<>( pageCache(), file, layout ).close();
+
+        // WHEN
+        try
+        {
+            new GBPTree<>( pageCache(), file, new SimpleLongLayout()
+            {
+                @Override
+                public long identifier()
+                {
+                    return 999;
+                }
+            } );
+            fail( "Should have failed" );
+        }
+        catch ( IOException e )
+        {
+            // THEN good
+        }
+    }
+
+    @Test
+    public void shouldLetReadersSeeConsistentDataWhileWriting() throws Exception
+    {
+        // GIVEN
+        int count = 20_000;
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTree<>( pageCache(), file, layout ) )
+        {
+            ExecutorService executor = Executors.newFixedThreadPool( 2 );
+            AtomicBoolean done = new AtomicBoolean();
+            try
+            {
+                // WHEN keys are written in increasing order while readers scan concurrently
+                Future<?> writes = executor.submit( () ->
+                {
+                    try ( Writer<MutableLong,MutableLong> writer = tree.writer() )
+                    {
+                        for ( long key = 0; key < count; key++ )
+                        {
+                            writer.put( new MutableLong( key ), new MutableLong( key ) );
+                        }
+                    }
+                    finally
+                    {
+                        done.set( true );
+                    }
+                    return null;
+                } );
+                Future<?> reads = executor.submit( () ->
+                {
+                    while ( !done.get() )
+                    {
+                        // THEN every scan sees a strictly increasing, gap-free prefix
+                        Seeker<MutableLong,MutableLong> seeker =
+                                tree.seek( new MutableLong( Long.MIN_VALUE ), new MutableLong( Long.MAX_VALUE ) );
+                        long expected = 0;
+                        while ( seeker.next() )
+                        {
+                            assertEquals( expected, seeker.key().longValue() );
+                            assertEquals( expected, seeker.value().longValue() );
+                            expected++;
+                        }
+                    }
+                    return null;
+                } );
+                writes.get();
+                reads.get();
+            }
+            finally
+            {
+                executor.shutdown();
+            }
+        }
+    }
+
+    private PageCache pageCache()
+    {
+        return pageCache( "8M" );
+    }
+
+    /**
+     * @return a page cache which is too small to keep all nodes of a tree with some tens of thousands of keys,
+     * so that changes get flushed when pages are evicted.
+     */
+    private PageCache smallPageCache()
+    {
+        return pageCache( "240k" );
+    }
+
+    private PageCache pageCache( String memory )
+    {
+        return pageCache( fs.get(), memory );
+    }
+
+    private PageCache pageCache( FileSystemAbstraction fileSystem, String memory )
+    {
+        Map<String,String> settings = new HashMap<>();
+        settings.put( GraphDatabaseSettings.pagecache_memory.name(), memory );
+        settings.put( GraphDatabaseSettings.mapped_memory_page_size.name(), "512" );
+        return pageCacheRule.getPageCache( fileSystem, new Config( settings ) );
+    }
+
+    /**
+     * Simulates a crash by keeping the files as they are now, while closing {@code tree}.
+     */
+    private void crash( GBPTree<MutableLong,MutableLong> tree )
+    {
+        fs.snapshot( () ->
+        {
+            try
+            {
+                tree.close();
+            }
+            catch ( IOException e )
+            {
+                throw new AssertionError( e );
+            }
+        } );
+    }
+
+    private static void randomChanges( GBPTree<MutableLong,MutableLong> tree, long seed, Map<Long,Long> expected )
+            throws IOException
+    {
+        Random random = new Random( seed );
+        try ( Writer<MutableLong,MutableLong> writer = tree.writer() )
+        {
+            for ( int i = 0; i < 20_000; i++ )
+            {
+                long key = random.nextInt( 40_000 );
+                if ( random.nextBoolean() )
+                {
+                    writer.put( new MutableLong( key ), new MutableLong( -key ) );
+                    expected.put( key, -key );
+                }
+                else
+                {
+                    writer.remove( new MutableLong( key ), null );
+                    expected.remove( key );
+                }
+            }
+        }
+    }
+
+    private static void awaitKeys( AtomicLong nextKey, long count ) throws InterruptedException
+    {
+        while ( nextKey.get() < count )
+        {
+            Thread.sleep( 1 );
+        }
+    }
+
+    private static void assertContents( GBPTree<MutableLong,MutableLong> tree, Map<Long,Long> expected,
+            long fromInclusive, long toExclusive ) throws IOException
+    {
+        List<Long> expectedKeys = new ArrayList<>();
+        for ( Long key : new TreeMap<>( expected ).keySet() )
+        {
+            if ( key >= fromInclusive && key < toExclusive )
+            {
+                expectedKeys.add( key );
+            }
+        }
+        List<Long> actualKeys = new ArrayList<>();
+        Seeker<MutableLong,MutableLong> seeker = tree.seek( new MutableLong( fromInclusive ), new MutableLong( toExclusive ) );
+        while ( seeker.next() )
+        {
+            long key = seeker.key().longValue();
+            actualKeys.add( key );
+            assertEquals( expected.get( key ).longValue(), seeker.value().longValue() );
+        }
+        assertEquals( expectedKeys, actualKeys );
+    }
+
+    private static void assertContentsBackwards( GBPTree<MutableLong,MutableLong> tree, Map<Long,Long> expected,
+            long fromInclusive, long toExclusive ) throws IOException
+    {
+        List<Long> expectedKeys = new ArrayList<>();
+        for ( Long key : new TreeMap<>( expected ).descendingKeySet() )
+        {
+            if ( key <= fromInclusive && key > toExclusive )
+            {
+                expectedKeys.add( key );
+            }
+        }
+        List<Long> actualKeys = new ArrayList<>();
+        Seeker<MutableLong,MutableLong> seeker = tree.seek( new MutableLong( fromInclusive ), new MutableLong( toExclusive ) );
+        while ( seeker.next() )
+        {
+            long key = seeker.key().longValue();
+            actualKeys.add( key );
+            assertEquals( expected.get( key ).longValue(), seeker.value().longValue() );
+        }
+        assertEquals( expectedKeys, actualKeys );
+    }
+
+    private static class SimpleLongLayout implements Layout<MutableLong,MutableLong>
+    {
+        @Override
+        public int compare( MutableLong o1, MutableLong o2 )
+        {
+            return Long.compare( o1.longValue(), o2.longValue() );
+        }
+
+        @Override
+        public MutableLong newKey()
+        {
+            return new MutableLong();
+        }
+
+        @Override
+        public MutableLong copyKey( MutableLong key, MutableLong into )
+        {
+            into.setValue( key.longValue() );
+            return into;
+        }
+
+        @Override
+        public MutableLong newValue()
+        {
+            return new MutableLong();
+        }
+
+        @Override
+        public int keySize( MutableLong key )
+        {
+            return Long.BYTES;
+        }
+
+        @Override
+        public int valueSize()
+        {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void writeKey( ByteBuffer buffer, MutableLong key )
+        {
+            buffer.putLong( key.longValue() );
+        }
+
+        @Override
+        public void writeValue( ByteBuffer buffer, MutableLong value )
+        {
+            buffer.putLong( value.longValue() );
+        }
+
+        @Override
+        public void readKey( ByteBuffer buffer, MutableLong into, int keySize )
+        {
+            into.setValue( buffer.getLong() );
+        }
+
+        @Override
+        public void readValue( ByteBuffer buffer, MutableLong into )
+        {
+            into.setValue( buffer.getLong() );
+        }
+
+        @Override
+        public long identifier()
+        {
+            return 1234;
+        }
+
+        @Override
+        public int majorVersion()
+        {
+            return 0;
+        }
+
+        @Override
+        public int minorVersion()
+        {
+            return 1;
+        }
+    }
+}
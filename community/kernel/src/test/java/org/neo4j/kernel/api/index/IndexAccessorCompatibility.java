@@ -24,19 +24,28 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.function.Function;
 
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
 import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.storageengine.api.schema.IndexOrder;
 import org.neo4j.storageengine.api.schema.IndexReader;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeTrue;
+import static org.neo4j.storageengine.api.schema.IndexOrder.ASCENDING;
+import static org.neo4j.storageengine.api.schema.IndexOrder.DESCENDING;
+import static org.neo4j.storageengine.api.schema.IndexOrder.NONE;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.EMPTY_LIST;
@@ -138,6 +147,78 @@ public abstract class IndexAccessorCompatibility extends IndexProviderCompatibil
         assertThat( getAllNodesFromIndexSeekByPrefix( "2" ), equalTo( EMPTY_LIST ) );
     }
 
+    @Test
+    public void testOrderedIndexSeekByNumber() throws Exception
+    {
+        assumeTrue( "Only relevant for indexes which can seek in value order", supportsOrderedRangeSeek() );
+        updateAndCommit( asList(
+                NodePropertyUpdate.add( 1L, PROPERTY_KEY_ID, 10.0, new long[]{1000} ),
+                NodePropertyUpdate.add( 2L, PROPERTY_KEY_ID, -5, new long[]{1000} ),
+                NodePropertyUpdate.add( 3L, PROPERTY_KEY_ID, 100L, new long[]{1000} ),
+                NodePropertyUpdate.add( 4L, PROPERTY_KEY_ID, 5.5, new long[]{1000} ),
+                NodePropertyUpdate.add( 5L, PROPERTY_KEY_ID, 0, new long[]{1000} ) ) );
+
+        assertThat( getOrderedValuesFromIndexSeekByNumber( null, null, ASCENDING ),
+                equalTo( Arrays.<Object>asList( -5, 0, 5.5, 10.0, 100L ) ) );
+        assertThat( getOrderedValuesFromIndexSeekByNumber( null, null, DESCENDING ),
+                equalTo( Arrays.<Object>asList( 100L, 10.0, 5.5, 0, -5 ) ) );
+        assertThat( getOrderedValuesFromIndexSeekByNumber( 0, 10, DESCENDING ),
+                equalTo( Arrays.<Object>asList( 10.0, 5.5, 0 ) ) );
+        assertThat( getOrderedValuesFromIndexSeekByNumber( 100, 0, ASCENDING ), equalTo( EMPTY_LIST ) );
+    }
+
+    @Test
+    public void testIndexSeekReturnsNumbersOfTheTypeTheyWereIndexedAs() throws Exception
+    {
+        assumeTrue( "Only relevant for indexes which can seek in value order", supportsOrderedRangeSeek() );
+        updateAndCommit( asList(
+                NodePropertyUpdate.add( 1L, PROPERTY_KEY_ID, (byte) 1, new long[]{1000} ),
+                NodePropertyUpdate.add( 2L, PROPERTY_KEY_ID, (short) 2, new long[]{1000} ),
+                NodePropertyUpdate.add( 3L, PROPERTY_KEY_ID, 3, new long[]{1000} ),
+                NodePropertyUpdate.add( 4L, PROPERTY_KEY_ID, 4L, new long[]{1000} ),
+                NodePropertyUpdate.add( 5L, PROPERTY_KEY_ID, 5.5f, new long[]{1000} ),
+                NodePropertyUpdate.add( 6L, PROPERTY_KEY_ID, 6.0, new long[]{1000} ),
+                NodePropertyUpdate.add( 7L, PROPERTY_KEY_ID, Long.MAX_VALUE, new long[]{1000} ) ) );
+
+        assertThat( getOrderedValuesFromIndexSeekByNumber( null, null, NONE ),
+                equalTo( Arrays.<Object>asList( (byte) 1, (short) 2, 3, 4L, 5.5f, 6.0, Long.MAX_VALUE ) ) );
+    }
+
+    @Test
+    public void testOrderedIndexSeekByString() throws Exception
+    {
+        assumeTrue( "Only relevant for indexes which can seek in value order", supportsOrderedRangeSeek() );
+        updateAndCommit( asList(
+                NodePropertyUpdate.add( 1L, PROPERTY_KEY_ID, "Harriet", new long[]{1000} ),
+                NodePropertyUpdate.add( 2L, PROPERTY_KEY_ID, "Anna", new long[]{1000} ),
+                NodePropertyUpdate.add( 3L, PROPERTY_KEY_ID, "William", new long[]{1000} ),
+                NodePropertyUpdate.add( 4L, PROPERTY_KEY_ID, "Bob", new long[]{1000} ),
+                NodePropertyUpdate.add( 5L, PROPERTY_KEY_ID, "Anabelle", new long[]{1000} ) ) );
+
+        assertThat( getOrderedValuesFromIndexSeekByString( null, true, null, true, ASCENDING ),
+                equalTo( Arrays.<Object>asList( "Anabelle", "Anna", "Bob", "Harriet", "William" ) ) );
+        assertThat( getOrderedValuesFromIndexSeekByString( "Anna", true, "Harriet", false, DESCENDING ),
+                equalTo( Arrays.<Object>asList( "Bob", "Anna" ) ) );
+        assertThat( getOrderedValuesFromIndexSeekByString( "Anna", false, null, false, DESCENDING ),
+                equalTo( Arrays.<Object>asList( "William", "Harriet", "Bob" ) ) );
+        assertThat( getOrderedValuesFromIndexSeekByString( "William", false, "Anna", true, DESCENDING ),
+                equalTo( EMPTY_LIST ) );
+    }
+
+    @Test
+    public void testIndexSeekReturnsCharsAsChars() throws Exception
+    {
+        assumeTrue( "Only relevant for indexes which can seek in value order", supportsOrderedRangeSeek() );
+        updateAndCommit( asList(
+                NodePropertyUpdate.add( 1L, PROPERTY_KEY_ID, "b", new long[]{1000} ),
+                NodePropertyUpdate.add( 2L, PROPERTY_KEY_ID, 'a', new long[]{1000} ),
+                NodePropertyUpdate.add( 3L, PROPERTY_KEY_ID, 'c', new long[]{1000} ) ) );
+
+        assertThat( getOrderedValuesFromIndexSeekByString( null, true, null, true, ASCENDING ),
+                equalTo( Arrays.<Object>asList( 'a', "b", 'c' ) ) );
+        assertThat( getAllNodesWithProperty( "a" ), equalTo( singletonList( 2L ) ) );
+    }
+
     protected List<Long> getAllNodesWithProperty( String propertyValue ) throws IOException
     {
         return metaGet( reader -> reader.seek( propertyValue ));
@@ -173,6 +254,39 @@ public abstract class IndexAccessorCompatibility extends IndexProviderCompatibil
         return metaGet( IndexReader::scan );
     }
 
+    protected List<Object> getOrderedValuesFromIndexSeekByNumber( Number lower, Number upper, IndexOrder order )
+    {
+        return orderedValues( reader -> reader.rangeSeekByNumberInclusive( lower, upper, order ) );
+    }
+
+    protected List<Object> getOrderedValuesFromIndexSeekByString( String lower, boolean includeLower, String upper,
+            boolean includeUpper, IndexOrder order )
+    {
+        return orderedValues( reader -> reader.rangeSeekByString( lower, includeLower, upper, includeUpper, order ) );
+    }
+
+    private boolean supportsOrderedRangeSeek()
+    {
+        try ( IndexReader reader = accessor.newReader() )
+        {
+            return reader.hasOrderedRangeSeek();
+        }
+    }
+
+    private List<Object> orderedValues( Function<IndexReader,NodeValueIterator> seek )
+    {
+        try ( IndexReader reader = accessor.newReader() )
+        {
+            List<Object> values = new ArrayList<>();
+            for ( NodeValueIterator iterator = seek.apply( reader ); iterator.hasNext(); )
+            {
+                iterator.next();
+                values.add( iterator.value() );
+            }
+            return values;
+        }
+    }
+
     private List<Long> metaGet( ReaderInteraction interaction )
     {
         try ( IndexReader reader = accessor.newReader() )
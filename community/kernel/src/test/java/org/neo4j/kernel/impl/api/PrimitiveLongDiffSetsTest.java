@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.neo4j.kernel.impl.util.diffsets.DiffSets;
+import org.neo4j.kernel.impl.util.diffsets.PrimitiveLongDiffSets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.helpers.collection.Iterators.asSet;
+
+public class PrimitiveLongDiffSetsTest
+{
+    @Test
+    public void shouldTrackAddedAndRemovedElements() throws Exception
+    {
+        // GIVEN
+        PrimitiveLongDiffSets diffSets = new PrimitiveLongDiffSets();
+
+        // WHEN
+        diffSets.add( 1L );
+        diffSets.add( 2L );
+        diffSets.remove( 2L );
+        diffSets.remove( 3L );
+
+        // THEN
+        assertEquals( asSet( 1L ), diffSets.getAdded() );
+        assertEquals( asSet( 3L ), diffSets.getRemoved() );
+        assertTrue( diffSets.isAdded( 1L ) );
+        assertFalse( diffSets.isAdded( 2L ) );
+        assertTrue( diffSets.isRemoved( 3L ) );
+        assertEquals( 0, diffSets.delta() );
+    }
+
+    @Test
+    public void iteratorShouldNotSeeElementsAddedAfterItWasCreated() throws Exception
+    {
+        // GIVEN
+        PrimitiveLongDiffSets diffSets = new PrimitiveLongDiffSets();
+        diffSets.add( 1L );
+        diffSets.add( 2L );
+        Iterator<Long> iterator = diffSets.getAdded().iterator();
+
+        // WHEN adding enough elements to make the underlying set grow
+        for ( long id = 10; id < 1_000; id++ )
+        {
+            diffSets.add( id );
+        }
+
+        // THEN
+        assertEquals( asSet( 1L, 2L ), asSet( iterator ) );
+    }
+
+    @Test
+    public void iteratorShouldNotSeeElementsRemovedAfterItWasCreated() throws Exception
+    {
+        // GIVEN
+        PrimitiveLongDiffSets diffSets = new PrimitiveLongDiffSets();
+        diffSets.add( 1L );
+        diffSets.add( 2L );
+        diffSets.add( 3L );
+        Iterator<Long> iterator = diffSets.getAdded().iterator();
+
+        // WHEN
+        diffSets.remove( 2L );
+
+        // THEN
+        assertEquals( asSet( 1L, 3L ), asSet( iterator ) );
+    }
+
+    @Test
+    public void iteratorShouldSeeAllElementsWhileTheyAreRemovedOneByOne() throws Exception
+    {
+        // GIVEN
+        PrimitiveLongDiffSets diffSets = new PrimitiveLongDiffSets();
+        for ( long id = 0; id < 100; id++ )
+        {
+            diffSets.add( id );
+        }
+
+        // WHEN removing every other element while iterating
+        Set<Long> seen = new HashSet<>();
+        for ( Long id : diffSets.getAdded() )
+        {
+            seen.add( id );
+            if ( id % 2 == 0 )
+            {
+                diffSets.remove( id );
+            }
+        }
+
+        // THEN
+        assertEquals( 100, seen.size() );
+        assertEquals( 50, diffSets.getAdded().size() );
+        for ( long id = 0; id < 100; id++ )
+        {
+            assertEquals( id % 2 != 0, diffSets.isAdded( id ) );
+        }
+    }
+
+    @Test
+    public void newIteratorShouldSeeChangesMadeWhileAnotherIteratorWasOpen() throws Exception
+    {
+        // GIVEN
+        PrimitiveLongDiffSets diffSets = new PrimitiveLongDiffSets();
+        diffSets.add( 1L );
+        diffSets.add( 2L );
+        Iterator<Long> first = diffSets.getAdded().iterator();
+        first.next();
+
+        // WHEN
+        diffSets.add( 3L );
+        diffSets.remove( 1L );
+        Iterator<Long> second = diffSets.getAdded().iterator();
+        diffSets.add( 4L );
+
+        // THEN
+        assertEquals( asSet( 2L, 3L ), asSet( second ) );
+        assertEquals( asSet( 2L, 3L, 4L ), asSet( diffSets.getAdded().iterator() ) );
+    }
+
+    @Test
+    public void iteratorShouldNotSeeElementsAfterTheDiffSetsWereCleared() throws Exception
+    {
+        // GIVEN
+        PrimitiveLongDiffSets diffSets = new PrimitiveLongDiffSets();
+        diffSets.add( 1L );
+        diffSets.add( 2L );
+        Iterator<Long> iterator = diffSets.getAdded().iterator();
+
+        // WHEN
+        diffSets.clear();
+        diffSets.add( 3L );
+
+        // THEN
+        assertFalse( iterator.hasNext() );
+        assertEquals( asSet( 3L ), asSet( diffSets.getAdded().iterator() ) );
+    }
+
+    @Test
+    public void iteratorsShouldSeeElementsPresentBothWhenCreatedAndWhenReachedWhileChangingTheDiffSets()
+            throws Exception
+    {
+        // GIVEN
+        Random random = new Random( 42 );
+        PrimitiveLongDiffSets diffSets = new PrimitiveLongDiffSets();
+        DiffSets<Long> boxed = new DiffSets<>();
+        List<Iterator<Long>> iterators = new ArrayList<>();
+        List<Set<Long>> addedWhenCreated = new ArrayList<>();
+
+        for ( int i = 0; i < 10_000; i++ )
+        {
+            long id = random.nextInt( 500 );
+            switch ( random.nextInt( 4 ) )
+            {
+            case 0:
+                assertEquals( boxed.add( id ), diffSets.add( id ) );
+                break;
+            case 1:
+                assertEquals( boxed.remove( id ), diffSets.remove( id ) );
+                break;
+            case 2:
+                iterators.add( diffSets.getAdded().iterator() );
+                addedWhenCreated.add( new HashSet<>( boxed.getAdded() ) );
+                break;
+            default:
+                if ( !iterators.isEmpty() )
+                {
+                    // WHEN
+                    int index = random.nextInt( iterators.size() );
+                    Set<Long> expected = addedWhenCreated.remove( index );
+                    expected.retainAll( boxed.getAdded() );
+
+                    // THEN
+                    assertEquals( expected, asSet( iterators.remove( index ) ) );
+                }
+            }
+
+            assertEquals( boxed.getAdded(), diffSets.getAdded() );
+            assertEquals( boxed.getRemoved(), diffSets.getRemoved() );
+        }
+    }
+}
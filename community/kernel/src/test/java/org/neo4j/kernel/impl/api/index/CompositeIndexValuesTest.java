@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class CompositeIndexValuesTest
+{
+    @Test
+    public void shouldEncodeEqualValuesEqually() throws Exception
+    {
+        assertEquals( encode( "a", 1 ), encode( "a", 1L ) );
+        assertEquals( encode( "a", 1 ), encode( "a", 1.0d ) );
+        assertEquals( encode( new int[]{1, 2}, true ), encode( new long[]{1, 2}, true ) );
+        assertNotEquals( encode( "a", 1 ), encode( "a", "1" ) );
+        assertNotEquals( encode( "ab", "c" ), encode( "a", "bc" ) );
+    }
+
+    @Test
+    public void shouldPreserveOrderOfValues() throws Exception
+    {
+        assertThat( encode( "a", -10 ).compareTo( encode( "a", -1 ) ), lessThan( 0 ) );
+        assertThat( encode( "a", -1 ).compareTo( encode( "a", 0.5d ) ), lessThan( 0 ) );
+        assertThat( encode( "a", 0.5d ).compareTo( encode( "a", 100 ) ), lessThan( 0 ) );
+        assertThat( encode( "a", Long.MAX_VALUE ).compareTo( encode( "a", Long.MAX_VALUE - 1 ) ), greaterThan( 0 ) );
+        assertThat( encode( "a", "z" ).compareTo( encode( "b", "a" ) ), lessThan( 0 ) );
+        assertThat( encode( "a", "b" ).compareTo( encode( "ab", "a" ) ), lessThan( 0 ) );
+        assertThat( encode( "a\u0000", "b" ).compareTo( encode( "a", "b" ) ), greaterThan( 0 ) );
+    }
+
+    @Test
+    public void shouldIncludeOnlyValuesWithinRangeBounds() throws Exception
+    {
+        // given
+        String[] bounds = CompositeIndexValues.rangeBounds( new Object[]{"a"}, 10, true, 20, false );
+
+        // then
+        assertWithin( bounds, encode( "a", 10 ) );
+        assertWithin( bounds, encode( "a", 19.5d ) );
+        assertNotWithin( bounds, encode( "a", 20 ) );
+        assertNotWithin( bounds, encode( "a", 9 ) );
+        assertNotWithin( bounds, encode( "b", 15 ) );
+        assertNotWithin( bounds, encode( "a", "15" ) );
+    }
+
+    @Test
+    public void shouldIncludeOnlyValuesWithinExclusiveAndOpenRangeBounds() throws Exception
+    {
+        // given
+        String[] bounds = CompositeIndexValues.rangeBounds( new Object[]{"a"}, "m", false, null, false );
+
+        // then
+        assertNotWithin( bounds, encode( "a", "m" ) );
+        assertWithin( bounds, encode( "a", "ma" ) );
+        assertWithin( bounds, encode( "a", "zzz" ) );
+        assertNotWithin( bounds, encode( "a", 1 ) );
+        assertNotWithin( bounds, encode( "a", new String[]{"n"} ) );
+    }
+
+    private static String encode( Object... values )
+    {
+        return CompositeIndexValues.encode( values );
+    }
+
+    private static void assertWithin( String[] bounds, String value )
+    {
+        assertTrue( value, bounds[0].compareTo( value ) <= 0 && value.compareTo( bounds[1] ) < 0 );
+    }
+
+    private static void assertNotWithin( String[] bounds, String value )
+    {
+        assertTrue( value, bounds[0].compareTo( value ) > 0 || value.compareTo( bounds[1] ) >= 0 );
+    }
+}
@@ -209,10 +209,61 @@ public class IndexRecoveryIT
         verify( mockedIndexProvider, times( onlineAccessorInvocationCount ) )
                 .getOnlineAccessor( anyLong(), any( IndexConfiguration.class ), any( IndexSamplingConfig.class ) );
         assertEquals( expectedUpdates, writer.batchedUpdates );
-        for ( NodePropertyUpdate update : writer.batchedUpdates )
+        // Nodes created during recovery have no earlier entries to remove, neither by value nor by node id
+        assertTrue( writer.recoveredNodes.isEmpty() );
+    }
+
+    @Test
+    public void shouldRemoveValuesReplacedDuringRecoveryByValue() throws Exception
+    {
+        // Given
+        startDb();
+
+        IndexPopulator populator = mock( IndexPopulator.class );
+        when( mockedIndexProvider
+                .getPopulator( anyLong(), any( IndexDescriptor.class ), any( IndexConfiguration.class ),
+                        any( IndexSamplingConfig.class ) ) )
+                .thenReturn( populator );
+        when( populator.sampleResult() ).thenReturn( new IndexSample() );
+        IndexAccessor mockedAccessor = mock( IndexAccessor.class );
+        when( mockedAccessor.newUpdater( any( IndexUpdateMode.class ) ) ).thenReturn( SwallowingIndexUpdater.INSTANCE );
+        when( mockedIndexProvider.getOnlineAccessor(
+                        anyLong(), any( IndexConfiguration.class ), any( IndexSamplingConfig.class ) )
+        ).thenReturn( mockedAccessor );
+        createIndexAndAwaitPopulation( myLabel );
+        Set<NodePropertyUpdate> bananas = createSomeBananas( myLabel );
+        rotateLogsAndCheckPoint();
+        // change the bananas after the check point, so that recovery replaces their values
+        Set<NodePropertyUpdate> expectedUpdates = new HashSet<>();
+        try ( Transaction tx = db.beginTx() )
         {
-            assertTrue( writer.recoveredNodes.contains( update.getNodeId() ) );
+            for ( NodePropertyUpdate banana : bananas )
+            {
+                int newValue = (Integer) banana.getValueAfter() + 1;
+                long[] labels = {banana.getLabelAfter( 0 )};
+                db.getNodeById( banana.getNodeId() ).setProperty( key, newValue );
+                expectedUpdates.add( NodePropertyUpdate.remove( banana.getNodeId(), banana.getPropertyKeyId(),
+                        banana.getValueAfter(), labels ) );
+                expectedUpdates.add( NodePropertyUpdate.add( banana.getNodeId(), banana.getPropertyKeyId(),
+                        newValue, labels ) );
+            }
+            tx.success();
         }
+
+        // And Given
+        killDb();
+        when( mockedIndexProvider.getInitialState( anyLong() ) ).thenReturn( InternalIndexState.ONLINE );
+        GatheringIndexWriter writer = new GatheringIndexWriter();
+        when( mockedIndexProvider.getOnlineAccessor(
+                        anyLong(), any( IndexConfiguration.class ), any( IndexSamplingConfig.class ) )
+        ).thenReturn( writer );
+
+        // When
+        startDb();
+
+        // Then
+        assertEquals( expectedUpdates, writer.batchedUpdates );
+        assertTrue( writer.recoveredNodes.isEmpty() );
     }
 
     @Test
@@ -29,6 +29,7 @@ import org.mockito.stubbing.Answer;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
@@ -699,6 +700,76 @@ public class IndexingServiceTest
         assertTrue( "appliedRecoveredData was not called", appliedRecoveredDataCalled.get() );
     }
 
+    @Test
+    public void shouldRemoveRecoveredValuesByValueAndOnlyNodesWithUnknownValuesByNodeId() throws Exception
+    {
+        // given
+        long nodeWithKnownValue = 1;
+        long nodeWithUnknownValue = 2;
+        IndexRule index = indexRule( 0, labelId, propertyKeyId, PROVIDER_DESCRIPTOR );
+        IndexingService indexing = newIndexingServiceWithMockedDependencies( populator, accessor, withData(), index );
+        when( indexProvider.getInitialState( 0 ) ).thenReturn( ONLINE );
+        when( accessor.newUpdater( any( IndexUpdateMode.class ) ) ).thenReturn( updater );
+        List<PrimitiveLongSet> removedNodeIds = new ArrayList<>();
+        doAnswer( invocation ->
+        {
+            // copied since the set is cleared after recovery
+            PrimitiveLongSet nodeIds = (PrimitiveLongSet) invocation.getArguments()[0];
+            removedNodeIds.add( setOf( PrimitiveLongCollections.asArray( nodeIds.iterator() ) ) );
+            return null;
+        } ).when( updater ).remove( any( PrimitiveLongSet.class ) );
+        doAnswer( nodeUpdatesAnswer( add( nodeWithKnownValue, "new" ) ) ).when( storeView )
+                .nodeAsUpdates( eq( nodeWithKnownValue ), any( Collection.class ) );
+        doAnswer( nodeUpdatesAnswer( add( nodeWithUnknownValue, "other" ) ) ).when( storeView )
+                .nodeAsUpdates( eq( nodeWithUnknownValue ), any( Collection.class ) );
+
+        // when
+        life.init();
+        indexing.apply( new IndexUpdates()
+        {
+            @Override
+            public Iterator<NodePropertyUpdate> iterator()
+            {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void collectUpdatedNodeIds( PrimitiveLongSet target )
+            {
+                target.add( nodeWithKnownValue );
+                target.add( nodeWithUnknownValue );
+            }
+
+            @Override
+            public void collectRemovedValues( Collection<NodePropertyUpdate> target, PrimitiveLongSet unknown )
+            {
+                target.add( NodePropertyUpdate.remove( nodeWithKnownValue, propertyKeyId, "old", new long[0] ) );
+                unknown.add( nodeWithUnknownValue );
+            }
+
+            @Override
+            public void feed( PrimitiveLongObjectMap<List<PropertyCommand>> propCommands,
+                    PrimitiveLongObjectMap<NodeCommand> nodeCommands )
+            {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public boolean hasUpdates()
+            {
+                return true;
+            }
+        } );
+        life.start();
+
+        // then
+        assertEquals( asList( setOf( nodeWithUnknownValue ) ), removedNodeIds );
+        InOrder order = inOrder( updater );
+        order.verify( updater ).process( NodePropertyUpdate.remove(
+                nodeWithKnownValue, propertyKeyId, "old", new long[]{labelId} ) );
+        order.verify( updater ).process( add( nodeWithKnownValue, "new" ) );
+    }
+
     private IndexUpdates nodeIdsAsIndexUpdates( PrimitiveLongSet nodeIds )
     {
         return new IndexUpdates()
@@ -715,6 +786,12 @@ public class IndexingServiceTest
                 target.addAll( nodeIds.iterator() );
             }
 
+            @Override
+            public void collectRemovedValues( Collection<NodePropertyUpdate> target, PrimitiveLongSet unknown )
+            {
+                unknown.addAll( nodeIds.iterator() );
+            }
+
             @Override
             public void feed( PrimitiveLongObjectMap<List<PropertyCommand>> propCommands,
                     PrimitiveLongObjectMap<NodeCommand> nodeCommands )
@@ -437,9 +437,7 @@ public class MultipleIndexPopulatorTest
     private void addPopulator( IndexPopulator indexPopulator, int id, FlippableIndexProxy flippableIndexProxy,
             FailedIndexProxyFactory failedIndexProxyFactory )
     {
-        IndexDescriptor descriptor = mock( IndexDescriptor.class );
-        when( descriptor.getLabelId() ).thenReturn( id );
-        when( descriptor.getPropertyKeyId() ).thenReturn( id );
+        IndexDescriptor descriptor = new IndexDescriptor( id, id );
         addPopulator( descriptor, indexPopulator, id, flippableIndexProxy, failedIndexProxyFactory );
     }
 
@@ -24,7 +24,9 @@ import java.util.Set;
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.helpers.collection.BoundedIterable;
 import org.neo4j.kernel.api.index.ArrayEncoder;
+import org.neo4j.storageengine.api.schema.IndexOrder;
 import org.neo4j.storageengine.api.schema.IndexReader;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
 
 abstract class InMemoryIndexImplementation implements IndexReader, BoundedIterable<Long>
 {
@@ -48,6 +50,25 @@ abstract class InMemoryIndexImplementation implements IndexReader, BoundedIterab
         doRemove( encode( propertyValue ), nodeId );
     }
 
+    @Override
+    public final boolean hasOrderedRangeSeek()
+    {
+        return false;
+    }
+
+    @Override
+    public final NodeValueIterator rangeSeekByNumberInclusive( Number lower, Number upper, IndexOrder order )
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public final NodeValueIterator rangeSeekByString( String lower, boolean includeLower, String upper,
+            boolean includeUpper, IndexOrder order )
+    {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public final long countIndexedNodes( long nodeId, Object propertyValue )
     {
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.integrationtest;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.api.DataWriteOperations;
+import org.neo4j.kernel.api.ReadOperations;
+import org.neo4j.kernel.api.SchemaWriteOperations;
+import org.neo4j.kernel.api.exceptions.KernelException;
+import org.neo4j.kernel.api.index.IndexDescriptor;
+import org.neo4j.kernel.api.properties.Property;
+
+import static org.junit.Assert.assertEquals;
+import static org.neo4j.collection.primitive.PrimitiveLongCollections.toSet;
+import static org.neo4j.helpers.collection.Iterators.asSet;
+
+public class CompositeIndexSeekIT extends KernelIntegrationTest
+{
+    private int labelId, firstNameKeyId, ageKeyId;
+    private IndexDescriptor index;
+
+    @Before
+    public void createIndex() throws Exception
+    {
+        SchemaWriteOperations statement = schemaWriteOperationsInNewTransaction();
+        labelId = statement.labelGetOrCreateForName( "Person" );
+        firstNameKeyId = statement.propertyKeyGetOrCreateForName( "firstName" );
+        ageKeyId = statement.propertyKeyGetOrCreateForName( "age" );
+        index = statement.compositeIndexCreate( labelId, new int[]{firstNameKeyId, ageKeyId} );
+        commit();
+
+        try ( Transaction tx = db.beginTx() )
+        {
+            db.schema().awaitIndexesOnline( 1, TimeUnit.MINUTES );
+            tx.success();
+        }
+    }
+
+    @Test
+    public void shouldSeekOnAllProperties() throws Exception
+    {
+        // given
+        long alice = createPerson( "Alice", 30 );
+        createPerson( "Alice", 31 );
+        createPerson( "Bob", 30 );
+        createNode( "Alice" );
+
+        // when
+        ReadOperations statement = readOperationsInNewTransaction();
+        Set<Long> found = toSet( statement.nodesGetFromCompositeIndexSeek( index, new Object[]{"Alice", 30} ) );
+        commit();
+
+        // then
+        assertEquals( asSet( alice ), found );
+    }
+
+    @Test
+    public void shouldSeekOnPrefixAndRange() throws Exception
+    {
+        // given
+        createPerson( "Alice", 20 );
+        long thirty = createPerson( "Alice", 30 );
+        long forty = createPerson( "Alice", 40 );
+        createPerson( "Alice", 50 );
+        createPerson( "Bob", 35 );
+
+        // when
+        ReadOperations statement = readOperationsInNewTransaction();
+        Set<Long> found = toSet( statement.nodesGetFromCompositeIndexRangeSeek( index, new Object[]{"Alice"},
+                30, true, 50, false ) );
+        commit();
+
+        // then
+        assertEquals( asSet( thirty, forty ), found );
+    }
+
+    @Test
+    public void shouldSeeChangesInTransactionState() throws Exception
+    {
+        // given
+        long alice = createPerson( "Alice", 30 );
+        long bob = createPerson( "Bob", 30 );
+
+        // when
+        DataWriteOperations statement = dataWriteOperationsInNewTransaction();
+        statement.nodeSetProperty( alice, Property.intProperty( ageKeyId, 31 ) );
+        statement.nodeSetProperty( bob, Property.stringProperty( firstNameKeyId, "Alice" ) );
+        long carol = statement.nodeCreate();
+        statement.nodeAddLabel( carol, labelId );
+        statement.nodeSetProperty( carol, Property.stringProperty( firstNameKeyId, "Alice" ) );
+        statement.nodeSetProperty( carol, Property.intProperty( ageKeyId, 30 ) );
+        Set<Long> found = toSet( statement.nodesGetFromCompositeIndexSeek( index, new Object[]{"Alice", 30} ) );
+        commit();
+
+        // then
+        assertEquals( asSet( bob, carol ), found );
+    }
+
+    @Test
+    public void shouldNotFindNodesWhichLostAnIndexedProperty() throws Exception
+    {
+        // given
+        long alice = createPerson( "Alice", 30 );
+        long other = createPerson( "Alice", 30 );
+        {
+            DataWriteOperations statement = dataWriteOperationsInNewTransaction();
+            statement.nodeRemoveProperty( other, ageKeyId );
+            commit();
+        }
+
+        // when
+        ReadOperations statement = readOperationsInNewTransaction();
+        Set<Long> found = toSet( statement.nodesGetFromCompositeIndexSeek( index, new Object[]{"Alice", 30} ) );
+        commit();
+
+        // then
+        assertEquals( asSet( alice ), found );
+    }
+
+    private long createPerson( String firstName, int age ) throws KernelException
+    {
+        DataWriteOperations statement = dataWriteOperationsInNewTransaction();
+        long nodeId = statement.nodeCreate();
+        statement.nodeAddLabel( nodeId, labelId );
+        statement.nodeSetProperty( nodeId, Property.stringProperty( firstNameKeyId, firstName ) );
+        statement.nodeSetProperty( nodeId, Property.intProperty( ageKeyId, age ) );
+        commit();
+        return nodeId;
+    }
+
+    private long createNode( String firstName ) throws KernelException
+    {
+        DataWriteOperations statement = dataWriteOperationsInNewTransaction();
+        long nodeId = statement.nodeCreate();
+        statement.nodeAddLabel( nodeId, labelId );
+        statement.nodeSetProperty( nodeId, Property.stringProperty( firstNameKeyId, firstName ) );
+        commit();
+        return nodeId;
+    }
+}
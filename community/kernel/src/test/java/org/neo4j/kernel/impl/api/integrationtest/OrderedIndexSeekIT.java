@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.integrationtest;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.graphdb.mockfs.EphemeralFileSystemAbstraction;
+import org.neo4j.kernel.api.DataWriteOperations;
+import org.neo4j.kernel.api.SchemaWriteOperations;
+import org.neo4j.kernel.api.exceptions.KernelException;
+import org.neo4j.kernel.api.index.IndexDescriptor;
+import org.neo4j.kernel.api.properties.Property;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.neo4j.storageengine.api.schema.IndexOrder.ASCENDING;
+import static org.neo4j.storageengine.api.schema.IndexOrder.DESCENDING;
+import static org.neo4j.storageengine.api.schema.IndexOrder.NONE;
+
+@RunWith( Parameterized.class )
+public class OrderedIndexSeekIT extends KernelIntegrationTest
+{
+    @Parameterized.Parameters( name = "native schema index: {0}" )
+    public static List<Object[]> nativeIndex()
+    {
+        return Arrays.asList( new Object[]{true}, new Object[]{false} );
+    }
+
+    @Parameterized.Parameter
+    public boolean nativeIndex;
+
+    private int labelId, propertyKeyId;
+    private IndexDescriptor index;
+
+    @Override
+    protected GraphDatabaseService createGraphDatabase( EphemeralFileSystemAbstraction fs )
+    {
+        return new TestGraphDatabaseFactory()
+                .setFileSystem( fs )
+                .newImpermanentDatabaseBuilder()
+                .setConfig( GraphDatabaseSettings.native_schema_index_enabled, String.valueOf( nativeIndex ) )
+                .newGraphDatabase();
+    }
+
+    @Before
+    public void createIndex() throws Exception
+    {
+        SchemaWriteOperations statement = schemaWriteOperationsInNewTransaction();
+        labelId = statement.labelGetOrCreateForName( "Event" );
+        propertyKeyId = statement.propertyKeyGetOrCreateForName( "at" );
+        index = statement.indexCreate( labelId, propertyKeyId );
+        commit();
+
+        try ( Transaction tx = db.beginTx() )
+        {
+            db.schema().awaitIndexesOnline( 1, TimeUnit.MINUTES );
+            tx.success();
+        }
+    }
+
+    @Test
+    public void shouldSeekNumbersInOrder() throws Exception
+    {
+        // given
+        long thirty = createNode( 30 );
+        long ten = createNode( 10 );
+        long fifty = createNode( 50.5 );
+        long twenty = createNode( 20L );
+        createNode( "40" );
+
+        // when
+        DataWriteOperations statement = dataWriteOperationsInNewTransaction();
+        List<Object> ascending = values( statement.nodesGetFromIndexRangeSeekByNumber( index, 10, false, null, true,
+                ASCENDING ) );
+        List<Object> descending = values( statement.nodesGetFromIndexRangeSeekByNumber( index, 10, false, null, true,
+                DESCENDING ) );
+        commit();
+
+        // then
+        assertEquals( Arrays.<Object>asList( twenty, 20L, thirty, 30, fifty, 50.5 ), ascending );
+        assertEquals( Arrays.<Object>asList( fifty, 50.5, thirty, 30, twenty, 20L ), descending );
+        assertEquals( Arrays.<Object>asList( ten ), nodes( 10, 10 ) );
+    }
+
+    @Test
+    public void shouldMergeChangesInTransactionStateInOrder() throws Exception
+    {
+        // given
+        long ten = createNode( 10 );
+        long twenty = createNode( 20 );
+        long thirty = createNode( 30 );
+        long forty = createNode( 40 );
+        long fifty = createNode( 50 );
+
+        // when
+        DataWriteOperations statement = dataWriteOperationsInNewTransaction();
+        statement.nodeSetProperty( fifty, Property.intProperty( propertyKeyId, 25 ) );
+        statement.nodeSetProperty( ten, Property.intProperty( propertyKeyId, 100 ) );
+        statement.nodeRemoveLabel( forty, labelId );
+        statement.nodeDelete( thirty );
+        long created = statement.nodeCreate();
+        statement.nodeAddLabel( created, labelId );
+        statement.nodeSetProperty( created, Property.intProperty( propertyKeyId, 15 ) );
+        List<Object> ascending = values( statement.nodesGetFromIndexRangeSeekByNumber( index, 0, true, 60, true,
+                ASCENDING ) );
+        List<Object> descending = values( statement.nodesGetFromIndexRangeSeekByNumber( index, 0, true, 60, true,
+                DESCENDING ) );
+        commit();
+
+        // then
+        assertEquals( Arrays.<Object>asList( created, 15, twenty, 20, fifty, 25 ), ascending );
+        assertEquals( Arrays.<Object>asList( fifty, 25, twenty, 20, created, 15 ), descending );
+    }
+
+    @Test
+    public void shouldOnlyReturnValuesOfSeeksInNoParticularOrderIfTheIndexHasThem() throws Exception
+    {
+        // given
+        long ten = createNode( 10 );
+        long twenty = createNode( 20.0 );
+        createNode( 30 );
+
+        // when
+        DataWriteOperations statement = dataWriteOperationsInNewTransaction();
+        statement.nodeSetProperty( ten, Property.longProperty( propertyKeyId, 5L ) );
+        List<Object> found = values( statement.nodesGetFromIndexRangeSeekByNumber( index, 0, true, 25, true,
+                NONE ) );
+        commit();
+
+        // then
+        List<Object> expected = nativeIndex ? Arrays.<Object>asList( ten, 5L, twenty, 20.0 )
+                                            : Arrays.<Object>asList( ten, null, twenty, null );
+        assertEquals( new HashSet<>( expected ), new HashSet<>( found ) );
+        assertEquals( expected.size(), found.size() );
+    }
+
+    @Test
+    public void shouldSeekStringsInOrder() throws Exception
+    {
+        // given
+        long bob = createNode( "Bob" );
+        long anna = createNode( "Anna" );
+        long william = createNode( "William" );
+        createNode( 12 );
+
+        // when
+        DataWriteOperations statement = dataWriteOperationsInNewTransaction();
+        statement.nodeSetProperty( william, Property.stringProperty( propertyKeyId, "Adam" ) );
+        long harriet = statement.nodeCreate();
+        statement.nodeAddLabel( harriet, labelId );
+        statement.nodeSetProperty( harriet, Property.stringProperty( propertyKeyId, "Harriet" ) );
+        List<Object> ascending = values( statement.nodesGetFromIndexRangeSeekByString( index, "Adam", false, null,
+                false, ASCENDING ) );
+        List<Object> descending = values( statement.nodesGetFromIndexRangeSeekByString( index, null, false, "Harriet",
+                false, DESCENDING ) );
+        commit();
+
+        // then
+        assertEquals( Arrays.<Object>asList( anna, "Anna", bob, "Bob", harriet, "Harriet" ), ascending );
+        assertEquals( Arrays.<Object>asList( bob, "Bob", anna, "Anna", william, "Adam" ), descending );
+    }
+
+    @Test
+    public void shouldSeekStringsInTheOrderStringsCompareIn() throws Exception
+    {
+        // given strings which sort differently by code point than by char
+        long ligature = createNode( "\uFB01" );
+        long emoji = createNode( "\uD83D\uDE00" );
+        long letter = createNode( "z" );
+
+        // when
+        DataWriteOperations statement = dataWriteOperationsInNewTransaction();
+        long privateUse = statement.nodeCreate();
+        statement.nodeAddLabel( privateUse, labelId );
+        statement.nodeSetProperty( privateUse, Property.stringProperty( propertyKeyId, "\uE000" ) );
+        List<Object> ascending = values( statement.nodesGetFromIndexRangeSeekByString( index, "a", true, null,
+                false, ASCENDING ) );
+        List<Object> descending = values( statement.nodesGetFromIndexRangeSeekByString( index, null, false,
+                "\uD83D\uDE00", true, DESCENDING ) );
+        commit();
+
+        // then
+        assertEquals( Arrays.<Object>asList( letter, "z", emoji, "\uD83D\uDE00", privateUse, "\uE000",
+                ligature, "\uFB01" ), ascending );
+        assertEquals( Arrays.<Object>asList( emoji, "\uD83D\uDE00", letter, "z" ), descending );
+    }
+
+    @Test
+    public void shouldSeekCharsAsChars() throws Exception
+    {
+        // given
+        long a = createNode( 'a' );
+        long b = createNode( "b" );
+
+        // when
+        DataWriteOperations statement = dataWriteOperationsInNewTransaction();
+        long c = statement.nodeCreate();
+        statement.nodeAddLabel( c, labelId );
+        statement.nodeSetProperty( c, Property.charProperty( propertyKeyId, 'c' ) );
+        List<Object> ascending = values( statement.nodesGetFromIndexRangeSeekByString( index, "a", true, null,
+                false, ASCENDING ) );
+        commit();
+
+        // then
+        assertEquals( Arrays.<Object>asList( a, 'a', b, "b", c, 'c' ), ascending );
+    }
+
+    private List<Object> nodes( Number lower, Number upper ) throws Exception
+    {
+        NodeValueIterator iterator = readOperationsInNewTransaction().nodesGetFromIndexRangeSeekByNumber( index,
+                lower, true, upper, true, ASCENDING );
+        List<Object> nodes = new ArrayList<>();
+        while ( iterator.hasNext() )
+        {
+            nodes.add( iterator.next() );
+        }
+        commit();
+        return nodes;
+    }
+
+    private List<Object> values( NodeValueIterator iterator )
+    {
+        List<Object> nodesAndValues = new ArrayList<>();
+        while ( iterator.hasNext() )
+        {
+            nodesAndValues.add( iterator.next() );
+            nodesAndValues.add( iterator.value() );
+        }
+        return nodesAndValues;
+    }
+
+    private long createNode( Object value ) throws KernelException
+    {
+        DataWriteOperations statement = dataWriteOperationsInNewTransaction();
+        long nodeId = statement.nodeCreate();
+        statement.nodeAddLabel( nodeId, labelId );
+        statement.nodeSetProperty( nodeId, Property.property( propertyKeyId, value ) );
+        commit();
+        return nodeId;
+    }
+}
@@ -51,6 +51,7 @@ import org.neo4j.storageengine.api.schema.IndexReader;
 import static java.util.Arrays.asList;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.neo4j.helpers.collection.Iterators.asSet;
@@ -82,12 +83,9 @@ public class IndexQueryTransactionStateTest
         TransactionState txState = new TxState();
         state = StatementOperationsTestHelper.mockedState( txState );
 
-        int labelId1 = 10, labelId2 = 12;
         store = mock( StoreReadLayer.class );
         when( store.indexGetState( indexDescriptor ) ).thenReturn( InternalIndexState.ONLINE );
-        when( store.indexesGetForLabel( labelId1 ) ).then( answerAsIteratorFrom( Collections
-                .<IndexDescriptor>emptyList() ) );
-        when( store.indexesGetForLabel( labelId2 ) ).then( answerAsIteratorFrom( Collections
+        when( store.indexesGetForLabel( anyInt() ) ).then( answerAsIteratorFrom( Collections
                 .<IndexDescriptor>emptyList() ) );
         when( store.indexesGetAll() ).then( answerAsIteratorFrom( Collections.<IndexDescriptor>emptyList() ) );
         when( store.constraintsGetForLabel( labelId ) ).thenReturn( Collections.<NodePropertyConstraint>emptyIterator() );
@@ -90,6 +90,7 @@ public class StateHandlingStatementOperationsTest
         when( state.getStoreStatement() ).thenReturn( storeStatement );
         when( storeStatement.acquireSingleNodeCursor( anyLong() ) ).
                 thenReturn( asNodeCursor( 0 ) );
+        when( inner.indexesGetForLabel( anyInt() ) ).thenReturn( Collections.emptyIterator() );
 
         StateHandlingStatementOperations ctx = newTxStateOps( inner );
 
@@ -916,6 +916,32 @@ public class TxStateTest
 
     //region miscellaneous
 
+    @Test
+    public void shouldChangeDataVersionOnDataChangesOnly() throws Exception
+    {
+        // Given
+        long initialVersion = state.dataVersion();
+
+        // When
+        state.labelDoCreateForName( "Label", 1 );
+        state.propertyKeyDoCreateForName( "key", 2 );
+
+        // Then
+        assertEquals( initialVersion, state.dataVersion() );
+
+        // When
+        state.nodeDoCreate( 3 );
+        long createdVersion = state.dataVersion();
+        state.nodeDoReplaceProperty( 3, noNodeProperty( 3, 2 ), stringProperty( 2, "value" ) );
+        long changedVersion = state.dataVersion();
+        state.nodeDoRemoveProperty( 3, stringProperty( 2, "value" ) );
+
+        // Then
+        assertTrue( initialVersion != createdVersion );
+        assertTrue( createdVersion != changedVersion );
+        assertTrue( changedVersion != state.dataVersion() );
+    }
+
     @Test
     public void shouldListNodeAsDeletedIfItIsDeleted() throws Exception
     {
@@ -0,0 +1,500 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.labelscan;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.neo4j.collection.primitive.PrimitiveLongCollections;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.index.gbptree.GBPTree;
+import org.neo4j.index.gbptree.Seeker;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.labelscan.AllEntriesLabelScanReader;
+import org.neo4j.kernel.api.labelscan.LabelScanStore;
+import org.neo4j.kernel.api.labelscan.LabelScanWriter;
+import org.neo4j.kernel.api.labelscan.NodeLabelRange;
+import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
+import org.neo4j.kernel.impl.api.scan.LabelScanStoreProvider.FullStoreChangeStream;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.storageengine.api.schema.LabelScanReader;
+import org.neo4j.test.rule.PageCacheRule;
+import org.neo4j.test.rule.fs.EphemeralFileSystemRule;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.kernel.api.labelscan.NodeLabelUpdate.labelChanges;
+
+public class NativeLabelScanStoreTest
+{
+    private static final long[] NO_LABELS = new long[0];
+
+    private final EphemeralFileSystemRule fs = new EphemeralFileSystemRule();
+    private final PageCacheRule pageCacheRule = new PageCacheRule();
+    @Rule
+    public final RuleChain rules = RuleChain.outerRule( fs ).around( pageCacheRule );
+
+    private final File storeDir = new File( "db" );
+    private PageCache pageCache;
+    private NativeLabelScanStore store;
+    private long rebuiltNodes = -1;
+    private TrackingMonitor monitor;
+
+    @After
+    public void shutdown() throws IOException
+    {
+        if ( store != null )
+        {
+            store.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldUpdateStoreOnLabelChange() throws Exception
+    {
+        // GIVEN
+        start( Collections.emptyList() );
+
+        // WHEN
+        write( labelChanges( 10, NO_LABELS, new long[]{1} ) );
+
+        // THEN
+        assertNodesForLabel( 1, 10 );
+        assertNodesForLabel( 2 );
+    }
+
+    @Test
+    public void shouldUpdateStoreOnAddedAndRemovedLabels() throws Exception
+    {
+        // GIVEN
+        start( Collections.emptyList() );
+        write( labelChanges( 10, NO_LABELS, new long[]{1} ) );
+
+        // WHEN
+        write( labelChanges( 10, new long[]{1}, new long[]{1, 2} ) );
+        write( labelChanges( 11, NO_LABELS, new long[]{2} ) );
+
+        // THEN
+        assertNodesForLabel( 1, 10 );
+        assertNodesForLabel( 2, 10, 11 );
+
+        // WHEN
+        write( labelChanges( 10, new long[]{1, 2}, new long[]{2} ),
+               labelChanges( 11, new long[]{2}, NO_LABELS ) );
+
+        // THEN
+        assertNodesForLabel( 1 );
+        assertNodesForLabel( 2, 10 );
+    }
+
+    @Test
+    public void shouldApplyUpdatesToSameNodeInOrderWithinOneWriter() throws Exception
+    {
+        // GIVEN
+        start( Collections.emptyList() );
+
+        // WHEN
+        write( labelChanges( 5, NO_LABELS, new long[]{1} ),
+               labelChanges( 5, new long[]{1}, NO_LABELS ),
+               labelChanges( 6, NO_LABELS, new long[]{1} ) );
+
+        // THEN
+        assertNodesForLabel( 1, 6 );
+    }
+
+    @Test
+    public void shouldNotKeepEmptyBitmaps() throws Exception
+    {
+        // GIVEN
+        start( Collections.emptyList() );
+        write( labelChanges( 1, NO_LABELS, new long[]{1} ),
+               labelChanges( 2, NO_LABELS, new long[]{1, 2} ) );
+
+        // WHEN
+        write( labelChanges( 1, new long[]{1}, NO_LABELS ),
+               labelChanges( 2, new long[]{1, 2}, new long[]{2} ),
+               labelChanges( 3, new long[]{3}, NO_LABELS ),
+               labelChanges( 4, NO_LABELS, new long[]{4} ),
+               labelChanges( 4, new long[]{4}, NO_LABELS ) );
+
+        // THEN
+        assertNodesForLabel( 1 );
+        assertNodesForLabel( 2, 2 );
+        store.shutdown();
+        store = null;
+        assertEquals( Collections.singletonList( "[label:2,range:0]" ), storedBitmaps() );
+    }
+
+    @Test
+    public void shouldScanMultipleAndFullRanges() throws Exception
+    {
+        // GIVEN
+        start( Collections.emptyList() );
+        List<NodeLabelUpdate> updates = new ArrayList<>();
+        long[] expected = new long[200];
+        for ( int i = 0; i < expected.length; i++ )
+        {
+            expected[i] = i < 64 ? i : i * 7;
+            updates.add( labelChanges( expected[i], NO_LABELS, new long[]{3} ) );
+        }
+
+        // WHEN
+        write( updates.toArray( new NodeLabelUpdate[updates.size()] ) );
+
+        // THEN
+        assertNodesForLabel( 3, expected );
+    }
+
+    @Test
+    public void shouldFindLabelsForNode() throws Exception
+    {
+        // GIVEN
+        start( Collections.emptyList() );
+        write( labelChanges( 1, NO_LABELS, new long[]{1, 4} ),
+               labelChanges( 70, NO_LABELS, new long[]{2, 4, 9} ),
+               labelChanges( 71, NO_LABELS, new long[]{3} ) );
+
+        // THEN
+        try ( LabelScanReader reader = store.newReader() )
+        {
+            assertArrayEquals( new long[]{1, 4}, sorted( reader.labelsForNode( 1 ) ) );
+            assertArrayEquals( new long[]{2, 4, 9}, sorted( reader.labelsForNode( 70 ) ) );
+            assertArrayEquals( new long[]{3}, sorted( reader.labelsForNode( 71 ) ) );
+            assertArrayEquals( NO_LABELS, sorted( reader.labelsForNode( 2 ) ) );
+        }
+    }
+
+    @Test
+    public void shouldReadAllNodeLabelRanges() throws Exception
+    {
+        // GIVEN
+        start( Collections.emptyList() );
+        write( labelChanges( 1, NO_LABELS, new long[]{1, 4} ),
+               labelChanges( 3, NO_LABELS, new long[]{4} ),
+               labelChanges( 130, NO_LABELS, new long[]{2} ) );
+
+        // WHEN
+        List<NodeLabelRange> ranges = new ArrayList<>();
+        try ( AllEntriesLabelScanReader reader = store.allNodeLabelRanges() )
+        {
+            assertEquals( 3, reader.maxCount() );
+            for ( NodeLabelRange range : reader )
+            {
+                ranges.add( range );
+            }
+        }
+
+        // THEN
+        assertEquals( 2, ranges.size() );
+        assertEquals( 0, ranges.get( 0 ).id() );
+        assertArrayEquals( new long[]{1, 3}, ranges.get( 0 ).nodes() );
+        assertArrayEquals( new long[]{1, 4}, ranges.get( 0 ).labels( 1 ) );
+        assertArrayEquals( new long[]{4}, ranges.get( 0 ).labels( 3 ) );
+        assertEquals( 2, ranges.get( 1 ).id() );
+        assertArrayEquals( new long[]{130}, ranges.get( 1 ).nodes() );
+        assertArrayEquals( new long[]{2}, ranges.get( 1 ).labels( 130 ) );
+    }
+
+    @Test
+    public void shouldMatchRandomUpdates() throws Exception
+    {
+        // GIVEN
+        start( Collections.emptyList() );
+        Random random = new Random( 42 );
+        int nodes = 5_000;
+        long[][] labels = new long[nodes][];
+        Arrays.fill( labels, NO_LABELS );
+
+        // WHEN
+        for ( int round = 0; round < 5; round++ )
+        {
+            List<NodeLabelUpdate> updates = new ArrayList<>();
+            for ( int node = 0; node < nodes; node++ )
+            {
+                if ( random.nextInt( 3 ) == 0 )
+                {
+                    long[] after = randomLabels( random );
+                    updates.add( labelChanges( node, labels[node], after ) );
+                    labels[node] = after;
+                }
+            }
+            write( updates.toArray( new NodeLabelUpdate[updates.size()] ) );
+        }
+
+        // THEN
+        for ( int labelId = 0; labelId < 5; labelId++ )
+        {
+            List<Long> expected = new ArrayList<>();
+            for ( int node = 0; node < nodes; node++ )
+            {
+                for ( long label : labels[node] )
+                {
+                    if ( label == labelId )
+                    {
+                        expected.add( (long) node );
+                    }
+                }
+            }
+            assertNodesForLabel( labelId, expected.stream().mapToLong( Long::longValue ).toArray() );
+        }
+    }
+
+    @Test
+    public void shouldRebuildFromScratchIfStoreMissing() throws Exception
+    {
+        // WHEN
+        start( Collections.singletonList( labelChanges( 5, NO_LABELS, new long[]{1} ) ) );
+
+        // THEN
+        assertEquals( 1, rebuiltNodes );
+        assertTrue( monitor.initCalled );
+        assertTrue( monitor.noIndexCalled );
+        assertTrue( monitor.rebuildingCalled );
+        assertTrue( monitor.rebuiltCalled );
+        assertNodesForLabel( 1, 5 );
+    }
+
+    @Test
+    public void shouldKeepContentsWithoutRebuildAfterCleanShutdown() throws Exception
+    {
+        // GIVEN
+        start( Collections.emptyList() );
+        write( labelChanges( 5, NO_LABELS, new long[]{1} ) );
+        store.shutdown();
+
+        // WHEN
+        rebuiltNodes = -1;
+        start( Collections.emptyList() );
+
+        // THEN
+        assertEquals( -1, rebuiltNodes );
+        assertFalse( monitor.noIndexCalled );
+        assertFalse( monitor.rebuildingCalled );
+        assertNodesForLabel( 1, 5 );
+    }
+
+    @Test
+    public void shouldRestoreToLastCheckpointIfNotShutDownCleanly() throws Exception
+    {
+        // GIVEN a store with changes after its last checkpoint, which have been flushed before a crash
+        start( Collections.emptyList() );
+        write( labelChanges( 5, NO_LABELS, new long[]{1} ) );
+        store.force();
+        write( labelChanges( 6, NO_LABELS, new long[]{1} ),
+               labelChanges( 5, new long[]{1}, new long[]{2} ) );
+        pageCache.flushAndForce();
+        crash();
+
+        // WHEN
+        rebuiltNodes = -1;
+        start( Collections.singletonList( labelChanges( 7, NO_LABELS, new long[]{1} ) ) );
+
+        // THEN the store has the contents of the checkpoint, without having been rebuilt
+        assertEquals( -1, rebuiltNodes );
+        assertFalse( monitor.corruptedIndexCalled );
+        assertFalse( monitor.rebuildingCalled );
+        assertNodesForLabel( 1, 5 );
+        assertNodesForLabel( 2 );
+
+        // WHEN the changes after the checkpoint are recovered
+        write( labelChanges( 6, NO_LABELS, new long[]{1} ),
+               labelChanges( 5, new long[]{1}, new long[]{2} ) );
+
+        // THEN
+        assertNodesForLabel( 1, 6 );
+        assertNodesForLabel( 2, 5 );
+    }
+
+    @Test
+    public void shouldRebuildIfNotShutDownCleanlyAndNotRestorable() throws Exception
+    {
+        // GIVEN a store with changes that was never checkpointed, and lost everything but its tree file
+        start( Collections.emptyList() );
+        write( labelChanges( 5, NO_LABELS, new long[]{1} ) );
+        pageCache.flushAndForce();
+        crash();
+        File storeFile = NativeLabelScanStore.getLabelScanStoreFile( storeDir );
+        for ( File file : fs.get().listFiles( storeFile.getParentFile() ) )
+        {
+            if ( !file.getName().equals( storeFile.getName() ) )
+            {
+                fs.get().deleteFile( file );
+            }
+        }
+
+        // WHEN
+        rebuiltNodes = -1;
+        start( Collections.singletonList( labelChanges( 6, NO_LABELS, new long[]{1} ) ) );
+
+        // THEN
+        assertEquals( 1, rebuiltNodes );
+        assertTrue( monitor.corruptedIndexCalled );
+        assertTrue( monitor.rebuiltCalled );
+        assertNodesForLabel( 1, 6 );
+    }
+
+    private void crash()
+    {
+        NativeLabelScanStore crashed = store;
+        fs.snapshot( () ->
+        {
+            try
+            {
+                crashed.shutdown();
+            }
+            catch ( IOException e )
+            {
+                throw new AssertionError( e );
+            }
+        } );
+        store = null;
+        pageCache = null;
+    }
+
+    private void start( List<NodeLabelUpdate> existingData ) throws IOException
+    {
+        if ( pageCache == null )
+        {
+            pageCache = pageCacheRule.getPageCache( fs.get() );
+        }
+        monitor = new TrackingMonitor();
+        store = new NativeLabelScanStore( pageCache, fs.get(), storeDir, asStream( existingData ),
+                NullLogProvider.getInstance(), monitor );
+        store.init();
+        store.start();
+    }
+
+    private FullStoreChangeStream asStream( List<NodeLabelUpdate> existingData )
+    {
+        return writer ->
+        {
+            for ( NodeLabelUpdate update : existingData )
+            {
+                writer.write( update );
+            }
+            rebuiltNodes = existingData.size();
+            return existingData.size();
+        };
+    }
+
+    private void write( NodeLabelUpdate... updates ) throws IOException
+    {
+        try ( LabelScanWriter writer = store.newWriter() )
+        {
+            for ( NodeLabelUpdate update : updates )
+            {
+                writer.write( update );
+            }
+        }
+    }
+
+    private List<String> storedBitmaps() throws IOException
+    {
+        List<String> keys = new ArrayList<>();
+        try ( GBPTree<LabelScanKey,LabelScanValue> tree = new GBPTree<>( pageCache,
+                NativeLabelScanStore.getLabelScanStoreFile( storeDir ), new LabelScanLayout() ) )
+        {
+            Seeker<LabelScanKey,LabelScanValue> seeker = tree.seek( new LabelScanKey().set( 0, 0 ),
+                    new LabelScanKey().set( Integer.MAX_VALUE, Long.MAX_VALUE ) );
+            while ( seeker.next() )
+            {
+                assertNotEquals( "Empty bitmap for " + seeker.key(), 0, seeker.value().bits );
+                keys.add( seeker.key().toString() );
+            }
+        }
+        return keys;
+    }
+
+    private void assertNodesForLabel( int labelId, long... expectedNodeIds )
+    {
+        try ( LabelScanReader reader = store.newReader() )
+        {
+            assertArrayEquals( expectedNodeIds, PrimitiveLongCollections.asArray( reader.nodesWithLabel( labelId ) ) );
+        }
+    }
+
+    private static long[] sorted( PrimitiveLongIterator iterator )
+    {
+        long[] array = PrimitiveLongCollections.asArray( iterator );
+        Arrays.sort( array );
+        return array;
+    }
+
+    private static long[] randomLabels( Random random )
+    {
+        Set<Long> labels = new TreeSet<>();
+        int count = random.nextInt( 4 );
+        for ( int i = 0; i < count; i++ )
+        {
+            labels.add( (long) random.nextInt( 5 ) );
+        }
+        return labels.stream().mapToLong( Long::longValue ).toArray();
+    }
+
+    private static class TrackingMonitor implements LabelScanStore.Monitor
+    {
+        boolean initCalled, noIndexCalled, corruptedIndexCalled, rebuildingCalled, rebuiltCalled;
+
+        @Override
+        public void init()
+        {
+            initCalled = true;
+        }
+
+        @Override
+        public void noIndex()
+        {
+            noIndexCalled = true;
+        }
+
+        @Override
+        public void corruptedIndex()
+        {
+            corruptedIndexCalled = true;
+        }
+
+        @Override
+        public void rebuilding()
+        {
+            rebuildingCalled = true;
+        }
+
+        @Override
+        public void rebuilt( long roughNodeCount )
+        {
+            rebuiltCalled = true;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.AfterClass;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.graphdb.mockfs.EphemeralFileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.index.IndexProviderCompatibilityTestSuite;
+import org.neo4j.kernel.impl.pagecache.StandalonePageCacheFactory;
+
+public class NativeSchemaIndexProviderTest extends IndexProviderCompatibilityTestSuite
+{
+    private static final AtomicInteger storeDirs = new AtomicInteger();
+    private static EphemeralFileSystemAbstraction indexFs;
+    private static PageCache pageCache;
+
+    @Override
+    protected NativeSchemaIndexProvider createIndexProvider()
+    {
+        synchronized ( NativeSchemaIndexProviderTest.class )
+        {
+            if ( pageCache == null )
+            {
+                indexFs = new EphemeralFileSystemAbstraction();
+                pageCache = StandalonePageCacheFactory.createPageCache( indexFs );
+            }
+        }
+        File storeDir = new File( "graph-db-" + storeDirs.incrementAndGet() );
+        return new NativeSchemaIndexProvider( pageCache, indexFs, storeDir, NativeSchemaIndexProviderFactory.PRIORITY_ENABLED );
+    }
+
+    @AfterClass
+    public static void shutdownFileSystem() throws IOException
+    {
+        // Some compatibility tests intentionally leave their populators open, which means the page cache
+        // still has index files mapped here. It goes away together with the ephemeral file system.
+        if ( indexFs != null )
+        {
+            indexFs.shutdown();
+            indexFs = null;
+            pageCache = null;
+        }
+    }
+}
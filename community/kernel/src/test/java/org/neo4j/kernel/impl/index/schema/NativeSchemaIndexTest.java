@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.neo4j.index.gbptree.Seeker;
+import org.neo4j.kernel.api.index.IndexConfiguration;
+import org.neo4j.kernel.api.index.InternalIndexState;
+import org.neo4j.kernel.api.index.NodePropertyUpdate;
+import org.neo4j.test.rule.PageCacheRule;
+import org.neo4j.test.rule.fs.EphemeralFileSystemRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.neo4j.kernel.impl.index.schema.NativeSchemaKey.TYPE_NUMBER;
+import static org.neo4j.kernel.impl.index.schema.NativeSchemaKey.TYPE_STRING;
+
+public class NativeSchemaIndexTest
+{
+    private static final int PROPERTY_KEY_ID = 1;
+    private static final long[] LABELS = {1};
+
+    private final EphemeralFileSystemRule fs = new EphemeralFileSystemRule();
+    private final PageCacheRule pageCacheRule = new PageCacheRule();
+    @Rule
+    public final RuleChain rules = RuleChain.outerRule( fs ).around( pageCacheRule );
+
+    private final File file = new File( new File( "index" ), "1" );
+
+    @Test
+    public void shouldBeOnlineAndReapplyUpdatesAfterRestoringUncleanShutdown() throws Exception
+    {
+        // GIVEN an online index which is updated after its last checkpoint, and then not cleanly shut down
+        NativeSchemaIndex crashed = newIndex();
+        crashed.create();
+        process( crashed, updatesBeforeCheckpoint() );
+        crashed.markAsOnline();
+        crashed.tree().checkpoint();
+        process( crashed, updatesAfterCheckpoint() );
+        fs.snapshot( () -> close( crashed ) );
+
+        // WHEN
+        InternalIndexState state =
+                NativeSchemaIndex.readState( pageCacheRule.getPageCache( fs.get() ), file );
+
+        // THEN
+        assertEquals( InternalIndexState.ONLINE, state );
+
+        // WHEN recovery applies the updates after the checkpoint, some of which may already have been flushed
+        NativeSchemaIndex index = newIndex();
+        index.open();
+        try
+        {
+            process( index, updatesAfterCheckpoint() );
+            process( index, updatesAfterCheckpoint() );
+
+            // THEN
+            assertEquals( Arrays.asList( 0L, 3L, 2L ), nodeIds( index ) );
+        }
+        finally
+        {
+            index.close();
+        }
+    }
+
+    private NativeSchemaIndex newIndex()
+    {
+        return new NativeSchemaIndex( pageCacheRule.getPageCache( fs.get() ), fs.get(), file,
+                IndexConfiguration.NON_UNIQUE );
+    }
+
+    private static List<NodePropertyUpdate> updatesBeforeCheckpoint()
+    {
+        List<NodePropertyUpdate> updates = new ArrayList<>();
+        updates.add( NodePropertyUpdate.add( 0, PROPERTY_KEY_ID, 10L, LABELS ) );
+        updates.add( NodePropertyUpdate.add( 1, PROPERTY_KEY_ID, 11L, LABELS ) );
+        updates.add( NodePropertyUpdate.add( 2, PROPERTY_KEY_ID, 12L, LABELS ) );
+        return updates;
+    }
+
+    private static List<NodePropertyUpdate> updatesAfterCheckpoint()
+    {
+        List<NodePropertyUpdate> updates = new ArrayList<>();
+        updates.add( NodePropertyUpdate.remove( 1, PROPERTY_KEY_ID, 11L, LABELS ) );
+        updates.add( NodePropertyUpdate.change( 2, PROPERTY_KEY_ID, 12L, LABELS, 22L, LABELS ) );
+        updates.add( NodePropertyUpdate.add( 3, PROPERTY_KEY_ID, 13L, LABELS ) );
+        return updates;
+    }
+
+    private static void process( NativeSchemaIndex index, List<NodePropertyUpdate> updates ) throws Exception
+    {
+        NativeSchemaIndexUpdater updater = new NativeSchemaIndexUpdater( index );
+        for ( NodePropertyUpdate update : updates )
+        {
+            updater.process( update );
+        }
+        updater.close();
+    }
+
+    private static List<Long> nodeIds( NativeSchemaIndex index ) throws IOException
+    {
+        Seeker<NativeSchemaKey,NativeSchemaValue> seeker = index.tree().seek(
+                new NativeSchemaKey().lowest( TYPE_NUMBER ), new NativeSchemaKey().highest( TYPE_STRING ) );
+        List<Long> nodeIds = new ArrayList<>();
+        while ( seeker.next() )
+        {
+            nodeIds.add( seeker.key().nodeId );
+        }
+        return nodeIds;
+    }
+
+    private static void close( NativeSchemaIndex index )
+    {
+        try
+        {
+            index.close();
+        }
+        catch ( IOException e )
+        {
+            throw new AssertionError( e );
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+import org.junit.rules.TestRule;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.StandardOpenOption;
+
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.logging.NullLog;
+import org.neo4j.test.OnDemandJobScheduler;
+import org.neo4j.test.rule.PageCacheRule;
+import org.neo4j.test.rule.fs.EphemeralFileSystemRule;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.helpers.collection.MapUtil.stringMap;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+
+public class PageCacheWarmerTest
+{
+    private static final Config CONFIG = Config.empty().augment( stringMap(
+            GraphDatabaseSettings.pagecache_memory.name(), "8M" ) );
+
+    private final EphemeralFileSystemRule fsRule = new EphemeralFileSystemRule();
+    private final PageCacheRule pageCacheRule = new PageCacheRule( false );
+
+    @Rule
+    public final TestRule rules = RuleChain.outerRule( fsRule ).around( pageCacheRule );
+
+    private FileSystemAbstraction fs;
+    private File storeDir;
+    private File file;
+    private OnDemandJobScheduler scheduler;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        fs = fsRule.get();
+        storeDir = new File( "store" ).getAbsoluteFile();
+        fs.mkdirs( storeDir );
+        file = new File( storeDir, "a" );
+        scheduler = new OnDemandJobScheduler();
+
+        PageCache pageCache = pageCacheRule.getPageCache( fs, CONFIG );
+        try ( PagedFile pf = pageCache.map( file, pageCache.pageSize(), StandardOpenOption.CREATE );
+              PageCursor cursor = pf.io( 0, PF_SHARED_WRITE_LOCK ) )
+        {
+            for ( int i = 0; i < 20; i++ )
+            {
+                assertTrue( cursor.next() );
+                cursor.putInt( i );
+            }
+        }
+    }
+
+    @Test
+    public void mustReheatThePagesThatWereInMemoryWhenProfiled() throws Exception
+    {
+        PageCache pageCache = pageCacheRule.getPageCache( fs, CONFIG );
+        try ( PagedFile pf = pageCache.map( file, pageCache.pageSize() ) )
+        {
+            touch( pf, 2, 5, 7 );
+            PageCacheWarmer warmer = warmer( pageCache, PageCacheTracer.NULL );
+            assertThat( warmer.profile(), is( 3L ) );
+        }
+        assertTrue( fs.fileExists( new File( storeDir, "a" + PageCacheWarmer.SUFFIX_CACHEPROF ) ) );
+
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        pageCache = pageCacheRule.getPageCache( fs, tracer, CONFIG );
+        try ( PagedFile pf = pageCache.map( file, pageCache.pageSize() ) )
+        {
+            PageCacheWarmer warmer = warmer( pageCache, tracer );
+            assertThat( warmer.reheat(), is( 3L ) );
+            assertThat( tracer.pagesWarmedUp(), is( 3L ) );
+
+            try ( PageCursor cursor = pf.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT ) )
+            {
+                for ( long pageId : new long[]{2, 5, 7} )
+                {
+                    assertTrue( cursor.next( pageId ) );
+                    assertThat( cursor.getCurrentPageId(), is( pageId ) );
+                    assertThat( cursor.getInt(), is( (int) pageId ) );
+                }
+            }
+        }
+    }
+
+    @Test
+    public void mustNotProfileFilesOutsideOfTheStoreDirectory() throws Exception
+    {
+        PageCache pageCache = pageCacheRule.getPageCache( fs, CONFIG );
+        File otherDir = new File( "other" ).getAbsoluteFile();
+        fs.mkdirs( otherDir );
+        File otherFile = new File( otherDir, "b" );
+        try ( PagedFile pf = pageCache.map( otherFile, pageCache.pageSize(),
+                StandardOpenOption.CREATE ) )
+        {
+            assertThat( warmer( pageCache, PageCacheTracer.NULL ).profile(), is( 0L ) );
+        }
+        assertFalse( fs.fileExists( new File( otherDir, "b" + PageCacheWarmer.SUFFIX_CACHEPROF ) ) );
+    }
+
+    @Test
+    public void mustTakeFinalProfileWhenStoppedAfterReheating() throws Throwable
+    {
+        PageCache pageCache = pageCacheRule.getPageCache( fs, CONFIG );
+        try ( PagedFile pf = pageCache.map( file, pageCache.pageSize() ) )
+        {
+            PageCacheWarmer warmer = warmer( pageCache, PageCacheTracer.NULL );
+            warmer.start();
+            scheduler.runJob(); // reheat, which then schedules the profiling
+            touch( pf, 1 );
+            warmer.stop();
+        }
+        assertTrue( fs.fileExists( new File( storeDir, "a" + PageCacheWarmer.SUFFIX_CACHEPROF ) ) );
+    }
+
+    @Test
+    public void mustNotOverwriteProfilesWhenStoppedBeforeReheating() throws Throwable
+    {
+        PageCache pageCache = pageCacheRule.getPageCache( fs, CONFIG );
+        try ( PagedFile pf = pageCache.map( file, pageCache.pageSize() ) )
+        {
+            touch( pf, 1 );
+            PageCacheWarmer warmer = warmer( pageCache, PageCacheTracer.NULL );
+            warmer.start();
+            warmer.stop();
+        }
+        assertFalse( fs.fileExists( new File( storeDir, "a" + PageCacheWarmer.SUFFIX_CACHEPROF ) ) );
+    }
+
+    private PageCacheWarmer warmer( PageCache pageCache, PageCacheTracer tracer )
+    {
+        return new PageCacheWarmer( fs, pageCache, tracer, scheduler, storeDir, 1000, NullLog.getInstance() );
+    }
+
+    private static void touch( PagedFile pf, long... pageIds ) throws IOException
+    {
+        try ( PageCursor cursor = pf.io( 0, PF_SHARED_READ_LOCK ) )
+        {
+            for ( long pageId : pageIds )
+            {
+                assertTrue( cursor.next( pageId ) );
+            }
+        }
+    }
+}
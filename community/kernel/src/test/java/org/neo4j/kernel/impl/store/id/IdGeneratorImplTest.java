@@ -23,20 +23,37 @@ import org.junit.Rule;
 import org.junit.Test;
 
 import java.io.File;
-
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.neo4j.graphdb.mockfs.DelegatingFileSystemAbstraction;
+import org.neo4j.graphdb.mockfs.DelegatingStoreChannel;
 import org.neo4j.io.fs.DefaultFileSystemAbstraction;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.kernel.impl.store.InvalidIdGeneratorException;
 import org.neo4j.kernel.impl.store.id.validation.IdCapacityExceededException;
 import org.neo4j.kernel.impl.store.id.validation.NegativeIdException;
 import org.neo4j.test.rule.fs.EphemeralFileSystemRule;
 
+import static java.lang.Math.max;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.locks.LockSupport.parkNanos;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 import static org.neo4j.test.ProcessTestUtil.executeSubProcess;
@@ -245,6 +262,179 @@ public class IdGeneratorImplTest
         assertEquals( 30, idGenerator.nextId() );
     }
 
+    @Test
+    public void shouldHandOutUniqueIdsToConcurrentThreads() throws Exception
+    {
+        // GIVEN
+        IdGeneratorImpl.createGenerator( fsr.get(), file, 0, false );
+        IdGeneratorImpl idGenerator = new IdGeneratorImpl( fsr.get(), file, 10, 100_000, true, 0 );
+        for ( long id = 0; id < 1_000; id++ )
+        {
+            idGenerator.nextId();
+        }
+        for ( long id = 0; id < 1_000; id += 2 )
+        {
+            idGenerator.freeId( id );
+        }
+
+        // WHEN
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        List<Future<List<Long>>> futures = new ArrayList<>();
+        for ( int i = 0; i < threads; i++ )
+        {
+            futures.add( executor.submit( () ->
+            {
+                List<Long> ids = new ArrayList<>();
+                for ( int j = 0; j < 1_000; j++ )
+                {
+                    if ( j % 10 == 0 )
+                    {
+                        IdRange range = idGenerator.nextIdBatch( 5 );
+                        for ( long id : range.getDefragIds() )
+                        {
+                            ids.add( id );
+                        }
+                        for ( long id = range.getRangeStart(); id < range.getRangeStart() + range.getRangeLength(); id++ )
+                        {
+                            ids.add( id );
+                        }
+                    }
+                    else
+                    {
+                        ids.add( idGenerator.nextId() );
+                    }
+                }
+                return ids;
+            } ) );
+        }
+
+        // THEN
+        Set<Long> seen = new HashSet<>();
+        for ( Future<List<Long>> future : futures )
+        {
+            for ( long id : future.get( 1, MINUTES ) )
+            {
+                assertTrue( "Id " + id + " was handed out more than once", seen.add( id ) );
+            }
+        }
+        executor.shutdown();
+        for ( long id = 0; id < 1_000; id += 2 )
+        {
+            assertTrue( "Freed id " + id + " was not reused", seen.contains( id ) );
+        }
+        assertEquals( seen.size() + 500, idGenerator.getHighId() );
+    }
+
+    @Test
+    public void shouldNotHandOutIdsAboveWrittenHighIdWhenClosedConcurrently() throws Exception
+    {
+        // a slow force() while closing leaves plenty of time for concurrent allocations
+        FileSystemAbstraction fs = new DelegatingFileSystemAbstraction( fsr.get() )
+        {
+            @Override
+            public StoreChannel open( File fileName, String mode ) throws IOException
+            {
+                return new DelegatingStoreChannel( super.open( fileName, mode ) )
+                {
+                    @Override
+                    public void force( boolean metaData ) throws IOException
+                    {
+                        parkNanos( MILLISECONDS.toNanos( 10 ) );
+                        super.force( metaData );
+                    }
+                };
+            }
+        };
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        try
+        {
+            for ( int round = 0; round < 5; round++ )
+            {
+                // GIVEN
+                IdGeneratorImpl.createGenerator( fs, file, 0, false );
+                IdGeneratorImpl idGenerator = new IdGeneratorImpl( fs, file, 10, 10_000_000, false, 0 );
+                CountDownLatch started = new CountDownLatch( threads );
+                List<Future<Long>> futures = new ArrayList<>();
+                for ( int i = 0; i < threads; i++ )
+                {
+                    futures.add( executor.submit( () ->
+                    {
+                        long highestId = -1;
+                        started.countDown();
+                        try
+                        {
+                            for ( int j = 0; ; j++ )
+                            {
+                                if ( j % 10 == 0 )
+                                {
+                                    IdRange range = idGenerator.nextIdBatch( 5 );
+                                    highestId = max( highestId, range.getRangeStart() + range.getRangeLength() - 1 );
+                                }
+                                else
+                                {
+                                    highestId = max( highestId, idGenerator.nextId() );
+                                }
+                            }
+                        }
+                        catch ( IllegalStateException e )
+                        {
+                            // closed
+                        }
+                        return highestId;
+                    } ) );
+                }
+
+                // WHEN
+                started.await();
+                idGenerator.close();
+
+                // THEN
+                long writtenHighId = IdGeneratorImpl.readHighId( fs, file );
+                for ( Future<Long> future : futures )
+                {
+                    long highestId = future.get( 1, MINUTES );
+                    assertTrue( "Id " + highestId + " was handed out, but high id " + writtenHighId + " was written",
+                            highestId < writtenHighId );
+                }
+                fs.deleteFile( file );
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldKeepPrefetchedFreeIdsOverRestart()
+    {
+        // GIVEN
+        IdGeneratorImpl.createGenerator( fsr.get(), file, 0, false );
+        IdGeneratorImpl idGenerator = new IdGeneratorImpl( fsr.get(), file, 10, 100, true, 20 );
+        for ( long id = 0; id < 5; id++ )
+        {
+            idGenerator.freeId( id );
+        }
+
+        // WHEN taking one id, which pulls all free ids out of the keeper
+        assertEquals( 0, idGenerator.nextId() );
+        assertEquals( 4, idGenerator.getDefragCount() );
+        idGenerator.close();
+
+        // THEN
+        idGenerator = new IdGeneratorImpl( fsr.get(), file, 10, 100, true, 20 );
+        assertEquals( 4, idGenerator.getDefragCount() );
+        Set<Long> ids = new HashSet<>();
+        for ( int i = 0; i < 4; i++ )
+        {
+            ids.add( idGenerator.nextId() );
+        }
+        assertEquals( new HashSet<>( asList( 1L, 2L, 3L, 4L ) ), ids );
+        assertEquals( 20, idGenerator.nextId() );
+    }
+
     public static void main( String[] args )
     {
         // Leave it opened
@@ -50,10 +50,13 @@ import org.neo4j.test.rule.CleanupRule;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyByte;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyLong;
@@ -142,6 +145,43 @@ public class BatchingTransactionAppenderTest
         assertNull( tx.next() );
     }
 
+    @Test
+    public void shouldAppendBatchOfTransactionsTooLargeToSerializeInMemory() throws Exception
+    {
+        // GIVEN an appender which only serializes batches of up to 100 bytes up front
+        when( logFile.getWriter() ).thenReturn( channel );
+        TransactionAppender appender = life.add( new BatchingTransactionAppender( logFile, NO_ROTATION, positionCache,
+                transactionIdStore, BYPASS, databaseHealth, 100 ) );
+        when( transactionIdStore.nextCommittingTransactionId() ).thenReturn( 2L, 3L, 4L );
+        TransactionToApply batch = batchOf(
+                transaction( singleCreateNodeCommand( 0 ), new byte[0], 0, 0, 0, 1, 0 ),
+                transaction( singleCreateNodeCommand( 1 ), new byte[0], 0, 0, 0, 1, 0 ),
+                transaction( singleCreateNodeCommand( 2 ), new byte[0], 0, 0, 0, 1, 0 ) );
+
+        // WHEN
+        appender.append( batch, logAppendEvent );
+
+        // THEN
+        LogEntryReader<ReadableLogChannel> logEntryReader = new VersionAwareLogEntryReader<>();
+        try ( PhysicalTransactionCursor<ReadableLogChannel> reader =
+                      new PhysicalTransactionCursor<>( channel, logEntryReader ) )
+        {
+            TransactionToApply tx = batch;
+            long previousStartOffset = -1;
+            for ( long txId = 2; txId <= 4; txId++, tx = tx.next() )
+            {
+                assertEquals( txId, tx.transactionId() );
+                long startOffset = positionCache.getTransactionMetadata( txId ).getStartPosition().getByteOffset();
+                assertTrue( startOffset > previousStartOffset );
+                previousStartOffset = startOffset;
+                assertTrue( reader.next() );
+                assertEquals( txId, reader.get().getCommitEntry().getTxId() );
+            }
+            assertNull( tx );
+            assertFalse( reader.next() );
+        }
+    }
+
     @Test
     public void shouldAppendCommittedTransactions() throws Exception
     {
@@ -232,7 +272,7 @@ public class BatchingTransactionAppenderTest
         String failureMessage = "Forces a failure";
         FlushablePositionAwareChannel channel = spy( new InMemoryClosableChannel() );
         IOException failure = new IOException( failureMessage );
-        when( channel.putInt( anyInt() ) ).thenThrow( failure );
+        doThrow( failure ).when( channel ).put( any( byte[].class ), anyInt() );
         when( logFile.getWriter() ).thenReturn( channel );
         when( transactionIdStore.nextCommittingTransactionId() ).thenReturn( txId );
         Mockito.reset( databaseHealth );
@@ -257,6 +297,36 @@ public class BatchingTransactionAppenderTest
         }
     }
 
+    @Test
+    public void shouldNotAssignTransactionIdOrPanicOnFailedTransactionSerialization() throws Exception
+    {
+        // GIVEN
+        FlushablePositionAwareChannel channel = spy( new InMemoryClosableChannel() );
+        when( logFile.getWriter() ).thenReturn( channel );
+        Mockito.reset( databaseHealth );
+        TransactionAppender appender = life.add( new BatchingTransactionAppender( logFile, NO_ROTATION, positionCache,
+                transactionIdStore, BYPASS, databaseHealth ) );
+
+        // WHEN
+        IOException failure = new IOException( "Forces a failure" );
+        TransactionRepresentation transaction = mock( TransactionRepresentation.class );
+        when( transaction.additionalHeader() ).thenReturn( new byte[0] );
+        doThrow( failure ).when( transaction ).accept( any() );
+        try
+        {
+            appender.append( new TransactionToApply( transaction ), logAppendEvent );
+            fail( "Expected append to fail. Something is wrong with the test itself" );
+        }
+        catch ( IOException e )
+        {
+            // THEN the failure happened before anything was written to the log, so there is no need to panic
+            assertSame( failure, e );
+            verify( transactionIdStore, times( 0 ) ).nextCommittingTransactionId();
+            verify( channel, times( 0 ) ).put( any( byte[].class ), anyInt() );
+            verify( databaseHealth, times( 0 ) ).panic( any() );
+        }
+    }
+
     @Test
     public void shouldNotCallTransactionClosedOnFailedForceLogToDisk() throws Exception
     {
@@ -31,15 +31,21 @@ import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.kernel.impl.transaction.DeadSimpleLogVersionRepository;
 import org.neo4j.kernel.impl.transaction.DeadSimpleTransactionIdStore;
 import org.neo4j.kernel.impl.transaction.log.PhysicalLogFile.Monitor;
+import org.neo4j.kernel.impl.transaction.log.entry.CheckPoint;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntry;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryWriter;
 import org.neo4j.kernel.impl.transaction.log.entry.LogHeader;
+import org.neo4j.kernel.impl.transaction.log.entry.VersionAwareLogEntryReader;
 import org.neo4j.kernel.lifecycle.LifeSupport;
 import org.neo4j.test.rule.TargetDirectory;
 import org.neo4j.test.rule.TargetDirectory.TestDirectory;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogHeader.LOG_HEADER_SIZE;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderReader.readLogHeader;
 
 public class PhysicalLogFileTest
@@ -49,6 +55,8 @@ public class PhysicalLogFileTest
     private final FileSystemAbstraction fs = new DefaultFileSystemAbstraction();
     private final LogVersionRepository logVersionRepository = new DeadSimpleLogVersionRepository( 1L );
     private final TransactionIdStore transactionIdStore = new DeadSimpleTransactionIdStore( 5L, 0, 0, 0 );
+    // version and type bytes, followed by the log version and byte offset of the check pointed position
+    private static final long CHECK_POINT_ENTRY_SIZE = 2 + 8 + 8;
 
     @Test
     public void shouldOpenInFreshDirectoryAndFinallyAddHeader() throws Exception
@@ -196,6 +204,126 @@ public class PhysicalLogFileTest
         life.shutdown();
     }
 
+    @Test
+    public void shouldRotateIntoPreallocatedLogFileAndTruncateItOnShutdown() throws Exception
+    {
+        // GIVEN
+        String name = "log";
+        LifeSupport life = new LifeSupport();
+        PhysicalLogFiles logFiles = new PhysicalLogFiles( directory.directory(), name, fs );
+        PhysicalLogFile logFile = life.add( preallocatingLogFile( logFiles ) );
+        life.start();
+        assertEquals( 1000 + LOG_HEADER_SIZE, fs.getFileSize( logFiles.getPreallocatedLogFile() ) );
+
+        // WHEN
+        new LogEntryWriter( logFile.getWriter() ).writeCheckPointEntry( new LogPosition( 1, LOG_HEADER_SIZE ) );
+        logFile.getWriter().prepareForFlush().flush();
+        logFile.rotate();
+
+        // THEN
+        assertEquals( 1000 + LOG_HEADER_SIZE, fs.getFileSize( logFiles.getLogFileForVersion( 2 ) ) );
+        assertEquals( 2L, logFiles.extractHeader( 2 ).logVersion );
+        assertFalse( logFiles.hasAnyEntries( 2 ) );
+        assertTrue( fs.fileExists( logFiles.getPreallocatedLogFile() ) );
+
+        // WHEN
+        LogPosition checkPointPosition = new LogPosition( 2, LOG_HEADER_SIZE );
+        new LogEntryWriter( logFile.getWriter() ).writeCheckPointEntry( checkPointPosition );
+        life.shutdown();
+
+        // THEN
+        assertEquals( LOG_HEADER_SIZE + CHECK_POINT_ENTRY_SIZE, fs.getFileSize( logFiles.getLogFileForVersion( 2 ) ) );
+        assertTrue( logFiles.hasAnyEntries( 2 ) );
+    }
+
+    @Test
+    public void shouldAppendAfterTheLogDataInPreallocatedLogFileAfterCrash() throws Exception
+    {
+        // GIVEN
+        String name = "log";
+        LifeSupport crashedLife = new LifeSupport();
+        PhysicalLogFiles logFiles = new PhysicalLogFiles( directory.directory(), name, fs );
+        PhysicalLogFile crashedLogFile = crashedLife.add( preallocatingLogFile( logFiles ) );
+        crashedLife.start();
+        crashedLogFile.rotate();
+        FlushablePositionAwareChannel crashedWriter = crashedLogFile.getWriter();
+        new LogEntryWriter( crashedWriter ).writeCheckPointEntry( new LogPosition( 2, LOG_HEADER_SIZE ) );
+        crashedWriter.prepareForFlush().flush();
+
+        // WHEN
+        LifeSupport life = new LifeSupport();
+        PhysicalLogFile logFile = life.add( preallocatingLogFile( logFiles ) );
+        life.start();
+        try
+        {
+            // THEN
+            LogPositionMarker marker = new LogPositionMarker();
+            logFile.getWriter().getCurrentPosition( marker );
+            assertEquals( 2L, marker.getLogVersion() );
+            assertEquals( LOG_HEADER_SIZE + CHECK_POINT_ENTRY_SIZE, marker.getByteOffset() );
+        }
+        finally
+        {
+            life.shutdown();
+            crashedLife.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldReadAllEntriesWrittenAcrossRotationOutOfPreallocatedLogFile() throws Exception
+    {
+        // GIVEN
+        String name = "log";
+        LifeSupport life = new LifeSupport();
+        PhysicalLogFiles logFiles = new PhysicalLogFiles( directory.directory(), name, fs );
+        PhysicalLogFile logFile = life.add( preallocatingLogFile( logFiles ) );
+        life.start();
+        try
+        {
+            logFile.rotate();
+            LogEntryWriter entryWriter = new LogEntryWriter( logFile.getWriter() );
+            int entries = 0;
+            while ( !logFile.rotationNeeded() )
+            {
+                entryWriter.writeCheckPointEntry( new LogPosition( 2, entries++ ) );
+                logFile.getWriter().prepareForFlush().flush();
+            }
+            logFile.rotate();
+            for ( int i = 0; i < 5; i++ )
+            {
+                entryWriter.writeCheckPointEntry( new LogPosition( 3, entries++ ) );
+            }
+            logFile.getWriter().prepareForFlush().flush();
+
+            // WHEN
+            int read = 0;
+            VersionAwareLogEntryReader<ReadableLogChannel> entryReader = new VersionAwareLogEntryReader<>();
+            try ( ReadableLogChannel reader = logFile.getReader( new LogPosition( 2, LOG_HEADER_SIZE ) ) )
+            {
+                LogEntry entry;
+                while ( (entry = entryReader.readLogEntry( reader )) != null )
+                {
+                    CheckPoint checkPoint = entry.as();
+                    assertEquals( read++, checkPoint.getLogPosition().getByteOffset() );
+                }
+            }
+
+            // THEN
+            assertEquals( entries, read );
+        }
+        finally
+        {
+            life.shutdown();
+        }
+    }
+
+    private PhysicalLogFile preallocatingLogFile( PhysicalLogFiles logFiles )
+    {
+        return new PhysicalLogFile( fs, logFiles, 1000, transactionIdStore::getLastCommittedTransactionId,
+                logVersionRepository, mock( Monitor.class ), new LogHeaderCache( 10 ),
+                new VersionAwareLogEntryReader<>(), Runnable::run );
+    }
+
     private byte[] readBytes( ReadableClosableChannel reader, int length ) throws IOException
     {
         byte[] result = new byte[length];
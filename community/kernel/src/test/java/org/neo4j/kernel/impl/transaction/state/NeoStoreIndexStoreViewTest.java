@@ -26,19 +26,23 @@ import org.junit.Test;
 import org.mockito.InOrder;
 import org.mockito.stubbing.Answer;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.neo4j.graphdb.Label;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.schema.IndexDefinition;
 import org.neo4j.helpers.collection.Visitor;
 import org.neo4j.kernel.api.Statement;
 import org.neo4j.kernel.api.exceptions.EntityNotFoundException;
 import org.neo4j.kernel.api.exceptions.KernelException;
 import org.neo4j.kernel.api.exceptions.PropertyNotFoundException;
+import org.neo4j.kernel.api.index.IndexDescriptor;
 import org.neo4j.kernel.api.index.NodePropertyUpdate;
 import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
 import org.neo4j.kernel.api.properties.Property;
@@ -49,6 +53,7 @@ import org.neo4j.kernel.impl.locking.Lock;
 import org.neo4j.kernel.impl.locking.LockService;
 import org.neo4j.kernel.impl.storageengine.impl.recordstorage.RecordStorageEngine;
 import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.SchemaStorage;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.store.record.RecordLoad;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
@@ -62,6 +67,7 @@ import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.neo4j.helpers.collection.Iterators.asSet;
 import static org.neo4j.helpers.collection.Iterators.emptySetOf;
+import static org.neo4j.register.Registers.newDoubleLongRegister;
 
 public class NeoStoreIndexStoreViewTest
 {
@@ -197,6 +203,43 @@ public class NeoStoreIndexStoreViewTest
                 propertyUpdates.getPropertyUpdates(), Matchers.hasSize(2) );
     }
 
+    @Test
+    public void shouldKeepStatisticsOfCompositeIndexesApart() throws Exception
+    {
+        // given two composite indexes on property keys with the same hash code
+        int[] keyIds = createPropertyKeys( 34 );
+        IndexDescriptor first = new IndexDescriptor( (int) labelId, new int[]{keyIds[0], keyIds[33]} );
+        IndexDescriptor second = new IndexDescriptor( (int) labelId, new int[]{keyIds[1], keyIds[2]} );
+        assertEquals( Arrays.hashCode( first.getPropertyKeyIds() ), Arrays.hashCode( second.getPropertyKeyIds() ) );
+        IndexDefinition firstIndex = createIndex( "key0", "key33" );
+        createIndex( "key1", "key2" );
+
+        // when
+        storeView.replaceIndexCounts( first, 3, 4, 5 );
+        storeView.incrementIndexUpdates( first, 6 );
+
+        // then
+        assertEquals( 3, storeView.indexSample( first, newDoubleLongRegister() ).readFirst() );
+        assertEquals( 6, storeView.indexUpdatesAndSize( first, newDoubleLongRegister() ).readFirst() );
+        assertEquals( 0, storeView.indexSample( second, newDoubleLongRegister() ).readFirst() );
+        assertEquals( 0, storeView.indexUpdatesAndSize( second, newDoubleLongRegister() ).readFirst() );
+        assertEquals( 0, storeView.indexSample( new IndexDescriptor( (int) labelId, keyIds[0] ),
+                newDoubleLongRegister() ).readFirst() );
+
+        // and when the first index is dropped, which removes its rule before its statistics
+        int firstStatisticsKey = new SchemaStorage( neoStores.getSchemaStore() ).indexRule( first )
+                .getStatisticsPropertyKeyId();
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            firstIndex.drop();
+            tx.success();
+        }
+
+        // then its statistics are removed as well
+        assertEquals( 0, neoStores.getCounts().indexSample( (int) labelId, firstStatisticsKey,
+                newDoubleLongRegister() ).readFirst() );
+    }
+
     private void createAlistairAndStefanNodes()
     {
         try ( Transaction tx = graphDb.beginTx() )
@@ -237,6 +280,42 @@ public class NeoStoreIndexStoreViewTest
         }
     }
 
+    private int[] createPropertyKeys( int count ) throws KernelException
+    {
+        int[] keyIds = new int[count];
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            ThreadToStatementContextBridge bridge =
+                    graphDb.getDependencyResolver().resolveDependency( ThreadToStatementContextBridge.class );
+
+            try ( Statement statement = bridge.get() )
+            {
+                for ( int i = 0; i < count; i++ )
+                {
+                    keyIds[i] = statement.dataWriteOperations().propertyKeyGetOrCreateForName( "key" + i );
+                }
+            }
+            tx.success();
+        }
+        return keyIds;
+    }
+
+    private IndexDefinition createIndex( String firstKey, String secondKey )
+    {
+        IndexDefinition index;
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            index = graphDb.schema().indexFor( label ).on( firstKey ).on( secondKey ).create();
+            tx.success();
+        }
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            graphDb.schema().awaitIndexOnline( index, 10, TimeUnit.SECONDS );
+            tx.success();
+        }
+        return index;
+    }
+
     private static class CopyUpdateVisitor implements Visitor<NodePropertyUpdates,RuntimeException>
     {
 
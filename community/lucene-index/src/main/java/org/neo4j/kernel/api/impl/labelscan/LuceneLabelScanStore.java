@@ -45,7 +45,7 @@ public class LuceneLabelScanStore implements LabelScanStore
     private final Monitor monitor;
     private boolean needsRebuild;
 
-    public interface Monitor
+    public interface Monitor extends LabelScanStore.Monitor
     {
         Monitor EMPTY = new Monitor()
         {
@@ -80,17 +80,7 @@ public class LuceneLabelScanStore implements LabelScanStore
             }
         };
 
-        void init();
-
-        void noIndex();
-
         void lockedIndex( LockObtainFailedException e );
-
-        void corruptedIndex();
-
-        void rebuilding();
-
-        void rebuilt( long roughNodeCount );
     }
 
     public LuceneLabelScanStore( LuceneLabelScanIndex luceneIndex, FullStoreChangeStream fullStoreStream,
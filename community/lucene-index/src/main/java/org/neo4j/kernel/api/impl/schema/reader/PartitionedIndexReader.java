@@ -32,8 +32,10 @@ import org.neo4j.kernel.api.impl.index.partition.PartitionSearcher;
 import org.neo4j.kernel.api.impl.index.sampler.AggregatingIndexSampler;
 import org.neo4j.kernel.api.index.IndexConfiguration;
 import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.storageengine.api.schema.IndexOrder;
 import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.IndexSampler;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
 
 /**
  * Index reader that is able to read/sample multiple partitions of a partitioned Lucene index.
@@ -81,6 +83,26 @@ public class PartitionedIndexReader implements IndexReader
         return partitionedOperation( reader -> reader.rangeSeekByString( lower, includeLower, upper, includeUpper ) );
     }
 
+    @Override
+    public boolean hasOrderedRangeSeek()
+    {
+        // Lucene documents don't hold on to their values, which ordering by value would need
+        return false;
+    }
+
+    @Override
+    public NodeValueIterator rangeSeekByNumberInclusive( Number lower, Number upper, IndexOrder order )
+    {
+        throw new UnsupportedOperationException( "Lucene schema indexes can not seek in value order" );
+    }
+
+    @Override
+    public NodeValueIterator rangeSeekByString( String lower, boolean includeLower, String upper,
+            boolean includeUpper, IndexOrder order )
+    {
+        throw new UnsupportedOperationException( "Lucene schema indexes can not seek in value order" );
+    }
+
     @Override
     public PrimitiveLongIterator rangeSeekByPrefix( String prefix )
     {
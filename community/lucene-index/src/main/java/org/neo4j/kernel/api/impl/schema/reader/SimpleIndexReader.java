@@ -38,8 +38,10 @@ import org.neo4j.kernel.api.impl.schema.sampler.NonUniqueLuceneIndexSampler;
 import org.neo4j.kernel.api.impl.schema.sampler.UniqueLuceneIndexSampler;
 import org.neo4j.kernel.api.index.IndexConfiguration;
 import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.storageengine.api.schema.IndexOrder;
 import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.IndexSampler;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
 
 import static org.neo4j.kernel.api.impl.schema.LuceneDocumentStructure.NODE_ID_KEY;
 
@@ -98,6 +100,26 @@ public class SimpleIndexReader implements IndexReader
         return query( LuceneDocumentStructure.newRangeSeekByStringQuery( lower, includeLower, upper, includeUpper ) );
     }
 
+    @Override
+    public boolean hasOrderedRangeSeek()
+    {
+        // Lucene documents don't hold on to their values, which ordering by value would need
+        return false;
+    }
+
+    @Override
+    public NodeValueIterator rangeSeekByNumberInclusive( Number lower, Number upper, IndexOrder order )
+    {
+        throw new UnsupportedOperationException( "Lucene schema indexes can not seek in value order" );
+    }
+
+    @Override
+    public NodeValueIterator rangeSeekByString( String lower, boolean includeLower, String upper,
+            boolean includeUpper, IndexOrder order )
+    {
+        throw new UnsupportedOperationException( "Lucene schema indexes can not seek in value order" );
+    }
+
     @Override
     public PrimitiveLongIterator rangeSeekByPrefix( String prefix )
     {
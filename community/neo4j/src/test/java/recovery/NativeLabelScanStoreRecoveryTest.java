@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package recovery;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.config.Setting;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.labelscan.LabelScanStore;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointer;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.SimpleTriggerInfo;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.kernel.monitoring.Monitors;
+import org.neo4j.test.TestGraphDatabaseFactory;
+import org.neo4j.test.rule.fs.EphemeralFileSystemRule;
+
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.graphdb.Label.label;
+import static org.neo4j.helpers.collection.Iterators.asSet;
+import static org.neo4j.test.rule.fs.EphemeralFileSystemRule.shutdownDbAction;
+
+public class NativeLabelScanStoreRecoveryTest
+{
+    @Rule
+    public final EphemeralFileSystemRule fsRule = new EphemeralFileSystemRule();
+    private final RebuildMonitor monitor = new RebuildMonitor();
+    private GraphDatabaseService db;
+
+    @Before
+    public void before()
+    {
+        db = startDatabase( fsRule.get() );
+    }
+
+    @After
+    public void after()
+    {
+        db.shutdown();
+    }
+
+    @Test
+    public void shouldRecoverLabelChangesAfterLastCheckpointWithoutRebuilding() throws Exception
+    {
+        // given a native label scan store, which was built when the database was first started
+        assertTrue( monitor.rebuilding );
+        long a = createNode( "A" );
+        long b = createNode( "A" );
+        checkPoint();
+        long c = createNode( "A" );
+        setLabels( b, "B" );
+        setLabels( a, "A", "B" );
+        flushPageCache();
+
+        // when
+        monitor.rebuilding = false;
+        crashAndRestart();
+
+        // then
+        assertEquals( asSet( a, c ), nodesWithLabel( "A" ) );
+        assertEquals( asSet( a, b ), nodesWithLabel( "B" ) );
+        assertFalse( monitor.rebuilding );
+    }
+
+    private void checkPoint() throws IOException
+    {
+        ((GraphDatabaseAPI) db).getDependencyResolver().resolveDependency( CheckPointer.class )
+                .forceCheckPoint( new SimpleTriggerInfo( "test" ) );
+    }
+
+    /**
+     * Flushes the changes made after the last checkpoint, so that they have to be undone on recovery.
+     */
+    private void flushPageCache() throws IOException
+    {
+        ((GraphDatabaseAPI) db).getDependencyResolver().resolveDependency( PageCache.class ).flushAndForce();
+    }
+
+    private void crashAndRestart()
+    {
+        FileSystemAbstraction uncleanFs = fsRule.snapshot( shutdownDbAction( db ) );
+        db = startDatabase( uncleanFs );
+    }
+
+    private long createNode( String label )
+    {
+        try ( Transaction tx = db.beginTx() )
+        {
+            long id = db.createNode( label( label ) ).getId();
+            tx.success();
+            return id;
+        }
+    }
+
+    private void setLabels( long nodeId, String... labels )
+    {
+        try ( Transaction tx = db.beginTx() )
+        {
+            Node node = db.getNodeById( nodeId );
+            for ( Label label : node.getLabels() )
+            {
+                node.removeLabel( label );
+            }
+            for ( String label : labels )
+            {
+                node.addLabel( label( label ) );
+            }
+            tx.success();
+        }
+    }
+
+    private Set<Long> nodesWithLabel( String label )
+    {
+        Set<Long> nodes = new HashSet<>();
+        try ( Transaction tx = db.beginTx();
+              ResourceIterator<Node> found = db.findNodes( label( label ) ) )
+        {
+            found.forEachRemaining( node -> nodes.add( node.getId() ) );
+            tx.success();
+        }
+        return nodes;
+    }
+
+    private GraphDatabaseService startDatabase( FileSystemAbstraction fs )
+    {
+        Monitors monitors = new Monitors();
+        monitors.addMonitorListener( monitor );
+        Map<Setting<?>,String> config = singletonMap( GraphDatabaseSettings.native_label_scan_store_enabled, "true" );
+        return new TestGraphDatabaseFactory()
+                .setFileSystem( fs )
+                .setMonitors( monitors )
+                .newImpermanentDatabase( config );
+    }
+
+    private static class RebuildMonitor implements LabelScanStore.Monitor
+    {
+        volatile boolean rebuilding;
+
+        @Override
+        public void init()
+        {
+        }
+
+        @Override
+        public void noIndex()
+        {
+        }
+
+        @Override
+        public void corruptedIndex()
+        {
+        }
+
+        @Override
+        public void rebuilding()
+        {
+            rebuilding = true;
+        }
+
+        @Override
+        public void rebuilt( long roughNodeCount )
+        {
+        }
+    }
+}
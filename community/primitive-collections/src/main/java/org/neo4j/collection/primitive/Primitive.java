@@ -24,6 +24,7 @@ import org.neo4j.collection.primitive.hopscotch.IntKeyObjectValueTable;
 import org.neo4j.collection.primitive.hopscotch.IntKeyTable;
 import org.neo4j.collection.primitive.hopscotch.IntKeyUnsafeTable;
 import org.neo4j.collection.primitive.hopscotch.LongKeyIntValueTable;
+import org.neo4j.collection.primitive.hopscotch.LongKeyLongValueTable;
 import org.neo4j.collection.primitive.hopscotch.LongKeyLongValueUnsafeTable;
 import org.neo4j.collection.primitive.hopscotch.LongKeyObjectValueTable;
 import org.neo4j.collection.primitive.hopscotch.LongKeyTable;
@@ -88,6 +89,16 @@ public class Primitive
         return new PrimitiveLongIntHashMap( new LongKeyIntValueTable( initialCapacity ), NO_MONITOR );
     }
 
+    public static PrimitiveLongLongMap longLongMap()
+    {
+        return longLongMap( DEFAULT_HEAP_CAPACITY );
+    }
+
+    public static PrimitiveLongLongMap longLongMap( int initialCapacity )
+    {
+        return new PrimitiveLongLongHashMap( new LongKeyLongValueTable( initialCapacity ), NO_MONITOR );
+    }
+
     public static PrimitiveLongLongMap offHeapLongLongMap()
     {
         return offHeapLongLongMap( DEFAULT_OFFHEAP_CAPACITY );
@@ -33,4 +33,9 @@ public interface PrimitiveLongObjectMap<VALUE> extends PrimitiveLongCollection
      * Visit the entries of this map, until all have been visited or the visitor returns 'true'.
      */
     <E extends Exception> void visitEntries( PrimitiveLongObjectVisitor<VALUE, E> visitor ) throws E;
+
+    /**
+     * @return the values of this map, iterated directly without looking up each key.
+     */
+    Iterable<VALUE> values();
 }
@@ -19,6 +19,9 @@
  */
 package org.neo4j.collection.primitive.hopscotch;
 
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 import org.neo4j.collection.primitive.PrimitiveLongObjectMap;
 import org.neo4j.collection.primitive.PrimitiveLongObjectVisitor;
 import org.neo4j.collection.primitive.hopscotch.HopScotchHashingAlgorithm.Monitor;
@@ -87,6 +90,12 @@ public class PrimitiveLongObjectHashMap<VALUE> extends AbstractLongHopScotchColl
         }
     }
 
+    @Override
+    public Iterable<VALUE> values()
+    {
+        return () -> new TableValueIterator<>( table );
+    }
+
     @SuppressWarnings( "EqualsWhichDoesntCheckParameterClass" ) // yes it does
     @Override
     public boolean equals( Object other )
@@ -101,6 +110,49 @@ public class PrimitiveLongObjectHashMap<VALUE> extends AbstractLongHopScotchColl
         return false;
     }
 
+    private static class TableValueIterator<T> implements Iterator<T>
+    {
+        private final Table<T> table;
+        private final long nullKey;
+        private final int capacity;
+        private int index = -1;
+
+        TableValueIterator( Table<T> table )
+        {
+            this.table = table;
+            this.nullKey = table.nullKey();
+            this.capacity = table.capacity();
+            advance();
+        }
+
+        private void advance()
+        {
+            do
+            {
+                index++;
+            }
+            while ( index < capacity && table.key( index ) == nullKey );
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return index < capacity;
+        }
+
+        @Override
+        public T next()
+        {
+            if ( !hasNext() )
+            {
+                throw new NoSuchElementException();
+            }
+            T value = table.value( index );
+            advance();
+            return value;
+        }
+    }
+
     private static class LongObjEquality<T> implements PrimitiveLongObjectVisitor<T,RuntimeException>
     {
         private PrimitiveLongObjectHashMap other;
@@ -181,6 +181,26 @@ public class BasicTableTest
                 return new long[] {1458489572354L};
             }
         } } );
+        result.add( new Object[] { new TableFactory()
+        {
+            @Override
+            public Table newTable( int capacity )
+            {
+                return new LongKeyLongValueTable( capacity );
+            }
+
+            @Override
+            public boolean supportsLongs()
+            {
+                return true;
+            }
+
+            @Override
+            public Object sampleValue()
+            {
+                return new long[] {1458489572354L};
+            }
+        } } );
         return result;
     }
 
@@ -385,6 +385,26 @@ public class PrimitiveCollectionEqualityTest
         }
     };
 
+    @DataPoint
+    public static Factory<PrimitiveLongLongMap> longLongMap = new Factory<PrimitiveLongLongMap>()
+    {
+        @Override
+        public PrimitiveLongLongMap newInstance()
+        {
+            return Primitive.longLongMap();
+        }
+    };
+
+    @DataPoint
+    public static Factory<PrimitiveLongLongMap> longLongMapWithCapacity = new Factory<PrimitiveLongLongMap>()
+    {
+        @Override
+        public PrimitiveLongLongMap newInstance()
+        {
+            return Primitive.longLongMap( randomCapacity() );
+        }
+    };
+
     @DataPoint
     public static Factory<PrimitiveLongLongMap> offheapLongLongMap = new Factory<PrimitiveLongLongMap>()
     {
@@ -1043,6 +1043,28 @@ public class PrimitiveLongMapTest
         assertThat( counter.get(), is( 3 ) );
     }
 
+    @Test
+    public void longObjectValuesShouldSeeAllValues()
+    {
+        // GIVEN
+        PrimitiveLongObjectMap<Integer> map = Primitive.longObjectMap();
+        map.put( 1, 100 );
+        map.put( 2, 200 );
+        map.put( 3, 300 );
+        map.remove( 2 );
+
+        // WHEN
+        Set<Integer> values = new HashSet<>();
+        for ( Integer value : map.values() )
+        {
+            values.add( value );
+        }
+
+        // THEN
+        assertEquals( new HashSet<>( Arrays.asList( 100, 300 ) ), values );
+        assertFalse( Primitive.<Integer>longObjectMap().values().iterator().hasNext() );
+    }
+
     @SuppressWarnings( "unchecked" )
     @Test
     public void intObjectEntryVisitorShouldSeeAllEntriesIfItDoesNotBreakOut()
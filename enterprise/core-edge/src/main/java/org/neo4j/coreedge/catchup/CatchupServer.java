@@ -34,6 +34,7 @@ import io.netty.handler.stream.ChunkedWriteHandler;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
+import org.neo4j.coreedge.catchup.storecopy.FileChunkEncoder;
 import org.neo4j.coreedge.catchup.storecopy.FileHeaderEncoder;
 import org.neo4j.coreedge.catchup.storecopy.core.CoreSnapshotRequestHandler;
 import org.neo4j.coreedge.catchup.storecopy.core.GetStoreRequestHandler;
@@ -44,6 +45,7 @@ import org.neo4j.coreedge.catchup.storecopy.core.CoreSnapshotEncoder;
 import org.neo4j.coreedge.catchup.tx.core.TxPullRequestDecoder;
 import org.neo4j.coreedge.catchup.tx.core.TxPullRequestHandler;
 import org.neo4j.coreedge.catchup.tx.core.TxPullResponseEncoder;
+import org.neo4j.coreedge.catchup.tx.core.TxSubscriptions;
 import org.neo4j.coreedge.catchup.tx.edge.TxStreamFinishedResponseEncoder;
 import org.neo4j.coreedge.raft.state.CoreState;
 import org.neo4j.coreedge.server.ListenSocketAddress;
@@ -68,6 +70,8 @@ public class CatchupServer extends LifecycleAdapter
     private final Supplier<TransactionIdStore> transactionIdStoreSupplier;
     private final Supplier<LogicalTransactionStore> logicalTransactionStoreSupplier;
     private final Supplier<NeoStoreDataSource> dataSourceSupplier;
+    private final TxSubscriptions txSubscriptions;
+    private final boolean compressStoreFiles;
 
     private final NamedThreadFactory threadFactory = new NamedThreadFactory( "catchup-server" );
     private final CoreState coreState;
@@ -85,8 +89,12 @@ public class CatchupServer extends LifecycleAdapter
                           Supplier<NeoStoreDataSource> dataSourceSupplier,
                           Supplier<CheckPointer> checkPointerSupplier,
                           CoreState coreState,
+                          TxSubscriptions txSubscriptions,
+                          boolean compressStoreFiles,
                           ListenSocketAddress listenAddress, Monitors monitors )
     {
+        this.txSubscriptions = txSubscriptions;
+        this.compressStoreFiles = compressStoreFiles;
         this.coreState = coreState;
         this.listenAddress = listenAddress;
         this.transactionIdStoreSupplier = transactionIdStoreSupplier;
@@ -131,18 +139,19 @@ public class CatchupServer extends LifecycleAdapter
                         pipeline.addLast( new StoreCopyFinishedResponseEncoder() );
                         pipeline.addLast( new TxStreamFinishedResponseEncoder() );
                         pipeline.addLast( new FileHeaderEncoder() );
+                        pipeline.addLast( new FileChunkEncoder() );
 
                         pipeline.addLast( new ServerMessageTypeHandler( protocol, logProvider ) );
 
                         pipeline.addLast( new TxPullRequestDecoder( protocol ) );
                         pipeline.addLast( new TxPullRequestHandler( protocol, storeIdSupplier,
                                 transactionIdStoreSupplier, logicalTransactionStoreSupplier,
-                                monitors) );
+                                txSubscriptions, monitors ) );
 
                         pipeline.addLast( new ChunkedWriteHandler() );
                         pipeline.addLast( new GetStoreRequestDecoder( protocol ) );
                         pipeline.addLast( new GetStoreRequestHandler( protocol, dataSourceSupplier,
-                                checkPointerSupplier ) );
+                                checkPointerSupplier, compressStoreFiles ) );
 
                         pipeline.addLast( new CoreSnapshotRequestDecoder( protocol ) );
                         pipeline.addLast( new CoreSnapshotRequestHandler( protocol, coreState ) );
@@ -28,6 +28,7 @@ public enum RequestMessageType implements Message
     TX_PULL_REQUEST( (byte) 1 ),
     STORE( (byte) 2 ),
     RAFT_STATE( (byte) 3 ),
+    TX_SUBSCRIBE_REQUEST( (byte) 4 ),
     UNKNOWN( (byte) 404 );
 
     private byte messageType;
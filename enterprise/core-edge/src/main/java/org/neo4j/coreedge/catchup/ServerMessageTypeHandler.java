@@ -53,6 +53,10 @@ public class ServerMessageTypeHandler extends ChannelInboundHandlerAdapter
             {
                 protocol.expect( NextMessage.TX_PULL );
             }
+            else if ( requestMessageType.equals( RequestMessageType.TX_SUBSCRIBE_REQUEST ) )
+            {
+                protocol.expect( NextMessage.TX_SUBSCRIBE );
+            }
             else if ( requestMessageType.equals( RequestMessageType.STORE ) )
             {
                 protocol.expect( NextMessage.GET_STORE );
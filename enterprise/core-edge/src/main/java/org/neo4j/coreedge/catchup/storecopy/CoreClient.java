@@ -95,6 +95,17 @@ public abstract class CoreClient extends LifecycleAdapter implements StoreFileRe
         pullRequestMonitor.txPullRequest( lastTransactionId );
     }
 
+    /**
+     * Like {@link #pollForTransactions(CoreMember, long)}, but the core server keeps streaming transactions
+     * as they get committed, until another request for transactions is made.
+     */
+    public void subscribeToTransactions( CoreMember serverAddress, long lastTransactionId )
+    {
+        TxPullRequest txPullRequest = new TxPullRequest( lastTransactionId, true );
+        send( serverAddress, txPullRequest.messageType(), txPullRequest );
+        pullRequestMonitor.txPullRequest( lastTransactionId );
+    }
+
     private void send( CoreMember to, RequestMessageType messageType, Message contentMessage )
     {
         outbound.send( to,  asList( messageType, contentMessage ) );
@@ -150,6 +161,12 @@ public abstract class CoreClient extends LifecycleAdapter implements StoreFileRe
                 listener -> listener.onFileStreamingComplete( lastCommittedTxBeforeStoreCopy ) );
     }
 
+    @Override
+    public void onFileStreamingFailed( Throwable cause )
+    {
+        storeFileStreamingCompleteListeners.notify( listener -> listener.onFileStreamingFailed( cause ) );
+    }
+
     @Override
     public void onTxStreamingComplete( long lastTransactionId )
     {
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.coreedge.catchup.storecopy;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A piece of a store file being copied. The contents of a file are sent as a sequence of chunks following its
+ * {@link FileHeader}, each holding at most {@link #MAX_SIZE} bytes of the file, either as they are, compressed,
+ * or not at all if they are all zeros. The last chunk of a file carries a checksum of the whole file.
+ */
+public class FileChunk
+{
+    public static final int MAX_SIZE = 32 * 1024;
+
+    public enum Encoding
+    {
+        RAW,
+        LZ4,
+        ZEROS
+    }
+
+    private final Encoding encoding;
+    private final int length;
+    private final byte[] payload;
+    private final boolean last;
+    private final long checksum;
+
+    public FileChunk( Encoding encoding, int length, byte[] payload, boolean last, long checksum )
+    {
+        this.encoding = encoding;
+        this.length = length;
+        this.payload = payload;
+        this.last = last;
+        this.checksum = checksum;
+    }
+
+    public Encoding encoding()
+    {
+        return encoding;
+    }
+
+    /**
+     * @return the number of bytes of the file in this chunk, which for compressed or zero chunks is more
+     * than the length of the payload.
+     */
+    public int length()
+    {
+        return length;
+    }
+
+    public byte[] payload()
+    {
+        return payload;
+    }
+
+    public boolean isLast()
+    {
+        return last;
+    }
+
+    /**
+     * @return the CRC32 checksum of the whole file, only set on the last chunk.
+     */
+    public long checksum()
+    {
+        return checksum;
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+        FileChunk that = (FileChunk) o;
+        return length == that.length &&
+                last == that.last &&
+                checksum == that.checksum &&
+                encoding == that.encoding &&
+                Arrays.equals( payload, that.payload );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash( encoding, length, last, checksum ) * 31 + Arrays.hashCode( payload );
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format( "FileChunk{encoding=%s, length=%d, payloadLength=%d, last=%s, checksum=%d}",
+                encoding, length, payload.length, last, checksum );
+    }
+}
@@ -19,54 +19,149 @@
  */
 package org.neo4j.coreedge.catchup.storecopy;
 
+import java.io.IOException;
 import java.io.OutputStream;
+import java.util.zip.CRC32;
 
-import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 
 import org.neo4j.coreedge.catchup.storecopy.edge.StoreFileReceiver;
+import org.neo4j.coreedge.catchup.storecopy.edge.StoreFileStreamingCompleteListener;
 import org.neo4j.coreedge.catchup.CatchupClientProtocol;
 
+import static java.lang.String.format;
 import static org.neo4j.coreedge.catchup.CatchupClientProtocol.NextMessage;
 
-public class FileContentHandler extends SimpleChannelInboundHandler<ByteBuf>
+/**
+ * Writes the {@link FileChunk chunks} of a store file to its destination and verifies the checksum of the file
+ * once its last chunk has arrived. A file that fails to be written or doesn't match its checksum fails the store
+ * copy, but the rest of its chunks are still consumed, to keep following the protocol.
+ */
+public class FileContentHandler extends SimpleChannelInboundHandler<FileChunk>
 {
     private final CatchupClientProtocol protocol;
-    private long expectedBytes = 0;
+    private final StoreFileReceiver location;
+    private final StoreFileStreamingCompleteListener listener;
+
+    private final byte[] buffer = new byte[FileChunk.MAX_SIZE];
+    private final byte[] zeros = new byte[FileChunk.MAX_SIZE];
+    private final CRC32 checksum = new CRC32();
 
-    private StoreFileReceiver location;
     private String destination;
+    private OutputStream outputStream;
+    private boolean failed;
 
-    public FileContentHandler( CatchupClientProtocol protocol, StoreFileReceiver location )
+    public FileContentHandler( CatchupClientProtocol protocol, StoreFileReceiver location,
+            StoreFileStreamingCompleteListener listener )
     {
         this.protocol = protocol;
         this.location = location;
+        this.listener = listener;
     }
 
     public void setExpectedFile( FileHeader fileHeader )
     {
-        this.expectedBytes = fileHeader.fileLength();
         this.destination = fileHeader.fileName();
+        this.checksum.reset();
+        this.failed = false;
     }
 
     @Override
-    protected void channelRead0( ChannelHandlerContext ctx, ByteBuf msg ) throws Exception
+    protected void channelRead0( ChannelHandlerContext ctx, FileChunk chunk ) throws Exception
     {
-        if ( protocol.isExpecting( NextMessage.FILE_CONTENTS ) )
+        if ( !protocol.isExpecting( NextMessage.FILE_CONTENTS ) )
+        {
+            return;
+        }
+
+        if ( !failed )
         {
-            int bytesInMessage = msg.readableBytes();
-            try ( OutputStream outputStream = location.getStoreFileStreams().createStream( destination ) )
+            try
             {
-                msg.readBytes( outputStream, bytesInMessage );
+                write( chunk );
+                if ( chunk.isLast() )
+                {
+                    closeStream();
+                    if ( checksum.getValue() != chunk.checksum() )
+                    {
+                        throw new IOException( format( "Checksum mismatch for %s, expected %d but was %d",
+                                destination, chunk.checksum(), checksum.getValue() ) );
+                    }
+                }
             }
-
-            expectedBytes -= bytesInMessage;
-
-            if ( expectedBytes <= 0 )
+            catch ( IOException e )
             {
-                protocol.expect( NextMessage.MESSAGE_TYPE );
+                failed = true;
+                closeStreamQuietly();
+                listener.onFileStreamingFailed( e );
             }
         }
+
+        if ( chunk.isLast() )
+        {
+            protocol.expect( NextMessage.MESSAGE_TYPE );
+        }
+    }
+
+    private void write( FileChunk chunk ) throws IOException
+    {
+        if ( chunk.length() > FileChunk.MAX_SIZE )
+        {
+            throw new IOException( format( "Chunk of %s is too large: %d bytes", destination, chunk.length() ) );
+        }
+
+        byte[] contents;
+        switch ( chunk.encoding() )
+        {
+        case RAW:
+            contents = chunk.payload();
+            break;
+        case LZ4:
+            Lz4Block.decompress( chunk.payload(), chunk.payload().length, buffer, chunk.length() );
+            contents = buffer;
+            break;
+        case ZEROS:
+            contents = zeros;
+            break;
+        default:
+            throw new IllegalStateException( "Unknown encoding " + chunk.encoding() );
+        }
+
+        if ( outputStream == null )
+        {
+            outputStream = location.getStoreFileStreams().createStream( destination );
+        }
+        outputStream.write( contents, 0, chunk.length() );
+        checksum.update( contents, 0, chunk.length() );
+    }
+
+    private void closeStream() throws IOException
+    {
+        if ( outputStream != null )
+        {
+            OutputStream stream = outputStream;
+            outputStream = null;
+            stream.close();
+        }
+    }
+
+    private void closeStreamQuietly()
+    {
+        try
+        {
+            closeStream();
+        }
+        catch ( IOException e )
+        {
+            // the store copy has already failed
+        }
+    }
+
+    @Override
+    public void channelInactive( ChannelHandlerContext ctx ) throws Exception
+    {
+        closeStreamQuietly();
+        super.channelInactive( ctx );
     }
 }
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.coreedge.catchup.storecopy;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Compression and decompression of single blocks in the LZ4 block format. The compressor is a simple greedy
+ * one, trading some compression ratio for speed, which is what store copy needs: store files are either mostly
+ * empty or hard to compress, and the point is to not spend more time compressing than is saved on the wire.
+ */
+public class Lz4Block
+{
+    private static final int MIN_MATCH = 4;
+    private static final int LAST_LITERALS = 5;
+    private static final int MATCH_FIND_LIMIT = 12;
+    private static final int MAX_DISTANCE = 0xFFFF;
+    private static final int RUN_MASK = 0xF;
+    private static final int HASH_LOG = 12;
+
+    private final int[] hashTable = new int[1 << HASH_LOG];
+
+    /**
+     * @return the size the compressed form of {@code length} bytes will at most take up.
+     */
+    public static int maxCompressedLength( int length )
+    {
+        return length + length / 255 + 16;
+    }
+
+    /**
+     * Compresses {@code length} bytes of {@code source} into {@code target}, which must have room for at least
+     * {@link #maxCompressedLength(int)} bytes.
+     *
+     * @return the length of the compressed block.
+     */
+    public int compress( byte[] source, int length, byte[] target )
+    {
+        Arrays.fill( hashTable, -1 );
+        int sourceOffset = 0;
+        int anchor = 0;
+        int targetOffset = 0;
+
+        if ( length > MATCH_FIND_LIMIT )
+        {
+            int matchLimit = length - LAST_LITERALS;
+            int findLimit = length - MATCH_FIND_LIMIT;
+
+            while ( sourceOffset < findLimit )
+            {
+                int value = readInt( source, sourceOffset );
+                int hash = hash( value );
+                int reference = hashTable[hash];
+                hashTable[hash] = sourceOffset;
+
+                if ( reference < 0 || sourceOffset - reference > MAX_DISTANCE || readInt( source, reference ) != value )
+                {
+                    sourceOffset++;
+                    continue;
+                }
+
+                while ( sourceOffset > anchor && reference > 0 && source[sourceOffset - 1] == source[reference - 1] )
+                {
+                    sourceOffset--;
+                    reference--;
+                }
+
+                int matchLength = MIN_MATCH;
+                while ( sourceOffset + matchLength < matchLimit &&
+                        source[sourceOffset + matchLength] == source[reference + matchLength] )
+                {
+                    matchLength++;
+                }
+
+                targetOffset = writeLiterals( source, anchor, sourceOffset - anchor, target, targetOffset,
+                        matchLength - MIN_MATCH );
+                int distance = sourceOffset - reference;
+                target[targetOffset++] = (byte) distance;
+                target[targetOffset++] = (byte) (distance >>> 8);
+                targetOffset = writeLength( matchLength - MIN_MATCH, target, targetOffset );
+
+                sourceOffset += matchLength;
+                anchor = sourceOffset;
+            }
+        }
+
+        return writeLiterals( source, anchor, length - anchor, target, targetOffset, 0 );
+    }
+
+    /**
+     * Decompresses the {@code compressedLength} bytes of {@code source} into {@code target}, where they must
+     * expand to exactly {@code length} bytes.
+     *
+     * @throws IOException if the block is malformed.
+     */
+    public static void decompress( byte[] source, int compressedLength, byte[] target, int length )
+            throws IOException
+    {
+        int sourceOffset = 0;
+        int targetOffset = 0;
+
+        while ( true )
+        {
+            checkBounds( sourceOffset + 1 <= compressedLength );
+            int token = source[sourceOffset++] & 0xFF;
+
+            int literalLength = token >>> 4;
+            if ( literalLength == RUN_MASK )
+            {
+                int b;
+                do
+                {
+                    checkBounds( sourceOffset + 1 <= compressedLength );
+                    b = source[sourceOffset++] & 0xFF;
+                    literalLength += b;
+                }
+                while ( b == 0xFF );
+            }
+
+            checkBounds( sourceOffset + literalLength <= compressedLength && targetOffset + literalLength <= length );
+            System.arraycopy( source, sourceOffset, target, targetOffset, literalLength );
+            sourceOffset += literalLength;
+            targetOffset += literalLength;
+
+            if ( sourceOffset == compressedLength )
+            {
+                break;
+            }
+
+            checkBounds( sourceOffset + 2 <= compressedLength );
+            int distance = (source[sourceOffset] & 0xFF) | ((source[sourceOffset + 1] & 0xFF) << 8);
+            sourceOffset += 2;
+
+            int matchLength = token & RUN_MASK;
+            if ( matchLength == RUN_MASK )
+            {
+                int b;
+                do
+                {
+                    checkBounds( sourceOffset + 1 <= compressedLength );
+                    b = source[sourceOffset++] & 0xFF;
+                    matchLength += b;
+                }
+                while ( b == 0xFF );
+            }
+            matchLength += MIN_MATCH;
+
+            int reference = targetOffset - distance;
+            checkBounds( distance > 0 && reference >= 0 && targetOffset + matchLength <= length );
+            // byte by byte, since the match may overlap the bytes it produces
+            for ( int i = 0; i < matchLength; i++ )
+            {
+                target[targetOffset++] = target[reference++];
+            }
+        }
+
+        checkBounds( targetOffset == length );
+    }
+
+    private static int writeLiterals( byte[] source, int offset, int literalLength, byte[] target, int targetOffset,
+            int matchLengthToken )
+    {
+        int token = (Math.min( literalLength, RUN_MASK ) << 4) | Math.min( matchLengthToken, RUN_MASK );
+        target[targetOffset++] = (byte) token;
+        targetOffset = writeLength( literalLength, target, targetOffset );
+        System.arraycopy( source, offset, target, targetOffset, literalLength );
+        return targetOffset + literalLength;
+    }
+
+    private static int writeLength( int length, byte[] target, int targetOffset )
+    {
+        if ( length >= RUN_MASK )
+        {
+            int remaining = length - RUN_MASK;
+            while ( remaining >= 0xFF )
+            {
+                target[targetOffset++] = (byte) 0xFF;
+                remaining -= 0xFF;
+            }
+            target[targetOffset++] = (byte) remaining;
+        }
+        return targetOffset;
+    }
+
+    private static int readInt( byte[] source, int offset )
+    {
+        return (source[offset] & 0xFF) | ((source[offset + 1] & 0xFF) << 8) |
+                ((source[offset + 2] & 0xFF) << 16) | ((source[offset + 3] & 0xFF) << 24);
+    }
+
+    private static int hash( int value )
+    {
+        return (value * -1640531535) >>> (32 - HASH_LOG);
+    }
+
+    private static void checkBounds( boolean condition ) throws IOException
+    {
+        if ( !condition )
+        {
+            throw new IOException( "Malformed LZ4 block" );
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.coreedge.catchup.storecopy.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.stream.ChunkedInput;
+
+import org.neo4j.coreedge.catchup.storecopy.FileChunk;
+import org.neo4j.coreedge.catchup.storecopy.Lz4Block;
+
+/**
+ * Reads the contents of a store file as {@link FileChunk chunks}, to be written by a
+ * {@link io.netty.handler.stream.ChunkedWriteHandler}. Chunks that are all zeros, which is what the unused
+ * parts of the store files mostly consist of, are sent without their contents. Other chunks are compressed if
+ * compression is enabled and it makes them smaller.
+ */
+class FileSender implements ChunkedInput<FileChunk>
+{
+    private final ReadableByteChannel channel;
+    private final boolean compress;
+    private final ByteBuffer buffer = ByteBuffer.allocate( FileChunk.MAX_SIZE );
+    private final CRC32 checksum = new CRC32();
+    private final Lz4Block lz4;
+    private final byte[] compressed;
+
+    private long remaining;
+    private boolean endOfInput;
+
+    FileSender( ReadableByteChannel channel, long fileLength, boolean compress )
+    {
+        this.channel = channel;
+        this.remaining = fileLength;
+        this.compress = compress;
+        this.lz4 = compress ? new Lz4Block() : null;
+        this.compressed = compress ? new byte[Lz4Block.maxCompressedLength( FileChunk.MAX_SIZE )] : null;
+    }
+
+    @Override
+    public boolean isEndOfInput() throws Exception
+    {
+        return endOfInput;
+    }
+
+    @Override
+    public void close() throws Exception
+    {
+        channel.close();
+    }
+
+    @Override
+    public FileChunk readChunk( ChannelHandlerContext ctx ) throws Exception
+    {
+        if ( endOfInput )
+        {
+            return null;
+        }
+
+        int length = read();
+        byte[] data = buffer.array();
+        checksum.update( data, 0, length );
+
+        // stop at the length announced in the file header, even if the file has grown since
+        endOfInput = remaining == 0;
+        long fileChecksum = endOfInput ? checksum.getValue() : 0;
+
+        if ( isZeros( data, length ) )
+        {
+            return new FileChunk( FileChunk.Encoding.ZEROS, length, new byte[0], endOfInput, fileChecksum );
+        }
+        if ( compress )
+        {
+            int compressedLength = lz4.compress( data, length, compressed );
+            if ( compressedLength < length )
+            {
+                return new FileChunk( FileChunk.Encoding.LZ4, length, Arrays.copyOf( compressed, compressedLength ),
+                        endOfInput, fileChecksum );
+            }
+        }
+        return new FileChunk( FileChunk.Encoding.RAW, length, Arrays.copyOf( data, length ), endOfInput,
+                fileChecksum );
+    }
+
+    private int read() throws IOException
+    {
+        buffer.clear();
+        buffer.limit( (int) Math.min( buffer.capacity(), remaining ) );
+        while ( buffer.hasRemaining() )
+        {
+            if ( channel.read( buffer ) < 0 )
+            {
+                // the file has shrunk since the header was sent, which leaves nothing more to send
+                remaining = buffer.position();
+                break;
+            }
+        }
+        remaining -= buffer.position();
+        return buffer.position();
+    }
+
+    private static boolean isZeros( byte[] data, int length )
+    {
+        for ( int i = 0; i < length; i++ )
+        {
+            if ( data[i] != 0 )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -27,7 +27,6 @@ import java.util.function.Supplier;
 
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
-import io.netty.handler.stream.ChunkedNioStream;
 
 import org.neo4j.coreedge.catchup.CatchupServerProtocol;
 import org.neo4j.coreedge.catchup.ResponseMessageType;
@@ -45,16 +44,19 @@ public class GetStoreRequestHandler extends SimpleChannelInboundHandler<GetStore
 {
     private final CatchupServerProtocol protocol;
     private final Supplier<NeoStoreDataSource> dataSource;
+    private final boolean compress;
 
     private Supplier<CheckPointer> checkPointerSupplier;
 
     public GetStoreRequestHandler( CatchupServerProtocol protocol,
                                    Supplier<NeoStoreDataSource> dataSource,
-                                   Supplier<CheckPointer> checkPointerSupplier )
+                                   Supplier<CheckPointer> checkPointerSupplier,
+                                   boolean compress )
     {
         this.protocol = protocol;
         this.dataSource = dataSource;
         this.checkPointerSupplier = checkPointerSupplier;
+        this.compress = compress;
     }
 
     @Override
@@ -79,9 +81,10 @@ public class GetStoreRequestHandler extends SimpleChannelInboundHandler<GetStore
 
     private void sendFile( ChannelHandlerContext ctx, File file ) throws FileNotFoundException
     {
+        long fileLength = file.length();
         ctx.writeAndFlush( ResponseMessageType.FILE );
-        ctx.writeAndFlush( new FileHeader( file.getName(), file.length() ) );
-        ctx.writeAndFlush( new ChunkedNioStream( new FileInputStream( file ).getChannel() ) );
+        ctx.writeAndFlush( new FileHeader( file.getName(), fileLength ) );
+        ctx.writeAndFlush( new FileSender( new FileInputStream( file ).getChannel(), fileLength, compress ) );
     }
 
     private void endStoreCopy( ChannelHandlerContext ctx, long lastCommittedTxBeforeStoreCopy )
@@ -32,6 +32,7 @@ import org.neo4j.coreedge.catchup.ClientMessageTypeHandler;
 import org.neo4j.coreedge.catchup.RequestMessageTypeEncoder;
 import org.neo4j.coreedge.catchup.ResponseMessageTypeEncoder;
 import org.neo4j.coreedge.catchup.storecopy.CoreClient;
+import org.neo4j.coreedge.catchup.storecopy.FileChunkDecoder;
 import org.neo4j.coreedge.catchup.storecopy.FileContentHandler;
 import org.neo4j.coreedge.catchup.storecopy.FileHeaderDecoder;
 import org.neo4j.coreedge.catchup.storecopy.FileHeaderHandler;
@@ -100,7 +101,8 @@ public class EdgeToCoreClient extends CoreClient
             // keep these after type-specific handlers since they process ByteBufs
             pipeline.addLast( new FileHeaderDecoder( protocol ) );
             pipeline.addLast( new FileHeaderHandler( protocol, logProvider ) );
-            pipeline.addLast( new FileContentHandler( protocol, owner ) );
+            pipeline.addLast( new FileChunkDecoder( protocol ) );
+            pipeline.addLast( new FileContentHandler( protocol, owner, owner ) );
 
             pipeline.addLast( new IdleStateHandler( 0, 0, 2, TimeUnit.MINUTES) );
             pipeline.addLast( new IdleChannelReaperHandler( nonBlockingChannels ) );
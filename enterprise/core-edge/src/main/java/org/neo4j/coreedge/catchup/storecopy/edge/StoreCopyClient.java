@@ -40,7 +40,20 @@ public class StoreCopyClient
         coreClient.setStoreFileStreams( storeFileStreams );
 
         CompletableFuture<Long> txId = new CompletableFuture<>();
-        StoreFileStreamingCompleteListener fileStreamingCompleteListener = txId::complete;
+        StoreFileStreamingCompleteListener fileStreamingCompleteListener = new StoreFileStreamingCompleteListener()
+        {
+            @Override
+            public void onFileStreamingComplete( long lastCommittedTxBeforeStoreCopy )
+            {
+                txId.complete( lastCommittedTxBeforeStoreCopy );
+            }
+
+            @Override
+            public void onFileStreamingFailed( Throwable cause )
+            {
+                txId.completeExceptionally( cause );
+            }
+        };
 
         coreClient.addStoreFileStreamingCompleteListener( fileStreamingCompleteListener );
 
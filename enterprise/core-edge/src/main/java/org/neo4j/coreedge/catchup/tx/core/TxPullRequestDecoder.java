@@ -30,6 +30,7 @@ import org.neo4j.coreedge.catchup.CatchupServerProtocol;
 import org.neo4j.coreedge.catchup.tx.edge.TxPullRequest;
 
 import static org.neo4j.coreedge.catchup.CatchupServerProtocol.NextMessage.TX_PULL;
+import static org.neo4j.coreedge.catchup.CatchupServerProtocol.NextMessage.TX_SUBSCRIBE;
 
 public class TxPullRequestDecoder extends MessageToMessageDecoder<ByteBuf>
 {
@@ -43,10 +44,10 @@ public class TxPullRequestDecoder extends MessageToMessageDecoder<ByteBuf>
     @Override
     protected void decode( ChannelHandlerContext ctx, ByteBuf msg, List<Object> out ) throws Exception
     {
-        if ( protocol.isExpecting( TX_PULL ) )
+        if ( protocol.isExpecting( TX_PULL ) || protocol.isExpecting( TX_SUBSCRIBE ) )
         {
             long txId = msg.readLong();
-            out.add( new TxPullRequest( txId ) );
+            out.add( new TxPullRequest( txId, protocol.isExpecting( TX_SUBSCRIBE ) ) );
         }
         else
         {
@@ -22,6 +22,8 @@ package org.neo4j.coreedge.catchup.tx.core;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 
 import org.neo4j.coreedge.catchup.CatchupServerProtocol;
@@ -36,27 +38,51 @@ import org.neo4j.kernel.impl.transaction.log.LogicalTransactionStore;
 import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
 import org.neo4j.kernel.monitoring.Monitors;
 
+/**
+ * Serves transaction pull requests from edge servers. A pull request streams the transactions committed after the
+ * requested one and finishes with a {@link TxStreamFinishedResponse}. A subscribe request does the same, but
+ * afterwards keeps the channel subscribed, streaming transactions as they get committed on this core server, until
+ * the next request on the channel. The streaming happens on the event loop of the channel and pauses while the
+ * channel isn't writable, so that a slow edge server doesn't make this core server buffer up the transaction log in
+ * memory.
+ */
 public class TxPullRequestHandler extends SimpleChannelInboundHandler<TxPullRequest>
 {
     private final CatchupServerProtocol protocol;
     private final StoreId storeId;
     private final TransactionIdStore transactionIdStore;
     private final LogicalTransactionStore logicalTransactionStore;
+    private final TxSubscriptions subscriptions;
     private final TxPullRequestsMonitor monitor;
 
+    private final AtomicBoolean streamScheduled = new AtomicBoolean();
+    private volatile ChannelHandlerContext subscribedContext;
+    private Runnable subscription;
+    private long lastSentTxId;
+
     public TxPullRequestHandler( CatchupServerProtocol protocol,
                                  Supplier<StoreId> storeIdSupplier,
                                  Supplier<TransactionIdStore> transactionIdStoreSupplier,
                                  Supplier<LogicalTransactionStore> logicalTransactionStoreSupplier,
+                                 TxSubscriptions subscriptions,
                                  Monitors monitors )
     {
         this.protocol = protocol;
         this.storeId = storeIdSupplier.get();
         this.transactionIdStore = transactionIdStoreSupplier.get();
         this.logicalTransactionStore = logicalTransactionStoreSupplier.get();
+        this.subscriptions = subscriptions;
         this.monitor = monitors.newMonitor( TxPullRequestsMonitor.class );
     }
 
+    @Override
+    public void channelRead( ChannelHandlerContext ctx, Object msg ) throws Exception
+    {
+        // any request ends the subscription, so that streamed transactions don't get mixed into its response
+        unsubscribe();
+        super.channelRead( ctx, msg );
+    }
+
     @Override
     protected void channelRead0( ChannelHandlerContext ctx, final TxPullRequest msg ) throws Exception
     {
@@ -85,11 +111,107 @@ public class TxPullRequestHandler extends SimpleChannelInboundHandler<TxPullRequ
 
         monitor.increment();
         protocol.expect( NextMessage.MESSAGE_TYPE );
+
+        if ( msg.subscribe() )
+        {
+            subscribe( ctx, endTxId );
+        }
+    }
+
+    private void subscribe( ChannelHandlerContext ctx, long lastSentTxId )
+    {
+        this.lastSentTxId = lastSentTxId;
+        this.subscribedContext = ctx;
+        this.subscription = this::scheduleStreaming;
+        subscriptions.subscribe( subscription );
+        // transactions may have been committed since the cursor above was opened
+        scheduleStreaming();
+    }
+
+    private void unsubscribe()
+    {
+        if ( subscription != null )
+        {
+            subscriptions.unsubscribe( subscription );
+            subscription = null;
+            subscribedContext = null;
+        }
+    }
+
+    private void scheduleStreaming()
+    {
+        ChannelHandlerContext ctx = subscribedContext;
+        if ( ctx != null && streamScheduled.compareAndSet( false, true ) )
+        {
+            ctx.executor().execute( () -> streamCommittedTransactions( ctx ) );
+        }
+    }
+
+    private void streamCommittedTransactions( ChannelHandlerContext ctx )
+    {
+        streamScheduled.set( false );
+        if ( ctx != subscribedContext || !protocol.isExpecting( NextMessage.MESSAGE_TYPE ) )
+        {
+            // unsubscribed in the meantime, or the next request has started to arrive
+            return;
+        }
+        if ( !ctx.channel().isWritable() )
+        {
+            // waiting for the edge server to catch up with what has been sent
+            return;
+        }
+
+        long lastCommittedTxId = transactionIdStore.getLastCommittedTransactionId();
+        if ( lastCommittedTxId <= lastSentTxId )
+        {
+            return;
+        }
+
+        try ( IOCursor<CommittedTransactionRepresentation> cursor =
+                logicalTransactionStore.getTransactions( lastSentTxId + 1 ) )
+        {
+            while ( ctx.channel().isWritable() && cursor.next() )
+            {
+                CommittedTransactionRepresentation tx = cursor.get();
+                long txId = tx.getCommitEntry().getTxId();
+                if ( txId > lastCommittedTxId )
+                {
+                    break;
+                }
+                ctx.write( ResponseMessageType.TX );
+                ctx.write( new TxPullResponse( storeId, tx ) );
+                lastSentTxId = txId;
+            }
+        }
+        catch ( IOException e )
+        {
+            exceptionCaught( ctx, e );
+            return;
+        }
+        ctx.flush();
+    }
+
+    @Override
+    public void channelWritabilityChanged( ChannelHandlerContext ctx ) throws Exception
+    {
+        if ( ctx.channel().isWritable() )
+        {
+            scheduleStreaming();
+        }
+        super.channelWritabilityChanged( ctx );
+    }
+
+    @Override
+    public void channelInactive( ChannelHandlerContext ctx ) throws Exception
+    {
+        unsubscribe();
+        super.channelInactive( ctx );
     }
 
     @Override
     public void exceptionCaught( ChannelHandlerContext ctx, Throwable cause )
     {
+        unsubscribe();
         cause.printStackTrace();
         ctx.close();
     }
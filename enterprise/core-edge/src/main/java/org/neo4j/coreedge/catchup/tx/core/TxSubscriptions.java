@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.coreedge.catchup.tx.core;
+
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import org.neo4j.kernel.impl.api.TransactionCommitProcess;
+
+/**
+ * Keeps track of the edge servers that have subscribed to transactions from this core server, and tells them
+ * whenever transactions have been committed locally so that they can be streamed out.
+ */
+public class TxSubscriptions
+{
+    private final Set<Runnable> subscribers = new CopyOnWriteArraySet<>();
+
+    void subscribe( Runnable onTransactionsCommitted )
+    {
+        subscribers.add( onTransactionsCommitted );
+    }
+
+    void unsubscribe( Runnable onTransactionsCommitted )
+    {
+        subscribers.remove( onTransactionsCommitted );
+    }
+
+    public void transactionsCommitted()
+    {
+        for ( Runnable subscriber : subscribers )
+        {
+            subscriber.run();
+        }
+    }
+
+    /**
+     * @return a commit process which tells the subscribers about transactions once the given commit process has
+     * committed them.
+     */
+    public TransactionCommitProcess notifyingAfterCommit( TransactionCommitProcess commitProcess )
+    {
+        return ( batch, commitEvent, mode ) -> {
+            long txId = commitProcess.commit( batch, commitEvent, mode );
+            transactionsCommitted();
+            return txId;
+        };
+    }
+}
@@ -89,6 +89,12 @@ public class BatchingTxApplier extends LifecycleAdapter implements Runnable
         long receivedTxId = tx.getCommitEntry().getTxId();
         long expectedTxId = lastQueuedTxId + 1;
 
+        if ( receivedTxId < expectedTxId )
+        {
+            // already queued, e.g. sent again after renewing a subscription
+            return;
+        }
+
         if ( receivedTxId != expectedTxId )
         {
             log.warn( "Out of order transaction. Received: " + receivedTxId + " Expected: " + expectedTxId );
@@ -158,4 +164,12 @@ public class BatchingTxApplier extends LifecycleAdapter implements Runnable
     {
         return lastAppliedTxId;
     }
+
+    /**
+     * @return The id of the last transaction queued for application.
+     */
+    long lastQueuedTxId()
+    {
+        return lastQueuedTxId;
+    }
 }
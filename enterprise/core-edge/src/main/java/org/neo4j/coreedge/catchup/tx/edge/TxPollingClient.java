@@ -31,20 +31,28 @@ import org.neo4j.logging.LogProvider;
 
 import static org.neo4j.coreedge.catchup.tx.edge.TxPollingClient.States.INACTIVE;
 import static org.neo4j.coreedge.catchup.tx.edge.TxPollingClient.States.RECEIVING_TRANSACTIONS;
+import static org.neo4j.coreedge.catchup.tx.edge.TxPollingClient.States.SUBSCRIBED;
 import static org.neo4j.coreedge.catchup.tx.edge.TxPollingClient.States.WAIT_NEXT_PULL;
 import static org.neo4j.coreedge.catchup.tx.edge.TxPollingClient.Timeouts.TX_PULLER_TIMEOUT;
 
 /**
  * This class is responsible for pulling transactions from a core server and queuing
- * them to be applied with the {@link BatchingTxApplier}. It operates in two main states:
+ * them to be applied with the {@link BatchingTxApplier}. It operates in three main states:
  *
  *   WAIT_NEXT_PULL:        Waiting for the next "tick" for pulling transactions.
  *   RECEIVING_TRANSACTION: Receiving transactions during the pull.
+ *   SUBSCRIBED:            Receiving transactions as the core server commits them.
  *
  * There is also the initial INACTIVE state, also entered when stopping.
  *
  * Pull requests are issued on a fixed interval, but skipped if the {@link BatchingTxApplier}
  * isn't yet finished with the current work.
+ *
+ * When subscribing is enabled, the pull on the next tick is a subscription instead, and the
+ * core server keeps streaming transactions as they get committed. A tick passing without
+ * any transactions renews the subscription, in case it has been lost along with the connection
+ * to the core server. If the core server didn't even confirm the subscription by then, a plain
+ * pull is issued instead, before trying to subscribe again.
  */
 public class TxPollingClient extends LifecycleAdapter implements TxPullListener
 {
@@ -64,7 +72,8 @@ public class TxPollingClient extends LifecycleAdapter implements TxPullListener
     {
         INACTIVE( new Inactive() ),
         WAIT_NEXT_PULL( new WaitNextPull() ),
-        RECEIVING_TRANSACTIONS( new ReceivingTransactions() );
+        RECEIVING_TRANSACTIONS( new ReceivingTransactions() ),
+        SUBSCRIBED( new Subscribed() );
 
         Handler handler;
 
@@ -81,6 +90,7 @@ public class TxPollingClient extends LifecycleAdapter implements TxPullListener
     private final RenewableTimeoutService timeoutService;
 
     private final long txPullIntervalMillis;
+    private final boolean subscribe;
     private RenewableTimeout timeout;
 
     private States state = INACTIVE;
@@ -91,12 +101,20 @@ public class TxPollingClient extends LifecycleAdapter implements TxPullListener
 
     public TxPollingClient( LogProvider logProvider, CoreClient coreClient, CoreServerSelectionStrategy connectionStrategy,
             RenewableTimeoutService timeoutService, long txPullIntervalMillis, BatchingTxApplier applier )
+    {
+        this( logProvider, coreClient, connectionStrategy, timeoutService, txPullIntervalMillis, false, applier );
+    }
+
+    public TxPollingClient( LogProvider logProvider, CoreClient coreClient, CoreServerSelectionStrategy connectionStrategy,
+            RenewableTimeoutService timeoutService, long txPullIntervalMillis, boolean subscribe,
+            BatchingTxApplier applier )
     {
         this.log = logProvider.getLog( getClass() );
         this.coreClient = coreClient;
         this.connectionStrategy = connectionStrategy;
         this.timeoutService = timeoutService;
         this.txPullIntervalMillis = txPullIntervalMillis;
+        this.subscribe = subscribe;
         this.applier = applier;
     }
 
@@ -149,6 +167,37 @@ public class TxPollingClient extends LifecycleAdapter implements TxPullListener
         state.handler.onTimeout( this );
     }
 
+    private void pullTransactions()
+    {
+        try
+        {
+            CoreMember transactionServer = connectionStrategy.coreServer();
+            coreClient.pollForTransactions( transactionServer, applier.lastAppliedTxId() );
+        }
+        catch ( Exception e )
+        {
+            log.warn( "Tx pull attempt failed, will retry at the next regularly scheduled polling attempt.", e );
+        }
+
+        state = RECEIVING_TRANSACTIONS;
+    }
+
+    private void subscribeToTransactions()
+    {
+        streamingCompleted = false;
+        try
+        {
+            CoreMember transactionServer = connectionStrategy.coreServer();
+            coreClient.subscribeToTransactions( transactionServer, applier.lastQueuedTxId() );
+        }
+        catch ( Exception e )
+        {
+            log.warn( "Tx subscription attempt failed, will retry at the next regularly scheduled polling attempt.", e );
+        }
+
+        state = SUBSCRIBED;
+    }
+
     private static class Inactive implements Handler
     {
         // do nothing
@@ -175,18 +224,14 @@ public class TxPollingClient extends LifecycleAdapter implements TxPullListener
                 ctx.unexpectedCount = 0;
             }
 
-            CoreMember transactionServer;
-            try
+            if ( ctx.subscribe )
             {
-                transactionServer = ctx.connectionStrategy.coreServer();
-                ctx.coreClient.pollForTransactions( transactionServer, ctx.applier.lastAppliedTxId() );
+                ctx.subscribeToTransactions();
             }
-            catch ( Exception e )
+            else
             {
-                ctx.log.warn( "Tx pull attempt failed, will retry at the next regularly scheduled polling attempt.", e );
+                ctx.pullTransactions();
             }
-
-            ctx.state = RECEIVING_TRANSACTIONS;
         }
     }
 
@@ -213,4 +258,39 @@ public class TxPollingClient extends LifecycleAdapter implements TxPullListener
             ctx.state = WAIT_NEXT_PULL;
         }
     }
+
+    private static class Subscribed implements Handler
+    {
+        @Override
+        public void onTimeout( TxPollingClient ctx )
+        {
+            if ( ctx.applier.workPending() )
+            {
+                return;
+            }
+
+            if ( ctx.streamingCompleted )
+            {
+                ctx.subscribeToTransactions();
+            }
+            else
+            {
+                ctx.log.warn( "Tx subscription was not confirmed by the core server, pulling instead." );
+                ctx.pullTransactions();
+            }
+        }
+
+        @Override
+        public void onTxReceived( TxPollingClient ctx, TxPullResponse tx )
+        {
+            ctx.applier.queue( tx.tx() );
+            ctx.timeout.renew();
+        }
+
+        @Override
+        public void onTxStreamingComplete( TxPollingClient ctx )
+        {
+            ctx.streamingCompleted = true;
+        }
+    }
 }
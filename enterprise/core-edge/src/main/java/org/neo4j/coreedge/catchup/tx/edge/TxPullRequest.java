@@ -30,10 +30,21 @@ public class TxPullRequest implements Message
     public static final RequestMessageType MESSAGE_TYPE = RequestMessageType.TX_PULL_REQUEST;
 
     private long txId;
+    private boolean subscribe;
 
     public TxPullRequest( long txId )
+    {
+        this( txId, false );
+    }
+
+    /**
+     * @param subscribe if {@code true} the core server keeps streaming transactions committed after the
+     * ones it sends in response to this request, until another request is made on the same channel.
+     */
+    public TxPullRequest( long txId, boolean subscribe )
     {
         this.txId = txId;
+        this.subscribe = subscribe;
     }
 
     public long txId()
@@ -41,6 +52,16 @@ public class TxPullRequest implements Message
         return txId;
     }
 
+    public boolean subscribe()
+    {
+        return subscribe;
+    }
+
+    public RequestMessageType messageType()
+    {
+        return subscribe ? RequestMessageType.TX_SUBSCRIBE_REQUEST : MESSAGE_TYPE;
+    }
+
     @Override
     public boolean equals( Object o )
     {
@@ -55,20 +76,20 @@ public class TxPullRequest implements Message
 
         TxPullRequest that = (TxPullRequest) o;
 
-        return txId == that.txId;
+        return txId == that.txId && subscribe == that.subscribe;
     }
 
     @Override
     public int hashCode()
     {
         int result = (int) (txId ^ (txId >>> 32));
-        result = 31 * result;
+        result = 31 * result + (subscribe ? 1 : 0);
         return result;
     }
 
     @Override
     public String toString()
     {
-        return format( "TxPullRequest{txId=%d}", txId );
+        return format( "TxPullRequest{txId=%d, subscribe=%s}", txId, subscribe );
     }
 }
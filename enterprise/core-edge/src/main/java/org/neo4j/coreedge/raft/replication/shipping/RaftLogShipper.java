@@ -30,6 +30,7 @@ import org.neo4j.coreedge.raft.RaftMessages;
 import org.neo4j.coreedge.raft.RenewableTimeoutService;
 import org.neo4j.coreedge.raft.log.RaftLogEntry;
 import org.neo4j.coreedge.raft.log.ReadableRaftLog;
+import org.neo4j.coreedge.raft.log.monitoring.FollowerLagMonitor;
 import org.neo4j.coreedge.raft.log.segmented.InFlightMap;
 import org.neo4j.coreedge.raft.net.Outbound;
 import org.neo4j.coreedge.raft.state.InFlightLogEntrySupplier;
@@ -45,7 +46,6 @@ import static org.neo4j.coreedge.raft.replication.shipping.RaftLogShipper.Mode.P
 import static org.neo4j.coreedge.raft.replication.shipping.RaftLogShipper.Timeouts.RESEND;
 
 /// Optimizations
-// TODO: Have several outstanding batches in catchup mode, to bridge the latency gap.
 // TODO: Bisect search for mismatch.
 // TODO: Maximum bound on size of batch in bytes, not just entry count.
 
@@ -82,7 +82,9 @@ public class RaftLogShipper
         /**
          * In the catchup mode we are trying to catch up the follower as quickly
          * as possible. The follower receives batches of entries in series until
-         * it is fully caught up.
+         * it is fully caught up. Up to catchupWindow batches are outstanding at
+         * any time, to bridge the latency between sending a batch and getting its
+         * response back.
          */
         CATCHUP,
         /**
@@ -111,7 +113,9 @@ public class RaftLogShipper
 
     private final long retryTimeMillis;
     private final int catchupBatchSize;
+    private final int catchupWindow;
     private final int maxAllowedShippingLag;
+    private final FollowerLagMonitor lagMonitor;
     private RenewableTimeout timeout;
 
     private long timeoutAbsoluteMillis;
@@ -128,11 +132,14 @@ public class RaftLogShipper
     RaftLogShipper( Outbound<CoreMember, RaftMessages.RaftMessage> outbound, LogProvider logProvider,
                     ReadableRaftLog raftLog, Clock clock,
                     CoreMember leader, CoreMember follower, long leaderTerm, long leaderCommit, long retryTimeMillis,
-                    int catchupBatchSize, int maxAllowedShippingLag, InFlightMap<Long, RaftLogEntry> inFlightMap )
+                    int catchupBatchSize, int catchupWindow, int maxAllowedShippingLag,
+                    InFlightMap<Long, RaftLogEntry> inFlightMap, FollowerLagMonitor lagMonitor )
     {
         this.outbound = outbound;
         this.catchupBatchSize = catchupBatchSize;
+        this.catchupWindow = catchupWindow;
         this.maxAllowedShippingLag = maxAllowedShippingLag;
+        this.lagMonitor = lagMonitor;
         this.logProvider = logProvider;
         this.log = logProvider.getLog( getClass() );
         this.raftLog = raftLog;
@@ -172,6 +179,7 @@ public class RaftLogShipper
             log.error( "Failed to start log shipper " + statusAsString(), e );
         }
         abortTimeout();
+        lagMonitor.followerRemoved( follower );
     }
 
     public synchronized void onMismatch( long lastRemoteAppendIndex, LeaderContext leaderContext )
@@ -198,11 +206,13 @@ public class RaftLogShipper
     {
         boolean progress = newMatchIndex > matchIndex;
         matchIndex = max( newMatchIndex, matchIndex );
+        lagMonitor.followerLag( follower, raftLog.appendIndex() - matchIndex );
 
         switch ( mode )
         {
             case MISMATCH:
-                if ( sendNextBatchAfterMatch( leaderContext ) )
+                lastSentIndex = matchIndex;
+                if ( sendNextBatchesAfterMatch( leaderContext ) )
                 {
                     log.info( "%s: caught up after mismatch, moving to PIPELINE mode", statusAsString() );
                     mode = PIPELINE;
@@ -214,9 +224,9 @@ public class RaftLogShipper
                 }
                 break;
             case CATCHUP:
-                if ( matchIndex >= lastSentIndex )
+                if ( progress || matchIndex >= lastSentIndex )
                 {
-                    if ( sendNextBatchAfterMatch( leaderContext ) )
+                    if ( sendNextBatchesAfterMatch( leaderContext ) )
                     {
                         log.info( "%s: caught up, moving to PIPELINE mode", statusAsString() );
                         mode = PIPELINE;
@@ -241,6 +251,8 @@ public class RaftLogShipper
     public synchronized void onNewEntries( long prevLogIndex, long prevLogTerm, RaftLogEntry[] newLogEntries,
                                            LeaderContext leaderContext )
     {
+        lagMonitor.followerLag( follower, prevLogIndex + newLogEntries.length - matchIndex );
+
         switch ( mode )
         {
             case PIPELINE:
@@ -348,24 +360,34 @@ public class RaftLogShipper
     }
 
     /**
-     * Returns true if this sent the last batch.
+     * Sends batches following the last sent one for as long as the follower has less than catchupWindow
+     * batches, and no more than maxAllowedShippingLag entries, outstanding.
+     * <p>
+     * Returns true if the last batch has been sent.
      */
-    private boolean sendNextBatchAfterMatch( LeaderContext leaderContext )
+    private boolean sendNextBatchesAfterMatch( LeaderContext leaderContext )
     {
         long lastIndex = raftLog.appendIndex();
+        long maxOutstanding = max( catchupBatchSize, min( (long) catchupWindow * catchupBatchSize,
+                maxAllowedShippingLag ) );
+        long startIndex = max( lastSentIndex, matchIndex ) + 1;
 
-        if ( lastIndex > matchIndex )
+        while ( startIndex <= lastIndex )
         {
-            long endIndex = min( lastIndex, matchIndex + catchupBatchSize );
+            long endIndex = min( lastIndex, startIndex + catchupBatchSize - 1 );
+            if ( endIndex - matchIndex > maxOutstanding )
+            {
+                return false;
+            }
 
             scheduleTimeout( retryTimeMillis );
-            sendRange( matchIndex + 1, endIndex, leaderContext );
-            return endIndex == lastIndex;
-        }
-        else
-        {
-            return true;
+            if ( !sendRange( startIndex, endIndex, leaderContext ) )
+            {
+                return endIndex == lastIndex;
+            }
+            startIndex = endIndex + 1;
         }
+        return true;
     }
 
     private void sendCommitUpdate( LeaderContext leaderContext )
@@ -405,11 +427,14 @@ public class RaftLogShipper
         outbound.send( follower, appendRequest );
     }
 
-    private void sendRange( long startIndex, long endIndex, LeaderContext leaderContext )
+    /**
+     * Returns true if the entries were sent, false if the send was aborted.
+     */
+    private boolean sendRange( long startIndex, long endIndex, LeaderContext leaderContext )
     {
         if ( startIndex > endIndex )
         {
-            return;
+            return false;
         }
 
         lastSentIndex = endIndex;
@@ -426,7 +451,7 @@ public class RaftLogShipper
             {
                 log.warn( "%s aborting send. Not leader anymore? %s, prevLogTerm=%d",
                         statusAsString(), leaderContext, prevLogTerm );
-                return;
+                return false;
             }
 
             if ( (prevLogIndex == -1 && prevLogTerm != -1) || (prevLogTerm == -1 && prevLogIndex != -1) )
@@ -436,7 +461,7 @@ public class RaftLogShipper
                         statusAsString(), leaderContext, prevLogTerm );
                 outbound.send( follower, new RaftMessages.LogCompactionInfo( leader, leaderContext.term,
                         prevLogIndex ) );
-                return;
+                return false;
             }
 
             RaftMessages.AppendEntries.Request appendRequest =
@@ -452,16 +477,18 @@ public class RaftLogShipper
                     {
                         log.warn( "%s aborting send. Not leader anymore? %s, entryTerm=%d",
                                 statusAsString(), leaderContext, entries[offset].term() );
-                        return;
+                        return false;
                     }
                 }
             }
 
             outbound.send( follower, appendRequest );
+            return true;
         }
         catch ( IOException e )
         {
             log.warn( statusAsString() + " exception during batch send", e );
+            return false;
         }
     }
 
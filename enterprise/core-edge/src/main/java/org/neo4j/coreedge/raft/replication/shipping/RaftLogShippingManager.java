@@ -31,6 +31,7 @@ import org.neo4j.coreedge.raft.LeaderContext;
 import org.neo4j.coreedge.raft.RaftMessages;
 import org.neo4j.coreedge.raft.log.RaftLogEntry;
 import org.neo4j.coreedge.raft.log.ReadableRaftLog;
+import org.neo4j.coreedge.raft.log.monitoring.FollowerLagMonitor;
 import org.neo4j.coreedge.raft.log.segmented.InFlightMap;
 import org.neo4j.coreedge.raft.membership.RaftMembership;
 import org.neo4j.coreedge.raft.net.Outbound;
@@ -51,8 +52,10 @@ public class RaftLogShippingManager implements RaftMembership.Listener
     private final RaftMembership membership;
     private final long retryTimeMillis;
     private final int catchupBatchSize;
+    private final int catchupWindow;
     private final int maxAllowedShippingLag;
     private final InFlightMap<Long,RaftLogEntry> inFlightMap;
+    private final FollowerLagMonitor lagMonitor;
 
     private Map<CoreMember,RaftLogShipper> logShippers = new HashMap<>();
     private LeaderContext lastLeaderContext;
@@ -63,8 +66,8 @@ public class RaftLogShippingManager implements RaftMembership.Listener
     public RaftLogShippingManager( Outbound<CoreMember,RaftMessages.RaftMessage> outbound, LogProvider logProvider,
                                    ReadableRaftLog raftLog,
                                    Clock clock, CoreMember myself, RaftMembership membership, long retryTimeMillis,
-                                   int catchupBatchSize, int maxAllowedShippingLag,
-                                   InFlightMap<Long, RaftLogEntry> inFlightMap )
+                                   int catchupBatchSize, int catchupWindow, int maxAllowedShippingLag,
+                                   InFlightMap<Long, RaftLogEntry> inFlightMap, FollowerLagMonitor lagMonitor )
     {
         this.outbound = outbound;
         this.logProvider = logProvider;
@@ -74,8 +77,10 @@ public class RaftLogShippingManager implements RaftMembership.Listener
         this.membership = membership;
         this.retryTimeMillis = retryTimeMillis;
         this.catchupBatchSize = catchupBatchSize;
+        this.catchupWindow = catchupWindow;
         this.maxAllowedShippingLag = maxAllowedShippingLag;
         this.inFlightMap = inFlightMap;
+        this.lagMonitor = lagMonitor;
         membership.registerListener( this );
     }
 
@@ -117,7 +122,7 @@ public class RaftLogShippingManager implements RaftMembership.Listener
         {
             logShipper = new RaftLogShipper( outbound, logProvider, raftLog, clock, myself, member,
                     leaderContext.term, leaderContext.commitIndex, retryTimeMillis, catchupBatchSize,
-                    maxAllowedShippingLag, inFlightMap );
+                    catchupWindow, maxAllowedShippingLag, inFlightMap, lagMonitor );
 
             logShippers.put( member, logShipper );
 
@@ -35,7 +35,7 @@ import org.neo4j.coreedge.raft.replication.tx.ReplicatedTransactionStateMachine;
 import org.neo4j.coreedge.server.core.RecoverTransactionLogState;
 import org.neo4j.coreedge.server.core.locks.ReplicatedLockTokenRequest;
 import org.neo4j.coreedge.server.core.locks.ReplicatedLockTokenStateMachine;
-import org.neo4j.kernel.impl.api.TransactionRepresentationCommitProcess;
+import org.neo4j.kernel.impl.api.TransactionCommitProcess;
 import org.neo4j.kernel.impl.core.RelationshipTypeToken;
 import org.neo4j.storageengine.api.Token;
 
@@ -136,7 +136,7 @@ public class CoreStateMachines
         coreState.skip( snapshotPrevIndex );
     }
 
-    public void refresh( TransactionRepresentationCommitProcess localCommit )
+    public void refresh( TransactionCommitProcess localCommit )
     {
         assert !runningBatch;
 
@@ -31,6 +31,7 @@ import static org.neo4j.kernel.configuration.Settings.ANY;
 import static org.neo4j.kernel.configuration.Settings.BOOLEAN;
 import static org.neo4j.kernel.configuration.Settings.BYTES;
 import static org.neo4j.kernel.configuration.Settings.DURATION;
+import static org.neo4j.kernel.configuration.Settings.FALSE;
 import static org.neo4j.kernel.configuration.Settings.INTEGER;
 import static org.neo4j.kernel.configuration.Settings.MANDATORY;
 import static org.neo4j.kernel.configuration.Settings.STRING;
@@ -89,6 +90,11 @@ public class CoreEdgeClusterSettings
     public static final Setting<Integer> catchup_batch_size =
             setting( "core_edge.catchup_batch_size", INTEGER, "64" );
 
+    @Description("The maximum number of batches sent to a follower that is catching up before waiting for its " +
+            "response, bounded by the log shipping lag")
+    public static final Setting<Integer> catchup_window =
+            setting( "core_edge.catchup_window", INTEGER, "4", min( 1 ) );
+
     @Description("The maximum lag allowed before log shipping pauses (in unit of entries)")
     public static final Setting<Integer> log_shipping_max_lag =
             setting( "core_edge.log_shipping_max_lag", INTEGER, "256" );
@@ -208,6 +214,17 @@ public class CoreEdgeClusterSettings
     @Description( "Interval of pulling updates from cores." )
     public static final Setting<Long> pull_interval = setting( "core_edge.pull_interval", DURATION, "1s" );
 
+    @Description( "Subscribe to transactions from cores, having them streamed as soon as they are committed, rather " +
+            "than polling for them. The pull interval then decides how long the subscription may be idle before " +
+            "it is renewed, falling back to polling if the core does not respond to it." )
+    public static final Setting<Boolean> pull_subscription_enabled =
+            setting( "core_edge.pull_subscription_enabled", BOOLEAN, FALSE );
+
+    @Description( "Compress store files when copying them to other servers. Parts of store files that are all " +
+            "zeros are skipped regardless of this setting." )
+    public static final Setting<Boolean> store_copy_compression_enabled =
+            setting( "core_edge.store_copy_compression_enabled", BOOLEAN, TRUE );
+
     @Description( "The name of the core cluster." )
     @Internal
     public static final Setting<String> cluster_name = setting( "core_edge.cluster_name", STRING, "core-cluster",
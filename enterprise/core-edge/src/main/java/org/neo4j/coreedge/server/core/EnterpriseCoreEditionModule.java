@@ -39,6 +39,7 @@ import org.neo4j.coreedge.catchup.storecopy.core.CoreToCoreClient;
 import org.neo4j.coreedge.catchup.storecopy.edge.CopiedStoreRecovery;
 import org.neo4j.coreedge.catchup.storecopy.edge.StoreCopyClient;
 import org.neo4j.coreedge.catchup.storecopy.edge.StoreFetcher;
+import org.neo4j.coreedge.catchup.tx.core.TxSubscriptions;
 import org.neo4j.coreedge.catchup.tx.edge.TransactionLogCatchUpFactory;
 import org.neo4j.coreedge.catchup.tx.edge.TxPullClient;
 import org.neo4j.coreedge.discovery.CoreTopologyService;
@@ -57,6 +58,7 @@ import org.neo4j.coreedge.raft.log.InMemoryRaftLog;
 import org.neo4j.coreedge.raft.log.MonitoredRaftLog;
 import org.neo4j.coreedge.raft.log.RaftLog;
 import org.neo4j.coreedge.raft.log.RaftLogEntry;
+import org.neo4j.coreedge.raft.log.monitoring.FollowerLagMonitor;
 import org.neo4j.coreedge.raft.log.pruning.PruningScheduler;
 import org.neo4j.coreedge.raft.log.segmented.InFlightMap;
 import org.neo4j.coreedge.raft.log.segmented.SegmentedRaftLog;
@@ -124,6 +126,7 @@ import org.neo4j.kernel.NeoStoreDataSource;
 import org.neo4j.kernel.api.exceptions.ProcedureException;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.impl.api.SchemaWriteGuard;
+import org.neo4j.kernel.impl.api.TransactionCommitProcess;
 import org.neo4j.kernel.impl.api.TransactionHeaderInformation;
 import org.neo4j.kernel.impl.api.TransactionRepresentationCommitProcess;
 import org.neo4j.kernel.impl.api.index.RemoveOrphanConstraintIndexesOnStartup;
@@ -468,9 +471,11 @@ public class EnterpriseCoreEditionModule extends EditionModule implements CoreEd
                 relationshipTypeTokenStateMachine, propertyKeyTokenStateMachine, replicatedLockTokenStateMachine,
                 idAllocationStateMachine, coreState, txLogState, raftLog, localDatabase );
 
+        TxSubscriptions txSubscriptions = new TxSubscriptions();
+
         commitProcessFactory = ( appender, applier, ignored ) -> {
-            TransactionRepresentationCommitProcess localCommit =
-                    new TransactionRepresentationCommitProcess( appender, applier );
+            TransactionCommitProcess localCommit = txSubscriptions.notifyingAfterCommit(
+                    new TransactionRepresentationCommitProcess( appender, applier ) );
             coreStateMachines.refresh( localCommit ); // This gets called when a core-to-core download is performed.
             return new ReplicatedTransactionCommitProcess( replicator );
         };
@@ -509,7 +514,9 @@ public class EnterpriseCoreEditionModule extends EditionModule implements CoreEd
                 platformModule.dependencies.provideDependency( TransactionIdStore.class ),
                 platformModule.dependencies.provideDependency( LogicalTransactionStore.class ),
                 new DataSourceSupplier( platformModule ), new CheckpointerSupplier( platformModule.dependencies ),
-                coreState, config.get( CoreEdgeClusterSettings.transaction_listen_address ), platformModule.monitors );
+                coreState, txSubscriptions, config.get( CoreEdgeClusterSettings.store_copy_compression_enabled ),
+                config.get( CoreEdgeClusterSettings.transaction_listen_address ),
+                platformModule.monitors );
 
         long joinCatchupTimeout = config.get( CoreEdgeClusterSettings.join_catch_up_timeout );
 
@@ -654,7 +661,9 @@ public class EnterpriseCoreEditionModule extends EditionModule implements CoreEd
                 new RaftLogShippingManager( raftOutbound, logProvider, raftLog, Clock.systemUTC(),
                         myself, raftMembershipManager, electionTimeout,
                         config.get( CoreEdgeClusterSettings.catchup_batch_size ),
-                        config.get( CoreEdgeClusterSettings.log_shipping_max_lag ), inFlightMap );
+                        config.get( CoreEdgeClusterSettings.catchup_window ),
+                        config.get( CoreEdgeClusterSettings.log_shipping_max_lag ), inFlightMap,
+                        monitors.newMonitor( FollowerLagMonitor.class ) );
 
         RaftInstance raftInstance =
                 new RaftInstance( myself, termState, voteState, raftLog, raftStateMachine, electionTimeout,
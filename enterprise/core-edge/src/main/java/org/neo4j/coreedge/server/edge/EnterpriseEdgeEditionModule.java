@@ -181,7 +181,8 @@ public class EnterpriseEdgeEditionModule extends EditionModule
         DelayedRenewableTimeoutService txPullerTimeoutService = new DelayedRenewableTimeoutService( Clock.systemUTC(), logProvider );
         TxPollingClient txPuller = new TxPollingClient( logProvider,
                 edgeToCoreClient, new ConnectToRandomCoreServer( discoveryService ),
-                txPullerTimeoutService, config.get( CoreEdgeClusterSettings.pull_interval ), batchingTxApplier );
+                txPullerTimeoutService, config.get( CoreEdgeClusterSettings.pull_interval ),
+                config.get( CoreEdgeClusterSettings.pull_subscription_enabled ), batchingTxApplier );
 
         txPulling.add( batchingTxApplier );
         txPulling.add( txApplyJob );
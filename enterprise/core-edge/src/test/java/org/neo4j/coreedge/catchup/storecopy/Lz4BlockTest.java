@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.coreedge.catchup.storecopy;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class Lz4BlockTest
+{
+    private final Lz4Block lz4 = new Lz4Block();
+    private final Random random = new Random( 1234 );
+
+    @Test
+    public void shouldRoundTripEmptyBlock() throws Exception
+    {
+        assertRoundTrips( new byte[0] );
+    }
+
+    @Test
+    public void shouldRoundTripRandomBytes() throws Exception
+    {
+        for ( int length : new int[]{1, 5, 12, 13, 100, 4096, FileChunk.MAX_SIZE} )
+        {
+            byte[] bytes = new byte[length];
+            random.nextBytes( bytes );
+            assertRoundTrips( bytes );
+        }
+    }
+
+    @Test
+    public void shouldCompressRepetitiveBytes() throws Exception
+    {
+        // given
+        byte[] bytes = new byte[FileChunk.MAX_SIZE];
+        for ( int i = 0; i < bytes.length; i++ )
+        {
+            bytes[i] = (byte) (i % 64 < 8 ? random.nextInt( 4 ) : i % 7);
+        }
+
+        // when
+        int compressedLength = assertRoundTrips( bytes );
+
+        // then
+        assertTrue( "compressed to " + compressedLength, compressedLength < bytes.length / 2 );
+    }
+
+    @Test
+    public void shouldRoundTripLongRunsOfTheSameByte() throws Exception
+    {
+        byte[] bytes = new byte[FileChunk.MAX_SIZE];
+        for ( int i = 1000; i < bytes.length - 1000; i++ )
+        {
+            bytes[i] = 42;
+        }
+        assertRoundTrips( bytes );
+    }
+
+    @Test
+    public void shouldFailOnTruncatedBlock() throws Exception
+    {
+        // given
+        byte[] bytes = new byte[1000];
+        for ( int i = 0; i < bytes.length; i++ )
+        {
+            bytes[i] = (byte) (i % 10);
+        }
+        byte[] compressed = new byte[Lz4Block.maxCompressedLength( bytes.length )];
+        int compressedLength = lz4.compress( bytes, bytes.length, compressed );
+
+        // when
+        try
+        {
+            Lz4Block.decompress( compressed, compressedLength - 1, new byte[bytes.length], bytes.length );
+            fail( "Should have failed" );
+        }
+        catch ( IOException e )
+        {
+            // then expected
+        }
+    }
+
+    private int assertRoundTrips( byte[] bytes ) throws IOException
+    {
+        byte[] compressed = new byte[Lz4Block.maxCompressedLength( bytes.length )];
+        int compressedLength = lz4.compress( bytes, bytes.length, compressed );
+
+        byte[] decompressed = new byte[bytes.length];
+        Lz4Block.decompress( compressed, compressedLength, decompressed, bytes.length );
+
+        assertArrayEquals( bytes, decompressed );
+        return compressedLength;
+    }
+}
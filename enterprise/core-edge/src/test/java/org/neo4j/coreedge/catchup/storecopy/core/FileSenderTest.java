@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.coreedge.catchup.storecopy.core;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+import org.neo4j.coreedge.catchup.storecopy.FileChunk;
+import org.neo4j.coreedge.catchup.storecopy.Lz4Block;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FileSenderTest
+{
+    private final Random random = new Random( 1234 );
+
+    @Test
+    public void shouldSendEmptyFileAsSingleLastChunk() throws Exception
+    {
+        // when
+        List<FileChunk> chunks = readChunks( new byte[0], 0, true );
+
+        // then
+        assertEquals( 1, chunks.size() );
+        assertTrue( chunks.get( 0 ).isLast() );
+        assertEquals( 0, chunks.get( 0 ).length() );
+        assertEquals( new CRC32().getValue(), chunks.get( 0 ).checksum() );
+    }
+
+    @Test
+    public void shouldSendZeroChunksWithoutPayload() throws Exception
+    {
+        // given
+        byte[] file = new byte[FileChunk.MAX_SIZE * 3];
+        random.nextBytes( file );
+        for ( int i = FileChunk.MAX_SIZE; i < FileChunk.MAX_SIZE * 2; i++ )
+        {
+            file[i] = 0;
+        }
+
+        // when
+        List<FileChunk> chunks = readChunks( file, file.length, true );
+
+        // then
+        assertEquals( FileChunk.Encoding.ZEROS, chunks.get( 1 ).encoding() );
+        assertEquals( 0, chunks.get( 1 ).payload().length );
+        assertArrayEquals( file, contentsOf( chunks ) );
+    }
+
+    @Test
+    public void shouldCompressChunksWhenEnabled() throws Exception
+    {
+        // given
+        byte[] file = new byte[FileChunk.MAX_SIZE + 100];
+        for ( int i = 0; i < file.length; i++ )
+        {
+            file[i] = (byte) (i % 13);
+        }
+
+        // when
+        List<FileChunk> compressed = readChunks( file, file.length, true );
+        List<FileChunk> uncompressed = readChunks( file, file.length, false );
+
+        // then
+        assertEquals( FileChunk.Encoding.LZ4, compressed.get( 0 ).encoding() );
+        assertEquals( FileChunk.Encoding.RAW, uncompressed.get( 0 ).encoding() );
+        assertArrayEquals( file, contentsOf( compressed ) );
+        assertArrayEquals( file, contentsOf( uncompressed ) );
+    }
+
+    @Test
+    public void shouldStopAtTheAnnouncedFileLength() throws Exception
+    {
+        // given
+        byte[] file = new byte[1000];
+        random.nextBytes( file );
+
+        // when
+        List<FileChunk> chunks = readChunks( file, 600, true );
+
+        // then
+        assertEquals( 1, chunks.size() );
+        assertEquals( 600, chunks.get( 0 ).length() );
+    }
+
+    private List<FileChunk> readChunks( byte[] file, long fileLength, boolean compress ) throws Exception
+    {
+        FileSender sender = new FileSender( Channels.newChannel( new ByteArrayInputStream( file ) ), fileLength,
+                compress );
+        List<FileChunk> chunks = new ArrayList<>();
+        while ( !sender.isEndOfInput() )
+        {
+            chunks.add( sender.readChunk( null ) );
+        }
+        assertNull( sender.readChunk( null ) );
+        sender.close();
+
+        for ( int i = 0; i < chunks.size() - 1; i++ )
+        {
+            assertFalse( chunks.get( i ).isLast() );
+        }
+        assertTrue( chunks.get( chunks.size() - 1 ).isLast() );
+        return chunks;
+    }
+
+    private byte[] contentsOf( List<FileChunk> chunks ) throws Exception
+    {
+        ByteArrayOutputStream contents = new ByteArrayOutputStream();
+        byte[] buffer = new byte[FileChunk.MAX_SIZE];
+        for ( FileChunk chunk : chunks )
+        {
+            switch ( chunk.encoding() )
+            {
+            case RAW:
+                contents.write( chunk.payload() );
+                break;
+            case LZ4:
+                Lz4Block.decompress( chunk.payload(), chunk.payload().length, buffer, chunk.length() );
+                contents.write( buffer, 0, chunk.length() );
+                break;
+            default:
+                contents.write( new byte[chunk.length()] );
+            }
+        }
+
+        byte[] bytes = contents.toByteArray();
+        CRC32 checksum = new CRC32();
+        checksum.update( bytes );
+        assertEquals( checksum.getValue(), chunks.get( chunks.size() - 1 ).checksum() );
+        return bytes;
+    }
+}
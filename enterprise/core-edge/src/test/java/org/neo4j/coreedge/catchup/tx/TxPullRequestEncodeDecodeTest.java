@@ -57,4 +57,27 @@ public class TxPullRequestEncodeDecodeTest
         assertEquals( sent, received );
     }
 
+    @Test
+    public void shouldEncodeAndDecodeSubscribeRequestMessage()
+    {
+        CatchupServerProtocol protocol = new CatchupServerProtocol();
+        protocol.expect( NextMessage.TX_SUBSCRIBE );
+
+        EmbeddedChannel channel = new EmbeddedChannel( new TxPullRequestEncoder(),
+                new TxPullRequestDecoder( protocol ) );
+
+        // given
+        final long arbitraryId = 23;
+        TxPullRequest sent = new TxPullRequest( arbitraryId, true );
+
+        // when
+        channel.writeOutbound( sent );
+        channel.writeInbound( channel.readOutbound() );
+
+        // then
+        TxPullRequest received = (TxPullRequest) channel.readInbound();
+        assertNotSame( sent, received );
+        assertEquals( sent, received );
+    }
+
 }
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.coreedge.catchup.tx.core;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.concurrent.EventExecutor;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import org.neo4j.coreedge.catchup.CatchupServerProtocol;
+import org.neo4j.coreedge.catchup.ResponseMessageType;
+import org.neo4j.coreedge.catchup.tx.edge.TxPullRequest;
+import org.neo4j.coreedge.catchup.tx.edge.TxPullResponse;
+import org.neo4j.cursor.IOCursor;
+import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.LogicalTransactionStore;
+import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
+import org.neo4j.kernel.impl.transaction.log.entry.OnePhaseCommit;
+import org.neo4j.kernel.monitoring.Monitors;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.isA;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.coreedge.catchup.CatchupServerProtocol.NextMessage;
+import static org.neo4j.kernel.impl.store.StoreId.DEFAULT;
+
+public class TxPullRequestHandlerTest
+{
+    private final CatchupServerProtocol protocol = new CatchupServerProtocol();
+    private final TransactionIdStore transactionIdStore = mock( TransactionIdStore.class );
+    private final LogicalTransactionStore logicalTransactionStore = mock( LogicalTransactionStore.class );
+    private final TxSubscriptions subscriptions = new TxSubscriptions();
+    private final ChannelHandlerContext context = mock( ChannelHandlerContext.class );
+
+    private final TxPullRequestHandler handler = new TxPullRequestHandler( protocol, () -> DEFAULT,
+            () -> transactionIdStore, () -> logicalTransactionStore, subscriptions, new Monitors() );
+
+    @Before
+    public void setUp() throws Exception
+    {
+        Channel channel = mock( Channel.class );
+        when( channel.isWritable() ).thenReturn( true );
+        when( context.channel() ).thenReturn( channel );
+
+        EventExecutor eventLoop = mock( EventExecutor.class );
+        doAnswer( invocation -> {
+            ((Runnable) invocation.getArguments()[0]).run();
+            return null;
+        } ).when( eventLoop ).execute( any( Runnable.class ) );
+        when( context.executor() ).thenReturn( eventLoop );
+
+        when( logicalTransactionStore.getTransactions( anyLong() ) ).thenAnswer(
+                invocation -> transactionsFrom( (Long) invocation.getArguments()[0] ) );
+    }
+
+    @Test
+    public void shouldStreamTransactionsCommittedAfterSubscribing() throws Exception
+    {
+        // given
+        lastCommittedTransaction( 5 );
+        subscribeAt( 5 );
+
+        // when
+        lastCommittedTransaction( 7 );
+        subscriptions.transactionsCommitted();
+
+        // then
+        verify( context, times( 2 ) ).write( ResponseMessageType.TX );
+        verify( context, times( 2 ) ).write( isA( TxPullResponse.class ) );
+    }
+
+    @Test
+    public void shouldStopStreamingTransactionsWhenAnotherRequestArrives() throws Exception
+    {
+        // given
+        lastCommittedTransaction( 5 );
+        subscribeAt( 5 );
+
+        // when
+        protocol.expect( NextMessage.GET_STORE );
+        ByteBuf storeRequest = mock( ByteBuf.class );
+        handler.channelRead( context, storeRequest );
+        lastCommittedTransaction( 7 );
+        subscriptions.transactionsCommitted();
+
+        // then
+        verify( context ).fireChannelRead( storeRequest );
+        verify( context, never() ).write( ResponseMessageType.TX );
+        verify( context, never() ).write( isA( TxPullResponse.class ) );
+    }
+
+    @Test
+    public void shouldNotStreamTransactionsWhileTheNextRequestIsArriving() throws Exception
+    {
+        // given
+        lastCommittedTransaction( 5 );
+        subscribeAt( 5 );
+
+        // when
+        protocol.expect( NextMessage.GET_STORE );
+        lastCommittedTransaction( 7 );
+        subscriptions.transactionsCommitted();
+
+        // then
+        verify( context, never() ).write( ResponseMessageType.TX );
+    }
+
+    private void subscribeAt( long txId ) throws Exception
+    {
+        protocol.expect( NextMessage.TX_SUBSCRIBE );
+        handler.channelRead( context, new TxPullRequest( txId, true ) );
+        verify( context ).write( ResponseMessageType.TX_STREAM_FINISHED );
+    }
+
+    private void lastCommittedTransaction( long txId )
+    {
+        when( transactionIdStore.getLastCommittedTransactionId() ).thenReturn( txId );
+    }
+
+    private IOCursor<CommittedTransactionRepresentation> transactionsFrom( long txId )
+    {
+        long lastTxId = transactionIdStore.getLastCommittedTransactionId();
+        return new IOCursor<CommittedTransactionRepresentation>()
+        {
+            private long next = txId;
+            private CommittedTransactionRepresentation current;
+
+            @Override
+            public boolean next() throws IOException
+            {
+                if ( next > lastTxId )
+                {
+                    return false;
+                }
+                current = new CommittedTransactionRepresentation( null, null, new OnePhaseCommit( next++, 0 ) );
+                return true;
+            }
+
+            @Override
+            public void close() throws IOException
+            {
+            }
+
+            @Override
+            public CommittedTransactionRepresentation get()
+            {
+                return current;
+            }
+        };
+    }
+}
@@ -114,4 +114,81 @@ public class TxPollingClientTest
         // then
         verify( timeoutService.getTimeout( TX_PULLER_TIMEOUT ) ).renew();
     }
+
+    @Test
+    public void shouldSubscribeOnTickWhenSubscribing() throws Throwable
+    {
+        // given
+        TxPollingClient subscriber = startSubscribingClient();
+        long lastQueuedTxId = 99L;
+        when( txApplier.lastQueuedTxId() ).thenReturn( lastQueuedTxId );
+
+        // when
+        timeoutService.invokeTimeout( TX_PULLER_TIMEOUT );
+
+        // then
+        verify( coreClient ).subscribeToTransactions( any( CoreMember.class ), eq( lastQueuedTxId ) );
+        verify( coreClient, never() ).pollForTransactions( any( CoreMember.class ), anyLong() );
+        subscriber.stop();
+    }
+
+    @Test
+    public void shouldQueueStreamedTransactionsWhileSubscribed() throws Throwable
+    {
+        // given
+        TxPollingClient subscriber = startSubscribingClient();
+        timeoutService.invokeTimeout( TX_PULLER_TIMEOUT );
+        subscriber.onTxStreamingComplete( 99L );
+        CommittedTransactionRepresentation tx = mock( CommittedTransactionRepresentation.class );
+
+        // when
+        subscriber.onTxReceived( new TxPullResponse( DEFAULT, tx ) );
+        subscriber.onTxReceived( new TxPullResponse( DEFAULT, tx ) );
+
+        // then
+        verify( txApplier, times( 2 ) ).queue( tx );
+        subscriber.stop();
+    }
+
+    @Test
+    public void shouldRenewIdleSubscriptionOnTick() throws Throwable
+    {
+        // given
+        TxPollingClient subscriber = startSubscribingClient();
+        timeoutService.invokeTimeout( TX_PULLER_TIMEOUT );
+        subscriber.onTxStreamingComplete( 99L );
+
+        // when
+        timeoutService.invokeTimeout( TX_PULLER_TIMEOUT );
+
+        // then
+        verify( coreClient, times( 2 ) ).subscribeToTransactions( any( CoreMember.class ), anyLong() );
+        verify( coreClient, never() ).pollForTransactions( any( CoreMember.class ), anyLong() );
+        subscriber.stop();
+    }
+
+    @Test
+    public void shouldFallBackToPullingIfSubscriptionIsNotConfirmed() throws Throwable
+    {
+        // given
+        TxPollingClient subscriber = startSubscribingClient();
+        timeoutService.invokeTimeout( TX_PULLER_TIMEOUT );
+
+        // when
+        timeoutService.invokeTimeout( TX_PULLER_TIMEOUT );
+
+        // then
+        verify( coreClient ).subscribeToTransactions( any( CoreMember.class ), anyLong() );
+        verify( coreClient ).pollForTransactions( any( CoreMember.class ), anyLong() );
+        subscriber.stop();
+    }
+
+    private TxPollingClient startSubscribingClient() throws Throwable
+    {
+        txPuller.stop();
+        TxPollingClient subscriber = new TxPollingClient( NullLogProvider.getInstance(), coreClient, serverSelection,
+                timeoutService, txPullTimeoutMillis, true, txApplier );
+        subscriber.start();
+        return subscriber;
+    }
 }
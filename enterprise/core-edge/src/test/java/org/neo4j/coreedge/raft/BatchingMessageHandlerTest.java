@@ -21,16 +21,23 @@ package org.neo4j.coreedge.raft;
 
 import org.junit.Test;
 
+import java.util.UUID;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
+import org.mockito.InOrder;
+
 import org.neo4j.coreedge.catchup.storecopy.LocalDatabase;
+import org.neo4j.coreedge.raft.log.RaftLogEntry;
 import org.neo4j.coreedge.raft.net.Inbound;
+import org.neo4j.coreedge.server.CoreMember;
 import org.neo4j.logging.NullLogProvider;
 
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
 
 public class BatchingMessageHandlerTest
@@ -152,4 +159,70 @@ public class BatchingMessageHandlerTest
         verify( innerHandler ).handle( messageB );
         verify( innerHandler ).handle( messageD );
     }
+
+    @Test
+    public void shouldCoalesceContiguousAppendEntriesRequests() throws Exception
+    {
+        // given
+        @SuppressWarnings( "unchecked" )
+        Inbound.MessageHandler<RaftMessages.RaftMessage> innerHandler = mock( Inbound.MessageHandler.class );
+
+        BatchingMessageHandler batchHandler = new BatchingMessageHandler(
+                innerHandler, NullLogProvider.getInstance(), QUEUE_SIZE, MAX_BATCH );
+        CoreMember leader = new CoreMember( UUID.randomUUID() );
+        RaftLogEntry entryA = new RaftLogEntry( 1, new ReplicatedString( "A" ) );
+        RaftLogEntry entryB = new RaftLogEntry( 1, new ReplicatedString( "B" ) );
+        RaftLogEntry entryC = new RaftLogEntry( 1, new ReplicatedString( "C" ) );
+
+        batchHandler.handle( new RaftMessages.AppendEntries.Request( leader, 1, -1, -1,
+                new RaftLogEntry[]{entryA}, -1 ) );
+        batchHandler.handle( new RaftMessages.AppendEntries.Request( leader, 1, 0, 1,
+                new RaftLogEntry[]{entryB, entryC}, 0 ) );
+
+        // when
+        batchHandler.run();
+
+        // then
+        verify( innerHandler ).handle( new RaftMessages.AppendEntries.Request( leader, 1, -1, -1,
+                new RaftLogEntry[]{entryA, entryB, entryC}, 0 ) );
+        verifyNoMoreInteractions( innerHandler );
+    }
+
+    @Test
+    public void shouldNotCoalesceAppendEntriesRequestsWithAGap() throws Exception
+    {
+        // given
+        @SuppressWarnings( "unchecked" )
+        Inbound.MessageHandler<RaftMessages.RaftMessage> innerHandler = mock( Inbound.MessageHandler.class );
+
+        BatchingMessageHandler batchHandler = new BatchingMessageHandler(
+                innerHandler, NullLogProvider.getInstance(), QUEUE_SIZE, MAX_BATCH );
+        CoreMember leader = new CoreMember( UUID.randomUUID() );
+        RaftLogEntry entryA = new RaftLogEntry( 1, new ReplicatedString( "A" ) );
+        RaftLogEntry entryC = new RaftLogEntry( 1, new ReplicatedString( "C" ) );
+
+        RaftMessages.AppendEntries.Request first = new RaftMessages.AppendEntries.Request( leader, 1, -1, -1,
+                new RaftLogEntry[]{entryA}, -1 );
+        RaftMessages.Heartbeat heartbeat = new RaftMessages.Heartbeat( leader, 1, -1, 1 );
+        RaftMessages.AppendEntries.Request second = new RaftMessages.AppendEntries.Request( leader, 1, 0, 1,
+                new RaftLogEntry[]{entryC}, -1 );
+        RaftMessages.AppendEntries.Request gapped = new RaftMessages.AppendEntries.Request( leader, 1, 5, 1,
+                new RaftLogEntry[]{entryC}, -1 );
+
+        batchHandler.handle( first );
+        batchHandler.handle( heartbeat );
+        batchHandler.handle( second );
+        batchHandler.handle( gapped );
+
+        // when
+        batchHandler.run();
+
+        // then
+        InOrder inOrder = inOrder( innerHandler );
+        inOrder.verify( innerHandler ).handle( first );
+        inOrder.verify( innerHandler ).handle( heartbeat );
+        inOrder.verify( innerHandler ).handle( second );
+        inOrder.verify( innerHandler ).handle( gapped );
+        verifyNoMoreInteractions( innerHandler );
+    }
 }
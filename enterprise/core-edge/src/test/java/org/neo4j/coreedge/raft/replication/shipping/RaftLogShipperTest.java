@@ -27,6 +27,7 @@ import java.io.IOException;
 import java.time.Clock;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.neo4j.coreedge.catchup.storecopy.LocalDatabase;
@@ -40,6 +41,7 @@ import org.neo4j.coreedge.raft.log.DelegatingRaftLog;
 import org.neo4j.coreedge.raft.log.InMemoryRaftLog;
 import org.neo4j.coreedge.raft.log.RaftLog;
 import org.neo4j.coreedge.raft.log.RaftLogEntry;
+import org.neo4j.coreedge.raft.log.monitoring.FollowerLagMonitor;
 import org.neo4j.coreedge.raft.log.segmented.InFlightMap;
 import org.neo4j.coreedge.server.CoreMember;
 import org.neo4j.helpers.collection.Iterables;
@@ -55,6 +57,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.neo4j.coreedge.server.RaftTestMember.member;
 import static org.neo4j.test.matchers.Matchers.hasMessage;
@@ -70,9 +73,11 @@ public class RaftLogShipperTest
     private long leaderCommit;
     private long retryTimeMillis;
     private int catchupBatchSize = 64;
+    private int catchupWindow = 1;
     private int maxAllowedShippingLag = 256;
     private LogProvider logProvider;
     private Log log;
+    private FollowerLagMonitor lagMonitor;
 
     private RaftLogShipper logShipper;
 
@@ -97,6 +102,7 @@ public class RaftLogShipperTest
         logProvider = mock( LogProvider.class );
         log = mock( Log.class );
         when( logProvider.getLog( RaftLogShipper.class ) ).thenReturn( log );
+        lagMonitor = mock( FollowerLagMonitor.class );
     }
 
     @After
@@ -116,8 +122,8 @@ public class RaftLogShipperTest
 
         logShipper =
                 new RaftLogShipper( outbound, logProvider, raftLog, clock, leader, follower, leaderTerm, leaderCommit,
-                        retryTimeMillis, catchupBatchSize, maxAllowedShippingLag, new InFlightMap<>()
-                );
+                        retryTimeMillis, catchupBatchSize, catchupWindow, maxAllowedShippingLag, new InFlightMap<>(),
+                        lagMonitor );
         logShipper.start();
     }
 
@@ -372,4 +378,75 @@ public class RaftLogShipperTest
         pruningThread.join();
     }
 
+    @Test
+    public void shouldKeepSeveralBatchesOutstandingInCatchup() throws Throwable
+    {
+        // given
+        catchupBatchSize = 2;
+        catchupWindow = 3;
+        List<RaftLogEntry> entries = appendEntries( 10 );
+        startLogShipper();
+        logShipper.onMismatch( 0, new LeaderContext( 0, 0 ) );
+
+        // when
+        outbound.clear();
+        logShipper.onMatch( 0, new LeaderContext( 0, 0 ) );
+
+        // then
+        assertEquals( 3, outbound.sentTo( follower ).size() );
+        assertThat( outbound.sentTo( follower ), Matchers.hasRaftLogEntries( entries.subList( 1, 7 ) ) );
+
+        // when the first batch is acknowledged
+        outbound.clear();
+        logShipper.onMatch( 2, new LeaderContext( 0, 0 ) );
+
+        // then one more batch is sent
+        assertThat( outbound.sentTo( follower ), Matchers.hasRaftLogEntries( entries.subList( 7, 9 ) ) );
+    }
+
+    @Test
+    public void shouldNotHaveMoreEntriesOutstandingInCatchupThanAllowedShippingLag() throws Throwable
+    {
+        // given
+        catchupBatchSize = 2;
+        catchupWindow = 10;
+        maxAllowedShippingLag = 5;
+        List<RaftLogEntry> entries = appendEntries( 20 );
+        startLogShipper();
+        logShipper.onMismatch( 0, new LeaderContext( 0, 0 ) );
+
+        // when
+        outbound.clear();
+        logShipper.onMatch( 0, new LeaderContext( 0, 0 ) );
+
+        // then
+        assertEquals( 2, outbound.sentTo( follower ).size() );
+        assertThat( outbound.sentTo( follower ), Matchers.hasRaftLogEntries( entries.subList( 1, 5 ) ) );
+    }
+
+    @Test
+    public void shouldReportHowFarBehindTheFollowerIs() throws Throwable
+    {
+        // given
+        appendEntries( 10 );
+        startLogShipper();
+
+        // when
+        logShipper.onMatch( 3, new LeaderContext( 0, 0 ) );
+
+        // then
+        verify( lagMonitor ).followerLag( follower, 6 );
+    }
+
+    private List<RaftLogEntry> appendEntries( int count ) throws IOException
+    {
+        List<RaftLogEntry> entries = new ArrayList<>();
+        for ( int i = 0; i < count; i++ )
+        {
+            RaftLogEntry entry = new RaftLogEntry( 0, ReplicatedInteger.valueOf( i ) );
+            raftLog.append( entry );
+            entries.add( entry );
+        }
+        return entries;
+    }
 }
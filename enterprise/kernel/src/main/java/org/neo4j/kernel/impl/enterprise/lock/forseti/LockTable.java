@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.enterprise.lock.forseti;
+
+import java.util.concurrent.locks.StampedLock;
+
+import org.neo4j.collection.primitive.PrimitiveLongObjectVisitor;
+
+/**
+ * Concurrent map from primitive resource id to the {@link ForsetiLockManager.Lock} currently held on it, one
+ * per resource type. It replaces a {@code ConcurrentHashMap<Long,Lock>} which would box every resource id and
+ * allocate a map node for every lock acquired.
+ * <p/>
+ * The table is split into a fixed number of stripes, selected by the high bits of the hashed resource id. Each
+ * stripe is a small linear probing table of parallel key and value arrays. Writers exclusively lock the stripe,
+ * which when uncontended costs about as much as the CAS a concurrent hash map would do, without any garbage.
+ * Lookups take no lock: they probe the arrays optimistically and then validate that no writer modified the stripe
+ * in the meantime, only locking the stripe for reading if one did. Removal uses backward shift deletion, which means
+ * there are no tombstones and a stripe never needs to be rebuilt because of churn.
+ */
+class LockTable
+{
+    private static final int STRIPE_BITS = 9;
+    private static final int INITIAL_STRIPE_CAPACITY = 8;
+
+    private final Stripe[] stripes = new Stripe[1 << STRIPE_BITS];
+
+    LockTable()
+    {
+        for ( int i = 0; i < stripes.length; i++ )
+        {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * @return the lock held on the given resource, or {@code null} if there is none.
+     */
+    ForsetiLockManager.Lock get( long resourceId )
+    {
+        int hash = hash( resourceId );
+        return stripe( hash ).get( resourceId, hash );
+    }
+
+    /**
+     * Puts the given lock on the given resource, unless there already is a lock on it.
+     *
+     * @return the lock already held on the resource, or {@code null} if the given lock was put.
+     */
+    ForsetiLockManager.Lock putIfAbsent( long resourceId, ForsetiLockManager.Lock lock )
+    {
+        int hash = hash( resourceId );
+        return stripe( hash ).put( resourceId, hash, lock, true );
+    }
+
+    /**
+     * Puts the given lock on the given resource, replacing any existing lock.
+     *
+     * @return the lock previously held on the resource, or {@code null} if there was none.
+     */
+    ForsetiLockManager.Lock put( long resourceId, ForsetiLockManager.Lock lock )
+    {
+        int hash = hash( resourceId );
+        return stripe( hash ).put( resourceId, hash, lock, false );
+    }
+
+    /**
+     * @return the lock removed from the given resource, or {@code null} if there was none.
+     */
+    ForsetiLockManager.Lock remove( long resourceId )
+    {
+        int hash = hash( resourceId );
+        return stripe( hash ).remove( resourceId, hash );
+    }
+
+    /**
+     * Visits all locks in this table. Each stripe is visited atomically, but the table as a whole is not. The visitor
+     * must not modify this table.
+     */
+    void visit( PrimitiveLongObjectVisitor<ForsetiLockManager.Lock,RuntimeException> visitor )
+    {
+        for ( Stripe stripe : stripes )
+        {
+            if ( stripe.visit( visitor ) )
+            {
+                return;
+            }
+        }
+    }
+
+    private Stripe stripe( int hash )
+    {
+        return stripes[stripeIndex( hash )];
+    }
+
+    static int stripeIndex( int hash )
+    {
+        return hash >>> (Integer.SIZE - STRIPE_BITS);
+    }
+
+    static int hash( long resourceId )
+    {
+        long h = resourceId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static final class Stripe
+    {
+        private final StampedLock lock = new StampedLock();
+        private long[] keys = new long[INITIAL_STRIPE_CAPACITY];
+        private ForsetiLockManager.Lock[] values = new ForsetiLockManager.Lock[INITIAL_STRIPE_CAPACITY];
+        private int size;
+
+        ForsetiLockManager.Lock get( long key, int hash )
+        {
+            long stamp = lock.tryOptimisticRead();
+            if ( stamp != 0 )
+            {
+                ForsetiLockManager.Lock value = find( keys, values, key, hash );
+                if ( lock.validate( stamp ) )
+                {
+                    return value;
+                }
+            }
+
+            // A writer got in the way
+            stamp = lock.readLock();
+            try
+            {
+                return find( keys, values, key, hash );
+            }
+            finally
+            {
+                lock.unlockRead( stamp );
+            }
+        }
+
+        /**
+         * Probes for the given key. Optimistic readers can see the arrays of different generations, or slots in the
+         * middle of being moved, so the probe stays within bounds and ends after one lap no matter what it sees. The
+         * result is only used if the read is validated afterwards.
+         */
+        private static ForsetiLockManager.Lock find( long[] keys, ForsetiLockManager.Lock[] values, long key, int hash )
+        {
+            int mask = Math.min( keys.length, values.length ) - 1;
+            int slot = hash & mask;
+            for ( int probes = 0; probes <= mask; probes++, slot = (slot + 1) & mask )
+            {
+                ForsetiLockManager.Lock value = values[slot];
+                if ( value == null )
+                {
+                    return null;
+                }
+                if ( keys[slot] == key )
+                {
+                    return value;
+                }
+            }
+            return null;
+        }
+
+        ForsetiLockManager.Lock put( long key, int hash, ForsetiLockManager.Lock value, boolean onlyIfAbsent )
+        {
+            long stamp = lock.writeLock();
+            try
+            {
+                return doPut( key, hash, value, onlyIfAbsent );
+            }
+            finally
+            {
+                lock.unlockWrite( stamp );
+            }
+        }
+
+        private ForsetiLockManager.Lock doPut( long key, int hash, ForsetiLockManager.Lock value,
+                boolean onlyIfAbsent )
+        {
+            int mask = values.length - 1;
+            int slot = hash & mask;
+            for ( ; values[slot] != null; slot = (slot + 1) & mask )
+            {
+                if ( keys[slot] == key )
+                {
+                    ForsetiLockManager.Lock existing = values[slot];
+                    if ( !onlyIfAbsent )
+                    {
+                        values[slot] = value;
+                    }
+                    return existing;
+                }
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            if ( ++size > values.length >>> 1 )
+            {
+                grow();
+            }
+            return null;
+        }
+
+        ForsetiLockManager.Lock remove( long key, int hash )
+        {
+            long stamp = lock.writeLock();
+            try
+            {
+                return doRemove( key, hash );
+            }
+            finally
+            {
+                lock.unlockWrite( stamp );
+            }
+        }
+
+        private ForsetiLockManager.Lock doRemove( long key, int hash )
+        {
+            int mask = values.length - 1;
+            for ( int slot = hash & mask; values[slot] != null; slot = (slot + 1) & mask )
+            {
+                if ( keys[slot] == key )
+                {
+                    ForsetiLockManager.Lock existing = values[slot];
+                    shiftBackInto( slot, mask );
+                    size--;
+                    return existing;
+                }
+            }
+            return null;
+        }
+
+        boolean visit( PrimitiveLongObjectVisitor<ForsetiLockManager.Lock,RuntimeException> visitor )
+        {
+            long stamp = lock.readLock();
+            try
+            {
+                for ( int slot = 0; slot < values.length; slot++ )
+                {
+                    if ( values[slot] != null && visitor.visited( keys[slot], values[slot] ) )
+                    {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            finally
+            {
+                lock.unlockRead( stamp );
+            }
+        }
+
+        /**
+         * Frees the given slot, moving later entries of the same probe sequence back so that no lookup
+         * will hit an empty slot before reaching its key.
+         */
+        private void shiftBackInto( int free, int mask )
+        {
+            values[free] = null;
+            for ( int slot = (free + 1) & mask; values[slot] != null; slot = (slot + 1) & mask )
+            {
+                int home = hash( keys[slot] ) & mask;
+                // Move the entry unless its home slot lies cyclically within (free, slot]
+                boolean homeAfterFree = free <= slot ? (home > free && home <= slot) : (home > free || home <= slot);
+                if ( !homeAfterFree )
+                {
+                    keys[free] = keys[slot];
+                    values[free] = values[slot];
+                    values[slot] = null;
+                    free = slot;
+                }
+            }
+        }
+
+        private void grow()
+        {
+            long[] oldKeys = keys;
+            ForsetiLockManager.Lock[] oldValues = values;
+            keys = new long[oldKeys.length << 1];
+            values = new ForsetiLockManager.Lock[oldValues.length << 1];
+            int mask = values.length - 1;
+            for ( int i = 0; i < oldValues.length; i++ )
+            {
+                if ( oldValues[i] != null )
+                {
+                    int slot = hash( oldKeys[i] ) & mask;
+                    while ( values[slot] != null )
+                    {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.enterprise.lock.forseti;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+
+public class LockTableTest
+{
+    @Test
+    public void shouldPutIfAbsentOnlyWhenThereIsNoLock() throws Exception
+    {
+        // Given
+        LockTable table = new LockTable();
+        ForsetiLockManager.Lock first = mock( ForsetiLockManager.Lock.class );
+        ForsetiLockManager.Lock second = mock( ForsetiLockManager.Lock.class );
+
+        // When
+        assertNull( table.putIfAbsent( 42, first ) );
+
+        // Then
+        assertSame( first, table.putIfAbsent( 42, second ) );
+        assertSame( first, table.get( 42 ) );
+        assertSame( first, table.put( 42, second ) );
+        assertSame( second, table.get( 42 ) );
+        assertSame( second, table.remove( 42 ) );
+        assertNull( table.get( 42 ) );
+        assertNull( table.remove( 42 ) );
+    }
+
+    @Test
+    public void shouldBehaveLikeAMapUnderRandomChurn() throws Exception
+    {
+        // Given
+        LockTable table = new LockTable();
+        Map<Long,ForsetiLockManager.Lock> expected = new HashMap<>();
+        ForsetiLockManager.Lock[] locks = new ForsetiLockManager.Lock[16];
+        for ( int i = 0; i < locks.length; i++ )
+        {
+            locks[i] = mock( ForsetiLockManager.Lock.class );
+        }
+        Random random = new Random( 1234 );
+
+        // When
+        for ( int i = 0; i < 200_000; i++ )
+        {
+            // A narrow key space forces long probe sequences and many backward shifts on removal
+            long resourceId = random.nextInt( 20_000 );
+            if ( random.nextBoolean() )
+            {
+                ForsetiLockManager.Lock lock = locks[random.nextInt( locks.length )];
+                assertSame( expected.putIfAbsent( resourceId, lock ), table.putIfAbsent( resourceId, lock ) );
+            }
+            else
+            {
+                assertSame( expected.remove( resourceId ), table.remove( resourceId ) );
+            }
+        }
+
+        // Then
+        for ( long resourceId = 0; resourceId < 20_000; resourceId++ )
+        {
+            assertSame( expected.get( resourceId ), table.get( resourceId ) );
+        }
+        Map<Long,ForsetiLockManager.Lock> visited = new HashMap<>();
+        table.visit( ( resourceId, lock ) ->
+        {
+            visited.put( resourceId, lock );
+            return false;
+        } );
+        assertEquals( expected, visited );
+    }
+
+    @Test
+    public void readersMustSeeLocksThatStayInTheTableWhileWritersChurnAroundThem() throws Exception
+    {
+        // Given locks on resources that stay in the table throughout, all in the same stripe to make writers and
+        // readers collide as much as possible
+        LockTable table = new LockTable();
+        ForsetiLockManager.Lock stable = mock( ForsetiLockManager.Lock.class );
+        ForsetiLockManager.Lock churning = mock( ForsetiLockManager.Lock.class );
+        long[] stableIds = new long[32];
+        long[] churningIds = new long[32];
+        long resourceId = 0;
+        for ( int i = 0; i < stableIds.length; i++ )
+        {
+            stableIds[i] = resourceId = nextIdInFirstStripe( resourceId );
+            churningIds[i] = resourceId = nextIdInFirstStripe( resourceId );
+            table.put( stableIds[i], stable );
+        }
+
+        // When writers add and remove locks on other resources, which shifts the stable locks around in the stripe
+        AtomicBoolean end = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool( 4 );
+        try
+        {
+            List<Future<?>> writers = new ArrayList<>();
+            for ( int i = 0; i < 2; i++ )
+            {
+                int seed = i;
+                writers.add( executor.submit( () ->
+                {
+                    Random random = new Random( seed );
+                    while ( !end.get() )
+                    {
+                        long id = churningIds[random.nextInt( churningIds.length )];
+                        if ( table.putIfAbsent( id, churning ) != null )
+                        {
+                            table.remove( id );
+                        }
+                    }
+                } ) );
+            }
+            List<Future<?>> readers = new ArrayList<>();
+            for ( int i = 0; i < 2; i++ )
+            {
+                readers.add( executor.submit( () ->
+                {
+                    // Then readers always find the stable locks
+                    for ( int round = 0; round < 100_000; round++ )
+                    {
+                        for ( long id : stableIds )
+                        {
+                            assertSame( "Wrong lock on " + id, stable, table.get( id ) );
+                        }
+                    }
+                } ) );
+            }
+            for ( Future<?> reader : readers )
+            {
+                reader.get( 1, MINUTES );
+            }
+            end.set( true );
+            for ( Future<?> writer : writers )
+            {
+                writer.get( 1, MINUTES );
+            }
+        }
+        finally
+        {
+            end.set( true );
+            executor.shutdown();
+        }
+    }
+
+    private static long nextIdInFirstStripe( long resourceId )
+    {
+        do
+        {
+            resourceId++;
+        }
+        while ( LockTable.stripeIndex( LockTable.hash( resourceId ) ) != 0 );
+        return resourceId;
+    }
+}
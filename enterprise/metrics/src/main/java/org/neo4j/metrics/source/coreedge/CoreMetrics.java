@@ -55,6 +55,10 @@ public class CoreMetrics extends LifecycleAdapter
     public static final String DROPPED_MESSAGES = name( CORE_EDGE_PREFIX, "dropped_messages" );
     @Documented("How many RAFT messages are queued up?")
     public static final String QUEUE_SIZE = name( CORE_EDGE_PREFIX, "queue_sizes" );
+    @Documented("How many RAFT log entries the follower that is furthest behind the leader has yet to acknowledge")
+    public static final String MAX_FOLLOWER_LAG = name( CORE_EDGE_PREFIX, "max_follower_lag" );
+    @Documented("How many RAFT log entries each follower has yet to acknowledge, one gauge per follower id")
+    public static final String FOLLOWER_LAG = name( CORE_EDGE_PREFIX, "follower_lag" );
 
     private Monitors monitors;
     private MetricRegistry registry;
@@ -67,12 +71,14 @@ public class CoreMetrics extends LifecycleAdapter
     private final TxPullRequestsMetric txPullRequestsMetric = new TxPullRequestsMetric();
     private final TxRetryMetric txRetryMetric = new TxRetryMetric();
     private final MessageQueueMonitorMetric messageQueueMetric = new MessageQueueMonitorMetric();
+    private final FollowerLagMetric followerLagMetric;
 
     public CoreMetrics( Monitors monitors, MetricRegistry registry, Supplier<CoreMetaData> coreMetaData )
     {
         this.monitors = monitors;
         this.registry = registry;
         this.coreMetaData = coreMetaData;
+        this.followerLagMetric = new FollowerLagMetric( registry, FOLLOWER_LAG );
     }
 
     @Override
@@ -85,6 +91,7 @@ public class CoreMetrics extends LifecycleAdapter
         monitors.addMonitorListener( txPullRequestsMetric );
         monitors.addMonitorListener( txRetryMetric );
         monitors.addMonitorListener( messageQueueMetric );
+        monitors.addMonitorListener( followerLagMetric );
 
         registry.register( COMMIT_INDEX, (Gauge<Long>) raftLogCommitIndexMetric::commitIndex );
         registry.register( APPEND_INDEX, (Gauge<Long>) raftLogAppendIndexMetric::appendIndex );
@@ -95,6 +102,7 @@ public class CoreMetrics extends LifecycleAdapter
         registry.register( IS_LEADER, new LeaderGauge() );
         registry.register( DROPPED_MESSAGES, (Gauge<Long>) messageQueueMetric::droppedMessages );
         registry.register( QUEUE_SIZE, (Gauge<Long>) messageQueueMetric::queueSizes );
+        registry.register( MAX_FOLLOWER_LAG, (Gauge<Long>) followerLagMetric::maxFollowerLag );
     }
 
     @Override
@@ -109,6 +117,8 @@ public class CoreMetrics extends LifecycleAdapter
         registry.remove( IS_LEADER );
         registry.remove( DROPPED_MESSAGES );
         registry.remove( QUEUE_SIZE );
+        registry.remove( MAX_FOLLOWER_LAG );
+        followerLagMetric.removeAll();
 
         monitors.removeMonitorListener( raftLogCommitIndexMetric );
         monitors.removeMonitorListener( raftLogAppendIndexMetric );
@@ -117,6 +127,7 @@ public class CoreMetrics extends LifecycleAdapter
         monitors.removeMonitorListener( txPullRequestsMetric );
         monitors.removeMonitorListener( txRetryMetric );
         monitors.removeMonitorListener( messageQueueMetric );
+        monitors.removeMonitorListener( followerLagMetric );
     }
 
     private class LeaderGauge implements Gauge<Integer>
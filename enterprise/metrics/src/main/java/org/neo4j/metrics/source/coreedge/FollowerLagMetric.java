@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2002-2016 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.metrics.source.coreedge;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.coreedge.raft.log.monitoring.FollowerLagMonitor;
+import org.neo4j.coreedge.server.CoreMember;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+public class FollowerLagMetric implements FollowerLagMonitor
+{
+    private final MetricRegistry registry;
+    private final String prefix;
+    private final Map<CoreMember,AtomicLong> followerLags = new ConcurrentHashMap<>();
+
+    public FollowerLagMetric( MetricRegistry registry, String prefix )
+    {
+        this.registry = registry;
+        this.prefix = prefix;
+    }
+
+    @Override
+    public void followerLag( CoreMember follower, long lag )
+    {
+        followerLags.computeIfAbsent( follower, this::register ).set( lag );
+    }
+
+    @Override
+    public void followerRemoved( CoreMember follower )
+    {
+        if ( followerLags.remove( follower ) != null )
+        {
+            registry.remove( metricName( follower ) );
+        }
+    }
+
+    public long maxFollowerLag()
+    {
+        return followerLags.values().stream().mapToLong( AtomicLong::get ).max().orElse( 0 );
+    }
+
+    public void removeAll()
+    {
+        followerLags.keySet().forEach( this::followerRemoved );
+    }
+
+    private AtomicLong register( CoreMember follower )
+    {
+        AtomicLong lag = new AtomicLong();
+        registry.register( metricName( follower ), (Gauge<Long>) lag::get );
+        return lag;
+    }
+
+    private String metricName( CoreMember follower )
+    {
+        return name( prefix, follower.getUuid().toString() );
+    }
+}
@@ -51,9 +51,17 @@ public class BoltMetrics extends LifecycleAdapter
     @Documented( "The accumulated time worker threads have spent processing messages." )
     public static final String TOTAL_PROCESSING_TIME = name( NAME_PREFIX, "accumulated_processing_time" );
 
+    @Documented( "The number of sessions with pending messages waiting for a free worker thread. Only applicable " +
+                 "when Bolt sessions are served by a worker pool." )
+    public static final String SESSIONS_QUEUED = name( NAME_PREFIX, "sessions_queued" );
+    @Documented( "The number of worker threads currently serving a session. Only applicable when Bolt sessions are " +
+                 "served by a worker pool." )
+    public static final String WORKERS_BUSY = name( NAME_PREFIX, "workers_busy" );
+
     private final MetricRegistry registry;
     private final Monitors monitors;
     private final BoltMetricsMonitor boltMonitor = new BoltMetricsMonitor();
+    private final WorkerPoolMetricsMonitor workerPoolMonitor = new WorkerPoolMetricsMonitor();
 
     public BoltMetrics( MetricRegistry registry, Monitors monitors )
     {
@@ -65,11 +73,14 @@ public class BoltMetrics extends LifecycleAdapter
     public void start()
     {
         monitors.addMonitorListener( boltMonitor );
+        monitors.addMonitorListener( workerPoolMonitor );
         registry.register( MESSAGES_RECIEVED, (Gauge<Long>) boltMonitor.recieved::get );
         registry.register( MESSAGES_STARTED, (Gauge<Long>) boltMonitor.started::get );
         registry.register( MESSAGES_DONE, (Gauge<Long>) boltMonitor.done::get );
         registry.register( TOTAL_QUEUE_TIME, (Gauge<Long>) boltMonitor.queueTime::get );
         registry.register( TOTAL_PROCESSING_TIME, (Gauge<Long>) boltMonitor.processingTime::get );
+        registry.register( SESSIONS_QUEUED, (Gauge<Long>) workerPoolMonitor.queued::get );
+        registry.register( WORKERS_BUSY, (Gauge<Long>) workerPoolMonitor.busy::get );
     }
 
     @Override
@@ -80,6 +91,9 @@ public class BoltMetrics extends LifecycleAdapter
         registry.remove( MESSAGES_DONE );
         registry.remove( TOTAL_QUEUE_TIME );
         registry.remove( TOTAL_PROCESSING_TIME );
+        registry.remove( SESSIONS_QUEUED );
+        registry.remove( WORKERS_BUSY );
+        monitors.removeMonitorListener( workerPoolMonitor );
         monitors.removeMonitorListener( boltMonitor );
     }
 
@@ -115,4 +129,29 @@ public class BoltMetrics extends LifecycleAdapter
             done.incrementAndGet();
         }
     }
+
+    private class WorkerPoolMetricsMonitor implements MonitoredSessions.WorkerPoolMonitor
+    {
+        public final AtomicLong queued = new AtomicLong();
+        public final AtomicLong busy = new AtomicLong();
+
+        @Override
+        public void sessionQueued()
+        {
+            queued.incrementAndGet();
+        }
+
+        @Override
+        public void sessionActivated()
+        {
+            queued.decrementAndGet();
+            busy.incrementAndGet();
+        }
+
+        @Override
+        public void sessionDeactivated()
+        {
+            busy.decrementAndGet();
+        }
+    }
 }
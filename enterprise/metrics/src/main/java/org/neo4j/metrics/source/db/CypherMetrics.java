@@ -37,6 +37,9 @@ public class CypherMetrics extends LifecycleAdapter
     @Documented( "The total number of times Cypher has decided to re-plan a query" )
     public static final String REPLAN_EVENTS = name( NAME_PREFIX, "replan_events" );
 
+    @Documented( "The total time in milliseconds Cypher has spent re-planning queries" )
+    public static final String REPLAN_TIME = name( NAME_PREFIX, "replan_time" );
+
     private final MetricRegistry registry;
     private final Monitors monitors;
     private final PlanCacheMetricsMonitor cacheMonitor = new PlanCacheMetricsMonitor();
@@ -52,12 +55,14 @@ public class CypherMetrics extends LifecycleAdapter
     {
         monitors.addMonitorListener( cacheMonitor );
         registry.register( REPLAN_EVENTS, (Gauge<Long>) cacheMonitor::numberOfReplans );
+        registry.register( REPLAN_TIME, (Gauge<Long>) cacheMonitor::replanTimeMillis );
     }
 
     @Override
     public void stop()
     {
         registry.remove( REPLAN_EVENTS );
+        registry.remove( REPLAN_TIME );
         monitors.removeMonitorListener( cacheMonitor );
     }
 }